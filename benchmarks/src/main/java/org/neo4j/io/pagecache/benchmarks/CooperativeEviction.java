@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.benchmarks;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.io.pagecache.PageCacheAlgorithm;
+import org.neo4j.io.pagecache.PageCacheAlgorithmFactory;
+import org.neo4j.io.pagecache.PageData;
+import org.neo4j.io.pagecache.impl.muninn.MuninnPageCache;
+import org.neo4j.io.pagecache.impl.muninn.PageList;
+import org.neo4j.io.pagecache.tracing.EvictionEventOpportunity;
+import org.neo4j.io.pagecache.tracing.PageFaultEvent;
+
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
+
+/**
+ * The cost of {@link PageCacheAlgorithm#cooperativlyEvict(PageFaultEvent, PageList) cooperative eviction}, where the
+ * page faulting threads pick the pages to evict with the eviction algorithm themselves.
+ * <p>
+ * The benchmark reads from a file that is four times the size of the page cache, with the background eviction
+ * threads turned off, so every page fault has to evict a page. Next to the throughput of the reads, it counts the
+ * {@code evictions} and the {@code evictionNanos} spent in the eviction algorithm, which gives the cost per eviction.
+ */
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.SECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+// Keeping no pages free leaves the background eviction threads with nothing to do.
+@Fork( value = 1, jvmArgsAppend = "-Dorg.neo4j.io.pagecache.impl.muninn.MuninnPageCache.pagesToKeepFree=0" )
+public class CooperativeEviction extends PageCacheBenchmark
+{
+    @Override
+    long filePages()
+    {
+        return cachePages * 4L;
+    }
+
+    @Override
+    PageCacheAlgorithmFactory algorithmFactory( PageCacheAlgorithmFactory algorithmFactory )
+    {
+        return new TimedAlgorithmFactory( algorithmFactory );
+    }
+
+    @Benchmark
+    public long read( Reader reader, EvictionCounters counters ) throws IOException
+    {
+        return reader.read();
+    }
+
+    @State( Scope.Thread )
+    public static class Reader extends Accessor
+    {
+        @Setup
+        public void setUp( CooperativeEviction benchmark, ThreadParams threadParams ) throws IOException
+        {
+            open( benchmark, threadParams, PF_SHARED_READ_LOCK );
+        }
+
+        @TearDown
+        public void tearDown()
+        {
+            close();
+        }
+    }
+
+    /**
+     * The cooperative evictions of a benchmark thread, which JMH sums up over all threads for every iteration.
+     */
+    @State( Scope.Thread )
+    @AuxCounters( AuxCounters.Type.EVENTS )
+    public static class EvictionCounters
+    {
+        private static final ThreadLocal<EvictionCounters> threadCounters = new ThreadLocal<>();
+
+        public long evictions;
+        public long evictionNanos;
+
+        @Setup( Level.Iteration )
+        public void setUp()
+        {
+            evictions = 0;
+            evictionNanos = 0;
+            threadCounters.set( this );
+        }
+    }
+
+    /**
+     * Wraps the eviction algorithms of the page cache, to count the time that every thread spends in
+     * {@link PageCacheAlgorithm#cooperativlyEvict(PageFaultEvent, PageList)}.
+     */
+    private static class TimedAlgorithmFactory implements PageCacheAlgorithmFactory
+    {
+        private final PageCacheAlgorithmFactory algorithmFactory;
+
+        TimedAlgorithmFactory( PageCacheAlgorithmFactory algorithmFactory )
+        {
+            this.algorithmFactory = algorithmFactory;
+        }
+
+        @Override
+        public String implementationName()
+        {
+            return algorithmFactory.implementationName();
+        }
+
+        @Override
+        public PageCacheAlgorithm createPageCacheAlgorithm( int cooperativeEvictionLiveLockThreshold,
+                MuninnPageCache pageCache )
+        {
+            PageCacheAlgorithm algorithm =
+                    algorithmFactory.createPageCacheAlgorithm( cooperativeEvictionLiveLockThreshold, pageCache );
+            return new PageCacheAlgorithm()
+            {
+                @Override
+                public void bind( PageList pages )
+                {
+                    algorithm.bind( pages );
+                }
+
+                @Override
+                public long cooperativlyEvict( PageFaultEvent faultEvent, PageList pages ) throws IOException
+                {
+                    long startTime = System.nanoTime();
+                    try
+                    {
+                        return algorithm.cooperativlyEvict( faultEvent, pages );
+                    }
+                    finally
+                    {
+                        EvictionCounters counters = EvictionCounters.threadCounters.get();
+                        if ( counters != null )
+                        {
+                            counters.evictions++;
+                            counters.evictionNanos += System.nanoTime() - startTime;
+                        }
+                    }
+                }
+
+                @Override
+                public long backgroundEvict( PageList pages, EvictionEventOpportunity evictionOpportunity )
+                        throws IOException
+                {
+                    return algorithm.backgroundEvict( pages, evictionOpportunity );
+                }
+
+                @Override
+                public void notifyPin( long pageRef, PageData pageData )
+                {
+                    algorithm.notifyPin( pageRef, pageData );
+                }
+
+                @Override
+                public void externalEviction( long pageRef, PageData pageData )
+                {
+                    algorithm.externalEviction( pageRef, pageData );
+                }
+
+                @Override
+                public void close()
+                {
+                    algorithm.close();
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.benchmarks;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.neo4j.graphdb.config.Configuration;
+import org.neo4j.graphdb.mockfs.EphemeralFileSystemAbstraction;
+import org.neo4j.io.mem.MemoryAllocator;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageCacheAlgorithmFactory;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.impl.SingleFilePageSwapperFactory;
+import org.neo4j.io.pagecache.impl.muninn.MuninnPageCache;
+import org.neo4j.io.pagecache.impl.muninn.PageCacheAlgorithm.PageCacheAlgorithmFactories;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracerSupplier;
+import org.neo4j.memory.GlobalMemoryTracker;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
+
+/**
+ * The base of the page cache benchmarks, which maps a single file into a {@link MuninnPageCache} that is shared by all
+ * of the benchmark threads.
+ * <p>
+ * The file lives in an {@link EphemeralFileSystemAbstraction}, so page faults and flushes cost memory copies rather
+ * than disk I/O, and the benchmarks measure the page cache itself. Tracing is turned off for the same reason.
+ */
+@State( Scope.Benchmark )
+public abstract class PageCacheBenchmark
+{
+    @Param( {PageCacheAlgorithmFactories.CLOCK, PageCacheAlgorithmFactories.LRU, PageCacheAlgorithmFactories.LRU_K,
+            PageCacheAlgorithmFactories.LFU, PageCacheAlgorithmFactories.TWO_QUEUE,
+            PageCacheAlgorithmFactories.TINY_LFU} )
+    public String algorithm;
+
+    @Param( {"SEQUENTIAL", "UNIFORM", "ZIPFIAN", "SCAN_POLLUTED"} )
+    public Workload workload;
+
+    @Param( "1" )
+    public int partitions;
+
+    // 64 MiB of 8 KiB pages.
+    @Param( "8192" )
+    public int cachePages;
+
+    private EphemeralFileSystemAbstraction fs;
+    private PageCache pageCache;
+    private PagedFile pagedFile;
+
+    /**
+     * @return the number of pages in the file that the benchmark threads access, relative to {@link #cachePages}.
+     */
+    abstract long filePages();
+
+    /**
+     * Give the benchmark a chance to wrap the eviction algorithm of the page cache.
+     */
+    PageCacheAlgorithmFactory algorithmFactory( PageCacheAlgorithmFactory algorithmFactory )
+    {
+        return algorithmFactory;
+    }
+
+    @Setup
+    public void setUp() throws IOException
+    {
+        PageCacheAlgorithmFactory algorithmFactory = PageCacheAlgorithmFactories.byName( algorithm );
+        if ( algorithmFactory == null )
+        {
+            throw new IllegalArgumentException( "Unknown page cache eviction algorithm '" + algorithm + "'" );
+        }
+
+        fs = new EphemeralFileSystemAbstraction();
+        SingleFilePageSwapperFactory swapperFactory = new SingleFilePageSwapperFactory();
+        swapperFactory.open( fs, Configuration.EMPTY );
+        MemoryAllocator memoryAllocator = MemoryAllocator.createAllocator(
+                String.valueOf( MuninnPageCache.memoryRequiredForPages( cachePages ) ), GlobalMemoryTracker.INSTANCE );
+        pageCache = new MuninnPageCache( swapperFactory, memoryAllocator, algorithmFactory( algorithmFactory ),
+                partitions, PageCacheTracer.NULL, PageCursorTracerSupplier.NULL );
+
+        File file = new File( "benchmark" ).getCanonicalFile();
+        fs.mkdirs( file.getParentFile() );
+        pagedFile = pageCache.map( file, pageCache.pageSize(), CREATE );
+        try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_WRITE_LOCK ) )
+        {
+            for ( long pageId = 0; pageId < filePages(); pageId++ )
+            {
+                cursor.next();
+                cursor.putLong( pageId );
+            }
+        }
+        pagedFile.flushAndForce();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException
+    {
+        pagedFile.close();
+        pageCache.close();
+        fs.close();
+    }
+
+    /**
+     * The cursor of a benchmark thread, and the pages that it accesses with it.
+     */
+    public abstract static class Accessor
+    {
+        private PageCursor cursor;
+        private Workload.PageIds pageIds;
+
+        void open( PageCacheBenchmark benchmark, ThreadParams threadParams, int pfFlags ) throws IOException
+        {
+            cursor = benchmark.pagedFile.io( 0, pfFlags );
+            pageIds = benchmark.workload.pageIds(
+                    benchmark.filePages(), threadParams.getThreadIndex(), threadParams.getThreadCount() );
+        }
+
+        void close()
+        {
+            cursor.close();
+        }
+
+        /**
+         * Pin the next page, read from it, and return what was read, so it can be consumed by the benchmark.
+         */
+        long read() throws IOException
+        {
+            long value;
+            cursor.next( pageIds.next() );
+            do
+            {
+                value = cursor.getLong( 0 );
+            }
+            while ( cursor.shouldRetry() );
+            return value;
+        }
+
+        /**
+         * Pin the next page, and write to it.
+         */
+        void write() throws IOException
+        {
+            long pageId = pageIds.next();
+            cursor.next( pageId );
+            cursor.putLong( 0, pageId );
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.benchmarks;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Runs the page cache benchmarks, with the usual JMH command line options.
+ * <p>
+ * Unless a thread count is given with {@code -t}, every benchmark is run with 1, 2, 4 and so on threads, up to the
+ * number of processors. Unless profilers are given with {@code -prof}, the GC profiler reports the allocation rate of
+ * the benchmarks.
+ * <p>
+ * For example, {@code java -jar benchmarks.jar PinUnpin -p algorithm=clock,w-tinylfu -p workload=ZIPFIAN} measures
+ * the pin latency of two of the eviction algorithms with a Zipfian workload.
+ */
+public class PageCacheBenchmarks
+{
+    private PageCacheBenchmarks()
+    {
+    }
+
+    public static void main( String[] args ) throws Exception
+    {
+        CommandLineOptions options = new CommandLineOptions( args );
+        if ( options.shouldHelp() || options.shouldList() || options.shouldListWithParams() ||
+             options.shouldListProfilers() || options.shouldListResultFormats() )
+        {
+            Main.main( args );
+            return;
+        }
+
+        List<Integer> threadCounts = options.getThreads().hasValue()
+                                     ? Collections.singletonList( options.getThreads().get() )
+                                     : defaultThreadCounts();
+        for ( int threads : threadCounts )
+        {
+            ChainedOptionsBuilder builder = new OptionsBuilder().parent( options ).threads( threads );
+            if ( options.getProfilers().isEmpty() )
+            {
+                builder.addProfiler( GCProfiler.class );
+            }
+            new Runner( builder.build() ).run();
+        }
+    }
+
+    private static List<Integer> defaultThreadCounts()
+    {
+        int processors = Runtime.getRuntime().availableProcessors();
+        List<Integer> threadCounts = new ArrayList<>();
+        for ( int threads = 1; threads < processors; threads *= 2 )
+        {
+            threadCounts.add( threads );
+        }
+        threadCounts.add( processors );
+        return threadCounts;
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
+
+/**
+ * The latency of pinning and unpinning pages that are already in the page cache.
+ * <p>
+ * The file is half the size of the page cache, so nothing is ever evicted, and every pin is a hit.
+ */
+@BenchmarkMode( Mode.SampleTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class PinUnpin extends PageCacheBenchmark
+{
+    @Override
+    long filePages()
+    {
+        return cachePages / 2;
+    }
+
+    @Benchmark
+    public long pinForReading( Reader reader ) throws IOException
+    {
+        return reader.read();
+    }
+
+    @Benchmark
+    public void pinForWriting( Writer writer ) throws IOException
+    {
+        writer.write();
+    }
+
+    @State( Scope.Thread )
+    public static class Reader extends Accessor
+    {
+        @Setup
+        public void setUp( PinUnpin benchmark, ThreadParams threadParams ) throws IOException
+        {
+            open( benchmark, threadParams, PF_SHARED_READ_LOCK );
+        }
+
+        @TearDown
+        public void tearDown()
+        {
+            close();
+        }
+    }
+
+    @State( Scope.Thread )
+    public static class Writer extends Accessor
+    {
+        @Setup
+        public void setUp( PinUnpin benchmark, ThreadParams threadParams ) throws IOException
+        {
+            open( benchmark, threadParams, PF_SHARED_WRITE_LOCK );
+        }
+
+        @TearDown
+        public void tearDown()
+        {
+            close();
+        }
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.benchmarks;
+
+import java.util.SplittableRandom;
+
+/**
+ * The patterns of page accesses that the page cache benchmarks can run with.
+ */
+public enum Workload
+{
+    /**
+     * Every thread reads through the file from start to end, over and over, starting from its own offset.
+     */
+    SEQUENTIAL
+            {
+                @Override
+                PageIds pageIds( long filePages, int threadIndex, int threadCount )
+                {
+                    long[] next = {threadIndex * (filePages / Math.max( 1, threadCount ))};
+                    return () ->
+                    {
+                        long pageId = next[0];
+                        next[0] = pageId + 1 == filePages ? 0 : pageId + 1;
+                        return pageId;
+                    };
+                }
+            },
+    /**
+     * Every page is as likely to be accessed as any other.
+     */
+    UNIFORM
+            {
+                @Override
+                PageIds pageIds( long filePages, int threadIndex, int threadCount )
+                {
+                    SplittableRandom random = random( threadIndex );
+                    return () -> random.nextLong( filePages );
+                }
+            },
+    /**
+     * A few pages at the start of the file are accessed far more often than the rest, like the hot records of a
+     * real database.
+     */
+    ZIPFIAN
+            {
+                @Override
+                PageIds pageIds( long filePages, int threadIndex, int threadCount )
+                {
+                    SplittableRandom random = random( threadIndex );
+                    ZipfianDistribution distribution = new ZipfianDistribution( filePages, ZIPFIAN_SKEW );
+                    return () -> distribution.sample( random.nextDouble() );
+                }
+            },
+    /**
+     * Like {@link #ZIPFIAN}, except that one in every {@link #SCAN_INTERVAL} accesses is part of a scan through
+     * the whole file, that pushes the hot pages out of caches that are not scan resistant.
+     */
+    SCAN_POLLUTED
+            {
+                @Override
+                PageIds pageIds( long filePages, int threadIndex, int threadCount )
+                {
+                    PageIds scan = SEQUENTIAL.pageIds( filePages, threadIndex, threadCount );
+                    PageIds hot = ZIPFIAN.pageIds( filePages, threadIndex, threadCount );
+                    int[] accesses = {0};
+                    return () -> ++accesses[0] % SCAN_INTERVAL == 0 ? scan.next() : hot.next();
+                }
+            };
+
+    private static final double ZIPFIAN_SKEW = 0.99;
+    private static final int SCAN_INTERVAL = 4;
+    private static final long SEED = 0x5EED;
+
+    /**
+     * Create the sequence of page ids that a benchmark thread accesses.
+     *
+     * @param filePages the number of pages in the file.
+     * @param threadIndex the index of the benchmark thread, from zero.
+     * @param threadCount the number of benchmark threads.
+     */
+    abstract PageIds pageIds( long filePages, int threadIndex, int threadCount );
+
+    private static SplittableRandom random( int threadIndex )
+    {
+        return new SplittableRandom( SEED + threadIndex );
+    }
+
+    /**
+     * A sequence of file page ids to access.
+     */
+    interface PageIds
+    {
+        long next();
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.benchmarks;
+
+/**
+ * Draws numbers from {@code [0, items)} with a Zipfian distribution, such that the number {@code i} is drawn with a
+ * probability that is proportional to {@code 1 / (i + 1)^skew}.
+ * <p>
+ * This is the method from "Quickly Generating Billion-Record Synthetic Databases" by Gray et al. It takes time
+ * proportional to the number of items to set up, and constant time to draw every number after that.
+ */
+final class ZipfianDistribution
+{
+    private final long items;
+    private final double zetaN;
+    private final double alpha;
+    private final double eta;
+    private final double secondItemThreshold;
+
+    /**
+     * @param items the number of distinct numbers to draw from.
+     * @param skew how skewed the distribution is, in {@code (0, 1)}. The closer to 1, the more often the lowest
+     * numbers are drawn.
+     */
+    ZipfianDistribution( long items, double skew )
+    {
+        if ( skew <= 0 || skew >= 1 )
+        {
+            throw new IllegalArgumentException( "Skew must be between zero and one, exclusive, but was " + skew );
+        }
+        this.items = items;
+        this.zetaN = zeta( items, skew );
+        this.alpha = 1.0 / (1.0 - skew);
+        this.eta = (1.0 - Math.pow( 2.0 / items, 1.0 - skew )) / (1.0 - zeta( 2, skew ) / zetaN);
+        this.secondItemThreshold = 1.0 + Math.pow( 0.5, skew );
+    }
+
+    /**
+     * @param uniform a number drawn uniformly from {@code [0, 1)}.
+     * @return the corresponding number drawn from this distribution.
+     */
+    long sample( double uniform )
+    {
+        double uz = uniform * zetaN;
+        if ( uz < 1.0 )
+        {
+            return 0;
+        }
+        if ( uz < secondItemThreshold )
+        {
+            return 1;
+        }
+        return Math.min( items - 1, (long) (items * Math.pow( eta * uniform - eta + 1.0, alpha )) );
+    }
+
+    private static double zeta( long items, double skew )
+    {
+        double sum = 0;
+        for ( long i = 1; i <= items; i++ )
+        {
+            sum += 1.0 / Math.pow( i, skew );
+        }
+        return sum;
+    }
+}
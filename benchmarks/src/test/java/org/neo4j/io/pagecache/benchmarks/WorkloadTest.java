@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.benchmarks;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class WorkloadTest
+{
+    private static final long FILE_PAGES = 1000;
+
+    @Test
+    public void allWorkloadsMustStayWithinTheFile()
+    {
+        for ( Workload workload : Workload.values() )
+        {
+            Workload.PageIds pageIds = workload.pageIds( FILE_PAGES, 3, 4 );
+            for ( int i = 0; i < 100_000; i++ )
+            {
+                long pageId = pageIds.next();
+                assertTrue( workload + " accessed page " + pageId, 0 <= pageId && pageId < FILE_PAGES );
+            }
+        }
+    }
+
+    @Test
+    public void sequentialWorkloadMustStartAtTheOffsetOfTheThreadAndWrapAround()
+    {
+        Workload.PageIds pageIds = Workload.SEQUENTIAL.pageIds( FILE_PAGES, 3, 4 );
+        for ( long expected = 750; expected < FILE_PAGES; expected++ )
+        {
+            assertEquals( expected, pageIds.next() );
+        }
+        assertEquals( 0, pageIds.next() );
+    }
+
+    @Test
+    public void zipfianWorkloadMustFavourTheFirstPages()
+    {
+        Workload.PageIds pageIds = Workload.ZIPFIAN.pageIds( FILE_PAGES, 0, 1 );
+        int accesses = 100_000;
+        int hotAccesses = 0;
+        for ( int i = 0; i < accesses; i++ )
+        {
+            if ( pageIds.next() < FILE_PAGES / 10 )
+            {
+                hotAccesses++;
+            }
+        }
+        // With a skew of 0.99, the first tenth of the pages get roughly two thirds of the accesses.
+        assertTrue( "Only " + hotAccesses + " accesses to the hot pages", hotAccesses > accesses / 2 );
+    }
+}
@@ -187,6 +187,31 @@ public interface JobScheduler extends Lifecycle
          */
         public static Group recoveryCleanup = new Group( "RecoveryCleanup" );
 
+        /**
+         * Parallel recovery of transactions.
+         */
+        public static Group recovery = new Group( "Recovery" );
+
+        /**
+         * Page cache warmup.
+         */
+        public static Group pageCacheWarmup = new Group( "PageCacheWarmup" );
+
+        /**
+         * Background flushing of dirty pages between check points.
+         */
+        public static Group pageCacheFlush = new Group( "PageCacheFlush" );
+
+        /**
+         * Compression of transaction log files kept for retention.
+         */
+        public static Group transactionLogCompression = new Group( "TransactionLogCompression" );
+
+        /**
+         * Compaction of the trees of the label scan store and the native schema indexes.
+         */
+        public static Group indexCompaction = new Group( "IndexCompaction" );
+
         /**
          * Kernel transaction timeout monitor.
          */
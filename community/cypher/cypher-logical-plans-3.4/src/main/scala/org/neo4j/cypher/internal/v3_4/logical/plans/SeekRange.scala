@@ -180,6 +180,24 @@ final case class PrefixRange[T](prefix: T) extends SeekRange[T] {
   override def toString: String = prefix.toString
 }
 
+/*
+  PointDistanceRange is used to describe the points within a distance of a point, for distance() predicates.
+
+  Index seeks cannot answer these directly. They seek the box around the point that holds all points within
+  the distance, and the points in that box are then filtered by their exact distance.
+*/
+final case class PointDistanceRange[T](point: T, distance: T, inclusive: Boolean) extends SeekRange[T] {
+  def map[X](f: T => X): PointDistanceRange[X] = copy(point = f(point), distance = f(distance))
+}
+
+/*
+  PointBoundingBoxRange is used to describe all points between two corners of a box, both inclusive.
+  It directly maps on geometry range queries of index implementations.
+*/
+final case class PointBoundingBoxRange[T](lowerLeft: T, upperRight: T) extends SeekRange[T] {
+  def map[X](f: T => X): PointBoundingBoxRange[X] = copy(lowerLeft = f(lowerLeft), upperRight = f(upperRight))
+}
+
 final case class MinBoundOrdering[T](inner: Ordering[T]) extends Ordering[Bound[T]] {
   override def compare(x: Bound[T], y: Bound[T]): Int = {
     val cmp = inner.compare(x.endPoint, y.endPoint)
@@ -110,6 +110,41 @@ object AsValueRangeSeekable {
   }
 }
 
+object AsDistanceSeekable {
+  def unapply(v: Any): Option[PointDistanceSeekable] = v match {
+    case lessThan@LessThan(DistanceToProperty(ident, prop, point), distance) =>
+      seekable(lessThan, ident, prop, point, distance, inclusive = false)
+    case lessThanOrEqual@LessThanOrEqual(DistanceToProperty(ident, prop, point), distance) =>
+      seekable(lessThanOrEqual, ident, prop, point, distance, inclusive = true)
+    case greaterThan@GreaterThan(distance, DistanceToProperty(ident, prop, point)) =>
+      seekable(greaterThan, ident, prop, point, distance, inclusive = false)
+    case greaterThanOrEqual@GreaterThanOrEqual(distance, DistanceToProperty(ident, prop, point)) =>
+      seekable(greaterThanOrEqual, ident, prop, point, distance, inclusive = true)
+    case _ =>
+      None
+  }
+
+  private def seekable(expr: InequalityExpression, ident: LogicalVariable, prop: LogicalProperty, point: Expression,
+                       distance: Expression, inclusive: Boolean): Option[PointDistanceSeekable] =
+    if (point.dependencies.isEmpty && distance.dependencies.isEmpty)
+      Some(PointDistanceSeekable(ident, prop.propertyKey, expr, PointDistanceRange(point, distance, inclusive)))
+    else
+      None
+}
+
+object DistanceToProperty {
+  def unapply(v: Any): Option[(LogicalVariable, LogicalProperty, Expression)] = v match {
+    case func@FunctionInvocation(_, _, _, IndexedSeq(prop@Property(ident: LogicalVariable, _), point))
+      if func.function == functions.Distance =>
+      Some((ident, prop, point))
+    case func@FunctionInvocation(_, _, _, IndexedSeq(point, prop@Property(ident: LogicalVariable, _)))
+      if func.function == functions.Distance =>
+      Some((ident, prop, point))
+    case _ =>
+      None
+  }
+}
+
 sealed trait Sargable[+T <: Expression] {
   def expr: T
   def ident: LogicalVariable
@@ -170,6 +205,16 @@ case class InequalityRangeSeekable(ident: LogicalVariable, propertyKeyName: Prop
     RangeQueryExpression(InequalitySeekRangeWrapper(range)(ident.position))
 }
 
+case class PointDistanceSeekable(ident: LogicalVariable, propertyKeyName: PropertyKeyName, expr: InequalityExpression,
+                                 range: PointDistanceRange[Expression])
+  extends RangeSeekable[InequalityExpression, Expression] {
+
+  def dependencies: Set[LogicalVariable] = Set.empty
+
+  def asQueryExpression: QueryExpression[Expression] =
+    RangeQueryExpression(PointDistanceSeekRangeWrapper(range)(ident.position))
+}
+
 sealed trait Scannable[+T <: Expression] extends Sargable[T] {
   def ident: LogicalVariable
   def property: LogicalProperty
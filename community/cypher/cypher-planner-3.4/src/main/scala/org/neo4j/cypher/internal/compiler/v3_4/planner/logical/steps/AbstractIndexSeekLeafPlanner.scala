@@ -173,6 +173,13 @@ abstract class AbstractIndexSeekLeafPlanner extends LeafPlanner with LeafPlanFro
       val queryExpression = seekable.asQueryExpression
       val keyName = seekable.propertyKeyName
       IndexPlannableExpression(seekable.name, keyName, predicate, queryExpression, hints, argumentIds)
+
+    // distance(n.prop, point) <|<= distance
+    // The index seek filters the points in the box around the point by their exact distance, so it solves the predicate
+    case predicate@AsDistanceSeekable(seekable) =>
+      val queryExpression = seekable.asQueryExpression
+      val keyName = seekable.propertyKeyName
+      IndexPlannableExpression(seekable.name, keyName, predicate, queryExpression, hints, argumentIds)
   }
 
   private def plannablesForIndex(indexDescriptor: IndexDescriptor, plannables: Set[IndexPlannableExpression])
@@ -233,6 +233,38 @@ class LeafPlanningIntegrationTest extends CypherFunSuite with LogicalPlanningTes
     )
   }
 
+  test("should plan index seek by distance for distance predicate on point property") {
+    (new given {
+      indexOn("Place", "location")
+      cost = nodeIndexScanCost
+    } getLogicalPlanFor "MATCH (a:Place) WHERE distance(a.location, {point}) < 100 RETURN a")._2 should equal(
+      NodeIndexSeek(
+        "a",
+        LabelToken("Place", LabelId(0)),
+        Seq(PropertyKeyToken(PropertyKeyName("location") _, PropertyKeyId(0))),
+        RangeQueryExpression(PointDistanceSeekRangeWrapper(
+          PointDistanceRange(Parameter("point", CTAny)_, SignedDecimalIntegerLiteral("100")_, inclusive = false)
+        )_),
+        Set.empty)
+    )
+  }
+
+  test("should plan index seek by distance for inclusive distance predicate with the point first") {
+    (new given {
+      indexOn("Place", "location")
+      cost = nodeIndexScanCost
+    } getLogicalPlanFor "MATCH (a:Place) WHERE 100 >= distance({point}, a.location) RETURN a")._2 should equal(
+      NodeIndexSeek(
+        "a",
+        LabelToken("Place", LabelId(0)),
+        Seq(PropertyKeyToken(PropertyKeyName("location") _, PropertyKeyId(0))),
+        RangeQueryExpression(PointDistanceSeekRangeWrapper(
+          PointDistanceRange(Parameter("point", CTAny)_, SignedDecimalIntegerLiteral("100")_, inclusive = true)
+        )_),
+        Set.empty)
+    )
+  }
+
   test("should plan all nodes scans") {
     (new given {
     } getLogicalPlanFor "MATCH (n) RETURN n")._2 should equal(
@@ -64,7 +64,7 @@ import org.neo4j.kernel.impl.query.Neo4jTransactionalContext
 import org.neo4j.kernel.impl.util.ValueUtils.{fromNodeProxy, fromRelationshipProxy}
 import org.neo4j.kernel.impl.util.{DefaultValueMapper, NodeProxyWrappingNodeValue, RelationshipProxyWrappingValue}
 import org.neo4j.values.{AnyValue, ValueMapper}
-import org.neo4j.values.storable.{TextValue, Value, Values}
+import org.neo4j.values.storable.{PointValue, TextValue, Value, Values}
 import org.neo4j.values.virtual.{ListValue, NodeValue, RelationshipValue, VirtualValues}
 
 import scala.collection.Iterator
@@ -237,6 +237,9 @@ final class TransactionBoundQueryContext(val transactionalContext: Transactional
     case range: InequalitySeekRange[Any] =>
       indexSeekByPrefixRange(index, range)
 
+    case PointBoundingBoxRange(lowerLeft: PointValue, upperRight: PointValue) =>
+      seek(index, IndexQuery.range(index.properties()(0), lowerLeft, true, upperRight, true))
+
     case range =>
       throw new InternalException(s"Unsupported index seek by range: $range")
   }
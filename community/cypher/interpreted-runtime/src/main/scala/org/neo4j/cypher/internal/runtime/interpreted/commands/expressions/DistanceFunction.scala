@@ -64,6 +64,11 @@ trait DistanceCalculator {
 
   def calculateDistance(p1: PointValue, p2: PointValue): Double
 
+  /**
+    * The lower left and upper right corners of a box that holds all points within the distance of the point.
+    */
+  def boundingBox(p: PointValue, distance: Double): (PointValue, PointValue)
+
   def apply(p1: PointValue, p2: PointValue): Option[Double] =
     if (isDefinedAt(p1, p2))
       Some(calculateDistance(p1, p2))
@@ -71,6 +76,14 @@ trait DistanceCalculator {
       None
 }
 
+object DistanceCalculator {
+
+  private val availableCalculators = Seq(HaversinCalculator, CartesianCalculator)
+
+  def of(p1: PointValue, p2: PointValue): Option[DistanceCalculator] =
+    availableCalculators.find(_.isDefinedAt(p1, p2))
+}
+
 object CartesianCalculator extends DistanceCalculator {
   override def isDefinedAt(p1: PointValue, p2: PointValue): Boolean =
     p1.getCoordinateReferenceSystem.getCode() == CoordinateReferenceSystem.Cartesian.getCode() &&
@@ -83,6 +96,13 @@ object CartesianCalculator extends DistanceCalculator {
     sqrt((p2Coordinates(0) - p1Coordinates(0)) * (p2Coordinates(0) - p1Coordinates(0)) +
            (p2Coordinates(1) - p1Coordinates(1)) * (p2Coordinates(1) - p1Coordinates(1)))
   }
+
+  override def boundingBox(p: PointValue, distance: Double): (PointValue, PointValue) = {
+    val coordinates = p.coordinate()
+    val crs = p.getCoordinateReferenceSystem
+    (Values.pointValue(crs, coordinates(0) - distance, coordinates(1) - distance),
+      Values.pointValue(crs, coordinates(0) + distance, coordinates(1) + distance))
+  }
 }
 
 object HaversinCalculator extends DistanceCalculator {
@@ -104,4 +124,29 @@ object HaversinCalculator extends DistanceCalculator {
     val greatCircleDistance = 2.0 * atan2(sqrt(a), sqrt(1-a))
     EARTH_RADIUS_METERS * greatCircleDistance
   }
+
+  override def boundingBox(p: PointValue, distance: Double): (PointValue, PointValue) = {
+    val coordinates = p.coordinate()
+    val crs = p.getCoordinateReferenceSystem
+    val angularDistance = distance / EARTH_RADIUS_METERS
+    val latitude = coordinates(1)
+    val minLatitude = latitude - toDegrees(angularDistance)
+    val maxLatitude = latitude + toDegrees(angularDistance)
+    if (minLatitude <= -90.0 || maxLatitude >= 90.0) {
+      // A pole is within the distance, and with it every longitude
+      (Values.pointValue(crs, -180.0, max(minLatitude, -90.0)), Values.pointValue(crs, 180.0, min(maxLatitude, 90.0)))
+    } else {
+      // The points within the distance reach furthest east and west where the great circles through the point
+      // touch the circle around it, see http://janmatuschek.de/LatitudeLongitudeBoundingCoordinates
+      val longitudeDistance = toDegrees(asin(sin(angularDistance) / cos(toRadians(latitude))))
+      val minLongitude = coordinates(0) - longitudeDistance
+      val maxLongitude = coordinates(0) + longitudeDistance
+      if (minLongitude < -180.0 || maxLongitude > 180.0) {
+        // Rather than two boxes on either side of the date line, use one box that holds them both
+        (Values.pointValue(crs, -180.0, minLatitude), Values.pointValue(crs, 180.0, maxLatitude))
+      } else {
+        (Values.pointValue(crs, minLongitude, minLatitude), Values.pointValue(crs, maxLongitude, maxLatitude))
+      }
+    }
+  }
 }
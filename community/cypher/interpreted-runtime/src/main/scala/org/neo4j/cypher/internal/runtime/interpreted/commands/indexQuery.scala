@@ -20,13 +20,13 @@
 package org.neo4j.cypher.internal.runtime.interpreted.commands
 
 import org.neo4j.cypher.internal.frontend.v3_4.helpers.SeqCombiner.combine
-import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.{Expression, InequalitySeekRangeExpression, PrefixSeekRangeExpression}
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.{DistanceCalculator, Expression, InequalitySeekRangeExpression, PointDistanceSeekRangeExpression, PrefixSeekRangeExpression}
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
 import org.neo4j.cypher.internal.runtime.interpreted.{ExecutionContext, GraphElementPropertyFunctions, IsList, makeValueNeoSafe}
 import org.neo4j.cypher.internal.util.v3_4.{CypherTypeException, InternalException}
 import org.neo4j.cypher.internal.v3_4.logical.plans._
 import org.neo4j.values.AnyValue
-import org.neo4j.values.storable.Values
+import org.neo4j.values.storable.{NumberValue, PointValue, Values}
 import org.neo4j.values.virtual.NodeValue
 
 import scala.collection.GenTraversableOnce
@@ -68,6 +68,23 @@ object indexQuery extends GraphElementPropertyFunctions {
       else
         results.iterator.flatten
 
+    // Index range seek over the box around a point, filtered down to the points within a distance of that point
+    case RangeQueryExpression(PointDistanceSeekRangeExpression(range)) =>
+      val valueRange = range.map(expression => expression(m, state))
+      (valueRange.point, valueRange.distance) match {
+        case (point: PointValue, distance: NumberValue) =>
+          // NaN and negative distances are never satisfied
+          if (distance.doubleValue() >= 0)
+            pointsWithinDistance(point, distance.doubleValue(), valueRange.inclusive, state, index, propertyNames.head)
+          else
+            Iterator.empty
+        case (point, _) if point != Values.NO_VALUE && !point.isInstanceOf[PointValue] =>
+          throw new CypherTypeException(s"Expected a Point, but got $point")
+        case _ =>
+          // Null, or a distance that isn't a number, is never satisfied
+          Iterator.empty
+      }
+
     // Index range seek over range of values
     case RangeQueryExpression(rangeWrapper) =>
       val range = rangeWrapper match {
@@ -80,6 +97,23 @@ object indexQuery extends GraphElementPropertyFunctions {
       index(Seq(range)).toIterator
   }
 
+  private def pointsWithinDistance(point: PointValue, distance: Double, inclusive: Boolean, state: QueryState,
+                                   index: Seq[Any] => GenTraversableOnce[NodeValue],
+                                   propertyName: String): Iterator[NodeValue] = {
+    val calculator = DistanceCalculator.of(point, point).getOrElse(
+      throw new IllegalArgumentException(s"Invalid point passed to distance: $point"))
+    val (lowerLeft, upperRight) = calculator.boundingBox(point, distance)
+    val propertyKeyId = state.query.getPropertyKeyId(propertyName)
+    // The box also holds points further away than the distance, so filter by the exact distance
+    index(Seq(PointBoundingBoxRange(lowerLeft, upperRight))).toIterator.filter { node =>
+      state.query.nodeOps.getProperty(node.id(), propertyKeyId) match {
+        case value: PointValue =>
+          calculator(value, point).exists(d => if (inclusive) d <= distance else d < distance)
+        case _ => false
+      }
+    }
+  }
+
   private def lookupNodes(values: Seq[AnyValue], index: Seq[Any] => GenTraversableOnce[NodeValue]): Iterator[NodeValue] = {
     // If any of the values we are searching for is null, the whole expression that this index seek represents
     // collapses into a null value, which will not match any nodes.
@@ -407,6 +407,8 @@ case class LogicalPlan2PlanDescription(readOnly: Boolean, cardinalities: Cardina
             val lessThanBoundsText = lessThanBounds.bounds
               .map(bound => s"<${bound.inequalitySignSuffix} ${bound.endPoint}").toIndexedSeq
             (name, InequalityIndex(label.name, propertyKey, greaterThanBoundsText ++ lessThanBoundsText))
+          case PointDistanceSeekRangeWrapper(PointDistanceRange(point, distance, inclusive)) =>
+            (name, PointDistanceIndex(label.name, propertyKey, point, distance, inclusive))
           case _ => throw new InternalException("This should never happen. Missing a case?")
         }
       case _ =>
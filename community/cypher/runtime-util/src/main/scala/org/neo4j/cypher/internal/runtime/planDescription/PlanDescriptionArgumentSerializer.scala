@@ -50,6 +50,8 @@ object PlanDescriptionArgumentSerializer {
       case Index(label, properties) => s":$label(${properties.mkString(",")})"
       case PrefixIndex(label, property, p) => s":$label($property STARTS WITH ${asPrettyString(p)})"
       case InequalityIndex(label, property, bounds) => s":$label($property) ${bounds.mkString(", ")}"
+      case PointDistanceIndex(label, property, point, distance, inclusive) =>
+        s":$label($property) WHERE distance(_,${asPrettyString(point)}) <${if (inclusive) "=" else ""} ${asPrettyString(distance)}"
       case LabelName(label) => s":$label"
       case KeyNames(keys) => keys.map(removeGeneratedNames).mkString(SEPARATOR)
       case KeyExpressions(expressions) => expressions.mkString(SEPARATOR)
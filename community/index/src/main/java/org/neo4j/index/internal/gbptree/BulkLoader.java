@@ -0,0 +1,277 @@
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.cursor.RawCursor;
+import org.neo4j.io.pagecache.PageCursor;
+
+import static org.neo4j.index.internal.gbptree.TreeNode.NO_NODE_FLAG;
+import static org.neo4j.index.internal.gbptree.TreeNode.Type.INTERNAL;
+
+/**
+ * Builds a tree bottom-up from entries supplied in strictly ascending key order, as opposed to inserting them
+ * one by one from the root. Leaves are filled sequentially up to the fill factor and for each completed node
+ * a key and child pointer is appended to the node currently being filled on the level above, which in turn
+ * is completed when it's filled up, a.s.o. Only the rightmost node of each level is kept track of,
+ * so memory usage is proportional to the height of the tree, not its size.
+ * <p>
+ * Tree nodes are allocated from the {@link IdProvider} and created in unstable generation. No changes are
+ * visible in the tree until the caller sets the returned root as new root.
+ *
+ * @param <KEY> type of keys
+ * @param <VALUE> type of values
+ */
+class BulkLoader<KEY,VALUE>
+{
+    private final IdProvider idProvider;
+    private final TreeNode<KEY,VALUE> bTreeNode;
+    private final Layout<KEY,VALUE> layout;
+    private final double fillFactor;
+    private final long stableGeneration;
+    private final long unstableGeneration;
+    private final KEY previousKey;
+    private final KEY borrowedKey;
+    private boolean hasPreviousKey;
+    private long entryCount;
+
+    /**
+     * Rightmost node for each level, index 0 is leaf level.
+     */
+    private final List<Level<KEY>> levels = new ArrayList<>();
+
+    /**
+     * Rightmost node of one level of the tree being built.
+     */
+    private static class Level<KEY>
+    {
+        // Id of node currently being filled on this level
+        private long nodeId = NO_NODE_FLAG;
+        // Id of previously completed node on this level, i.e. left sibling of the current node
+        private long previousNodeId = NO_NODE_FLAG;
+        // Lowest key in the subtree of the current node, i.e. the key to insert into parent together with node id
+        private final KEY firstKey;
+        // Key count of current node
+        private int keyCount;
+
+        Level( Layout<KEY,?> layout )
+        {
+            this.firstKey = layout.newKey();
+        }
+    }
+
+    BulkLoader( IdProvider idProvider, TreeNode<KEY,VALUE> bTreeNode, Layout<KEY,VALUE> layout, double fillFactor,
+            long stableGeneration, long unstableGeneration )
+    {
+        this.idProvider = idProvider;
+        this.bTreeNode = bTreeNode;
+        this.layout = layout;
+        this.fillFactor = fillFactor;
+        this.stableGeneration = stableGeneration;
+        this.unstableGeneration = unstableGeneration;
+        this.previousKey = layout.newKey();
+        this.borrowedKey = layout.newKey();
+    }
+
+    /**
+     * Builds a tree from all entries in {@code source}.
+     *
+     * @param cursor {@link PageCursor} to use for writing tree nodes.
+     * @param source entries to build tree from, in strictly ascending key order.
+     * @return id of the root of the built tree, or {@link TreeNode#NO_NODE_FLAG} if {@code source} was empty.
+     * @throws IOException on {@link PageCursor} or {@code source} error.
+     * @throws IllegalArgumentException if {@code source} isn't in strictly ascending key order.
+     */
+    long load( PageCursor cursor, RawCursor<Hit<KEY,VALUE>,IOException> source ) throws IOException
+    {
+        while ( source.next() )
+        {
+            Hit<KEY,VALUE> hit = source.get();
+            appendToLeaf( cursor, hit.key(), hit.value() );
+        }
+        return complete( cursor );
+    }
+
+    /**
+     * @return number of entries loaded so far.
+     */
+    long entryCount()
+    {
+        return entryCount;
+    }
+
+    private void appendToLeaf( PageCursor cursor, KEY key, VALUE value ) throws IOException
+    {
+        if ( hasPreviousKey && layout.compare( previousKey, key ) >= 0 )
+        {
+            throw new IllegalArgumentException( "Bulk loaded keys must be in strictly ascending order, but got " + key +
+                    " after " + previousKey );
+        }
+        layout.copyKey( key, previousKey );
+        hasPreviousKey = true;
+
+        Level<KEY> leaves = level( 0 );
+        if ( TreeNode.isNode( leaves.nodeId ) && !bTreeNode.leafAppendFits( cursor, leaves.keyCount, key, value, fillFactor ) )
+        {
+            completeNode( cursor, 0 );
+        }
+        if ( !TreeNode.isNode( leaves.nodeId ) )
+        {
+            // Leaves cursor at the new leaf
+            newNode( cursor, 0, key );
+        }
+
+        bTreeNode.insertKeyValueAt( cursor, key, value, leaves.keyCount, leaves.keyCount );
+        TreeNode.setKeyCount( cursor, ++leaves.keyCount );
+        entryCount++;
+    }
+
+    private void appendToInternal( PageCursor cursor, int levelIndex, KEY key, long child ) throws IOException
+    {
+        Level<KEY> level = level( levelIndex );
+        if ( TreeNode.isNode( level.nodeId ) )
+        {
+            TreeNode.goTo( cursor, "internal", level.nodeId );
+            if ( !bTreeNode.internalAppendFits( cursor, level.keyCount, key, fillFactor ) )
+            {
+                completeNode( cursor, levelIndex );
+            }
+        }
+
+        if ( !TreeNode.isNode( level.nodeId ) )
+        {
+            // First child of a new internal node, key will instead be pushed up as lower bound of this node
+            newNode( cursor, levelIndex, key );
+            bTreeNode.setChildAt( cursor, child, 0, stableGeneration, unstableGeneration );
+        }
+        else
+        {
+            bTreeNode.insertKeyAndRightChildAt( cursor, key, child, level.keyCount, level.keyCount,
+                    stableGeneration, unstableGeneration );
+            TreeNode.setKeyCount( cursor, ++level.keyCount );
+        }
+    }
+
+    /**
+     * Completes current node of given level, i.e. appends it to the level above. Cursor is left at unspecified location.
+     */
+    private void completeNode( PageCursor cursor, int levelIndex ) throws IOException
+    {
+        Level<KEY> level = levels.get( levelIndex );
+        appendToInternal( cursor, levelIndex + 1, level.firstKey, level.nodeId );
+        level.previousNodeId = level.nodeId;
+        level.nodeId = NO_NODE_FLAG;
+        level.keyCount = 0;
+    }
+
+    /**
+     * Creates a new node on given level and links it with its left sibling. Cursor is left at the new node.
+     */
+    private void newNode( PageCursor cursor, int levelIndex, KEY firstKey ) throws IOException
+    {
+        Level<KEY> level = levels.get( levelIndex );
+        long nodeId = idProvider.acquireNewId( stableGeneration, unstableGeneration );
+        if ( TreeNode.isNode( level.previousNodeId ) )
+        {
+            TreeNode.goTo( cursor, "left sibling", level.previousNodeId );
+            TreeNode.setRightSibling( cursor, nodeId, stableGeneration, unstableGeneration );
+        }
+
+        TreeNode.goTo( cursor, "new node", nodeId );
+        if ( levelIndex == 0 )
+        {
+            bTreeNode.initializeLeaf( cursor, stableGeneration, unstableGeneration );
+        }
+        else
+        {
+            bTreeNode.initializeInternal( cursor, stableGeneration, unstableGeneration );
+        }
+        if ( TreeNode.isNode( level.previousNodeId ) )
+        {
+            TreeNode.setLeftSibling( cursor, level.previousNodeId, stableGeneration, unstableGeneration );
+        }
+        level.nodeId = nodeId;
+        level.keyCount = 0;
+        layout.copyKey( firstKey, level.firstKey );
+    }
+
+    /**
+     * Completes the rightmost node of every level, bottom-up, until reaching a level with a single node, the root.
+     */
+    private long complete( PageCursor cursor ) throws IOException
+    {
+        if ( levels.isEmpty() )
+        {
+            return NO_NODE_FLAG;
+        }
+
+        for ( int levelIndex = 0; ; levelIndex++ )
+        {
+            Level<KEY> level = levels.get( levelIndex );
+            if ( !TreeNode.isNode( level.previousNodeId ) )
+            {
+                // Only one node on this level, it's the root
+                return level.nodeId;
+            }
+            if ( levelIndex > 0 && level.keyCount == 0 )
+            {
+                borrowFromLeftSibling( cursor, level );
+            }
+            completeNode( cursor, levelIndex );
+        }
+    }
+
+    /**
+     * Rightmost internal node of a level can end up with only a single child and no keys. Move the rightmost
+     * child of its left sibling over to it so that it gets one key. Left sibling has at least two keys,
+     * see {@link TreeNode#internalAppendFits(PageCursor, int, Object, double)}.
+     */
+    private void borrowFromLeftSibling( PageCursor cursor, Level<KEY> level ) throws IOException
+    {
+        TreeNode.goTo( cursor, "left sibling", level.previousNodeId );
+        int leftKeyCount = TreeNode.keyCount( cursor );
+        bTreeNode.keyAt( cursor, borrowedKey, leftKeyCount - 1, INTERNAL );
+        long borrowedChild = bTreeNode.childAt( cursor, leftKeyCount, stableGeneration, unstableGeneration );
+        PointerChecking.checkPointer( borrowedChild, false );
+        bTreeNode.removeKeyAndRightChildAt( cursor, leftKeyCount - 1, leftKeyCount );
+        TreeNode.setKeyCount( cursor, leftKeyCount - 1 );
+
+        TreeNode.goTo( cursor, "internal", level.nodeId );
+        long onlyChild = bTreeNode.childAt( cursor, 0, stableGeneration, unstableGeneration );
+        PointerChecking.checkPointer( onlyChild, false );
+        bTreeNode.setChildAt( cursor, borrowedChild, 0, stableGeneration, unstableGeneration );
+        bTreeNode.insertKeyAndRightChildAt( cursor, level.firstKey, onlyChild, 0, 0, stableGeneration, unstableGeneration );
+        TreeNode.setKeyCount( cursor, 1 );
+        level.keyCount = 1;
+        layout.copyKey( borrowedKey, level.firstKey );
+    }
+
+    private Level<KEY> level( int levelIndex )
+    {
+        while ( levels.size() <= levelIndex )
+        {
+            levels.add( new Level<>( layout ) );
+        }
+        return levels.get( levelIndex );
+    }
+}
@@ -27,7 +27,11 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Consumer;
 import java.util.function.LongSupplier;
 import java.util.function.Supplier;
@@ -36,6 +40,7 @@ import org.neo4j.collection.primitive.Primitive;
 import org.neo4j.collection.primitive.PrimitiveLongSet;
 import org.neo4j.cursor.RawCursor;
 import org.neo4j.helpers.Exceptions;
+import org.neo4j.io.IOUtils;
 import org.neo4j.io.pagecache.IOLimiter;
 import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.io.pagecache.PageCursor;
@@ -153,6 +158,11 @@ public class GBPTree<KEY,VALUE> implements Closeable
             public void startupState( boolean clean )
             {   // no-op
             }
+
+            @Override
+            public void compactionCompleted( long numberOfLeavesVisited, long numberOfLeavesCompacted, long durationMillis )
+            {   // no-op
+            }
         }
 
         /**
@@ -181,6 +191,15 @@ public class GBPTree<KEY,VALUE> implements Closeable
          * @param clean true if tree was clean on startup.
          */
         void startupState( boolean clean );
+
+        /**
+         * Called after a {@link GBPTree#compact(IOLimiter) compaction} has completed.
+         *
+         * @param numberOfLeavesVisited number of leaves visited by the compaction.
+         * @param numberOfLeavesCompacted number of leaves which were merged or rebalanced.
+         * @param durationMillis time spent compacting.
+         */
+        void compactionCompleted( long numberOfLeavesVisited, long numberOfLeavesCompacted, long durationMillis );
     }
 
     /**
@@ -202,6 +221,16 @@ public class GBPTree<KEY,VALUE> implements Closeable
     {
     };
 
+    /**
+     * Number of {@link #leafLatches leaf latches}, must be a power of two.
+     */
+    private static final int LEAF_LATCH_STRIPES = 128;
+
+    /**
+     * Number of leaves visited by {@link #compact(IOLimiter)} each time it holds the writer lock.
+     */
+    private static final int COMPACTION_BATCH_SIZE = 100;
+
     /**
      * Paged file in a {@link PageCache} providing the means of storage.
      */
@@ -225,6 +254,12 @@ public class GBPTree<KEY,VALUE> implements Closeable
      */
     private final TreeNode<KEY,VALUE> bTreeNode;
 
+    /**
+     * Creates {@link TreeNode} instances of the format of this tree. Each {@link ConcurrentWriter} gets its own
+     * instance since tree node logic may keep scratch state.
+     */
+    private final TreeNodeSelector.Factory treeNodeFactory;
+
     /**
      * A free-list of released ids. Acquiring new ids involves first trying out the free-list and then,
      * as a fall-back allocate a new id at the end of the store.
@@ -232,7 +267,8 @@ public class GBPTree<KEY,VALUE> implements Closeable
     private final FreeListIdProvider freeList;
 
     /**
-     * A single instance {@link Writer} because tree only supports single writer.
+     * A single instance {@link Writer} handed out by {@link #writer()}, which only supports a single writer at a time.
+     * See {@link #concurrentWriter()} for writers which can be used concurrently.
      */
     private final SingleWriter writer;
 
@@ -259,6 +295,20 @@ public class GBPTree<KEY,VALUE> implements Closeable
      */
     private final GBPTreeLock lock = new GBPTreeLock();
 
+    /**
+     * Latch coordinating {@link #concurrentWriter() concurrent writers}. Leaf local changes are made holding
+     * this latch in shared mode together with the {@link #leafLatches leaf latch} of the changed leaf.
+     * Changes which affects the structure of the tree, i.e. successor creation, split, merge or rebalance,
+     * are made holding this latch in exclusive mode.
+     */
+    private final ReentrantReadWriteLock structureLatch = new ReentrantReadWriteLock();
+
+    /**
+     * Striped latches, keyed by tree node id, guarding leaves changed by {@link #concurrentWriter() concurrent writers}
+     * while holding {@link #structureLatch} in shared mode.
+     */
+    private final ReentrantLock[] leafLatches = new ReentrantLock[LEAF_LATCH_STRIPES];
+
     /**
      * Page size, i.e. tree node size, of the tree nodes in this tree. The page size is determined on
      * tree creation, stored in meta page and read when opening tree later.
@@ -406,6 +456,10 @@ public class GBPTree<KEY,VALUE> implements Closeable
         long rootId = IdSpace.MIN_TREE_NODE_ID;
         setRoot( rootId, Generation.unstableGeneration( generation ) );
         this.layout = layout;
+        for ( int i = 0; i < leafLatches.length; i++ )
+        {
+            leafLatches[i] = new ReentrantLock();
+        }
 
         boolean success = false;
         try
@@ -425,6 +479,7 @@ public class GBPTree<KEY,VALUE> implements Closeable
                 meta.verify( layout );
                 format = TreeNodeSelector.selectByFormat( meta.getFormatIdentifier(), meta.getFormatVersion() );
             }
+            this.treeNodeFactory = format;
             this.bTreeNode = format.create( pageSize, layout );
             this.freeList = new FreeListIdProvider( pagedFile, pageSize, rootId, FreeListIdProvider.NO_MONITOR );
             this.writer = new SingleWriter( new InternalTreeLogic<>( freeList, bTreeNode, layout ) );
@@ -569,6 +624,18 @@ public class GBPTree<KEY,VALUE> implements Closeable
         clean = state.isClean();
     }
 
+    /**
+     * The largest total size of a key and its value that a tree with a {@link Layout#fixedSize() dynamic size layout}
+     * can hold in pages of the given size. Inserting larger entries fails with an {@link IllegalArgumentException}.
+     *
+     * @param pageSize page size of the tree, typically the page size of the {@link PageCache} it lives in.
+     * @return the maximum number of bytes that the key and value of an entry may take together.
+     */
+    public static int keyValueSizeCap( int pageSize )
+    {
+        return TreeNodeDynamicSize.keyValueSizeCapFromPageSize( pageSize );
+    }
+
     /**
      * Use when you are only interested in reading the header of existing index file without opening the index for writes.
      * Useful when reading header and the demands on matching layout can be relaxed a bit.
@@ -815,6 +882,60 @@ public class GBPTree<KEY,VALUE> implements Closeable
                 exceptionDecorator );
     }
 
+    /**
+     * Splits the key range into partitions and returns one {@link #seek(Object, Object) seek cursor} per partition.
+     * The cursors are independent of each other and can be consumed by different threads, e.g. to scan a big
+     * range using multiple cores. Together the partitions cover the whole range without overlapping, so each hit
+     * is seen by exactly one of the returned cursors, the cursors are ordered such that hits of a cursor come
+     * before hits of the next cursor.
+     * <p>
+     * Partition boundaries are picked from keys in internal nodes so that partitions cover roughly equally many
+     * leaves. Fewer partitions than desired are returned if the range doesn't span enough leaves,
+     * a single partition in the case of a tree with only a root leaf. Only ascending ranges are supported.
+     *
+     * @param fromInclusive lower bound of the range to seek (inclusive).
+     * @param toExclusive higher bound of the range to seek (exclusive), must not be lower than {@code fromInclusive}.
+     * @param desiredNumberOfPartitions number of partitions to split the range into, must be positive.
+     * @return {@link RawCursor cursors}, at least one, together covering the specified key range.
+     * @throws IOException on error reading from index.
+     */
+    public List<RawCursor<Hit<KEY,VALUE>,IOException>> partitionedSeek( KEY fromInclusive, KEY toExclusive,
+            int desiredNumberOfPartitions ) throws IOException
+    {
+        if ( desiredNumberOfPartitions < 1 )
+        {
+            throw new IllegalArgumentException( "Desired number of partitions must be positive, was " + desiredNumberOfPartitions );
+        }
+        if ( layout.compare( fromInclusive, toExclusive ) > 0 )
+        {
+            throw new IllegalArgumentException( "Partitioned seek only supports ascending ranges, was from " + fromInclusive +
+                    " to " + toExclusive );
+        }
+
+        long generation = this.generation;
+        List<KEY> boundaries;
+        try ( PageCursor cursor = openRootCursor( PagedFile.PF_SHARED_READ_LOCK ) )
+        {
+            boundaries = new SeekPartitioner<>( bTreeNode, layout, stableGeneration( generation ), unstableGeneration( generation ) )
+                    .partitionBoundaries( cursor, fromInclusive, toExclusive, desiredNumberOfPartitions );
+        }
+
+        List<RawCursor<Hit<KEY,VALUE>,IOException>> partitions = new ArrayList<>();
+        try
+        {
+            for ( int i = 0; i < boundaries.size() - 1; i++ )
+            {
+                partitions.add( seek( boundaries.get( i ), boundaries.get( i + 1 ) ) );
+            }
+        }
+        catch ( IOException | RuntimeException e )
+        {
+            IOUtils.closeAllSilently( partitions );
+            throw e;
+        }
+        return partitions;
+    }
+
     /**
      * Checkpoints and flushes any pending changes to storage. After a successful call to this method
      * the data is durable and safe. {@link #writer() Changes} made after this call and until crashing or
@@ -962,6 +1083,199 @@ public class GBPTree<KEY,VALUE> implements Closeable
         return writer;
     }
 
+    /**
+     * Returns a new {@link Writer} able to modify the index, i.e. insert and remove keys/values, concurrently
+     * with other writers returned from this method. After usage the returned writer must be closed,
+     * typically by using try-with-resource clause.
+     * <p>
+     * Changes which can be made inside a single leaf, without affecting the structure of the tree, are made in parallel
+     * by concurrent writers, guarded by a latch per leaf. Changes which require structural changes, e.g. splits,
+     * merges or creating successors of nodes from a previous generation, are made exclusively, i.e. such a change
+     * waits for ongoing leaf changes to complete and blocks other writers while it's being made.
+     * <p>
+     * Concurrent writers are mutually exclusive with the {@link #writer() single writer} and with
+     * {@link #checkpoint(IOLimiter) checkpoints}, i.e. a checkpoint waits for all open concurrent writers to be closed.
+     *
+     * @return a new {@link Writer} for this index, which can be used at the same time as other concurrent writers.
+     * The returned writer must be {@link Writer#close() closed} after usage.
+     * @throws IOException on error accessing the index.
+     */
+    public Writer<KEY,VALUE> concurrentWriter() throws IOException
+    {
+        assertRecoveryCleanSuccessful();
+        ConcurrentWriter concurrentWriter = new ConcurrentWriter();
+        concurrentWriter.initialize();
+        changesSinceLastCheckpoint = true;
+        return concurrentWriter;
+    }
+
+    /**
+     * Builds the contents of this tree bottom-up from entries in {@code source}, which must be in strictly ascending
+     * key order. This is much faster than inserting the same entries using a {@link Writer} since leaves are
+     * filled sequentially and internal nodes are built level by level, without any searching or splitting.
+     * The resulting tree is also more compact than one built by inserts, which leaves nodes roughly half-full
+     * after splits.
+     * <p>
+     * Tree nodes are filled up to {@code fillFactor} of their capacity. A fill factor of {@code 1.0} yields
+     * the most compact tree, which is preferable if no or few changes are expected after the load.
+     * A lower fill factor leaves room for subsequent inserts before nodes need to be split.
+     * <p>
+     * The tree must be empty. The loaded entries will be visible to readers when this method returns and will be
+     * made durable by the next {@link #checkpoint(IOLimiter) checkpoint}, as with changes made by writers.
+     * Bulk loading is mutually exclusive with writers and checkpoints.
+     *
+     * @param source entries to load, in strictly ascending key order.
+     * @param fillFactor how much, between {@code 0.5} and {@code 1.0}, to fill each tree node.
+     * @return number of loaded entries.
+     * @throws IOException on error accessing the index or reading from {@code source}.
+     * @throws IllegalArgumentException if {@code fillFactor} is out of range or {@code source} isn't ordered.
+     * @throws IllegalStateException if the tree isn't empty.
+     */
+    public long bulkLoad( RawCursor<Hit<KEY,VALUE>,IOException> source, double fillFactor ) throws IOException
+    {
+        if ( fillFactor < 0.5 || fillFactor > 1.0 )
+        {
+            throw new IllegalArgumentException( "Fill factor must be between 0.5 and 1.0, was " + fillFactor );
+        }
+        assertRecoveryCleanSuccessful();
+
+        lock.writerLock();
+        try ( PageCursor cursor = openRootCursor( PagedFile.PF_SHARED_WRITE_LOCK ) )
+        {
+            if ( !TreeNode.isLeaf( cursor ) || TreeNode.keyCount( cursor ) != 0 )
+            {
+                throw new IllegalStateException( "Can only bulk load into an empty tree" );
+            }
+
+            changesSinceLastCheckpoint = true;
+            long oldRootId = cursor.getCurrentPageId();
+            long stableGeneration = stableGeneration( generation );
+            long unstableGeneration = unstableGeneration( generation );
+            BulkLoader<KEY,VALUE> loader = new BulkLoader<>( freeList, bTreeNode, layout, fillFactor, stableGeneration, unstableGeneration );
+            long newRootId = loader.load( cursor, source );
+            checkOutOfBounds( cursor );
+            if ( TreeNode.isNode( newRootId ) )
+            {
+                setRoot( newRootId, unstableGeneration );
+                freeList.releaseId( stableGeneration, unstableGeneration, oldRootId );
+            }
+            return loader.entryCount();
+        }
+        catch ( Throwable e )
+        {
+            appendTreeInformation( e );
+            throw e;
+        }
+        finally
+        {
+            lock.writerUnlock();
+        }
+    }
+
+    /**
+     * Compacts the leaves of this tree, online, visiting them one by one from left to right. Leaves which have become
+     * sparse are merged with or rebalanced against their siblings and adjacent leaves whose keys fit in one leaf
+     * are merged. Leaves freed by merges are released to the free-list and reused as the tree grows.
+     * <p>
+     * Leaves are visited in batches, each batch holding the writer lock, just like a {@link #writer() writer}.
+     * Writers and checkpoints are therefore blocked only while a batch is compacted, not during the whole compaction.
+     * Readers are never blocked. Changes are made like any other change, copy-on-write into the unstable generation,
+     * and so are made durable by the next {@link #checkpoint(IOLimiter) checkpoint}.
+     *
+     * @param ioLimiter for controlling I/O usage, consulted between batches.
+     * @throws IOException on error accessing the index.
+     */
+    public void compact( IOLimiter ioLimiter ) throws IOException
+    {
+        assertRecoveryCleanSuccessful();
+        long startTime = System.currentTimeMillis();
+        InternalTreeLogic<KEY,VALUE> treeLogic = new InternalTreeLogic<>( freeList, bTreeNode, layout );
+        StructurePropagation<KEY> structurePropagation =
+                new StructurePropagation<>( layout.newKey(), layout.newKey(), layout.newKey() );
+        KEY key = layout.newKey();
+        KEY nextKey = layout.newKey();
+        long numberOfLeavesVisited = 0;
+        long numberOfLeavesCompacted = 0;
+        long ioStamp = IOLimiter.INITIAL_STAMP;
+        boolean started = false;
+        boolean hasNext = true;
+        while ( hasNext )
+        {
+            int leavesVisitedInBatch = 0;
+            lock.writerLock();
+            try ( PageCursor cursor = openRootCursor( PagedFile.PF_SHARED_WRITE_LOCK ) )
+            {
+                long stableGeneration = stableGeneration( generation );
+                long unstableGeneration = unstableGeneration( generation );
+                if ( !started )
+                {
+                    started = true;
+                    hasNext = firstKeyOfFirstLeaf( cursor, key, stableGeneration, unstableGeneration );
+                }
+                treeLogic.initialize( cursor );
+                while ( hasNext && leavesVisitedInBatch < COMPACTION_BATCH_SIZE )
+                {
+                    leavesVisitedInBatch++;
+                    if ( treeLogic.compactLeaf( cursor, structurePropagation, key, stableGeneration, unstableGeneration ) )
+                    {
+                        changesSinceLastCheckpoint = true;
+                        numberOfLeavesCompacted++;
+                    }
+                    handleStructureChanges( cursor, treeLogic, structurePropagation, stableGeneration, unstableGeneration );
+
+                    hasNext = treeLogic.firstKeyOfNextLeaf( cursor, key, nextKey, stableGeneration, unstableGeneration );
+                    if ( hasNext )
+                    {
+                        layout.copyKey( nextKey, key );
+                    }
+                }
+                checkOutOfBounds( cursor );
+            }
+            catch ( Throwable e )
+            {
+                appendTreeInformation( e );
+                throw e;
+            }
+            finally
+            {
+                lock.writerUnlock();
+            }
+            numberOfLeavesVisited += leavesVisitedInBatch;
+            ioStamp = ioLimiter.maybeLimitIO( ioStamp, leavesVisitedInBatch, pagedFile::flushAndForce );
+        }
+        monitor.compactionCompleted( numberOfLeavesVisited, numberOfLeavesCompacted, System.currentTimeMillis() - startTime );
+    }
+
+    /**
+     * Reads first key of the left-most leaf. Cursor is left at root.
+     *
+     * @return {@code true} if there was a key in the tree, otherwise {@code false}.
+     */
+    private boolean firstKeyOfFirstLeaf( PageCursor cursor, KEY into, long stableGeneration, long unstableGeneration )
+            throws IOException
+    {
+        long rootId = cursor.getCurrentPageId();
+        try
+        {
+            while ( TreeNode.isInternal( cursor ) )
+            {
+                long child = bTreeNode.childAt( cursor, 0, stableGeneration, unstableGeneration );
+                PointerChecking.checkPointer( child, false );
+                TreeNode.goTo( cursor, "child", child );
+            }
+            if ( TreeNode.keyCount( cursor ) == 0 )
+            {
+                return false;
+            }
+            bTreeNode.keyAt( cursor, into, 0, TreeNode.Type.LEAF );
+            return true;
+        }
+        finally
+        {
+            PageCursorUtil.goTo( cursor, "root", rootId );
+        }
+    }
+
     private void setRoot( long rootId, long rootGeneration )
     {
         this.root = new Root( rootId, rootGeneration );
@@ -1100,6 +1414,41 @@ public class GBPTree<KEY,VALUE> implements Closeable
         return Exceptions.withMessage( e, e.getMessage() + " | " + toString() );
     }
 
+    /**
+     * Handles structure changes which propagated all the way up to the root, i.e. new root or new version of root.
+     * Must be called by a writer which has exclusive access to the structure of the tree.
+     */
+    private void handleStructureChanges( PageCursor cursor, InternalTreeLogic<KEY,VALUE> treeLogic,
+            StructurePropagation<KEY> structurePropagation, long stableGeneration, long unstableGeneration ) throws IOException
+    {
+        if ( structurePropagation.hasRightKeyInsert )
+        {
+            // New root
+            long newRootId = freeList.acquireNewId( stableGeneration, unstableGeneration );
+            PageCursorUtil.goTo( cursor, "new root", newRootId );
+
+            bTreeNode.initializeInternal( cursor, stableGeneration, unstableGeneration );
+            bTreeNode.setChildAt( cursor, structurePropagation.midChild, 0,
+                    stableGeneration, unstableGeneration );
+            bTreeNode.insertKeyAndRightChildAt( cursor, structurePropagation.rightKey, structurePropagation.rightChild, 0, 0,
+                    stableGeneration, unstableGeneration );
+            TreeNode.setKeyCount( cursor, 1 );
+            setRoot( cursor, treeLogic, newRootId, unstableGeneration );
+        }
+        else if ( structurePropagation.hasMidChildUpdate )
+        {
+            setRoot( cursor, treeLogic, structurePropagation.midChild, unstableGeneration );
+        }
+        structurePropagation.clear();
+    }
+
+    private void setRoot( PageCursor cursor, InternalTreeLogic<KEY,VALUE> treeLogic, long rootPointer, long unstableGeneration )
+    {
+        long rootId = GenerationSafePointerPair.pointer( rootPointer );
+        setRoot( rootId, unstableGeneration );
+        treeLogic.initialize( cursor );
+    }
+
     private class SingleWriter implements Writer<KEY,VALUE>
     {
         /**
@@ -1199,13 +1548,6 @@ public class GBPTree<KEY,VALUE> implements Closeable
             checkOutOfBounds( cursor );
         }
 
-        private void setRoot( long rootPointer )
-        {
-            long rootId = GenerationSafePointerPair.pointer( rootPointer );
-            GBPTree.this.setRoot( rootId, unstableGeneration );
-            treeLogic.initialize( cursor );
-        }
-
         @Override
         public VALUE remove( KEY key ) throws IOException
         {
@@ -1229,25 +1571,7 @@ public class GBPTree<KEY,VALUE> implements Closeable
 
         private void handleStructureChanges() throws IOException
         {
-            if ( structurePropagation.hasRightKeyInsert )
-            {
-                // New root
-                long newRootId = freeList.acquireNewId( stableGeneration, unstableGeneration );
-                PageCursorUtil.goTo( cursor, "new root", newRootId );
-
-                bTreeNode.initializeInternal( cursor, stableGeneration, unstableGeneration );
-                bTreeNode.setChildAt( cursor, structurePropagation.midChild, 0,
-                        stableGeneration, unstableGeneration );
-                bTreeNode.insertKeyAndRightChildAt( cursor, structurePropagation.rightKey, structurePropagation.rightChild, 0, 0,
-                        stableGeneration, unstableGeneration );
-                TreeNode.setKeyCount( cursor, 1 );
-                setRoot( newRootId );
-            }
-            else if ( structurePropagation.hasMidChildUpdate )
-            {
-                setRoot( structurePropagation.midChild );
-            }
-            structurePropagation.clear();
+            GBPTree.this.handleStructureChanges( cursor, treeLogic, structurePropagation, stableGeneration, unstableGeneration );
         }
 
         @Override
@@ -1271,4 +1595,210 @@ public class GBPTree<KEY,VALUE> implements Closeable
             }
         }
     }
+
+    /**
+     * {@link Writer} which can be used concurrently with other {@link ConcurrentWriter concurrent writers},
+     * see {@link #concurrentWriter()}.
+     * <p>
+     * Each change first optimistically descends the tree and tries to apply the change in the leaf alone,
+     * holding {@link #structureLatch} in shared mode and the {@link #leafLatches leaf latch} of that leaf.
+     * Internal nodes aren't changed while the structure latch is held in shared mode, which is what
+     * makes descending the tree without latching internal nodes safe. If the change requires a structural change
+     * of the tree it is redone from the root holding {@link #structureLatch} in exclusive mode.
+     */
+    private class ConcurrentWriter implements Writer<KEY,VALUE>
+    {
+        private final InternalTreeLogic<KEY,VALUE> treeLogic;
+        private final StructurePropagation<KEY> structurePropagation;
+        private PageCursor cursor;
+        private boolean closed;
+
+        // Writer can't live past a checkpoint because of the mutex with checkpoint,
+        // therefore safe to locally cache these generation fields from the volatile generation in the tree
+        private long stableGeneration;
+        private long unstableGeneration;
+
+        ConcurrentWriter()
+        {
+            this.structurePropagation = new StructurePropagation<>( layout.newKey(), layout.newKey(), layout.newKey() );
+            this.treeLogic = new InternalTreeLogic<>( freeList, treeNodeFactory.create( pageSize, layout ), layout );
+        }
+
+        void initialize() throws IOException
+        {
+            lock.sharedWriterLock();
+            boolean success = false;
+            try
+            {
+                cursor = openRootCursor( PagedFile.PF_SHARED_WRITE_LOCK );
+                stableGeneration = stableGeneration( generation );
+                unstableGeneration = unstableGeneration( generation );
+                success = true;
+            }
+            catch ( Throwable e )
+            {
+                appendTreeInformation( e );
+                throw e;
+            }
+            finally
+            {
+                if ( !success )
+                {
+                    close();
+                }
+            }
+        }
+
+        @Override
+        public void put( KEY key, VALUE value ) throws IOException
+        {
+            merge( key, value, ValueMergers.overwrite() );
+        }
+
+        @Override
+        public void merge( KEY key, VALUE value, ValueMerger<KEY,VALUE> valueMerger ) throws IOException
+        {
+            assertOpen();
+            try
+            {
+                InternalTreeLogic.LeafChange leafChange;
+                structureLatch.readLock().lock();
+                try
+                {
+                    ReentrantLock leafLatch = moveToLeafAndLatch( key );
+                    try
+                    {
+                        leafChange = treeLogic.tryInsertInLeaf( cursor, key, value, valueMerger, unstableGeneration );
+                    }
+                    finally
+                    {
+                        leafLatch.unlock();
+                    }
+                }
+                finally
+                {
+                    structureLatch.readLock().unlock();
+                }
+
+                if ( leafChange == InternalTreeLogic.LeafChange.STRUCTURE_CHANGE_NEEDED )
+                {
+                    structureLatch.writeLock().lock();
+                    try
+                    {
+                        moveToRoot();
+                        treeLogic.insert( cursor, structurePropagation, key, value, valueMerger,
+                                stableGeneration, unstableGeneration );
+                        handleStructureChanges( cursor, treeLogic, structurePropagation, stableGeneration, unstableGeneration );
+                    }
+                    finally
+                    {
+                        structureLatch.writeLock().unlock();
+                    }
+                }
+            }
+            catch ( Throwable e )
+            {
+                appendTreeInformation( e );
+                throw e;
+            }
+
+            checkOutOfBounds( cursor );
+        }
+
+        @Override
+        public VALUE remove( KEY key ) throws IOException
+        {
+            assertOpen();
+            VALUE result = layout.newValue();
+            try
+            {
+                InternalTreeLogic.LeafChange leafChange;
+                structureLatch.readLock().lock();
+                try
+                {
+                    ReentrantLock leafLatch = moveToLeafAndLatch( key );
+                    try
+                    {
+                        leafChange = treeLogic.tryRemoveFromLeaf( cursor, key, result, unstableGeneration );
+                    }
+                    finally
+                    {
+                        leafLatch.unlock();
+                    }
+                }
+                finally
+                {
+                    structureLatch.readLock().unlock();
+                }
+
+                if ( leafChange == InternalTreeLogic.LeafChange.NOT_FOUND )
+                {
+                    result = null;
+                }
+                else if ( leafChange == InternalTreeLogic.LeafChange.STRUCTURE_CHANGE_NEEDED )
+                {
+                    structureLatch.writeLock().lock();
+                    try
+                    {
+                        moveToRoot();
+                        result = treeLogic.remove( cursor, structurePropagation, key, result,
+                                stableGeneration, unstableGeneration );
+                        handleStructureChanges( cursor, treeLogic, structurePropagation, stableGeneration, unstableGeneration );
+                    }
+                    finally
+                    {
+                        structureLatch.writeLock().unlock();
+                    }
+                }
+            }
+            catch ( Throwable e )
+            {
+                appendTreeInformation( e );
+                throw e;
+            }
+
+            checkOutOfBounds( cursor );
+            return result;
+        }
+
+        private void moveToRoot() throws IOException
+        {
+            root.goTo( cursor );
+            treeLogic.initialize( cursor );
+        }
+
+        private ReentrantLock moveToLeafAndLatch( KEY key ) throws IOException
+        {
+            root.goTo( cursor );
+            treeLogic.moveToLeaf( cursor, key, stableGeneration, unstableGeneration );
+            ReentrantLock leafLatch = leafLatches[(int) (cursor.getCurrentPageId() & (LEAF_LATCH_STRIPES - 1))];
+            leafLatch.lock();
+            return leafLatch;
+        }
+
+        private void assertOpen()
+        {
+            if ( closed )
+            {
+                throw new IllegalStateException( "Tried to use writer of " + GBPTree.this + ", but writer is already closed." );
+            }
+        }
+
+        @Override
+        public void close()
+        {
+            if ( closed )
+            {
+                throw new IllegalStateException( "Tried to close writer of " + GBPTree.this +
+                        ", but writer is already closed." );
+            }
+            closed = true;
+            if ( cursor != null )
+            {
+                cursor.close();
+                cursor = null;
+            }
+            lock.sharedWriterUnlock();
+        }
+    }
 }
@@ -29,6 +29,8 @@ class GBPTreeLock
     private static final long stateOffset = UnsafeUtil.getFieldOffset( GBPTreeLock.class, "state" );
     private static final long writerLockBit = 0x00000000_00000001L;
     private static final long cleanerLockBit = 0x00000000_00000002L;
+    private static final long sharedWriterCountUnit = 0x00000001_00000000L;
+    private static final long sharedWriterCountMask = 0xFFFFFFFF_00000000L;
     private volatile long state;
 
     // Used for testing
@@ -49,6 +51,48 @@ class GBPTreeLock
         doUnlock( writerLockBit );
     }
 
+    /**
+     * Takes the writer lock in shared mode, i.e. any number of shared writers can hold the writer lock at the same time,
+     * but while at least one of them does neither {@link #writerLock()} nor {@link #writerAndCleanerLock()} can be acquired.
+     * The writer lock is released when the last shared writer calls {@link #sharedWriterUnlock()}.
+     */
+    void sharedWriterLock()
+    {
+        long currentState;
+        long newState;
+        do
+        {
+            currentState = state;
+            while ( !canLockShared( currentState ) )
+            {
+                // sleep
+                sleep();
+                currentState = state;
+            }
+            newState = (currentState | writerLockBit) + sharedWriterCountUnit;
+        } while ( !UnsafeUtil.compareAndSwapLong( this, stateOffset, currentState, newState ) );
+    }
+
+    void sharedWriterUnlock()
+    {
+        long currentState;
+        long newState;
+        do
+        {
+            currentState = state;
+            if ( (currentState & sharedWriterCountMask) == 0 )
+            {
+                throw new IllegalStateException( "Can not unlock shared writer lock that isn't locked" );
+            }
+            newState = currentState - sharedWriterCountUnit;
+            if ( (newState & sharedWriterCountMask) == 0 )
+            {
+                newState &= ~writerLockBit;
+            }
+        }
+        while ( !UnsafeUtil.compareAndSwapLong( this, stateOffset, currentState, newState ) );
+    }
+
     void cleanerLock()
     {
         doLock( cleanerLockBit );
@@ -107,6 +151,11 @@ class GBPTreeLock
         return (state & targetLockBit) == 0;
     }
 
+    private boolean canLockShared( long state )
+    {
+        return (state & writerLockBit) == 0 || (state & sharedWriterCountMask) != 0;
+    }
+
     private boolean canUnlock( long state, long targetLockBit )
     {
         return (state & targetLockBit) == targetLockBit;
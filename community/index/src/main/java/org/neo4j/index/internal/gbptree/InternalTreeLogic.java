@@ -89,6 +89,7 @@ class InternalTreeLogic<KEY,VALUE>
     private final Layout<KEY,VALUE> layout;
     private final KEY newKeyPlaceHolder;
     private final KEY readKey;
+    private final KEY splitterKey;
     private final VALUE readValue;
 
     /**
@@ -159,6 +160,7 @@ class InternalTreeLogic<KEY,VALUE>
         this.layout = layout;
         this.newKeyPlaceHolder = layout.newKey();
         this.readKey = layout.newKey();
+        this.splitterKey = layout.newKey();
         this.readValue = layout.newValue();
 
         // an arbitrary depth slightly bigger than an unimaginably big tree
@@ -656,6 +658,11 @@ class InternalTreeLogic<KEY,VALUE>
             bTreeNode.doSplitLeaf( cursor, keyCount, rightCursor, pos, newKey, newValue, structurePropagation.rightKey );
         }
 
+        // Let layout shorten the separator, it only needs to separate the last key in left from first key in right
+        bTreeNode.keyAt( cursor, readKey, TreeNode.keyCount( cursor ) - 1, LEAF );
+        layout.minimalSplitter( readKey, structurePropagation.rightKey, splitterKey );
+        layout.copyKey( splitterKey, structurePropagation.rightKey );
+
         // Update old right with new left sibling (newRight)
         if ( TreeNode.isNode( oldRight ) )
         {
@@ -715,6 +722,265 @@ class InternalTreeLogic<KEY,VALUE>
         return into;
     }
 
+    /**
+     * Compacts the leaf which {@code key} belongs to. An underflowing leaf is merged with, or rebalanced against,
+     * its siblings the same way as after a {@link #remove(PageCursor, StructurePropagation, Object, Object, long, long)
+     * removal}. A leaf which doesn't underflow is merged with its left sibling if their keys fit in one leaf.
+     * Structure changes are propagated the same way as for removal. This takes care of leaves which have become sparse
+     * without any removal triggering underflow handling of them, as well as pairs of half full leaves.
+     * <p>
+     * Leaves a root which is a leaf as is.
+     *
+     * @param cursor {@link PageCursor} pinned to page where node is located.
+     * @param structurePropagation {@link StructurePropagation} used to report structure changes between tree levels.
+     * @param key key which decides which leaf to compact, it doesn't need to exist in the tree.
+     * @param stableGeneration stable generation, i.e. generations <= this generation are considered stable.
+     * @param unstableGeneration unstable generation, i.e. generation which is under development right now.
+     * @return {@code true} if the leaf was compacted, otherwise {@code false}.
+     * @throws IOException on cursor failure
+     */
+    boolean compactLeaf( PageCursor cursor, StructurePropagation<KEY> structurePropagation, KEY key,
+            long stableGeneration, long unstableGeneration ) throws IOException
+    {
+        assert cursorIsAtExpectedLocation( cursor );
+        moveToCorrectLeaf( cursor, key, stableGeneration, unstableGeneration );
+
+        int keyCount = TreeNode.keyCount( cursor );
+        long leftSibling = TreeNode.leftSibling( cursor, stableGeneration, unstableGeneration );
+        PointerChecking.checkPointer( leftSibling, true );
+        long rightSibling = TreeNode.rightSibling( cursor, stableGeneration, unstableGeneration );
+        PointerChecking.checkPointer( rightSibling, true );
+        if ( bTreeNode.leafUnderflow( cursor, keyCount ) && (TreeNode.isNode( leftSibling ) || TreeNode.isNode( rightSibling )) )
+        {
+            createSuccessorIfNeeded( cursor, structurePropagation, UPDATE_MID_CHILD,
+                    stableGeneration, unstableGeneration );
+            underflowInLeaf( cursor, structurePropagation, keyCount, stableGeneration, unstableGeneration );
+        }
+        else if ( TreeNode.isNode( leftSibling ) && fitsWithLeftSibling( cursor, keyCount, leftSibling ) )
+        {
+            createSuccessorIfNeeded( cursor, structurePropagation, UPDATE_MID_CHILD,
+                    stableGeneration, unstableGeneration );
+            try ( PageCursor leftSiblingCursor = cursor.openLinkedCursor( GenerationSafePointerPair.pointer( leftSibling ) ) )
+            {
+                leftSiblingCursor.next();
+                mergeFromLeftSiblingLeaf( cursor, leftSiblingCursor, structurePropagation, keyCount,
+                        TreeNode.keyCount( leftSiblingCursor ), stableGeneration, unstableGeneration );
+            }
+        }
+        else
+        {
+            return false;
+        }
+
+        handleStructureChanges( cursor, structurePropagation, stableGeneration, unstableGeneration );
+
+        if ( currentLevel <= 0 )
+        {
+            tryShrinkTree( cursor, structurePropagation, stableGeneration, unstableGeneration );
+        }
+        return true;
+    }
+
+    private boolean fitsWithLeftSibling( PageCursor cursor, int keyCount, long leftSibling ) throws IOException
+    {
+        try ( PageCursor leftSiblingCursor = cursor.openLinkedCursor( GenerationSafePointerPair.pointer( leftSibling ) ) )
+        {
+            leftSiblingCursor.next();
+            int leftSiblingKeyCount = TreeNode.keyCount( leftSiblingCursor );
+            return bTreeNode.canMergeLeaves( leftSiblingCursor, leftSiblingKeyCount, cursor, keyCount );
+        }
+    }
+
+    /**
+     * Finds the first key of the leaf to the right of the leaf which {@code key} belongs to.
+     * Used to visit the leaves one by one with operations which may change the tree structure in between,
+     * such as {@link #compactLeaf(PageCursor, StructurePropagation, Object, long, long)}.
+     *
+     * @param cursor {@link PageCursor} pinned to page where node is located.
+     * @param key key which decides which leaf to start from, it doesn't need to exist in the tree.
+     * @param into key instance to read first key of next leaf into.
+     * @param stableGeneration stable generation, i.e. generations <= this generation are considered stable.
+     * @param unstableGeneration unstable generation, i.e. generation which is under development right now.
+     * @return {@code true} if there was a next leaf with keys and its first key was read into {@code into},
+     * otherwise {@code false}.
+     * @throws IOException on cursor failure
+     */
+    boolean firstKeyOfNextLeaf( PageCursor cursor, KEY key, KEY into, long stableGeneration, long unstableGeneration )
+            throws IOException
+    {
+        assert cursorIsAtExpectedLocation( cursor );
+        moveToCorrectLeaf( cursor, key, stableGeneration, unstableGeneration );
+
+        long rightSibling = TreeNode.rightSibling( cursor, stableGeneration, unstableGeneration );
+        PointerChecking.checkPointer( rightSibling, true );
+        if ( !TreeNode.isNode( rightSibling ) )
+        {
+            return false;
+        }
+        try ( PageCursor rightSiblingCursor = cursor.openLinkedCursor( GenerationSafePointerPair.pointer( rightSibling ) ) )
+        {
+            do
+            {
+                TreeNode.goTo( rightSiblingCursor, "right sibling", rightSibling );
+                if ( TreeNode.keyCount( rightSiblingCursor ) > 0 )
+                {
+                    bTreeNode.keyAt( rightSiblingCursor, into, 0, LEAF );
+                    return true;
+                }
+                rightSibling = TreeNode.rightSibling( rightSiblingCursor, stableGeneration, unstableGeneration );
+                PointerChecking.checkPointer( rightSibling, true );
+            }
+            while ( TreeNode.isNode( rightSibling ) );
+        }
+        return false;
+    }
+
+    /**
+     * Outcome of a leaf local change, i.e. {@link #tryInsertInLeaf(PageCursor, Object, Object, ValueMerger, long)}
+     * or {@link #tryRemoveFromLeaf(PageCursor, Object, Object, long)}.
+     */
+    enum LeafChange
+    {
+        /**
+         * Change was applied to the leaf.
+         */
+        APPLIED,
+        /**
+         * Key to remove didn't exist in the leaf, nothing was changed.
+         */
+        NOT_FOUND,
+        /**
+         * Change would require a structural change in the tree, e.g. successor creation, split or underflow.
+         * Leaf has been left in the same state as before the call.
+         */
+        STRUCTURE_CHANGE_NEEDED
+    }
+
+    /**
+     * Moves the cursor from the node it's currently pinned to, typically root, down to the leaf where {@code key}
+     * belongs without keeping track of the path. Used by writers which only changes leaves and which
+     * therefore don't need the path for propagating structural changes upwards.
+     * <p>
+     * Internal nodes are only read, so this is safe to do concurrently with other writers as long as no one
+     * is making structural changes to the tree at the same time.
+     *
+     * @param cursor {@link PageCursor} pinned to the node to start from.
+     * @param key KEY to find leaf for.
+     * @param stableGeneration stable generation.
+     * @param unstableGeneration unstable generation.
+     * @throws IOException on {@link PageCursor} error.
+     */
+    void moveToLeaf( PageCursor cursor, KEY key, long stableGeneration, long unstableGeneration ) throws IOException
+    {
+        currentLevel = -1;
+        while ( TreeNode.isInternal( cursor ) )
+        {
+            int keyCount = TreeNode.keyCount( cursor );
+            int searchResult = search( cursor, INTERNAL, key, readKey, keyCount );
+            int childPos = positionOf( searchResult );
+            if ( isHit( searchResult ) )
+            {
+                childPos++;
+            }
+
+            long childId = bTreeNode.childAt( cursor, childPos, stableGeneration, unstableGeneration );
+            PointerChecking.checkPointer( childId, false );
+            TreeNode.goTo( cursor, "child", childId );
+        }
+
+        assert TreeNode.isLeaf( cursor ) : "Ended up on a tree node which isn't a leaf after moving cursor towards " +
+                key + ", cursor is at " + cursor.getCurrentPageId();
+    }
+
+    /**
+     * Insert {@code key} and {@code value} into the leaf which {@code cursor} is pinned to, but only if that can be
+     * done without any structural change to the tree, i.e. leaf is already of unstable generation and there's room
+     * for the new entry. A value of an existing key is only overwritten if the merged value is of the same size.
+     * <p>
+     * The leaf is left untouched if {@link LeafChange#STRUCTURE_CHANGE_NEEDED} is returned,
+     * and the caller is expected to redo the insert using
+     * {@link #insert(PageCursor, StructurePropagation, Object, Object, ValueMerger, long, long)}.
+     *
+     * @param cursor {@link PageCursor} pinned to leaf where {@code key} belongs, see {@link #moveToLeaf(PageCursor, Object, long, long)}.
+     * @param key key to be inserted
+     * @param value value to be associated with key
+     * @param valueMerger {@link ValueMerger} for deciding what to do with existing keys
+     * @param unstableGeneration unstable generation, i.e. generation which is under development right now.
+     * @return {@link LeafChange#APPLIED} or {@link LeafChange#STRUCTURE_CHANGE_NEEDED}.
+     */
+    LeafChange tryInsertInLeaf( PageCursor cursor, KEY key, VALUE value, ValueMerger<KEY,VALUE> valueMerger,
+            long unstableGeneration )
+    {
+        int keyCount = TreeNode.keyCount( cursor );
+        int search = search( cursor, LEAF, key, readKey, keyCount );
+        int pos = positionOf( search );
+        if ( isHit( search ) )
+        {
+            bTreeNode.valueAt( cursor, readValue, pos );
+            VALUE mergedValue = valueMerger.merge( readKey, key, readValue, value );
+            if ( mergedValue == null )
+            {
+                return LeafChange.APPLIED;
+            }
+            if ( TreeNode.generation( cursor ) != unstableGeneration )
+            {
+                return LeafChange.STRUCTURE_CHANGE_NEEDED;
+            }
+            return bTreeNode.setValueAt( cursor, mergedValue, pos ) ? LeafChange.APPLIED : LeafChange.STRUCTURE_CHANGE_NEEDED;
+        }
+
+        if ( TreeNode.generation( cursor ) != unstableGeneration )
+        {
+            return LeafChange.STRUCTURE_CHANGE_NEEDED;
+        }
+        Overflow overflow = bTreeNode.leafOverflow( cursor, keyCount, key, value );
+        if ( overflow == YES )
+        {
+            return LeafChange.STRUCTURE_CHANGE_NEEDED;
+        }
+        if ( overflow == NO_NEED_DEFRAG )
+        {
+            bTreeNode.defragmentLeaf( cursor );
+        }
+        bTreeNode.insertKeyValueAt( cursor, key, value, pos, keyCount );
+        TreeNode.setKeyCount( cursor, keyCount + 1 );
+        return LeafChange.APPLIED;
+    }
+
+    /**
+     * Remove {@code key} from the leaf which {@code cursor} is pinned to, but only if that can be done
+     * without any structural change to the tree, i.e. leaf is already of unstable generation and doesn't
+     * underflow after the removal.
+     * <p>
+     * The leaf is left untouched if {@link LeafChange#STRUCTURE_CHANGE_NEEDED} is returned,
+     * and the caller is expected to redo the removal using
+     * {@link #remove(PageCursor, StructurePropagation, Object, Object, long, long)}.
+     *
+     * @param cursor {@link PageCursor} pinned to leaf where {@code key} belongs, see {@link #moveToLeaf(PageCursor, Object, long, long)}.
+     * @param key key to be removed
+     * @param into {@code VALUE} instance to write removed value to
+     * @param unstableGeneration unstable generation, i.e. generation which is under development right now.
+     * @return {@link LeafChange#APPLIED}, {@link LeafChange#NOT_FOUND} or {@link LeafChange#STRUCTURE_CHANGE_NEEDED}.
+     */
+    LeafChange tryRemoveFromLeaf( PageCursor cursor, KEY key, VALUE into, long unstableGeneration )
+    {
+        int keyCount = TreeNode.keyCount( cursor );
+        int search = search( cursor, LEAF, key, readKey, keyCount );
+        int pos = positionOf( search );
+        if ( !isHit( search ) )
+        {
+            return LeafChange.NOT_FOUND;
+        }
+        if ( TreeNode.generation( cursor ) != unstableGeneration ||
+                bTreeNode.leafUnderflowAfterRemove( cursor, keyCount, pos ) )
+        {
+            return LeafChange.STRUCTURE_CHANGE_NEEDED;
+        }
+
+        simplyRemoveFromLeaf( cursor, into, keyCount, pos );
+        return LeafChange.APPLIED;
+    }
+
     private void handleStructureChanges( PageCursor cursor, StructurePropagation<KEY> structurePropagation,
             long stableGeneration, long unstableGeneration ) throws IOException
     {
@@ -151,6 +151,25 @@ public interface Layout<KEY, VALUE> extends Comparator<KEY>
     {   // no meta-data by default
     }
 
+    /**
+     * Produces a key to use as separator between two adjacent leaves when a leaf is split, one which is as small as
+     * possible while still separating them. Separators only live in internal nodes and need not be keys that
+     * have been inserted, so a layout with dynamic size keys can pick a shorter key here to fit more children into
+     * each internal node and thereby get a lower tree. The produced key {@code K} must satisfy
+     * {@code left < K <= right} and must not share state with {@code left} or {@code right}. Keys equal to {@code K}
+     * belong to the right leaf, which matters for keys inserted later on if {@code K} is not {@code right} itself.
+     * <p>
+     * By default {@code right} is copied into {@code into}, i.e. no shortening is made.
+     *
+     * @param left highest key in the left leaf.
+     * @param right lowest key in the right leaf.
+     * @param into key (changed as part of this call) to write the separator into.
+     */
+    default void minimalSplitter( KEY left, KEY right, KEY into )
+    {
+        copyKey( right, into );
+    }
+
     /**
      * Utility method for generating an {@link #identifier()}. Generates an 8-byte identifier from a short name
      * plus a 4-byte identifier.
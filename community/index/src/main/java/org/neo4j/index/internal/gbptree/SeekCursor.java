@@ -526,6 +526,12 @@ class SeekCursor<KEY,VALUE> implements RawCursor<Hit<KEY,VALUE>,IOException>, Hi
                         continue;
                     }
                     pos = positionOf( searchResult );
+                    if ( !seekForward && !KeySearch.isHit( searchResult ) && pos < keyCount )
+                    {
+                        // The key at the found position is the first one after the searched key, which is outside of
+                        // the range when seeking backwards, so start from the one before it
+                        pos--;
+                    }
 
                     if ( !seekForward && pos >= keyCount )
                     {
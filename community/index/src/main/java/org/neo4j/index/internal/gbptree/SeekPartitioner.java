@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.io.pagecache.PageCursor;
+
+import static java.util.Collections.singletonList;
+import static org.neo4j.index.internal.gbptree.TreeNode.Type.INTERNAL;
+
+/**
+ * Finds keys which splits a key range into a number of roughly equally sized partitions. Keys are taken from
+ * internal nodes, starting at the root and descending level by level, only into children overlapping the range,
+ * until a level has plenty of keys within the range or there are no more internal levels.
+ * <p>
+ * Nodes are read without any locking, concurrently with changes to the tree. The returned keys are therefore only
+ * hints of where the range can be split. Regardless of what was read, the returned keys are ordered and within
+ * the range, so seeking each partition will together cover exactly the range.
+ *
+ * @param <KEY> type of keys
+ * @param <VALUE> type of values
+ */
+class SeekPartitioner<KEY,VALUE>
+{
+    /**
+     * Descend until there are at least this many keys per partition to choose boundaries from, so that subtrees
+     * of different sizes evens out between partitions.
+     */
+    private static final int KEYS_PER_PARTITION = 4;
+
+    private final TreeNode<KEY,VALUE> bTreeNode;
+    private final Layout<KEY,VALUE> layout;
+    private final long stableGeneration;
+    private final long unstableGeneration;
+
+    SeekPartitioner( TreeNode<KEY,VALUE> bTreeNode, Layout<KEY,VALUE> layout, long stableGeneration, long unstableGeneration )
+    {
+        this.bTreeNode = bTreeNode;
+        this.layout = layout;
+        this.stableGeneration = stableGeneration;
+        this.unstableGeneration = unstableGeneration;
+    }
+
+    /**
+     * @param cursor {@link PageCursor} placed at root.
+     * @param fromInclusive lower bound of the range to partition.
+     * @param toExclusive higher bound of the range to partition, must not be lower than {@code fromInclusive}.
+     * @param desiredNumberOfPartitions number of partitions to split the range into. Fewer partitions
+     * will be returned if there are not enough keys in internal nodes within the range.
+     * @return ordered list of partition boundaries, starting with {@code fromInclusive} and ending with
+     * {@code toExclusive}, i.e. partition {@code i} is {@code [boundaries[i], boundaries[i + 1])}.
+     * @throws IOException on error reading from the tree.
+     */
+    List<KEY> partitionBoundaries( PageCursor cursor, KEY fromInclusive, KEY toExclusive, int desiredNumberOfPartitions )
+            throws IOException
+    {
+        List<KEY> keys = new ArrayList<>();
+        List<Long> levelNodes = singletonList( cursor.getCurrentPageId() );
+        while ( desiredNumberOfPartitions > 1 && keys.size() < desiredNumberOfPartitions * KEYS_PER_PARTITION &&
+                !levelNodes.isEmpty() )
+        {
+            List<KEY> levelKeys = new ArrayList<>();
+            List<Long> children = new ArrayList<>();
+            boolean reachedLeafLevel = false;
+            for ( int i = 0; i < levelNodes.size() && !reachedLeafLevel; i++ )
+            {
+                TreeNode.goTo( cursor, "partition", levelNodes.get( i ) );
+                boolean internal = readInternalNode( cursor, fromInclusive, toExclusive, levelKeys, children );
+                reachedLeafLevel = i == 0 && !internal;
+            }
+            if ( reachedLeafLevel )
+            {
+                // Keys from the level above is the most we'll get
+                break;
+            }
+            keys = levelKeys;
+            levelNodes = children;
+        }
+
+        keys.sort( layout );
+        List<KEY> boundaries = new ArrayList<>();
+        boundaries.add( fromInclusive );
+        int numberOfKeys = keys.size();
+        int numberOfPartitions = Math.min( desiredNumberOfPartitions, numberOfKeys + 1 );
+        for ( int partition = 1; partition < numberOfPartitions; partition++ )
+        {
+            // Choose keys so that number of children between boundaries are as equal as possible
+            KEY key = keys.get( (int) ((long) partition * (numberOfKeys + 1) / numberOfPartitions) - 1 );
+            if ( layout.compare( boundaries.get( boundaries.size() - 1 ), key ) < 0 )
+            {
+                boundaries.add( key );
+            }
+        }
+        boundaries.add( toExclusive );
+        return boundaries;
+    }
+
+    /**
+     * Reads keys within range and children overlapping range from internal node at cursor. Nothing is read if
+     * the node isn't an internal tree node, e.g. if it was reused while reading. Children are only
+     * followed when reading the next level and a pointer which couldn't be read reliably is skipped.
+     *
+     * @return {@code true} if node was read as an internal node, otherwise {@code false}.
+     */
+    private boolean readInternalNode( PageCursor cursor, KEY fromInclusive, KEY toExclusive, List<KEY> keysInRange,
+            List<Long> childrenInRange ) throws IOException
+    {
+        List<KEY> keys = new ArrayList<>();
+        List<Long> children = new ArrayList<>();
+        boolean internal;
+        do
+        {
+            keys.clear();
+            children.clear();
+            int keyCount = TreeNode.keyCount( cursor );
+            internal = TreeNode.nodeType( cursor ) == TreeNode.NODE_TYPE_TREE_NODE && TreeNode.isInternal( cursor ) &&
+                    bTreeNode.reasonableKeyCount( keyCount );
+            if ( !internal )
+            {
+                continue;
+            }
+
+            // Child at pos covers keys in [key(pos - 1), key(pos))
+            KEY previousKey = null;
+            for ( int pos = 0; pos <= keyCount; pos++ )
+            {
+                KEY key = pos < keyCount ? bTreeNode.keyAt( cursor, layout.newKey(), pos, INTERNAL ) : null;
+                boolean afterFrom = key == null || layout.compare( key, fromInclusive ) > 0;
+                boolean beforeTo = previousKey == null || layout.compare( previousKey, toExclusive ) < 0;
+                if ( afterFrom && beforeTo )
+                {
+                    children.add( bTreeNode.childAt( cursor, pos, stableGeneration, unstableGeneration ) );
+                }
+                if ( key != null && afterFrom && layout.compare( key, toExclusive ) < 0 )
+                {
+                    keys.add( key );
+                }
+                previousKey = key;
+            }
+        }
+        while ( cursor.shouldRetry() );
+        cursor.clearCursorException();
+        if ( cursor.checkAndClearBoundsFlag() || !internal )
+        {
+            return false;
+        }
+
+        keysInRange.addAll( keys );
+        for ( long child : children )
+        {
+            if ( GenerationSafePointerPair.isSuccess( child ) )
+            {
+                childrenInRange.add( GenerationSafePointerPair.pointer( child ) );
+            }
+        }
+        return true;
+    }
+}
@@ -310,6 +310,20 @@ abstract class TreeNode<KEY,VALUE>
      */
     abstract Overflow leafOverflow( PageCursor cursor, int currentKeyCount, KEY newKey, VALUE newValue );
 
+    /**
+     * Can new key be appended to internal without filling it more than {@code fillFactor} of its space?
+     * Used when bulk loading, which always allows at least two keys in an internal node.
+     * @return true if key can be appended, else false.
+     */
+    abstract boolean internalAppendFits( PageCursor cursor, int currentKeyCount, KEY newKey, double fillFactor );
+
+    /**
+     * Can new key and value be appended to leaf without filling it more than {@code fillFactor} of its space?
+     * Used when bulk loading, which always allows at least one key in a leaf.
+     * @return true if key and value can be appended, else false.
+     */
+    abstract boolean leafAppendFits( PageCursor cursor, int currentKeyCount, KEY newKey, VALUE newValue, double fillFactor );
+
     /**
      * Clean page with leaf node from garbage to make room for further insert without having to split.
      */
@@ -322,6 +336,12 @@ abstract class TreeNode<KEY,VALUE>
 
     abstract boolean leafUnderflow( PageCursor cursor, int keyCount );
 
+    /**
+     * Would leaf underflow if the entry at {@code pos} was removed? Answers what {@link #leafUnderflow(PageCursor, int)}
+     * would answer after {@link #removeKeyValueAt(PageCursor, int, int)}, without changing the leaf.
+     */
+    abstract boolean leafUnderflowAfterRemove( PageCursor cursor, int keyCount, int pos );
+
     /**
      * How do we best rebalance left and right leaf?
      * Can we move keys from underflowing left to right so that none of them underflow?
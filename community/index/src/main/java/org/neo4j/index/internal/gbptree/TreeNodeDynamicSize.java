@@ -99,7 +99,7 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         super( pageSize, layout );
         totalSpace = pageSize - HEADER_LENGTH_DYNAMIC;
         halfSpace = totalSpace / 2;
-        keyValueSizeCap = totalSpace / LEAST_NUMBER_OF_ENTRIES_PER_PAGE - SIZE_TOTAL_OVERHEAD;
+        keyValueSizeCap = keyValueSizeCapFromPageSize( pageSize );
 
         if ( keyValueSizeCap < MINIMUM_ENTRY_SIZE_CAP )
         {
@@ -110,6 +110,11 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         }
     }
 
+    static int keyValueSizeCapFromPageSize( int pageSize )
+    {
+        return (pageSize - HEADER_LENGTH_DYNAMIC) / LEAST_NUMBER_OF_ENTRIES_PER_PAGE - SIZE_TOTAL_OVERHEAD;
+    }
+
     @Override
     void writeAdditionalHeader( PageCursor cursor )
     {
@@ -382,6 +387,27 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
                neededSpace < allocSpace + deadSpace ? Overflow.NO_NEED_DEFRAG : Overflow.YES;
     }
 
+    @Override
+    boolean internalAppendFits( PageCursor cursor, int currentKeyCount, KEY newKey, double fillFactor )
+    {
+        if ( internalOverflow( cursor, currentKeyCount, newKey ) != Overflow.NO )
+        {
+            return false;
+        }
+        int activeSpace = totalSpace - getAllocSpace( cursor, currentKeyCount, INTERNAL ) - getDeadSpace( cursor );
+        return currentKeyCount < 2 || activeSpace + totalSpaceOfKeyChild( newKey ) <= totalSpace * fillFactor;
+    }
+
+    @Override
+    boolean leafAppendFits( PageCursor cursor, int currentKeyCount, KEY newKey, VALUE newValue, double fillFactor )
+    {
+        if ( leafOverflow( cursor, currentKeyCount, newKey, newValue ) != Overflow.NO )
+        {
+            return false;
+        }
+        return currentKeyCount == 0 || totalActiveSpace( cursor, currentKeyCount ) + totalSpaceOfKeyValue( newKey, newValue ) <= totalSpace * fillFactor;
+    }
+
     @Override
     Overflow leafOverflow( PageCursor cursor, int currentKeyCount, KEY newKey, VALUE newValue )
     {
@@ -390,6 +416,14 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         int allocSpace = getAllocSpace( cursor, currentKeyCount, LEAF );
 
         // How much space do we need?
+        int keySize = layout.keySize( newKey );
+        int valueSize = layout.valueSize( newValue );
+        if ( keySize + valueSize > keyValueSizeCap )
+        {
+            throw new IllegalArgumentException( format(
+                    "Index key-value size %dB is larger than the limit of %dB for the page size of %dB of this tree.",
+                    keySize + valueSize, keyValueSizeCap, pageSize ) );
+        }
         int neededSpace = totalSpaceOfKeyValue( newKey, newValue );
 
         // There is your answer!
@@ -558,6 +592,17 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         return availableSpace > halfSpace;
     }
 
+    @Override
+    boolean leafUnderflowAfterRemove( PageCursor cursor, int keyCount, int pos )
+    {
+        // Removal shrinks the offset array by one key offset and turns the rest of the entry into dead space
+        int allocSpace = getAllocSpace( cursor, keyCount - 1, LEAF );
+        int deadSpace = getDeadSpace( cursor ) + totalSpaceOfKeyValue( cursor, pos ) - bytesKeyOffset();
+        int availableSpace = allocSpace + deadSpace;
+
+        return availableSpace > halfSpace;
+    }
+
     @Override
     int canRebalanceLeaves( PageCursor leftCursor, int leftKeyCount, PageCursor rightCursor, int rightKeyCount )
     {
@@ -313,6 +313,18 @@ class TreeNodeFixedSize<KEY,VALUE> extends TreeNode<KEY,VALUE>
         return currentKeyCount + 1 > leafMaxKeyCount() ? Overflow.YES : Overflow.NO;
     }
 
+    @Override
+    boolean internalAppendFits( PageCursor cursor, int currentKeyCount, KEY newKey, double fillFactor )
+    {
+        return currentKeyCount + 1 <= Math.max( Math.min( 2, internalMaxKeyCount() ), internalMaxKeyCount() * fillFactor );
+    }
+
+    @Override
+    boolean leafAppendFits( PageCursor cursor, int currentKeyCount, KEY newKey, VALUE newValue, double fillFactor )
+    {
+        return currentKeyCount == 0 || currentKeyCount + 1 <= leafMaxKeyCount() * fillFactor;
+    }
+
     @Override
     void defragmentLeaf( PageCursor cursor )
     {   // no-op
@@ -329,6 +341,12 @@ class TreeNodeFixedSize<KEY,VALUE> extends TreeNode<KEY,VALUE>
         return keyCount < (leafMaxKeyCount() + 1) / 2;
     }
 
+    @Override
+    boolean leafUnderflowAfterRemove( PageCursor cursor, int keyCount, int pos )
+    {
+        return leafUnderflow( cursor, keyCount - 1 );
+    }
+
     @Override
     int canRebalanceLeaves( PageCursor leftCursor, int leftKeyCount, PageCursor rightCursor, int rightKeyCount )
     {
@@ -0,0 +1,350 @@
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.cursor.RawCursor;
+import org.neo4j.io.pagecache.IOLimiter;
+import org.neo4j.test.rule.PageCacheAndDependenciesRule;
+import org.neo4j.test.rule.RandomRule;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public abstract class GBPTreeBulkLoadTestBase<KEY,VALUE>
+{
+    private static final int PAGE_SIZE = 512;
+
+    private RandomRule random = new RandomRule();
+    private PageCacheAndDependenciesRule deps = new PageCacheAndDependenciesRule();
+
+    @Rule
+    public RuleChain ruleChain = RuleChain.outerRule( random ).around( deps );
+
+    private TestLayout<KEY,VALUE> layout;
+    private File indexFile;
+
+    @Before
+    public void setUp()
+    {
+        indexFile = deps.directory().file( "index" );
+        layout = getLayout();
+    }
+
+    abstract TestLayout<KEY,VALUE> getLayout();
+
+    @Test
+    public void shouldSeeAllBulkLoadedEntries() throws Exception
+    {
+        // GIVEN
+        List<Long> seeds = randomAscendingSeeds( 10_000 );
+        double fillFactor = 0.5 + random.nextDouble() * 0.5;
+
+        try ( GBPTree<KEY,VALUE> index = index() )
+        {
+            // WHEN
+            long loaded = index.bulkLoad( source( seeds ), fillFactor );
+
+            // THEN
+            assertEquals( seeds.size(), loaded );
+            assertContainsExactly( index, seeds );
+            for ( int i = 0; i < 100; i++ )
+            {
+                long seed = seeds.get( random.nextInt( seeds.size() ) );
+                try ( RawCursor<Hit<KEY,VALUE>,IOException> cursor = index.seek( key( seed ), key( seed ) ) )
+                {
+                    assertTrue( cursor.next() );
+                    assertEquals( seed, layout.valueSeed( cursor.get().value() ) );
+                    assertFalse( cursor.next() );
+                }
+            }
+            assertTrue( index.consistencyCheck() );
+        }
+    }
+
+    @Test
+    public void shouldBulkLoadSingleLeaf() throws Exception
+    {
+        // GIVEN
+        List<Long> seeds = randomAscendingSeeds( 3 );
+
+        try ( GBPTree<KEY,VALUE> index = index() )
+        {
+            // WHEN
+            index.bulkLoad( source( seeds ), 1.0 );
+
+            // THEN
+            assertContainsExactly( index, seeds );
+            assertTrue( index.consistencyCheck() );
+        }
+    }
+
+    @Test
+    public void shouldLeaveTreeEmptyWhenBulkLoadingEmptySource() throws Exception
+    {
+        try ( GBPTree<KEY,VALUE> index = index() )
+        {
+            // WHEN
+            long loaded = index.bulkLoad( source( new ArrayList<>() ), 1.0 );
+
+            // THEN
+            assertEquals( 0, loaded );
+            assertContainsExactly( index, new ArrayList<>() );
+            try ( Writer<KEY,VALUE> writer = index.writer() )
+            {
+                writer.put( key( 1 ), value( 1 ) );
+            }
+            assertContainsExactly( index, listOf( 1 ) );
+        }
+    }
+
+    @Test
+    public void shouldAllowChangesAfterBulkLoad() throws Exception
+    {
+        // GIVEN
+        List<Long> seeds = new ArrayList<>();
+        for ( long seed = 0; seed < 10_000; seed += 2 )
+        {
+            seeds.add( seed );
+        }
+
+        try ( GBPTree<KEY,VALUE> index = index() )
+        {
+            index.bulkLoad( source( seeds ), random.nextBoolean() ? 1.0 : 0.7 );
+
+            // WHEN
+            List<Long> expected = new ArrayList<>();
+            try ( Writer<KEY,VALUE> writer = index.writer() )
+            {
+                for ( long seed = 0; seed < 10_000; seed++ )
+                {
+                    if ( seed % 2 == 1 )
+                    {
+                        writer.put( key( seed ), value( seed ) );
+                        expected.add( seed );
+                    }
+                    else if ( seed % 4 == 0 )
+                    {
+                        assertEquals( seed, layout.valueSeed( writer.remove( key( seed ) ) ) );
+                    }
+                    else
+                    {
+                        expected.add( seed );
+                    }
+                }
+            }
+
+            // THEN
+            assertContainsExactly( index, expected );
+            assertTrue( index.consistencyCheck() );
+        }
+    }
+
+    @Test
+    public void shouldSeeBulkLoadedEntriesAfterCheckpointAndReopen() throws Exception
+    {
+        // GIVEN
+        List<Long> seeds = randomAscendingSeeds( 5_000 );
+        try ( GBPTree<KEY,VALUE> index = index() )
+        {
+            index.bulkLoad( source( seeds ), 1.0 );
+            index.checkpoint( IOLimiter.unlimited() );
+        }
+
+        // WHEN
+        try ( GBPTree<KEY,VALUE> index = index() )
+        {
+            // THEN
+            assertContainsExactly( index, seeds );
+            assertTrue( index.consistencyCheck() );
+        }
+    }
+
+    @Test
+    public void shouldFailBulkLoadIntoNonEmptyTree() throws Exception
+    {
+        try ( GBPTree<KEY,VALUE> index = index() )
+        {
+            // GIVEN
+            try ( Writer<KEY,VALUE> writer = index.writer() )
+            {
+                writer.put( key( 1 ), value( 1 ) );
+            }
+
+            // WHEN
+            try
+            {
+                index.bulkLoad( source( listOf( 2, 3 ) ), 1.0 );
+                fail( "Should have failed" );
+            }
+            catch ( IllegalStateException e )
+            {
+                // THEN good
+            }
+            assertContainsExactly( index, listOf( 1 ) );
+        }
+    }
+
+    @Test
+    public void shouldFailBulkLoadOfUnorderedEntries() throws Exception
+    {
+        try ( GBPTree<KEY,VALUE> index = index() )
+        {
+            // WHEN
+            try
+            {
+                index.bulkLoad( source( listOf( 1, 3, 2 ) ), 1.0 );
+                fail( "Should have failed" );
+            }
+            catch ( IllegalArgumentException e )
+            {
+                // THEN good
+            }
+            assertContainsExactly( index, new ArrayList<>() );
+        }
+    }
+
+    @Test
+    public void shouldFailBulkLoadWithFillFactorOutOfRange() throws Exception
+    {
+        try ( GBPTree<KEY,VALUE> index = index() )
+        {
+            for ( double fillFactor : new double[]{0.4, 1.1} )
+            {
+                try
+                {
+                    index.bulkLoad( source( listOf( 1 ) ), fillFactor );
+                    fail( "Should have failed" );
+                }
+                catch ( IllegalArgumentException e )
+                {
+                    // good
+                }
+            }
+        }
+    }
+
+    private void assertContainsExactly( GBPTree<KEY,VALUE> index, List<Long> expectedSeeds ) throws IOException
+    {
+        try ( RawCursor<Hit<KEY,VALUE>,IOException> cursor = index.seek( key( 0 ), key( Long.MAX_VALUE ) ) )
+        {
+            for ( long expectedSeed : expectedSeeds )
+            {
+                assertTrue( cursor.next() );
+                assertEquals( expectedSeed, layout.keySeed( cursor.get().key() ) );
+                assertEquals( expectedSeed, layout.valueSeed( cursor.get().value() ) );
+            }
+            assertFalse( cursor.next() );
+        }
+    }
+
+    private List<Long> randomAscendingSeeds( int count )
+    {
+        List<Long> seeds = new ArrayList<>( count );
+        long seed = 0;
+        for ( int i = 0; i < count; i++ )
+        {
+            seed += 1 + random.nextInt( 10 );
+            seeds.add( seed );
+        }
+        return seeds;
+    }
+
+    private static List<Long> listOf( long... seeds )
+    {
+        List<Long> list = new ArrayList<>( seeds.length );
+        for ( long seed : seeds )
+        {
+            list.add( seed );
+        }
+        return list;
+    }
+
+    private RawCursor<Hit<KEY,VALUE>,IOException> source( List<Long> seeds )
+    {
+        return new SeedCursor( seeds );
+    }
+
+    private GBPTree<KEY,VALUE> index() throws IOException
+    {
+        return new GBPTreeBuilder<>( deps.pageCache(), indexFile, layout ).withIndexPageSize( PAGE_SIZE ).build();
+    }
+
+    private VALUE value( long seed )
+    {
+        return layout.value( seed );
+    }
+
+    private KEY key( long seed )
+    {
+        return layout.key( seed );
+    }
+
+    private class SeedCursor implements RawCursor<Hit<KEY,VALUE>,IOException>, Hit<KEY,VALUE>
+    {
+        private final List<Long> seeds;
+        private int index = -1;
+
+        SeedCursor( List<Long> seeds )
+        {
+            this.seeds = seeds;
+        }
+
+        @Override
+        public boolean next()
+        {
+            return ++index < seeds.size();
+        }
+
+        @Override
+        public Hit<KEY,VALUE> get()
+        {
+            return this;
+        }
+
+        @Override
+        public KEY key()
+        {
+            return GBPTreeBulkLoadTestBase.this.key( seeds.get( index ) );
+        }
+
+        @Override
+        public VALUE value()
+        {
+            return GBPTreeBulkLoadTestBase.this.value( seeds.get( index ) );
+        }
+
+        @Override
+        public void close()
+        {
+        }
+    }
+}
@@ -161,6 +161,63 @@ public class GBPTreeLockTest
         assertOnlyOneSucceeds( lock::writerAndCleanerLock, lock::writerAndCleanerLock );
     }
 
+    @Test( timeout = 10_000 )
+    public void test_race_SharedvsShared() throws Throwable
+    {
+        assertBothSucceeds( lock::sharedWriterLock, lock::sharedWriterLock );
+    }
+
+    @Test( timeout = 10_000 )
+    public void test_race_SharedvsLU() throws Throwable
+    {
+        assertOnlyOneSucceeds( lock::sharedWriterLock, lock::writerLock );
+    }
+
+    @Test
+    public void sharedWriterLockShouldBlockWriterUntilLastSharedUnlock() throws Exception
+    {
+        // given
+        lock.sharedWriterLock();
+        lock.sharedWriterLock();
+
+        // when
+        lock.sharedWriterUnlock();
+
+        // then
+        assertBlock( lock::writerAndCleanerLock, lock::sharedWriterUnlock );
+        lock.writerAndCleanerUnlock();
+        assertUU();
+    }
+
+    @Test
+    public void sharedWriterLockShouldWaitForWriter() throws Exception
+    {
+        // given
+        lock.writerLock();
+
+        // when
+        Future<Object> future = executor.execute( state ->
+        {
+            lock.sharedWriterLock();
+            return null;
+        } );
+        executor.get().waitUntilWaiting( details -> details.isAt( GBPTreeLock.class, "sharedWriterLock" ) );
+        lock.writerUnlock();
+
+        // then
+        future.get();
+        lock.sharedWriterUnlock();
+        assertUU();
+    }
+
+    @Test
+    public void sharedWriterUnlockShouldFailIfNotLockedShared()
+    {
+        assertThrow( lock::sharedWriterUnlock );
+        lock.writerLock();
+        assertThrow( lock::sharedWriterUnlock );
+    }
+
     private void assertOnlyOneSucceeds( Runnable lockAction1, Runnable lockAction2 ) throws Throwable
     {
         assertUU();
@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.neo4j.cursor.RawCursor;
+import org.neo4j.io.IOUtils;
+import org.neo4j.test.rule.PageCacheAndDependenciesRule;
+import org.neo4j.test.rule.RandomRule;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public abstract class GBPTreePartitionedSeekTestBase<KEY,VALUE>
+{
+    private static final int PAGE_SIZE = 512;
+
+    private RandomRule random = new RandomRule();
+    private PageCacheAndDependenciesRule deps = new PageCacheAndDependenciesRule();
+
+    @Rule
+    public RuleChain ruleChain = RuleChain.outerRule( random ).around( deps );
+
+    private TestLayout<KEY,VALUE> layout;
+    private File indexFile;
+
+    @Before
+    public void setUp()
+    {
+        indexFile = deps.directory().file( "index" );
+        layout = getLayout();
+    }
+
+    abstract TestLayout<KEY,VALUE> getLayout();
+
+    @Test
+    public void partitionsShouldTogetherContainAllEntriesInOrder() throws Exception
+    {
+        // GIVEN
+        try ( GBPTree<KEY,VALUE> index = index() )
+        {
+            List<Long> seeds = insertRandomSeeds( index, 10_000 );
+
+            // WHEN
+            List<RawCursor<Hit<KEY,VALUE>,IOException>> partitions = index.partitionedSeek( key( 0 ), key( Long.MAX_VALUE ), 8 );
+
+            // THEN
+            assertEquals( 8, partitions.size() );
+            assertEquals( seeds, consume( partitions ) );
+        }
+    }
+
+    @Test
+    public void partitionsShouldOnlyContainEntriesWithinRange() throws Exception
+    {
+        // GIVEN
+        try ( GBPTree<KEY,VALUE> index = index() )
+        {
+            List<Long> seeds = insertRandomSeeds( index, 10_000 );
+            long from = seeds.get( seeds.size() / 4 ) + random.nextInt( 2 );
+            long to = seeds.get( seeds.size() * 3 / 4 ) + random.nextInt( 2 );
+            List<Long> expected = new ArrayList<>();
+            for ( long seed : seeds )
+            {
+                if ( seed >= from && seed < to )
+                {
+                    expected.add( seed );
+                }
+            }
+
+            // WHEN
+            int desiredNumberOfPartitions = 1 + random.nextInt( 20 );
+            List<RawCursor<Hit<KEY,VALUE>,IOException>> partitions =
+                    index.partitionedSeek( key( from ), key( to ), desiredNumberOfPartitions );
+
+            // THEN
+            assertTrue( partitions.size() >= 1 && partitions.size() <= desiredNumberOfPartitions );
+            assertEquals( expected, consume( partitions ) );
+        }
+    }
+
+    @Test
+    public void shouldReturnSinglePartitionForRootLeaf() throws Exception
+    {
+        // GIVEN
+        try ( GBPTree<KEY,VALUE> index = index() )
+        {
+            List<Long> seeds = insertRandomSeeds( index, 3 );
+
+            // WHEN
+            List<RawCursor<Hit<KEY,VALUE>,IOException>> partitions = index.partitionedSeek( key( 0 ), key( Long.MAX_VALUE ), 4 );
+
+            // THEN
+            assertEquals( 1, partitions.size() );
+            assertEquals( seeds, consume( partitions ) );
+        }
+    }
+
+    @Test
+    public void partitionsShouldBeConsumableConcurrently() throws Exception
+    {
+        // GIVEN
+        ExecutorService executor = Executors.newFixedThreadPool( 4 );
+        try ( GBPTree<KEY,VALUE> index = index() )
+        {
+            List<Long> seeds = insertRandomSeeds( index, 10_000 );
+
+            // WHEN
+            List<RawCursor<Hit<KEY,VALUE>,IOException>> partitions = index.partitionedSeek( key( 0 ), key( Long.MAX_VALUE ), 4 );
+            List<Future<List<Long>>> futures = new ArrayList<>();
+            for ( RawCursor<Hit<KEY,VALUE>,IOException> partition : partitions )
+            {
+                futures.add( executor.submit( () -> consume( partition ) ) );
+            }
+
+            // THEN
+            List<Long> result = new ArrayList<>();
+            for ( Future<List<Long>> future : futures )
+            {
+                result.addAll( future.get() );
+            }
+            assertEquals( seeds, result );
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldFailPartitionedSeekOnDescendingRange() throws Exception
+    {
+        try ( GBPTree<KEY,VALUE> index = index() )
+        {
+            // WHEN
+            try
+            {
+                index.partitionedSeek( key( 10 ), key( 0 ), 2 );
+                fail( "Should have failed" );
+            }
+            catch ( IllegalArgumentException e )
+            {
+                // THEN good
+            }
+        }
+    }
+
+    private List<Long> insertRandomSeeds( GBPTree<KEY,VALUE> index, int count ) throws IOException
+    {
+        List<Long> seeds = new ArrayList<>( count );
+        long seed = 0;
+        for ( int i = 0; i < count; i++ )
+        {
+            seed += 1 + random.nextInt( 10 );
+            seeds.add( seed );
+        }
+        List<Long> shuffled = new ArrayList<>( seeds );
+        Collections.shuffle( shuffled, random.random() );
+        try ( Writer<KEY,VALUE> writer = index.writer() )
+        {
+            for ( long insert : shuffled )
+            {
+                writer.put( key( insert ), layout.value( insert ) );
+            }
+        }
+        return seeds;
+    }
+
+    private List<Long> consume( List<RawCursor<Hit<KEY,VALUE>,IOException>> partitions ) throws IOException
+    {
+        List<Long> result = new ArrayList<>();
+        try
+        {
+            for ( RawCursor<Hit<KEY,VALUE>,IOException> partition : partitions )
+            {
+                result.addAll( consume( partition ) );
+            }
+        }
+        finally
+        {
+            IOUtils.closeAll( partitions );
+        }
+        return result;
+    }
+
+    private List<Long> consume( RawCursor<Hit<KEY,VALUE>,IOException> partition ) throws IOException
+    {
+        List<Long> result = new ArrayList<>();
+        while ( partition.next() )
+        {
+            result.add( layout.keySeed( partition.get().key() ) );
+        }
+        return result;
+    }
+
+    private GBPTree<KEY,VALUE> index() throws IOException
+    {
+        return new GBPTreeBuilder<>( deps.pageCache(), indexFile, layout ).withIndexPageSize( PAGE_SIZE ).build();
+    }
+
+    private KEY key( long seed )
+    {
+        return layout.key( seed );
+    }
+}
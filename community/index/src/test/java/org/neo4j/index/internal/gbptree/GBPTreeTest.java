@@ -474,6 +474,110 @@ public class GBPTreeTest
         index.close(); // should be OK
     }
 
+    @Test
+    public void shouldAllowMultipleConcurrentWriters() throws Exception
+    {
+        // GIVEN
+        try ( GBPTree<MutableLong,MutableLong> index = index().build() )
+        {
+            // WHEN
+            try ( Writer<MutableLong,MutableLong> first = index.concurrentWriter();
+                  Writer<MutableLong,MutableLong> second = index.concurrentWriter() )
+            {
+                first.put( new MutableLong( 1 ), new MutableLong( 10 ) );
+                second.put( new MutableLong( 2 ), new MutableLong( 20 ) );
+                first.put( new MutableLong( 3 ), new MutableLong( 30 ) );
+                assertEquals( 10, second.remove( new MutableLong( 1 ) ).longValue() );
+            }
+
+            // THEN
+            try ( RawCursor<Hit<MutableLong,MutableLong>,IOException> seek = index.seek( new MutableLong( 0 ), new MutableLong( 10 ) ) )
+            {
+                assertTrue( seek.next() );
+                assertEquals( 2, seek.get().key().longValue() );
+                assertTrue( seek.next() );
+                assertEquals( 3, seek.get().key().longValue() );
+                assertFalse( seek.next() );
+            }
+        }
+    }
+
+    @Test
+    public void shouldNotAllowClosingConcurrentWriterMultipleTimes() throws Exception
+    {
+        // GIVEN
+        try ( GBPTree<MutableLong,MutableLong> index = index().build() )
+        {
+            Writer<MutableLong,MutableLong> writer = index.concurrentWriter();
+            writer.put( new MutableLong( 0 ), new MutableLong( 1 ) );
+            writer.close();
+
+            try
+            {
+                // WHEN
+                writer.close();
+                fail( "Should have failed" );
+            }
+            catch ( IllegalStateException e )
+            {
+                // THEN
+                assertThat( e.getMessage(), containsString( "already closed" ) );
+            }
+        }
+    }
+
+    @Test
+    public void concurrentWritersShouldApplyAllChanges() throws Exception
+    {
+        // GIVEN
+        int threads = 4;
+        int keysPerThread = 2_000;
+        try ( GBPTree<MutableLong,MutableLong> index = index().build() )
+        {
+            // WHEN each thread inserts its own interleaved set of keys and removes every other of them again
+            List<Future<?>> writes = new ArrayList<>();
+            for ( int t = 0; t < threads; t++ )
+            {
+                int thread = t;
+                writes.add( executor.submit( throwing( () ->
+                {
+                    try ( Writer<MutableLong,MutableLong> writer = index.concurrentWriter() )
+                    {
+                        for ( int i = 0; i < keysPerThread; i++ )
+                        {
+                            long key = i * threads + thread;
+                            writer.put( new MutableLong( key ), new MutableLong( key * 10 ) );
+                        }
+                        for ( int i = 0; i < keysPerThread; i += 2 )
+                        {
+                            long key = i * threads + thread;
+                            assertEquals( key * 10, writer.remove( new MutableLong( key ) ).longValue() );
+                        }
+                    }
+                } ) ) );
+            }
+            for ( Future<?> write : writes )
+            {
+                write.get();
+            }
+
+            // THEN
+            long expectedKey = threads;
+            try ( RawCursor<Hit<MutableLong,MutableLong>,IOException> seek =
+                    index.seek( new MutableLong( 0 ), new MutableLong( Long.MAX_VALUE ) ) )
+            {
+                while ( seek.next() )
+                {
+                    assertEquals( expectedKey, seek.get().key().longValue() );
+                    assertEquals( expectedKey * 10, seek.get().value().longValue() );
+                    expectedKey = expectedKey % threads == threads - 1 ? expectedKey + threads + 1 : expectedKey + 1;
+                }
+            }
+            assertEquals( keysPerThread * threads + threads, expectedKey );
+            index.consistencyCheck();
+        }
+    }
+
     /* Header test */
 
     @Test
@@ -851,6 +955,47 @@ public class GBPTreeTest
         }
     }
 
+    @Test( timeout = 5_000L )
+    public void checkPointShouldWaitForConcurrentWriters() throws Exception
+    {
+        // GIVEN
+        try ( GBPTree<MutableLong,MutableLong> index = index().build() )
+        {
+            Writer<MutableLong,MutableLong> first = index.concurrentWriter();
+            Writer<MutableLong,MutableLong> second = index.concurrentWriter();
+            first.put( new MutableLong( 1 ), new MutableLong( 1 ) );
+            second.put( new MutableLong( 2 ), new MutableLong( 2 ) );
+
+            // WHEN
+            Future<?> checkpoint = executor.submit( throwing( () -> index.checkpoint( unlimited() ) ) );
+            shouldWait( checkpoint );
+            first.close();
+            shouldWait( checkpoint );
+
+            // THEN
+            second.close();
+            checkpoint.get();
+        }
+    }
+
+    @Test( timeout = 5_000L )
+    public void concurrentWriterShouldWaitForSingleWriter() throws Exception
+    {
+        // GIVEN
+        try ( GBPTree<MutableLong,MutableLong> index = index().build() )
+        {
+            Writer<MutableLong,MutableLong> writer = index.writer();
+
+            // WHEN
+            Future<?> concurrentWriterClose = executor.submit( throwing( () -> index.concurrentWriter().close() ) );
+            shouldWait( concurrentWriterClose );
+
+            // THEN
+            writer.close();
+            concurrentWriterClose.get();
+        }
+    }
+
     @Test( timeout = 5_000L )
     public void closeShouldLockOutWriter() throws Exception
     {
@@ -1335,6 +1480,73 @@ public class GBPTreeTest
                 2, monitor.numberOfPagesVisited ); // Root and successor of root
     }
 
+    /* Compaction tests */
+
+    @Test
+    public void compactShouldMergeSparseLeavesAndKeepAllEntries() throws Exception
+    {
+        // GIVEN
+        int count = 10_000;
+        MonitorCompaction monitor = new MonitorCompaction();
+        try ( GBPTree<MutableLong,MutableLong> index = index( 256 ).with( monitor ).build() )
+        {
+            try ( Writer<MutableLong,MutableLong> writer = index.writer() )
+            {
+                for ( long i = 0; i < count; i++ )
+                {
+                    writer.put( new MutableLong( i ), new MutableLong( i ) );
+                }
+            }
+            try ( Writer<MutableLong,MutableLong> writer = index.writer() )
+            {
+                for ( long i = 0; i < count; i++ )
+                {
+                    if ( i % 5 != 0 )
+                    {
+                        writer.remove( new MutableLong( i ) );
+                    }
+                }
+            }
+            index.checkpoint( unlimited() );
+
+            // WHEN
+            index.compact( unlimited() );
+
+            // THEN
+            assertTrue( monitor.compactionCalled );
+            assertTrue( monitor.numberOfLeavesCompacted > 0 );
+            assertTrue( index.consistencyCheck() );
+            try ( RawCursor<Hit<MutableLong,MutableLong>,IOException> seek =
+                    index.seek( new MutableLong( Long.MIN_VALUE ), new MutableLong( Long.MAX_VALUE ) ) )
+            {
+                for ( long i = 0; i < count; i += 5 )
+                {
+                    assertTrue( seek.next() );
+                    assertEquals( i, seek.get().key().longValue() );
+                    assertEquals( i, seek.get().value().longValue() );
+                }
+                assertFalse( seek.next() );
+            }
+        }
+    }
+
+    @Test
+    public void compactShouldHandleEmptyTree() throws Exception
+    {
+        // GIVEN
+        MonitorCompaction monitor = new MonitorCompaction();
+        try ( GBPTree<MutableLong,MutableLong> index = index().with( monitor ).build() )
+        {
+            // WHEN
+            index.compact( unlimited() );
+
+            // THEN
+            assertTrue( monitor.compactionCalled );
+            assertEquals( 0, monitor.numberOfLeavesCompacted );
+            assertTrue( index.consistencyCheck() );
+        }
+    }
+
     /* Dirty state tests */
 
     @Test
@@ -1826,4 +2038,17 @@ public class GBPTreeTest
             return cleanupCalled;
         }
     }
+
+    private static class MonitorCompaction extends Monitor.Adaptor
+    {
+        private boolean compactionCalled;
+        private long numberOfLeavesCompacted;
+
+        @Override
+        public void compactionCompleted( long numberOfLeavesVisited, long numberOfLeavesCompacted, long durationMillis )
+        {
+            compactionCalled = true;
+            this.numberOfLeavesCompacted = numberOfLeavesCompacted;
+        }
+    }
 }
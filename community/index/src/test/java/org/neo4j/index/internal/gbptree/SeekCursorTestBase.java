@@ -482,6 +482,61 @@ public abstract class SeekCursorTestBase<KEY, VALUE>
         }
     }
 
+    @Test
+    public void mustFindEntriesWhenStartingBackwardsSeekBetweenKeys() throws Exception
+    {
+        // given
+        long i = 0;
+        for ( ; numberOfRootSplits < 2; i += 2 )
+        {
+            insert( i );
+        }
+
+        // when
+        for ( long fromInclusive = 1; fromInclusive < i; fromInclusive += 2 )
+        {
+            cursor.next( rootId );
+            try ( SeekCursor<KEY,VALUE> seeker = seekCursor( fromInclusive, -1 ) )
+            {
+                // then
+                for ( long expected = fromInclusive - 1; expected >= 0; expected -= 2 )
+                {
+                    assertTrue( seeker.next() );
+                    assertEqualsKey( key( expected ), seeker.get().key() );
+                }
+                assertFalse( seeker.next() );
+            }
+        }
+    }
+
+    @Test( timeout = 10_000 )
+    public void mustFindEntriesWhenStartingBackwardsSeekBetweenKeysAfterConcurrentWrite() throws Exception
+    {
+        // given
+        for ( long i = 0; i < 10; i += 2 )
+        {
+            insert( i );
+        }
+        long fromInclusive = 5;
+        long toExclusive = -1;
+
+        // when
+        try ( SeekCursor<KEY,VALUE> seeker = seekCursor( fromInclusive, toExclusive ) )
+        {
+            // Seeker pauses before reading first key and writer inserts a key outside of the range
+            insert( 10 );
+            this.cursor.forceRetry();
+
+            // then
+            for ( long expected = fromInclusive - 1; expected > toExclusive; expected -= 2 )
+            {
+                assertTrue( seeker.next() );
+                assertKeyAndValue( seeker, expected );
+            }
+            assertFalse( seeker.next() );
+        }
+    }
+
     private long rootWithTwoLeaves() throws IOException
     {
         long i = 0;
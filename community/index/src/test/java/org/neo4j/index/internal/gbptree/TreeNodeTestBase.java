@@ -585,6 +585,41 @@ public abstract class TreeNodeTestBase<KEY,VALUE>
         assertContent( expectedKeys, expectedValues, expectedKeyCount );
     }
 
+    @Test
+    public void leafUnderflowAfterRemoveMustPredictLeafUnderflowAfterRemove() throws Exception
+    {
+        // GIVEN
+        node.initializeLeaf( cursor, STABLE_GENERATION, UNSTABLE_GENERATION );
+        List<KEY> expectedKeys = new ArrayList<>();
+        List<VALUE> expectedValues = new ArrayList<>();
+        int keyCount = 0;
+        KEY newKey = key( keyCount );
+        VALUE newValue = value( keyCount );
+        while ( node.leafOverflow( cursor, keyCount, newKey, newValue ) == Overflow.NO )
+        {
+            node.insertKeyValueAt( cursor, newKey, newValue, keyCount, keyCount );
+            expectedKeys.add( newKey );
+            expectedValues.add( newValue );
+            TreeNode.setKeyCount( cursor, ++keyCount );
+            newKey = key( keyCount );
+            newValue = value( keyCount );
+        }
+
+        // WHEN/THEN
+        while ( keyCount > 0 )
+        {
+            int position = random.nextInt( keyCount );
+            boolean predictedUnderflow = node.leafUnderflowAfterRemove( cursor, keyCount, position );
+            assertContent( expectedKeys, expectedValues, keyCount );
+
+            node.removeKeyValueAt( cursor, position, keyCount );
+            expectedKeys.remove( position );
+            expectedValues.remove( position );
+            TreeNode.setKeyCount( cursor, --keyCount );
+            assertEquals( node.leafUnderflow( cursor, keyCount ), predictedUnderflow );
+        }
+    }
+
     private void assertContent( List<KEY> expectedKeys, List<VALUE> expectedValues, int expectedKeyCount )
     {
         KEY actualKey = layout.newKey();
@@ -109,6 +109,16 @@ public interface PageCache extends AutoCloseable
      */
     void flushAndForce( IOLimiter limiter ) throws IOException;
 
+    /**
+     * Flush all dirty pages into the files they belong to, but limit the rate of IO as advised by the given
+     * IOPSLimiter, and leave it to the operating system to decide when the written data reaches the disk.
+     * Unlike {@link #flushAndForce(IOLimiter)}, this does not force the files, so it gives no durability guarantees.
+     *
+     * @param limiter The {@link IOLimiter} that determines if pauses or sleeps should be injected into the flushing
+     * process to keep the IO rate down.
+     */
+    void flush( IOLimiter limiter ) throws IOException;
+
     /**
      * Close the page cache to prevent any future mapping of files.
      * This also releases any internal resources, including the {@link PageSwapperFactory} through its
@@ -19,12 +19,20 @@
  */
 package org.neo4j.io.pagecache;
 import org.neo4j.io.pagecache.impl.muninn.PageList;
+import org.neo4j.io.pagecache.tracing.EvictionEventOpportunity;
 import org.neo4j.io.pagecache.tracing.PageFaultEvent;
 
 import java.io.IOException;
 
 public interface PageCacheAlgorithm
 {
+    /**
+     * Called once the page list has been allocated, and before any other method is called, so the algorithm can
+     * size its book keeping to the number of pages in the cache.
+     *
+     * @param pages
+     */
+    void bind( PageList pages );
 
     /**
      * Find a page to  evict from the list of given pages.
@@ -36,6 +44,20 @@ public interface PageCacheAlgorithm
      */
     long cooperativlyEvict( PageFaultEvent faultEvent, PageList pages ) throws IOException;
 
+    /**
+     * Find a page to evict on behalf of the background eviction thread, which otherwise picks the pages to evict
+     * by sweeping over them like a clock, regardless of the algorithm.
+     *
+     * @param pages
+     * @param evictionOpportunity
+     * @return the evicted page, or 0 to leave it to the clock sweep to find a page to evict.
+     * @throws IOException
+     */
+    default long backgroundEvict( PageList pages, EvictionEventOpportunity evictionOpportunity ) throws IOException
+    {
+        return 0;
+    }
+
     /** Notify the algorithm of a pin event and include some usful data such as the last usage time.
      *
      * @param pageRef
@@ -51,5 +73,9 @@ public interface PageCacheAlgorithm
      * @param pageData
      */
     void externalEviction( long pageRef, PageData pageData );
+
+    /** Release any memory held by the algorithm. Called when the page cache is closed.
+     */
+    void close();
 }
 
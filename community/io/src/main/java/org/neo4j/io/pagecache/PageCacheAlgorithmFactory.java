@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache;
+
+import org.neo4j.io.pagecache.impl.muninn.MuninnPageCache;
+
+/**
+ * Creates the {@link PageCacheAlgorithm} that a {@link MuninnPageCache} uses to pick pages to evict.
+ * <p>
+ * A page cache creates one algorithm for every partition of its pages, while it is being constructed. Every algorithm
+ * is then {@link PageCacheAlgorithm#bind(org.neo4j.io.pagecache.impl.muninn.PageList) bound} to the page list of its
+ * partition, once that has been allocated. A page cache that is not partitioned has a single algorithm, bound to all
+ * of its pages.
+ * <p>
+ * Implementations that are not built into the page cache can be registered as services, and are then selected by
+ * their {@link #implementationName() implementation name}.
+ */
+public interface PageCacheAlgorithmFactory
+{
+    /**
+     * Get the name of this PageCacheAlgorithmFactory implementation, for configuration purpose.
+     */
+    String implementationName();
+
+    /**
+     * Create a new page cache algorithm instance.
+     *
+     * @param cooperativeEvictionLiveLockThreshold how many times the algorithm may go through the pages looking for
+     * one to evict, before giving up with a {@link org.neo4j.io.pagecache.impl.muninn.CacheLiveLockException}.
+     * @param pageCache the page cache the algorithm will evict pages for.
+     * @return the new algorithm.
+     */
+    PageCacheAlgorithm createPageCacheAlgorithm( int cooperativeEvictionLiveLockThreshold, MuninnPageCache pageCache );
+}
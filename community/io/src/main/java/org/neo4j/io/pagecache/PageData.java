@@ -30,6 +30,9 @@ public class PageData
     private long kSize = 1;
     private long[] accessTimes; //Should be private
     private long references;
+    private int swapperId;
+    private long filePageId = PageCursor.UNBOUND_PAGE_ID;
+    private boolean noCacheRetention;
 
     private boolean isNew = true;
     private boolean isOld = false;
@@ -59,6 +62,46 @@ public class PageData
         return this;
     }
 
+    /**
+     * Record which file page the page held, for algorithms that remember pages after they have been evicted.
+     */
+    public PageData withFilePage( int swapperId, long filePageId )
+    {
+        this.swapperId = swapperId;
+        this.filePageId = filePageId;
+        return this;
+    }
+
+    public boolean hasFilePage()
+    {
+        return this.swapperId != 0 && this.filePageId != PageCursor.UNBOUND_PAGE_ID;
+    }
+
+    public int getSwapperId()
+    {
+        return this.swapperId;
+    }
+
+    public long getFilePageId()
+    {
+        return this.filePageId;
+    }
+
+    /**
+     * Record that the page was accessed by a cursor opened with {@link PagedFile#PF_NO_CACHE_RETENTION}, so the
+     * algorithm should not count the access as a reason to keep the page around.
+     */
+    public PageData withNoCacheRetention( boolean noCacheRetention )
+    {
+        this.noCacheRetention = noCacheRetention;
+        return this;
+    }
+
+    public boolean isNoCacheRetention()
+    {
+        return this.noCacheRetention;
+    }
+
     public long getFaultInTime()
     {
         return this.faultInTime;
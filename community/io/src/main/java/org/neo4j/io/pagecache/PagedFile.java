@@ -62,9 +62,11 @@ public interface PagedFile extends AutoCloseable
      */
     int PF_NO_GROW = 1 << 2;
     /**
-     * Read-ahead hint for sequential forward scanning.
+     * Read-ahead hint for sequential forward scanning. Once a read cursor with this flag has pinned a few consecutive
+     * pages, the pages ahead of it are faulted in by background threads, with vectored reads, so the cursor finds
+     * them in memory when it gets there. Has no effect on write cursors.
      */
-    int PF_READ_AHEAD = 1 << 3; // TBD
+    int PF_READ_AHEAD = 1 << 3;
     /**
      * Do not load in the page if it is not loaded already. The methods {@link PageCursor#next()} and
      * {@link PageCursor#next(long)} will always return {@code true} for pages that are within the range of the file,
@@ -83,6 +85,13 @@ public interface PagedFile extends AutoCloseable
      * Flush pages more aggressively, after they have been dirtied by a write cursor.
      */
     int PF_EAGER_FLUSH = 1 << 6;
+    /**
+     * Hint that the pages touched by the cursor are only needed once, as in a sequential scan of the whole file.
+     * Pages faulted in by the cursor are put where the eviction algorithm will evict them first, and hits by the
+     * cursor do not count towards keeping pages in memory, so the scan does not push the working set out of the
+     * cache.
+     */
+    int PF_NO_CACHE_RETENTION = 1 << 7;
 
     /**
      * Initiate an IO interaction with the contents of the paged file.
@@ -149,6 +158,11 @@ public interface PagedFile extends AutoCloseable
      */
     long fileSize() throws IOException;
 
+    /**
+     * Get the file that is mapped by this paged file.
+     */
+    File file();
+
     /**
      * Flush all dirty pages into the file channel, and force the file channel to disk.
      */
@@ -172,6 +186,19 @@ public interface PagedFile extends AutoCloseable
      */
     long getLastPageId() throws IOException;
 
+    /**
+     * Load the given range of pages into memory, with as few vectored reads as possible, without pinning them.
+     * <p>
+     * This is meant for warming the page cache up. Pages that are already in memory, pages that are concurrently being
+     * faulted in by other threads, and pages beyond the end of the file, are skipped. There is no guarantee that the
+     * pages are still in memory when this method returns, or that all of the pages were loaded.
+     *
+     * @param startPageId The file-page-id of the first page to load.
+     * @param pageCount The number of consecutive pages to load.
+     * @return The number of pages that were loaded into memory by this call.
+     */
+    int loadPages( long startPageId, int pageCount ) throws IOException;
+
     /**
      * Release a handle to a paged file.
      * <p>
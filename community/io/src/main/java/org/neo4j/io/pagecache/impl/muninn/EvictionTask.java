@@ -20,22 +20,25 @@
 package org.neo4j.io.pagecache.impl.muninn;
 
 /**
- * This Runnable runs the eviction algorithm. Only one is expected for each page cache.
+ * This Runnable runs the eviction algorithm for a partition of the page cache. Only one is expected for each partition.
  *
  * Interrupting the thread running this runnable, will be interpreted as a shutdown signal.
  *
- * @see MuninnPageCache#continuouslySweepPages()
+ * @see MuninnPageCache#continuouslySweepPages(PageCachePartition)
  */
 final class EvictionTask extends BackgroundTask
 {
-    EvictionTask( MuninnPageCache pageCache )
+    private final PageCachePartition partition;
+
+    EvictionTask( MuninnPageCache pageCache, PageCachePartition partition )
     {
         super( pageCache );
+        this.partition = partition;
     }
 
     @Override
     protected void run( MuninnPageCache pageCache )
     {
-        pageCache.continuouslySweepPages();
+        pageCache.continuouslySweepPages( partition );
     }
 }
@@ -22,7 +22,7 @@ package org.neo4j.io.pagecache.impl.muninn;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * A free page in the MuninnPageCache.freelist.
+ * A free page in the freelist of a PageCachePartition.
  *
  * The next pointers are always other FreePage instances.
  */
@@ -104,6 +104,30 @@ final class LatchMap
         return null;
     }
 
+    /**
+     * Like {@link #takeOrAwaitLatch(long)}, except this method does not wait if a latch is already installed for the
+     * given (or any colliding) identifier, but returns {@code null} right away.
+     *
+     * This is for threads that already hold a latch, and would otherwise risk waiting on a latch they hold
+     * themselves.
+     */
+    Latch tryTakeLatch( long identifier )
+    {
+        int index = index( identifier );
+        if ( getLatch( index ) != null )
+        {
+            return null;
+        }
+        Latch latch = new Latch();
+        if ( compareAndSetLatch( index, null, latch ) )
+        {
+            latch.latchMap = this;
+            latch.index = index;
+            return latch;
+        }
+        return null;
+    }
+
     private int index( long identifier )
     {
         return (int) (mix( identifier ) & faultLockMask);
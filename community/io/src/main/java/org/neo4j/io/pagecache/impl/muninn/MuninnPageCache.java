@@ -119,20 +119,21 @@ public class MuninnPageCache implements PageCache
     private static final int cooperativeEvictionLiveLockThreshold = getInteger(
             MuninnPageCache.class, "cooperativeEvictionLiveLockThreshold", 100 );
 
+    // Read-ahead is best effort, so rather than queueing up prefetches, we drop them when this many are already
+    // running. Each prefetch also takes at most this fraction of the pages in the cache.
+    private static final int maxConcurrentPrefetches = getInteger(
+            MuninnPageCache.class, "maxConcurrentPrefetches", Runtime.getRuntime().availableProcessors() );
+    private static final int prefetchCacheFractionDivisor = getInteger(
+            MuninnPageCache.class, "prefetchCacheFractionDivisor", 16 );
+
     // This is a pre-allocated constant, so we can throw it without allocating any objects:
     @SuppressWarnings( "ThrowableInstanceNeverThrown" )
     private static final IOException oomException = new IOException(
             "OutOfMemoryError encountered in the page cache background eviction thread" );
 
-    // The field offset to unsafely access the freelist field.
-    private static final long freelistOffset =
-            UnsafeUtil.getFieldOffset( MuninnPageCache.class, "freelist" );
-
-    // This is used as a poison-pill signal in the freelist, to inform any
-    // page faulting thread that it is now no longer possible to queue up and
-    // wait for more pages to be evicted, because the page cache has been shut
-    // down.
-    private static final FreePage shutdownSignal = new FreePage( 0 );
+    // Partitions smaller than this are not worth their eviction thread; the page cache gets fewer partitions instead.
+    private static final int minimumPagesPerPartition = getInteger(
+            MuninnPageCache.class, "minimumPagesPerPartition", 1024 );
 
     // A counter used to identify which background threads belong to which page cache.
     private static final AtomicInteger pageCacheIdCounter = new AtomicInteger();
@@ -151,7 +152,6 @@ public class MuninnPageCache implements PageCache
     private final int pageCacheId;
     private final PageSwapperFactory swapperFactory;
     private final int cachePageSize;
-    private final int keepFree;
     private final PageCacheTracer pageCacheTracer;
     private final PageCursorTracerSupplier pageCursorTracerSupplier;
     final PageList pages;
@@ -160,27 +160,15 @@ public class MuninnPageCache implements PageCache
     // accesses to take place without fear of segfaulting newly allocated cursors.
     final long victimPage;
 
-    // The freelist is a thread-safe linked-list of FreePage objects, or an AtomicInteger, or null.
-    // Initially, the field is an AtomicInteger that counts from zero to the max page count, at which point all of the
-    // pages have been put in use. Once this happens, the field is set to null to allow the background eviction thread
-    // to start its work. From that point on, the field will operate as a concurrent stack of FreePage objects. The
-    // eviction thread pushes newly freed FreePage objects onto the stack, and page faulting threads pops FreePage
-    // objects from the stack. The FreePage objects are single-use, to avoid running into the ABA-problem.
-    @SuppressWarnings( "unused" ) // This field is accessed via Unsafe.
-    private volatile Object freelist;
+    // The pages are split into contiguous ranges of pagesPerPartition pages, with the last partition also taking the
+    // remainder. Every partition has its own freelist, eviction thread and eviction algorithm. There is only one
+    // partition, covering all of the pages, unless the page cache is created with more.
+    private final PageCachePartition[] partitions;
+    private final int pagesPerPartition;
 
     // Linked list of mappings - guarded by synchronized(this)
     private volatile FileMapping mappedFiles;
 
-    // The thread that runs the eviction algorithm. We unpark this when we've run out of
-    // free pages to grab.
-    private volatile Thread evictionThread;
-    // True if the eviction thread is currently parked, without someone having
-    // signalled it to wake up. This is used as a weak guard for unparking the
-    // eviction thread, because calling unpark too much (from many page
-    // faulting threads) can cause contention on the locks protecting that
-    // threads scheduling meta-data in the OS kernel.
-    private volatile boolean evictorParked;
     private volatile IOException evictorException;
 
     // Flag for when page cache is closed - writes guarded by synchronized(this), reads can be unsynchronized
@@ -192,8 +180,17 @@ public class MuninnPageCache implements PageCache
     // 'true' (the default) if we should print any exceptions we get when unmapping a file.
     private boolean printExceptionsOnClose;
 
-    // Instance of our page cache eviction algorithm
-    private MuninnPageCacheAlgorithmLFU PageCacheAlgorithm = new MuninnPageCacheAlgorithmLFU( this.cooperativeEvictionLiveLockThreshold, this );
+    // The number of PrefetchTasks that have been submitted, and not yet finished.
+    private final AtomicInteger prefetchesInFlight = new AtomicInteger();
+
+    /**
+     * The number of pages that the background eviction thread keeps free, in a partition of the given number of pages.
+     * The eviction algorithms can tell from this how many pages the partition holds before it starts evicting.
+     */
+    public static int pagesToKeepFree( int pageCount )
+    {
+        return Math.min( pagesToKeepFree, pageCount / 2 );
+    }
 
     /**
      * Compute the amount of memory needed for a page cache with the given number of 8 KiB pages.
@@ -225,14 +222,31 @@ public class MuninnPageCache implements PageCache
                 PAGE_SIZE,
                 pageCacheTracer,
                 pageCursorTracerSupplier );
+    }
 
-        this.PageCacheAlgorithm.setNumberOfPages( maxPages );
+    /**
+     * Create page cache.
+     * @param swapperFactory page cache swapper factory
+     * @param memoryAllocator the source of native memory the page cache should use
+     * @param pageCacheTracer global page cache tracer
+     * @param pageCursorTracerSupplier supplier of thread local (transaction local) page cursor tracer that will provide
+     * thread local page cache statistics
+     */
+    public MuninnPageCache(
+            PageSwapperFactory swapperFactory,
+            MemoryAllocator memoryAllocator,
+            PageCacheTracer pageCacheTracer,
+            PageCursorTracerSupplier pageCursorTracerSupplier )
+    {
+        this( swapperFactory, memoryAllocator, PageCacheAlgorithmFactories.DEFAULT, pageCacheTracer,
+                pageCursorTracerSupplier );
     }
 
     /**
      * Create page cache.
      * @param swapperFactory page cache swapper factory
      * @param memoryAllocator the source of native memory the page cache should use
+     * @param algorithmFactory the factory of the algorithm that picks which pages to evict
      * @param pageCacheTracer global page cache tracer
      * @param pageCursorTracerSupplier supplier of thread local (transaction local) page cursor tracer that will provide
      * thread local page cache statistics
@@ -240,10 +254,35 @@ public class MuninnPageCache implements PageCache
     public MuninnPageCache(
             PageSwapperFactory swapperFactory,
             MemoryAllocator memoryAllocator,
+            PageCacheAlgorithmFactory algorithmFactory,
             PageCacheTracer pageCacheTracer,
             PageCursorTracerSupplier pageCursorTracerSupplier )
     {
-        this( swapperFactory, memoryAllocator, PAGE_SIZE, pageCacheTracer, pageCursorTracerSupplier );
+        this( swapperFactory, memoryAllocator, algorithmFactory, 1, pageCacheTracer, pageCursorTracerSupplier );
+    }
+
+    /**
+     * Create page cache.
+     * @param swapperFactory page cache swapper factory
+     * @param memoryAllocator the source of native memory the page cache should use
+     * @param algorithmFactory the factory of the algorithm that picks which pages to evict
+     * @param partitionCount the number of partitions to split the pages into. Every partition has its own freelist,
+     * eviction thread and instance of the eviction algorithm. The page cache gets fewer partitions than this, if they
+     * would get too small.
+     * @param pageCacheTracer global page cache tracer
+     * @param pageCursorTracerSupplier supplier of thread local (transaction local) page cursor tracer that will provide
+     * thread local page cache statistics
+     */
+    public MuninnPageCache(
+            PageSwapperFactory swapperFactory,
+            MemoryAllocator memoryAllocator,
+            PageCacheAlgorithmFactory algorithmFactory,
+            int partitionCount,
+            PageCacheTracer pageCacheTracer,
+            PageCursorTracerSupplier pageCursorTracerSupplier )
+    {
+        this( swapperFactory, memoryAllocator, PAGE_SIZE, algorithmFactory, partitionCount, pageCacheTracer,
+                pageCursorTracerSupplier );
     }
 
     /**
@@ -258,6 +297,37 @@ public class MuninnPageCache implements PageCache
             int cachePageSize,
             PageCacheTracer pageCacheTracer,
             PageCursorTracerSupplier pageCursorTracerSupplier )
+    {
+        this( swapperFactory, memoryAllocator, cachePageSize, PageCacheAlgorithmFactories.DEFAULT, pageCacheTracer,
+                pageCursorTracerSupplier );
+    }
+
+    /**
+     * Constructor variant that allows setting a non-standard cache page size.
+     * Only ever use this for testing.
+     */
+    @SuppressWarnings( "DeprecatedIsStillUsed" )
+    @Deprecated
+    public MuninnPageCache(
+            PageSwapperFactory swapperFactory,
+            MemoryAllocator memoryAllocator,
+            int cachePageSize,
+            PageCacheAlgorithmFactory algorithmFactory,
+            PageCacheTracer pageCacheTracer,
+            PageCursorTracerSupplier pageCursorTracerSupplier )
+    {
+        this( swapperFactory, memoryAllocator, cachePageSize, algorithmFactory, 1, pageCacheTracer,
+                pageCursorTracerSupplier );
+    }
+
+    private MuninnPageCache(
+            PageSwapperFactory swapperFactory,
+            MemoryAllocator memoryAllocator,
+            int cachePageSize,
+            PageCacheAlgorithmFactory algorithmFactory,
+            int partitionCount,
+            PageCacheTracer pageCacheTracer,
+            PageCursorTracerSupplier pageCursorTracerSupplier )
     {
         verifyHacks();
         verifyCachePageSizeIsPowerOfTwo( cachePageSize );
@@ -270,17 +340,34 @@ public class MuninnPageCache implements PageCache
         this.pageCacheId = pageCacheIdCounter.incrementAndGet();
         this.swapperFactory = swapperFactory;
         this.cachePageSize = cachePageSize;
-        this.keepFree = Math.min( pagesToKeepFree, maxPages / 2 );
         this.pageCacheTracer = pageCacheTracer;
         this.pageCursorTracerSupplier = pageCursorTracerSupplier;
         this.printExceptionsOnClose = true;
         long alignment = swapperFactory.getRequiredBufferAlignment();
         this.victimPage = VictimPageReference.getVictimPage( cachePageSize, memoryTracker );
-        this.pages = new PageList( maxPages, cachePageSize, memoryAllocator, new SwapperSet(), victimPage, alignment, this.PageCacheAlgorithm );
 
-        setFreelistHead( new AtomicInteger() );
-
-        this.PageCacheAlgorithm.setNumberOfPages( maxPages );
+        int partitions = Math.max( 1, Math.min( partitionCount, maxPages / minimumPagesPerPartition ) );
+        this.partitions = new PageCachePartition[partitions];
+        this.pagesPerPartition = maxPages / partitions;
+        PageCacheAlgorithm[] algorithms = new PageCacheAlgorithm[partitions];
+        for ( int i = 0; i < partitions; i++ )
+        {
+            algorithms[i] = algorithmFactory.createPageCacheAlgorithm( cooperativeEvictionLiveLockThreshold, this );
+        }
+        // The page list only needs to pass the page faults on to the right partition, if there is more than one.
+        PageCacheAlgorithm pageListAlgorithm =
+                partitions == 1 ? algorithms[0] : new PartitionedPageCacheAlgorithm( this );
+        this.pages = new PageList( maxPages, cachePageSize, memoryAllocator, new SwapperSet(), victimPage, alignment,
+                pageListAlgorithm );
+        for ( int i = 0; i < partitions; i++ )
+        {
+            int firstPageId = i * pagesPerPartition;
+            int pageCount = i == partitions - 1 ? maxPages - firstPageId : pagesPerPartition;
+            PageList partitionPages = new PageList( pages, firstPageId, pageCount, algorithms[i] );
+            algorithms[i].bind( partitionPages );
+            int keepFree = pagesToKeepFree( pageCount );
+            this.partitions[i] = new PageCachePartition( i, partitionPages, algorithms[i], keepFree );
+        }
     }
 
     private static void verifyHacks()
@@ -475,7 +562,19 @@ public class MuninnPageCache implements PageCache
 
         try
         {
-            backgroundThreadExecutor.execute( new EvictionTask( this ) );
+            for ( PageCachePartition partition : partitions )
+            {
+                partition.retainAlgorithm();
+                try
+                {
+                    backgroundThreadExecutor.execute( new EvictionTask( this, partition ) );
+                }
+                catch ( RuntimeException e )
+                {
+                    partition.releaseAlgorithm();
+                    throw e;
+                }
+            }
         }
         catch ( Exception e )
         {
@@ -565,33 +664,74 @@ public class MuninnPageCache implements PageCache
     }
 
     @Override
-    public synchronized void flushAndForce( IOLimiter limiter ) throws IOException
+    public void flushAndForce( IOLimiter limiter ) throws IOException
     {
         if ( limiter == null )
         {
             throw new IllegalArgumentException( "IOLimiter cannot be null" );
         }
         assertNotClosed();
-        flushAllPages( limiter );
+        flushAllPages( limiter, true );
         clearEvictorException();
     }
 
-    private void flushAllPages( IOLimiter limiter ) throws IOException
+    @Override
+    public void flush( IOLimiter limiter ) throws IOException
     {
+        if ( limiter == null )
+        {
+            throw new IllegalArgumentException( "IOLimiter cannot be null" );
+        }
+        assertNotClosed();
+        flushAllPages( limiter, false );
+        clearEvictorException();
+    }
+
+    private void flushAllPages( IOLimiter limiter, boolean force ) throws IOException
+    {
+        // The files are flushed outside of the page cache monitor, so that a long, rate limited flush doesn't hold up
+        // mapping and unmapping of files. Our references keep the files from being closed while we flush them.
+        List<MuninnPagedFile> files = retainMappedFiles();
         try ( MajorFlushEvent cacheFlush = pageCacheTracer.beginCacheFlush() )
         {
-            FileMapping fileMapping = mappedFiles;
-            while ( fileMapping != null )
+            for ( MuninnPagedFile file : files )
             {
-                try ( MajorFlushEvent fileFlush = pageCacheTracer.beginFileFlush( fileMapping.pagedFile.swapper ) )
+                try ( MajorFlushEvent fileFlush = pageCacheTracer.beginFileFlush( file.swapper ) )
                 {
                     FlushEventOpportunity flushOpportunity = fileFlush.flushEventOpportunity();
-                    fileMapping.pagedFile.flushAndForceInternal( flushOpportunity, false, limiter );
+                    if ( force )
+                    {
+                        file.flushAndForceInternal( flushOpportunity, false, limiter );
+                    }
+                    else
+                    {
+                        file.flushInternal( flushOpportunity, false, limiter );
+                    }
                 }
-                fileMapping = fileMapping.next;
             }
-            syncDevice();
+            if ( force )
+            {
+                syncDevice();
+            }
         }
+        finally
+        {
+            for ( MuninnPagedFile file : files )
+            {
+                unmap( file );
+            }
+        }
+    }
+
+    private synchronized List<MuninnPagedFile> retainMappedFiles()
+    {
+        List<MuninnPagedFile> files = new ArrayList<>();
+        for ( FileMapping fileMapping = mappedFiles; fileMapping != null; fileMapping = fileMapping.next )
+        {
+            fileMapping.pagedFile.incrementRefCount();
+            files.add( fileMapping.pagedFile );
+        }
+        return files;
     }
 
     void syncDevice() throws IOException
@@ -626,13 +766,75 @@ public class MuninnPageCache implements PageCache
 
         closed = true;
 
-        interrupt( evictionThread );
-        evictionThread = null;
+        for ( PageCachePartition partition : partitions )
+        {
+            interrupt( partition.evictionThread );
+            partition.evictionThread = null;
+        }
+        awaitPrefetches();
 
         // Close the page swapper factory last. If this fails then we will still consider ourselves closed.
         swapperFactory.close();
-        this.PageCacheAlgorithm.printStatus();
+        for ( PageCachePartition partition : partitions )
+        {
+            // The eviction threads close the algorithms when they exit, if they are still running.
+            partition.releaseAlgorithm();
+        }
+    }
+
+    /**
+     * Read the given pages of the given file into memory in the background, unless too many prefetches are already
+     * running.
+     *
+     * @return the number of pages that will be prefetched, which is zero if the prefetch was dropped.
+     */
+    int schedulePrefetch( MuninnPagedFile pagedFile, long startFilePageId, int pageCount,
+            boolean noCacheRetention )
+    {
+        int maxPageCount = Math.min( pageCount, (int) (pages.getPageCount() / prefetchCacheFractionDivisor) );
+        if ( closed || maxPageCount < 1 )
+        {
+            return 0;
+        }
+        int inFlight;
+        do
+        {
+            inFlight = prefetchesInFlight.get();
+            if ( inFlight >= maxConcurrentPrefetches )
+            {
+                return 0;
+            }
+        }
+        while ( !prefetchesInFlight.compareAndSet( inFlight, inFlight + 1 ) );
+
+        try
+        {
+            backgroundThreadExecutor.execute(
+                    new PrefetchTask( this, pagedFile, startFilePageId, maxPageCount, noCacheRetention ) );
+            return maxPageCount;
+        }
+        catch ( RuntimeException e )
+        {
+            prefetchesInFlight.decrementAndGet();
+            return 0;
+        }
+    }
+
+    void prefetchDone()
+    {
+        prefetchesInFlight.decrementAndGet();
+    }
 
+    /**
+     * Wait for the running prefetches to notice that we are closed, since they could otherwise still be writing to the
+     * memory of the page cache.
+     */
+    private void awaitPrefetches()
+    {
+        while ( prefetchesInFlight.get() > 0 )
+        {
+            LockSupport.parkNanos( TimeUnit.MILLISECONDS.toNanos( 1 ) );
+        }
     }
 
     private void interrupt( Thread thread )
@@ -691,90 +893,100 @@ public class MuninnPageCache implements PageCache
         return pageCacheId;
     }
 
-    long grabFreeAndExclusivelyLockedPage( PageFaultEvent faultEvent ) throws IOException
-    {
-        // Review the comment on the freelist field before making changes to
-        // this part of the code.
-        // Whatever the case, we're going to the head-pointer of the freelist,
-        // and in doing so, we can discover a number of things.
-        // We can discover a MuninnPage object, in which case we can try to
-        // CAS the freelist pointer to the value of the MuninnPage.nextFree
-        // pointer, and if this succeeds then we've grabbed that page.
-        // We can discover a FreePage object, in which case we'll do a similar
-        // dance by attempting to CAS the freelist to the FreePage objects next
-        // pointer, and again, if we succeed then we've grabbed the MuninnPage
-        // given by the FreePage object.
-        // We can discover a null-pointer, in which case the freelist has just
-        // been emptied for whatever it contained before. New FreePage objects
-        // are eventually going to be added to the freelist, but we are not
-        // going to wait around for that to happen. If the freelist is empty,
-        // then we do our own eviction to get a free page.
-        // If we find a FreePage object on the freelist, then it is important
-        // to check and see if it is the shutdownSignal instance. If that's the
-        // case, then the page cache has been shut down, and we should throw an
-        // exception from our page fault routine.
-        Object current;
+    int partitionCount()
+    {
+        return partitions.length;
+    }
+
+    PageCachePartition partition( int index )
+    {
+        return partitions[index];
+    }
+
+    /**
+     * @return the partition that the page with the given page reference belongs to.
+     */
+    PageCachePartition partitionOf( long pageRef )
+    {
+        int index = pages.toId( pageRef ) / pagesPerPartition;
+        return partitions[Math.min( index, partitions.length - 1 )];
+    }
+
+    /**
+     * @return the partition that page faults of the given file page grab their free pages from, when it has any.
+     */
+    private PageCachePartition partitionFor( int swapperId, long filePageId )
+    {
+        if ( partitions.length == 1 )
+        {
+            return partitions[0];
+        }
+        long hash = (filePageId ^ ((long) swapperId << 40)) * 0x9E3779B97F4A7C15L;
+        return partitions[(int) ((hash >>> 33) % partitions.length)];
+    }
+
+    /**
+     * Grab a free page for faulting in the given file page. The free page is preferably taken from the partition that
+     * the file page hashes to. If that partition has no free pages, then they are taken from the other partitions,
+     * and if none of them have any free pages either, then a page is evicted from the partition the file page
+     * hashes to.
+     */
+    long grabFreeAndExclusivelyLockedPage( int swapperId, long filePageId, PageFaultEvent faultEvent )
+            throws IOException
+    {
+        PageCachePartition partition = partitionFor( swapperId, filePageId );
         for (;;)
         {
-            assertHealthy();
-            current = getFreelistHead();
-            if ( current == null )
+            long pageRef = grabFreePage( partition );
+            if ( pageRef != 0 )
             {
-                unparkEvictor();
-                long pageRef = cooperativelyEvict( faultEvent );
-                if ( pageRef != 0 )
-                {
-                    return pageRef;
-                }
-            }
-            else if ( current instanceof AtomicInteger )
-            {
-                int pageCount = pages.getPageCount();
-                AtomicInteger counter = (AtomicInteger) current;
-                int pageId = counter.get();
-                if ( pageId < pageCount && counter.compareAndSet( pageId, pageId + 1 ) )
-                {
-                    return pages.deref( pageId );
-                }
-                if ( pageId >= pageCount )
-                {
-                    compareAndSetFreelistHead( current, null );
-                }
+                return pageRef;
             }
-            else if ( current instanceof FreePage )
+            pageRef = cooperativelyEvict( partition, faultEvent );
+            if ( pageRef != 0 )
             {
-                FreePage freePage = (FreePage) current;
-                if ( freePage == shutdownSignal )
-                {
-                    throw new IllegalStateException( "The PageCache has been shut down." );
-                }
-
-                if ( compareAndSetFreelistHead( freePage, freePage.next ) )
-                {
-                    return freePage.pageRef;
-                }
+                return pageRef;
             }
         }
     }
 
-    private long cooperativelyEvict( PageFaultEvent faultEvent ) throws IOException
+    /**
+     * Like {@link #grabFreeAndExclusivelyLockedPage(int, long, PageFaultEvent)}, except this method never evicts any
+     * pages itself, but returns {@code 0} right away if none of the partitions have any free pages.
+     * <p>
+     * This is for threads that hold page fault latches, which other threads might be waiting on, and so cannot wait
+     * for pages to be evicted.
+     */
+    long tryGrabFreeAndExclusivelyLockedPage( int swapperId, long filePageId ) throws IOException
     {
+        return grabFreePage( partitionFor( swapperId, filePageId ) );
+    }
 
-            try
-            {
-                if ( this.PageCacheAlgorithm != null )
-                {
-                    return this.PageCacheAlgorithm.cooperativlyEvict( faultEvent, this.pages);
-                }
-                else
-                {
-                    return 0;
-                }
-            }
-            catch ( Exception e )
+    private long grabFreePage( PageCachePartition partition ) throws IOException
+    {
+        assertHealthy();
+        long pageRef = partition.grabFreePage();
+        if ( pageRef != 0 )
+        {
+            return pageRef;
+        }
+        partition.unparkEvictor();
+        for ( int i = 1; i < partitions.length; i++ )
+        {
+            PageCachePartition other = partitions[(partition.index + i) % partitions.length];
+            pageRef = other.grabFreePage();
+            if ( pageRef != 0 )
             {
-                throw e;
+                return pageRef;
             }
+            other.unparkEvictor();
+        }
+        return 0;
+    }
+
+    private long cooperativelyEvict( PageCachePartition partition, PageFaultEvent faultEvent ) throws IOException
+    {
+        return partition.pageCacheAlgorithm.cooperativlyEvict( faultEvent, partition.pages );
     }
 
     private CacheLiveLockException cooperativeEvictionLiveLock()
@@ -792,108 +1004,102 @@ public class MuninnPageCache implements PageCache
                 "your database." );
     }
 
-    private void unparkEvictor()
+    /**
+     * The eviction algorithms stop evicting pages cooperatively, once there are free pages to grab again.
+     *
+     * @return the head of the first freelist that is not empty, or {@code null} if all of the freelists are empty.
+     */
+    public Object getFreelistHead()
     {
-        if ( evictorParked )
+        for ( PageCachePartition partition : partitions )
         {
-            evictorParked = false;
-            LockSupport.unpark( evictionThread );
+            Object freelistHead = partition.getFreelistHead();
+            if ( freelistHead != null )
+            {
+                return freelistHead;
+            }
         }
-    }
-
-    private void parkEvictor( long parkNanos )
-    {
-        // Only called from the background eviction thread!
-        evictorParked = true;
-        LockSupport.parkNanos( this, parkNanos );
-        evictorParked = false;
-    }
-
-    public Object getFreelistHead()
-    {
-        return UnsafeUtil.getObjectVolatile( this, freelistOffset );
-    }
-
-    private boolean compareAndSetFreelistHead( Object expected, Object update )
-    {
-        return UnsafeUtil.compareAndSwapObject(
-                this, freelistOffset, expected, update );
-    }
-
-    private void setFreelistHead( Object newFreelistHead )
-    {
-        UnsafeUtil.putObjectVolatile( this, freelistOffset, newFreelistHead );
+        return null;
     }
 
     /**
-     * Scan through all the pages, one by one, and decrement their usage stamps.
+     * Scan through all the pages of the given partition, one by one, and decrement their usage stamps.
      * If a usage reaches zero, we try-write-locking it, and if we get that lock,
      * we evict the page. If we don't, we move on to the next page.
      * Once we have enough free pages, we park our thread. Page-faulting will
      * unpark our thread as needed.
      */
-    void continuouslySweepPages()
+    void continuouslySweepPages( PageCachePartition partition )
     {
-        evictionThread = Thread.currentThread();
+        partition.evictionThread = Thread.currentThread();
         int clockArm = 0;
 
-        while ( !closed )
+        try
         {
-            int pageCountToEvict = parkUntilEvictionRequired( keepFree );
-            try ( EvictionRunEvent evictionRunEvent = pageCacheTracer.beginPageEvictions( pageCountToEvict ) )
+            while ( !closed )
             {
-                clockArm = evictPages( pageCountToEvict, clockArm, evictionRunEvent );
+                int pageCountToEvict = parkUntilEvictionRequired( partition );
+                try ( EvictionRunEvent evictionRunEvent = pageCacheTracer.beginPageEvictions( pageCountToEvict ) )
+                {
+                    clockArm = evictPages( partition, pageCountToEvict, clockArm, evictionRunEvent );
+                }
             }
-        }
 
-        // The last thing we do, is signalling the shutdown of the cache via
-        // the freelist. This signal is looked out for in grabFreePage.
-        setFreelistHead( shutdownSignal );
+            // Then we signal the shutdown of the cache via the freelist. This signal is looked out for in
+            // grabFreePage.
+            partition.setFreelistHead( PageCachePartition.shutdownSignal );
+        }
+        finally
+        {
+            // The last thing we do, is letting go of the eviction algorithm, which closes it if the page cache was
+            // closed while we were still evicting pages.
+            partition.releaseAlgorithm();
+        }
     }
 
-    private int parkUntilEvictionRequired( int keepFree )
+    private int parkUntilEvictionRequired( PageCachePartition partition )
     {
         // Park until we're either interrupted, or the number of free pages drops
         // bellow keepFree.
         long parkNanos = TimeUnit.MILLISECONDS.toNanos( 10 );
         for (;;)
         {
-            parkEvictor( parkNanos );
+            partition.parkEvictor( parkNanos );
             if ( Thread.interrupted() || closed )
             {
                 return 0;
             }
 
-            Object freelistHead = getFreelistHead();
-
-            if ( freelistHead == null )
-            {
-                return keepFree;
-            }
-            else if ( freelistHead.getClass() == FreePage.class )
-            {
-                int availablePages = ((FreePage) freelistHead).count;
-                if ( availablePages < keepFree )
-                {
-                    return keepFree - availablePages;
-                }
-            }
-            else if ( freelistHead.getClass() == AtomicInteger.class )
+            int pageCountToEvict = partition.pagesBelowKeepFree();
+            if ( pageCountToEvict > 0 )
             {
-                AtomicInteger counter = (AtomicInteger) freelistHead;
-                long count = pages.getPageCount() - counter.get();
-                if ( count < keepFree )
-                {
-                    return count < 0 ? keepFree : (int) (keepFree - count);
-                }
+                return pageCountToEvict;
             }
         }
     }
 
     int evictPages( int pageCountToEvict, int clockArm, EvictionRunEvent evictionRunEvent )
     {
+        return evictPages( partitions[0], pageCountToEvict, clockArm, evictionRunEvent );
+    }
+
+    /**
+     * Evict the given number of pages from the given partition, starting from the given clock arm.
+     *
+     * @return the clock arm, which is the page id within the partition, to continue from.
+     */
+    int evictPages( PageCachePartition partition, int pageCountToEvict, int clockArm,
+            EvictionRunEvent evictionRunEvent )
+    {
+        PageList pages = partition.pages;
         while ( pageCountToEvict > 0 && !closed )
         {
+            if ( evictPageChosenByAlgorithm( partition, evictionRunEvent ) )
+            {
+                pageCountToEvict--;
+                continue;
+            }
+
             if ( clockArm == pages.getPageCount() )
             {
                 clockArm = 0;
@@ -910,16 +1116,17 @@ public class MuninnPageCache implements PageCache
             {
                 try
                 {
+                    // The page forgets which file page it held when it is evicted, so grab that first.
+                    PageData evicted = new PageData( pageRef )
+                            .withFilePage( pages.getSwapperId( pageRef ), pages.getFilePageId( pageRef ) );
                     if ( pages.tryEvict( pageRef, evictionRunEvent ) )
                     {
-
-                        //We evicted some pages, should probably tell the
-                        //Eviction algorithm to update-itself.
-
-                        this.PageCacheAlgorithm.externalEviction( pageRef, new PageData( pageRef ).withLastUsage( System.nanoTime()));
+                        // Let the eviction algorithm know that the page is no longer in use.
+                        partition.pageCacheAlgorithm.externalEviction(
+                                pageRef, evicted.withLastUsage( System.nanoTime() ) );
                         clearEvictorException();
                         pageCountToEvict--;
-                        addFreePageToFreelist( pageRef );
+                        partition.addFreePageToFreelist( pageRef );
                     }
                 }
                 catch ( IOException e )
@@ -943,20 +1150,37 @@ public class MuninnPageCache implements PageCache
         return clockArm;
     }
 
-    private void addFreePageToFreelist( long pageRef )
+    /**
+     * Let the algorithm of the given partition pick the page to evict, if it wants to.
+     *
+     * @return {@code true} if a page was evicted and added to the freelist, or {@code false} if the clock sweep should
+     * find a page to evict.
+     */
+    private boolean evictPageChosenByAlgorithm( PageCachePartition partition, EvictionRunEvent evictionRunEvent )
     {
-        Object current;
-        FreePage freePage = new FreePage( pageRef );
-        do
+        try
         {
-            current = getFreelistHead();
-            if ( current instanceof AtomicInteger && ((AtomicInteger) current).get() >= pages.getPageCount() )
+            long pageRef = partition.pageCacheAlgorithm.backgroundEvict( partition.pages, evictionRunEvent );
+            if ( pageRef != 0 )
             {
-                current = null;
+                clearEvictorException();
+                partition.addFreePageToFreelist( pageRef );
+                return true;
             }
-            freePage.setNext( current );
         }
-        while ( !compareAndSetFreelistHead( current, freePage ) );
+        catch ( IOException e )
+        {
+            evictorException = e;
+        }
+        catch ( OutOfMemoryError oom )
+        {
+            evictorException = oomException;
+        }
+        catch ( Throwable th )
+        {
+            evictorException = new IOException( "Eviction thread encountered a problem", th );
+        }
+        return false;
     }
 
     void clearEvictorException()
@@ -982,9 +1206,21 @@ public class MuninnPageCache implements PageCache
         return sb.toString();
     }
 
+    private boolean hasUnusedPages()
+    {
+        for ( PageCachePartition partition : partitions )
+        {
+            if ( partition.getFreelistHead() instanceof AtomicInteger )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
     void vacuum( SwapperSet swappers )
     {
-        if ( getFreelistHead() instanceof AtomicInteger  && swappers.countAvailableIds() > 200 )
+        if ( hasUnusedPages() && swappers.countAvailableIds() > 200 )
         {
             return; // We probably still have plenty of free pages left. Don't bother vacuuming just yet.
         }
@@ -1000,7 +1236,9 @@ public class MuninnPageCache implements PageCache
                     {
                         if ( pages.tryEvict( pageRef, evictions ) )
                         {
-                            addFreePageToFreelist( pageRef );
+                            PageCachePartition partition = partitionOf( pageRef );
+                            partition.pageCacheAlgorithm.externalEviction( pageRef, new PageData( pageRef ) );
+                            partition.addFreePageToFreelist( pageRef );
                             break;
                         }
                     }
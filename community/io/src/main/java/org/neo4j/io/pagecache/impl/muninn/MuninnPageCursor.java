@@ -25,7 +25,6 @@ import java.time.Instant;
 import java.util.Objects;
 
 import org.neo4j.io.pagecache.*;
-import org.neo4j.io.pagecache.impl.muninn.PageCacheAlgorithm.MuninnPageCacheAlgorithmLRU;
 import org.neo4j.io.pagecache.tracing.PageFaultEvent;
 import org.neo4j.io.pagecache.tracing.PinEvent;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
@@ -62,6 +61,10 @@ abstract class MuninnPageCursor extends PageCursor
     protected boolean eagerFlush;
     protected boolean noFault;
     protected boolean noGrow;
+    protected boolean noCacheRetention;
+    protected boolean readAhead;
+    // 'true' if the last pin had to fault the page in.
+    protected boolean pinFaulted;
     protected long currentPageId;
     protected long nextPageId;
     protected MuninnPageCursor linkedCursor;
@@ -98,6 +101,8 @@ abstract class MuninnPageCursor extends PageCursor
         this.eagerFlush = isFlagRaised( pf_flags, PF_EAGER_FLUSH );
         this.noFault = isFlagRaised( pf_flags, PF_NO_FAULT );
         this.noGrow = noFault | isFlagRaised( pf_flags, PagedFile.PF_NO_GROW );
+        this.noCacheRetention = isFlagRaised( pf_flags, PagedFile.PF_NO_CACHE_RETENTION );
+        this.readAhead = !noFault & isFlagRaised( pf_flags, PagedFile.PF_READ_AHEAD );
     }
 
     private boolean isFlagRaised( int flagSet, int flag )
@@ -236,6 +241,7 @@ abstract class MuninnPageCursor extends PageCursor
     protected void pin( long filePageId, boolean writeLock ) throws IOException
     {
         pinEvent = tracer.beginPin( writeLock, filePageId, swapper );
+        pinFaulted = false;
         int chunkId = MuninnPagedFile.computeChunkId( filePageId );
         // The chunkOffset is the addressing offset into the chunk array object for the relevant array slot. Using
         // this, we can access the array slot with Unsafe.
@@ -267,10 +273,9 @@ abstract class MuninnPageCursor extends PageCursor
                 if ( locked & pagedFile.isBoundTo( pageRef, swapperId, filePageId ) )
                 {
                     pinCursorToPage( pageRef, filePageId, swapper );
+                    // A hit only tells the algorithm which page was used, so keep it cheap.
                     pagedFile.notifyCacheAlgorithm( pageRef,
-                            new PageData( pageRef )
-                            .withLastUsage( System.nanoTime()
-                            ));
+                            new PageData( pageRef ).withNoCacheRetention( noCacheRetention ) );
                     pinEvent.hit();
                     return;
                 }
@@ -313,12 +318,10 @@ abstract class MuninnPageCursor extends PageCursor
             if ( UnsafeUtil.getIntVolatile( chunk, chunkOffset ) == UNMAPPED_TTE )
             {
                 // Sweet, we didn't race with any other fault on this translation table entry.
+                // The page fault itself notifies the cache algorithm of the newly loaded page.
                 long pageRef = pageFault( filePageId, swapper, chunkOffset, chunk, latch );
                 pinCursorToPage( pageRef, filePageId, swapper );
-                pagedFile.notifyCacheAlgorithm( pageRef,
-                        new PageData( pageRef )
-                                .withLastUsage( System.nanoTime()
-                                ));
+                pinFaulted = true;
                 return true;
             }
             // Oops, looks like we raced with another page fault on this file page.
@@ -346,7 +349,7 @@ abstract class MuninnPageCursor extends PageCursor
         try
         {
             // The grabFreePage method might throw.
-            pageRef = pagedFile.grabFreeAndExclusivelyLockedPage( faultEvent );
+            pageRef = pagedFile.grabFreeAndExclusivelyLockedPage( filePageId, faultEvent );
 
             // We got a free page, and we know that we have race-free access to it. Well, it's not entirely race
             // free, because other paged files might have it in their translation tables (or rather, their reads of
@@ -368,7 +371,7 @@ abstract class MuninnPageCursor extends PageCursor
             // the file channel.
             assertPagedFileStillMappedAndGetIdOfLastPage();
             pagedFile.initBuffer( pageRef );
-            pagedFile.fault( pageRef, swapper, pagedFile.swapperId, filePageId, faultEvent );
+            pagedFile.fault( pageRef, swapper, pagedFile.swapperId, filePageId, faultEvent, noCacheRetention );
         }
         catch ( Throwable throwable )
         {
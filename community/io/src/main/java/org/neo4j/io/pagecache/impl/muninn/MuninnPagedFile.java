@@ -34,6 +34,8 @@ import org.neo4j.io.pagecache.PageSwapperFactory;
 import org.neo4j.io.pagecache.PagedFile;
 import org.neo4j.io.pagecache.impl.PagedReadableByteChannel;
 import org.neo4j.io.pagecache.impl.PagedWritableByteChannel;
+import org.neo4j.io.pagecache.tracing.EvictionEvent;
+import org.neo4j.io.pagecache.tracing.EvictionRunEvent;
 import org.neo4j.io.pagecache.tracing.FlushEvent;
 import org.neo4j.io.pagecache.tracing.FlushEventOpportunity;
 import org.neo4j.io.pagecache.tracing.MajorFlushEvent;
@@ -51,6 +53,8 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
     private static final long translationTableChunkSizeMask = translationTableChunkSize - 1;
     private static final int translationTableChunkArrayBase = UnsafeUtil.arrayBaseOffset( int[].class );
     private static final int translationTableChunkArrayScale = UnsafeUtil.arrayIndexScale( int[].class );
+    // The most pages that loadPages will latch and read in one go.
+    private static final int LOAD_PAGES_BATCH_SIZE = 128;
 
     private static final long headerStateOffset =
             UnsafeUtil.getFieldOffset( MuninnPagedFile.class, "headerState" );
@@ -212,7 +216,8 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
         return (lastPageId + 1) * pageSize();
     }
 
-    File file()
+    @Override
+    public File file()
     {
         return swapper.file();
     }
@@ -345,6 +350,13 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
 
     void flushAndForceInternal( FlushEventOpportunity flushOpportunity, boolean forClosing, IOLimiter limiter )
             throws IOException
+    {
+        flushInternal( flushOpportunity, forClosing, limiter );
+        swapper.force();
+    }
+
+    void flushInternal( FlushEventOpportunity flushOpportunity, boolean forClosing, IOLimiter limiter )
+            throws IOException
     {
         // TODO it'd be awesome if, on Linux, we'd call sync_file_range(2) instead of fsync
         long[] pages = new long[translationTableChunkSize];
@@ -422,8 +434,6 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
                 limiterStamp = limiter.maybeLimitIO( limiterStamp, pagesGrabbed, this );
             }
         }
-
-        swapper.force();
     }
 
     private void vectoredFlush(
@@ -637,11 +647,237 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
     /**
      * Grab a free page for the purpose of page faulting. Possibly blocking if
      * none are immediately available.
+     * @param filePageId The file page id of the page that is being faulted in.
      * @param faultEvent The trace event for the current page fault.
      */
-    long grabFreeAndExclusivelyLockedPage( PageFaultEvent faultEvent ) throws IOException
+    long grabFreeAndExclusivelyLockedPage( long filePageId, PageFaultEvent faultEvent ) throws IOException
+    {
+        return pageCache.grabFreeAndExclusivelyLockedPage( swapperId, filePageId, faultEvent );
+    }
+
+    /**
+     * Fault in the given range of file pages ahead of a read cursor, as a {@link #faultAhead(long, int, boolean)}
+     * that is counted as a prefetch.
+     *
+     * @return the number of pages that were faulted in.
+     */
+    int prefetch( long startFilePageId, int pageCount, boolean noCacheRetention )
+    {
+        int prefetched = faultAhead( startFilePageId, pageCount, noCacheRetention );
+        if ( prefetched > 0 )
+        {
+            pageCacheTracer.prefetches( prefetched );
+        }
+        return prefetched;
+    }
+
+    @Override
+    public int loadPages( long startPageId, int pageCount )
+    {
+        int loaded = 0;
+        long endPageId = startPageId + pageCount;
+        for ( long pageId = startPageId; pageId < endPageId; pageId += LOAD_PAGES_BATCH_SIZE )
+        {
+            loaded += faultAhead( pageId, (int) Math.min( LOAD_PAGES_BATCH_SIZE, endPageId - pageId ), false );
+        }
+        return loaded;
+    }
+
+    /**
+     * Fault in those of the given range of file pages, that are not already in memory, using vectored reads of the
+     * runs of consecutive pages in between. This is best effort: pages beyond the end of the file, and pages that
+     * other threads are busy faulting in, are skipped, and any failure to grab a free page or read the file ends the
+     * fault without an exception.
+     * <p>
+     * Cursors faulting the same pages wait on the page fault latches of a run, so like a cursor page fault, we only wait
+     * for a page to be evicted while holding a single latch.
+     *
+     * @return the number of pages that were faulted in.
+     */
+    private int faultAhead( long startFilePageId, int pageCount, boolean noCacheRetention )
     {
-        return pageCache.grabFreeAndExclusivelyLockedPage( faultEvent );
+        long endFilePageId;
+        try
+        {
+            endFilePageId = Math.min( startFilePageId + pageCount, getLastPageId() + 1 );
+        }
+        catch ( IllegalStateException e )
+        {
+            return 0; // The file has been unmapped.
+        }
+
+        long[] pageRefs = new long[pageCount];
+        LatchMap.Latch[] latches = new LatchMap.Latch[pageCount];
+        int faulted = 0;
+        try ( EvictionRunEvent evictionRunEvent = pageCacheTracer.beginPageEvictions( 0 ) )
+        {
+            PageFaultEvent faultEvent = faultAheadEvent( evictionRunEvent );
+            long filePageId = startFilePageId;
+            while ( filePageId < endFilePageId )
+            {
+                int length = 0;
+                boolean failed = false;
+                boolean skipPage = false;
+                while ( filePageId + length < endFilePageId )
+                {
+                    LatchMap.Latch latch = tryLatchUnmappedPage( filePageId + length );
+                    if ( latch == null )
+                    {
+                        // Skip over the page that is already in memory, or being faulted in by someone else.
+                        skipPage = true;
+                        break;
+                    }
+                    long pageRef;
+                    try
+                    {
+                        // Like a cursor page fault, we can wait for a free page while we hold the latch of the first
+                        // page of the run. Once we hold more latches than that, we only take pages that are free right
+                        // away, and otherwise end the run, so the next run can wait for a free page instead.
+                        pageRef = length == 0
+                                  ? grabFreeAndExclusivelyLockedPage( filePageId, faultEvent )
+                                  : pageCache.tryGrabFreeAndExclusivelyLockedPage( swapperId, filePageId + length );
+                    }
+                    catch ( Throwable throwable )
+                    {
+                        latch.release();
+                        failed = true;
+                        break;
+                    }
+                    if ( pageRef == 0 )
+                    {
+                        latch.release();
+                        break;
+                    }
+                    initBuffer( pageRef );
+                    pageRefs[length] = pageRef;
+                    latches[length] = latch;
+                    length++;
+                }
+                if ( length > 0 )
+                {
+                    if ( faultRun( pageRefs, latches, length, filePageId, noCacheRetention ) )
+                    {
+                        faulted += length;
+                    }
+                    else
+                    {
+                        failed = true;
+                    }
+                }
+                if ( failed )
+                {
+                    break;
+                }
+                filePageId += skipPage ? length + 1 : length;
+            }
+        }
+        if ( faulted > 0 )
+        {
+            pageCacheTracer.faults( faulted );
+        }
+        return faulted;
+    }
+
+    /**
+     * Take the page fault latch for the given file page, but only if the page is not in memory, and nobody else holds
+     * a colliding latch. We can be holding latches for other pages, so we cannot wait for latches like cursors do.
+     */
+    private LatchMap.Latch tryLatchUnmappedPage( long filePageId )
+    {
+        int chunkId = computeChunkId( filePageId );
+        long chunkOffset = computeChunkOffset( filePageId );
+        int[][] tt = translationTable;
+        if ( tt.length <= chunkId )
+        {
+            tt = expandCapacity( chunkId );
+        }
+        int[] chunk = tt[chunkId];
+        if ( UnsafeUtil.getIntVolatile( chunk, chunkOffset ) != UNMAPPED_TTE )
+        {
+            return null;
+        }
+        LatchMap.Latch latch = pageFaultLatches.tryTakeLatch( filePageId );
+        if ( latch != null && UnsafeUtil.getIntVolatile( chunk, chunkOffset ) != UNMAPPED_TTE )
+        {
+            // We raced with a page fault that completed in-between our check and taking the latch.
+            latch.release();
+            return null;
+        }
+        return latch;
+    }
+
+    /**
+     * Fault the given exclusively locked pages in with a single vectored read, and publish them in the translation
+     * table. The pages are unlocked, and the latches released, no matter the outcome.
+     *
+     * @return {@code true} if the pages were faulted in, otherwise {@code false}.
+     */
+    private boolean faultRun( long[] pageRefs, LatchMap.Latch[] latches, int length, long startFilePageId,
+            boolean noCacheRetention )
+    {
+        try
+        {
+            // Like for cursor page faults, check that we are not racing with unmapping, now that we hold the locks.
+            getLastPageId();
+            long bytesRead = fault( pageRefs, length, swapper, swapperId, startFilePageId, noCacheRetention );
+            pageCacheTracer.bytesRead( bytesRead );
+        }
+        catch ( Throwable throwable )
+        {
+            for ( int i = 0; i < length; i++ )
+            {
+                // The eviction thread will pick up our trash, as with a failed cursor page fault.
+                unlockExclusive( pageRefs[i] );
+                latches[i].release();
+            }
+            return false;
+        }
+        int[][] tt = translationTable;
+        for ( int i = 0; i < length; i++ )
+        {
+            long filePageId = startFilePageId + i;
+            int[] chunk = tt[computeChunkId( filePageId )];
+            UnsafeUtil.putIntVolatile( chunk, computeChunkOffset( filePageId ), toId( pageRefs[i] ) );
+            unlockExclusive( pageRefs[i] );
+            latches[i].release();
+        }
+        return true;
+    }
+
+    /**
+     * Faulting ahead is not part of any pin, so the evictions it causes on the way are traced like background
+     * evictions.
+     */
+    private static PageFaultEvent faultAheadEvent( EvictionRunEvent evictionRunEvent )
+    {
+        return new PageFaultEvent()
+        {
+            @Override
+            public void addBytesRead( long bytes )
+            {
+            }
+
+            @Override
+            public void setCachePageId( long cachePageId )
+            {
+            }
+
+            @Override
+            public void done()
+            {
+            }
+
+            @Override
+            public void done( Throwable throwable )
+            {
+            }
+
+            @Override
+            public EvictionEvent beginEviction()
+            {
+                return evictionRunEvent.beginEviction();
+            }
+        };
     }
 
     /**
@@ -28,6 +28,7 @@ final class MuninnReadPageCursor extends MuninnPageCursor
 {
     private final CursorPool.CursorSets cursorSets;
     private long lockStamp;
+    private final ReadAhead readAheadState = new ReadAhead();
     MuninnReadPageCursor nextCursor;
 
     MuninnReadPageCursor( CursorPool.CursorSets cursorSets, long victimPage, PageCursorTracer pageCursorTracer )
@@ -59,6 +60,10 @@ final class MuninnReadPageCursor extends MuninnPageCursor
         currentPageId = nextPageId;
         nextPageId++;
         pin( currentPageId, false );
+        if ( readAhead )
+        {
+            readAheadState.pinned( pagedFile, currentPageId, pinFaulted, noCacheRetention );
+        }
         return true;
     }
 
@@ -78,7 +83,10 @@ final class MuninnReadPageCursor extends MuninnPageCursor
     protected void pinCursorToPage( long pageRef, long filePageId, PageSwapper swapper )
     {
         reset( pageRef );
-        pagedFile.incrementUsage( pageRef );
+        if ( !noCacheRetention )
+        {
+            pagedFile.incrementUsage( pageRef );
+        }
     }
 
     @Override
@@ -90,6 +98,7 @@ final class MuninnReadPageCursor extends MuninnPageCursor
     @Override
     protected void releaseCursor()
     {
+        readAheadState.reset();
         nextCursor = cursorSets.readCursors;
         cursorSets.readCursors = this;
     }
@@ -122,7 +122,10 @@ final class MuninnWritePageCursor extends MuninnPageCursor
         // after the reset() call, which means that if we throw, the cursor will
         // be closed and the page lock will be released.
         assertPagedFileStillMappedAndGetIdOfLastPage();
-        pagedFile.incrementUsage( pageRef );
+        if ( !noCacheRetention )
+        {
+            pagedFile.incrementUsage( pageRef );
+        }
     }
 
     @Override
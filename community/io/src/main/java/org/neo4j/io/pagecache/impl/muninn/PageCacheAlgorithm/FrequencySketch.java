@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn.PageCacheAlgorithm;
+
+import org.neo4j.memory.GlobalMemoryTracker;
+import org.neo4j.unsafe.impl.internal.dragons.UnsafeUtil;
+
+/**
+ * An off-heap count-min sketch, that estimates how often a key has been seen recently.
+ * <p>
+ * The sketch keeps 4-bit counters, 16 to a long, in a table with one long per expected key. Every key maps to four
+ * counters in a single long, and its frequency is the smallest of them. When the number of increments reaches ten
+ * times the expected number of keys, all counters are halved, so the sketch forgets about keys that are no longer
+ * popular. This is the sketch that TinyLFU uses as its admission filter.
+ * <p>
+ * Increments must be done by one thread at a time. The frequency can be read at any time, but may then be
+ * slightly off.
+ */
+public final class FrequencySketch
+{
+    static final int MAX_FREQUENCY = 15;
+
+    private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final long ONE_MASK = 0x1111111111111111L;
+
+    private final int tableMask;
+    private final long bytes;
+    private final long address;
+    private final int sampleSize;
+    private int size;
+    private boolean closed;
+
+    /**
+     * @param expectedKeys the number of keys the sketch should be able to tell apart, which is typically the number
+     * of entries in the cache.
+     */
+    public FrequencySketch( int expectedKeys )
+    {
+        int keys = Math.max( 16, Math.min( expectedKeys, 1 << 30 ) );
+        int tableSize = Integer.highestOneBit( keys - 1 ) << 1;
+        this.tableMask = tableSize - 1;
+        this.bytes = ((long) tableSize) * Long.BYTES;
+        this.address = UnsafeUtil.allocateMemory( bytes, GlobalMemoryTracker.INSTANCE );
+        UnsafeUtil.setMemory( address, bytes, (byte) 0 );
+        this.sampleSize = (int) Math.min( 10L * Math.max( expectedKeys, 1 ), Integer.MAX_VALUE );
+    }
+
+    /**
+     * @return the estimated number of times the key has been seen, at most {@value #MAX_FREQUENCY}.
+     */
+    public int frequency( long key )
+    {
+        int hash = spread( key );
+        int start = (hash & 3) << 2;
+        int frequency = Integer.MAX_VALUE;
+        for ( int i = 0; i < 4; i++ )
+        {
+            long word = UnsafeUtil.getLongVolatile( word( indexOf( hash, i ) ) );
+            int count = (int) ((word >>> ((start + i) << 2)) & 0xFL);
+            frequency = Math.min( frequency, count );
+        }
+        return frequency;
+    }
+
+    /**
+     * Count another sighting of the key, and age the sketch if it is time to.
+     */
+    public void increment( long key )
+    {
+        int hash = spread( key );
+        int start = (hash & 3) << 2;
+        boolean added = false;
+        for ( int i = 0; i < 4; i++ )
+        {
+            added |= incrementAt( indexOf( hash, i ), start + i );
+        }
+        if ( added && ++size >= sampleSize )
+        {
+            reset();
+        }
+    }
+
+    private boolean incrementAt( int index, int counter )
+    {
+        long address = word( index );
+        int offset = counter << 2;
+        long mask = 0xFL << offset;
+        long word = UnsafeUtil.getLongVolatile( address );
+        if ( (word & mask) != mask )
+        {
+            UnsafeUtil.putLongVolatile( address, word + (1L << offset) );
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Halve every counter.
+     */
+    void reset()
+    {
+        long oddCounters = 0;
+        for ( int index = 0; index <= tableMask; index++ )
+        {
+            long address = word( index );
+            long word = UnsafeUtil.getLongVolatile( address );
+            oddCounters += Long.bitCount( word & ONE_MASK );
+            UnsafeUtil.putLongVolatile( address, (word >>> 1) & RESET_MASK );
+        }
+        size = (int) Math.max( 0, (size >>> 1) - (oddCounters >>> 2) );
+    }
+
+    private long word( int index )
+    {
+        return address + ((long) index) * Long.BYTES;
+    }
+
+    private int indexOf( int hash, int i )
+    {
+        long h = (hash + SEEDS[i]) * SEEDS[i];
+        h += h >>> 32;
+        return ((int) h) & tableMask;
+    }
+
+    private static int spread( long key )
+    {
+        long h = key * 0x9E3779B97F4A7C15L;
+        int x = (int) (h ^ (h >>> 32));
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        return (x >>> 16) ^ x;
+    }
+
+    /**
+     * Free the memory of this sketch. The sketch must not be used after it has been closed.
+     */
+    public synchronized void close()
+    {
+        if ( !closed )
+        {
+            closed = true;
+            UnsafeUtil.free( address, bytes, GlobalMemoryTracker.INSTANCE );
+        }
+    }
+}
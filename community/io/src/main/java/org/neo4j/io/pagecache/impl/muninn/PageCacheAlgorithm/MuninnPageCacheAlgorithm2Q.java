@@ -19,6 +19,8 @@
  */
 package org.neo4j.io.pagecache.impl.muninn.PageCacheAlgorithm;
 
+import org.neo4j.collection.primitive.Primitive;
+import org.neo4j.collection.primitive.PrimitiveLongLongMap;
 import org.neo4j.io.pagecache.PageCacheAlgorithm;
 import org.neo4j.io.pagecache.PageData;
 import org.neo4j.io.pagecache.impl.muninn.CacheLiveLockException;
@@ -27,174 +29,153 @@ import org.neo4j.io.pagecache.impl.muninn.PageList;
 import org.neo4j.io.pagecache.tracing.PageFaultEvent;
 
 import java.io.IOException;
-
+import java.util.function.IntConsumer;
+
+import static org.neo4j.io.pagecache.impl.muninn.PageCacheAlgorithm.PageMetaDataTable.FLAG_NO_CACHE_RETENTION;
+import static org.neo4j.io.pagecache.impl.muninn.PageCacheAlgorithm.PageMetaDataTable.NO_PAGE;
+import static org.neo4j.io.pagecache.impl.muninn.PageCacheAlgorithm.PageMetaDataTable.filePageKey;
+
+/**
+ * The full version of the 2Q algorithm, by Johnson and Shasha.
+ * <p>
+ * Pages that are faulted in for the first time go into the A1in FIFO. When A1in grows beyond its share of the cache,
+ * pages are reclaimed from it, and the file pages they held are remembered in the A1out ghost queue. A file page that
+ * is faulted in again while it is remembered in A1out has proven to be re-referenced, and goes straight into the LRU
+ * managed Am list. A hit in A1in is deliberately ignored, as it is most likely correlated with the first reference.
+ */
 public class MuninnPageCacheAlgorithm2Q implements PageCacheAlgorithm
 {
+    public static final double DEFAULT_A1IN_RATIO = 0.25;
+    public static final double DEFAULT_A1OUT_RATIO = 0.5;
+
     int cooperativeEvictionLiveLockThreshold;
 
     MuninnPageCache pageCache;
 
+    PageList pages;
+
+    private final double a1inRatio;
+    private final double a1outRatio;
+
     long a1Size;
-    long a2Size;
+
+    PageMetaDataTable metaData;
 
     //Entry list. FiFo managed, stores pages referenced once
-    doubleLinkedPageMetaDataList a1List = new doubleLinkedPageMetaDataList();
+    PageMetaDataList a1List;
 
     //AM list, stores pages referenced more than once.
     //LRU managed
-    doubleLinkedPageMetaDataList a2List = new doubleLinkedPageMetaDataList();
+    PageMetaDataList a2List;
+
+    // Hits on Am are buffered here, and only reordered in batches.
+    private final PinEventBuffer pinEvents = new PinEventBuffer();
+    private final IntConsumer hitHandler = this::onHit;
+
+    // A1out ghost queue. A ring of file page identities, and a map from identity to the sequence number it was last
+    // written at, so an identity is only forgotten when the ring overwrites its most recent entry.
+    // Guarded by the latch of the meta-data table.
+    private long[] a1outRing;
+    private long a1outSequence;
+    private PrimitiveLongLongMap a1outIndex;
 
-    public MuninnPageCacheAlgorithm2Q(int cooperativeEvictionLiveLockThreshold, MuninnPageCache pageCache)
+    public MuninnPageCacheAlgorithm2Q( int cooperativeEvictionLiveLockThreshold, MuninnPageCache pageCache )
     {
+        this( cooperativeEvictionLiveLockThreshold, pageCache, DEFAULT_A1IN_RATIO, DEFAULT_A1OUT_RATIO );
+    }
 
+    /**
+     * @param a1inRatio the share of the cache pages that the A1in FIFO may hold, before pages are reclaimed from it.
+     * @param a1outRatio the number of file pages to remember in the A1out ghost queue, relative to the number of
+     * cache pages.
+     */
+    public MuninnPageCacheAlgorithm2Q( int cooperativeEvictionLiveLockThreshold, MuninnPageCache pageCache,
+            double a1inRatio, double a1outRatio )
+    {
+        if ( a1inRatio <= 0 || a1inRatio >= 1 || a1outRatio < 0 )
+        {
+            throw new IllegalArgumentException( "The A1in ratio must be between 0 and 1, and the A1out ratio cannot " +
+                                                "be negative, but was " + a1inRatio + " and " + a1outRatio );
+        }
         this.cooperativeEvictionLiveLockThreshold = cooperativeEvictionLiveLockThreshold;
         this.pageCache = pageCache;
-
-
+        this.a1inRatio = a1inRatio;
+        this.a1outRatio = a1outRatio;
     }
 
-    public void setNumberOfPages(long maxPages)
+    @Override
+    public void bind( PageList pages )
     {
-        this.a1Size = maxPages / 2;
-        this.a2Size = maxPages / 2;
+        int pageCount = pages.getPageCount();
+        this.pages = pages;
+        this.metaData = new PageMetaDataTable( pageCount );
+        this.a1List = new PageMetaDataList( this.metaData, 1, false );
+        this.a2List = new PageMetaDataList( this.metaData, 2, false );
+        this.a1Size = Math.max( 1, (long) (pageCount * this.a1inRatio) );
+        int a1outSize = (int) Math.min( Integer.MAX_VALUE - 8, (long) (pageCount * this.a1outRatio) );
+        this.a1outRing = new long[a1outSize];
+        this.a1outIndex = Primitive.longLongMap( Math.max( 16, a1outSize ) );
     }
 
-
     /**
-     * Evicts a page from the FiFo managed A1 list
-     **/
-    private long a1Evict(PageList pages, PageFaultEvent faultEvent) throws IOException
+     * Remember the given file page in A1out. Must be called while holding the latch.
+     */
+    private void rememberEvicted( long key )
     {
-        doubleLinkedPageMetaDataList.Page page = null;
-        int iterations = 0;
-        boolean evicted = false;
-
-        synchronized ( this.a1List )
+        if ( this.a1outRing.length == 0 )
         {
-
-            if (!this.a1List.empty())
-            {
-                page = this.a1List.tail;
-                do
-                {
-                    if (iterations >= this.a1List.size())
-                    {
-                        return 0;
-                    }
-
-                    if (pages.isLoaded(page.pageRef) && pages.decrementUsage(page.pageRef))
-                    {
-                        evicted = pages.tryEvict(page.pageRef, faultEvent);
-                    }
-                    if (evicted)
-                    {
-                        break;
-                    }
-
-                    if (page.last == null)
-                    {
-                        page = this.a1List.tail;
-                    } else
-                    {
-                        page = page.last;
-                    }
-
-                    iterations++;
-                } while (!evicted);
-
-                if (evicted)
-                {
-                    this.a1List.removePage(page.pageRef);
-                }
-            }
-            else
+            return;
+        }
+        long sequence = this.a1outSequence++;
+        int slot = (int) (sequence % this.a1outRing.length);
+        if ( sequence >= this.a1outRing.length )
+        {
+            long overwritten = this.a1outRing[slot];
+            if ( this.a1outIndex.get( overwritten ) == sequence - this.a1outRing.length )
             {
-                return 0;
+                this.a1outIndex.remove( overwritten );
             }
         }
-
-        return page.pageRef;
-    }
-
-    /**
-     * Enters a page to the A1 list.
-     **/
-    private void a1Enter(long pageRef, PageData pageData)
-    {
-        this.a1List.addPageFront(pageRef, pageData);
+        this.a1outRing[slot] = key;
+        this.a1outIndex.put( key, sequence );
     }
 
     /**
-     * Evicts a page from the LRU managed A1 list
+     * Evicts a page from the tail of the given list, walking it without taking the latch.
      **/
-    private long a2Evict(PageList pages, PageFaultEvent faultEvent) throws IOException
+    private int evictFrom( PageMetaDataList list, PageList pages, PageFaultEvent faultEvent ) throws IOException
     {
-        doubleLinkedPageMetaDataList.Page page = null;
-        int iterations = 0;
-        boolean evicted = false;
-
-        synchronized ( this.a2List )
+        int steps = 0;
+        int pageId = list.tail();
+        while ( pageId != NO_PAGE && steps++ < this.metaData.getPageCount() )
         {
-            if (!this.a2List.empty())
+            if ( this.pageCache.getFreelistHead() != null )
             {
-                page = this.a2List.tail;
-                do
-                {
-
-                    if (iterations >= this.a2List.size())
-                    {
-                        return 0;
-                    }
-
-                    if (pages.isLoaded(page.pageRef) && pages.decrementUsage(page.pageRef))
-                    {
-                        evicted = pages.tryEvict(page.pageRef, faultEvent);
-                    }
-                    if (evicted)
-                    {
-                        break;
-                    }
-
-                    if (page.last == null)
-                    {
-                        page = a2List.tail;
-                    } else
-                    {
-                        page = page.last;
-                    }
-
-                    iterations++;
-                }
-                while (!evicted);
+                return NO_PAGE;
+            }
 
-                if (evicted)
+            long pageRef = pages.deref( pageId );
+            if ( pages.isLoaded( pageRef ) && pages.decrementUsage( pageRef ) )
+            {
+                // The identity of the file page is gone once the page is evicted, so we have to grab it first.
+                long key = filePageKey( pages.getSwapperId( pageRef ), pages.getFilePageId( pageRef ) );
+                if ( pages.tryEvict( pageRef, faultEvent ) )
                 {
-                    this.a2List.removePage(page.pageRef);
+                    forget( pageId, key );
+                    return pageId;
                 }
-            } else
-            {
-                return 0;
             }
+            pageId = list.previous( pageId );
         }
-        return page.pageRef;
-    }
-
-    /**
-     * Enters a page to the A1 list.
-     **/
-    private void a2Enter(long pageRef, PageData pageData)
-    {
-        this.a2List.addPageFront(pageRef, pageData);
+        return NO_PAGE;
     }
 
     @Override
-    public long cooperativlyEvict(PageFaultEvent faultEvent, PageList pages) throws IOException
+    public long cooperativlyEvict( PageFaultEvent faultEvent, PageList pages ) throws IOException
     {
-
-        long pageRef = 0;
         int iterations = 0;
 
-        do
+        for (;;)
         {
             this.pageCache.assertHealthy();
             if (this.pageCache.getFreelistHead() != null)
@@ -202,36 +183,63 @@ public class MuninnPageCacheAlgorithm2Q implements PageCacheAlgorithm
                 return 0;
             }
 
-            if ( this.a1List.empty() && this.a2List.empty())
+            if ( this.a1List.isEmpty() && this.a2List.isEmpty())
             {
                 return 0;
             }
 
-            if (iterations >= this.cooperativeEvictionLiveLockThreshold)
+            // Reclaim from A1 while it is over its share of the cache, and from Am otherwise.
+            boolean a1First = this.a1List.size() > this.a1Size || this.a2List.isEmpty();
+            PageMetaDataList first = a1First ? this.a1List : this.a2List;
+            PageMetaDataList second = a1First ? this.a2List : this.a1List;
+
+            int pageId = this.evictFrom( first, pages, faultEvent );
+            if ( pageId == NO_PAGE )
             {
-                throw cooperativeEvictionLiveLock();
+                pageId = this.evictFrom( second, pages, faultEvent );
             }
-            if (!this.a1List.empty())
+            if ( pageId != NO_PAGE )
             {
-                pageRef = this.a1Evict(pages, faultEvent);
-
+                return pages.deref( pageId );
             }
-            if (pageRef == 0 && !this.a2List.empty())
+
+            if (++iterations >= this.cooperativeEvictionLiveLockThreshold)
             {
-                pageRef = this.a2Evict(pages, faultEvent);
+                throw cooperativeEvictionLiveLock();
             }
+        }
+    }
 
-            //freelist head is null
-            if (pageRef == -1)
+    /**
+     * Unlink the evicted page, and remember the file page it held in A1out if it was reclaimed from A1in.
+     *
+     * @param key the identity of the evicted file page, or -1 if it is not known.
+     */
+    private void forget( int pageId, long key )
+    {
+        this.metaData.latch();
+        try
+        {
+            drainPinEvents();
+            if ( this.a1List.contains( pageId ) )
             {
-                return 0;
+                this.a1List.remove( pageId );
+                // Pages that were only ever read by a scan are not worth remembering.
+                if ( key != -1 && !this.metaData.hasFlag( pageId, FLAG_NO_CACHE_RETENTION ) )
+                {
+                    rememberEvicted( key );
+                }
             }
-
-            iterations++;
-
-    } while(pageRef == 0);
-
-    return pageRef;
+            else if ( this.a2List.contains( pageId ) )
+            {
+                this.a2List.remove( pageId );
+            }
+            this.metaData.updateFlags( pageId, 0, FLAG_NO_CACHE_RETENTION );
+        }
+        finally
+        {
+            this.metaData.unlatch();
+        }
     }
 
     private CacheLiveLockException cooperativeEvictionLiveLock()
@@ -251,57 +259,108 @@ public class MuninnPageCacheAlgorithm2Q implements PageCacheAlgorithm
 
 
     @Override
-    public void notifyPin(long pageRef, PageData pageData)
+    public void notifyPin( long pageRef, PageData pageData )
     {
-        synchronized ( this.a1List)
+        int pageId = this.pages.toId( pageRef );
+
+        if ( this.a1List.contains( pageId ) || this.a2List.head() == pageId )
         {
-            synchronized ( this.a2List )
+            // A1in is a FIFO, so a hit does not change anything, and neither does a hit on the head of Am.
+            // A regular reader does make a page that a scan brought in worth remembering once it is evicted, though.
+            if ( !pageData.isNoCacheRetention() && this.metaData.hasFlag( pageId, FLAG_NO_CACHE_RETENTION ) )
             {
-                if (!this.a1List.exists(pageRef) && !this.a2List.exists(pageRef))
-                {
-                    if (this.a1List.size() + 1 > this.a1Size)
-                    {
-                    }
-                    this.a1Enter(pageRef, pageData);
-                } else if (this.a1List.exists(pageRef))
-                {
-                    if (this.a2List.size() + 1 > this.a2Size)
-                    {
-
-                    }
-
-                    this.a1List.removePage(pageRef);
-                    this.a2Enter(pageRef, pageData);
-
-                } else if (this.a2List.exists(pageRef))
-                {
-                    this.a2List.setPageDataAndMoveToHead(pageRef, pageData);
-                }
+                this.metaData.updateFlags( pageId, 0, FLAG_NO_CACHE_RETENTION );
+            }
+            return;
+        }
 
-                return;
-            }}
+        if ( this.a2List.contains( pageId ) )
+        {
+            if ( !pageData.isNoCacheRetention() )
+            {
+                recordHit( pageId );
+            }
+            return;
+        }
 
+        long key = filePageKey( this.pages.getSwapperId( pageRef ), this.pages.getFilePageId( pageRef ) );
+        this.metaData.latch();
+        try
+        {
+            drainPinEvents();
+            if ( this.a1List.contains( pageId ) || this.a2List.contains( pageId ) )
+            {
+                return; // Someone beat us to it.
+            }
+            if ( pageData.isNoCacheRetention() )
+            {
+                // Put the page at the end of A1in that is evicted first, and keep any memory of it in A1out intact.
+                this.metaData.updateFlags( pageId, FLAG_NO_CACHE_RETENTION, 0 );
+                this.a1List.addLast( pageId );
+            }
+            else if ( this.a1outIndex.remove( key ) != -1 )
+            {
+                this.a2List.addFirst( pageId );
+            }
+            else
+            {
+                this.a1List.addFirst( pageId );
+            }
+        }
+        finally
+        {
+            this.metaData.unlatch();
+        }
     }
 
-    @Override
-    public void externalEviction(long pageRef, PageData pageData)
+    /**
+     * Buffer a hit, and apply the buffered hits if the buffer is filling up and nobody else is busy with the lists.
+     */
+    private void recordHit( int pageId )
     {
-        synchronized ( this.a1List )
+        if ( this.pinEvents.offer( pageId ) && this.metaData.tryLatch() )
         {
-            if (this.a1List.exists(pageRef))
+            try
             {
-                this.a1List.removePage(pageRef);
+                drainPinEvents();
+            }
+            finally
+            {
+                this.metaData.unlatch();
             }
         }
+    }
 
-        synchronized ( this.a2List )
+    /**
+     * Apply the buffered hits. Must be called while holding the latch.
+     */
+    private void drainPinEvents()
+    {
+        this.pinEvents.drain( this.hitHandler );
+    }
+
+    private void onHit( int pageId )
+    {
+        // The page may have been evicted since the hit was recorded.
+        if ( this.a2List.contains( pageId ) && this.a2List.head() != pageId )
         {
-            if (this.a2List.exists(pageRef))
-            {
-                this.a2List.removePage(pageRef);
-            }
+            this.a2List.moveToFront( pageId );
         }
+    }
 
+    @Override
+    public void externalEviction( long pageRef, PageData pageData )
+    {
+        long key = pageData.hasFilePage() ? filePageKey( pageData.getSwapperId(), pageData.getFilePageId() ) : -1;
+        forget( this.pages.toId( pageRef ), key );
+    }
 
+    @Override
+    public void close()
+    {
+        if ( this.metaData != null )
+        {
+            this.metaData.close();
+        }
     }
 }
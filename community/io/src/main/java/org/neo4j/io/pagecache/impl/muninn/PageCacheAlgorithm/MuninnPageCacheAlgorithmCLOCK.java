@@ -47,6 +47,12 @@ public final class MuninnPageCacheAlgorithmCLOCK implements PageCacheAlgorithm
         this.cooperativeEvictionLiveLockThreshold = cooperativeEvictionLiveLockThreshold;
     }
 
+    @Override
+    public void bind( PageList pages )
+    {
+        // CLOCK keeps its state in the usage counters of the page list itself.
+    }
+
     public long cooperativlyEvict( PageFaultEvent faultEvent, PageList pages ) throws IOException
     {
         /** Note this is called concurrently by Muninn, any object data stored should be
@@ -115,4 +121,10 @@ public final class MuninnPageCacheAlgorithmCLOCK implements PageCacheAlgorithm
     {
 
     }
+
+    @Override
+    public void close()
+    {
+
+    }
 }
@@ -27,253 +27,187 @@ import org.neo4j.io.pagecache.impl.muninn.PageList;
 import org.neo4j.io.pagecache.tracing.PageFaultEvent;
 
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.Set;
+import java.util.function.IntConsumer;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 
-import static java.lang.Math.round;
-import static java.lang.String.format;
+import static org.neo4j.io.pagecache.impl.muninn.PageCacheAlgorithm.PageMetaDataTable.FLAG_NEW;
+import static org.neo4j.io.pagecache.impl.muninn.PageCacheAlgorithm.PageMetaDataTable.FLAG_OLD;
+import static org.neo4j.io.pagecache.impl.muninn.PageCacheAlgorithm.PageMetaDataTable.NO_PAGE;
 
+/** Frequency based replacement.
+ *
+ * Pages are kept in recency order, split into a new, a middle and an old section. References to pages in the new
+ * section do not count towards their frequency, which factors out the locality of back-to-back references. Pages
+ * in the old section are additionally linked into count chains, and the victim is the least recently used page of
+ * the lowest non-empty count chain.
+ */
 public class MuninnPageCacheAlgorithmLFU implements PageCacheAlgorithm
 {
+    public static final double DEFAULT_SECTION_RATIO = 1.0 / 3;
+
+    private static final int NEW_LIST = 1;
+    private static final int MIDDLE_LIST = 2;
+    private static final int OLD_LIST = 3;
 
     int cooperativeEvictionLiveLockThreshold;
 
     MuninnPageCache pageCache;
 
+    PageList pages;
+
     long cacheSize;
 
-    doubleLinkedPageMetaDataList pageList = new doubleLinkedPageMetaDataList();
-    doubleLinkedPageMetaDataList.Page new_boundary;
-    long new_boundaryPageNumber;
-    doubleLinkedPageMetaDataList.Page old_boundary;
-    long old_boundaryPageNumber;
+    PageMetaDataTable metaData;
 
-    HashMap<Long, doubleLinkedPageMetaDataList> countChainList = new HashMap();
+    // The recency order is split over these three lists, from the most to the least recently used.
+    PageMetaDataList newList;
+    PageMetaDataList middleList;
+    PageMetaDataList oldList;
 
-    long Cmax;
+    // Count chains of the pages in the old section, keyed by reference count.
+    // The map is concurrent so the eviction walk can look at it without taking the latch.
+    final ConcurrentNavigableMap<Long, PageMetaDataList> countChainList = new ConcurrentSkipListMap<>();
+    int nextCountChainId = OLD_LIST + 1;
 
-    int LRUEvictions;
-    int LFUEvictions;
+    // Hits are buffered here, and only counted in batches.
+    private final PinEventBuffer pinEvents = new PinEventBuffer();
+    private final IntConsumer hitHandler = this::onHit;
 
-    /** The proportions of the sections.
-     *  Suggested: fOld <= 1- fNew
+    volatile long LRUEvictions;
+    volatile long LFUEvictions;
+
+    /** The sizes of the sections.
      *
-     *  fOld = 1- fNew results in a middle size of 0
+     *  fNew + fOld = cacheSize results in a middle size of 0
      *  fOld = 1 / ( cacheSize ) = LRU policy.
      */
     long fOld;
     long fNew;
 
-    public MuninnPageCacheAlgorithmLFU( int cooperativeEvictionLiveLockThreshold, MuninnPageCache pageCache )
-    {
-
-        this.cooperativeEvictionLiveLockThreshold = cooperativeEvictionLiveLockThreshold;
-        this.pageCache = pageCache;
-
-        this.new_boundary = this.pageList.head;
-        this.old_boundary = this.pageList.head;
-
-        this.countChainList.put( new Long( 0 ),new doubleLinkedPageMetaDataList() );
-    }
+    private final double newRatio;
+    private final double oldRatio;
 
-    public void setNumberOfPages( long maxPages )
+    public MuninnPageCacheAlgorithmLFU( int cooperativeEvictionLiveLockThreshold, MuninnPageCache pageCache )
     {
-        this.cacheSize = maxPages;
-        this.fNew = round( this.cacheSize / 3 );
-        this.fOld =  cacheSize - ( cacheSize / 2 - fNew );
+        this( cooperativeEvictionLiveLockThreshold, pageCache, DEFAULT_SECTION_RATIO, DEFAULT_SECTION_RATIO );
     }
 
-    private long updateCmax()
+    /**
+     * @param newRatio the share of the cache pages in the new section.
+     * @param oldRatio the share of the cache pages in the old section. The middle section gets what is left.
+     */
+    public MuninnPageCacheAlgorithmLFU( int cooperativeEvictionLiveLockThreshold, MuninnPageCache pageCache,
+            double newRatio, double oldRatio )
     {
-        Set<Long> countChainKeySet = this.countChainList.keySet();
-
-        for ( long refVal : countChainKeySet )
+        if ( newRatio < 0 || oldRatio <= 0 || newRatio + oldRatio > 1 )
         {
-            if ( refVal != Cmax )
-            {
-                this.Cmax = refVal;
-            }
+            throw new IllegalArgumentException( "The new and old section ratios must be positive, and add up to at " +
+                                                "most 1, but was " + newRatio + " and " + oldRatio );
         }
+        this.cooperativeEvictionLiveLockThreshold = cooperativeEvictionLiveLockThreshold;
+        this.pageCache = pageCache;
+        this.newRatio = newRatio;
+        this.oldRatio = oldRatio;
+    }
 
-        return this.Cmax;
+    @Override
+    public void bind( PageList pages )
+    {
+        this.pages = pages;
+        this.cacheSize = pages.getPageCount();
+        this.fNew = (long) (this.cacheSize * this.newRatio);
+        this.fOld = (long) (this.cacheSize * this.oldRatio);
+
+        this.metaData = new PageMetaDataTable( pages.getPageCount() );
+        this.newList = new PageMetaDataList( this.metaData, NEW_LIST, false );
+        this.middleList = new PageMetaDataList( this.metaData, MIDDLE_LIST, false );
+        this.oldList = new PageMetaDataList( this.metaData, OLD_LIST, false );
     }
 
     @Override
     public long cooperativlyEvict( PageFaultEvent faultEvent, PageList pages ) throws IOException
     {
-        boolean evicted = false;
         int iterations = 0;
-        int pageCount = pages.getPageCount();
-        doubleLinkedPageMetaDataList.Page evictionCandidatePage = null;
-        long evictionCandidate = 0;
-        long count = 0;
 
-        this.pageCache.assertHealthy();
-        if ( this.pageCache.getFreelistHead() != null )
+        for (;;)
         {
-            return 0;
-        }
+            this.pageCache.assertHealthy();
+            if ( this.pageCache.getFreelistHead() != null )
+            {
+                return 0;
+            }
 
-        synchronized ( this.pageList )
-        {
-            synchronized ( this.countChainList )
+            if ( this.newList.isEmpty() && this.middleList.isEmpty() && this.oldList.isEmpty() )
             {
-                updateCmax();
+                return 0;
+            }
 
-                while ( !evicted )
+            // Least frequently used first, and least recently used among pages with the same count.
+            int pageId = NO_PAGE;
+            for ( PageMetaDataList chain : this.countChainList.values() )
+            {
+                pageId = evictFrom( chain, pages, faultEvent );
+                if ( pageId != NO_PAGE )
                 {
-                    if ( count > this.Cmax )
-                    {
-                        break;
-                    }
-                    this.pageCache.assertHealthy();
-                    if ( this.pageCache.getFreelistHead() != null )
-                    {
-                        return 0;
-                    }
-
-                    if ( this.countChainList.containsKey(count) )
-                    {
-                        doubleLinkedPageMetaDataList chain = this.countChainList.get(count);
-                        //Technically shouldnt exist if its 0, but worth checking
-                        if ( chain.size() > 0 )
-                        {
-                            if ( chain.tail.pageData.isOld() )
-                            {
-                                evictionCandidatePage = chain.tail;
-                                evictionCandidate = chain.tail.pageRef;
-                            }
-                            else
-                            {
-                                count++;
-                                continue;
-                            }
-                        }
-                        else
-                        {
-                            count++;
-                            continue;
-                        }
-
-                    }
-                    else
-                    {
-                        count++;
-                        continue;
-                    }
-
-                    if ( pages.isLoaded( evictionCandidate ) && pages.decrementUsage( evictionCandidate ) )
-                    {
-                        evicted = pages.tryEvict( evictionCandidate, faultEvent );
-                        if ( evicted )
-                        {
-                            this.LFUEvictions++;
-                            break;
-                        }
-                    }
-
-                    count++;
-
+                    this.LFUEvictions++;
+                    break;
                 }
             }
-        }
-        synchronized ( this.pageList )
-        {
-            synchronized ( this.countChainList )
-            {
 
-                if ( !evicted )
+            // Then fall back to plain LRU, should every old page be in use.
+            if ( pageId == NO_PAGE )
+            {
+                pageId = evictFrom( this.oldList, pages, faultEvent );
+                if ( pageId == NO_PAGE )
                 {
-                    pageCount = pages.getPageCount();
-                    evictionCandidatePage = this.pageList.tail;
-                    evictionCandidate = evictionCandidatePage.pageRef;
-
-                    this.pageCache.assertHealthy();
-                    if ( this.pageCache.getFreelistHead() != null )
-                    {
-                        return 0;
-                    }
-
-                    if ( pages.isLoaded( evictionCandidate ) && pages.decrementUsage( evictionCandidate ) )
-                    {
-                        evicted = pages.tryEvict( evictionCandidate, faultEvent );
-                    }
-
-                    while ( !evicted )
-                    {
-                        this.pageCache.assertHealthy();
-                        if ( this.pageCache.getFreelistHead() != null )
-                        {
-                            return 0;
-                        }
-
-                        if ( iterations >= this.cooperativeEvictionLiveLockThreshold )
-                        {
-                            throw cooperativeEvictionLiveLock();
-                        }
-                        if ( evictionCandidatePage.last != null )
-                        {
-                            evictionCandidatePage = evictionCandidatePage.last;
-                            evictionCandidate = evictionCandidatePage.pageRef;
-                        }
-                        //TODO We should probs do something if we've got to the HEAD of the list
-
-                        if ( pages.isLoaded( evictionCandidate ) && pages.decrementUsage( evictionCandidate ) )
-                        {
-                            evicted = pages.tryEvict( evictionCandidate, faultEvent );
-                        }
-
-                        iterations++;
-                    }
-                    this.LRUEvictions++;
+                    pageId = evictFrom( this.middleList, pages, faultEvent );
                 }
-
-                if ( evicted )
+                if ( pageId == NO_PAGE )
                 {
-                    long chainElement = evictionCandidatePage.pageData.getRefCount();
-
-                    this.countChainList.get( chainElement ).removePage( evictionCandidate );
-
-                    if ( this.countChainList.get( chainElement ).size() == 0 && chainElement != 0 )
-                    {
-                        this.countChainList.remove( chainElement );
-                    }
-                    this.pageList.removePage( evictionCandidate );
+                    pageId = evictFrom( this.newList, pages, faultEvent );
                 }
-
-                if ( !evicted )
+                if ( pageId != NO_PAGE )
                 {
-                    throw cooperativeEvictionLiveLock();
+                    this.LRUEvictions++;
                 }
+            }
 
-                if ( this.new_boundary == evictionCandidatePage )
-                {
-                    if ( this.new_boundary.next != null )
-                    {
-                        this.new_boundary = this.new_boundary.next;
-                    }
-                    else if ( this.new_boundary.last != null )
-                    {
-                        this.new_boundary = this.new_boundary.last;
-                    }
+            if ( pageId != NO_PAGE )
+            {
+                forget( pageId );
+                return pages.deref( pageId );
+            }
 
-                }
-                if ( this.old_boundary == evictionCandidatePage )
-                {
-                    if ( this.old_boundary.last != null )
-                    {
-                        this.old_boundary = this.old_boundary.last;
-                    }
-                    else if ( this.old_boundary.next != null )
-                    {
-                        this.old_boundary = this.old_boundary.next;
-                    }
-                }
+            if ( ++iterations >= this.cooperativeEvictionLiveLockThreshold )
+            {
+                throw cooperativeEvictionLiveLock();
+            }
+        }
+    }
 
-                return evictionCandidate;
+    /**
+     * Evicts a page from the tail of the given list, walking it without taking the latch.
+     */
+    private int evictFrom( PageMetaDataList list, PageList pages, PageFaultEvent faultEvent ) throws IOException
+    {
+        int steps = 0;
+        int pageId = list.tail();
+        while ( pageId != NO_PAGE && steps++ < this.metaData.getPageCount() )
+        {
+            if ( this.pageCache.getFreelistHead() != null )
+            {
+                return NO_PAGE;
+            }
 
+            long pageRef = pages.deref( pageId );
+            if ( pages.isLoaded( pageRef ) && pages.decrementUsage( pageRef ) && pages.tryEvict( pageRef, faultEvent ) )
+            {
+                return pageId;
             }
+            pageId = list.previous( pageId );
         }
+        return NO_PAGE;
     }
 
     private CacheLiveLockException cooperativeEvictionLiveLock()
@@ -294,238 +228,208 @@ public class MuninnPageCacheAlgorithmLFU implements PageCacheAlgorithm
     @Override
     public void notifyPin( long pageRef, PageData pageData )
     {
+        int pageId = this.pages.toId( pageRef );
 
-        //All pages added should be marked as until the new boundary is at 1/3 of the cache size.
-        //Then pages can be marked as not-new and not-old until the old boundary is 2/3 of the cache size.
+        if ( this.newList.contains( pageId ) || this.middleList.contains( pageId ) || this.oldList.contains( pageId ) )
+        {
+            if ( this.newList.head() != pageId && !pageData.isNoCacheRetention() )
+            {
+                recordHit( pageId );
+            }
+            return;
+        }
 
-        synchronized ( this.pageList )
+        this.metaData.latch();
+        try
         {
-            synchronized ( this.countChainList )
+            drainPinEvents();
+            if ( !this.newList.contains( pageId ) && !this.middleList.contains( pageId ) &&
+                 !this.oldList.contains( pageId ) )
             {
-                if ( !this.pageList.exists( pageRef ) )
+                this.metaData.setLastUsageTime( pageId, pageData.getLastUsageTime() );
+                if ( pageData.isNoCacheRetention() )
                 {
-                    //It'd be nice if we could use the same page object for both lists, to save memory.
-                    this.pageList.addPageFront( pageRef, pageData );
-                    try
-                    {
-                        this.countChainList.get( new Long( 0 ) ).addPageFront( pageRef, pageData );
-                    }
-                    catch ( Exception e )
-                    {
-                        throw e;
-                    }
-
-                    if ( this.pageList.size() == 1 )
-                    {
-                        this.new_boundary = this.pageList.head;
-                        this.old_boundary = this.pageList.head;
-                    }
-                    else
-                    {
-
-                        if ( this.new_boundary.last != null )
-                        {
-                            this.new_boundary = this.new_boundary.last;
-                        }
-                        this.new_boundary.pageData.setNew( false );
-
-                        if ( this.old_boundary.last != null )
-                        {
-                            this.old_boundary = this.old_boundary.last;
-                        }
-                        this.old_boundary.pageData.setOld( true );
-                    }
-
-                    return;
+                    // Skip the new and middle sections, and go straight to the least recently used end of the
+                    // least frequently used pages, where eviction looks first.
+                    this.oldList.addLast( pageId );
+                    this.metaData.updateFlags( pageId, FLAG_OLD, FLAG_NEW );
+                    countChain( this.metaData.getRefCount( pageId ) ).addLast( pageId );
                 }
-                else if ( this.pageList.exists(pageRef) )
+                else
                 {
-                    doubleLinkedPageMetaDataList.Page page = this.pageList.findPage(pageRef);
-
-                    //Keep moving the boundary pointers up the list until they're in the right places.
-                    // Or, if they're already in the right place just action on the pages.
-                    if ( this.pageList.size() < this.fNew || this.pageList.size() < this.fOld )
-                    {
-                        if ( this.pageList.size() < this.fNew )
-                        {
-                            this.new_boundary = this.pageList.tail;
-                        }
-
-                        if ( this.pageList.size() < this.fOld )
-                        {
-                            this.old_boundary = this.pageList.tail;
-                        }
-                    }
-                    else if ( page.pageData.isOld() )
-                    {
-                        if ( this.new_boundary.last != null )
-                        {
-                            this.new_boundary = this.new_boundary.last;
-                        }
-                        this.new_boundary.pageData.setNew(false);
-
-                        if ( this.old_boundary.last != null )
-                        {
-                            this.old_boundary = this.old_boundary.last;
-                        }
-                        this.old_boundary.pageData.setOld(true);
-                    }
-
-                    //If the page is not in the new section, then move it to the new section and
-                    //increase its reference count.
-                    //Else, just leave it alone.
-                    if ( !page.pageData.isNew() )
-                    {
-                        pageData.setNew( true );
-                        pageData.setOld( false );
-
-                        doubleLinkedPageMetaDataList list = null;
-                        //Swap it into its new count chain list location
-                        try
-                        {
-                            list = this.countChainList.get( page.pageData.getRefCount() );
-                            list.removePage( pageRef );
-                        }
-                        catch ( Exception e )
-                        {
-                            throw e;
-                        }
-
-                        //Clean up if we just removed the last element
-                        if ( this.countChainList.get( page.pageData.getRefCount() ).size() == 0 )
-                        {
-                            if ( page.pageData.getRefCount() != 0 )
-                            {
-                                this.countChainList.remove( page.pageData.getRefCount() );
-                            }
-                        }
-
-                        pageData.setRefCount( page.pageData.getRefCount() + 1 ); //TODO correlated references
-                        this.pageList.setPageDataAndMoveToHead( pageRef, pageData );
-
-                        //If the countList already contains a double linked list for this key
-                        //then just add it to the top of that.
-                        //Else, make a new list.
-                        if ( this.countChainList.containsKey( page.pageData.getRefCount() ) )
-                        {
-                            this.countChainList.get( page.pageData.getRefCount() ).addPageFront( page.pageRef, pageData );
-                        }
-                        else
-                        {
-                            this.countChainList.put(page.pageData.getRefCount(), new doubleLinkedPageMetaDataList());
-                            this.countChainList.get(page.pageData.getRefCount()).addPageFront(page.pageRef, pageData);
-
-                            updateCmax();
-                        }
-                    }
-                    else
-                    {
-                        //If the page is in the new section, don't increase its
-                        //ref count, just move it to the head of wherever it is in
-                        //Each list.
-
-                        page.pageData.setLastUsageTime( pageData.getLastUsageTime() );
-                        doubleLinkedPageMetaDataList list = null;
-
-                        //Swap it into its new count chain list location
-                        list = this.countChainList.get( page.pageData.getRefCount() );
-                        list.setPageDataAndMoveToHead( pageRef, page.pageData );
-
-                        this.pageList.setPageDataAndMoveToHead( pageRef, page.pageData );
-                    }
-
-                    return;
+                    this.newList.addFirst( pageId );
+                    this.metaData.updateFlags( pageId, FLAG_NEW, FLAG_OLD );
+                    balanceSections();
                 }
             }
         }
+        finally
+        {
+            this.metaData.unlatch();
+        }
+    }
+
+    /**
+     * Buffer a hit, and apply the buffered hits if the buffer is filling up and nobody else is busy with the lists.
+     */
+    private void recordHit( int pageId )
+    {
+        if ( this.pinEvents.offer( pageId ) && this.metaData.tryLatch() )
+        {
+            try
+            {
+                drainPinEvents();
+            }
+            finally
+            {
+                this.metaData.unlatch();
+            }
+        }
+    }
 
+    /**
+     * Apply the buffered hits. Must be called while holding the latch.
+     */
+    private void drainPinEvents()
+    {
+        this.pinEvents.drain( this.hitHandler );
     }
 
-    @Override
-    public void externalEviction( long pageRef, PageData pageData )
+    private void onHit( int pageId )
     {
-        synchronized ( this.pageList )
+        if ( this.newList.contains( pageId ) )
         {
-            synchronized ( this.countChainList )
+            //If the page is in the new section, don't increase its
+            //ref count, just move it to the head of the section.
+            if ( this.newList.head() != pageId )
             {
-                if ( this.pageList.exists(pageRef) )
-                {
-                    try
-                    {
-                        doubleLinkedPageMetaDataList list = this.countChainList.get( this.pageList.findPage( pageRef ).pageData.getRefCount() );
-                        list.removePage( pageRef );
-                    }
-                    catch ( Exception e )
-                    {
-                        throw e;
-                    }
-
-                    doubleLinkedPageMetaDataList.Page page = this.pageList.findPage( pageRef );
-
-                   if ( this.new_boundary == page )
-                   {
-                       if ( this.new_boundary.next != null )
-                       {
-                           this.new_boundary = this.new_boundary.next;
-                       }
-                       else if ( this.new_boundary.last != null )
-                       {
-                           this.new_boundary = this.new_boundary.last;
-                       }
-
-                   }
-                   if ( this.old_boundary == page )
-                   {
-                       if ( this.old_boundary.last != null )
-                       {
-                           this.old_boundary = this.old_boundary.last;
-                       }
-                       else if ( this.old_boundary.next != null )
-                       {
-                           this.old_boundary = this.old_boundary.next;
-                       }
-                   }
-
-                    this.pageList.removePage(pageRef);
-                }
+                this.newList.moveToFront( pageId );
             }
+            return;
+        }
 
+        if ( this.middleList.contains( pageId ) )
+        {
+            this.middleList.remove( pageId );
+        }
+        else if ( this.oldList.contains( pageId ) )
+        {
+            this.oldList.remove( pageId );
+            removeFromCountChain( pageId );
+        }
+        else
+        {
+            return; // The page has been evicted since the hit was recorded.
         }
-        return;
+
+        // The page moves back into the new section.
+        this.metaData.incrementRefCount( pageId );
+        this.newList.addFirst( pageId );
+        this.metaData.updateFlags( pageId, FLAG_NEW, FLAG_OLD );
+        balanceSections();
     }
 
-    public void printStatus( )
+    /**
+     * Push the least recently used pages of the new and middle sections down into the section below, until the
+     * sections are within their sizes. Must be called while holding the latch.
+     */
+    private void balanceSections()
     {
-        doubleLinkedPageMetaDataList.Page page = this.pageList.head;
+        while ( this.newList.size() > this.fNew )
+        {
+            int pageId = this.newList.removeLast();
+            this.middleList.addFirst( pageId );
+            this.metaData.updateFlags( pageId, 0, FLAG_NEW );
+        }
 
-        while ( page != null )
+        long middleSize = Math.max( this.cacheSize - this.fNew - this.fOld, 0 );
+        while ( this.middleList.size() > middleSize )
         {
+            int pageId = this.middleList.removeLast();
+            this.oldList.addFirst( pageId );
+            this.metaData.updateFlags( pageId, FLAG_OLD, 0 );
+            countChain( this.metaData.getRefCount( pageId ) ).addFirst( pageId );
+        }
+    }
 
-            String msg = format( "PageRef: " + page.pageRef + " References: " +
-                    page.pageData.getRefCount() + " isNew:"
-                     + page.pageData.isNew() + " isOld:"
-                     + page.pageData.isOld() + "");
-            if ( this.new_boundary == page )
+    private PageMetaDataList countChain( long refCount )
+    {
+        PageMetaDataList chain = this.countChainList.get( refCount );
+        if ( chain == null )
+        {
+            chain = new PageMetaDataList( this.metaData, this.nextCountChainId++, true );
+            this.countChainList.put( refCount, chain );
+        }
+        return chain;
+    }
+
+    private void removeFromCountChain( int pageId )
+    {
+        long refCount = this.metaData.getRefCount( pageId );
+        PageMetaDataList chain = this.countChainList.get( refCount );
+        if ( chain != null && chain.contains( pageId ) )
+        {
+            chain.remove( pageId );
+            //Clean up if we just removed the last element
+            if ( chain.isEmpty() )
+            {
+                this.countChainList.remove( refCount );
+            }
+        }
+    }
+
+    private void forget( int pageId )
+    {
+        this.metaData.latch();
+        try
+        {
+            drainPinEvents();
+            if ( this.newList.contains( pageId ) )
+            {
+                this.newList.remove( pageId );
+            }
+            else if ( this.middleList.contains( pageId ) )
             {
-                msg = msg + "<-- new_boundary";
+                this.middleList.remove( pageId );
             }
-            if ( this.old_boundary == page )
+            else if ( this.oldList.contains( pageId ) )
             {
-                msg = msg + "<-- old_boundary";
+                this.oldList.remove( pageId );
+                removeFromCountChain( pageId );
             }
-            System.out.println(msg);
+            this.metaData.resetPage( pageId );
+        }
+        finally
+        {
+            this.metaData.unlatch();
+        }
+    }
 
-            page = page.next;
+    @Override
+    public void externalEviction( long pageRef, PageData pageData )
+    {
+        forget( this.pages.toId( pageRef ) );
+    }
 
+    @Override
+    public void close()
+    {
+        if ( this.metaData != null )
+        {
+            this.metaData.close();
         }
+    }
 
+    public void printStatus( )
+    {
         System.out.println( "LFU Evictions: " + this.LFUEvictions );
         System.out.println( "LRU Evictions: " + this.LRUEvictions );
 
-        System.out.println( "Cmax: " + this.Cmax );
+        System.out.println( "Count chains: " + this.countChainList.size() );
 
-        System.out.println( "fNEW: " + this.fNew );
-        System.out.println( "fOLD: " + this.fOld );
-        System.out.println( "Middle: " + ( this.cacheSize - ( this.fNew + this.fOld ) ) );
+        System.out.println( "fNEW: " + this.fNew + " (" + this.newList.size() + " pages)" );
+        System.out.println( "fOLD: " + this.fOld + " (" + this.oldList.size() + " pages)" );
+        System.out.println( "Middle: " + ( this.cacheSize - ( this.fNew + this.fOld ) ) +
+                " (" + this.middleList.size() + " pages)" );
     }
 }
@@ -19,7 +19,6 @@
  */
 package org.neo4j.io.pagecache.impl.muninn.PageCacheAlgorithm;
 
-import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.io.pagecache.PageCacheAlgorithm;
 import org.neo4j.io.pagecache.PageData;
 import org.neo4j.io.pagecache.impl.muninn.CacheLiveLockException;
@@ -28,8 +27,9 @@ import org.neo4j.io.pagecache.impl.muninn.PageList;
 import org.neo4j.io.pagecache.tracing.PageFaultEvent;
 
 import java.io.IOException;
+import java.util.function.IntConsumer;
 
-import static java.lang.String.format;
+import static org.neo4j.io.pagecache.impl.muninn.PageCacheAlgorithm.PageMetaDataTable.NO_PAGE;
 
 /** Impliments the LRU Page Cache Eviction Algorithm
  *
@@ -43,106 +43,97 @@ public class MuninnPageCacheAlgorithmLRU implements PageCacheAlgorithm
     // So we can access it's pages.
     private MuninnPageCache pageCache;
 
-    /** The local reference time.
-     * This time is used to compare page entry times
-     * too when they're getting evicted.
-     *
-     * As soon as the page-recency value >= Short.MAX_VALUE
-     * we reset them all to a comparative recency (to each other)
-     * And reset this value to the current time, too.
-     */
-    public static long referenceTime;
-    //Static so we can see it elsewhere,
-    // it being the same across all instances is a side effect that is
-    // probably okay.
+    private PageList pages;
+
+    private PageMetaDataTable metaData;
 
     /** Mirrors the actual page list, but just stores metadata about pages and is sorted */
-    doubleLinkedPageMetaDataList dataPageList =  new doubleLinkedPageMetaDataList( );
+    private PageMetaDataList dataPageList;
 
-    private void resetReferenceTime()
-    {
-        referenceTime = System.nanoTime();
-    }
+    // Hits are buffered here, and only moved to the front of the list in batches.
+    private final PinEventBuffer pinEvents = new PinEventBuffer();
+    private final IntConsumer hitHandler = this::onHit;
 
     public MuninnPageCacheAlgorithmLRU( int cooperativeEvictionLiveLockThreshold, MuninnPageCache pageCache)
     {
         this.pageCache = pageCache;
         this.cooperativeEvictionLiveLockThreshold = cooperativeEvictionLiveLockThreshold;
-        resetReferenceTime();
     }
 
-    public long cooperativlyEvict( PageFaultEvent faultEvent, PageList pages ) throws IOException
+    @Override
+    public void bind( PageList pages )
     {
+        this.pages = pages;
+        this.metaData = new PageMetaDataTable( pages.getPageCount() );
+        this.dataPageList = new PageMetaDataList( this.metaData, 1, false );
+    }
 
-        boolean evicted = false;
+    public long cooperativlyEvict( PageFaultEvent faultEvent, PageList pages ) throws IOException
+    {
         int iterations = 0;
-        int pageCount = pages.getPageCount();
-        doubleLinkedPageMetaDataList.Page evictionCandidatePage;
-        long evictionCandidate;
 
-        synchronized ( this.dataPageList )
+        for (;;)
         {
-            pageCount = pages.getPageCount();
-            evictionCandidatePage = this.dataPageList.tail;
-            evictionCandidate = evictionCandidatePage.pageRef;
-
-            try
+            this.pageCache.assertHealthy();
+            if ( this.pageCache.getFreelistHead() != null || this.dataPageList.isEmpty() )
             {
-                this.pageCache.assertHealthy();
-                if ( this.pageCache.getFreelistHead() != null )
-                {
-                    return 0;
-                }
-
-                if ( pages.isLoaded( evictionCandidate ) && pages.decrementUsage( evictionCandidate ) )
-                {
-                    evicted = pages.tryEvict(evictionCandidate, faultEvent);
-                }
-
-                while ( !evicted )
-                {
-                    this.pageCache.assertHealthy();
-                    if ( this.pageCache.getFreelistHead() != null )
-                    {
-                        return 0;
-                    }
-
-                    if ( iterations >= this.cooperativeEvictionLiveLockThreshold )
-                    {
-                        throw cooperativeEvictionLiveLock();
-                    }
-                    if ( evictionCandidatePage.last != null )
-                    {
-                        evictionCandidatePage = evictionCandidatePage.last;
-                        evictionCandidate = evictionCandidatePage.pageRef;
-                    }
-                    //TODO We should probs do something if we've got to the HEAD of the list
-
-                    if ( pages.isLoaded( evictionCandidate ) && pages.decrementUsage( evictionCandidate ) )
-                    {
-                        evicted = pages.tryEvict(evictionCandidate, faultEvent);
-                    }
-
-                    iterations++;
-                }
+                return 0;
+            }
 
+            int evicted = evictFromTail( faultEvent, pages );
+            if ( evicted != NO_PAGE )
+            {
+                forget( evicted );
+                return pages.deref( evicted );
             }
-            catch ( Exception e )
+
+            if ( ++iterations >= this.cooperativeEvictionLiveLockThreshold )
             {
-                throw e;
+                throw cooperativeEvictionLiveLock();
             }
+        }
+    }
 
-            if ( evicted )
+    /**
+     * Walk the list from the least recently used end without taking the latch, and evict the first page we can.
+     * The walk can see stale links, but every candidate is checked against the page list before it is evicted.
+     */
+    private int evictFromTail( PageFaultEvent faultEvent, PageList pages ) throws IOException
+    {
+        int steps = 0;
+        int pageId = this.dataPageList.tail();
+        while ( pageId != NO_PAGE && steps++ < this.metaData.getPageCount() )
+        {
+            if ( this.pageCache.getFreelistHead() != null )
             {
-                this.dataPageList.removePage( evictionCandidatePage.pageRef );
+                return NO_PAGE;
             }
 
-            if ( !evicted )
+            long pageRef = pages.deref( pageId );
+            if ( pages.isLoaded( pageRef ) && pages.decrementUsage( pageRef ) && pages.tryEvict( pageRef, faultEvent ) )
             {
-                throw cooperativeEvictionLiveLock();
+                return pageId;
             }
+            pageId = this.dataPageList.previous( pageId );
+        }
+        return NO_PAGE;
+    }
 
-            return evictionCandidate;
+    private void forget( int pageId )
+    {
+        this.metaData.latch();
+        try
+        {
+            drainPinEvents();
+            if ( this.dataPageList.contains( pageId ) )
+            {
+                this.dataPageList.remove( pageId );
+            }
+            this.metaData.resetPage( pageId );
+        }
+        finally
+        {
+            this.metaData.unlatch();
         }
     }
 
@@ -164,31 +155,89 @@ public class MuninnPageCacheAlgorithmLRU implements PageCacheAlgorithm
     @Override
     public void notifyPin( long pageRef, PageData pageData )
     {
-        synchronized ( this.dataPageList )
+        int pageId = this.pages.toId( pageRef );
+
+        if ( this.dataPageList.contains( pageId ) )
         {
-            if ( !this.dataPageList.exists( pageRef ) )
+            if ( this.dataPageList.head() != pageId && !pageData.isNoCacheRetention() )
             {
-                this.dataPageList.addPageFront( pageRef, pageData );
-                return;
+                recordHit( pageId );
             }
-            else if ( this.dataPageList.exists( pageRef ) )
+            return;
+        }
+
+        // A newly faulted page must be linked in, or the algorithm will never consider it for eviction.
+        this.metaData.latch();
+        try
+        {
+            drainPinEvents();
+            if ( !this.dataPageList.contains( pageId ) )
             {
-                this.dataPageList.setPageDataAndMoveToHead( pageRef, pageData );
-                return;
+                this.metaData.setLastUsageTime( pageId, pageData.getLastUsageTime() );
+                if ( pageData.isNoCacheRetention() )
+                {
+                    // Pages that are only read once go straight to the least recently used end of the list.
+                    this.dataPageList.addLast( pageId );
+                }
+                else
+                {
+                    this.dataPageList.addFirst( pageId );
+                }
             }
         }
+        finally
+        {
+            this.metaData.unlatch();
+        }
     }
 
-    @Override
-    public void externalEviction( long pageRef, PageData pageData )
+    /**
+     * Buffer a hit, and apply the buffered hits if the buffer is filling up and nobody else is busy with the list.
+     */
+    private void recordHit( int pageId )
     {
-        synchronized ( this.dataPageList )
+        if ( this.pinEvents.offer( pageId ) && this.metaData.tryLatch() )
         {
-            if ( this.dataPageList.exists( pageRef ) )
+            try
             {
-                this.dataPageList.removePage( pageRef );
+                drainPinEvents();
             }
+            finally
+            {
+                this.metaData.unlatch();
+            }
+        }
+    }
+
+    /**
+     * Apply the buffered hits. Must be called while holding the latch.
+     */
+    private void drainPinEvents()
+    {
+        this.pinEvents.drain( this.hitHandler );
+    }
+
+    private void onHit( int pageId )
+    {
+        // The page may have been evicted since the hit was recorded.
+        if ( this.dataPageList.contains( pageId ) && this.dataPageList.head() != pageId )
+        {
+            this.dataPageList.moveToFront( pageId );
+        }
+    }
+
+    @Override
+    public void externalEviction( long pageRef, PageData pageData )
+    {
+        forget( this.pages.toId( pageRef ) );
+    }
+
+    @Override
+    public void close()
+    {
+        if ( this.metaData != null )
+        {
+            this.metaData.close();
         }
-        return;
     }
 }
@@ -19,6 +19,8 @@
  */
 package org.neo4j.io.pagecache.impl.muninn.PageCacheAlgorithm;
 
+import org.neo4j.collection.primitive.Primitive;
+import org.neo4j.collection.primitive.PrimitiveIntSet;
 import org.neo4j.io.pagecache.PageCacheAlgorithm;
 import org.neo4j.io.pagecache.PageData;
 import org.neo4j.io.pagecache.impl.muninn.CacheLiveLockException;
@@ -27,11 +29,14 @@ import org.neo4j.io.pagecache.impl.muninn.PageList;
 import org.neo4j.io.pagecache.tracing.PageFaultEvent;
 
 import java.io.IOException;
-import java.util.Vector;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
+
+import static org.neo4j.io.pagecache.impl.muninn.PageCacheAlgorithm.PageMetaDataTable.NO_PAGE;
 
 public class MuninnPageCacheAlgorithmLRUK implements PageCacheAlgorithm
 {
+    public static final int DEFAULT_K = 2;
 
     private int cooperativeEvictionLiveLockThreshold;
 
@@ -39,115 +44,137 @@ public class MuninnPageCacheAlgorithmLRUK implements PageCacheAlgorithm
     // So we can access it's pages.
     private MuninnPageCache pageCache;
 
-    private int kSize = 2;
+    private PageList pages;
+
+    private int kSize = DEFAULT_K;
 
     private long correlatedReferenceTimeout = 3;
 
-    private int referencesT = 0;
+    // The logical clock, ticked on every reference we record. Only ticked while holding the latch.
+    private final AtomicLong referencesT = new AtomicLong();
 
-    public static long referenceTime;
+    // Holds the last reference time and the last K reference times of every page.
+    private PageMetaDataTable metaData;
 
     //TODO Think of a better name for this variable.
-    doubleLinkedPageMetaDataList dataPageList;
+    private PageMetaDataList dataPageList;
 
-    private void resetReferenceTime()
-    {
-        referenceTime = System.nanoTime();
-    }
+    // Hits are buffered here, and only recorded in the reference history in batches.
+    private final PinEventBuffer pinEvents = new PinEventBuffer();
+    private final IntConsumer hitHandler = this::onHit;
 
     public MuninnPageCacheAlgorithmLRUK( int cooperativeEvictionLiveLockThreshold, MuninnPageCache pageCache, int kSize )
     {
+        if ( kSize < 1 )
+        {
+            throw new IllegalArgumentException( "K must be at least 1, but was " + kSize );
+        }
         this.kSize = kSize;
         this.pageCache = pageCache;
         this.cooperativeEvictionLiveLockThreshold = cooperativeEvictionLiveLockThreshold;
-        this.dataPageList = new doubleLinkedPageMetaDataList();
-        resetReferenceTime();
     }
 
-
-    public long cooperativlyEvict(PageFaultEvent faultEvent, PageList pages ) throws IOException
+    @Override
+    public void bind( PageList pages )
     {
+        this.pages = pages;
+        this.metaData = new PageMetaDataTable( pages.getPageCount(), this.kSize );
+        this.dataPageList = new PageMetaDataList( this.metaData, 1, false );
+    }
 
-        boolean evicted = false;
+    public long cooperativlyEvict( PageFaultEvent faultEvent, PageList pages ) throws IOException
+    {
         int iterations = 0;
-        doubleLinkedPageMetaDataList.Page evictionCandidatePage = null;
-
-        long t = 0;
-        long minEvictionTime = 0;
+        PrimitiveIntSet tried = Primitive.intSet();
 
-        Vector tried = new Vector();
-        doubleLinkedPageMetaDataList.Page page = null;
-
-            t = this.referencesT;
-            minEvictionTime = t;
-
-            while (!evicted)
+        try
+        {
+            for (;;)
             {
                 this.pageCache.assertHealthy();
-                if (this.pageCache.getFreelistHead() != null)
+                if ( this.pageCache.getFreelistHead() != null || this.dataPageList.isEmpty() )
                 {
                     return 0;
                 }
 
-                if (iterations >= this.cooperativeEvictionLiveLockThreshold)
+                int evictionCandidate = findEvictionCandidate( tried, true );
+                if ( evictionCandidate == NO_PAGE )
                 {
-                    throw cooperativeEvictionLiveLock();
+                    // Every untried page is within its correlated reference period, so fall back to ignoring it.
+                    evictionCandidate = findEvictionCandidate( tried, false );
                 }
-
-                do
+                if ( evictionCandidate == NO_PAGE )
                 {
-                    this.pageCache.assertHealthy();
-                    if (this.pageCache.getFreelistHead() != null)
+                    // We have tried every page. Start over, but count it against the live-lock threshold.
+                    if ( ++iterations >= this.cooperativeEvictionLiveLockThreshold )
                     {
-                        return 0;
+                        throw cooperativeEvictionLiveLock();
                     }
-
-                    if (page == null || page.last == null)
-                    {
-                        page = this.dataPageList.tail;
-                    } else if (page.last != null)
-                    {
-                        page = page.last;
-                    } else if (page.last == null)
-                    {
-                        break;
-                    }
-
-                    if (t - page.pageData.getLastUsageTime() > this.correlatedReferenceTimeout &&
-                            page.pageData.getHistoryTime(this.kSize) <= minEvictionTime &&
-                            !tried.contains(page.pageRef))
-                    {
-                        evictionCandidatePage = page;
-                        minEvictionTime = page.pageData.getHistoryTime(this.kSize);
-                    }
-
+                    tried.clear();
+                    continue;
                 }
-                while (page.last != null);
 
-                if (pages.isLoaded(evictionCandidatePage.pageRef) && pages.decrementUsage(evictionCandidatePage.pageRef))
-                {
-                    evicted = pages.tryEvict(evictionCandidatePage.pageRef, faultEvent);
-                }
-                if (!evicted && !tried.contains(evictionCandidatePage.pageRef))
+                long pageRef = pages.deref( evictionCandidate );
+                if ( pages.isLoaded( pageRef ) && pages.decrementUsage( pageRef ) &&
+                     pages.tryEvict( pageRef, faultEvent ) )
                 {
-                    tried.add(evictionCandidatePage.pageRef);
+                    forget( evictionCandidate );
+                    return pageRef;
                 }
-
-                iterations++;
+                tried.add( evictionCandidate );
             }
-
-        if (evicted)
+        }
+        finally
         {
-            this.dataPageList.removePage(evictionCandidatePage.pageRef);
+            tried.close();
         }
+    }
 
-        if (!evicted)
+    /**
+     * Walk the list without taking the latch, and find the untried page with the oldest K'th most recent reference.
+     * This is the page with the greatest backward K-distance.
+     *
+     * @param tried pages we have already failed to evict.
+     * @param uncorrelatedOnly only consider pages that are outside of their correlated reference period.
+     */
+    private int findEvictionCandidate( PrimitiveIntSet tried, boolean uncorrelatedOnly )
+    {
+        long t = this.referencesT.get();
+        long minEvictionTime = Long.MAX_VALUE;
+        int evictionCandidate = NO_PAGE;
+
+        int steps = 0;
+        int pageId = this.dataPageList.tail();
+        while ( pageId != NO_PAGE && steps++ < this.metaData.getPageCount() )
         {
-            throw cooperativeEvictionLiveLock();
+            long historyTime = this.metaData.getHistoryTime( pageId, this.kSize );
+            boolean uncorrelated = t - this.metaData.getLastUsageTime( pageId ) > this.correlatedReferenceTimeout;
+            if ( (uncorrelated || !uncorrelatedOnly) && historyTime < minEvictionTime && !tried.contains( pageId ) )
+            {
+                evictionCandidate = pageId;
+                minEvictionTime = historyTime;
+            }
+            pageId = this.dataPageList.previous( pageId );
         }
+        return evictionCandidate;
+    }
 
-        return evictionCandidatePage.pageRef;
-
+    private void forget( int pageId )
+    {
+        this.metaData.latch();
+        try
+        {
+            drainPinEvents();
+            if ( this.dataPageList.contains( pageId ) )
+            {
+                this.dataPageList.remove( pageId );
+            }
+            this.metaData.resetPage( pageId );
+        }
+        finally
+        {
+            this.metaData.unlatch();
+        }
     }
 
     private CacheLiveLockException cooperativeEvictionLiveLock()
@@ -168,66 +195,120 @@ public class MuninnPageCacheAlgorithmLRUK implements PageCacheAlgorithm
     @Override
     public void notifyPin( long pageRef, PageData pageData )
     {
-            synchronized (this)
+        int pageId = this.pages.toId( pageRef );
+
+        if ( this.dataPageList.contains( pageId ) )
+        {
+            if ( !pageData.isNoCacheRetention() )
             {
-                this.referencesT++;
+                recordHit( pageId );
             }
+            return;
+        }
 
-            int t = this.referencesT;
-
-            synchronized ( this.dataPageList)
+        this.metaData.latch();
+        try
+        {
+            drainPinEvents();
+            if ( !this.dataPageList.contains( pageId ) && pageData.isNoCacheRetention() )
             {
-                if (!this.dataPageList.exists(pageRef))
-                {
-                    PageData newPageData = new PageData(pageRef, this.kSize);
+                // Without any reference history, the page has the greatest backward K-distance there is, and sits
+                // at the tail where the eviction walk starts.
+                this.dataPageList.addLast( pageId );
+            }
+            else if ( !this.dataPageList.contains( pageId ) )
+            {
+                //In the actual LRU-k pseudocode they use a for loop to
+                // zero out the history time. Forgetting an evicted page already did that.
+
+                //Set last usage time and first history element to fault in time.
+                long t = this.referencesT.incrementAndGet();
+                this.metaData.setHistoryTime( pageId, 1, t );
+                this.metaData.setLastUsageTime( pageId, t );
+                this.dataPageList.addFirst( pageId );
+            }
+        }
+        finally
+        {
+            this.metaData.unlatch();
+        }
+    }
 
-                    //In the actual LRU-k pseudocode they use a for loop to
-                    // zero out the history time. We omit that here.
+    /**
+     * Buffer a hit, and apply the buffered hits if the buffer is filling up and nobody else is busy with the list.
+     */
+    private void recordHit( int pageId )
+    {
+        if ( this.pinEvents.offer( pageId ) && this.metaData.tryLatch() )
+        {
+            try
+            {
+                drainPinEvents();
+            }
+            finally
+            {
+                this.metaData.unlatch();
+            }
+        }
+    }
 
-                    //Set last usage time and first history element to fault in time.
-                    newPageData.setAccessTime(1, t);
-                    newPageData.setLastUsageTime(t);
+    /**
+     * Apply the buffered hits. Must be called while holding the latch.
+     */
+    private void drainPinEvents()
+    {
+        this.pinEvents.drain( this.hitHandler );
+    }
 
-                    this.dataPageList.addPageFront(pageRef, newPageData);
-                    return;
-                } else if (this.dataPageList.exists(pageRef))
-                {
-                    doubleLinkedPageMetaDataList.Page page = this.dataPageList.findPage(pageRef);
+    private void onHit( int pageId )
+    {
+        if ( !this.dataPageList.contains( pageId ) )
+        {
+            return; // The page has been evicted since the hit was recorded.
+        }
 
-                    //If new, uncorrelated reference.
-                    if ((t - page.pageData.getLastUsageTime()) >
-                            this.correlatedReferenceTimeout)
-                    {
+        // The clock only ticks for the references we get to see, so the buffered hits that get dropped under
+        // contention do not count towards the correlated reference period either.
+        long t = this.referencesT.incrementAndGet();
+        long lastUsageTime = this.metaData.getLastUsageTime( pageId );
 
-                        long correlPeriodOfRefdPage = page.pageData.getLastUsageTime() - page.pageData.getHistoryTime(1);
-
-                        for (int i = 2; i <= this.kSize; i++)
-                        {
-                            page.pageData.setAccessTime(i, page.pageData.getHistoryTime(i - 1) + correlPeriodOfRefdPage);
-                        }
-                        //Set the last access time in history and last access time.
-                        page.pageData.setAccessTime(1, t);
-                        page.pageData.setLastUsageTime(t);
-                        dataPageList.moveToFront(pageRef);
-                    } else
-                    {
-                        //If correlated reference, just set the last access time
-                        page.pageData.setLastUsageTime(t);
-                    }
+        //If new, uncorrelated reference.
+        if ( t - lastUsageTime > this.correlatedReferenceTimeout )
+        {
+            long correlPeriodOfRefdPage = lastUsageTime - this.metaData.getHistoryTime( pageId, 1 );
+            for ( int i = this.kSize; i >= 2; i-- )
+            {
+                long previous = this.metaData.getHistoryTime( pageId, i - 1 );
+                this.metaData.setHistoryTime( pageId, i, previous + correlPeriodOfRefdPage );
+            }
+            //Set the last access time in history and last access time.
+            this.metaData.setHistoryTime( pageId, 1, t );
+            this.metaData.setLastUsageTime( pageId, t );
 
-                    return;
-                }
+            if ( this.dataPageList.head() != pageId )
+            {
+                this.dataPageList.moveToFront( pageId );
             }
         }
+        else
+        {
+            //If correlated reference, just set the last access time
+            this.metaData.setLastUsageTime( pageId, t );
+        }
+    }
 
     @Override
     public void externalEviction( long pageRef, PageData pageData )
     {
-        if ( this.dataPageList.exists( pageRef ) )
+        forget( this.pages.toId( pageRef ) );
+    }
+
+    @Override
+    public void close()
+    {
+        if ( this.metaData != null )
         {
-            this.dataPageList.removePage( pageRef );
+            this.metaData.close();
         }
-        return;
     }
-
 }
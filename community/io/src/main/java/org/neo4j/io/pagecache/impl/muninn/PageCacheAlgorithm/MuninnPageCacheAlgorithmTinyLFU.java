@@ -0,0 +1,434 @@
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn.PageCacheAlgorithm;
+
+import org.neo4j.io.pagecache.PageCacheAlgorithm;
+import org.neo4j.io.pagecache.PageData;
+import org.neo4j.io.pagecache.impl.muninn.CacheLiveLockException;
+import org.neo4j.io.pagecache.impl.muninn.MuninnPageCache;
+import org.neo4j.io.pagecache.impl.muninn.PageList;
+import org.neo4j.io.pagecache.tracing.EvictionEventOpportunity;
+import org.neo4j.io.pagecache.tracing.PageFaultEvent;
+
+import java.io.IOException;
+import java.util.function.IntConsumer;
+
+import static org.neo4j.io.pagecache.impl.muninn.PageCacheAlgorithm.PageMetaDataTable.NO_PAGE;
+import static org.neo4j.io.pagecache.impl.muninn.PageCacheAlgorithm.PageMetaDataTable.filePageKey;
+
+/**
+ * Window TinyLFU, by Einziger, Friedman and Manes.
+ * <p>
+ * Newly faulted pages go into a small LRU window. The rest of the cache is a segmented LRU, split into a probation
+ * and a protected segment, and pages are promoted to the protected segment when they are hit while on probation.
+ * <p>
+ * When the window has grown beyond its size, the least recently used page of the window competes with the least
+ * recently used page on probation, and the one whose file page has been referenced least often is evicted. How often
+ * a file page has been referenced is estimated by a {@link FrequencySketch}, which also remembers file pages that
+ * have been evicted. A page that is only touched once by a scan can therefore never push a frequently used page out
+ * of the main part of the cache.
+ * <p>
+ * The background eviction thread also evicts the pages this algorithm picks, since its clock sweep would otherwise
+ * evict frequently used pages just as readily as the pages of a scan.
+ */
+public class MuninnPageCacheAlgorithmTinyLFU implements PageCacheAlgorithm
+{
+    public static final double DEFAULT_WINDOW_RATIO = 0.01;
+    public static final double DEFAULT_PROTECTED_RATIO = 0.8;
+
+    private static final int WINDOW_LIST = 1;
+    private static final int PROBATION_LIST = 2;
+    private static final int PROTECTED_LIST = 3;
+
+    private final int cooperativeEvictionLiveLockThreshold;
+
+    private final MuninnPageCache pageCache;
+
+    private final double windowRatio;
+
+    private PageList pages;
+
+    private long windowSize;
+    private long mainSize;
+    private long protectedSize;
+
+    private PageMetaDataTable metaData;
+    private FrequencySketch sketch;
+
+    private PageMetaDataList window;
+    private PageMetaDataList probation;
+    private PageMetaDataList protectedList;
+
+    // Hits are buffered here, and only counted and reordered in batches.
+    private final PinEventBuffer pinEvents = new PinEventBuffer();
+    private final IntConsumer hitHandler = this::onHit;
+
+    public MuninnPageCacheAlgorithmTinyLFU( int cooperativeEvictionLiveLockThreshold, MuninnPageCache pageCache )
+    {
+        this( cooperativeEvictionLiveLockThreshold, pageCache, DEFAULT_WINDOW_RATIO );
+    }
+
+    /**
+     * @param windowRatio the share of the cache pages in the admission window.
+     */
+    public MuninnPageCacheAlgorithmTinyLFU( int cooperativeEvictionLiveLockThreshold, MuninnPageCache pageCache,
+            double windowRatio )
+    {
+        if ( windowRatio <= 0 || windowRatio >= 1 )
+        {
+            throw new IllegalArgumentException( "The window ratio must be between 0 and 1, but was " + windowRatio );
+        }
+        this.cooperativeEvictionLiveLockThreshold = cooperativeEvictionLiveLockThreshold;
+        this.pageCache = pageCache;
+        this.windowRatio = windowRatio;
+    }
+
+    @Override
+    public void bind( PageList pages )
+    {
+        int pageCount = pages.getPageCount();
+        this.pages = pages;
+        this.windowSize = Math.max( 1, (long) (pageCount * this.windowRatio) );
+        // The page cache starts evicting while it still keeps some pages free, so that is when the main part of the
+        // cache is full, and the pages coming out of the window must start competing for admission.
+        this.mainSize = pageCount - MuninnPageCache.pagesToKeepFree( pageCount ) - this.windowSize;
+        this.protectedSize = (long) (this.mainSize * DEFAULT_PROTECTED_RATIO);
+        this.metaData = new PageMetaDataTable( pageCount );
+        this.sketch = new FrequencySketch( pageCount );
+        this.window = new PageMetaDataList( this.metaData, WINDOW_LIST, false );
+        this.probation = new PageMetaDataList( this.metaData, PROBATION_LIST, false );
+        this.protectedList = new PageMetaDataList( this.metaData, PROTECTED_LIST, false );
+    }
+
+    @Override
+    public long cooperativlyEvict( PageFaultEvent faultEvent, PageList pages ) throws IOException
+    {
+        int iterations = 0;
+
+        for (;;)
+        {
+            this.pageCache.assertHealthy();
+            if ( this.pageCache.getFreelistHead() != null )
+            {
+                return 0;
+            }
+
+            if ( this.window.isEmpty() && this.probation.isEmpty() && this.protectedList.isEmpty() )
+            {
+                return 0;
+            }
+
+            int pageId = evict( pages, faultEvent, true );
+            if ( pageId != NO_PAGE )
+            {
+                return pages.deref( pageId );
+            }
+
+            if ( ++iterations >= this.cooperativeEvictionLiveLockThreshold )
+            {
+                throw cooperativeEvictionLiveLock();
+            }
+        }
+    }
+
+    @Override
+    public long backgroundEvict( PageList pages, EvictionEventOpportunity evictionOpportunity ) throws IOException
+    {
+        int pageId = evict( pages, evictionOpportunity, false );
+        return pageId == NO_PAGE ? 0 : pages.deref( pageId );
+    }
+
+    /**
+     * @param cooperative {@code true} if evicting for a page fault, which gives up as soon as there are free pages.
+     * @return the evicted page, or {@link PageMetaDataTable#NO_PAGE} if no page could be evicted.
+     */
+    private int evict( PageList pages, EvictionEventOpportunity evictionOpportunity, boolean cooperative )
+            throws IOException
+    {
+        int pageId = NO_PAGE;
+        if ( this.window.size() > this.windowSize )
+        {
+            pageId = evictFromWindowOrAdmit( pages, evictionOpportunity, cooperative );
+        }
+        if ( pageId == NO_PAGE )
+        {
+            pageId = evictFrom( this.probation, pages, evictionOpportunity, cooperative );
+        }
+        if ( pageId == NO_PAGE )
+        {
+            pageId = evictFrom( this.protectedList, pages, evictionOpportunity, cooperative );
+        }
+        if ( pageId == NO_PAGE )
+        {
+            pageId = evictFrom( this.window, pages, evictionOpportunity, cooperative );
+        }
+        return pageId;
+    }
+
+    /**
+     * Let the oldest page of the window compete with the oldest page on probation. If the window page has been
+     * referenced more often, it is admitted to probation and the probation page is the victim. Otherwise the window
+     * page is the victim.
+     */
+    private int evictFromWindowOrAdmit( PageList pages, EvictionEventOpportunity evictionOpportunity,
+            boolean cooperative ) throws IOException
+    {
+        int candidate = this.window.tail();
+        PageMetaDataList victims = this.probation.isEmpty() ? this.protectedList : this.probation;
+        int victim = victims.tail();
+        if ( candidate == NO_PAGE || victim == NO_PAGE )
+        {
+            return evictFrom( this.window, pages, evictionOpportunity, cooperative );
+        }
+
+        if ( frequency( pages, candidate ) > frequency( pages, victim ) )
+        {
+            admit( candidate );
+            return evictFrom( victims, pages, evictionOpportunity, cooperative );
+        }
+        return evictFrom( this.window, pages, evictionOpportunity, cooperative );
+    }
+
+    private int frequency( PageList pages, int pageId )
+    {
+        long pageRef = pages.deref( pageId );
+        return this.sketch.frequency( filePageKey( pages.getSwapperId( pageRef ), pages.getFilePageId( pageRef ) ) );
+    }
+
+    /**
+     * Move the given page from the window to probation, if it is still in the window.
+     */
+    private void admit( int pageId )
+    {
+        this.metaData.latch();
+        try
+        {
+            if ( this.window.contains( pageId ) )
+            {
+                this.window.remove( pageId );
+                this.probation.addFirst( pageId );
+            }
+        }
+        finally
+        {
+            this.metaData.unlatch();
+        }
+    }
+
+    /**
+     * Evicts a page from the tail of the given list, walking it without taking the latch.
+     */
+    private int evictFrom( PageMetaDataList list, PageList pages, EvictionEventOpportunity evictionOpportunity,
+            boolean cooperative ) throws IOException
+    {
+        int steps = 0;
+        int pageId = list.tail();
+        while ( pageId != NO_PAGE && steps++ < this.metaData.getPageCount() )
+        {
+            if ( cooperative && this.pageCache.getFreelistHead() != null )
+            {
+                return NO_PAGE;
+            }
+
+            // The usage counter is left alone. The lists and the sketch already account for how the page has been
+            // used, and the second chance of the counter would let the loser of a competition outlive the winner.
+            long pageRef = pages.deref( pageId );
+            if ( pages.isLoaded( pageRef ) && pages.tryEvict( pageRef, evictionOpportunity ) )
+            {
+                forget( pageId );
+                return pageId;
+            }
+            pageId = list.previous( pageId );
+        }
+        return NO_PAGE;
+    }
+
+    private void forget( int pageId )
+    {
+        this.metaData.latch();
+        try
+        {
+            drainPinEvents();
+            if ( this.window.contains( pageId ) )
+            {
+                this.window.remove( pageId );
+            }
+            else if ( this.probation.contains( pageId ) )
+            {
+                this.probation.remove( pageId );
+            }
+            else if ( this.protectedList.contains( pageId ) )
+            {
+                this.protectedList.remove( pageId );
+            }
+        }
+        finally
+        {
+            this.metaData.unlatch();
+        }
+    }
+
+    private CacheLiveLockException cooperativeEvictionLiveLock()
+    {
+        return new CacheLiveLockException(
+                "Live-lock encountered when trying to cooperatively evict a page during page fault. " +
+                        "This happens when we want to access a page that is not in memory, so it has to be faulted in, but " +
+                        "there are no free memory pages available to accept the page fault, so we have to evict an existing " +
+                        "page, but all the in-memory pages are currently locked by other accesses. If those other access are " +
+                        "waiting for our page fault to make progress, then we have a live-lock, and the only way we can get " +
+                        "out of it is by throwing this exception. This should be extremely rare, but can happen if the page " +
+                        "cache size is tiny and the number of concurrently running transactions is very high. You should be " +
+                        "able to get around this problem by increasing the amount of memory allocated to the page cache " +
+                        "with the `dbms.memory.pagecache.size` setting. Please contact Neo4j support if you need help tuning " +
+                        "your database." );
+    }
+
+    @Override
+    public void notifyPin( long pageRef, PageData pageData )
+    {
+        int pageId = this.pages.toId( pageRef );
+
+        if ( this.window.contains( pageId ) || this.probation.contains( pageId ) ||
+             this.protectedList.contains( pageId ) )
+        {
+            if ( !pageData.isNoCacheRetention() )
+            {
+                recordHit( pageId );
+            }
+            return;
+        }
+
+        // A newly faulted page must be linked in, or the algorithm will never consider it for eviction.
+        long key = filePageKey( this.pages.getSwapperId( pageRef ), this.pages.getFilePageId( pageRef ) );
+        this.metaData.latch();
+        try
+        {
+            drainPinEvents();
+            if ( !this.window.contains( pageId ) && !this.probation.contains( pageId ) &&
+                 !this.protectedList.contains( pageId ) )
+            {
+                if ( pageData.isNoCacheRetention() )
+                {
+                    // A scan neither counts towards the frequency of the page, nor gets the recency of the window,
+                    // so the page is the first to lose the admission contest.
+                    this.window.addLast( pageId );
+                }
+                else
+                {
+                    this.sketch.increment( key );
+                    this.window.addFirst( pageId );
+                }
+                // While the main part of the cache has room, pages move on from the window without competing.
+                while ( this.window.size() > this.windowSize &&
+                        this.probation.size() + this.protectedList.size() < this.mainSize )
+                {
+                    this.probation.addFirst( this.window.removeLast() );
+                }
+            }
+        }
+        finally
+        {
+            this.metaData.unlatch();
+        }
+    }
+
+    /**
+     * Buffer a hit, and apply the buffered hits if the buffer is filling up and nobody else is busy with the lists.
+     */
+    private void recordHit( int pageId )
+    {
+        if ( this.pinEvents.offer( pageId ) && this.metaData.tryLatch() )
+        {
+            try
+            {
+                drainPinEvents();
+            }
+            finally
+            {
+                this.metaData.unlatch();
+            }
+        }
+    }
+
+    /**
+     * Apply the buffered hits. Must be called while holding the latch.
+     */
+    private void drainPinEvents()
+    {
+        this.pinEvents.drain( this.hitHandler );
+    }
+
+    private void onHit( int pageId )
+    {
+        PageMetaDataList list;
+        if ( this.window.contains( pageId ) )
+        {
+            list = this.window;
+        }
+        else if ( this.probation.contains( pageId ) )
+        {
+            list = this.probation;
+        }
+        else if ( this.protectedList.contains( pageId ) )
+        {
+            list = this.protectedList;
+        }
+        else
+        {
+            return; // The page has been evicted since the hit was recorded.
+        }
+
+        long pageRef = this.pages.deref( pageId );
+        this.sketch.increment( filePageKey( this.pages.getSwapperId( pageRef ), this.pages.getFilePageId( pageRef ) ) );
+
+        if ( list == this.probation )
+        {
+            // A page that proves itself on probation is promoted, and the least recently used protected page is
+            // demoted to make room for it.
+            this.probation.remove( pageId );
+            this.protectedList.addFirst( pageId );
+            if ( this.protectedList.size() > this.protectedSize )
+            {
+                int demoted = this.protectedList.removeLast();
+                this.probation.addFirst( demoted );
+            }
+        }
+        else if ( list.head() != pageId )
+        {
+            list.moveToFront( pageId );
+        }
+    }
+
+    @Override
+    public void externalEviction( long pageRef, PageData pageData )
+    {
+        forget( this.pages.toId( pageRef ) );
+    }
+
+    @Override
+    public void close()
+    {
+        if ( this.metaData != null )
+        {
+            this.metaData.close();
+            this.sketch.close();
+        }
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn.PageCacheAlgorithm;
+
+import java.util.function.BiFunction;
+
+import org.neo4j.io.pagecache.PageCacheAlgorithm;
+import org.neo4j.io.pagecache.PageCacheAlgorithmFactory;
+import org.neo4j.io.pagecache.impl.muninn.MuninnPageCache;
+
+/**
+ * Factories for the page cache algorithms that are built into the Muninn page cache.
+ */
+public final class PageCacheAlgorithmFactories
+{
+    public static final String CLOCK = "clock";
+    public static final String LRU = "lru";
+    public static final String LRU_K = "lru-k";
+    public static final String LFU = "lfu";
+    public static final String TWO_QUEUE = "2q";
+    public static final String TINY_LFU = "w-tinylfu";
+
+    /**
+     * The algorithm used by page caches that are not told otherwise.
+     */
+    public static final PageCacheAlgorithmFactory DEFAULT = lfu();
+
+    private PageCacheAlgorithmFactories()
+    {
+        throw new AssertionError( "Not for instantiation!" );
+    }
+
+    public static PageCacheAlgorithmFactory clock()
+    {
+        return new Factory( CLOCK, MuninnPageCacheAlgorithmCLOCK::new );
+    }
+
+    public static PageCacheAlgorithmFactory lru()
+    {
+        return new Factory( LRU, MuninnPageCacheAlgorithmLRU::new );
+    }
+
+    public static PageCacheAlgorithmFactory lruK()
+    {
+        return lruK( MuninnPageCacheAlgorithmLRUK.DEFAULT_K );
+    }
+
+    /**
+     * @param k the number of most recent references to remember for every page.
+     */
+    public static PageCacheAlgorithmFactory lruK( int k )
+    {
+        if ( k < 1 )
+        {
+            throw new IllegalArgumentException( "K must be at least 1, but was " + k );
+        }
+        return new Factory( LRU_K, ( threshold, pageCache ) -> new MuninnPageCacheAlgorithmLRUK( threshold, pageCache, k ) );
+    }
+
+    public static PageCacheAlgorithmFactory lfu()
+    {
+        return lfu( MuninnPageCacheAlgorithmLFU.DEFAULT_SECTION_RATIO, MuninnPageCacheAlgorithmLFU.DEFAULT_SECTION_RATIO );
+    }
+
+    /**
+     * @param newRatio the share of the cache pages in the new section, where references do not count.
+     * @param oldRatio the share of the cache pages in the old section, which pages are evicted from.
+     */
+    public static PageCacheAlgorithmFactory lfu( double newRatio, double oldRatio )
+    {
+        return new Factory( LFU,
+                ( threshold, pageCache ) -> new MuninnPageCacheAlgorithmLFU( threshold, pageCache, newRatio, oldRatio ) );
+    }
+
+    public static PageCacheAlgorithmFactory twoQueue()
+    {
+        return twoQueue( MuninnPageCacheAlgorithm2Q.DEFAULT_A1IN_RATIO, MuninnPageCacheAlgorithm2Q.DEFAULT_A1OUT_RATIO );
+    }
+
+    /**
+     * @param a1inRatio the share of the cache pages that the A1in FIFO may hold.
+     * @param a1outRatio the number of evicted file pages remembered in A1out, relative to the number of cache pages.
+     */
+    public static PageCacheAlgorithmFactory twoQueue( double a1inRatio, double a1outRatio )
+    {
+        return new Factory( TWO_QUEUE,
+                ( threshold, pageCache ) -> new MuninnPageCacheAlgorithm2Q( threshold, pageCache, a1inRatio, a1outRatio ) );
+    }
+
+    public static PageCacheAlgorithmFactory tinyLfu()
+    {
+        return tinyLfu( MuninnPageCacheAlgorithmTinyLFU.DEFAULT_WINDOW_RATIO );
+    }
+
+    /**
+     * @param windowRatio the share of the cache pages in the admission window of W-TinyLFU.
+     */
+    public static PageCacheAlgorithmFactory tinyLfu( double windowRatio )
+    {
+        return new Factory( TINY_LFU,
+                ( threshold, pageCache ) -> new MuninnPageCacheAlgorithmTinyLFU( threshold, pageCache, windowRatio ) );
+    }
+
+    /**
+     * Get the built-in factory with the given implementation name, using the default tuning of the algorithm.
+     *
+     * @return the factory, or {@code null} if no built-in algorithm goes by that name.
+     */
+    public static PageCacheAlgorithmFactory byName( String name )
+    {
+        switch ( name )
+        {
+        case CLOCK:
+            return clock();
+        case LRU:
+            return lru();
+        case LRU_K:
+            return lruK();
+        case LFU:
+            return lfu();
+        case TWO_QUEUE:
+            return twoQueue();
+        case TINY_LFU:
+            return tinyLfu();
+        default:
+            return null;
+        }
+    }
+
+    private static final class Factory implements PageCacheAlgorithmFactory
+    {
+        private final String name;
+        private final BiFunction<Integer,MuninnPageCache,PageCacheAlgorithm> constructor;
+
+        Factory( String name, BiFunction<Integer,MuninnPageCache,PageCacheAlgorithm> constructor )
+        {
+            this.name = name;
+            this.constructor = constructor;
+        }
+
+        @Override
+        public String implementationName()
+        {
+            return name;
+        }
+
+        @Override
+        public PageCacheAlgorithm createPageCacheAlgorithm( int cooperativeEvictionLiveLockThreshold,
+                MuninnPageCache pageCache )
+        {
+            return constructor.apply( cooperativeEvictionLiveLockThreshold, pageCache );
+        }
+
+        @Override
+        public String toString()
+        {
+            return name;
+        }
+    }
+}
@@ -0,0 +1,281 @@
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn.PageCacheAlgorithm;
+
+import static java.lang.String.format;
+import static org.neo4j.io.pagecache.impl.muninn.PageCacheAlgorithm.PageMetaDataTable.NO_PAGE;
+
+/**
+ * An ordered, doubly linked list of page ids, with the most recently added page at the head.
+ * <p>
+ * The links live in a {@link PageMetaDataTable}, and a page can be linked into at most one recency list and one
+ * frequency list at a time. Membership is therefore an O(1) look up of the list id recorded in the page entry.
+ * <p>
+ * All methods that change the list must be called while holding the latch of the table. The read methods can be
+ * called without the latch, in which case they give a possibly stale view of the list.
+ */
+public final class PageMetaDataList
+{
+    private final PageMetaDataTable table;
+    private final int listId;
+    private final int links;
+
+    private volatile int head = NO_PAGE;
+    private volatile int tail = NO_PAGE;
+    private volatile long size;
+
+    /**
+     * @param table the table that holds the links of this list.
+     * @param listId the id of this list, which must be positive and unique among the lists of the table.
+     * @param frequency {@code true} if this list should use the frequency links of the page entries, rather than the
+     * recency links.
+     */
+    public PageMetaDataList( PageMetaDataTable table, int listId, boolean frequency )
+    {
+        if ( listId <= 0 )
+        {
+            throw new IllegalArgumentException( "List id must be positive, but was " + listId );
+        }
+        this.table = table;
+        this.listId = listId;
+        this.links = frequency ? PageMetaDataTable.FREQUENCY_LINKS : PageMetaDataTable.RECENCY_LINKS;
+    }
+
+    public int getListId()
+    {
+        return listId;
+    }
+
+    public long size()
+    {
+        return size;
+    }
+
+    public boolean isEmpty()
+    {
+        return head == NO_PAGE;
+    }
+
+    public int head()
+    {
+        return head;
+    }
+
+    public int tail()
+    {
+        return tail;
+    }
+
+    public boolean contains( int pageId )
+    {
+        return table.getList( pageId, links ) == listId;
+    }
+
+    /**
+     * @return the page towards the head of the list from the given page, or {@link PageMetaDataTable#NO_PAGE}.
+     */
+    public int previous( int pageId )
+    {
+        return table.getPrevious( pageId, links );
+    }
+
+    /**
+     * @return the page towards the tail of the list from the given page, or {@link PageMetaDataTable#NO_PAGE}.
+     */
+    public int next( int pageId )
+    {
+        return table.getNext( pageId, links );
+    }
+
+    /**
+     * Link the given page in at the head of this list. The page must not currently be linked into any list that
+     * shares links with this one.
+     */
+    public void addFirst( int pageId )
+    {
+        int currentList = table.getList( pageId, links );
+        if ( currentList != 0 )
+        {
+            throw alreadyLinked( pageId, currentList );
+        }
+        int oldHead = head;
+        table.setPrevious( pageId, links, NO_PAGE );
+        table.setNext( pageId, links, oldHead );
+        table.setList( pageId, links, listId );
+        if ( oldHead == NO_PAGE )
+        {
+            tail = pageId;
+        }
+        else
+        {
+            table.setPrevious( oldHead, links, pageId );
+        }
+        head = pageId;
+        size++;
+    }
+
+    /**
+     * Link the given page in at the tail of this list, where it will be the first candidate for eviction. The page
+     * must not currently be linked into any list that shares links with this one.
+     */
+    public void addLast( int pageId )
+    {
+        int currentList = table.getList( pageId, links );
+        if ( currentList != 0 )
+        {
+            throw alreadyLinked( pageId, currentList );
+        }
+        int oldTail = tail;
+        table.setPrevious( pageId, links, oldTail );
+        table.setNext( pageId, links, NO_PAGE );
+        table.setList( pageId, links, listId );
+        if ( oldTail == NO_PAGE )
+        {
+            head = pageId;
+        }
+        else
+        {
+            table.setNext( oldTail, links, pageId );
+        }
+        tail = pageId;
+        size++;
+    }
+
+    /**
+     * Move the given page to the head of this list.
+     * @throws IndexOutOfBoundsException if the page is not in this list.
+     */
+    public void moveToFront( int pageId )
+    {
+        if ( head == pageId )
+        {
+            if ( !contains( pageId ) )
+            {
+                throw noSuchPage( pageId );
+            }
+            return;
+        }
+        remove( pageId );
+        addFirst( pageId );
+    }
+
+    /**
+     * Unlink the given page from this list.
+     * @throws IndexOutOfBoundsException if the page is not in this list.
+     */
+    public void remove( int pageId )
+    {
+        if ( !contains( pageId ) )
+        {
+            throw noSuchPage( pageId );
+        }
+        int previous = table.getPrevious( pageId, links );
+        int next = table.getNext( pageId, links );
+        if ( previous == NO_PAGE )
+        {
+            head = next;
+        }
+        else
+        {
+            table.setNext( previous, links, next );
+        }
+        if ( next == NO_PAGE )
+        {
+            tail = previous;
+        }
+        else
+        {
+            table.setPrevious( next, links, previous );
+        }
+        table.setList( pageId, links, 0 );
+        table.setPrevious( pageId, links, NO_PAGE );
+        table.setNext( pageId, links, NO_PAGE );
+        size--;
+    }
+
+    /**
+     * Unlink and return the tail of this list, or {@link PageMetaDataTable#NO_PAGE} if the list is empty.
+     */
+    public int removeLast()
+    {
+        int last = tail;
+        if ( last != NO_PAGE )
+        {
+            remove( last );
+        }
+        return last;
+    }
+
+    /**
+     * Walk the list and check that the links are consistent. Must be called while holding the latch.
+     * @throws IllegalStateException if the list is in an inconsistent state.
+     */
+    public boolean verify() throws IllegalStateException
+    {
+        long count = 0;
+        int previous = NO_PAGE;
+        int page = head;
+        while ( page != NO_PAGE )
+        {
+            if ( !contains( page ) )
+            {
+                throw errorState( format( "Page %d is linked into the list, but belongs to list %d",
+                        page, table.getList( page, links ) ) );
+            }
+            if ( table.getPrevious( page, links ) != previous )
+            {
+                throw errorState( format( "Previous page marker is incorrect for page %d", page ) );
+            }
+            if ( ++count > size )
+            {
+                throw errorState( format( "List has more than the %d pages it claims to have", size ) );
+            }
+            previous = page;
+            page = table.getNext( page, links );
+        }
+        if ( previous != tail )
+        {
+            throw errorState( format( "Last page is %d but tail is %d", previous, tail ) );
+        }
+        if ( count != size )
+        {
+            throw errorState( format( "List has %d pages, but claims to have %d", count, size ) );
+        }
+        return true;
+    }
+
+    private IndexOutOfBoundsException noSuchPage( int pageId )
+    {
+        return new IndexOutOfBoundsException( format( "Could not find page with page ID of %d in list %d",
+                pageId, listId ) );
+    }
+
+    private IllegalStateException alreadyLinked( int pageId, int currentList )
+    {
+        return new IllegalStateException( format( "Cannot add page %d to list %d, it is already linked into list %d",
+                pageId, listId, currentList ) );
+    }
+
+    private IllegalStateException errorState( String errorMessage )
+    {
+        return new IllegalStateException(
+                format( "Cache algorithm linked list %d is in an error state: %s", listId, errorMessage ) );
+    }
+}
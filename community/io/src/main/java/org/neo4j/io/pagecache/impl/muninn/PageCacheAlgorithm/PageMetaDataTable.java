@@ -0,0 +1,304 @@
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn.PageCacheAlgorithm;
+
+import org.neo4j.memory.GlobalMemoryTracker;
+import org.neo4j.unsafe.impl.internal.dragons.UnsafeUtil;
+
+/**
+ * The PageMetaDataTable keeps the off-heap book keeping that the eviction algorithms need for every memory page.
+ * <p>
+ * Entries are addressed by the same page id as the {@link org.neo4j.io.pagecache.impl.muninn.PageList}, so finding
+ * the meta-data of a pinned page is a single address computation rather than a search.
+ * <p>
+ * The meta-data for each page is the following:
+ *
+ * <table>
+ *     <tr><th>Bytes</th><th>Use</th></tr>
+ *     <tr><td>4</td><td>Id of the recency list this page is linked into, or zero.</td></tr>
+ *     <tr><td>4</td><td>Previous page id in the recency list.</td></tr>
+ *     <tr><td>4</td><td>Next page id in the recency list.</td></tr>
+ *     <tr><td>4</td><td>Id of the frequency list this page is linked into, or zero.</td></tr>
+ *     <tr><td>4</td><td>Previous page id in the frequency list.</td></tr>
+ *     <tr><td>4</td><td>Next page id in the frequency list.</td></tr>
+ *     <tr><td>8</td><td>Flags word. Updated with CAS.</td></tr>
+ *     <tr><td>8</td><td>Reference count. Updated with CAS.</td></tr>
+ *     <tr><td>8</td><td>Last usage time.</td></tr>
+ *     <tr><td>8 * k</td><td>Reference history, for the algorithms that ask for one.</td></tr>
+ * </table>
+ * <p>
+ * The list links are only ever changed by {@link PageMetaDataList} while holding the latch of this table. The latch
+ * is a single CAS word, and the pin path only ever {@link #tryLatch() tries} to take it, so a page pin never waits
+ * for another thread. Walking the links without the latch is safe, because entries are never freed while the table
+ * is open, but what is found may be stale and must be validated against the
+ * {@link org.neo4j.io.pagecache.impl.muninn.PageList}.
+ */
+public final class PageMetaDataTable
+{
+    public static final int NO_PAGE = -1;
+
+    public static final long FLAG_NEW = 1;
+    public static final long FLAG_OLD = 1 << 1;
+    /** The page was faulted in with {@link org.neo4j.io.pagecache.PagedFile#PF_NO_CACHE_RETENTION}. */
+    public static final long FLAG_NO_CACHE_RETENTION = 1 << 2;
+
+    static final int RECENCY_LINKS = 0;
+    static final int FREQUENCY_LINKS = 12;
+
+    private static final int OFFSET_LIST = 0; // 4 bytes, relative to the link set
+    private static final int OFFSET_PREV = 4; // 4 bytes, relative to the link set
+    private static final int OFFSET_NEXT = 8; // 4 bytes, relative to the link set
+    private static final int OFFSET_FLAGS = 24; // 8 bytes
+    private static final int OFFSET_REF_COUNT = 32; // 8 bytes
+    private static final int OFFSET_LAST_USAGE = 40; // 8 bytes
+    private static final int OFFSET_HISTORY = 48; // 8 bytes per history slot
+
+    private static final long latchOffset = UnsafeUtil.getFieldOffset( PageMetaDataTable.class, "latch" );
+
+    private final int pageCount;
+    private final int historySize;
+    private final int entrySize;
+    private final long bytes;
+    private final long baseAddress;
+    private boolean closed;
+
+    @SuppressWarnings( "unused" ) // This field is accessed via Unsafe.
+    private volatile long latch;
+
+    public PageMetaDataTable( int pageCount )
+    {
+        this( pageCount, 0 );
+    }
+
+    /**
+     * @param pageCount the number of pages, and thus entries, in the table.
+     * @param historySize the number of reference history slots to keep for every page.
+     */
+    public PageMetaDataTable( int pageCount, int historySize )
+    {
+        if ( pageCount < 0 || historySize < 0 )
+        {
+            throw new IllegalArgumentException(
+                    "Page count and history size cannot be negative, but was " + pageCount + " and " + historySize );
+        }
+        this.pageCount = pageCount;
+        this.historySize = historySize;
+        this.entrySize = OFFSET_HISTORY + historySize * Long.BYTES;
+        this.bytes = Math.max( (long) pageCount * entrySize, Long.BYTES );
+        this.baseAddress = UnsafeUtil.allocateMemory( bytes, GlobalMemoryTracker.INSTANCE );
+        clear();
+    }
+
+    private void clear()
+    {
+        UnsafeUtil.setMemory( baseAddress, bytes, (byte) 0 );
+        for ( int pageId = 0; pageId < pageCount; pageId++ )
+        {
+            long address = entry( pageId );
+            UnsafeUtil.putInt( address + RECENCY_LINKS + OFFSET_PREV, NO_PAGE );
+            UnsafeUtil.putInt( address + RECENCY_LINKS + OFFSET_NEXT, NO_PAGE );
+            UnsafeUtil.putInt( address + FREQUENCY_LINKS + OFFSET_PREV, NO_PAGE );
+            UnsafeUtil.putInt( address + FREQUENCY_LINKS + OFFSET_NEXT, NO_PAGE );
+        }
+        UnsafeUtil.fullFence(); // Guarantee the visibility of the cleared memory.
+    }
+
+    public int getPageCount()
+    {
+        return pageCount;
+    }
+
+    public int getHistorySize()
+    {
+        return historySize;
+    }
+
+    /**
+     * Combine the swapper id and file page id of a file page into a single key, for algorithms that need to recognise
+     * a file page after the memory page that held it has been evicted.
+     */
+    public static long filePageKey( int swapperId, long filePageId )
+    {
+        return (((long) swapperId) << 48) | (filePageId & 0xFFFF_FFFF_FFFFL);
+    }
+
+    private long entry( int pageId )
+    {
+        if ( pageId < 0 || pageId >= pageCount )
+        {
+            throw new IndexOutOfBoundsException( "Page id " + pageId + " is outside of the " + pageCount +
+                                                 " pages covered by this table" );
+        }
+        return baseAddress + ((long) pageId) * entrySize;
+    }
+
+    boolean tryLatch()
+    {
+        return latch == 0 && UnsafeUtil.compareAndSwapLong( this, latchOffset, 0, 1 );
+    }
+
+    void latch()
+    {
+        while ( !tryLatch() )
+        {
+            Thread.yield();
+        }
+    }
+
+    void unlatch()
+    {
+        UnsafeUtil.putLongVolatile( this, latchOffset, 0 );
+    }
+
+    int getList( int pageId, int links )
+    {
+        return UnsafeUtil.getIntVolatile( entry( pageId ) + links + OFFSET_LIST );
+    }
+
+    void setList( int pageId, int links, int listId )
+    {
+        UnsafeUtil.putIntVolatile( entry( pageId ) + links + OFFSET_LIST, listId );
+    }
+
+    int getPrevious( int pageId, int links )
+    {
+        return UnsafeUtil.getIntVolatile( entry( pageId ) + links + OFFSET_PREV );
+    }
+
+    void setPrevious( int pageId, int links, int previous )
+    {
+        UnsafeUtil.putIntVolatile( entry( pageId ) + links + OFFSET_PREV, previous );
+    }
+
+    int getNext( int pageId, int links )
+    {
+        return UnsafeUtil.getIntVolatile( entry( pageId ) + links + OFFSET_NEXT );
+    }
+
+    void setNext( int pageId, int links, int next )
+    {
+        UnsafeUtil.putIntVolatile( entry( pageId ) + links + OFFSET_NEXT, next );
+    }
+
+    public long getFlags( int pageId )
+    {
+        return UnsafeUtil.getLongVolatile( entry( pageId ) + OFFSET_FLAGS );
+    }
+
+    public boolean hasFlag( int pageId, long flag )
+    {
+        return (getFlags( pageId ) & flag) != 0;
+    }
+
+    /**
+     * Atomically raise the given flags, and lower the other given flags.
+     */
+    public void updateFlags( int pageId, long raise, long lower )
+    {
+        long address = entry( pageId ) + OFFSET_FLAGS;
+        long current;
+        long update;
+        do
+        {
+            current = UnsafeUtil.getLongVolatile( address );
+            update = (current | raise) & ~lower;
+        }
+        while ( current != update && !UnsafeUtil.compareAndSwapLong( null, address, current, update ) );
+    }
+
+    public long getRefCount( int pageId )
+    {
+        return UnsafeUtil.getLongVolatile( entry( pageId ) + OFFSET_REF_COUNT );
+    }
+
+    public void setRefCount( int pageId, long refCount )
+    {
+        UnsafeUtil.putLongVolatile( entry( pageId ) + OFFSET_REF_COUNT, refCount );
+    }
+
+    /**
+     * Atomically increment the reference count of the given page.
+     * @return the new reference count.
+     */
+    public long incrementRefCount( int pageId )
+    {
+        return UnsafeUtil.getAndAddLong( null, entry( pageId ) + OFFSET_REF_COUNT, 1 ) + 1;
+    }
+
+    public long getLastUsageTime( int pageId )
+    {
+        return UnsafeUtil.getLongVolatile( entry( pageId ) + OFFSET_LAST_USAGE );
+    }
+
+    public void setLastUsageTime( int pageId, long time )
+    {
+        UnsafeUtil.putLongVolatile( entry( pageId ) + OFFSET_LAST_USAGE, time );
+    }
+
+    /**
+     * @param k the history slot, counting from 1 for the most recent reference.
+     */
+    public long getHistoryTime( int pageId, int k )
+    {
+        return UnsafeUtil.getLongVolatile( history( pageId, k ) );
+    }
+
+    public void setHistoryTime( int pageId, int k, long time )
+    {
+        UnsafeUtil.putLongVolatile( history( pageId, k ), time );
+    }
+
+    private long history( int pageId, int k )
+    {
+        if ( k < 1 || k > historySize )
+        {
+            throw new IndexOutOfBoundsException( "History slot " + k + " is outside of the " + historySize +
+                                                 " slots kept for every page" );
+        }
+        return entry( pageId ) + OFFSET_HISTORY + (k - 1) * Long.BYTES;
+    }
+
+    /**
+     * Forget everything recorded about the given page, except which lists it is linked into.
+     */
+    public void resetPage( int pageId )
+    {
+        long address = entry( pageId );
+        UnsafeUtil.putLongVolatile( address + OFFSET_FLAGS, 0 );
+        UnsafeUtil.putLongVolatile( address + OFFSET_REF_COUNT, 0 );
+        UnsafeUtil.putLongVolatile( address + OFFSET_LAST_USAGE, 0 );
+        for ( int k = 1; k <= historySize; k++ )
+        {
+            UnsafeUtil.putLongVolatile( history( pageId, k ), 0 );
+        }
+    }
+
+    /**
+     * Free the memory of this table. The table must not be accessed after it has been closed.
+     */
+    public synchronized void close()
+    {
+        if ( !closed )
+        {
+            closed = true;
+            UnsafeUtil.free( baseAddress, bytes, GlobalMemoryTracker.INSTANCE );
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn.PageCacheAlgorithm;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntConsumer;
+
+/**
+ * A lossy buffer of page hits, that lets the eviction algorithms record a pin without touching their shared book
+ * keeping.
+ * <p>
+ * The buffer is striped by thread, and every stripe is a small ring of page ids. Recording a hit is a CAS on the
+ * write counter of the stripe of the calling thread, followed by a single store into the ring. If the stripe is full,
+ * or another thread wins the race for the slot, the hit is simply dropped. Losing a few reorderings of hot pages does
+ * not matter to the eviction decisions, while waiting for them would make every pin contend on the same memory.
+ * <p>
+ * The recorded hits are applied to the book keeping in batches, by whoever {@link #drain(IntConsumer) drains} the
+ * buffer. Only one thread may drain the buffer at a time, which the algorithms ensure by only draining while holding
+ * the latch of their {@link PageMetaDataTable}.
+ */
+public final class PinEventBuffer
+{
+    static final int STRIPE_CAPACITY = 16;
+    private static final int STRIPE_MASK = STRIPE_CAPACITY - 1;
+    private static final int MAX_STRIPES = 256;
+
+    // The write and read counters of a stripe are spread over 16 longs, so the counters of different stripes do not
+    // share cache lines.
+    private static final int COUNTER_STRIDE = 16;
+    private static final int WRITE_COUNTER = 0;
+    private static final int READ_COUNTER = 1;
+
+    // Slots hold the page id plus one, so that zero can mean a slot that has not been written yet.
+    private static final int EMPTY = 0;
+
+    private final int stripeMask;
+    private final AtomicLongArray counters;
+    private final AtomicIntegerArray slots;
+
+    public PinEventBuffer()
+    {
+        this( Runtime.getRuntime().availableProcessors() * 4 );
+    }
+
+    /**
+     * @param stripes the number of stripes to spread the threads over. Rounded up to a power of two.
+     */
+    public PinEventBuffer( int stripes )
+    {
+        int stripeCount = Integer.highestOneBit( Math.max( 1, Math.min( stripes, MAX_STRIPES ) ) - 1 ) << 1;
+        stripeCount = Math.max( 1, stripeCount );
+        this.stripeMask = stripeCount - 1;
+        this.counters = new AtomicLongArray( stripeCount * COUNTER_STRIDE );
+        this.slots = new AtomicIntegerArray( stripeCount * STRIPE_CAPACITY );
+    }
+
+    int stripeCount()
+    {
+        return stripeMask + 1;
+    }
+
+    /**
+     * Record a hit on the given page, unless the stripe of the calling thread is full or contended.
+     *
+     * @return {@code true} if the stripe of the calling thread is full, and the buffer should be drained.
+     */
+    public boolean offer( int pageId )
+    {
+        int stripe = stripe();
+        int counterBase = stripe * COUNTER_STRIDE;
+        long tail = counters.get( counterBase + WRITE_COUNTER );
+        long size = tail - counters.get( counterBase + READ_COUNTER );
+        if ( size >= STRIPE_CAPACITY )
+        {
+            return true;
+        }
+        if ( counters.compareAndSet( counterBase + WRITE_COUNTER, tail, tail + 1 ) )
+        {
+            slots.lazySet( stripe * STRIPE_CAPACITY + (int) (tail & STRIPE_MASK), pageId + 1 );
+            return size + 1 >= STRIPE_CAPACITY;
+        }
+        return false;
+    }
+
+    /**
+     * Hand every recorded hit to the given consumer, in the order they were recorded within each stripe.
+     * Must only be called by one thread at a time.
+     */
+    public void drain( IntConsumer consumer )
+    {
+        for ( int stripe = 0; stripe <= stripeMask; stripe++ )
+        {
+            int counterBase = stripe * COUNTER_STRIDE;
+            long head = counters.get( counterBase + READ_COUNTER );
+            long tail = counters.get( counterBase + WRITE_COUNTER );
+            while ( head < tail )
+            {
+                int slot = stripe * STRIPE_CAPACITY + (int) (head & STRIPE_MASK);
+                int event = slots.get( slot );
+                if ( event == EMPTY )
+                {
+                    // The slot has been claimed, but not yet written. We will pick it up on the next drain.
+                    break;
+                }
+                slots.lazySet( slot, EMPTY );
+                head++;
+                consumer.accept( event - 1 );
+            }
+            counters.lazySet( counterBase + READ_COUNTER, head );
+        }
+    }
+
+    private int stripe()
+    {
+        // Spread the sequential thread ids over the stripes.
+        long id = Thread.currentThread().getId() * 0x9E3779B97F4A7C15L;
+        return (int) (id >>> 32) & stripeMask;
+    }
+}
@@ -0,0 +1,257 @@
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import org.neo4j.io.pagecache.PageCacheAlgorithm;
+import org.neo4j.unsafe.impl.internal.dragons.UnsafeUtil;
+
+/**
+ * A contiguous range of the pages in a {@link MuninnPageCache}, with its own freelist, eviction thread and eviction
+ * algorithm.
+ * <p>
+ * The page cache is split into partitions so that page faulting threads and eviction threads working on different
+ * partitions do not contend on the same freelist head, or on the same eviction algorithm latch. A page cache that is
+ * not partitioned has a single partition that covers all of its pages.
+ * <p>
+ * The {@link #pages} of a partition is a view of its range of the page list of the page cache. The page references are
+ * the same in both, but the page ids of the view start from zero, so the eviction algorithm of the partition can size
+ * its book keeping to the partition alone.
+ */
+final class PageCachePartition
+{
+    // The field offset to unsafely access the freelist field.
+    private static final long freelistOffset =
+            UnsafeUtil.getFieldOffset( PageCachePartition.class, "freelist" );
+
+    // This is used as a poison-pill signal in the freelist, to inform any
+    // page faulting thread that it is now no longer possible to queue up and
+    // wait for more pages to be evicted, because the page cache has been shut
+    // down.
+    static final FreePage shutdownSignal = new FreePage( 0 );
+
+    final int index;
+    final PageList pages;
+    final PageCacheAlgorithm pageCacheAlgorithm;
+    final int keepFree;
+
+    // The freelist is a thread-safe linked-list of FreePage objects, or an AtomicInteger, or null.
+    // Initially, the field is an AtomicInteger that counts from zero to the page count of the partition, at which point
+    // all of the pages have been put in use. Once this happens, the field is set to null to allow the eviction thread
+    // of the partition to start its work. From that point on, the field will operate as a concurrent stack of FreePage
+    // objects. The eviction thread pushes newly freed FreePage objects onto the stack, and page faulting threads pops
+    // FreePage objects from the stack. The FreePage objects are single-use, to avoid running into the ABA-problem.
+    @SuppressWarnings( "unused" ) // This field is accessed via Unsafe.
+    private volatile Object freelist;
+
+    // The thread that runs the eviction algorithm for this partition. We unpark this when we've run out of
+    // free pages to grab.
+    volatile Thread evictionThread;
+    // True if the eviction thread is currently parked, without someone having
+    // signalled it to wake up. This is used as a weak guard for unparking the
+    // eviction thread, because calling unpark too much (from many page
+    // faulting threads) can cause contention on the locks protecting that
+    // threads scheduling meta-data in the OS kernel.
+    private volatile boolean evictorParked;
+    // The page cache and the eviction thread of this partition each hold on to the eviction algorithm, and the last of
+    // them to let go of it closes it. The eviction thread can still be in the middle of evicting a page when the page
+    // cache is closed, and the algorithm must not free its memory underneath it.
+    private final AtomicInteger algorithmReferences = new AtomicInteger( 1 );
+
+    PageCachePartition( int index, PageList pages, PageCacheAlgorithm pageCacheAlgorithm, int keepFree )
+    {
+        this.index = index;
+        this.pages = pages;
+        this.pageCacheAlgorithm = pageCacheAlgorithm;
+        this.keepFree = keepFree;
+        setFreelistHead( new AtomicInteger() );
+    }
+
+    /**
+     * Pop a free and exclusively locked page off the freelist of this partition.
+     *
+     * @return the page reference of the free page, or zero if the freelist is empty.
+     * @throws IllegalStateException if the page cache has been shut down.
+     */
+    long grabFreePage()
+    {
+        // Review the comment on the freelist field before making changes to
+        // this part of the code.
+        // Whatever the case, we're going to the head-pointer of the freelist,
+        // and in doing so, we can discover a number of things.
+        // We can discover an AtomicInteger, in which case the pages of the
+        // partition have not all been put to use yet, and we try to CAS the
+        // counter to claim the next unused page.
+        // We can discover a FreePage object, in which case we'll attempt to
+        // CAS the freelist to the FreePage objects next pointer, and if we
+        // succeed then we've grabbed the page given by the FreePage object.
+        // We can discover a null-pointer, in which case the freelist has just
+        // been emptied for whatever it contained before. New FreePage objects
+        // are eventually going to be added to the freelist, but we are not
+        // going to wait around for that to happen; the caller will look
+        // elsewhere, or do its own eviction, to get a free page.
+        // If we find a FreePage object on the freelist, then it is important
+        // to check and see if it is the shutdownSignal instance. If that's the
+        // case, then the page cache has been shut down, and we should throw an
+        // exception from our page fault routine.
+        for (;;)
+        {
+            Object current = getFreelistHead();
+            if ( current == null )
+            {
+                return 0;
+            }
+            else if ( current instanceof AtomicInteger )
+            {
+                int pageCount = pages.getPageCount();
+                AtomicInteger counter = (AtomicInteger) current;
+                int pageId = counter.get();
+                if ( pageId < pageCount && counter.compareAndSet( pageId, pageId + 1 ) )
+                {
+                    return pages.deref( pageId );
+                }
+                if ( pageId >= pageCount )
+                {
+                    compareAndSetFreelistHead( current, null );
+                }
+            }
+            else if ( current instanceof FreePage )
+            {
+                FreePage freePage = (FreePage) current;
+                if ( freePage == shutdownSignal )
+                {
+                    throw new IllegalStateException( "The PageCache has been shut down." );
+                }
+
+                if ( compareAndSetFreelistHead( freePage, freePage.next ) )
+                {
+                    return freePage.pageRef;
+                }
+            }
+        }
+    }
+
+    void addFreePageToFreelist( long pageRef )
+    {
+        Object current;
+        FreePage freePage = new FreePage( pageRef );
+        do
+        {
+            current = getFreelistHead();
+            if ( current instanceof AtomicInteger && ((AtomicInteger) current).get() >= pages.getPageCount() )
+            {
+                current = null;
+            }
+            freePage.setNext( current );
+        }
+        while ( !compareAndSetFreelistHead( current, freePage ) );
+    }
+
+    /**
+     * @return the number of pages that must be evicted to get this partition back up to {@link #keepFree} free pages.
+     */
+    int pagesBelowKeepFree()
+    {
+        Object freelistHead = getFreelistHead();
+
+        if ( freelistHead == null )
+        {
+            return keepFree;
+        }
+        else if ( freelistHead.getClass() == FreePage.class )
+        {
+            int availablePages = ((FreePage) freelistHead).count;
+            if ( availablePages < keepFree )
+            {
+                return keepFree - availablePages;
+            }
+        }
+        else if ( freelistHead.getClass() == AtomicInteger.class )
+        {
+            AtomicInteger counter = (AtomicInteger) freelistHead;
+            long count = pages.getPageCount() - counter.get();
+            if ( count < keepFree )
+            {
+                return count < 0 ? keepFree : (int) (keepFree - count);
+            }
+        }
+        return 0;
+    }
+
+    boolean contains( long pageRef )
+    {
+        int pageId = pages.toId( pageRef );
+        return 0 <= pageId && pageId < pages.getPageCount();
+    }
+
+    /**
+     * Hold on to the eviction algorithm of this partition, on behalf of the eviction thread that is about to start.
+     */
+    void retainAlgorithm()
+    {
+        algorithmReferences.incrementAndGet();
+    }
+
+    /**
+     * Let go of the eviction algorithm of this partition, and close it if nothing else holds on to it.
+     */
+    void releaseAlgorithm()
+    {
+        if ( algorithmReferences.decrementAndGet() == 0 )
+        {
+            pageCacheAlgorithm.close();
+        }
+    }
+
+    void unparkEvictor()
+    {
+        if ( evictorParked )
+        {
+            evictorParked = false;
+            LockSupport.unpark( evictionThread );
+        }
+    }
+
+    void parkEvictor( long parkNanos )
+    {
+        // Only called from the eviction thread of this partition!
+        evictorParked = true;
+        LockSupport.parkNanos( this, parkNanos );
+        evictorParked = false;
+    }
+
+    Object getFreelistHead()
+    {
+        return UnsafeUtil.getObjectVolatile( this, freelistOffset );
+    }
+
+    private boolean compareAndSetFreelistHead( Object expected, Object update )
+    {
+        return UnsafeUtil.compareAndSwapObject(
+                this, freelistOffset, expected, update );
+    }
+
+    void setFreelistHead( Object newFreelistHead )
+    {
+        UnsafeUtil.putObjectVolatile( this, freelistOffset, newFreelistHead );
+    }
+}
@@ -27,8 +27,6 @@ import org.neo4j.io.pagecache.PageCacheAlgorithm;
 import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.io.pagecache.PageData;
 import org.neo4j.io.pagecache.PageSwapper;
-import org.neo4j.io.pagecache.impl.muninn.PageCacheAlgorithm.MuninnPageCacheAlgorithmCLOCK;
-import org.neo4j.io.pagecache.impl.muninn.PageCacheAlgorithm.MuninnPageCacheAlgorithmLRU;
 import org.neo4j.io.pagecache.tracing.EvictionEvent;
 import org.neo4j.io.pagecache.tracing.EvictionEventOpportunity;
 import org.neo4j.io.pagecache.tracing.FlushEvent;
@@ -165,6 +163,27 @@ public class PageList
         this.pageCacheAlgorithm = pageList.pageCacheAlgorithm;
     }
 
+    /**
+     * This constructor creates a view of a range of the pages in the given {@code PageList}. The page references of
+     * the view are the same as in the given page list, but the page ids of the view start from zero at the
+     * {@code firstPageId} of the range. The view notifies the given {@link PageCacheAlgorithm} of page faults.
+     * @param pageList The {@code PageList} to create a view of.
+     * @param firstPageId The page id, in the given {@code PageList}, of the first page in the view.
+     * @param pageCount The number of pages in the view.
+     * @param pageCacheAlgorithm The algorithm to notify of the page faults that go through the view.
+     */
+    PageList( PageList pageList, int firstPageId, int pageCount, PageCacheAlgorithm pageCacheAlgorithm )
+    {
+        this.pageCount = pageCount;
+        this.cachePageSize = pageList.cachePageSize;
+        this.memoryAllocator = pageList.memoryAllocator;
+        this.swappers = pageList.swappers;
+        this.victimPageAddress = pageList.victimPageAddress;
+        this.baseAddress = pageList.deref( firstPageId );
+        this.bufferAlignment = pageList.bufferAlignment;
+        this.pageCacheAlgorithm = pageCacheAlgorithm;
+    }
+
     private void clearMemory( long baseAddress, long pageCount )
     {
         long memcpyChunkSize = UnsafeUtil.pageSize();
@@ -439,6 +458,18 @@ public class PageList
 
     public void fault( long pageRef, PageSwapper swapper, int swapperId, long filePageId, PageFaultEvent event )
             throws IOException
+    {
+        fault( pageRef, swapper, swapperId, filePageId, event, false );
+    }
+
+    /**
+     * Fault the given file page into the given page, and tell the eviction algorithm about it.
+     *
+     * @param noCacheRetention {@code true} if the page is faulted in by a cursor opened with
+     * {@link org.neo4j.io.pagecache.PagedFile#PF_NO_CACHE_RETENTION}.
+     */
+    public void fault( long pageRef, PageSwapper swapper, int swapperId, long filePageId, PageFaultEvent event,
+            boolean noCacheRetention ) throws IOException
     {
         if ( swapper == null )
         {
@@ -463,13 +494,76 @@ public class PageList
         event.addBytesRead( bytesRead );
         event.setCachePageId( toId( pageRef ) );
         setSwapperId( pageRef, swapperId ); // Page now considered isBoundTo( swapper, filePageId )
+        if ( noCacheRetention )
+        {
+            // The page may still carry the usage stamp of whatever it held before, which would keep it from being
+            // the first to go.
+            setUsageCounter( pageRef, (byte) 0 );
+        }
 
         this.notifyCacheAlgorithm( pageRef,
                 new PageData( pageRef )
                         .withFaultInTime( System.nanoTime() )
+                        .withNoCacheRetention( noCacheRetention )
         );
     }
 
+    /**
+     * Fault a run of consecutive file pages into the given pages with a single vectored read, and tell the eviction
+     * algorithm about each of them. The pages must all be exclusively locked and unbound, just like for
+     * {@link #fault(long, PageSwapper, int, long, PageFaultEvent, boolean)}.
+     *
+     * @param pageRefs the pages to fault into, in the order of the file pages they are to hold.
+     * @param length the number of pages, counting from the start of the {@code pageRefs} array.
+     * @param startFilePageId the file page id to fault into the first page.
+     * @return the number of bytes read from the file.
+     */
+    public long fault( long[] pageRefs, int length, PageSwapper swapper, int swapperId, long startFilePageId,
+            boolean noCacheRetention ) throws IOException
+    {
+        if ( swapper == null )
+        {
+            throw swapperCannotBeNull();
+        }
+        long[] bufferAddresses = new long[length];
+        for ( int i = 0; i < length; i++ )
+        {
+            long pageRef = pageRefs[i];
+            long filePageId = startFilePageId + i;
+            int currentSwapper = getSwapperId( pageRef );
+            long currentFilePageId = getFilePageId( pageRef );
+            if ( filePageId < 0 || !isExclusivelyLocked( pageRef )
+                 || currentSwapper != 0 || currentFilePageId != PageCursor.UNBOUND_PAGE_ID )
+            {
+                throw cannotFaultException( pageRef, swapper, swapperId, filePageId, currentSwapper,
+                        currentFilePageId );
+            }
+            bufferAddresses[i] = getAddress( pageRef );
+        }
+        // Same protocol as for a single page: the pages are considered loaded before the read, and only bound to the
+        // file pages once the read has succeeded.
+        for ( int i = 0; i < length; i++ )
+        {
+            setFilePageId( pageRefs[i], startFilePageId + i );
+        }
+        long bytesRead = swapper.read( startFilePageId, bufferAddresses, cachePageSize, 0, length );
+        long faultInTime = System.nanoTime();
+        for ( int i = 0; i < length; i++ )
+        {
+            long pageRef = pageRefs[i];
+            setSwapperId( pageRef, swapperId );
+            if ( noCacheRetention )
+            {
+                setUsageCounter( pageRef, (byte) 0 );
+            }
+            this.notifyCacheAlgorithm( pageRef,
+                    new PageData( pageRef )
+                            .withFaultInTime( faultInTime )
+                            .withNoCacheRetention( noCacheRetention ) );
+        }
+        return bytesRead;
+    }
+
     private static IllegalArgumentException swapperCannotBeNull()
     {
         return new IllegalArgumentException( "swapper cannot be null" );
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.neo4j.io.pagecache.PageCacheAlgorithm;
+import org.neo4j.io.pagecache.PageData;
+import org.neo4j.io.pagecache.tracing.PageFaultEvent;
+
+/**
+ * The algorithm of the page list of a partitioned {@link MuninnPageCache}. It passes every event on to the algorithm
+ * of the {@link PageCachePartition} that the page belongs to.
+ */
+final class PartitionedPageCacheAlgorithm implements PageCacheAlgorithm
+{
+    private final MuninnPageCache pageCache;
+
+    PartitionedPageCacheAlgorithm( MuninnPageCache pageCache )
+    {
+        this.pageCache = pageCache;
+    }
+
+    @Override
+    public void bind( PageList pages )
+    {
+        // The algorithms of the partitions are bound to the page list views of their partitions.
+    }
+
+    @Override
+    public long cooperativlyEvict( PageFaultEvent faultEvent, PageList pages ) throws IOException
+    {
+        // The page cache evicts from the partitions itself, so this is only a fallback that evicts from any of them.
+        int index = ThreadLocalRandom.current().nextInt( pageCache.partitionCount() );
+        PageCachePartition partition = pageCache.partition( index );
+        return partition.pageCacheAlgorithm.cooperativlyEvict( faultEvent, partition.pages );
+    }
+
+    @Override
+    public void notifyPin( long pageRef, PageData pageData )
+    {
+        pageCache.partitionOf( pageRef ).pageCacheAlgorithm.notifyPin( pageRef, pageData );
+    }
+
+    @Override
+    public void externalEviction( long pageRef, PageData pageData )
+    {
+        pageCache.partitionOf( pageRef ).pageCacheAlgorithm.externalEviction( pageRef, pageData );
+    }
+
+    @Override
+    public void close()
+    {
+        // The algorithms of the partitions are closed by the page cache.
+    }
+}
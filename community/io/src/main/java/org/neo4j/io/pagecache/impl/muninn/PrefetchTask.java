@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+/**
+ * This Runnable reads a range of pages ahead of a sequential read cursor.
+ *
+ * @see ReadAhead
+ * @see MuninnPagedFile#prefetch(long, int, boolean)
+ */
+final class PrefetchTask extends BackgroundTask
+{
+    private final MuninnPagedFile pagedFile;
+    private final long startFilePageId;
+    private final int pageCount;
+    private final boolean noCacheRetention;
+
+    PrefetchTask( MuninnPageCache pageCache, MuninnPagedFile pagedFile, long startFilePageId, int pageCount,
+            boolean noCacheRetention )
+    {
+        super( pageCache );
+        this.pagedFile = pagedFile;
+        this.startFilePageId = startFilePageId;
+        this.pageCount = pageCount;
+        this.noCacheRetention = noCacheRetention;
+    }
+
+    @Override
+    protected void run( MuninnPageCache pageCache )
+    {
+        try
+        {
+            pagedFile.prefetch( startFilePageId, pageCount, noCacheRetention );
+        }
+        finally
+        {
+            pageCache.prefetchDone();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import org.neo4j.io.pagecache.PageCursor;
+
+import static org.neo4j.util.FeatureToggles.getInteger;
+
+/**
+ * Spots sequential access in a read cursor opened with {@link org.neo4j.io.pagecache.PagedFile#PF_READ_AHEAD}, and
+ * reads the pages ahead of the cursor in the background.
+ * <p>
+ * Once the cursor has pinned {@link #SEQUENTIAL_THRESHOLD} pages in a row, the pages following it are
+ * {@link MuninnPageCache#schedulePrefetch(MuninnPagedFile, long, int, boolean) prefetched} a window at a time. The
+ * next window is requested when the cursor is half way through the previous one, and every window is twice the size
+ * of the previous one, up to {@link #MAX_WINDOW} pages. Should the cursor still have to fault in a page that ought to
+ * have been read ahead, because the prefetch got dropped, or the pages were evicted before the cursor got to them,
+ * then the window is halved. Breaking the sequence starts over with the smallest window.
+ * <p>
+ * Instances are owned by a single cursor, and are not thread safe.
+ */
+final class ReadAhead
+{
+    static final int SEQUENTIAL_THRESHOLD = 2;
+    static final int MIN_WINDOW = 4;
+    static final int MAX_WINDOW = getInteger( ReadAhead.class, "maxWindow", 32 );
+
+    private long lastFilePageId = PageCursor.UNBOUND_PAGE_ID;
+    private int sequentialPins;
+    private int window = MIN_WINDOW;
+    // The range of file pages that have been scheduled for prefetching, from the start inclusive to the end exclusive.
+    private long prefetchStart = PageCursor.UNBOUND_PAGE_ID;
+    private long prefetchEnd = PageCursor.UNBOUND_PAGE_ID;
+
+    /**
+     * Called by the cursor after it has pinned the given file page.
+     *
+     * @param faulted {@code true} if the cursor had to fault in the page itself.
+     */
+    void pinned( MuninnPagedFile pagedFile, long filePageId, boolean faulted, boolean noCacheRetention )
+    {
+        if ( lastFilePageId != PageCursor.UNBOUND_PAGE_ID && filePageId == lastFilePageId + 1 )
+        {
+            sequentialPins++;
+        }
+        else
+        {
+            reset();
+        }
+        lastFilePageId = filePageId;
+
+        if ( filePageId >= prefetchStart && filePageId < prefetchEnd )
+        {
+            if ( faulted )
+            {
+                pagedFile.pageCacheTracer.prefetchMisses( 1 );
+                window = Math.max( MIN_WINDOW, window >> 1 );
+            }
+            else
+            {
+                pagedFile.pageCacheTracer.prefetchHits( 1 );
+            }
+        }
+
+        if ( sequentialPins >= SEQUENTIAL_THRESHOLD && prefetchEnd - filePageId <= window >> 1 )
+        {
+            long start = Math.max( filePageId + 1, prefetchEnd );
+            int scheduled = pagedFile.pageCache.schedulePrefetch( pagedFile, start, window, noCacheRetention );
+            if ( scheduled > 0 )
+            {
+                if ( prefetchEnd <= filePageId )
+                {
+                    prefetchStart = start;
+                }
+                prefetchEnd = start + scheduled;
+                window = Math.min( MAX_WINDOW, window << 1 );
+            }
+        }
+    }
+
+    void reset()
+    {
+        lastFilePageId = PageCursor.UNBOUND_PAGE_ID;
+        sequentialPins = 0;
+        window = MIN_WINDOW;
+        prefetchStart = PageCursor.UNBOUND_PAGE_ID;
+        prefetchEnd = PageCursor.UNBOUND_PAGE_ID;
+    }
+}
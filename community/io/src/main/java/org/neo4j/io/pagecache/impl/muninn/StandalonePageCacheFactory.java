@@ -23,7 +23,9 @@ import org.neo4j.graphdb.config.Configuration;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.mem.MemoryAllocator;
 import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageCacheAlgorithmFactory;
 import org.neo4j.io.pagecache.impl.SingleFilePageSwapperFactory;
+import org.neo4j.io.pagecache.impl.muninn.PageCacheAlgorithm.PageCacheAlgorithmFactories;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.io.pagecache.tracing.cursor.DefaultPageCursorTracerSupplier;
 import org.neo4j.memory.GlobalMemoryTracker;
@@ -42,6 +44,12 @@ public final class StandalonePageCacheFactory
     }
 
     public static PageCache createPageCache( FileSystemAbstraction fileSystem )
+    {
+        return createPageCache( fileSystem, PageCacheAlgorithmFactories.DEFAULT );
+    }
+
+    public static PageCache createPageCache( FileSystemAbstraction fileSystem,
+            PageCacheAlgorithmFactory algorithmFactory )
     {
         SingleFilePageSwapperFactory factory = new SingleFilePageSwapperFactory();
         factory.open( fileSystem, Configuration.EMPTY );
@@ -49,6 +57,6 @@ public final class StandalonePageCacheFactory
         PageCacheTracer cacheTracer = PageCacheTracer.NULL;
         DefaultPageCursorTracerSupplier cursorTracerSupplier = DefaultPageCursorTracerSupplier.INSTANCE;
         MemoryAllocator memoryAllocator = MemoryAllocator.createAllocator( "8 MiB", GlobalMemoryTracker.INSTANCE );
-        return new MuninnPageCache( factory, memoryAllocator, cacheTracer, cursorTracerSupplier );
+        return new MuninnPageCache( factory, memoryAllocator, algorithmFactory, cacheTracer, cursorTracerSupplier );
     }
 }
@@ -80,6 +80,21 @@ public interface PageCacheCounters
      */
     long evictionExceptions();
 
+    /**
+     * @return The number of pages read ahead of sequential cursors thus far.
+     */
+    long prefetches();
+
+    /**
+     * @return The number of pins of pages that were read ahead of the pinning cursor thus far.
+     */
+    long prefetchHits();
+
+    /**
+     * @return The number of page faults on pages that should have been read ahead of the faulting cursor thus far.
+     */
+    long prefetchMisses();
+
     /**
      * @return The cache hit ratio observed thus far.
      */
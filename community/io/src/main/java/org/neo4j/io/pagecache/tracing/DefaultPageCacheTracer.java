@@ -43,6 +43,9 @@ public class DefaultPageCacheTracer implements PageCacheTracer
     protected final LongAdder filesMapped = new LongAdder();
     protected final LongAdder filesUnmapped = new LongAdder();
     protected final LongAdder evictionExceptions = new LongAdder();
+    protected final LongAdder prefetches = new LongAdder();
+    protected final LongAdder prefetchHits = new LongAdder();
+    protected final LongAdder prefetchMisses = new LongAdder();
     protected final AtomicLong maxPages = new AtomicLong();
 
     private final FlushEvent flushEvent = new FlushEvent()
@@ -233,6 +236,24 @@ public class DefaultPageCacheTracer implements PageCacheTracer
         return evictionExceptions.sum();
     }
 
+    @Override
+    public long prefetches()
+    {
+        return prefetches.sum();
+    }
+
+    @Override
+    public long prefetchHits()
+    {
+        return prefetchHits.sum();
+    }
+
+    @Override
+    public long prefetchMisses()
+    {
+        return prefetchMisses.sum();
+    }
+
     @Override
     public double hitRatio()
     {
@@ -299,6 +320,24 @@ public class DefaultPageCacheTracer implements PageCacheTracer
         this.flushes.add( flushes );
     }
 
+    @Override
+    public void prefetches( long prefetches )
+    {
+        this.prefetches.add( prefetches );
+    }
+
+    @Override
+    public void prefetchHits( long prefetchHits )
+    {
+        this.prefetchHits.add( prefetchHits );
+    }
+
+    @Override
+    public void prefetchMisses( long prefetchMisses )
+    {
+        this.prefetchMisses.add( prefetchMisses );
+    }
+
     @Override
     public void maxPages( long maxPages )
     {
@@ -130,6 +130,24 @@ public interface PageCacheTracer extends PageCacheCounters
             return 0;
         }
 
+        @Override
+        public long prefetches()
+        {
+            return 0;
+        }
+
+        @Override
+        public long prefetchHits()
+        {
+            return 0;
+        }
+
+        @Override
+        public long prefetchMisses()
+        {
+            return 0;
+        }
+
         @Override
         public double hitRatio()
         {
@@ -187,6 +205,21 @@ public interface PageCacheTracer extends PageCacheCounters
         {
         }
 
+        @Override
+        public void prefetches( long prefetches )
+        {
+        }
+
+        @Override
+        public void prefetchHits( long prefetchHits )
+        {
+        }
+
+        @Override
+        public void prefetchMisses( long prefetchMisses )
+        {
+        }
+
         @Override
         public void maxPages( long maxPages )
         {
@@ -282,6 +315,24 @@ public interface PageCacheTracer extends PageCacheCounters
      */
     void flushes( long flushes );
 
+    /**
+     * Report number of pages read ahead of sequential cursors
+     * @param prefetches number of pages read ahead
+     */
+    void prefetches( long prefetches );
+
+    /**
+     * Report number of pins of pages that were read ahead of the pinning cursor
+     * @param prefetchHits number of prefetch hits
+     */
+    void prefetchHits( long prefetchHits );
+
+    /**
+     * Report number of page faults on pages that should have been read ahead of the faulting cursor
+     * @param prefetchMisses number of prefetch misses
+     */
+    void prefetchMisses( long prefetchMisses );
+
     /**
      * Sets the number of available pages.
      * @param maxPages the total number of available pages.
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.tracing.trace;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * The binary format of page access traces, as written by the {@link PageAccessTraceWriter} and read by the
+ * {@link PageAccessTraceReader}.
+ * <p>
+ * A trace starts with a header of the {@link #MAGIC} long and the {@link #FORMAT_VERSION} int. The header is followed
+ * by records, that each start with a record type byte:
+ * <ul>
+ * <li>{@link #RECORD_FILE}: an int file id, followed by the path of the file as a modified UTF-8 string. The file
+ * record of a file always comes before the first access to it.</li>
+ * <li>{@link #RECORD_ACCESSES}: an int number of accesses and a long base timestamp, followed by that many accesses.
+ * Every access is a var-long of the {@link #encode(int, long, boolean) encoded} file id, file page id and access
+ * type, and a var-long of the nanoseconds since the previous access in the record, or since the base timestamp for
+ * the first access.</li>
+ * </ul>
+ * Every access record holds the accesses of a single thread, in the order they were made. The records of different
+ * threads are interleaved in the order in which the threads filled them up. The timestamps are nanoseconds since the
+ * trace was started.
+ */
+public final class PageAccessTrace
+{
+    static final long MAGIC = 0x5043_4143_4345_5353L; // "PCACCESS"
+    static final int FORMAT_VERSION = 1;
+    static final byte RECORD_FILE = 1;
+    static final byte RECORD_ACCESSES = 2;
+
+    /**
+     * The number of distinct files that a trace can hold accesses to.
+     */
+    public static final int MAX_FILES = 1 << 16;
+
+    private static final int FILE_ID_SHIFT = 1;
+    private static final int FILE_PAGE_ID_SHIFT = 17;
+
+    private PageAccessTrace()
+    {
+        throw new AssertionError( "Not for instantiation!" );
+    }
+
+    static long encode( int fileId, long filePageId, boolean write )
+    {
+        return (filePageId << FILE_PAGE_ID_SHIFT) | ((long) fileId << FILE_ID_SHIFT) | (write ? 1 : 0);
+    }
+
+    static int fileId( long access )
+    {
+        return (int) ((access >>> FILE_ID_SHIFT) & (MAX_FILES - 1));
+    }
+
+    static long filePageId( long access )
+    {
+        return access >>> FILE_PAGE_ID_SHIFT;
+    }
+
+    static boolean isWrite( long access )
+    {
+        return (access & 1) != 0;
+    }
+
+    static void writeVarLong( DataOutput out, long value ) throws IOException
+    {
+        while ( (value & ~0x7FL) != 0 )
+        {
+            out.writeByte( (int) ((value & 0x7F) | 0x80) );
+            value >>>= 7;
+        }
+        out.writeByte( (int) value );
+    }
+
+    static long readVarLong( DataInput in ) throws IOException
+    {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do
+        {
+            b = in.readByte();
+            value |= (b & 0x7FL) << shift;
+            shift += 7;
+        }
+        while ( (b & 0x80) != 0 );
+        return value;
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.tracing.trace;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.neo4j.io.pagecache.tracing.trace.PageAccessTrace.FORMAT_VERSION;
+import static org.neo4j.io.pagecache.tracing.trace.PageAccessTrace.MAGIC;
+import static org.neo4j.io.pagecache.tracing.trace.PageAccessTrace.RECORD_ACCESSES;
+import static org.neo4j.io.pagecache.tracing.trace.PageAccessTrace.RECORD_FILE;
+import static org.neo4j.io.pagecache.tracing.trace.PageAccessTrace.readVarLong;
+
+/**
+ * Reads the accesses of a {@link PageAccessTrace page access trace}, one by one, in the order they appear in the
+ * trace.
+ * <pre><code>
+ *     try ( PageAccessTraceReader reader = new PageAccessTraceReader( in ) )
+ *     {
+ *         while ( reader.next() )
+ *         {
+ *             File file = reader.file( reader.fileId() );
+ *             // look at reader.filePageId(), reader.isWrite() and reader.timestamp()
+ *         }
+ *     }
+ * </code></pre>
+ * A trace that ends in the middle of a record, because the database was killed while it was being written, ends at
+ * the last access that was completely written.
+ */
+public class PageAccessTraceReader implements Closeable
+{
+    private final DataInputStream in;
+    private final Map<Integer,File> files = new HashMap<>();
+    private int remaining;
+    private long access;
+    private long timestamp;
+
+    public PageAccessTraceReader( InputStream in ) throws IOException
+    {
+        this.in = new DataInputStream( new BufferedInputStream( in ) );
+        long magic;
+        int formatVersion;
+        try
+        {
+            magic = this.in.readLong();
+            formatVersion = this.in.readInt();
+        }
+        catch ( EOFException e )
+        {
+            throw new IOException( "Not a page access trace; the header is incomplete.", e );
+        }
+        if ( magic != MAGIC )
+        {
+            throw new IOException( "Not a page access trace; wrong magic number " + Long.toHexString( magic ) + "." );
+        }
+        if ( formatVersion != FORMAT_VERSION )
+        {
+            throw new IOException( "Unsupported page access trace format version " + formatVersion + "." );
+        }
+    }
+
+    /**
+     * Move on to the next access in the trace.
+     *
+     * @return {@code true} if there was another access, or {@code false} if the end of the trace has been reached.
+     */
+    public boolean next() throws IOException
+    {
+        try
+        {
+            while ( remaining == 0 )
+            {
+                int recordType = in.read();
+                if ( recordType == -1 )
+                {
+                    return false;
+                }
+                if ( recordType == RECORD_FILE )
+                {
+                    int fileId = in.readInt();
+                    files.put( fileId, new File( in.readUTF() ) );
+                }
+                else if ( recordType == RECORD_ACCESSES )
+                {
+                    remaining = in.readInt();
+                    timestamp = in.readLong();
+                }
+                else
+                {
+                    throw new IOException( "Corrupt page access trace; unknown record type " + recordType + "." );
+                }
+            }
+            access = readVarLong( in );
+            timestamp += readVarLong( in );
+            remaining--;
+            return true;
+        }
+        catch ( EOFException e )
+        {
+            remaining = 0;
+            return false;
+        }
+    }
+
+    /**
+     * @return the id of the file of the current access.
+     */
+    public int fileId()
+    {
+        return PageAccessTrace.fileId( access );
+    }
+
+    /**
+     * @return the file page id of the current access.
+     */
+    public long filePageId()
+    {
+        return PageAccessTrace.filePageId( access );
+    }
+
+    /**
+     * @return {@code true} if the current access pinned the page with a write lock.
+     */
+    public boolean isWrite()
+    {
+        return PageAccessTrace.isWrite( access );
+    }
+
+    /**
+     * @return the time of the current access, in nanoseconds since the trace was started.
+     */
+    public long timestamp()
+    {
+        return timestamp;
+    }
+
+    /**
+     * @return the file with the given id, which is known once an access to it has been read.
+     */
+    public File file( int fileId )
+    {
+        return files.get( fileId );
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        in.close();
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.tracing.trace;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.neo4j.io.pagecache.tracing.trace.PageAccessTrace.FORMAT_VERSION;
+import static org.neo4j.io.pagecache.tracing.trace.PageAccessTrace.MAGIC;
+import static org.neo4j.io.pagecache.tracing.trace.PageAccessTrace.MAX_FILES;
+import static org.neo4j.io.pagecache.tracing.trace.PageAccessTrace.RECORD_ACCESSES;
+import static org.neo4j.io.pagecache.tracing.trace.PageAccessTrace.RECORD_FILE;
+import static org.neo4j.io.pagecache.tracing.trace.PageAccessTrace.writeVarLong;
+
+/**
+ * Writes a {@link PageAccessTrace page access trace}.
+ * <p>
+ * Accesses are buffered by the threads that make them, and handed to the writer in batches. Every batch is flushed to
+ * the underlying stream as it is written, so a trace that is never closed is still readable up to its last batch.
+ * <p>
+ * The writer is used from tracers, which are not allowed to throw exceptions, so the first {@link IOException} stops
+ * the recording, and is otherwise ignored.
+ */
+public class PageAccessTraceWriter implements Closeable
+{
+    /**
+     * Returned by {@link #fileId(File)} when the trace has no room for more files.
+     */
+    public static final int NO_FILE_ID = -1;
+
+    private final Map<File,Integer> fileIds = new ConcurrentHashMap<>();
+    private final DataOutputStream out;
+    private final long startTime;
+    private volatile boolean stopped;
+
+    public PageAccessTraceWriter( OutputStream out ) throws IOException
+    {
+        this.out = new DataOutputStream( new BufferedOutputStream( out ) );
+        this.startTime = System.nanoTime();
+        this.out.writeLong( MAGIC );
+        this.out.writeInt( FORMAT_VERSION );
+        this.out.flush();
+    }
+
+    /**
+     * @return the id of the given file in the trace, or {@link #NO_FILE_ID} if the trace cannot hold any more files.
+     */
+    public int fileId( File file )
+    {
+        Integer fileId = fileIds.get( file );
+        return fileId != null ? fileId : addFile( file );
+    }
+
+    private synchronized int addFile( File file )
+    {
+        Integer fileId = fileIds.get( file );
+        if ( fileId != null )
+        {
+            return fileId;
+        }
+        if ( fileIds.size() >= MAX_FILES )
+        {
+            return NO_FILE_ID;
+        }
+        fileId = fileIds.size();
+        if ( !stopped )
+        {
+            try
+            {
+                out.writeByte( RECORD_FILE );
+                out.writeInt( fileId );
+                out.writeUTF( file.getPath() );
+            }
+            catch ( IOException e )
+            {
+                stopped = true;
+            }
+        }
+        fileIds.put( file, fileId );
+        return fileId;
+    }
+
+    /**
+     * @return a timestamp for an access, in nanoseconds since the trace was started.
+     */
+    public long timestamp()
+    {
+        return System.nanoTime() - startTime;
+    }
+
+    /**
+     * Write a batch of accesses made by a single thread.
+     *
+     * @param accesses the {@link PageAccessTrace#encode(int, long, boolean) encoded} accesses.
+     * @param timestamps the {@link #timestamp() timestamps} of the accesses, in the order they were made.
+     * @param count the number of accesses in the arrays to write.
+     */
+    public synchronized void writeAccesses( long[] accesses, long[] timestamps, int count )
+    {
+        if ( stopped || count == 0 )
+        {
+            return;
+        }
+        try
+        {
+            out.writeByte( RECORD_ACCESSES );
+            out.writeInt( count );
+            long previousTimestamp = timestamps[0];
+            out.writeLong( previousTimestamp );
+            for ( int i = 0; i < count; i++ )
+            {
+                writeVarLong( out, accesses[i] );
+                writeVarLong( out, Math.max( 0, timestamps[i] - previousTimestamp ) );
+                previousTimestamp = timestamps[i];
+            }
+            out.flush();
+        }
+        catch ( IOException e )
+        {
+            stopped = true;
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException
+    {
+        stopped = true;
+        out.close();
+    }
+}
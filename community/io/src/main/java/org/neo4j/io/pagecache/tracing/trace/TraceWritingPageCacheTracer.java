@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.tracing.trace;
+
+import java.io.IOException;
+
+import org.neo4j.io.pagecache.tracing.DefaultPageCacheTracer;
+
+/**
+ * A {@link DefaultPageCacheTracer} that also records a {@link PageAccessTrace page access trace} of every page that
+ * is pinned in the page cache. The accesses are recorded by the {@link TraceWritingPageCursorTracer page cursor
+ * tracers} of the threads that pin the pages, so the page cache must be given a
+ * {@link TraceWritingPageCursorTracerSupplier} along with this tracer.
+ */
+public class TraceWritingPageCacheTracer extends DefaultPageCacheTracer implements AutoCloseable
+{
+    private final PageAccessTraceWriter traceWriter;
+
+    public TraceWritingPageCacheTracer( PageAccessTraceWriter traceWriter )
+    {
+        this.traceWriter = traceWriter;
+    }
+
+    PageAccessTraceWriter traceWriter()
+    {
+        return traceWriter;
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        traceWriter.close();
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.tracing.trace;
+
+import org.neo4j.io.pagecache.PageSwapper;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.io.pagecache.tracing.PinEvent;
+import org.neo4j.io.pagecache.tracing.cursor.DefaultPageCursorTracer;
+
+/**
+ * A {@link DefaultPageCursorTracer} that records the pages pinned by its thread, into the
+ * {@link PageAccessTraceWriter trace} of the {@link TraceWritingPageCacheTracer} it is initialised with. The accesses
+ * are buffered, and written as a batch when the buffer is full, or when the events are reported.
+ */
+public class TraceWritingPageCursorTracer extends DefaultPageCursorTracer
+{
+    static final int BUFFER_SIZE = 256;
+
+    private final long[] accesses = new long[BUFFER_SIZE];
+    private final long[] timestamps = new long[BUFFER_SIZE];
+    private int count;
+    private PageAccessTraceWriter traceWriter;
+    private PageSwapper lastSwapper;
+    private int lastFileId;
+
+    @Override
+    public void init( PageCacheTracer pageCacheTracer )
+    {
+        super.init( pageCacheTracer );
+        PageAccessTraceWriter writer = pageCacheTracer instanceof TraceWritingPageCacheTracer
+                                       ? ((TraceWritingPageCacheTracer) pageCacheTracer).traceWriter() : null;
+        if ( writer != traceWriter )
+        {
+            writeAccesses();
+            traceWriter = writer;
+            lastSwapper = null;
+        }
+    }
+
+    @Override
+    public void reportEvents()
+    {
+        writeAccesses();
+        super.reportEvents();
+    }
+
+    @Override
+    public PinEvent beginPin( boolean writeLock, long filePageId, PageSwapper swapper )
+    {
+        if ( traceWriter != null )
+        {
+            recordAccess( writeLock, filePageId, swapper );
+        }
+        return super.beginPin( writeLock, filePageId, swapper );
+    }
+
+    private void recordAccess( boolean writeLock, long filePageId, PageSwapper swapper )
+    {
+        if ( swapper != lastSwapper )
+        {
+            lastFileId = traceWriter.fileId( swapper.file() );
+            lastSwapper = swapper;
+        }
+        if ( lastFileId == PageAccessTraceWriter.NO_FILE_ID )
+        {
+            return;
+        }
+        accesses[count] = PageAccessTrace.encode( lastFileId, filePageId, writeLock );
+        timestamps[count] = traceWriter.timestamp();
+        if ( ++count == BUFFER_SIZE )
+        {
+            writeAccesses();
+        }
+    }
+
+    private void writeAccesses()
+    {
+        if ( count > 0 )
+        {
+            traceWriter.writeAccesses( accesses, timestamps, count );
+            count = 0;
+        }
+    }
+}
@@ -19,6 +19,7 @@
  */
 package org.neo4j.adversaries.pagecache;
 
+import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.nio.channels.ReadableByteChannel;
@@ -97,6 +98,19 @@ public class AdversarialPagedFile implements PagedFile
         return delegate.getLastPageId();
     }
 
+    @Override
+    public File file()
+    {
+        return delegate.file();
+    }
+
+    @Override
+    public int loadPages( long startPageId, int pageCount ) throws IOException
+    {
+        adversary.injectFailure( IllegalStateException.class, IOException.class );
+        return delegate.loadPages( startPageId, pageCount );
+    }
+
     @Override
     public void close() throws IOException
     {
@@ -84,6 +84,12 @@ public class DelegatingPageCache implements PageCache
         delegate.flushAndForce( limiter );
     }
 
+    @Override
+    public void flush( IOLimiter limiter ) throws IOException
+    {
+        delegate.flush( limiter );
+    }
+
     @Override
     public void flushAndForce() throws IOException
     {
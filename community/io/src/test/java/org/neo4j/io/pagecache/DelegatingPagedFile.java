@@ -19,6 +19,7 @@
  */
 package org.neo4j.io.pagecache;
 
+import java.io.File;
 import java.io.IOException;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.WritableByteChannel;
@@ -50,6 +51,18 @@ public class DelegatingPagedFile implements PagedFile
         return delegate.getLastPageId();
     }
 
+    @Override
+    public File file()
+    {
+        return delegate.file();
+    }
+
+    @Override
+    public int loadPages( long startPageId, int pageCount ) throws IOException
+    {
+        return delegate.loadPages( startPageId, pageCount );
+    }
+
     @Override
     public int pageSize()
     {
@@ -510,6 +510,46 @@ public abstract class PageCacheTest<T extends PageCache> extends PageCacheTestSu
         }
     }
 
+    @Test
+    public void channelsMustNotBeForcedAfterPageCacheFlush() throws Exception
+    {
+        final AtomicInteger writeCounter = new AtomicInteger();
+        final AtomicInteger forceCounter = new AtomicInteger();
+        FileSystemAbstraction fs = writeAndForceCountingFs( writeCounter, forceCounter );
+
+        getPageCache( fs, maxPages, PageCacheTracer.NULL, PageCursorTracerSupplier.NULL );
+
+        try ( PagedFile pagedFileA = pageCache.map( existingFile( "a" ), filePageSize );
+              PagedFile pagedFileB = pageCache.map( existingFile( "b" ), filePageSize ) )
+        {
+            try ( PageCursor cursor = pagedFileA.io( 0, PF_SHARED_WRITE_LOCK ) )
+            {
+                assertTrue( cursor.next() );
+                cursor.putInt( 1 );
+                assertTrue( cursor.next() );
+                cursor.putInt( 1 );
+            }
+            try ( PageCursor cursor = pagedFileB.io( 0, PF_SHARED_WRITE_LOCK ) )
+            {
+                assertTrue( cursor.next() );
+                cursor.putInt( 1 );
+            }
+
+            pageCache.flush( IOLimiter.unlimited() );
+
+            assertThat( writeCounter.get(), greaterThanOrEqualTo( 3 ) ); // we might race with background flushing
+            assertThat( forceCounter.get(), is( 0 ) );
+        }
+    }
+
+    @Test
+    public void pageCacheFlushMustThrowOnNullIOPSLimiter() throws Exception
+    {
+        configureStandardPageCache();
+        expectedException.expect( IllegalArgumentException.class );
+        pageCache.flush( null );
+    }
+
     private DelegatingFileSystemAbstraction writeAndForceCountingFs( final AtomicInteger writeCounter,
                                                                      final AtomicInteger forceCounter )
     {
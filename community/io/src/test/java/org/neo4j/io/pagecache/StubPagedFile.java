@@ -19,6 +19,7 @@
  */
 package org.neo4j.io.pagecache;
 
+import java.io.File;
 import java.io.IOException;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.WritableByteChannel;
@@ -80,6 +81,18 @@ public class StubPagedFile implements PagedFile
         return lastPageId;
     }
 
+    @Override
+    public File file()
+    {
+        throw new UnsupportedOperationException( "Not implemented for StubPagedFile" );
+    }
+
+    @Override
+    public int loadPages( long startPageId, int pageCount ) throws IOException
+    {
+        return 0;
+    }
+
     @Override
     public void close() throws IOException
     {
@@ -87,4 +87,23 @@ public class LatchMapTest
         latches.takeOrAwaitLatch( 42 ).release();
         latches.takeOrAwaitLatch( 42 ).release();
     }
+
+    @Test
+    public void tryTakeLatchMustReturnLatchIfAvailable() throws Exception
+    {
+        BinaryLatch latch = latches.tryTakeLatch( 42 );
+        assertThat( latch, is( notNullValue() ) );
+        latch.release();
+    }
+
+    @Test
+    public void tryTakeLatchMustReturnNullWithoutWaitingIfLatchIsTaken() throws Exception
+    {
+        BinaryLatch latch = latches.takeOrAwaitLatch( 42 );
+        assertThat( latches.tryTakeLatch( 42 ), is( nullValue() ) );
+        latch.release();
+        BinaryLatch second = latches.tryTakeLatch( 42 );
+        assertThat( second, is( notNullValue() ) );
+        second.release();
+    }
 }
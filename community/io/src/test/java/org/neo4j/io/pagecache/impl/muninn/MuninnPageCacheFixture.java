@@ -23,8 +23,10 @@ import java.io.IOException;
 import java.util.concurrent.CountDownLatch;
 
 import org.neo4j.io.mem.MemoryAllocator;
+import org.neo4j.io.pagecache.PageCacheAlgorithmFactory;
 import org.neo4j.io.pagecache.PageCacheTestSupport;
 import org.neo4j.io.pagecache.PageSwapperFactory;
+import org.neo4j.io.pagecache.impl.muninn.PageCacheAlgorithm.PageCacheAlgorithmFactories;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracerSupplier;
 import org.neo4j.memory.LocalMemoryTracker;
@@ -32,6 +34,8 @@ import org.neo4j.memory.LocalMemoryTracker;
 public class MuninnPageCacheFixture extends PageCacheTestSupport.Fixture<MuninnPageCache>
 {
     CountDownLatch backgroundFlushLatch;
+    int partitions = 1;
+    PageCacheAlgorithmFactory algorithmFactory = PageCacheAlgorithmFactories.DEFAULT;
 
     @Override
     public MuninnPageCache createPageCache( PageSwapperFactory swapperFactory, int maxPages,
@@ -40,7 +44,8 @@ public class MuninnPageCacheFixture extends PageCacheTestSupport.Fixture<MuninnP
         long memory = MuninnPageCache.memoryRequiredForPages( maxPages );
         MemoryAllocator allocator = MemoryAllocator.createAllocator( String.valueOf( memory ),
                 new LocalMemoryTracker() );
-        return new MuninnPageCache( swapperFactory, allocator, tracer, cursorTracerSupplier );
+        return new MuninnPageCache( swapperFactory, allocator, algorithmFactory, partitions, tracer,
+                cursorTracerSupplier );
     }
 
     @Override
@@ -25,28 +25,41 @@ import org.junit.Test;
 import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.neo4j.graphdb.mockfs.DelegatingFileSystemAbstraction;
 import org.neo4j.graphdb.mockfs.DelegatingStoreChannel;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.fs.OpenMode;
 import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.io.pagecache.IOLimiter;
+import org.neo4j.io.pagecache.PageCacheAlgorithm;
+import org.neo4j.io.pagecache.PageCacheAlgorithmFactory;
 import org.neo4j.io.pagecache.PageCacheTest;
 import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PageData;
 import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.impl.muninn.PageCacheAlgorithm.PageCacheAlgorithmFactories;
 import org.neo4j.io.pagecache.tracing.ConfigurablePageCursorTracerSupplier;
 import org.neo4j.io.pagecache.tracing.DelegatingPageCacheTracer;
+import org.neo4j.io.pagecache.tracing.EvictionEventOpportunity;
 import org.neo4j.io.pagecache.tracing.EvictionRunEvent;
 import org.neo4j.io.pagecache.tracing.MajorFlushEvent;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.io.pagecache.tracing.PageFaultEvent;
 import org.neo4j.io.pagecache.tracing.cursor.DefaultPageCursorTracerSupplier;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracerSupplier;
 import org.neo4j.io.pagecache.tracing.recording.RecordingPageCacheTracer;
 import org.neo4j.io.pagecache.tracing.recording.RecordingPageCursorTracer;
 import org.neo4j.io.pagecache.tracing.recording.RecordingPageCursorTracer.Fault;
 
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -310,6 +323,335 @@ public class MuninnPageCacheTest extends PageCacheTest<MuninnPageCache>
         }
     }
 
+    @Test( timeout = SEMI_LONG_TIMEOUT_MILLIS )
+    public void mustNotBlockMappingOfFilesWhileFlushing() throws Exception
+    {
+        CountDownLatch flushing = new CountDownLatch( 1 );
+        CountDownLatch finishFlush = new CountDownLatch( 1 );
+        IOLimiter blockingLimiter = ( previousStamp, recentlyCompletedIOs, flushable ) ->
+        {
+            flushing.countDown();
+            try
+            {
+                finishFlush.await();
+            }
+            catch ( InterruptedException e )
+            {
+                throw new AssertionError( e );
+            }
+            return previousStamp;
+        };
+
+        try ( MuninnPageCache pageCache = createPageCache( fs, 100, PageCacheTracer.NULL,
+                DefaultPageCursorTracerSupplier.NULL );
+              PagedFile pagedFile = pageCache.map( file( "a" ), filePageSize, StandardOpenOption.CREATE ) )
+        {
+            try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_WRITE_LOCK ) )
+            {
+                assertTrue( cursor.next() );
+                cursor.putLong( x );
+            }
+            Future<?> flush = executor.submit( () ->
+            {
+                pageCache.flush( blockingLimiter );
+                return null;
+            } );
+            flushing.await();
+
+            // The flush is held up by the limiter, but files can still be mapped and unmapped
+            try ( PagedFile other = pageCache.map( file( "b" ), filePageSize, StandardOpenOption.CREATE ) )
+            {
+                assertFalse( flush.isDone() );
+            }
+            finishFlush.countDown();
+            flush.get();
+        }
+    }
+
+    @Test( timeout = SEMI_LONG_TIMEOUT_MILLIS )
+    public void mustNotCloseEvictionAlgorithmUntilEvictionThreadIsDoneWithIt() throws Exception
+    {
+        CountDownLatch evicting = new CountDownLatch( 1 );
+        CountDownLatch finishEviction = new CountDownLatch( 1 );
+        CountDownLatch algorithmClosed = new CountDownLatch( 1 );
+        AtomicBoolean evictionInProgress = new AtomicBoolean();
+        AtomicBoolean closedDuringEviction = new AtomicBoolean();
+        fixture.algorithmFactory = new PageCacheAlgorithmFactory()
+        {
+            @Override
+            public String implementationName()
+            {
+                return PageCacheAlgorithmFactories.lru().implementationName();
+            }
+
+            @Override
+            public PageCacheAlgorithm createPageCacheAlgorithm( int cooperativeEvictionLiveLockThreshold,
+                    MuninnPageCache pageCache )
+            {
+                PageCacheAlgorithm algorithm = PageCacheAlgorithmFactories.lru()
+                        .createPageCacheAlgorithm( cooperativeEvictionLiveLockThreshold, pageCache );
+                return new PageCacheAlgorithm()
+                {
+                    @Override
+                    public void bind( PageList pages )
+                    {
+                        algorithm.bind( pages );
+                    }
+
+                    @Override
+                    public long cooperativlyEvict( PageFaultEvent faultEvent, PageList pages ) throws IOException
+                    {
+                        return algorithm.cooperativlyEvict( faultEvent, pages );
+                    }
+
+                    @Override
+                    public long backgroundEvict( PageList pages, EvictionEventOpportunity evictionOpportunity )
+                            throws IOException
+                    {
+                        evictionInProgress.set( true );
+                        try
+                        {
+                            evicting.countDown();
+                            finishEviction.await();
+                            return algorithm.backgroundEvict( pages, evictionOpportunity );
+                        }
+                        catch ( InterruptedException e )
+                        {
+                            // Closing the page cache interrupts the eviction thread, which must still finish.
+                            try
+                            {
+                                finishEviction.await();
+                            }
+                            catch ( InterruptedException again )
+                            {
+                                throw new AssertionError( again );
+                            }
+                            return 0;
+                        }
+                        finally
+                        {
+                            evictionInProgress.set( false );
+                        }
+                    }
+
+                    @Override
+                    public void notifyPin( long pageRef, PageData pageData )
+                    {
+                        algorithm.notifyPin( pageRef, pageData );
+                    }
+
+                    @Override
+                    public void externalEviction( long pageRef, PageData pageData )
+                    {
+                        algorithm.externalEviction( pageRef, pageData );
+                    }
+
+                    @Override
+                    public void close()
+                    {
+                        closedDuringEviction.compareAndSet( false, evictionInProgress.get() );
+                        algorithm.close();
+                        algorithmClosed.countDown();
+                    }
+                };
+            }
+        };
+
+        int maxPages = 100;
+        MuninnPageCache pageCache = createPageCache( fs, maxPages, PageCacheTracer.NULL,
+                DefaultPageCursorTracerSupplier.NULL );
+        try ( PagedFile pagedFile = pageCache.map( file( "a" ), filePageSize, StandardOpenOption.CREATE ) )
+        {
+            // Use up the free pages, so the eviction thread starts evicting.
+            try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_WRITE_LOCK ) )
+            {
+                for ( int i = 0; i < maxPages; i++ )
+                {
+                    assertTrue( cursor.next() );
+                }
+            }
+            evicting.await();
+        }
+
+        pageCache.close();
+        assertThat( algorithmClosed.getCount(), is( 1L ) );
+
+        finishEviction.countDown();
+        algorithmClosed.await();
+        assertFalse( closedDuringEviction.get() );
+    }
+
+    @Test( timeout = SEMI_LONG_TIMEOUT_MILLIS )
+    public void mustFaultAndEvictPagesInAllPartitionsOfPartitionedPageCache() throws Exception
+    {
+        int maxPages = 4096;
+        fixture.partitions = 4;
+        try ( MuninnPageCache pageCache = createPageCache( fs, maxPages, PageCacheTracer.NULL,
+                DefaultPageCursorTracerSupplier.NULL );
+              PagedFile pagedFile = pageCache.map( file( "a" ), filePageSize, StandardOpenOption.CREATE ) )
+        {
+            assertThat( pageCache.partitionCount(), is( 4 ) );
+
+            // More pages than fit in the page cache, so pages have to be evicted to make room for the rest.
+            long pageCount = maxPages + maxPages / 2;
+            try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_WRITE_LOCK ) )
+            {
+                for ( long pageId = 0; pageId < pageCount; pageId++ )
+                {
+                    assertTrue( cursor.next() );
+                    cursor.putLong( pageId );
+                }
+            }
+            try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK ) )
+            {
+                for ( long pageId = 0; pageId < pageCount; pageId++ )
+                {
+                    assertTrue( cursor.next() );
+                    long value;
+                    do
+                    {
+                        value = cursor.getLong();
+                    }
+                    while ( cursor.shouldRetry() );
+                    assertThat( value, is( pageId ) );
+                }
+            }
+
+            for ( int i = 0; i < pageCache.partitionCount(); i++ )
+            {
+                PageList pages = pageCache.partition( i ).pages;
+                int loaded = 0;
+                for ( int pageId = 0; pageId < pages.getPageCount(); pageId++ )
+                {
+                    if ( pages.isLoaded( pages.deref( pageId ) ) )
+                    {
+                        loaded++;
+                    }
+                }
+                // The eviction thread of every partition keeps a few pages free, so not quite all of them are loaded.
+                assertThat( "partition " + i, loaded, greaterThan( pages.getPageCount() / 2 ) );
+            }
+        }
+    }
+
+    @Test( timeout = SEMI_LONG_TIMEOUT_MILLIS )
+    public void mustNotFaultPageTwiceWhenCursorFaultsItConcurrentlyWithPrefetch() throws Exception
+    {
+        int maxPages = 256;
+        try ( MuninnPageCache pageCache = createPageCache( fs, maxPages, PageCacheTracer.NULL,
+                DefaultPageCursorTracerSupplier.NULL ) )
+        {
+            // All of the file fits in the page cache, so nothing is evicted, and every page is faulted in only once.
+            int filePages = maxPages / 2;
+            generateFileWithRecords( file( "a" ), filePages * recordsPerFilePage, recordSize );
+            try ( PagedFile pf = pageCache.map( file( "a" ), filePageSize ) )
+            {
+                MuninnPagedFile pagedFile = (MuninnPagedFile) pf;
+                int window = 16;
+                for ( long start = 0; start < filePages; start += window )
+                {
+                    long windowStart = start;
+                    CountDownLatch startLatch = new CountDownLatch( 1 );
+                    Future<Integer> prefetch = executor.submit( () ->
+                    {
+                        startLatch.await();
+                        return pagedFile.prefetch( windowStart, window, false );
+                    } );
+                    Future<Object> reader = executor.submit( () ->
+                    {
+                        startLatch.await();
+                        // Read the window backwards, so the cursor runs into the prefetch somewhere in the middle.
+                        try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK ) )
+                        {
+                            for ( long pageId = windowStart + window - 1; pageId >= windowStart; pageId-- )
+                            {
+                                assertTrue( cursor.next( pageId ) );
+                                verifyRecordsMatchExpected( cursor );
+                            }
+                        }
+                        return null;
+                    } );
+                    startLatch.countDown();
+                    prefetch.get();
+                    reader.get();
+                }
+
+                int[] timesLoaded = new int[filePages];
+                PageList pages = pageCache.partition( 0 ).pages;
+                for ( int pageId = 0; pageId < pages.getPageCount(); pageId++ )
+                {
+                    long pageRef = pages.deref( pageId );
+                    if ( pages.isLoaded( pageRef ) )
+                    {
+                        timesLoaded[(int) pages.getFilePageId( pageRef )]++;
+                    }
+                }
+                for ( int filePageId = 0; filePageId < filePages; filePageId++ )
+                {
+                    assertThat( "file page " + filePageId, timesLoaded[filePageId], is( 1 ) );
+                }
+            }
+        }
+    }
+
+    @Test( timeout = SEMI_LONG_TIMEOUT_MILLIS )
+    public void mustPrefetchWhileCursorsEvictPages() throws Exception
+    {
+        int maxPages = 40;
+        try ( MuninnPageCache pageCache = createPageCache( fs, maxPages, PageCacheTracer.NULL,
+                DefaultPageCursorTracerSupplier.NULL ) )
+        {
+            // The file is much bigger than the page cache, so the readers keep evicting pages, including the ones
+            // that are being prefetched.
+            int filePages = maxPages * 5;
+            generateFileWithRecords( file( "a" ), filePages * recordsPerFilePage, recordSize );
+            try ( PagedFile pf = pageCache.map( file( "a" ), filePageSize ) )
+            {
+                MuninnPagedFile pagedFile = (MuninnPagedFile) pf;
+                AtomicBoolean stop = new AtomicBoolean();
+                List<Future<Object>> readers = new ArrayList<>();
+                for ( int i = 0; i < 4; i++ )
+                {
+                    readers.add( executor.submit( () ->
+                    {
+                        ThreadLocalRandom rng = ThreadLocalRandom.current();
+                        try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK ) )
+                        {
+                            while ( !stop.get() )
+                            {
+                                assertTrue( cursor.next( rng.nextInt( filePages ) ) );
+                                verifyRecordsMatchExpected( cursor );
+                            }
+                        }
+                        return null;
+                    } ) );
+                }
+
+                int window = 8;
+                long prefetched = 0;
+                for ( int i = 0; i < 200; i++ )
+                {
+                    prefetched += pagedFile.prefetch( (i * window) % filePages, window, false );
+                }
+                stop.set( true );
+                for ( Future<Object> reader : readers )
+                {
+                    reader.get();
+                }
+                assertThat( prefetched, greaterThan( 0L ) );
+
+                try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK ) )
+                {
+                    for ( long pageId = 0; pageId < filePages; pageId++ )
+                    {
+                        assertTrue( cursor.next( pageId ) );
+                        verifyRecordsMatchExpected( cursor );
+                    }
+                }
+            }
+        }
+    }
+
     @Test( timeout = SEMI_LONG_TIMEOUT_MILLIS )
     public void mustThrowIfMappingFileWouldOverflowReferenceCount() throws Exception
     {
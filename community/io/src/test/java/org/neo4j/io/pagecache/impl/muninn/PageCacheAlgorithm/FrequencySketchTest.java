@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn.PageCacheAlgorithm;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.neo4j.io.pagecache.impl.muninn.PageCacheAlgorithm.PageMetaDataTable.filePageKey;
+
+public class FrequencySketchTest
+{
+    private final FrequencySketch sketch = new FrequencySketch( 512 );
+
+    @After
+    public void closeSketch()
+    {
+        sketch.close();
+    }
+
+    @Test
+    public void mustCountIncrements()
+    {
+        long key = filePageKey( 1, 42 );
+        assertEquals( 0, sketch.frequency( key ) );
+
+        sketch.increment( key );
+        sketch.increment( key );
+        sketch.increment( key );
+
+        assertEquals( 3, sketch.frequency( key ) );
+    }
+
+    @Test
+    public void mustSaturateAtMaxFrequency()
+    {
+        long key = filePageKey( 1, 42 );
+        for ( int i = 0; i < 100; i++ )
+        {
+            sketch.increment( key );
+        }
+
+        assertEquals( FrequencySketch.MAX_FREQUENCY, sketch.frequency( key ) );
+    }
+
+    @Test
+    public void resetMustHalveFrequencies()
+    {
+        long key = filePageKey( 1, 42 );
+        for ( int i = 0; i < 10; i++ )
+        {
+            sketch.increment( key );
+        }
+
+        sketch.reset();
+
+        assertEquals( 5, sketch.frequency( key ) );
+    }
+
+    @Test
+    public void mustAgeFrequenciesAfterSampleSizeIncrements()
+    {
+        long hot = filePageKey( 1, 0 );
+        for ( int i = 0; i < FrequencySketch.MAX_FREQUENCY; i++ )
+        {
+            sketch.increment( hot );
+        }
+
+        // A long scan over pages we never see again.
+        for ( int i = 1; i < 512 * 20; i++ )
+        {
+            sketch.increment( filePageKey( 2, i ) );
+        }
+
+        assertTrue( sketch.frequency( hot ) < FrequencySketch.MAX_FREQUENCY );
+    }
+
+    @Test
+    public void mustTellHotAndColdFilePagesApart()
+    {
+        for ( int round = 0; round < 5; round++ )
+        {
+            for ( int filePageId = 0; filePageId < 100; filePageId++ )
+            {
+                sketch.increment( filePageKey( 1, filePageId ) );
+            }
+        }
+        for ( int filePageId = 0; filePageId < 100; filePageId++ )
+        {
+            sketch.increment( filePageKey( 2, filePageId ) );
+        }
+
+        int hot = 0;
+        int cold = 0;
+        for ( int filePageId = 0; filePageId < 100; filePageId++ )
+        {
+            hot += sketch.frequency( filePageKey( 1, filePageId ) );
+            cold += sketch.frequency( filePageKey( 2, filePageId ) );
+        }
+        assertTrue( "hot " + hot + " cold " + cold, hot > cold * 3 );
+    }
+}
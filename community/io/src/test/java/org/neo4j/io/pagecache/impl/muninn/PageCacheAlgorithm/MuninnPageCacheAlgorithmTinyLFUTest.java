@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn.PageCacheAlgorithm;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.neo4j.graphdb.config.Configuration;
+import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.io.mem.MemoryAllocator;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.impl.SingleFilePageSwapperFactory;
+import org.neo4j.io.pagecache.impl.muninn.MuninnPageCache;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.io.pagecache.tracing.cursor.DefaultPageCursorTracerSupplier;
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
+import org.neo4j.memory.LocalMemoryTracker;
+import org.neo4j.test.rule.fs.EphemeralFileSystemRule;
+
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
+
+public class MuninnPageCacheAlgorithmTinyLFUTest
+{
+    private static final int CACHE_PAGES = 1000;
+    private static final int FILE_PAGES = CACHE_PAGES * 3;
+
+    @Rule
+    public final EphemeralFileSystemRule fs = new EphemeralFileSystemRule();
+
+    private MuninnPageCache pageCache;
+    private PagedFile pagedFile;
+
+    @Before
+    public void setUp() throws IOException
+    {
+        SingleFilePageSwapperFactory swapperFactory = new SingleFilePageSwapperFactory();
+        swapperFactory.open( fs.get(), Configuration.EMPTY );
+        MemoryAllocator allocator = MemoryAllocator.createAllocator(
+                String.valueOf( MuninnPageCache.memoryRequiredForPages( CACHE_PAGES ) ), new LocalMemoryTracker() );
+        pageCache = new MuninnPageCache( swapperFactory, allocator, PageCacheAlgorithmFactories.tinyLfu(), 1,
+                PageCacheTracer.NULL, DefaultPageCursorTracerSupplier.INSTANCE );
+
+        File file = new File( "a" );
+        try ( StoreChannel channel = fs.get().create( file ) )
+        {
+            channel.writeAll( ByteBuffer.allocate( FILE_PAGES * pageCache.pageSize() ) );
+        }
+        pagedFile = pageCache.map( file, pageCache.pageSize() );
+    }
+
+    @After
+    public void tearDown() throws IOException
+    {
+        pagedFile.close();
+        pageCache.close();
+    }
+
+    @Test
+    public void hotWorkingSetMustSurviveScanLargerThanCache() throws IOException
+    {
+        int hotPages = CACHE_PAGES / 4;
+        for ( int i = 0; i < 10; i++ )
+        {
+            touch( 0, hotPages );
+        }
+
+        assertTrue( touch( CACHE_PAGES, FILE_PAGES ) > 0 );
+
+        long faults = touch( 0, hotPages );
+        assertThat( "faults when touching the hot pages again", faults, lessThan( tolerance( hotPages ) ) );
+    }
+
+    @Test
+    public void admissionMustRejectColdCandidateAgainstHotterVictim() throws IOException
+    {
+        // More hot pages than the protected segment can take, so the least recently used of them are on probation,
+        // and become the victims that the cold pages compete with. Without admission, the cold pages would evict
+        // every one of the hot pages on probation, which are more than the tolerance.
+        int hotPages = CACHE_PAGES * 17 / 20;
+        for ( int i = 0; i < 8; i++ )
+        {
+            touch( 0, hotPages );
+        }
+
+        assertTrue( touch( CACHE_PAGES, CACHE_PAGES * 2 ) > 0 );
+
+        long faults = touch( 0, hotPages );
+        assertThat( "faults when touching the hot pages again", faults, lessThan( tolerance( hotPages ) ) );
+    }
+
+    /**
+     * The frequency sketch now and then overestimates a cold page as much as a hot one, and then lets it in, so a few
+     * hot pages may be evicted after all.
+     */
+    private static long tolerance( int hotPages )
+    {
+        return hotPages / 20;
+    }
+
+    /**
+     * Read the given range of pages, and return the number of page faults that took.
+     */
+    private long touch( long fromPageId, long toPageId ) throws IOException
+    {
+        PageCursorTracer cursorTracer = DefaultPageCursorTracerSupplier.INSTANCE.get();
+        long faultsBefore = cursorTracer.faults();
+        for ( long pageId = fromPageId; pageId < toPageId; pageId++ )
+        {
+            try ( PageCursor cursor = pagedFile.io( pageId, PF_SHARED_READ_LOCK ) )
+            {
+                assertTrue( cursor.next() );
+            }
+        }
+        return cursorTracer.faults() - faultsBefore;
+    }
+}
@@ -0,0 +1,330 @@
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn.PageCacheAlgorithm;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.neo4j.io.pagecache.impl.muninn.PageCacheAlgorithm.PageMetaDataTable.FLAG_NEW;
+import static org.neo4j.io.pagecache.impl.muninn.PageCacheAlgorithm.PageMetaDataTable.FLAG_OLD;
+import static org.neo4j.io.pagecache.impl.muninn.PageCacheAlgorithm.PageMetaDataTable.NO_PAGE;
+
+public class PageMetaDataListTest
+{
+    private static final int PAGE_COUNT = 300;
+
+    private final PageMetaDataTable table = new PageMetaDataTable( PAGE_COUNT, 2 );
+    private final PageMetaDataList list = new PageMetaDataList( table, 1, false );
+
+    @After
+    public void closeTable()
+    {
+        table.close();
+    }
+
+    /** Tests to make sure that we can store lots of pages.
+     */
+    @Test
+    public void shouldRemainInTactWithHugePageCounts()
+    {
+        int pageCount = 1000000;
+        PageMetaDataTable bigTable = new PageMetaDataTable( pageCount );
+        try
+        {
+            PageMetaDataList bigList = new PageMetaDataList( bigTable, 1, false );
+            for ( int pageId = 0; pageId < pageCount; pageId++ )
+            {
+                bigList.addFirst( pageId );
+            }
+
+            assertTrue( bigList.verify() );
+            assertEquals( pageCount, bigList.size() );
+        }
+        finally
+        {
+            bigTable.close();
+        }
+    }
+
+    @Test( expected = IndexOutOfBoundsException.class )
+    public void throwsOnRemovingNonExistentPage()
+    {
+        addAll();
+        list.remove( 0 );
+
+        list.remove( 0 );
+    }
+
+    @Test( expected = IndexOutOfBoundsException.class )
+    public void throwsOnRemovingNegativePage()
+    {
+        addAll();
+
+        list.remove( -20 );
+    }
+
+    @Test( expected = IndexOutOfBoundsException.class )
+    public void throwsOnRemovingPageOutsideOfTable()
+    {
+        addAll();
+
+        list.remove( PAGE_COUNT + 1 );
+    }
+
+    @Test( expected = IllegalStateException.class )
+    public void throwsOnAddingPageThatIsAlreadyLinked()
+    {
+        list.addFirst( 1 );
+
+        new PageMetaDataList( table, 2, false ).addFirst( 1 );
+    }
+
+    /** Should move lots of pages around in the list alternating between
+     * moving the head, tail and some page in the middle.
+     */
+    @Test
+    public void moveManyPagesAbout()
+    {
+        addAll();
+
+        for ( int moved = 0; moved < PAGE_COUNT * 2; moved++ )
+        {
+            int pageId;
+            switch ( moved % 3 )
+            {
+            case 0:
+                pageId = moved % PAGE_COUNT;
+                break;
+            case 1:
+                pageId = list.head();
+                break;
+            default:
+                pageId = list.tail();
+                break;
+            }
+            list.moveToFront( pageId );
+            assertEquals( pageId, list.head() );
+        }
+
+        assertTrue( list.verify() );
+        assertEquals( PAGE_COUNT, list.size() );
+    }
+
+    @Test
+    public void shouldKeepMostRecentlyAddedPageAtTheHead()
+    {
+        list.addFirst( 1 );
+        list.addFirst( 2 );
+        list.addFirst( 3 );
+
+        assertEquals( 3, list.head() );
+        assertEquals( 1, list.tail() );
+        assertEquals( 2, list.previous( 1 ) );
+        assertEquals( 2, list.next( 3 ) );
+
+        list.moveToFront( 1 );
+
+        assertEquals( 1, list.head() );
+        assertEquals( 2, list.tail() );
+        assertEquals( 2, list.removeLast() );
+        assertEquals( 3, list.tail() );
+        assertTrue( list.verify() );
+    }
+
+    @Test
+    public void shouldAddPagesToTheTailOfTheList()
+    {
+        list.addLast( 1 );
+        list.addFirst( 2 );
+        list.addLast( 3 );
+
+        assertEquals( 2, list.head() );
+        assertEquals( 3, list.tail() );
+        assertEquals( 1, list.previous( 3 ) );
+        assertEquals( 3, list.next( 1 ) );
+        assertEquals( 3, list.size() );
+        assertEquals( 3, list.removeLast() );
+        assertEquals( 1, list.tail() );
+        assertTrue( list.verify() );
+    }
+
+    @Test
+    public void testSizeCount()
+    {
+        addAll();
+
+        assertEquals( "List reports erroneous size", PAGE_COUNT, list.size() );
+
+        for ( int pageId = 0; pageId < PAGE_COUNT; pageId++ )
+        {
+            list.remove( pageId );
+        }
+
+        assertEquals( "List reports erroneous size", 0, list.size() );
+    }
+
+    @Test
+    public void anEmptyListShouldReportEmpty()
+    {
+        addAll();
+
+        assertFalse( "List reports empty, when it isnt.", list.isEmpty() );
+
+        for ( int pageId = 0; pageId < PAGE_COUNT; pageId++ )
+        {
+            list.remove( pageId );
+        }
+
+        assertTrue( "List reports not empty, when is should be, ", list.isEmpty() );
+    }
+
+    @Test
+    public void shouldLeaveListEmptyWhenRemovingHeadIfHeadIsTheOnlyElement()
+    {
+        list.addFirst( 0 );
+
+        assertEquals( 1, list.size() );
+
+        list.remove( 0 );
+
+        assertEquals( 0, list.size() );
+        assertEquals( "Tried to remove head of list with one element, but head is still set", NO_PAGE, list.head() );
+        assertEquals( "Tried to remove tail of list with one element, but tail is still set", NO_PAGE, list.tail() );
+        assertEquals( NO_PAGE, list.removeLast() );
+    }
+
+    @Test
+    public void shouldKnowWhichListAPageIsIn()
+    {
+        PageMetaDataList other = new PageMetaDataList( table, 2, false );
+        PageMetaDataList frequency = new PageMetaDataList( table, 3, true );
+        list.addFirst( 1 );
+        other.addFirst( 2 );
+        frequency.addFirst( 1 );
+        frequency.addFirst( 2 );
+
+        assertTrue( list.contains( 1 ) );
+        assertFalse( list.contains( 2 ) );
+        assertTrue( other.contains( 2 ) );
+        assertTrue( frequency.contains( 1 ) );
+        assertTrue( frequency.contains( 2 ) );
+
+        // The recency and frequency links are independent of each other.
+        assertEquals( 2, frequency.previous( 1 ) );
+        assertEquals( NO_PAGE, list.previous( 1 ) );
+        assertTrue( list.verify() );
+        assertTrue( other.verify() );
+        assertTrue( frequency.verify() );
+    }
+
+    @Test
+    public void shouldKeepPerPageMetaData()
+    {
+        table.setLastUsageTime( 5, 42 );
+        table.setHistoryTime( 5, 1, 42 );
+        table.setHistoryTime( 5, 2, 13 );
+        table.incrementRefCount( 5 );
+        assertEquals( 2, table.incrementRefCount( 5 ) );
+        table.updateFlags( 5, FLAG_NEW, 0 );
+        table.updateFlags( 5, FLAG_OLD, FLAG_NEW );
+
+        assertEquals( 42, table.getLastUsageTime( 5 ) );
+        assertEquals( 42, table.getHistoryTime( 5, 1 ) );
+        assertEquals( 13, table.getHistoryTime( 5, 2 ) );
+        assertEquals( 2, table.getRefCount( 5 ) );
+        assertFalse( table.hasFlag( 5, FLAG_NEW ) );
+        assertTrue( table.hasFlag( 5, FLAG_OLD ) );
+
+        table.resetPage( 5 );
+
+        assertEquals( 0, table.getLastUsageTime( 5 ) );
+        assertEquals( 0, table.getHistoryTime( 5, 2 ) );
+        assertEquals( 0, table.getRefCount( 5 ) );
+        assertEquals( 0, table.getFlags( 5 ) );
+    }
+
+    @Test( expected = IndexOutOfBoundsException.class )
+    public void throwsOnHistorySlotOutsideOfTable()
+    {
+        table.getHistoryTime( 1, 3 );
+    }
+
+    @Test
+    public void concurrentReorderingUnderTheLatchMustKeepListIntact() throws Exception
+    {
+        addAll();
+        ExecutorService executor = Executors.newFixedThreadPool( 4 );
+        try
+        {
+            List<Future<?>> futures = new ArrayList<>();
+            for ( int i = 0; i < 4; i++ )
+            {
+                futures.add( executor.submit( () ->
+                {
+                    ThreadLocalRandom rng = ThreadLocalRandom.current();
+                    for ( int j = 0; j < 100_000; j++ )
+                    {
+                        int pageId = rng.nextInt( PAGE_COUNT );
+                        if ( table.tryLatch() )
+                        {
+                            try
+                            {
+                                list.moveToFront( pageId );
+                            }
+                            finally
+                            {
+                                table.unlatch();
+                            }
+                        }
+                    }
+                } ) );
+            }
+            for ( Future<?> future : futures )
+            {
+                future.get();
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+
+        assertTrue( list.verify() );
+        assertEquals( PAGE_COUNT, list.size() );
+    }
+
+    private void addAll()
+    {
+        for ( int pageId = 0; pageId < PAGE_COUNT; pageId++ )
+        {
+            list.addFirst( pageId );
+        }
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn.PageCacheAlgorithm;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PinEventBufferTest
+{
+    @Test
+    public void mustDrainRecordedHitsInOrder()
+    {
+        PinEventBuffer buffer = new PinEventBuffer( 1 );
+        buffer.offer( 0 );
+        buffer.offer( 7 );
+        buffer.offer( 3 );
+
+        List<Integer> drained = new ArrayList<>();
+        buffer.drain( drained::add );
+
+        assertEquals( 3, drained.size() );
+        assertEquals( 0, (int) drained.get( 0 ) );
+        assertEquals( 7, (int) drained.get( 1 ) );
+        assertEquals( 3, (int) drained.get( 2 ) );
+
+        drained.clear();
+        buffer.drain( drained::add );
+        assertTrue( drained.isEmpty() );
+    }
+
+    @Test
+    public void mustAskToBeDrainedAndDropHitsWhenFull()
+    {
+        PinEventBuffer buffer = new PinEventBuffer( 1 );
+        for ( int i = 0; i < PinEventBuffer.STRIPE_CAPACITY - 1; i++ )
+        {
+            assertFalse( buffer.offer( i ) );
+        }
+        assertTrue( buffer.offer( 100 ) );
+        assertTrue( buffer.offer( 101 ) );
+
+        AtomicLong count = new AtomicLong();
+        buffer.drain( pageId ->
+        {
+            assertTrue( pageId != 101 );
+            count.incrementAndGet();
+        } );
+        assertEquals( PinEventBuffer.STRIPE_CAPACITY, count.get() );
+
+        // Draining made room again.
+        assertFalse( buffer.offer( 5 ) );
+    }
+
+    @Test
+    public void mustRoundStripesUpToPowerOfTwo()
+    {
+        assertEquals( 1, new PinEventBuffer( 0 ).stripeCount() );
+        assertEquals( 4, new PinEventBuffer( 3 ).stripeCount() );
+        assertEquals( 8, new PinEventBuffer( 8 ).stripeCount() );
+        assertEquals( 256, new PinEventBuffer( 10_000 ).stripeCount() );
+    }
+
+    @Test
+    public void mustNeverDrainHitsThatWereNotRecorded() throws Exception
+    {
+        int threads = 8;
+        int pageCount = 1000;
+        PinEventBuffer buffer = new PinEventBuffer( 4 );
+        AtomicBoolean stop = new AtomicBoolean();
+        AtomicLong drained = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool( threads + 1 );
+        try
+        {
+            List<Future<?>> producers = new ArrayList<>();
+            for ( int i = 0; i < threads; i++ )
+            {
+                producers.add( executor.submit( () ->
+                {
+                    for ( int j = 0; j < 100_000; j++ )
+                    {
+                        buffer.offer( j % pageCount );
+                    }
+                } ) );
+            }
+            Future<?> consumer = executor.submit( () ->
+            {
+                while ( !stop.get() )
+                {
+                    buffer.drain( pageId ->
+                    {
+                        assertTrue( pageId >= 0 && pageId < pageCount );
+                        drained.incrementAndGet();
+                    } );
+                }
+            } );
+            for ( Future<?> producer : producers )
+            {
+                producer.get();
+            }
+            stop.set( true );
+            consumer.get();
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+
+        buffer.drain( pageId -> drained.incrementAndGet() );
+        assertTrue( drained.get() <= threads * 100_000L );
+    }
+}
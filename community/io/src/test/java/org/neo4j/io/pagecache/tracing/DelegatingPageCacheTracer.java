@@ -109,6 +109,24 @@ public class DelegatingPageCacheTracer implements PageCacheTracer
         return delegate.evictionExceptions();
     }
 
+    @Override
+    public long prefetches()
+    {
+        return delegate.prefetches();
+    }
+
+    @Override
+    public long prefetchHits()
+    {
+        return delegate.prefetchHits();
+    }
+
+    @Override
+    public long prefetchMisses()
+    {
+        return delegate.prefetchMisses();
+    }
+
     @Override
     public double hitRatio()
     {
@@ -175,6 +193,24 @@ public class DelegatingPageCacheTracer implements PageCacheTracer
         delegate.flushes( flushes );
     }
 
+    @Override
+    public void prefetches( long prefetches )
+    {
+        delegate.prefetches( prefetches );
+    }
+
+    @Override
+    public void prefetchHits( long prefetchHits )
+    {
+        delegate.prefetchHits( prefetchHits );
+    }
+
+    @Override
+    public void prefetchMisses( long prefetchMisses )
+    {
+        delegate.prefetchMisses( prefetchMisses );
+    }
+
     @Override
     public void maxPages( long maxPages )
     {
@@ -144,6 +144,24 @@ public final class LinearHistoryPageCacheTracer implements PageCacheTracer
         return 0;
     }
 
+    @Override
+    public long prefetches()
+    {
+        return 0;
+    }
+
+    @Override
+    public long prefetchHits()
+    {
+        return 0;
+    }
+
+    @Override
+    public long prefetchMisses()
+    {
+        return 0;
+    }
+
     @Override
     public double hitRatio()
     {
@@ -201,6 +219,21 @@ public final class LinearHistoryPageCacheTracer implements PageCacheTracer
     {
     }
 
+    @Override
+    public void prefetches( long prefetches )
+    {
+    }
+
+    @Override
+    public void prefetchHits( long prefetchHits )
+    {
+    }
+
+    @Override
+    public void prefetchMisses( long prefetchMisses )
+    {
+    }
+
     @Override
     public void maxPages( long maxPages )
     {
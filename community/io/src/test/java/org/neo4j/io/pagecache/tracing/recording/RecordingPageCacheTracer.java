@@ -149,6 +149,24 @@ public class RecordingPageCacheTracer extends RecordingTracer implements PageCac
         return 0;
     }
 
+    @Override
+    public long prefetches()
+    {
+        return 0;
+    }
+
+    @Override
+    public long prefetchHits()
+    {
+        return 0;
+    }
+
+    @Override
+    public long prefetchMisses()
+    {
+        return 0;
+    }
+
     @Override
     public double hitRatio()
     {
@@ -209,6 +227,21 @@ public class RecordingPageCacheTracer extends RecordingTracer implements PageCac
     {
     }
 
+    @Override
+    public void prefetches( long prefetches )
+    {
+    }
+
+    @Override
+    public void prefetchHits( long prefetchHits )
+    {
+    }
+
+    @Override
+    public void prefetchMisses( long prefetchMisses )
+    {
+    }
+
     @Override
     public void maxPages( long maxPages )
     {
@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.tracing.trace;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.neo4j.io.pagecache.PageSwapper;
+import org.neo4j.io.pagecache.tracing.DummyPageSwapper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class PageAccessTraceTest
+{
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    @Test
+    public void mustReadBackWrittenAccesses() throws IOException
+    {
+        File fileA = new File( "a" );
+        File fileB = new File( "b" );
+        try ( PageAccessTraceWriter writer = new PageAccessTraceWriter( out ) )
+        {
+            int a = writer.fileId( fileA );
+            int b = writer.fileId( fileB );
+            long[] accesses = {
+                    PageAccessTrace.encode( a, 0, false ),
+                    PageAccessTrace.encode( b, 1L << 40, true ),
+                    PageAccessTrace.encode( a, 42, true )};
+            writer.writeAccesses( accesses, new long[]{10, 20, 1000}, accesses.length );
+        }
+
+        try ( PageAccessTraceReader reader = reader() )
+        {
+            assertAccess( reader, fileA, 0, false, 10 );
+            assertAccess( reader, fileB, 1L << 40, true, 20 );
+            assertAccess( reader, fileA, 42, true, 1000 );
+            assertFalse( reader.next() );
+        }
+    }
+
+    @Test
+    public void mustEndTruncatedTraceAtLastCompleteAccess() throws IOException
+    {
+        File file = new File( "a" );
+        try ( PageAccessTraceWriter writer = new PageAccessTraceWriter( out ) )
+        {
+            int fileId = writer.fileId( file );
+            long[] accesses = {PageAccessTrace.encode( fileId, 1, false ), PageAccessTrace.encode( fileId, 2, false )};
+            writer.writeAccesses( accesses, new long[]{1, 2}, accesses.length );
+        }
+        byte[] bytes = out.toByteArray();
+
+        try ( PageAccessTraceReader reader =
+                      new PageAccessTraceReader( new ByteArrayInputStream( Arrays.copyOf( bytes, bytes.length - 1 ) ) ) )
+        {
+            assertAccess( reader, file, 1, false, 1 );
+            assertFalse( reader.next() );
+        }
+    }
+
+    @Test
+    public void mustRejectStreamsThatAreNotTraces() throws IOException
+    {
+        try
+        {
+            new PageAccessTraceReader( new ByteArrayInputStream( new byte[64] ) );
+            fail( "Should have thrown" );
+        }
+        catch ( IOException e )
+        {
+            assertTrue( e.getMessage().contains( "magic" ) );
+        }
+    }
+
+    @Test
+    public void cursorTracerMustRecordPinnedPages() throws IOException
+    {
+        PageSwapper swapperA = new DummyPageSwapper( "a", 8192 );
+        PageSwapper swapperB = new DummyPageSwapper( "b", 8192 );
+        try ( TraceWritingPageCacheTracer cacheTracer =
+                      new TraceWritingPageCacheTracer( new PageAccessTraceWriter( out ) ) )
+        {
+            TraceWritingPageCursorTracer cursorTracer = new TraceWritingPageCursorTracer();
+            cursorTracer.init( cacheTracer );
+            cursorTracer.beginPin( false, 3, swapperA ).done();
+            cursorTracer.beginPin( true, 5, swapperB ).done();
+            cursorTracer.beginPin( false, 4, swapperA ).done();
+            cursorTracer.reportEvents();
+        }
+
+        try ( PageAccessTraceReader reader = reader() )
+        {
+            assertAccess( reader, swapperA.file(), 3, false );
+            assertAccess( reader, swapperB.file(), 5, true );
+            assertAccess( reader, swapperA.file(), 4, false );
+            assertFalse( reader.next() );
+        }
+    }
+
+    @Test
+    public void cursorTracerMustWriteAccessesInBatches() throws IOException
+    {
+        PageSwapper swapper = new DummyPageSwapper( "a", 8192 );
+        int pins = TraceWritingPageCursorTracer.BUFFER_SIZE * 2 + 1;
+        try ( TraceWritingPageCacheTracer cacheTracer =
+                      new TraceWritingPageCacheTracer( new PageAccessTraceWriter( out ) ) )
+        {
+            TraceWritingPageCursorTracer cursorTracer = new TraceWritingPageCursorTracer();
+            cursorTracer.init( cacheTracer );
+            for ( int i = 0; i < pins; i++ )
+            {
+                cursorTracer.beginPin( false, i, swapper ).done();
+            }
+            cursorTracer.reportEvents();
+        }
+
+        try ( PageAccessTraceReader reader = reader() )
+        {
+            long previousTimestamp = 0;
+            for ( int i = 0; i < pins; i++ )
+            {
+                assertAccess( reader, swapper.file(), i, false );
+                assertTrue( reader.timestamp() >= previousTimestamp );
+                previousTimestamp = reader.timestamp();
+            }
+            assertFalse( reader.next() );
+        }
+    }
+
+    private PageAccessTraceReader reader() throws IOException
+    {
+        return new PageAccessTraceReader( new ByteArrayInputStream( out.toByteArray() ) );
+    }
+
+    private static void assertAccess( PageAccessTraceReader reader, File file, long filePageId, boolean write,
+            long timestamp ) throws IOException
+    {
+        assertAccess( reader, file, filePageId, write );
+        assertEquals( timestamp, reader.timestamp() );
+    }
+
+    private static void assertAccess( PageAccessTraceReader reader, File file, long filePageId, boolean write )
+            throws IOException
+    {
+        assertTrue( reader.next() );
+        assertEquals( file, reader.file( reader.fileId() ) );
+        assertEquals( filePageId, reader.filePageId() );
+        assertEquals( write, reader.isWrite() );
+    }
+}
@@ -24,6 +24,8 @@ import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.apache.commons.lang3.builder.ToStringStyle;
 
+import org.neo4j.values.storable.CoordinateReferenceSystem;
+import org.neo4j.values.storable.PointValue;
 import org.neo4j.values.storable.TextValue;
 import org.neo4j.values.storable.Value;
 import org.neo4j.values.storable.ValueGroup;
@@ -87,6 +89,40 @@ public abstract class IndexQuery
         return new StringRangePredicate( propertyKeyId, from, fromInclusive, to, toInclusive );
     }
 
+    /**
+     * Searches the index for points within the box between the corners {@code from} and {@code to}, in all dimensions.
+     * Only points of the same coordinate reference system, and with the same number of dimensions, as the corners can match.
+     *
+     * @param propertyKeyId the property ID to match.
+     * @param from the lower corner of the box, or {@code null} for no lower bound.
+     * @param fromInclusive the lower bound is inclusive if true.
+     * @param to the upper corner of the box, or {@code null} for no upper bound.
+     * @param toInclusive the upper bound is inclusive if true.
+     * @return an {@link IndexQuery} instance to be used for querying an index.
+     */
+    public static GeometryRangePredicate range( int propertyKeyId, PointValue from, boolean fromInclusive, PointValue to,
+                                                boolean toInclusive )
+    {
+        return new GeometryRangePredicate( propertyKeyId, from, fromInclusive, to, toInclusive );
+    }
+
+    /**
+     * Searches the index for temporal values between {@code from} and {@code to}. The bounds must be of the same temporal
+     * {@link ValueGroup}, such as dates, local times or durations, and only values of that group can match.
+     *
+     * @param propertyKeyId the property ID to match.
+     * @param from the lower bound of the property value, or {@code null} for no lower bound.
+     * @param fromInclusive the lower bound is inclusive if true.
+     * @param to the upper bound of the property value, or {@code null} for no upper bound.
+     * @param toInclusive the upper bound is inclusive if true.
+     * @return an {@link IndexQuery} instance to be used for querying an index.
+     */
+    public static TemporalRangePredicate range( int propertyKeyId, Value from, boolean fromInclusive, Value to,
+                                                boolean toInclusive )
+    {
+        return new TemporalRangePredicate( propertyKeyId, from, fromInclusive, to, toInclusive );
+    }
+
     /**
      * Searches the index string values starting with {@code prefix}.
      *
@@ -187,6 +223,8 @@ public abstract class IndexQuery
         exact,
         rangeString,
         rangeNumeric,
+        rangeGeometric,
+        rangeTemporal,
         stringPrefix,
         stringSuffix,
         stringContains
@@ -347,6 +385,228 @@ public abstract class IndexQuery
         }
     }
 
+    public static final class GeometryRangePredicate extends IndexQuery
+    {
+        private final PointValue from;
+        private final boolean fromInclusive;
+        private final PointValue to;
+        private final boolean toInclusive;
+        private final CoordinateReferenceSystem crs;
+        private final int dimension;
+
+        GeometryRangePredicate( int propertyKeyId, PointValue from, boolean fromInclusive, PointValue to, boolean toInclusive )
+        {
+            super( propertyKeyId );
+            if ( from == null && to == null )
+            {
+                throw new IllegalArgumentException( "A geometry range needs at least one bound" );
+            }
+            PointValue corner = from != null ? from : to;
+            if ( from != null && to != null && (!from.getCoordinateReferenceSystem().equals( to.getCoordinateReferenceSystem() ) ||
+                    from.coordinate().length != to.coordinate().length) )
+            {
+                throw new IllegalArgumentException( "The bounds of a geometry range must be of the same coordinate reference system and dimension, " +
+                        "got " + from + " and " + to );
+            }
+            this.from = from;
+            this.fromInclusive = fromInclusive;
+            this.to = to;
+            this.toInclusive = toInclusive;
+            this.crs = corner.getCoordinateReferenceSystem();
+            this.dimension = corner.coordinate().length;
+        }
+
+        @Override
+        public IndexQueryType type()
+        {
+            return IndexQueryType.rangeGeometric;
+        }
+
+        @Override
+        public boolean acceptsValue( Value value )
+        {
+            if ( !(value instanceof PointValue) )
+            {
+                return false;
+            }
+            PointValue point = (PointValue) value;
+            if ( !crs.equals( point.getCoordinateReferenceSystem() ) )
+            {
+                return false;
+            }
+            double[] coordinate = point.coordinate();
+            if ( coordinate.length != dimension )
+            {
+                return false;
+            }
+            for ( int i = 0; i < dimension; i++ )
+            {
+                if ( from != null )
+                {
+                    double lower = from.coordinate()[i];
+                    if ( coordinate[i] < lower || !fromInclusive && coordinate[i] == lower )
+                    {
+                        return false;
+                    }
+                }
+                if ( to != null )
+                {
+                    double upper = to.coordinate()[i];
+                    if ( coordinate[i] > upper || !toInclusive && coordinate[i] == upper )
+                    {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public ValueGroup valueGroup()
+        {
+            return ValueGroup.GEOMETRY;
+        }
+
+        public CoordinateReferenceSystem crs()
+        {
+            return crs;
+        }
+
+        /**
+         * @return the lower corner of the box, or {@code null} if there is no lower bound.
+         */
+        public PointValue from()
+        {
+            return from;
+        }
+
+        /**
+         * @return the upper corner of the box, or {@code null} if there is no upper bound.
+         */
+        public PointValue to()
+        {
+            return to;
+        }
+
+        public boolean fromInclusive()
+        {
+            return fromInclusive;
+        }
+
+        public boolean toInclusive()
+        {
+            return toInclusive;
+        }
+    }
+
+    public static final class TemporalRangePredicate extends IndexQuery
+    {
+        private final Value from;
+        private final boolean fromInclusive;
+        private final Value to;
+        private final boolean toInclusive;
+        private final ValueGroup valueGroup;
+
+        TemporalRangePredicate( int propertyKeyId, Value from, boolean fromInclusive, Value to, boolean toInclusive )
+        {
+            super( propertyKeyId );
+            this.from = from == null ? Values.NO_VALUE : from;
+            this.fromInclusive = fromInclusive;
+            this.to = to == null ? Values.NO_VALUE : to;
+            this.toInclusive = toInclusive;
+            Value bound = this.from != Values.NO_VALUE ? this.from : this.to;
+            if ( bound == Values.NO_VALUE || !isTemporal( bound.valueGroup() ) )
+            {
+                throw new IllegalArgumentException( "A temporal range needs at least one temporal bound, got " + from + " and " + to );
+            }
+            if ( this.from != Values.NO_VALUE && this.to != Values.NO_VALUE && this.from.valueGroup() != this.to.valueGroup() )
+            {
+                throw new IllegalArgumentException( "The bounds of a temporal range must be of the same type, got " + from + " and " + to );
+            }
+            this.valueGroup = bound.valueGroup();
+        }
+
+        private static boolean isTemporal( ValueGroup valueGroup )
+        {
+            switch ( valueGroup )
+            {
+            case ZONED_DATE_TIME:
+            case LOCAL_DATE_TIME:
+            case DATE:
+            case ZONED_TIME:
+            case LOCAL_TIME:
+            case DURATION:
+                return true;
+            default:
+                return false;
+            }
+        }
+
+        @Override
+        public IndexQueryType type()
+        {
+            return IndexQueryType.rangeTemporal;
+        }
+
+        @Override
+        public boolean acceptsValue( Value value )
+        {
+            if ( value == null || value.valueGroup() != valueGroup )
+            {
+                return false;
+            }
+            if ( from != Values.NO_VALUE )
+            {
+                int compare = Values.COMPARATOR.compare( value, from );
+                if ( compare < 0 || !fromInclusive && compare == 0 )
+                {
+                    return false;
+                }
+            }
+            if ( to != Values.NO_VALUE )
+            {
+                int compare = Values.COMPARATOR.compare( value, to );
+                if ( compare > 0 || !toInclusive && compare == 0 )
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public ValueGroup valueGroup()
+        {
+            return valueGroup;
+        }
+
+        /**
+         * @return the lower bound, or {@link Values#NO_VALUE} if there is no lower bound.
+         */
+        public Value fromAsValue()
+        {
+            return from;
+        }
+
+        /**
+         * @return the upper bound, or {@link Values#NO_VALUE} if there is no upper bound.
+         */
+        public Value toAsValue()
+        {
+            return to;
+        }
+
+        public boolean fromInclusive()
+        {
+            return fromInclusive;
+        }
+
+        public boolean toInclusive()
+        {
+            return toInclusive;
+        }
+    }
+
     public abstract static class StringPredicate extends IndexQuery
     {
         StringPredicate( int propertyKeyId )
@@ -23,13 +23,21 @@ import org.junit.Test;
 
 import org.neo4j.internal.kernel.api.IndexQuery.ExactPredicate;
 import org.neo4j.internal.kernel.api.IndexQuery.ExistsPredicate;
+import org.neo4j.internal.kernel.api.IndexQuery.GeometryRangePredicate;
 import org.neo4j.internal.kernel.api.IndexQuery.NumberRangePredicate;
 import org.neo4j.internal.kernel.api.IndexQuery.StringContainsPredicate;
 import org.neo4j.internal.kernel.api.IndexQuery.StringPrefixPredicate;
 import org.neo4j.internal.kernel.api.IndexQuery.StringRangePredicate;
 import org.neo4j.internal.kernel.api.IndexQuery.StringSuffixPredicate;
+import org.neo4j.internal.kernel.api.IndexQuery.TemporalRangePredicate;
+import org.neo4j.values.storable.CoordinateReferenceSystem;
+import org.neo4j.values.storable.DateValue;
+import org.neo4j.values.storable.LocalTimeValue;
+import org.neo4j.values.storable.PointValue;
+import org.neo4j.values.storable.ValueGroup;
 import org.neo4j.values.storable.Values;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -168,6 +176,103 @@ public class IndexQueryTest
         assertFalse( test( p, 9007199254740992D ) );
     }
 
+    // GEOMETRY RANGE
+
+    @Test
+    public void testGeometryRange_FalseForIrrelevant()
+    {
+        GeometryRangePredicate p = IndexQuery.range( propId, cartesian( 1, 1 ), true, cartesian( 3, 3 ), true );
+
+        assertFalseForOtherThings( p );
+    }
+
+    @Test
+    public void testGeometryRange_InclusiveBox()
+    {
+        GeometryRangePredicate p = IndexQuery.range( propId, cartesian( 1, 1 ), true, cartesian( 3, 3 ), true );
+
+        assertTrue( p.acceptsValue( cartesian( 1, 1 ) ) );
+        assertTrue( p.acceptsValue( cartesian( 2, 3 ) ) );
+        assertTrue( p.acceptsValue( cartesian( 3, 3 ) ) );
+        assertFalse( p.acceptsValue( cartesian( 0, 2 ) ) );
+        assertFalse( p.acceptsValue( cartesian( 2, 4 ) ) );
+    }
+
+    @Test
+    public void testGeometryRange_ExclusiveBox()
+    {
+        GeometryRangePredicate p = IndexQuery.range( propId, cartesian( 1, 1 ), false, cartesian( 3, 3 ), false );
+
+        assertFalse( p.acceptsValue( cartesian( 1, 2 ) ) );
+        assertTrue( p.acceptsValue( cartesian( 2, 2 ) ) );
+        assertFalse( p.acceptsValue( cartesian( 2, 3 ) ) );
+    }
+
+    @Test
+    public void testGeometryRange_UpperNullValue()
+    {
+        GeometryRangePredicate p = IndexQuery.range( propId, cartesian( 1, 1 ), true, null, true );
+
+        assertTrue( p.acceptsValue( cartesian( 1, 1 ) ) );
+        assertTrue( p.acceptsValue( cartesian( 100, 1000 ) ) );
+        assertFalse( p.acceptsValue( cartesian( 0, 1000 ) ) );
+    }
+
+    @Test
+    public void testGeometryRange_OtherCoordinateReferenceSystemOrDimension()
+    {
+        GeometryRangePredicate p = IndexQuery.range( propId, cartesian( -10, -10 ), true, cartesian( 10, 10 ), true );
+
+        assertFalse( p.acceptsValue( Values.pointValue( CoordinateReferenceSystem.WGS84, 1, 1 ) ) );
+        assertFalse( p.acceptsValue( Values.pointValue( CoordinateReferenceSystem.Cartesian, 1, 1, 1 ) ) );
+    }
+
+    // TEMPORAL RANGE
+
+    @Test
+    public void testTemporalRange_FalseForIrrelevant()
+    {
+        TemporalRangePredicate p = IndexQuery.range( propId, date( 10 ), true, date( 20 ), true );
+
+        assertFalseForOtherThings( p );
+    }
+
+    @Test
+    public void testTemporalRange_InclusiveLowerExclusiveUpper()
+    {
+        TemporalRangePredicate p = IndexQuery.range( propId, date( 10 ), true, date( 20 ), false );
+
+        assertFalse( p.acceptsValue( date( 9 ) ) );
+        assertTrue( p.acceptsValue( date( 10 ) ) );
+        assertTrue( p.acceptsValue( date( 19 ) ) );
+        assertFalse( p.acceptsValue( date( 20 ) ) );
+    }
+
+    @Test
+    public void testTemporalRange_LowerNullValue()
+    {
+        TemporalRangePredicate p = IndexQuery.range( propId, null, true, date( 20 ), true );
+
+        assertTrue( p.acceptsValue( date( -100_000 ) ) );
+        assertTrue( p.acceptsValue( date( 20 ) ) );
+        assertFalse( p.acceptsValue( date( 21 ) ) );
+    }
+
+    @Test
+    public void testTemporalRange_OtherTemporalType()
+    {
+        TemporalRangePredicate p = IndexQuery.range( propId, date( 10 ), true, date( 20 ), true );
+
+        assertEquals( ValueGroup.DATE, p.valueGroup() );
+        assertFalse( p.acceptsValue( LocalTimeValue.localTime( 15 ) ) );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void testTemporalRange_BoundsOfDifferentTypes()
+    {
+        IndexQuery.range( propId, date( 10 ), true, LocalTimeValue.localTime( 15 ), true );
+    }
+
     // STRING RANGE
 
     @Test
@@ -324,6 +429,16 @@ public class IndexQueryTest
         assertFalse( test( p, null ) );
     }
 
+    private static DateValue date( long epochDay )
+    {
+        return DateValue.epochDate( epochDay );
+    }
+
+    private static PointValue cartesian( double x, double y )
+    {
+        return Values.pointValue( CoordinateReferenceSystem.Cartesian, x, y );
+    }
+
     private boolean test( IndexQuery p, Object x )
     {
         return p.acceptsValue( Values.of( x ) );
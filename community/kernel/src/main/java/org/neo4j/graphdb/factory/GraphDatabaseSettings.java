@@ -436,6 +436,22 @@ public class GraphDatabaseSettings implements LoadableConfig
                   "Set this to -1 to disable the IOPS limit." )
     public static final Setting<Integer> check_point_iops_limit = setting( "dbms.checkpoint.iops.limit", INTEGER, "300" );
 
+    @Description( "Flush dirty pages to the store files in the background every time this many bytes have been " +
+                  "appended to the transaction log, instead of leaving all of them to the next check point. The " +
+                  "background flushing is limited by dbms.checkpoint.iops.limit, which spreads the IO over time " +
+                  "and leaves less work for check points. The default, 0, disables background flushing." )
+    @Internal
+    public static final Setting<Long> check_point_background_flush_log_size =
+            buildSetting( "unsupported.dbms.checkpoint.background_flush.log_size", BYTES, "0" ).constraint( min( 0L ) ).build();
+
+    @Description( "The number of threads that apply recovered transactions to the store files in parallel, after a " +
+                  "crash. Changes to different records are applied concurrently, while changes to the same record " +
+                  "are applied in transaction order. If set to 0, then one thread per available processor is used. " +
+                  "The default is to recover using a single thread." )
+    @Internal
+    public static final Setting<Integer> recovery_parallelism =
+            buildSetting( "unsupported.dbms.recovery.parallelism", INTEGER, "1" ).constraint( min( 0 ) ).build();
+
     // Auto Indexing
     @Description( "Controls the auto indexing feature for nodes. Setting it to `false` shuts it down, " +
             "while `true` enables it by default for properties listed in the dbms.auto_index.nodes.keys setting." )
@@ -489,6 +505,15 @@ public class GraphDatabaseSettings implements LoadableConfig
     public static final Setting<Integer> index_sampling_update_percentage =
             buildSetting( "dbms.index_sampling.update_percentage", INTEGER, "5" ).constraint( min( 0 ) ).build();
 
+    @Description( "The interval at which the label scan store and the native schema indexes are compacted in the " +
+                  "background. Compaction merges leaves that deletes have left sparse, so that the freed pages are " +
+                  "reused as the indexes grow and scans read fewer pages. The compaction is limited by " +
+                  "dbms.checkpoint.iops.limit. Set this to 0 to disable background compaction." )
+    @Internal
+    public static final Setting<Duration> index_compaction_interval =
+            buildSetting( "unsupported.dbms.index.compaction.interval", DURATION, "1h" )
+                    .constraint( min( Duration.ZERO ) ).build();
+
     // Lucene settings
     @Description( "The maximum number of open Lucene index searchers." )
     public static Setting<Integer> lucene_searcher_cache_size = buildSetting( "dbms.index_searcher_cache_size",INTEGER,
@@ -528,6 +553,30 @@ public class GraphDatabaseSettings implements LoadableConfig
     public static final Setting<Long> logical_log_rotation_threshold =
             buildSetting( "dbms.tx_log.rotation.size", BYTES, "250M" ).constraint( min( ByteUnit.mebiBytes( 1 ) ) ).build();
 
+    @Description( "The longest time a committing transaction may wait for other transactions to commit, so that " +
+                  "all of them are made durable by the same force of the transaction log. The wait adapts to the " +
+                  "load: there is no wait unless transactions commit concurrently, and it is never longer than half " +
+                  "the time a force takes. The default, 0, disables waiting." )
+    @Internal
+    public static final Setting<Duration> group_commit_max_wait =
+            buildSetting( "unsupported.dbms.tx_log.group_commit.max_wait", DURATION, "0ms" )
+                    .constraint( min( Duration.ZERO ) ).build();
+
+    @Description( "The number of transactions to make durable by the same force of the transaction log, after which " +
+                  "a committing transaction stops waiting for others, see unsupported.dbms.tx_log.group_commit.max_wait." )
+    @Internal
+    public static final Setting<Integer> group_commit_target_batch_size =
+            buildSetting( "unsupported.dbms.tx_log.group_commit.target_batch_size", INTEGER, "16" )
+                    .constraint( min( 1 ) ).build();
+
+    @Description( "Compress the transaction log files that are only kept because of the retention policy, i.e. all " +
+                  "log files before the one the last checkpoint points to, after each checkpoint. Compressed log " +
+                  "files are read as usual, by backups, by instances catching up and by tools, but are never " +
+                  "written to, nor needed by recovery." )
+    @Internal
+    public static final Setting<Boolean> tx_log_compression =
+            setting( "unsupported.dbms.tx_log.compression", BOOLEAN, FALSE );
+
     @Description( "Use a quick approach for rebuilding the ID generators. This give quicker recovery time, " +
             "but will limit the ability to reuse the space of deleted entities." )
     @Internal
@@ -557,6 +606,86 @@ public class GraphDatabaseSettings implements LoadableConfig
     public static final Setting<String> pagecache_swapper =
             setting( "dbms.memory.pagecache.swapper", STRING, null );
 
+    @Description( "Specify which algorithm the page cache uses to pick the pages to evict, when it needs to make room " +
+                  "for other pages. The built-in algorithms are `lfu`, `lru`, `lru-k`, `2q`, `w-tinylfu` " +
+                  "and `clock`. The `w-tinylfu` algorithm keeps pages that are only touched once, for instance by " +
+                  "store scans, from pushing frequently used pages out of the cache. Other " +
+                  "algorithms can be plugged in as services, and are selected by their implementation name." )
+    public static final Setting<String> pagecache_eviction_algorithm =
+            setting( "dbms.memory.pagecache.eviction_algorithm", STRING, "lfu" );
+
+    @Description( "The number of most recent references the `lru-k` page cache eviction algorithm remembers for " +
+                  "every page. Pages are evicted by the age of their K'th most recent reference." )
+    @Internal
+    public static final Setting<Integer> pagecache_eviction_lru_k =
+            buildSetting( "unsupported.dbms.memory.pagecache.eviction_algorithm.lru_k.k", INTEGER, "2" )
+                    .constraint( range( 1, 16 ) ).build();
+
+    @Description( "The share of the page cache that the A1in queue of the `2q` page cache eviction algorithm may " +
+                  "hold. Pages that are only referenced once are evicted from this queue." )
+    @Internal
+    public static final Setting<Double> pagecache_eviction_2q_a1in =
+            buildSetting( "unsupported.dbms.memory.pagecache.eviction_algorithm.2q.a1in", DOUBLE, "0.25" )
+                    .constraint( range( 0.01, 0.99 ) ).build();
+
+    @Description( "The number of evicted pages that the A1out queue of the `2q` page cache eviction algorithm " +
+                  "remembers, relative to the number of pages in the page cache. Pages that are faulted in again " +
+                  "while they are remembered are considered hot." )
+    @Internal
+    public static final Setting<Double> pagecache_eviction_2q_a1out =
+            buildSetting( "unsupported.dbms.memory.pagecache.eviction_algorithm.2q.a1out", DOUBLE, "0.5" )
+                    .constraint( range( 0.0, 4.0 ) ).build();
+
+    @Description( "The share of the page cache in the new section of the `lfu` page cache eviction algorithm. " +
+                  "References to pages in the new section do not count towards their frequency." )
+    @Internal
+    public static final Setting<Double> pagecache_eviction_lfu_new_section =
+            buildSetting( "unsupported.dbms.memory.pagecache.eviction_algorithm.lfu.new_section", DOUBLE, "0.33" )
+                    .constraint( range( 0.0, 0.49 ) ).build();
+
+    @Description( "The share of the page cache in the old section of the `lfu` page cache eviction algorithm. " +
+                  "Pages are evicted from the old section, by how often they have been referenced." )
+    @Internal
+    public static final Setting<Double> pagecache_eviction_lfu_old_section =
+            buildSetting( "unsupported.dbms.memory.pagecache.eviction_algorithm.lfu.old_section", DOUBLE, "0.33" )
+                    .constraint( range( 0.01, 0.5 ) ).build();
+
+    @Description( "The share of the page cache in the admission window of the `w-tinylfu` page cache eviction " +
+                  "algorithm. Newly loaded pages must be referenced more often than the pages in the main part of " +
+                  "the cache, to be admitted from the window into the main part." )
+    @Internal
+    public static final Setting<Double> pagecache_eviction_tinylfu_window =
+            buildSetting( "unsupported.dbms.memory.pagecache.eviction_algorithm.w_tinylfu.window", DOUBLE, "0.01" )
+                    .constraint( range( 0.001, 0.5 ) ).build();
+
+    @Description( "The number of partitions that the pages of the page cache are split into. Every partition has its " +
+                  "own free list, eviction thread and instance of the eviction algorithm, so page faults and " +
+                  "evictions in different partitions do not contend with each other. Partitions are never made " +
+                  "smaller than 1024 pages, so small page caches get fewer partitions than this." )
+    @Internal
+    public static final Setting<Integer> pagecache_partitions =
+            buildSetting( "unsupported.dbms.memory.pagecache.partitions", INTEGER, "1" )
+                    .constraint( range( 1, 256 ) ).build();
+
+    @Description( "Page cache warmup. Periodically, a profile of the pages that are in the " +
+                  "page cache is written next to every mapped store file. When the database starts, the pages in " +
+                  "the profiles are loaded back into the page cache in the background, so the database does not " +
+                  "have to warm up again through slow page faults." )
+    public static final Setting<Boolean> pagecache_warmup_enabled =
+            setting( "dbms.memory.pagecache.warmup.enable", BOOLEAN, TRUE );
+
+    @Description( "The interval at which the profiles of the pages that are in the page cache are written, " +
+                  "for warming the page cache up after a restart." )
+    public static final Setting<Duration> pagecache_warmup_profiling_interval =
+            setting( "dbms.memory.pagecache.warmup.profile.interval", DURATION, "1m" );
+
+    @Description( "The number of threads that load pages into the page cache in parallel when warming it up. " +
+                  "If set to 0, then one thread per available processor is used." )
+    @Internal
+    public static final Setting<Integer> pagecache_warmup_parallelism =
+            buildSetting( "unsupported.dbms.memory.pagecache.warmup.parallelism", INTEGER, "0" )
+                    .constraint( min( 0 ) ).build();
+
     /**
      * Block size properties values depends from selected record format.
      * We can't figured out record format until it will be selected by corresponding edition.
@@ -64,6 +64,7 @@ import org.neo4j.kernel.impl.api.StateHandlingStatementOperations;
 import org.neo4j.kernel.impl.api.StatementOperationParts;
 import org.neo4j.kernel.impl.api.TransactionCommitProcess;
 import org.neo4j.kernel.impl.api.TransactionHooks;
+import org.neo4j.kernel.impl.api.index.IndexCompactionScheduler;
 import org.neo4j.kernel.impl.api.index.IndexingService;
 import org.neo4j.kernel.impl.api.index.SchemaIndexProviderMap;
 import org.neo4j.kernel.impl.api.operations.QueryRegistrationOperations;
@@ -84,6 +85,7 @@ import org.neo4j.kernel.impl.locking.StatementLocksFactory;
 import org.neo4j.kernel.impl.logging.LogService;
 import org.neo4j.kernel.impl.newapi.KernelToken;
 import org.neo4j.kernel.impl.newapi.DefaultCursors;
+import org.neo4j.kernel.impl.pagecache.PageCacheWarmer;
 import org.neo4j.kernel.impl.proc.Procedures;
 import org.neo4j.kernel.impl.storageengine.impl.recordstorage.RecordStorageEngine;
 import org.neo4j.kernel.impl.storageengine.impl.recordstorage.id.IdController;
@@ -99,6 +101,7 @@ import org.neo4j.kernel.impl.storemigration.participant.StoreMigrator;
 import org.neo4j.kernel.impl.transaction.TransactionHeaderInformationFactory;
 import org.neo4j.kernel.impl.transaction.TransactionMonitor;
 import org.neo4j.kernel.impl.transaction.log.BatchingTransactionAppender;
+import org.neo4j.kernel.impl.transaction.log.GroupCommitPolicy;
 import org.neo4j.kernel.impl.transaction.log.LogVersionRepository;
 import org.neo4j.kernel.impl.transaction.log.LogVersionUpgradeChecker;
 import org.neo4j.kernel.impl.transaction.log.LoggingLogFileMonitor;
@@ -108,6 +111,7 @@ import org.neo4j.kernel.impl.transaction.log.ReadableClosablePositionAwareChanne
 import org.neo4j.kernel.impl.transaction.log.TransactionAppender;
 import org.neo4j.kernel.impl.transaction.log.TransactionIdStore;
 import org.neo4j.kernel.impl.transaction.log.TransactionMetadataCache;
+import org.neo4j.kernel.impl.transaction.log.checkpoint.BackgroundFlusher;
 import org.neo4j.kernel.impl.transaction.log.checkpoint.CheckPointScheduler;
 import org.neo4j.kernel.impl.transaction.log.checkpoint.CheckPointThreshold;
 import org.neo4j.kernel.impl.transaction.log.checkpoint.CheckPointerImpl;
@@ -431,6 +435,7 @@ public class NeoStoreDataSource implements Lifecycle, IndexProviders
 
             TransactionIdStore transactionIdStore = dependencies.resolveDependency( TransactionIdStore.class );
             LogVersionRepository logVersionRepository = dependencies.resolveDependency( LogVersionRepository.class );
+            PageCacheWarmer pageCacheWarmer = new PageCacheWarmer( fs, pageCache, scheduler, config, logProvider );
             NeoStoreTransactionLogModule transactionLogModule = buildTransactionLogs( logFiles, config, logProvider,
                     scheduler, storageEngine, logEntryReader, explicitIndexTransactionOrdering, transactionIdStore );
             transactionLogModule.satisfyDependencies(dependencies);
@@ -463,6 +468,18 @@ public class NeoStoreDataSource implements Lifecycle, IndexProviders
 
             kernelModule.satisfyDependencies( dependencies );
 
+            // The page cache is warmed up once all the store and index files have been mapped.
+            life.add( pageCacheWarmer );
+
+            if ( !readOnly )
+            {
+                // Stopped before the storage engine, which closes the indexes, and before the check point on shutdown
+                life.add( new IndexCompactionScheduler( dependencies.resolveDependency( LabelScanStore.class ),
+                        dependencies.resolveDependency( IndexingService.class ), ioLimiter, scheduler,
+                        config.get( GraphDatabaseSettings.index_compaction_interval ).toMillis(), databaseHealth,
+                        logProvider ) );
+            }
+
             // Do these assignments last so that we can ensure no cyclical dependencies exist
             this.storageEngine = storageEngine;
             this.transactionLogModule = transactionLogModule;
@@ -585,14 +602,17 @@ public class NeoStoreDataSource implements Lifecycle, IndexProviders
             config.augmentDefaults( GraphDatabaseSettings.keep_logical_logs, "1 files" );
         }
 
-        final LogPruning logPruning = new LogPruningImpl( fs, logFiles, logProvider, new LogPruneStrategyFactory(), clock, config );
+        final LogPruning logPruning = new LogPruningImpl( fs, logFiles, logProvider, new LogPruneStrategyFactory(), clock,
+                config, scheduler, storeCopyCheckPointMutex );
 
         final LogRotation logRotation =
                 new LogRotationImpl( monitors.newMonitor( LogRotation.Monitor.class ), logFiles, databaseHealth );
 
         final TransactionAppender appender = life.add( new BatchingTransactionAppender(
                 logFiles, logRotation, transactionMetadataCache, transactionIdStore, explicitIndexTransactionOrdering,
-                databaseHealth ) );
+                databaseHealth, new GroupCommitPolicy(
+                        config.get( GraphDatabaseSettings.group_commit_max_wait ).toNanos(),
+                        config.get( GraphDatabaseSettings.group_commit_target_batch_size ) ) ) );
         final LogicalTransactionStore logicalTransactionStore =
                 new PhysicalLogicalTransactionStore( logFiles, transactionMetadataCache, logEntryReader, monitors,
                         failOnCorruptedLogFiles );
@@ -609,6 +629,9 @@ public class NeoStoreDataSource implements Lifecycle, IndexProviders
 
         life.add( checkPointer );
         life.add( checkPointScheduler );
+        life.add( new BackgroundFlusher( pageCache, transactionIdStore, ioLimiter, scheduler,
+                config.get( GraphDatabaseSettings.check_point_background_flush_log_size ),
+                config.get( GraphDatabaseSettings.logical_log_rotation_threshold ), databaseHealth, logProvider ) );
 
         return new NeoStoreTransactionLogModule( logicalTransactionStore, logFiles,
                 logRotation, checkPointer, appender, explicitIndexTransactionOrdering );
@@ -626,8 +649,9 @@ public class NeoStoreDataSource implements Lifecycle, IndexProviders
             LogicalTransactionStore logicalTransactionStore,
             LogVersionRepository logVersionRepository )
     {
+        boolean parallelRecovery = RecordStorageEngine.recoveryParallelism( config ) > 1;
         RecoveryService recoveryService = new DefaultRecoveryService( storageEngine, tailScanner, transactionIdStore,
-                logicalTransactionStore, logVersionRepository, positionMonitor );
+                logicalTransactionStore, logVersionRepository, positionMonitor, parallelRecovery );
         CorruptedLogsTruncator logsTruncator = new CorruptedLogsTruncator( storeDir, logFiles, fileSystemAbstraction );
         ProgressReporter progressReporter = new LogProgressReporter( logService.getInternalLog( Recovery.class ) );
         Recovery recovery = new Recovery( recoveryService, startupStatistics, logsTruncator, recoveryMonitor,
@@ -26,6 +26,7 @@ import java.util.Iterator;
 
 import org.neo4j.graphdb.ResourceIterator;
 import org.neo4j.helpers.collection.BoundedIterable;
+import org.neo4j.io.pagecache.IOLimiter;
 import org.neo4j.kernel.api.exceptions.index.IndexEntryConflictException;
 import org.neo4j.kernel.impl.api.index.IndexUpdateMode;
 import org.neo4j.kernel.impl.api.index.updater.SwallowingIndexUpdater;
@@ -57,6 +58,19 @@ public interface IndexAccessor extends Closeable
      */
     IndexUpdater newUpdater( IndexUpdateMode mode );
 
+    /**
+     * Whether or not several {@link #newUpdater(IndexUpdateMode) updaters} of this index can be open, and applying
+     * updates, at the same time. Committing transactions apply their updates to indexes that can take them straight
+     * away, instead of handing them to a single thread that applies the updates of all transactions, one batch at
+     * a time.
+     *
+     * @return {@code true} if updaters of this index can be used concurrently from several threads.
+     */
+    default boolean supportsConcurrentUpdaters()
+    {
+        return false;
+    }
+
     /**
      * Forces this index to disk. Called at certain points from within Neo4j for example when
      * rotating the logical log. After completion of this call there cannot be any essential state that
@@ -66,6 +80,18 @@ public interface IndexAccessor extends Closeable
      */
     void force() throws IOException;
 
+    /**
+     * Compacts this index online, giving space left unused by removed entries back to the index, for reuse by
+     * entries added later. Concurrent readers and updaters are not affected, other than by the I/O the compaction
+     * does. Indexes that don't need compaction do nothing.
+     *
+     * @param ioLimiter for controlling the I/O done by the compaction.
+     * @throws IOException if there was a problem compacting the index.
+     */
+    default void compact( IOLimiter ioLimiter ) throws IOException
+    {
+    }
+
     /**
      * Refreshes this index, so that {@link #newReader() readers} created after completion of this call
      * will see the latest updates. This happens automatically on closing {@link #newUpdater(IndexUpdateMode)}
@@ -203,12 +229,24 @@ public interface IndexAccessor extends Closeable
             return delegate.newUpdater( mode );
         }
 
+        @Override
+        public boolean supportsConcurrentUpdaters()
+        {
+            return delegate.supportsConcurrentUpdaters();
+        }
+
         @Override
         public void force() throws IOException
         {
             delegate.force();
         }
 
+        @Override
+        public void compact( IOLimiter ioLimiter ) throws IOException
+        {
+            delegate.compact( ioLimiter );
+        }
+
         @Override
         public void refresh() throws IOException
         {
@@ -116,6 +116,15 @@ public interface LabelScanStore extends Lifecycle
      */
     void force( IOLimiter limiter ) throws UnderlyingStorageException;
 
+    /**
+     * Compacts this store online, giving space left unused by removed labels back to the store, for reuse by labels
+     * added later. Readers and writers are not affected, other than by the I/O the compaction does.
+     *
+     * @param limiter for controlling the I/O done by the compaction.
+     * @throws UnderlyingStorageException if there was a problem compacting the store.
+     */
+    void compact( IOLimiter limiter ) throws UnderlyingStorageException;
+
     /**
      * Acquire a reader for all {@link NodeLabelRange node label} ranges.
      *
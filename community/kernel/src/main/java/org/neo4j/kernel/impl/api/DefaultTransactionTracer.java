@@ -21,6 +21,7 @@ package org.neo4j.kernel.impl.api;
 
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 import org.neo4j.kernel.impl.transaction.tracing.CommitEvent;
 import org.neo4j.kernel.impl.transaction.tracing.LogAppendEvent;
@@ -35,7 +36,7 @@ import org.neo4j.scheduler.JobScheduler;
 import org.neo4j.time.Clocks;
 import org.neo4j.time.SystemNanoClock;
 
-public class DefaultTransactionTracer implements TransactionTracer, LogRotationMonitor
+public class DefaultTransactionTracer implements TransactionTracer, LogRotationMonitor, LogForceMonitor
 {
     public interface Monitor
     {
@@ -48,11 +49,30 @@ public class DefaultTransactionTracer implements TransactionTracer, LogRotationM
 
     private final AtomicLong counter = new AtomicLong();
     private final AtomicLong accumulatedTotalTimeNanos = new AtomicLong();
+    private final AtomicLong logForces = new AtomicLong();
+    private final AtomicLong forcedAppends = new AtomicLong();
+    private final AtomicLongArray logForcesPerBatchSizeBucket = new AtomicLongArray( BATCH_SIZE_BUCKETS );
 
     private long startTimeNanos;
 
     private final LogRotateEvent logRotateEvent = this::updateCountersAndNotifyListeners;
 
+    private final LogForceEvent logForceEvent = new LogForceEvent()
+    {
+        @Override
+        public void setBatchSize( int batchSize )
+        {
+            logForces.incrementAndGet();
+            forcedAppends.addAndGet( batchSize );
+            logForcesPerBatchSizeBucket.incrementAndGet( LogForceMonitor.batchSizeBucket( batchSize ) );
+        }
+
+        @Override
+        public void close()
+        {
+        }
+    };
+
     private final LogAppendEvent logAppendEvent = new LogAppendEvent()
     {
         @Override
@@ -88,7 +108,7 @@ public class DefaultTransactionTracer implements TransactionTracer, LogRotationM
         @Override
         public LogForceEvent beginLogForce()
         {
-            return LogForceEvent.NULL;
+            return logForceEvent;
         }
     };
 
@@ -177,6 +197,24 @@ public class DefaultTransactionTracer implements TransactionTracer, LogRotationM
         return TimeUnit.NANOSECONDS.toMillis( accumulatedTotalTimeNanos.get() );
     }
 
+    @Override
+    public long numberOfLogForces()
+    {
+        return logForces.get();
+    }
+
+    @Override
+    public long numberOfForcedAppends()
+    {
+        return forcedAppends.get();
+    }
+
+    @Override
+    public long numberOfLogForcesInBatchSizeBucket( int bucket )
+    {
+        return logForcesPerBatchSizeBucket.get( bucket );
+    }
+
     private void updateCountersAndNotifyListeners()
     {
         counter.incrementAndGet();
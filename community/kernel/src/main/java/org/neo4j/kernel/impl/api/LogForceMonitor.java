@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api;
+
+/**
+ * Statistics about the forces of the transaction log, in particular how many appends each force batched together.
+ * Batch sizes are kept as a histogram, where bucket {@code i} counts the forces of batches of at least
+ * {@link #batchSizeLowerBound(int) 2^i} appends, and the last bucket counts all forces of larger batches.
+ */
+public interface LogForceMonitor
+{
+    int BATCH_SIZE_BUCKETS = 8;
+
+    long numberOfLogForces();
+
+    long numberOfForcedAppends();
+
+    long numberOfLogForcesInBatchSizeBucket( int bucket );
+
+    static int batchSizeBucket( int batchSize )
+    {
+        return Math.min( 31 - Integer.numberOfLeadingZeros( Math.max( batchSize, 1 ) ), BATCH_SIZE_BUCKETS - 1 );
+    }
+
+    static int batchSizeLowerBound( int bucket )
+    {
+        return 1 << bucket;
+    }
+
+    LogForceMonitor NULL = new LogForceMonitor()
+    {
+        @Override
+        public long numberOfLogForces()
+        {
+            return 0;
+        }
+
+        @Override
+        public long numberOfForcedAppends()
+        {
+            return 0;
+        }
+
+        @Override
+        public long numberOfLogForcesInBatchSizeBucket( int bucket )
+        {
+            return 0;
+        }
+    };
+}
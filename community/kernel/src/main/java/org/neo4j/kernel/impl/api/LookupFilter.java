@@ -59,18 +59,15 @@ public class LookupFilter
             return indexedNodeIds;
         }
 
-        IndexQuery[] numericPredicates =
-                Arrays.stream( predicates )
-                        .filter( LookupFilter::isNumericPredicate )
-                        .toArray( IndexQuery[]::new );
+        IndexQuery[] filterPredicates = filteredPredicates( predicates );
 
-        if ( numericPredicates.length > 0 )
+        if ( filterPredicates.length > 0 )
         {
             LongPredicate combinedPredicate = nodeId ->
             {
                 try
                 {
-                    for ( IndexQuery predicate : numericPredicates )
+                    for ( IndexQuery predicate : filterPredicates )
                     {
                         int propertyKeyId = predicate.propertyKeyId();
                         Value value = accessor.getPropertyValue( nodeId, propertyKeyId );
@@ -110,19 +107,16 @@ public class LookupFilter
             return indexedNodeIds;
         }
 
-        IndexQuery[] numericPredicates =
-                Arrays.stream( predicates )
-                        .filter( LookupFilter::isNumericPredicate )
-                        .toArray( IndexQuery[]::new );
+        IndexQuery[] filterPredicates = filteredPredicates( predicates );
 
-        if ( numericPredicates.length > 0 )
+        if ( filterPredicates.length > 0 )
         {
             LongPredicate combinedPredicate = nodeId ->
             {
                 try ( Cursor<NodeItem> node = operations.nodeCursorById( state, nodeId ) )
                 {
                     NodeItem nodeItem = node.get();
-                    for ( IndexQuery predicate : numericPredicates )
+                    for ( IndexQuery predicate : filterPredicates )
                     {
                         int propertyKeyId = predicate.propertyKeyId();
                         Value value = operations.nodeGetProperty( state, nodeItem, propertyKeyId );
@@ -144,6 +138,18 @@ public class LookupFilter
         return indexedNodeIds;
     }
 
+    private static IndexQuery[] filteredPredicates( IndexQuery[] predicates )
+    {
+        if ( predicates.length > 1 && !StateHandlingStatementOperations.onlyExactPredicates( predicates ) )
+        {
+            // Composite indexes that can not seek a range on the last property return a scan of all entries as candidates
+            return predicates;
+        }
+        return Arrays.stream( predicates )
+                .filter( LookupFilter::isNumericPredicate )
+                .toArray( IndexQuery[]::new );
+    }
+
     private static boolean isNumericPredicate( IndexQuery predicate )
     {
 
@@ -159,6 +165,16 @@ public class LookupFilter
         {
             return true;
         }
+        else if ( predicate.type() == IndexQuery.IndexQueryType.rangeGeometric )
+        {
+            // Coordinates are numbers too, and indexes that can not seek points by range return all points as candidates
+            return true;
+        }
+        else if ( predicate.type() == IndexQuery.IndexQueryType.rangeTemporal )
+        {
+            // Indexes that can not seek temporal values by range return all entries as candidates
+            return true;
+        }
         return false;
     }
 
@@ -866,6 +866,10 @@ public class StateHandlingStatementOperations implements
         switch ( firstPredicate.type() )
         {
         case exact:
+            if ( !onlyExactPredicates( predicates ) )
+            {
+                return filterIndexStateChangesForCompositeRangeSeek( state, index, predicates, exactMatches );
+            }
             IndexQuery.ExactPredicate[] exactPreds = assertOnlyExactPredicates( predicates );
             return filterIndexStateChangesForSeek( state, exactMatches, index, IndexQuery.asValueTuple( exactPreds ) );
 
@@ -894,11 +898,35 @@ public class StateHandlingStatementOperations implements
             IndexQuery.StringPrefixPredicate strPred = (IndexQuery.StringPrefixPredicate) firstPredicate;
             return filterIndexStateChangesForRangeSeekByPrefix( state, index, strPred.prefix(), committed );
         }
+        case rangeGeometric:
+        {
+            assertSinglePredicate( predicates );
+            IndexQuery.GeometryRangePredicate geometryPred = (IndexQuery.GeometryRangePredicate) firstPredicate;
+            return filterIndexStateChangesForRangeSeekByGeometry( state, index, geometryPred, exactMatches );
+        }
+        case rangeTemporal:
+        {
+            assertSinglePredicate( predicates );
+            IndexQuery.TemporalRangePredicate temporalPred = (IndexQuery.TemporalRangePredicate) firstPredicate;
+            return filterIndexStateChangesForRangeSeekByTemporal( state, index, temporalPred, exactMatches );
+        }
         default:
             throw new UnsupportedOperationException( "Query not supported: " + Arrays.toString( predicates ) );
         }
     }
 
+    public static boolean onlyExactPredicates( IndexQuery[] predicates )
+    {
+        for ( IndexQuery predicate : predicates )
+        {
+            if ( predicate.type() != IndexQuery.IndexQueryType.exact )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public static IndexQuery.ExactPredicate[] assertOnlyExactPredicates( IndexQuery[] predicates )
     {
         IndexQuery.ExactPredicate[] exactPredicates;
@@ -1031,6 +1059,54 @@ public class StateHandlingStatementOperations implements
         return nodeIds;
     }
 
+    private PrimitiveLongResourceIterator filterIndexStateChangesForRangeSeekByGeometry( KernelStatement state,
+            IndexDescriptor index, IndexQuery.GeometryRangePredicate range, PrimitiveLongResourceIterator nodeIds )
+    {
+        if ( state.hasTxStateWithChanges() )
+        {
+            TransactionState txState = state.txState();
+            PrimitiveLongReadableDiffSets labelPropertyChangesForGeometry =
+                    txState.indexUpdatesForRangeSeekByGeometry( index, range );
+            ReadableDiffSets<Long> nodes = txState.addedAndRemovedNodes();
+
+            // Apply to actual index lookup
+            return nodes.augmentWithRemovals( labelPropertyChangesForGeometry.augment( nodeIds ) );
+        }
+        return nodeIds;
+    }
+
+    private PrimitiveLongResourceIterator filterIndexStateChangesForRangeSeekByTemporal( KernelStatement state,
+            IndexDescriptor index, IndexQuery.TemporalRangePredicate range, PrimitiveLongResourceIterator nodeIds )
+    {
+        if ( state.hasTxStateWithChanges() )
+        {
+            TransactionState txState = state.txState();
+            PrimitiveLongReadableDiffSets labelPropertyChangesForTemporal =
+                    txState.indexUpdatesForRangeSeekByTemporal( index, range );
+            ReadableDiffSets<Long> nodes = txState.addedAndRemovedNodes();
+
+            // Apply to actual index lookup
+            return nodes.augmentWithRemovals( labelPropertyChangesForTemporal.augment( nodeIds ) );
+        }
+        return nodeIds;
+    }
+
+    private PrimitiveLongResourceIterator filterIndexStateChangesForCompositeRangeSeek( KernelStatement state,
+            IndexDescriptor index, IndexQuery[] predicates, PrimitiveLongResourceIterator nodeIds )
+    {
+        if ( state.hasTxStateWithChanges() )
+        {
+            TransactionState txState = state.txState();
+            PrimitiveLongReadableDiffSets labelPropertyChangesForComposite =
+                    txState.indexUpdatesForCompositeRangeSeek( index, predicates );
+            ReadableDiffSets<Long> nodes = txState.addedAndRemovedNodes();
+
+            // Apply to actual index lookup
+            return nodes.augmentWithRemovals( labelPropertyChangesForComposite.augment( nodeIds ) );
+        }
+        return nodeIds;
+    }
+
     @Override
     public Value nodeSetProperty( KernelStatement state, long nodeId, int propertyKeyId, Value value )
             throws EntityNotFoundException, InvalidTransactionTypeKernelException, AutoIndexingKernelException
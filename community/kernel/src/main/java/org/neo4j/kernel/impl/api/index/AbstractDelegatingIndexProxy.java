@@ -27,6 +27,7 @@ import org.neo4j.graphdb.ResourceIterator;
 import org.neo4j.internal.kernel.api.IndexCapability;
 import org.neo4j.internal.kernel.api.InternalIndexState;
 import org.neo4j.internal.kernel.api.schema.LabelSchemaDescriptor;
+import org.neo4j.io.pagecache.IOLimiter;
 import org.neo4j.kernel.api.exceptions.index.IndexActivationFailedKernelException;
 import org.neo4j.kernel.api.exceptions.index.IndexEntryConflictException;
 import org.neo4j.kernel.api.exceptions.index.IndexNotFoundKernelException;
@@ -55,6 +56,12 @@ public abstract class AbstractDelegatingIndexProxy implements IndexProxy
         return getDelegate().newUpdater( mode );
     }
 
+    @Override
+    public boolean supportsConcurrentUpdaters()
+    {
+        return getDelegate().supportsConcurrentUpdaters();
+    }
+
     @Override
     public Future<Void> drop() throws IOException
     {
@@ -97,6 +104,12 @@ public abstract class AbstractDelegatingIndexProxy implements IndexProxy
         getDelegate().force();
     }
 
+    @Override
+    public void compact( IOLimiter ioLimiter ) throws IOException
+    {
+        getDelegate().compact( ioLimiter );
+    }
+
     @Override
     public void refresh() throws IOException
     {
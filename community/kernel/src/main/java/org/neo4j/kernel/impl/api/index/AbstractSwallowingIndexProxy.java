@@ -23,6 +23,7 @@ import java.util.concurrent.Future;
 
 import org.neo4j.internal.kernel.api.IndexCapability;
 import org.neo4j.internal.kernel.api.schema.LabelSchemaDescriptor;
+import org.neo4j.io.pagecache.IOLimiter;
 import org.neo4j.kernel.api.index.IndexUpdater;
 import org.neo4j.kernel.api.index.SchemaIndexProvider;
 import org.neo4j.kernel.api.schema.index.IndexDescriptor;
@@ -68,11 +69,22 @@ public abstract class AbstractSwallowingIndexProxy implements IndexProxy
         return SwallowingIndexUpdater.INSTANCE;
     }
 
+    @Override
+    public boolean supportsConcurrentUpdaters()
+    {
+        return false;
+    }
+
     @Override
     public void force()
     {
     }
 
+    @Override
+    public void compact( IOLimiter ioLimiter )
+    {
+    }
+
     @Override
     public IndexCapability getIndexCapability()
     {
@@ -31,6 +31,7 @@ import org.neo4j.graphdb.ResourceIterator;
 import org.neo4j.internal.kernel.api.IndexCapability;
 import org.neo4j.internal.kernel.api.InternalIndexState;
 import org.neo4j.internal.kernel.api.schema.LabelSchemaDescriptor;
+import org.neo4j.io.pagecache.IOLimiter;
 import org.neo4j.kernel.api.exceptions.index.ExceptionDuringFlipKernelException;
 import org.neo4j.kernel.api.exceptions.index.FlipFailedKernelException;
 import org.neo4j.kernel.api.exceptions.index.IndexActivationFailedKernelException;
@@ -101,6 +102,20 @@ public class FlippableIndexProxy implements IndexProxy
         }
     }
 
+    @Override
+    public boolean supportsConcurrentUpdaters()
+    {
+        lock.readLock().lock();
+        try
+        {
+            return delegate.supportsConcurrentUpdaters();
+        }
+        finally
+        {
+            lock.readLock().unlock();
+        }
+    }
+
     @Override
     public Future<Void> drop() throws IOException
     {
@@ -141,6 +156,17 @@ public class FlippableIndexProxy implements IndexProxy
         }
     }
 
+    /**
+     * Compaction can take long, so unlike other calls it doesn't hold the lock while calling the delegate.
+     * Doing so would keep a {@link #flip(Callable, FailedIndexProxyFactory) flip} waiting, along with all calls
+     * queued up behind it.
+     */
+    @Override
+    public void compact( IOLimiter ioLimiter ) throws IOException
+    {
+        delegate.compact( ioLimiter );
+    }
+
     @Override
     public void refresh() throws IOException
     {
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api.index;
+
+import org.neo4j.io.pagecache.IOLimiter;
+import org.neo4j.kernel.api.labelscan.LabelScanStore;
+import org.neo4j.kernel.internal.DatabaseHealth;
+import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+import org.neo4j.logging.Log;
+import org.neo4j.logging.LogProvider;
+import org.neo4j.scheduler.JobScheduler;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.neo4j.scheduler.JobScheduler.Groups.indexCompaction;
+
+/**
+ * Compacts the {@link LabelScanStore} and all schema indexes in the background at a fixed interval, so that leaves
+ * left sparse by deletes are merged and their pages reused, instead of the index files growing with the churn.
+ * <p>
+ * Compaction is rate limited by the same {@link IOLimiter} as check pointing is. It runs on a thread of its own,
+ * since going through every index may take long, and a new compaction isn't started before the previous one has
+ * completed. Compaction changes the indexes like any writer would, so it must be stopped before the last check point
+ * is made on shutdown, or the indexes would be left with changes that aren't check pointed.
+ */
+public class IndexCompactionScheduler extends LifecycleAdapter
+{
+    private final LabelScanStore labelScanStore;
+    private final IndexingService indexingService;
+    private final IOLimiter ioLimiter;
+    private final JobScheduler scheduler;
+    private final long intervalMillis;
+    private final DatabaseHealth health;
+    private final Log log;
+
+    private final Runnable trigger = this::compactIfIdle;
+    private final Runnable compaction = this::compact;
+
+    private volatile JobScheduler.JobHandle handle;
+    private volatile JobScheduler.JobHandle compactionHandle;
+    private volatile boolean stopped;
+    private volatile boolean compacting;
+
+    public IndexCompactionScheduler( LabelScanStore labelScanStore, IndexingService indexingService,
+            IOLimiter ioLimiter, JobScheduler scheduler, long intervalMillis, DatabaseHealth health,
+            LogProvider logProvider )
+    {
+        this.labelScanStore = labelScanStore;
+        this.indexingService = indexingService;
+        this.ioLimiter = ioLimiter;
+        this.scheduler = scheduler;
+        this.intervalMillis = intervalMillis;
+        this.health = health;
+        this.log = logProvider.getLog( getClass() );
+    }
+
+    @Override
+    public void start() throws Throwable
+    {
+        if ( intervalMillis > 0 )
+        {
+            stopped = false;
+            handle = scheduler.scheduleRecurring( indexCompaction, trigger, intervalMillis, intervalMillis, MILLISECONDS );
+        }
+    }
+
+    @Override
+    public void stop() throws Throwable
+    {
+        stopped = true;
+        if ( handle != null )
+        {
+            handle.cancel( false );
+            handle = null;
+        }
+        JobScheduler.JobHandle ongoingCompaction = compactionHandle;
+        if ( ongoingCompaction != null )
+        {
+            // A compaction that has not started yet will not do anything now, and one that has will finish at
+            // full speed
+            ioLimiter.disableLimit();
+            try
+            {
+                ongoingCompaction.waitTermination();
+            }
+            finally
+            {
+                ioLimiter.enableLimit();
+            }
+            compactionHandle = null;
+        }
+    }
+
+    /**
+     * Hands a compaction over to a thread of its own, unless one is already running. Runs on the scheduler thread,
+     * so it must be quick.
+     */
+    private void compactIfIdle()
+    {
+        if ( stopped || compacting || !health.isHealthy() )
+        {
+            return;
+        }
+        compacting = true;
+        compactionHandle = scheduler.schedule( indexCompaction, compaction );
+    }
+
+    private void compact()
+    {
+        try
+        {
+            if ( !stopped )
+            {
+                labelScanStore.compact( ioLimiter );
+            }
+            if ( !stopped )
+            {
+                indexingService.compactAll( ioLimiter );
+            }
+        }
+        catch ( Throwable t )
+        {
+            // Compaction doesn't change what the indexes contain, only how compactly they store it, so failing
+            // to compact is not a problem in itself. The next compaction will try again.
+            log.warn( "Background compaction of the indexes failed", t );
+        }
+        finally
+        {
+            compacting = false;
+        }
+    }
+}
@@ -28,6 +28,7 @@ import org.neo4j.internal.kernel.api.IndexCapability;
 import org.neo4j.internal.kernel.api.InternalIndexState;
 import org.neo4j.internal.kernel.api.schema.LabelSchemaDescriptor;
 import org.neo4j.internal.kernel.api.schema.LabelSchemaSupplier;
+import org.neo4j.io.pagecache.IOLimiter;
 import org.neo4j.kernel.api.exceptions.index.IndexActivationFailedKernelException;
 import org.neo4j.kernel.api.exceptions.index.IndexEntryConflictException;
 import org.neo4j.kernel.api.exceptions.index.IndexNotFoundKernelException;
@@ -66,6 +67,12 @@ public interface IndexProxy extends LabelSchemaSupplier
 
     IndexUpdater newUpdater( IndexUpdateMode mode );
 
+    /**
+     * @return whether or not updaters of this index can be used concurrently from several threads.
+     * @see IndexAccessor#supportsConcurrentUpdaters()
+     */
+    boolean supportsConcurrentUpdaters();
+
     /**
      * Initiates dropping this index context. The returned {@link Future} can be used to await
      * its completion.
@@ -99,6 +106,11 @@ public interface IndexProxy extends LabelSchemaSupplier
 
     void force() throws IOException;
 
+    /**
+     * @see IndexAccessor#compact(IOLimiter)
+     */
+    void compact( IOLimiter ioLimiter ) throws IOException;
+
     void refresh() throws IOException;
 
     /**
@@ -41,6 +41,7 @@ import org.neo4j.helpers.collection.Iterators;
 import org.neo4j.internal.kernel.api.InternalIndexState;
 import org.neo4j.internal.kernel.api.TokenNameLookup;
 import org.neo4j.internal.kernel.api.schema.LabelSchemaDescriptor;
+import org.neo4j.io.pagecache.IOLimiter;
 import org.neo4j.kernel.api.exceptions.index.IndexActivationFailedKernelException;
 import org.neo4j.kernel.api.exceptions.index.IndexEntryConflictException;
 import org.neo4j.kernel.api.exceptions.index.IndexNotFoundKernelException;
@@ -421,6 +422,22 @@ public class IndexingService extends LifecycleAdapter implements IndexingUpdateS
         }
     }
 
+    /**
+     * @return whether or not the index for the given schema can take updates from several threads at the same time.
+     * @see IndexProxy#supportsConcurrentUpdaters()
+     */
+    public boolean supportsConcurrentUpdaters( LabelSchemaDescriptor descriptor )
+    {
+        try
+        {
+            return indexMapRef.getIndexProxy( descriptor ).supportsConcurrentUpdaters();
+        }
+        catch ( IndexNotFoundKernelException e )
+        {
+            return false;
+        }
+    }
+
     private void apply( Iterable<IndexEntryUpdate<LabelSchemaDescriptor>> updates, IndexUpdateMode updateMode )
             throws IOException, IndexEntryConflictException
     {
@@ -576,6 +593,18 @@ public class IndexingService extends LifecycleAdapter implements IndexingUpdateS
         indexMapRef.indexMapSnapshot().forEachIndexProxy( indexProxyOperation( "force", IndexProxy::force ) );
     }
 
+    /**
+     * Compacts all indexes, one at a time. Indexes dropped while compacting are skipped.
+     *
+     * @param ioLimiter for controlling the I/O done by the compaction.
+     * @see IndexProxy#compact(IOLimiter)
+     */
+    public void compactAll( IOLimiter ioLimiter )
+    {
+        indexMapRef.indexMapSnapshot().forEachIndexProxy(
+                indexProxyOperation( "compact", indexProxy -> indexProxy.compact( ioLimiter ) ) );
+    }
+
     private BiConsumer<Long,IndexProxy> indexProxyOperation( String name, ThrowingConsumer<IndexProxy,Exception> operation )
     {
         return ( id, indexProxy ) ->
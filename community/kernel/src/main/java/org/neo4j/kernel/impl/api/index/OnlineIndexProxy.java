@@ -27,6 +27,7 @@ import org.neo4j.graphdb.ResourceIterator;
 import org.neo4j.internal.kernel.api.IndexCapability;
 import org.neo4j.internal.kernel.api.InternalIndexState;
 import org.neo4j.internal.kernel.api.schema.LabelSchemaDescriptor;
+import org.neo4j.io.pagecache.IOLimiter;
 import org.neo4j.kernel.api.exceptions.index.IndexEntryConflictException;
 import org.neo4j.kernel.api.exceptions.index.IndexPopulationFailedKernelException;
 import org.neo4j.kernel.api.index.IndexAccessor;
@@ -103,6 +104,12 @@ public class OnlineIndexProxy implements IndexProxy
         return started ? updateCountingUpdater( actual ) : actual;
     }
 
+    @Override
+    public boolean supportsConcurrentUpdaters()
+    {
+        return accessor.supportsConcurrentUpdaters();
+    }
+
     private IndexUpdateMode escalateModeIfNecessary( IndexUpdateMode mode )
     {
         if ( forcedIdempotentMode )
@@ -167,6 +174,12 @@ public class OnlineIndexProxy implements IndexProxy
         accessor.force();
     }
 
+    @Override
+    public void compact( IOLimiter ioLimiter ) throws IOException
+    {
+        accessor.compact( ioLimiter );
+    }
+
     @Override
     public void refresh() throws IOException
     {
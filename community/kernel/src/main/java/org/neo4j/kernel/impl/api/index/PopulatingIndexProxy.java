@@ -27,6 +27,7 @@ import org.neo4j.graphdb.ResourceIterator;
 import org.neo4j.internal.kernel.api.IndexCapability;
 import org.neo4j.internal.kernel.api.InternalIndexState;
 import org.neo4j.internal.kernel.api.schema.LabelSchemaDescriptor;
+import org.neo4j.io.pagecache.IOLimiter;
 import org.neo4j.kernel.api.exceptions.index.IndexActivationFailedKernelException;
 import org.neo4j.kernel.api.exceptions.index.IndexEntryConflictException;
 import org.neo4j.kernel.api.exceptions.index.IndexNotFoundKernelException;
@@ -83,6 +84,14 @@ public class PopulatingIndexProxy implements IndexProxy
         }
     }
 
+    @Override
+    public boolean supportsConcurrentUpdaters()
+    {
+        // Only online indexes take updates straight from the committing transactions, while populating indexes
+        // get them through the population job, one batch at a time.
+        return false;
+    }
+
     @Override
     public Future<Void> drop()
     {
@@ -125,6 +134,12 @@ public class PopulatingIndexProxy implements IndexProxy
         // Ignored... this isn't called from the outside while we're populating the index.
     }
 
+    @Override
+    public void compact( IOLimiter ioLimiter )
+    {
+        // Ignored... the index is being built from scratch, so there's nothing to compact.
+    }
+
     @Override
     public void refresh()
     {
@@ -24,6 +24,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.function.Consumer;
@@ -38,6 +39,7 @@ import org.neo4j.collection.primitive.PrimitiveLongResourceIterator;
 import org.neo4j.collection.primitive.PrimitiveLongSet;
 import org.neo4j.cursor.Cursor;
 import org.neo4j.helpers.collection.Iterables;
+import org.neo4j.internal.kernel.api.IndexQuery;
 import org.neo4j.internal.kernel.api.exceptions.schema.ConstraintValidationException;
 import org.neo4j.internal.kernel.api.schema.LabelSchemaDescriptor;
 import org.neo4j.internal.kernel.api.schema.SchemaDescriptor;
@@ -1131,6 +1133,99 @@ public class TxState implements TransactionState, RelationshipVisitor.Home
         return diffs;
     }
 
+    @Override
+    public PrimitiveLongReadableDiffSets indexUpdatesForRangeSeekByGeometry( IndexDescriptor descriptor,
+                                                                      IndexQuery.GeometryRangePredicate range )
+    {
+        TreeMap<ValueTuple, PrimitiveLongDiffSets> sortedUpdates = getSortedIndexUpdates( descriptor.schema() );
+        if ( sortedUpdates == null )
+        {
+            return EmptyPrimitiveLongReadableDiffSets.INSTANCE;
+        }
+        // Points have no order that follows the bounds of a box, so check all of the updated points against it
+        PrimitiveLongDiffSets diffs = new PrimitiveLongDiffSets();
+        for ( Map.Entry<ValueTuple,PrimitiveLongDiffSets> entry : sortedUpdates.entrySet() )
+        {
+            if ( range.acceptsValue( entry.getKey().getOnlyValue() ) )
+            {
+                PrimitiveLongDiffSets diffSets = entry.getValue();
+                diffs.addAll( diffSets.getAdded().iterator() );
+                diffs.removeAll( diffSets.getRemoved().iterator() );
+            }
+        }
+        return diffs;
+    }
+
+    @Override
+    public PrimitiveLongReadableDiffSets indexUpdatesForRangeSeekByTemporal( IndexDescriptor descriptor,
+                                                                      IndexQuery.TemporalRangePredicate range )
+    {
+        TreeMap<ValueTuple, PrimitiveLongDiffSets> sortedUpdates = getSortedIndexUpdates( descriptor.schema() );
+        if ( sortedUpdates == null )
+        {
+            return EmptyPrimitiveLongReadableDiffSets.INSTANCE;
+        }
+        // Values of a temporal type are next to each other and ordered within their type, so the updates in range are
+        // the ones from the lower bound, or the first value of the type, up until the first one that is out of range after that
+        Value from = range.fromAsValue();
+        NavigableMap<ValueTuple,PrimitiveLongDiffSets> candidates =
+                from == Values.NO_VALUE ? sortedUpdates : sortedUpdates.tailMap( ValueTuple.of( from ), true );
+        PrimitiveLongDiffSets diffs = new PrimitiveLongDiffSets();
+        boolean inRange = false;
+        for ( Map.Entry<ValueTuple,PrimitiveLongDiffSets> entry : candidates.entrySet() )
+        {
+            if ( range.acceptsValue( entry.getKey().getOnlyValue() ) )
+            {
+                inRange = true;
+                PrimitiveLongDiffSets diffSets = entry.getValue();
+                diffs.addAll( diffSets.getAdded().iterator() );
+                diffs.removeAll( diffSets.getRemoved().iterator() );
+            }
+            else if ( inRange )
+            {
+                break;
+            }
+        }
+        return diffs;
+    }
+
+    @Override
+    public PrimitiveLongReadableDiffSets indexUpdatesForCompositeRangeSeek( IndexDescriptor descriptor, IndexQuery[] predicates )
+    {
+        if ( indexUpdates == null )
+        {
+            return EmptyPrimitiveLongReadableDiffSets.INSTANCE;
+        }
+        Map<ValueTuple, PrimitiveLongDiffSets> updates = indexUpdates.get( descriptor.schema() );
+        if ( updates == null )
+        {
+            return EmptyPrimitiveLongReadableDiffSets.INSTANCE;
+        }
+        PrimitiveLongDiffSets diffs = new PrimitiveLongDiffSets();
+        for ( Map.Entry<ValueTuple,PrimitiveLongDiffSets> entry : updates.entrySet() )
+        {
+            if ( acceptsAll( predicates, entry.getKey() ) )
+            {
+                PrimitiveLongDiffSets diffSets = entry.getValue();
+                diffs.addAll( diffSets.getAdded().iterator() );
+                diffs.removeAll( diffSets.getRemoved().iterator() );
+            }
+        }
+        return diffs;
+    }
+
+    private static boolean acceptsAll( IndexQuery[] predicates, ValueTuple values )
+    {
+        for ( int i = 0; i < predicates.length; i++ )
+        {
+            if ( !predicates[i].acceptsValue( values.valueAt( i ) ) )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
     // Ensure sorted index updates for a given index. This is needed for range query support and
     // may involve converting the existing hash map first
     //
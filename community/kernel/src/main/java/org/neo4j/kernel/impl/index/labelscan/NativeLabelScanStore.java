@@ -264,6 +264,30 @@ public class NativeLabelScanStore implements LabelScanStore
         }
     }
 
+    /**
+     * Compacts the {@link GBPTree}, see {@link GBPTree#compact(IOLimiter)}. Nothing is done in read only mode.
+     *
+     * @param limiter {@link IOLimiter}.
+     * @throws UnderlyingStorageException on failure compacting the tree.
+     */
+    @Override
+    public void compact( IOLimiter limiter ) throws UnderlyingStorageException
+    {
+        if ( readOnly )
+        {
+            return;
+        }
+
+        try
+        {
+            index.compact( limiter );
+        }
+        catch ( IOException e )
+        {
+            throw new UnderlyingStorageException( e );
+        }
+    }
+
     @Override
     public AllEntriesLabelScanReader allNodeLabelRanges()
     {
@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import org.neo4j.index.internal.gbptree.Layout;
+import org.neo4j.io.pagecache.PageCursor;
+
+import static java.lang.String.format;
+
+/**
+ * {@link Layout} for the values of more than one property. Keys have dynamic size, since the size of a key depends on the lengths
+ * of its strings. A key is written as its entity id followed by its slots, each slot as a type followed by its value.
+ */
+abstract class CompositeLayout extends Layout.Adapter<CompositeSchemaKey,NativeSchemaValue>
+{
+    @Override
+    public CompositeSchemaKey newKey()
+    {
+        return new CompositeSchemaKey();
+    }
+
+    @Override
+    public CompositeSchemaKey copyKey( CompositeSchemaKey key, CompositeSchemaKey into )
+    {
+        into.copyFrom( key );
+        return into;
+    }
+
+    @Override
+    public NativeSchemaValue newValue()
+    {
+        return NativeSchemaValue.INSTANCE;
+    }
+
+    @Override
+    public int keySize( CompositeSchemaKey key )
+    {
+        return key.size();
+    }
+
+    @Override
+    public int valueSize( NativeSchemaValue value )
+    {
+        return NativeSchemaValue.SIZE;
+    }
+
+    @Override
+    public void writeKey( PageCursor cursor, CompositeSchemaKey key )
+    {
+        cursor.putLong( key.getEntityId() );
+        for ( int slot = 0; slot < key.count; slot++ )
+        {
+            byte type = key.types[slot];
+            cursor.putByte( type );
+            switch ( type )
+            {
+            case CompositeSchemaKey.TEXT:
+                cursor.putShort( (short) key.strings[slot].length );
+                cursor.putBytes( key.strings[slot] );
+                break;
+            case CompositeSchemaKey.BOOLEAN:
+                cursor.putByte( (byte) key.rawValueBits[slot] );
+                break;
+            case CompositeSchemaKey.NUMBER:
+                cursor.putByte( key.numberTypes[slot] );
+                cursor.putLong( key.rawValueBits[slot] );
+                break;
+            default:
+                throw new IllegalArgumentException( "Tried to write key with bounds as values " + key );
+            }
+        }
+    }
+
+    @Override
+    public void writeValue( PageCursor cursor, NativeSchemaValue value )
+    {
+    }
+
+    @Override
+    public void readKey( PageCursor cursor, CompositeSchemaKey into, int keySize )
+    {
+        int remaining = keySize - CompositeSchemaKey.ENTITY_ID_SIZE;
+        if ( remaining <= 0 )
+        {
+            // Inconsistent read, the reader will retry
+            cursor.setCursorException( format( "Read unreliable composite key, keySize=%d", keySize ) );
+            return;
+        }
+        into.setEntityId( cursor.getLong() );
+        int slot = 0;
+        while ( remaining > 0 )
+        {
+            into.initialize( slot + 1 );
+            byte type = cursor.getByte();
+            into.types[slot] = type;
+            into.bounds[slot] = 0;
+            switch ( type )
+            {
+            case CompositeSchemaKey.TEXT:
+                int length = remaining < CompositeSchemaKey.TEXT_SLOT_OVERHEAD ? -1 : cursor.getShort() & 0xFFFF;
+                remaining -= CompositeSchemaKey.TEXT_SLOT_OVERHEAD + length;
+                if ( length < 0 || remaining < 0 )
+                {
+                    cursor.setCursorException( format( "Read unreliable composite key, keySize=%d, string length=%d", keySize, length ) );
+                    return;
+                }
+                into.setStringLength( slot, length );
+                cursor.getBytes( into.strings[slot] );
+                break;
+            case CompositeSchemaKey.BOOLEAN:
+                remaining -= CompositeSchemaKey.BOOLEAN_SLOT_SIZE;
+                into.rawValueBits[slot] = cursor.getByte();
+                break;
+            case CompositeSchemaKey.NUMBER:
+                remaining -= CompositeSchemaKey.NUMBER_SLOT_SIZE;
+                into.numberTypes[slot] = cursor.getByte();
+                into.rawValueBits[slot] = cursor.getLong();
+                break;
+            default:
+                cursor.setCursorException( format( "Read unreliable composite key, keySize=%d, type=%d", keySize, type ) );
+                return;
+            }
+            slot++;
+        }
+        if ( remaining < 0 )
+        {
+            cursor.setCursorException( format( "Read unreliable composite key, keySize=%d", keySize ) );
+        }
+    }
+
+    @Override
+    public void readValue( PageCursor cursor, NativeSchemaValue into, int valueSize )
+    {
+    }
+
+    @Override
+    public boolean fixedSize()
+    {
+        return false;
+    }
+}
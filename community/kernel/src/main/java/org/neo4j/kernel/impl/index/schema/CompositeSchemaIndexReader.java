@@ -0,0 +1,233 @@
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import org.apache.commons.lang3.ArrayUtils;
+
+import java.util.Arrays;
+
+import org.neo4j.helpers.ArrayUtil;
+import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.index.internal.gbptree.Layout;
+import org.neo4j.internal.kernel.api.IndexOrder;
+import org.neo4j.internal.kernel.api.IndexQuery;
+import org.neo4j.internal.kernel.api.IndexQuery.ExactPredicate;
+import org.neo4j.internal.kernel.api.IndexQuery.IndexQueryType;
+import org.neo4j.internal.kernel.api.IndexQuery.NumberRangePredicate;
+import org.neo4j.internal.kernel.api.IndexQuery.StringRangePredicate;
+import org.neo4j.kernel.api.schema.index.IndexDescriptor;
+import org.neo4j.kernel.impl.api.index.sampling.IndexSamplingConfig;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.ValueGroup;
+import org.neo4j.values.storable.Values;
+
+import static java.lang.String.format;
+
+/**
+ * Keys are ordered by the first property, then by the second and so on, so a query that is exact on the first properties
+ * and then has a range, or existence, on the next property is a single seek. Properties after the one with the range must have
+ * existence predicates.
+ */
+class CompositeSchemaIndexReader<KEY extends CompositeSchemaKey, VALUE extends NativeSchemaValue> extends NativeSchemaIndexReader<KEY,VALUE>
+{
+    CompositeSchemaIndexReader( GBPTree<KEY,VALUE> tree, Layout<KEY,VALUE> layout, IndexSamplingConfig samplingConfig,
+            IndexDescriptor descriptor )
+    {
+        super( tree, layout, samplingConfig, descriptor );
+    }
+
+    /**
+     * @param predicates one predicate for each property of a composite index.
+     * @return whether or not the given query can be answered by a seek in a composite index.
+     */
+    static boolean supports( IndexQuery[] predicates )
+    {
+        int slot = exactPrefixLength( predicates );
+        for ( int i = 0; i < slot; i++ )
+        {
+            if ( !CompositeSchemaKey.supports( ((ExactPredicate) predicates[i]).value() ) )
+            {
+                return false;
+            }
+        }
+        if ( slot < predicates.length )
+        {
+            IndexQueryType type = predicates[slot].type();
+            if ( type != IndexQueryType.exists && type != IndexQueryType.rangeNumeric && type != IndexQueryType.rangeString )
+            {
+                return false;
+            }
+            for ( slot++; slot < predicates.length; slot++ )
+            {
+                if ( predicates[slot].type() != IndexQueryType.exists )
+                {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    void validateQuery( IndexOrder indexOrder, IndexQuery[] predicates )
+    {
+        if ( !supports( predicates ) )
+        {
+            throw new UnsupportedOperationException( "Query not supported by composite index: " + Arrays.toString( predicates ) );
+        }
+
+        if ( indexOrder != IndexOrder.NONE )
+        {
+            ValueGroup[] valueGroups = new ValueGroup[predicates.length];
+            for ( int i = 0; i < predicates.length; i++ )
+            {
+                valueGroups[i] = predicates[i].valueGroup();
+            }
+            IndexOrder[] capability = CompositeSchemaIndexProvider.CAPABILITY.orderCapability( valueGroups );
+            if ( !ArrayUtil.contains( capability, indexOrder ) )
+            {
+                capability = ArrayUtils.add( capability, IndexOrder.NONE );
+                throw new UnsupportedOperationException(
+                        format( "Tried to query index with unsupported order %s. Supported orders for query %s are %s.", indexOrder,
+                                Arrays.toString( predicates ), Arrays.toString( capability ) ) );
+            }
+        }
+    }
+
+    @Override
+    void initializeRangeForQuery( KEY treeKeyFrom, KEY treeKeyTo, IndexQuery[] predicates )
+    {
+        treeKeyFrom.initialize( predicates.length );
+        treeKeyTo.initialize( predicates.length );
+        int slot = exactPrefixLength( predicates );
+        for ( int i = 0; i < slot; i++ )
+        {
+            Value value = ((ExactPredicate) predicates[i]).value();
+            treeKeyFrom.writeSlot( i, value );
+            treeKeyTo.writeSlot( i, value );
+        }
+
+        if ( slot == predicates.length )
+        {
+            treeKeyFrom.setEntityId( Long.MIN_VALUE );
+            treeKeyFrom.setEntityIdIsSpecialTieBreaker( false );
+            treeKeyTo.setEntityId( Long.MAX_VALUE );
+            treeKeyTo.setEntityIdIsSpecialTieBreaker( false );
+            return;
+        }
+
+        IndexQuery predicate = predicates[slot];
+        switch ( predicate.type() )
+        {
+        case exists:
+            initBound( treeKeyFrom, slot, Values.NO_VALUE, ValueGroup.UNKNOWN, true, true );
+            initBound( treeKeyTo, slot, Values.NO_VALUE, ValueGroup.UNKNOWN, false, true );
+            break;
+        case rangeNumeric:
+            NumberRangePredicate numberRange = (NumberRangePredicate) predicate;
+            initBound( treeKeyFrom, slot, numberRange.fromAsValue(), ValueGroup.NUMBER, true, numberRange.fromInclusive() );
+            initBound( treeKeyTo, slot, numberRange.toAsValue(), ValueGroup.NUMBER, false, numberRange.toInclusive() );
+            break;
+        case rangeString:
+            StringRangePredicate stringRange = (StringRangePredicate) predicate;
+            initBound( treeKeyFrom, slot, stringValue( stringRange.from() ), ValueGroup.TEXT, true, stringRange.fromInclusive() );
+            initBound( treeKeyTo, slot, stringValue( stringRange.to() ), ValueGroup.TEXT, false, stringRange.toInclusive() );
+            break;
+        default:
+            throw new IllegalArgumentException( "IndexQuery of type " + predicate.type() + " is not supported." );
+        }
+        for ( int i = slot + 1; i < predicates.length; i++ )
+        {
+            if ( predicates[i].type() != IndexQueryType.exists )
+            {
+                throw new IllegalArgumentException( "IndexQuery of type " + predicates[i].type() + " is not supported after " +
+                        predicate.type() + " in a composite query." );
+            }
+        }
+    }
+
+    /**
+     * Sets the given slot of the key to a bound of a range, and the slots after it so that the key is lower or higher than all
+     * keys that have the bound in that slot.
+     *
+     * @param key the key to initialize as a bound.
+     * @param slot the slot of the range.
+     * @param bound value of the bound, or {@link Values#NO_VALUE} for no bound.
+     * @param valueGroup the value group of the range, only values of that group are in range if there is no bound.
+     * @param lower whether it is the lower or upper bound of the range.
+     * @param inclusive whether or not the bound value is in range.
+     */
+    private void initBound( KEY key, int slot, Value bound, ValueGroup valueGroup, boolean lower, boolean inclusive )
+    {
+        boolean belowBound;
+        if ( bound == Values.NO_VALUE )
+        {
+            if ( lower )
+            {
+                key.initSlotAsLowest( slot, valueGroup );
+            }
+            else
+            {
+                key.initSlotAsHighest( slot, valueGroup );
+            }
+            belowBound = lower;
+        }
+        else
+        {
+            key.writeSlot( slot, bound );
+            // An inclusive lower bound and an exclusive upper bound are below all keys with the bound value
+            belowBound = lower == inclusive;
+        }
+        for ( int i = slot + 1; i < key.count; i++ )
+        {
+            if ( belowBound )
+            {
+                key.initSlotAsLowest( i, ValueGroup.UNKNOWN );
+            }
+            else
+            {
+                key.initSlotAsHighest( i, ValueGroup.UNKNOWN );
+            }
+        }
+        key.setEntityId( belowBound ? Long.MIN_VALUE : Long.MAX_VALUE );
+        key.setEntityIdIsSpecialTieBreaker( true );
+    }
+
+    private static Value stringValue( String string )
+    {
+        return string == null ? Values.NO_VALUE : Values.stringValue( string );
+    }
+
+    private static int exactPrefixLength( IndexQuery[] predicates )
+    {
+        int length = 0;
+        while ( length < predicates.length && predicates[length].type() == IndexQueryType.exact )
+        {
+            length++;
+        }
+        return length;
+    }
+
+    @Override
+    public boolean hasFullNumberPrecision( IndexQuery... predicates )
+    {
+        return true;
+    }
+}
@@ -0,0 +1,448 @@
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.ValueGroup;
+import org.neo4j.values.storable.ValueTuple;
+import org.neo4j.values.storable.ValueWriter;
+import org.neo4j.values.storable.Values;
+
+import static java.lang.String.format;
+
+/**
+ * Includes values and entity id (to be able to handle non-unique values), for indexes on more than one property.
+ * Each property has a slot in the key, which holds a string, a boolean or a number. Keys compare slot by slot in the same
+ * order as {@link ValueTuple#COMPARATOR}, where a slot compares first by value group, strings before booleans before
+ * numbers, and then by value within the group.
+ * <p>
+ * The size of a key depends on the lengths of its strings, so this key needs a {@link CompositeLayout} with dynamic size.
+ */
+class CompositeSchemaKey extends ValueWriter.Adapter<RuntimeException> implements NativeSchemaKey
+{
+    static final int ENTITY_ID_SIZE = Long.BYTES;
+    /**
+     * Size of a slot holding a string, not counting the UTF-8 encoded bytes of the string.
+     */
+    static final int TEXT_SLOT_OVERHEAD = Byte.BYTES + /* type */ Short.BYTES; /* length of string */
+    static final int BOOLEAN_SLOT_SIZE = Byte.BYTES + /* type */ Byte.BYTES; /* value */
+    static final int NUMBER_SLOT_SIZE = Byte.BYTES + /* type */ Byte.BYTES + /* number type */ Long.BYTES; /* raw value bits */
+
+    // Types of slots, in the same order as their value groups. Lowest and highest are only in memory state for seek bounds.
+    static final byte LOWEST = 0;
+    static final byte TEXT = 1;
+    static final byte BOOLEAN = 2;
+    static final byte NUMBER = 3;
+    static final byte HIGHEST = 4;
+
+    private static final byte[] EMPTY_BYTES = new byte[0];
+
+    private long entityId;
+    private boolean entityIdIsSpecialTieBreaker;
+
+    int count;
+    byte[] types = EMPTY_BYTES;
+    // Lowest (-1) or highest (1) possible value of the type of the slot, or 0 for the value in the slot.
+    // Note that bounds are only in memory state.
+    byte[] bounds = EMPTY_BYTES;
+    // Raw bits of numbers and 0 or 1 for booleans
+    long[] rawValueBits = new long[0];
+    byte[] numberTypes = EMPTY_BYTES;
+    byte[][] strings = new byte[0][];
+    private int currentSlot;
+
+    @Override
+    public void setEntityIdIsSpecialTieBreaker( boolean entityIdIsSpecialTieBreaker )
+    {
+        this.entityIdIsSpecialTieBreaker = entityIdIsSpecialTieBreaker;
+    }
+
+    @Override
+    public boolean getEntityIdIsSpecialTieBreaker()
+    {
+        return entityIdIsSpecialTieBreaker;
+    }
+
+    @Override
+    public long getEntityId()
+    {
+        return entityId;
+    }
+
+    @Override
+    public void setEntityId( long entityId )
+    {
+        this.entityId = entityId;
+    }
+
+    @Override
+    public void from( long entityId, Value... values )
+    {
+        if ( values.length < 1 )
+        {
+            throw new IllegalArgumentException( "Tried to create key without value" );
+        }
+        initialize( values.length );
+        for ( int slot = 0; slot < values.length; slot++ )
+        {
+            writeSlot( slot, values[slot] );
+        }
+        this.entityId = entityId;
+        entityIdIsSpecialTieBreaker = false;
+    }
+
+    /**
+     * @param value a value of an index entry.
+     * @return whether or not a slot of this key can hold the given value.
+     */
+    static boolean supports( Value value )
+    {
+        ValueGroup valueGroup = value.valueGroup();
+        return valueGroup == ValueGroup.TEXT || valueGroup == ValueGroup.BOOLEAN || valueGroup == ValueGroup.NUMBER;
+    }
+
+    @Override
+    public String propertiesAsString()
+    {
+        return Arrays.toString( asValues() );
+    }
+
+    /**
+     * There is no single value of a composite key, use {@link #asValues()} instead.
+     */
+    @Override
+    public Value asValue()
+    {
+        throw new UnsupportedOperationException( "A composite key has one value for each property, tried to get a single value from " + this );
+    }
+
+    @Override
+    public Value[] asValues()
+    {
+        Value[] values = new Value[count];
+        for ( int slot = 0; slot < count; slot++ )
+        {
+            values[slot] = valueOf( slot );
+        }
+        return values;
+    }
+
+    private Value valueOf( int slot )
+    {
+        switch ( types[slot] )
+        {
+        case TEXT:
+            return Values.utf8Value( strings[slot] );
+        case BOOLEAN:
+            return Values.booleanValue( rawValueBits[slot] != 0 );
+        case NUMBER:
+            return RawBits.asNumberValue( rawValueBits[slot], numberTypes[slot] );
+        default:
+            return Values.NO_VALUE;
+        }
+    }
+
+    @Override
+    public void initAsLowest()
+    {
+        initialize( 1 );
+        initSlotAsLowest( 0, ValueGroup.UNKNOWN );
+        entityId = Long.MIN_VALUE;
+        entityIdIsSpecialTieBreaker = true;
+    }
+
+    @Override
+    public void initAsHighest()
+    {
+        initialize( 1 );
+        initSlotAsHighest( 0, ValueGroup.UNKNOWN );
+        entityId = Long.MAX_VALUE;
+        entityIdIsSpecialTieBreaker = true;
+    }
+
+    /**
+     * Makes room for the given number of slots and leaves entity id as is, the slots are then set one by one with
+     * {@link #writeSlot(int, Value)}, {@link #initSlotAsLowest(int, ValueGroup)} and {@link #initSlotAsHighest(int, ValueGroup)}.
+     *
+     * @param count number of slots, i.e. number of properties of the index.
+     */
+    void initialize( int count )
+    {
+        if ( types.length < count )
+        {
+            types = Arrays.copyOf( types, count );
+            bounds = Arrays.copyOf( bounds, count );
+            rawValueBits = Arrays.copyOf( rawValueBits, count );
+            numberTypes = Arrays.copyOf( numberTypes, count );
+            strings = Arrays.copyOf( strings, count );
+        }
+        this.count = count;
+    }
+
+    void writeSlot( int slot, Value value )
+    {
+        if ( !supports( value ) )
+        {
+            throw new IllegalArgumentException(
+                    "Key layout does only support strings, booleans and numbers, tried to create key from " + value );
+        }
+        currentSlot = slot;
+        bounds[slot] = 0;
+        value.writeTo( this );
+    }
+
+    /**
+     * Sets the slot to lower than all values of the given value group, or lower than all values if the value group is
+     * {@link ValueGroup#UNKNOWN}.
+     */
+    void initSlotAsLowest( int slot, ValueGroup valueGroup )
+    {
+        types[slot] = valueGroup == ValueGroup.UNKNOWN ? LOWEST : typeOf( valueGroup );
+        bounds[slot] = -1;
+    }
+
+    /**
+     * Sets the slot to higher than all values of the given value group, or higher than all values if the value group is
+     * {@link ValueGroup#UNKNOWN}.
+     */
+    void initSlotAsHighest( int slot, ValueGroup valueGroup )
+    {
+        types[slot] = valueGroup == ValueGroup.UNKNOWN ? HIGHEST : typeOf( valueGroup );
+        bounds[slot] = 1;
+    }
+
+    private static byte typeOf( ValueGroup valueGroup )
+    {
+        switch ( valueGroup )
+        {
+        case TEXT:
+            return TEXT;
+        case BOOLEAN:
+            return BOOLEAN;
+        case NUMBER:
+            return NUMBER;
+        default:
+            throw new IllegalArgumentException( "Key layout does only support strings, booleans and numbers, tried to use " + valueGroup );
+        }
+    }
+
+    /**
+     * Compares the values of this key to those of another key.
+     * This method is expected to be called in scenarios where inconsistent reads may happen (and later retried).
+     *
+     * @param other the {@link CompositeSchemaKey} to compare to.
+     * @return comparison against the {@code other} {@link CompositeSchemaKey}.
+     */
+    int compareValueTo( CompositeSchemaKey other )
+    {
+        int slots = Math.min( count, other.count );
+        for ( int slot = 0; slot < slots; slot++ )
+        {
+            int comparison = compareSlot( slot, other );
+            if ( comparison != 0 )
+            {
+                return comparison;
+            }
+        }
+        return Integer.compare( count, other.count );
+    }
+
+    private int compareSlot( int slot, CompositeSchemaKey other )
+    {
+        byte type = types[slot];
+        int comparison = Byte.compare( type, other.types[slot] );
+        if ( comparison != 0 )
+        {
+            return comparison;
+        }
+        comparison = Byte.compare( bounds[slot], other.bounds[slot] );
+        if ( comparison != 0 || bounds[slot] != 0 )
+        {
+            return comparison;
+        }
+        switch ( type )
+        {
+        case TEXT:
+            return compareStrings( strings[slot], other.strings[slot] );
+        case BOOLEAN:
+            return Long.compare( rawValueBits[slot], other.rawValueBits[slot] );
+        case NUMBER:
+            return RawBits.compare( rawValueBits[slot], numberTypes[slot], other.rawValueBits[slot], other.numberTypes[slot] );
+        default:
+            return 0;
+        }
+    }
+
+    private static int compareStrings( byte[] bytes, byte[] otherBytes )
+    {
+        // UTF-8 encoded bytes compare unsigned byte by byte in the same order as the code points of the strings they encode
+        int length = Math.min( bytes.length, otherBytes.length );
+        for ( int i = 0; i < length; i++ )
+        {
+            int comparison = Byte.toUnsignedInt( bytes[i] ) - Byte.toUnsignedInt( otherBytes[i] );
+            if ( comparison != 0 )
+            {
+                return comparison;
+            }
+        }
+        return Integer.compare( bytes.length, otherBytes.length );
+    }
+
+    int size()
+    {
+        int size = ENTITY_ID_SIZE;
+        for ( int slot = 0; slot < count; slot++ )
+        {
+            switch ( types[slot] )
+            {
+            case TEXT:
+                size += TEXT_SLOT_OVERHEAD + strings[slot].length;
+                break;
+            case BOOLEAN:
+                size += BOOLEAN_SLOT_SIZE;
+                break;
+            case NUMBER:
+                size += NUMBER_SLOT_SIZE;
+                break;
+            default:
+                throw new IllegalStateException( "Tried to get size of key with bounds as values " + this );
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Makes sure the string of the given slot has the given length, reusing the current array if it already has that length.
+     *
+     * @param slot the slot holding a string.
+     * @param length number of bytes of the string.
+     */
+    void setStringLength( int slot, int length )
+    {
+        if ( strings[slot] == null || strings[slot].length != length )
+        {
+            strings[slot] = length == 0 ? EMPTY_BYTES : new byte[length];
+        }
+    }
+
+    void copyFrom( CompositeSchemaKey key )
+    {
+        initialize( key.count );
+        for ( int slot = 0; slot < key.count; slot++ )
+        {
+            types[slot] = key.types[slot];
+            bounds[slot] = key.bounds[slot];
+            rawValueBits[slot] = key.rawValueBits[slot];
+            numberTypes[slot] = key.numberTypes[slot];
+            if ( types[slot] == TEXT )
+            {
+                setStringLength( slot, key.strings[slot].length );
+                System.arraycopy( key.strings[slot], 0, strings[slot], 0, key.strings[slot].length );
+            }
+        }
+        entityId = key.entityId;
+        entityIdIsSpecialTieBreaker = key.entityIdIsSpecialTieBreaker;
+    }
+
+    @Override
+    public String toString()
+    {
+        StringBuilder slots = new StringBuilder();
+        for ( int slot = 0; slot < count; slot++ )
+        {
+            slots.append( slot == 0 ? "" : "," ).append( types[slot] ).append( ':' );
+            slots.append( bounds[slot] == 0 ? valueOf( slot ) : bounds[slot] < 0 ? "lowest" : "highest" );
+        }
+        return format( "values=[%s],entityId=%d", slots, entityId );
+    }
+
+    @Override
+    public void writeString( String value )
+    {
+        types[currentSlot] = TEXT;
+        strings[currentSlot] = value.getBytes( StandardCharsets.UTF_8 );
+    }
+
+    @Override
+    public void writeString( char value )
+    {
+        writeString( String.valueOf( value ) );
+    }
+
+    @Override
+    public void writeUTF8( byte[] bytes, int offset, int length )
+    {
+        types[currentSlot] = TEXT;
+        strings[currentSlot] = Arrays.copyOfRange( bytes, offset, offset + length );
+    }
+
+    @Override
+    public void writeBoolean( boolean value )
+    {
+        types[currentSlot] = BOOLEAN;
+        rawValueBits[currentSlot] = value ? 1 : 0;
+    }
+
+    @Override
+    public void writeInteger( byte value )
+    {
+        writeNumber( RawBits.BYTE, value );
+    }
+
+    @Override
+    public void writeInteger( short value )
+    {
+        writeNumber( RawBits.SHORT, value );
+    }
+
+    @Override
+    public void writeInteger( int value )
+    {
+        writeNumber( RawBits.INT, value );
+    }
+
+    @Override
+    public void writeInteger( long value )
+    {
+        writeNumber( RawBits.LONG, value );
+    }
+
+    @Override
+    public void writeFloatingPoint( float value )
+    {
+        writeNumber( RawBits.FLOAT, Float.floatToIntBits( value ) );
+    }
+
+    @Override
+    public void writeFloatingPoint( double value )
+    {
+        writeNumber( RawBits.DOUBLE, Double.doubleToLongBits( value ) );
+    }
+
+    private void writeNumber( byte numberType, long bits )
+    {
+        types[currentSlot] = NUMBER;
+        numberTypes[currentSlot] = numberType;
+        rawValueBits[currentSlot] = bits;
+    }
+}
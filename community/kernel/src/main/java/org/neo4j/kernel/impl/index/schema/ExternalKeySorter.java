@@ -0,0 +1,341 @@
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import org.neo4j.cursor.RawCursor;
+import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.index.internal.gbptree.Hit;
+import org.neo4j.index.internal.gbptree.Layout;
+import org.neo4j.io.ByteUnit;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PagedFile;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.DELETE_ON_CLOSE;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
+
+/**
+ * Sorts keys added in any order into a stream of entries in ascending key order, suitable for
+ * {@link GBPTree#bulkLoad(RawCursor, double) bulk loading} a {@link GBPTree}.
+ * <p>
+ * Keys are buffered in memory until they take up more than the memory limit. The buffered keys are then sorted and
+ * written to a file as a sorted run. When all keys have been added, the runs are merged into one stream. Keys that
+ * all fit in memory are never written to the file. Identical keys are only included once in the sorted stream.
+ * <p>
+ * {@link NativeSchemaValue Values} carry no data, so all entries get the same value.
+ *
+ * @param <KEY> type of {@link NativeSchemaKey}.
+ * @param <VALUE> type of {@link NativeSchemaValue}.
+ */
+class ExternalKeySorter<KEY extends NativeSchemaKey, VALUE extends NativeSchemaValue> implements Closeable
+{
+    static final long DEFAULT_MEMORY_LIMIT = ByteUnit.mebiBytes( 32 );
+    // Rough size in memory of a key object, on top of the serialized size of the key
+    private static final int KEY_OVERHEAD = 32;
+    private static final int NO_MORE_KEYS_IN_PAGE = 0;
+
+    private final PageCache pageCache;
+    private final File file;
+    private final Layout<KEY,VALUE> layout;
+    private final VALUE value;
+    private final long memoryLimit;
+    private final List<KEY> buffer = new ArrayList<>();
+    private final List<Run> runs = new ArrayList<>();
+    private final List<RunReader> readers = new ArrayList<>();
+    private long bufferedBytes;
+    private PagedFile pagedFile;
+    private long nextRunPageId;
+
+    ExternalKeySorter( PageCache pageCache, File file, Layout<KEY,VALUE> layout, long memoryLimit )
+    {
+        this.pageCache = pageCache;
+        this.file = file;
+        this.layout = layout;
+        this.value = layout.newValue();
+        this.memoryLimit = memoryLimit;
+    }
+
+    /**
+     * Adds a copy of the given key.
+     */
+    void add( KEY key ) throws IOException
+    {
+        buffer.add( layout.copyKey( key, layout.newKey() ) );
+        bufferedBytes += layout.keySize( key ) + KEY_OVERHEAD;
+        if ( bufferedBytes >= memoryLimit )
+        {
+            writeRun();
+        }
+    }
+
+    /**
+     * @return all added keys in ascending order. No more keys can be added after this call.
+     * The returned cursor reads from this sorter, so it must be exhausted before this sorter is closed.
+     */
+    RawCursor<Hit<KEY,VALUE>,IOException> sorted() throws IOException
+    {
+        if ( runs.isEmpty() )
+        {
+            buffer.sort( layout );
+            return new DistinctKeys()
+            {
+                private final Iterator<KEY> keys = buffer.iterator();
+
+                @Override
+                boolean nextKey( KEY into )
+                {
+                    if ( keys.hasNext() )
+                    {
+                        layout.copyKey( keys.next(), into );
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        if ( !buffer.isEmpty() )
+        {
+            writeRun();
+        }
+        PriorityQueue<RunReader> queue = new PriorityQueue<>( runs.size(), ( a, b ) -> layout.compare( a.key, b.key ) );
+        for ( Run run : runs )
+        {
+            RunReader reader = new RunReader( run );
+            readers.add( reader );
+            if ( reader.next() )
+            {
+                queue.add( reader );
+            }
+        }
+        return new DistinctKeys()
+        {
+            @Override
+            boolean nextKey( KEY into ) throws IOException
+            {
+                RunReader reader = queue.poll();
+                if ( reader == null )
+                {
+                    return false;
+                }
+                layout.copyKey( reader.key, into );
+                if ( reader.next() )
+                {
+                    queue.add( reader );
+                }
+                return true;
+            }
+        };
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        buffer.clear();
+        for ( RunReader reader : readers )
+        {
+            reader.cursor.close();
+        }
+        readers.clear();
+        if ( pagedFile != null )
+        {
+            pagedFile.close();
+            pagedFile = null;
+        }
+    }
+
+    private void writeRun() throws IOException
+    {
+        buffer.sort( layout );
+        if ( pagedFile == null )
+        {
+            pagedFile = pageCache.map( file, pageCache.pageSize(), CREATE, DELETE_ON_CLOSE );
+        }
+        int pageSize = pagedFile.pageSize();
+        int valueSize = layout.valueSize( value );
+        long startPageId = nextRunPageId;
+        try ( PageCursor cursor = pagedFile.io( startPageId, PF_SHARED_WRITE_LOCK ) )
+        {
+            cursor.next();
+            for ( KEY key : buffer )
+            {
+                int keySize = layout.keySize( key );
+                if ( cursor.getOffset() + Integer.BYTES + keySize + valueSize > pageSize )
+                {
+                    if ( cursor.getOffset() + Integer.BYTES <= pageSize )
+                    {
+                        cursor.putInt( NO_MORE_KEYS_IN_PAGE );
+                    }
+                    cursor.next();
+                }
+                cursor.putInt( keySize );
+                layout.writeKey( cursor, key );
+                layout.writeValue( cursor, value );
+            }
+            nextRunPageId = cursor.getCurrentPageId() + 1;
+        }
+        runs.add( new Run( startPageId, buffer.size() ) );
+        buffer.clear();
+        bufferedBytes = 0;
+    }
+
+    private static class Run
+    {
+        private final long startPageId;
+        private final int keyCount;
+
+        Run( long startPageId, int keyCount )
+        {
+            this.startPageId = startPageId;
+            this.keyCount = keyCount;
+        }
+    }
+
+    /**
+     * Reads the keys of one sorted run, in order.
+     */
+    private class RunReader
+    {
+        private final PageCursor cursor;
+        private final KEY key = layout.newKey();
+        private final VALUE ignoredValue = layout.newValue();
+        private int remaining;
+
+        RunReader( Run run ) throws IOException
+        {
+            this.cursor = pagedFile.io( run.startPageId, PF_SHARED_READ_LOCK );
+            this.remaining = run.keyCount;
+            cursor.next();
+        }
+
+        boolean next() throws IOException
+        {
+            if ( remaining == 0 )
+            {
+                cursor.close();
+                return false;
+            }
+            remaining--;
+
+            int pageSize = pagedFile.pageSize();
+            int valueSize = layout.valueSize( ignoredValue );
+            while ( true )
+            {
+                int offset = cursor.getOffset();
+                boolean keyInPage;
+                do
+                {
+                    cursor.setOffset( offset );
+                    int keySize = offset + Integer.BYTES <= pageSize ? cursor.getInt() : NO_MORE_KEYS_IN_PAGE;
+                    keyInPage = keySize != NO_MORE_KEYS_IN_PAGE;
+                    if ( keyInPage )
+                    {
+                        if ( keySize < 0 || offset + Integer.BYTES + keySize + valueSize > pageSize )
+                        {
+                            // Either an inconsistent read, which will be retried, or a broken file
+                            cursor.setCursorException( "Read unreliable key size " + keySize + " at offset " + offset );
+                        }
+                        else
+                        {
+                            layout.readKey( cursor, key, keySize );
+                            layout.readValue( cursor, ignoredValue, valueSize );
+                        }
+                    }
+                }
+                while ( cursor.shouldRetry() );
+                if ( cursor.checkAndClearBoundsFlag() )
+                {
+                    throw new IllegalStateException( "Read out of bounds of page " + cursor.getCurrentPageId() +
+                            " in " + file );
+                }
+                cursor.checkAndClearCursorException();
+
+                if ( keyInPage )
+                {
+                    return true;
+                }
+                if ( !cursor.next() )
+                {
+                    throw new IllegalStateException( "Run ended before all of its keys were read from " + file );
+                }
+            }
+        }
+    }
+
+    /**
+     * Cursor over keys in ascending order, which skips keys identical to the one before.
+     */
+    private abstract class DistinctKeys implements RawCursor<Hit<KEY,VALUE>,IOException>, Hit<KEY,VALUE>
+    {
+        private final KEY current = layout.newKey();
+        private final KEY next = layout.newKey();
+        private boolean first = true;
+
+        abstract boolean nextKey( KEY into ) throws IOException;
+
+        @Override
+        public boolean next() throws IOException
+        {
+            while ( nextKey( next ) )
+            {
+                if ( first || layout.compare( current, next ) != 0 )
+                {
+                    first = false;
+                    layout.copyKey( next, current );
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public Hit<KEY,VALUE> get()
+        {
+            return this;
+        }
+
+        @Override
+        public KEY key()
+        {
+            return current;
+        }
+
+        @Override
+        public VALUE value()
+        {
+            return value;
+        }
+
+        @Override
+        public void close()
+        {
+        }
+    }
+}
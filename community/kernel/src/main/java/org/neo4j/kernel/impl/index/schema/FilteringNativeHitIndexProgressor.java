@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.io.IOException;
+import java.util.Collection;
+
+import org.neo4j.cursor.RawCursor;
+import org.neo4j.index.internal.gbptree.Hit;
+import org.neo4j.internal.kernel.api.IndexQuery;
+import org.neo4j.values.storable.Value;
+
+/**
+ * {@link NativeHitIndexProgressor} that only passes on the hits with values that are accepted by all of the given predicates.
+ * Used for queries that can not be answered by the seek range alone.
+ */
+class FilteringNativeHitIndexProgressor<KEY extends NativeSchemaKey, VALUE extends NativeSchemaValue>
+        extends NativeHitIndexProgressor<KEY,VALUE>
+{
+    private final IndexQuery[] filters;
+
+    FilteringNativeHitIndexProgressor( RawCursor<Hit<KEY,VALUE>,IOException> seeker, NodeValueClient client,
+            Collection<RawCursor<Hit<KEY,VALUE>,IOException>> toRemoveFromOnClose, IndexQuery[] filters )
+    {
+        super( seeker, client, toRemoveFromOnClose );
+        this.filters = filters;
+    }
+
+    @Override
+    boolean acceptValues( Value[] values )
+    {
+        // There is one filter for each property, in the same order as the values
+        for ( int i = 0; i < filters.length; i++ )
+        {
+            if ( !filters[i].acceptsValue( values[i] ) )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+}
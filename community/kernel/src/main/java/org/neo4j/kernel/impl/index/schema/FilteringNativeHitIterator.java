@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.io.IOException;
+import java.util.Collection;
+
+import org.neo4j.cursor.RawCursor;
+import org.neo4j.index.internal.gbptree.Hit;
+import org.neo4j.internal.kernel.api.IndexQuery;
+import org.neo4j.values.storable.Value;
+
+/**
+ * {@link NumberHitIterator} that only includes the hits with values that are accepted by all of the given predicates.
+ * Used for queries that can not be answered by the seek range alone.
+ *
+ * @param <KEY> type of {@link NativeSchemaKey}.
+ * @param <VALUE> type of {@link NativeSchemaValue}.
+ */
+class FilteringNativeHitIterator<KEY extends NativeSchemaKey, VALUE extends NativeSchemaValue> extends NumberHitIterator<KEY,VALUE>
+{
+    private final IndexQuery[] filters;
+
+    FilteringNativeHitIterator( RawCursor<Hit<KEY,VALUE>,IOException> seeker,
+            Collection<RawCursor<Hit<KEY,VALUE>,IOException>> toRemoveFromWhenExhausted, IndexQuery[] filters )
+    {
+        super( seeker, toRemoveFromWhenExhausted );
+        this.filters = filters;
+    }
+
+    @Override
+    boolean acceptValue( KEY key )
+    {
+        // There is one filter for each property, in the same order as the values
+        Value[] values = key.asValues();
+        for ( int i = 0; i < filters.length; i++ )
+        {
+            if ( !filters[i].acceptsValue( values[i] ) )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+}
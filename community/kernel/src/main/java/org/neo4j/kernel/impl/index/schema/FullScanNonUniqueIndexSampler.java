@@ -21,11 +21,20 @@ package org.neo4j.kernel.impl.index.schema;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.neo4j.cursor.RawCursor;
 import org.neo4j.index.internal.gbptree.GBPTree;
 import org.neo4j.index.internal.gbptree.Hit;
+import org.neo4j.helpers.NamedThreadFactory;
 import org.neo4j.index.internal.gbptree.Layout;
+import org.neo4j.io.IOUtils;
 import org.neo4j.kernel.impl.api.index.sampling.DefaultNonUniqueIndexSampler;
 import org.neo4j.kernel.impl.api.index.sampling.IndexSamplingConfig;
 import org.neo4j.kernel.impl.api.index.sampling.NonUniqueIndexSampler;
@@ -33,6 +42,8 @@ import org.neo4j.storageengine.api.schema.IndexSample;
 
 /**
  * {@link NonUniqueIndexSampler} which performs a full scans of a {@link GBPTree} in {@link #result()}.
+ * The tree is {@link GBPTree#partitionedSeek(Object, Object, int) partitioned} and partitions are sampled in parallel,
+ * by a thread pool of the sampler's own that lives for as long as the sampling does.
  *
  * @param <KEY> type of keys in tree.
  * @param <VALUE> type of values in tree.
@@ -59,7 +70,81 @@ class FullScanNonUniqueIndexSampler<KEY extends NativeSchemaKey, VALUE extends N
         lowest.initAsLowest();
         KEY highest = layout.newKey();
         highest.initAsHighest();
-        try ( RawCursor<Hit<KEY,VALUE>,IOException> seek = gbpTree.seek( lowest, highest ) )
+        List<RawCursor<Hit<KEY,VALUE>,IOException>> partitions;
+        try
+        {
+            partitions = gbpTree.partitionedSeek( lowest, highest, Runtime.getRuntime().availableProcessors() );
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+
+        // Values on the border between two partitions will be counted as unique in both,
+        // just as values are counted in each partition of a partitioned lucene index.
+        // The index sampling job thread samples the first partition itself, and the others are sampled by threads
+        // of our own, rather than shared ones, since sampling a partition takes a long time.
+        ExecutorService executor = Executors.newFixedThreadPool( Math.max( 1, partitions.size() - 1 ),
+                NamedThreadFactory.daemon( "index-sampler" ) );
+        try
+        {
+            List<Future<IndexSample>> samples = new ArrayList<>();
+            for ( RawCursor<Hit<KEY,VALUE>,IOException> partition : partitions.subList( 1, partitions.size() ) )
+            {
+                samples.add( executor.submit( () -> samplePartition( partition ) ) );
+            }
+            IndexSample result = samplePartition( partitions.get( 0 ) );
+            for ( Future<IndexSample> sample : samples )
+            {
+                result = combine( result, sample.get() );
+            }
+            return result;
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException( "Interrupted while sampling index", e );
+        }
+        catch ( ExecutionException e )
+        {
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException ? (RuntimeException) cause : new RuntimeException( cause );
+        }
+        finally
+        {
+            // The partitions must not be closed while they are still being sampled
+            executor.shutdown();
+            awaitTermination( executor );
+            IOUtils.closeAllSilently( partitions );
+        }
+    }
+
+    private static void awaitTermination( ExecutorService executor )
+    {
+        boolean interrupted = false;
+        while ( true )
+        {
+            try
+            {
+                if ( executor.awaitTermination( 1, TimeUnit.MINUTES ) )
+                {
+                    break;
+                }
+            }
+            catch ( InterruptedException e )
+            {
+                interrupted = true;
+            }
+        }
+        if ( interrupted )
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private IndexSample samplePartition( RawCursor<Hit<KEY,VALUE>,IOException> seek )
+    {
+        try
         {
             NonUniqueIndexSampler sampler = new DefaultNonUniqueIndexSampler( samplingConfig.sampleSizeLimit() );
             while ( seek.next() )
@@ -75,6 +160,14 @@ class FullScanNonUniqueIndexSampler<KEY extends NativeSchemaKey, VALUE extends N
         }
     }
 
+    private static IndexSample combine( IndexSample sample1, IndexSample sample2 )
+    {
+        long indexSize = Math.addExact( sample1.indexSize(), sample2.indexSize() );
+        long uniqueValues = Math.addExact( sample1.uniqueValues(), sample2.uniqueValues() );
+        long sampleSize = Math.addExact( sample1.sampleSize(), sample2.sampleSize() );
+        return new IndexSample( indexSize, uniqueValues, sampleSize );
+    }
+
     @Override
     public IndexSample result( int numDocs )
     {
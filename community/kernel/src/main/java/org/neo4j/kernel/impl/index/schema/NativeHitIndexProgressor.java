@@ -26,6 +26,7 @@ import java.util.Collection;
 import org.neo4j.cursor.RawCursor;
 import org.neo4j.index.internal.gbptree.Hit;
 import org.neo4j.storageengine.api.schema.IndexProgressor;
+import org.neo4j.values.storable.Value;
 
 public class NativeHitIndexProgressor<KEY extends NativeSchemaKey, VALUE extends NativeSchemaValue> implements IndexProgressor
 {
@@ -50,7 +51,8 @@ public class NativeHitIndexProgressor<KEY extends NativeSchemaKey, VALUE extends
             while ( seeker.next() )
             {
                 KEY key = seeker.get().key();
-                if ( client.acceptNode( key.getEntityId(), key.asValue() ) )
+                Value[] values = key.asValues();
+                if ( acceptValues( values ) && client.acceptNode( key.getEntityId(), values ) )
                 {
                     return true;
                 }
@@ -63,6 +65,15 @@ public class NativeHitIndexProgressor<KEY extends NativeSchemaKey, VALUE extends
         }
     }
 
+    /**
+     * @param values the values of a hit in the seek range, one for each property of the index.
+     * @return whether or not the hit should be passed on to the client.
+     */
+    boolean acceptValues( Value[] values )
+    {
+        return true;
+    }
+
     @Override
     public void close()
     {
@@ -20,8 +20,6 @@
 package org.neo4j.kernel.impl.index.schema;
 
 import java.io.File;
-import java.io.IOException;
-import java.io.UncheckedIOException;
 
 import org.neo4j.index.internal.gbptree.Layout;
 import org.neo4j.io.fs.FileSystemAbstraction;
@@ -47,7 +45,7 @@ class NativeNonUniqueSchemaIndexPopulator<KEY extends NativeSchemaKey, VALUE ext
     NativeNonUniqueSchemaIndexPopulator( PageCache pageCache, FileSystemAbstraction fs, File storeFile, Layout<KEY,VALUE> layout,
             IndexSamplingConfig samplingConfig, SchemaIndexProvider.Monitor monitor, IndexDescriptor descriptor, long indexId )
     {
-        super( pageCache, fs, storeFile, layout, monitor, descriptor, indexId );
+        super( pageCache, fs, storeFile, layout, monitor, descriptor, indexId, true );
         this.samplingConfig = samplingConfig;
         this.sampler = new DefaultNonUniqueIndexSampler( samplingConfig.sampleSizeLimit() );
     }
@@ -61,30 +59,6 @@ class NativeNonUniqueSchemaIndexPopulator<KEY extends NativeSchemaKey, VALUE ext
     @Override
     public IndexSample sampleResult()
     {
-        // Close the writer before scanning
-        try
-        {
-            closeWriter();
-        }
-        catch ( IOException e )
-        {
-            throw new UncheckedIOException( e );
-        }
-
-        try
-        {
-            return sampler.result();
-        }
-        finally
-        {
-            try
-            {
-                instantiateWriter();
-            }
-            catch ( IOException e )
-            {
-                throw new UncheckedIOException( e );
-            }
-        }
+        return sampler.result();
     }
 }
@@ -47,7 +47,6 @@ import static org.neo4j.index.internal.gbptree.GBPTree.NO_HEADER_WRITER;
 public abstract class NativeSchemaIndexAccessor<KEY extends NativeSchemaKey, VALUE extends NativeSchemaValue>
         extends NativeSchemaIndex<KEY,VALUE> implements IndexAccessor
 {
-    private final NativeSchemaIndexUpdater<KEY,VALUE> singleUpdater;
     final IndexSamplingConfig samplingConfig;
 
     NativeSchemaIndexAccessor(
@@ -62,7 +61,6 @@ public abstract class NativeSchemaIndexAccessor<KEY extends NativeSchemaKey, VAL
             IndexSamplingConfig samplingConfig ) throws IOException
     {
         super( pageCache, fs, storeFile, layout, monitor, descriptor, indexId );
-        singleUpdater = new NativeSchemaIndexUpdater<>( layout.newKey(), layout.newValue() );
         this.samplingConfig = samplingConfig;
         instantiateTree( recoveryCleanupWorkCollector, NO_HEADER_WRITER );
     }
@@ -80,7 +78,10 @@ public abstract class NativeSchemaIndexAccessor<KEY extends NativeSchemaKey, VAL
         assertOpen();
         try
         {
-            return singleUpdater.initialize( tree.writer(), true );
+            // Each updater gets its own writer so that updates from concurrently committing transactions
+            // can be applied to the tree in parallel
+            NativeSchemaIndexUpdater<KEY,VALUE> updater = new NativeSchemaIndexUpdater<>( layout.newKey(), layout.newValue() );
+            return updater.initialize( tree.concurrentWriter(), true );
         }
         catch ( IOException e )
         {
@@ -88,6 +89,12 @@ public abstract class NativeSchemaIndexAccessor<KEY extends NativeSchemaKey, VAL
         }
     }
 
+    @Override
+    public boolean supportsConcurrentUpdaters()
+    {
+        return true;
+    }
+
     @Override
     public void force() throws IOException
     {
@@ -95,6 +102,12 @@ public abstract class NativeSchemaIndexAccessor<KEY extends NativeSchemaKey, VAL
         tree.checkpoint( IOLimiter.unlimited() );
     }
 
+    @Override
+    public void compact( IOLimiter ioLimiter ) throws IOException
+    {
+        tree.compact( ioLimiter );
+    }
+
     @Override
     public void refresh()
     {
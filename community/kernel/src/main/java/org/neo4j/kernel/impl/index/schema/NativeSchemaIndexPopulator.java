@@ -28,7 +28,9 @@ import java.util.concurrent.ExecutionException;
 
 import org.neo4j.concurrent.Work;
 import org.neo4j.concurrent.WorkSync;
+import org.neo4j.cursor.RawCursor;
 import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.index.internal.gbptree.Hit;
 import org.neo4j.index.internal.gbptree.Layout;
 import org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector;
 import org.neo4j.index.internal.gbptree.Writer;
@@ -42,6 +44,7 @@ import org.neo4j.kernel.api.index.IndexUpdater;
 import org.neo4j.kernel.api.index.PropertyAccessor;
 import org.neo4j.kernel.api.index.SchemaIndexProvider;
 import org.neo4j.kernel.api.schema.index.IndexDescriptor;
+import org.neo4j.kernel.impl.api.index.UpdateMode;
 
 import static org.neo4j.index.internal.gbptree.GBPTree.NO_HEADER_WRITER;
 
@@ -57,35 +60,61 @@ public abstract class NativeSchemaIndexPopulator<KEY extends NativeSchemaKey, VA
     static final byte BYTE_FAILED = 0;
     static final byte BYTE_ONLINE = 1;
     static final byte BYTE_POPULATING = 2;
+    // Leaves some room in the bulk loaded tree nodes for updates after population, before nodes need to be split
+    private static final double BULK_LOAD_FILL_FACTOR = 0.9;
 
     private final KEY treeKey;
     private final VALUE treeValue;
     private final ConflictDetectingValueMerger<KEY,VALUE> conflictDetectingValueMerger;
+    private final boolean bulkLoad;
+    private final File sortFile;
     private WorkSync<IndexUpdateApply<KEY,VALUE>,IndexUpdateWork<KEY,VALUE>> workSync;
 
+    // Keys of entries added by the store scan, to be bulk loaded into the empty tree rather than inserted one by one.
+    // As soon as any other update comes along the keys sorted so far are loaded and all further entries are inserted.
+    private ExternalKeySorter<KEY,VALUE> addedKeys;
     private Writer<KEY,VALUE> singleTreeWriter;
     private byte[] failureBytes;
     private boolean dropped;
 
+    /**
+     * @param bulkLoad whether or not to sort the entries added by the store scan and bulk load them into the tree,
+     * rather than inserting them one by one.
+     */
     NativeSchemaIndexPopulator( PageCache pageCache, FileSystemAbstraction fs, File storeFile, Layout<KEY,VALUE> layout,
-            SchemaIndexProvider.Monitor monitor, IndexDescriptor descriptor, long indexId )
+            SchemaIndexProvider.Monitor monitor, IndexDescriptor descriptor, long indexId, boolean bulkLoad )
     {
         super( pageCache, fs, storeFile, layout, monitor, descriptor, indexId );
         this.treeKey = layout.newKey();
         this.treeValue = layout.newValue();
         this.conflictDetectingValueMerger = new ConflictDetectingValueMerger<>();
+        this.bulkLoad = bulkLoad;
+        this.sortFile = new File( storeFile.getParentFile(), storeFile.getName() + ".sort" );
     }
 
     @Override
     public synchronized void create() throws IOException
     {
         gbpTreeFileUtil.deleteFileIfPresent( storeFile );
+        gbpTreeFileUtil.deleteFileIfPresent( sortFile );
         instantiateTree( RecoveryCleanupWorkCollector.IMMEDIATE, new NativeSchemaIndexHeaderWriter( BYTE_POPULATING ) );
+        if ( bulkLoad )
+        {
+            addedKeys = new ExternalKeySorter<>( pageCache, sortFile, layout, ExternalKeySorter.DEFAULT_MEMORY_LIMIT );
+        }
+        else
+        {
+            startInserting();
+        }
+    }
+
+    private void startInserting() throws IOException
+    {
         instantiateWriter();
         workSync = new WorkSync<>( new IndexUpdateApply<>( treeKey, treeValue, singleTreeWriter, conflictDetectingValueMerger ) );
     }
 
-    void instantiateWriter() throws IOException
+    private void instantiateWriter() throws IOException
     {
         assert singleTreeWriter == null;
         singleTreeWriter = tree.writer();
@@ -97,6 +126,7 @@ public abstract class NativeSchemaIndexPopulator<KEY extends NativeSchemaKey, VA
         try
         {
             closeWriter();
+            closeAddedKeys();
             closeTree();
             gbpTreeFileUtil.deleteFileIfPresent( storeFile );
         }
@@ -109,7 +139,64 @@ public abstract class NativeSchemaIndexPopulator<KEY extends NativeSchemaKey, VA
     @Override
     public void add( Collection<? extends IndexEntryUpdate<?>> updates ) throws IndexEntryConflictException, IOException
     {
-        applyWithWorkSync( updates );
+        if ( !sortForBulkLoad( updates ) )
+        {
+            applyWithWorkSync( updates );
+        }
+    }
+
+    /**
+     * @return whether or not the keys of the given updates were added to the keys to bulk load. If not, the updates
+     * have to be applied to the tree.
+     */
+    private synchronized boolean sortForBulkLoad( Collection<? extends IndexEntryUpdate<?>> updates ) throws IOException
+    {
+        if ( addedKeys == null )
+        {
+            return false;
+        }
+        for ( IndexEntryUpdate<?> update : updates )
+        {
+            if ( update.updateMode() != UpdateMode.ADDED )
+            {
+                stopSorting();
+                return false;
+            }
+        }
+        KEY key = layout.newKey();
+        for ( IndexEntryUpdate<?> update : updates )
+        {
+            key.from( update.getEntityId(), update.values() );
+            addedKeys.add( key );
+        }
+        return true;
+    }
+
+    /**
+     * Loads the keys sorted so far into the tree, so that updates can be applied to it from now on.
+     */
+    private synchronized void stopSorting() throws IOException
+    {
+        if ( addedKeys != null )
+        {
+            bulkLoadAddedKeys();
+            startInserting();
+        }
+    }
+
+    private void bulkLoadAddedKeys() throws IOException
+    {
+        if ( addedKeys != null )
+        {
+            try ( RawCursor<Hit<KEY,VALUE>,IOException> sorted = addedKeys.sorted() )
+            {
+                tree.bulkLoad( sorted, BULK_LOAD_FILL_FACTOR );
+            }
+            finally
+            {
+                closeAddedKeys();
+            }
+        }
     }
 
     @Override
@@ -137,7 +224,11 @@ public abstract class NativeSchemaIndexPopulator<KEY extends NativeSchemaKey, VA
             @Override
             public void close() throws IOException, IndexEntryConflictException
             {
-                applyWithWorkSync( updates );
+                if ( !updates.isEmpty() )
+                {
+                    stopSorting();
+                    applyWithWorkSync( updates );
+                }
                 closed = true;
             }
 
@@ -165,6 +256,7 @@ public abstract class NativeSchemaIndexPopulator<KEY extends NativeSchemaKey, VA
             if ( populationCompletedSuccessfully )
             {
                 assertPopulatorOpen();
+                bulkLoadAddedKeys();
                 markTreeAsOnline();
             }
             else
@@ -176,6 +268,7 @@ public abstract class NativeSchemaIndexPopulator<KEY extends NativeSchemaKey, VA
         }
         finally
         {
+            closeAddedKeys();
             closeTree();
         }
     }
@@ -236,11 +329,16 @@ public abstract class NativeSchemaIndexPopulator<KEY extends NativeSchemaKey, VA
         tree.checkpoint( IOLimiter.unlimited(), pc -> pc.putByte( BYTE_ONLINE ) );
     }
 
-    void closeWriter() throws IOException
+    private void closeWriter() throws IOException
     {
         singleTreeWriter = closeIfPresent( singleTreeWriter );
     }
 
+    private void closeAddedKeys() throws IOException
+    {
+        addedKeys = closeIfPresent( addedKeys );
+    }
+
     private static class IndexUpdateApply<KEY extends NativeSchemaKey, VALUE extends NativeSchemaValue>
     {
         private final KEY treeKey;
@@ -115,21 +115,7 @@ abstract class NativeSchemaIndexReader<KEY extends NativeSchemaKey, VALUE extend
         KEY treeKeyTo = layout.newKey();
 
         initializeRangeForQuery( treeKeyFrom, treeKeyTo, predicates );
-        if ( isBackwardsSeek( treeKeyFrom, treeKeyTo ) )
-        {
-            return PrimitiveLongResourceCollections.emptyIterator();
-        }
-
-        try
-        {
-            RawCursor<Hit<KEY,VALUE>,IOException> seeker = tree.seek( treeKeyFrom, treeKeyTo );
-            openSeekers.add( seeker );
-            return new NumberHitIterator<>( seeker, openSeekers );
-        }
-        catch ( IOException e )
-        {
-            throw new UncheckedIOException( e );
-        }
+        return startSeekForInitializedRange( treeKeyFrom, treeKeyTo, predicates );
     }
 
     @Override
@@ -141,7 +127,7 @@ abstract class NativeSchemaIndexReader<KEY extends NativeSchemaKey, VALUE extend
         KEY treeKeyTo = layout.newKey();
 
         initializeRangeForQuery( treeKeyFrom, treeKeyTo, predicates );
-        startSeekForInitializedRange( cursor, treeKeyFrom, treeKeyTo, predicates );
+        startSeekForInitializedRange( cursor, treeKeyFrom, treeKeyTo, predicates, indexOrder );
     }
 
     @Override
@@ -151,7 +137,50 @@ abstract class NativeSchemaIndexReader<KEY extends NativeSchemaKey, VALUE extend
 
     abstract void initializeRangeForQuery( KEY treeKeyFrom, KEY treeKeyTo, IndexQuery[] predicates );
 
-    private void startSeekForInitializedRange( IndexProgressor.NodeValueClient client, KEY treeKeyFrom, KEY treeKeyTo, IndexQuery[] query )
+    /**
+     * @param predicates the query.
+     * @return whether or not the hits in the range set up by {@link #initializeRangeForQuery(NativeSchemaKey, NativeSchemaKey, IndexQuery[])}
+     * must also be filtered by the predicates, because the range covers more than the query.
+     */
+    boolean needFilter( IndexQuery[] predicates )
+    {
+        return false;
+    }
+
+    /**
+     * Starts a seek in the range from {@code treeKeyFrom} (inclusive) to {@code treeKeyTo} (exclusive) and returns its hits as
+     * an iterator. Hits are filtered by the query if {@link #needFilter(IndexQuery[])} says so.
+     */
+    PrimitiveLongResourceIterator startSeekForInitializedRange( KEY treeKeyFrom, KEY treeKeyTo, IndexQuery[] query )
+    {
+        if ( isBackwardsSeek( treeKeyFrom, treeKeyTo ) )
+        {
+            return PrimitiveLongResourceCollections.emptyIterator();
+        }
+
+        try
+        {
+            RawCursor<Hit<KEY,VALUE>,IOException> seeker = tree.seek( treeKeyFrom, treeKeyTo );
+            openSeekers.add( seeker );
+            return needFilter( query ) ? new FilteringNativeHitIterator<>( seeker, openSeekers, query )
+                                       : new NumberHitIterator<>( seeker, openSeekers );
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+    }
+
+    /**
+     * Starts a seek in the range from {@code treeKeyFrom} (inclusive) to {@code treeKeyTo} (exclusive) and initializes the client
+     * with a progressor over its hits. Hits are filtered by the query if {@link #needFilter(IndexQuery[])} says so.
+     * For {@link IndexOrder#DESCENDING} the range is seeked backwards, from the highest key to the lowest, which means that
+     * the first hit is the last key in the range and only the leaf holding it needs to be read to get it.
+     * Range bounds never equal an entry in the tree, with the exception of an exact seek where they are equal to each other,
+     * so swapping which bound is inclusive and which is exclusive includes the same entries.
+     */
+    void startSeekForInitializedRange( IndexProgressor.NodeValueClient client, KEY treeKeyFrom, KEY treeKeyTo, IndexQuery[] query,
+            IndexOrder indexOrder )
     {
         if ( isBackwardsSeek( treeKeyFrom, treeKeyTo ) )
         {
@@ -160,9 +189,11 @@ abstract class NativeSchemaIndexReader<KEY extends NativeSchemaKey, VALUE extend
         }
         try
         {
-            RawCursor<Hit<KEY,VALUE>,IOException> seeker = tree.seek( treeKeyFrom, treeKeyTo );
+            RawCursor<Hit<KEY,VALUE>,IOException> seeker = indexOrder == IndexOrder.DESCENDING ? tree.seek( treeKeyTo, treeKeyFrom )
+                                                                                               : tree.seek( treeKeyFrom, treeKeyTo );
             openSeekers.add( seeker );
-            IndexProgressor hitProgressor = new NativeHitIndexProgressor<>( seeker, client, openSeekers );
+            IndexProgressor hitProgressor = needFilter( query ) ? new FilteringNativeHitIndexProgressor<>( seeker, client, openSeekers, query )
+                                                                : new NativeHitIndexProgressor<>( seeker, client, openSeekers );
             client.initialize( descriptor, hitProgressor, query );
         }
         catch ( IOException e )
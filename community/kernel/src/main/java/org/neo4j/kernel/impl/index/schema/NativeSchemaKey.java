@@ -50,6 +50,14 @@ interface NativeSchemaKey
 
     Value asValue();
 
+    /**
+     * @return the values of this key, one for each property of the index and in the same order as the properties.
+     */
+    default Value[] asValues()
+    {
+        return new Value[]{asValue()};
+    }
+
     void initAsLowest();
 
     void initAsHighest();
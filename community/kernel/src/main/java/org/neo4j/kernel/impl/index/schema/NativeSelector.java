@@ -20,26 +20,134 @@
 package org.neo4j.kernel.impl.index.schema;
 
 import org.neo4j.kernel.impl.index.schema.fusion.FusionSchemaIndexProvider;
+import org.neo4j.values.storable.PointValue;
+import org.neo4j.values.storable.TextValue;
 import org.neo4j.values.storable.Value;
 import org.neo4j.values.storable.ValueGroup;
 
 public class NativeSelector implements FusionSchemaIndexProvider.Selector
 {
+    private final int maxStringBytes;
+    private final int maxCompositeKeyBytes;
+
+    /**
+     * @param maxStringBytes the maximum number of bytes of UTF-8 encoded string that the string index can hold,
+     * longer strings are handled by lucene.
+     * @param maxCompositeKeyBytes the maximum number of bytes of a key in the composite index, values that together
+     * need more are handled by lucene.
+     */
+    public NativeSelector( int maxStringBytes, int maxCompositeKeyBytes )
+    {
+        this.maxStringBytes = maxStringBytes;
+        this.maxCompositeKeyBytes = maxCompositeKeyBytes;
+    }
+
     @Override
-    public <T> T select( T numberInstance, T luceneInstance, Value... values )
+    public int selectSlot( Value... values )
     {
         if ( values.length > 1 )
         {
-            // Multiple values must be handled by lucene
-            return luceneInstance;
+            // Multiple strings, booleans and numbers that fit in a key of the native composite index, the rest go to lucene
+            return fitsInCompositeIndex( values ) ? COMPOSITE : LUCENE;
         }
 
         Value singleValue = values[0];
         if ( singleValue.valueGroup() == ValueGroup.NUMBER )
         {
             // It's a number, the native can handle this
-            return numberInstance;
+            return NUMBER;
+        }
+        if ( singleValue.valueGroup() == ValueGroup.TEXT && fitsInStringIndex( (TextValue) singleValue ) )
+        {
+            // It's a string short enough to fit in a key of the native string index
+            return STRING;
+        }
+        if ( singleValue instanceof PointValue && SpatialCurves.supports( (PointValue) singleValue ) )
+        {
+            // It's a two dimensional point in a coordinate reference system that the native spatial index has a curve for
+            return SPATIAL;
+        }
+        if ( TemporalSchemaKey.supports( singleValue.valueGroup() ) )
+        {
+            // It's a date, time, date time or duration, the native temporal index can handle all of those
+            return TEMPORAL;
+        }
+        return LUCENE;
+    }
+
+    private boolean fitsInStringIndex( TextValue value )
+    {
+        String string = value.stringValue();
+        if ( string.length() > maxStringBytes )
+        {
+            return false;
+        }
+        // A char is at most three bytes in UTF-8, a surrogate pair is four bytes for two chars
+        if ( string.length() * 3 <= maxStringBytes )
+        {
+            return true;
+        }
+        return utf8Length( string ) <= maxStringBytes;
+    }
+
+    private boolean fitsInCompositeIndex( Value[] values )
+    {
+        int size = CompositeSchemaKey.ENTITY_ID_SIZE;
+        for ( Value value : values )
+        {
+            switch ( value.valueGroup() )
+            {
+            case TEXT:
+                String string = ((TextValue) value).stringValue();
+                // Check the number of chars first, a char is at least one byte in UTF-8
+                size += CompositeSchemaKey.TEXT_SLOT_OVERHEAD + string.length();
+                if ( size > maxCompositeKeyBytes )
+                {
+                    return false;
+                }
+                size += utf8Length( string ) - string.length();
+                break;
+            case BOOLEAN:
+                size += CompositeSchemaKey.BOOLEAN_SLOT_SIZE;
+                break;
+            case NUMBER:
+                size += CompositeSchemaKey.NUMBER_SLOT_SIZE;
+                break;
+            default:
+                return false;
+            }
+            if ( size > maxCompositeKeyBytes )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int utf8Length( String string )
+    {
+        int length = 0;
+        for ( int i = 0; i < string.length(); i++ )
+        {
+            char c = string.charAt( i );
+            if ( c < 0x80 )
+            {
+                length += 1;
+            }
+            else if ( c < 0x800 )
+            {
+                length += 2;
+            }
+            else if ( Character.isHighSurrogate( c ) && i + 1 < string.length() && Character.isLowSurrogate( string.charAt( i + 1 ) ) )
+            {
+                length += 4;
+                i++;
+            }
+            else
+            {
+                length += 3;
+            }
         }
-        return luceneInstance;
+        return length;
     }
 }
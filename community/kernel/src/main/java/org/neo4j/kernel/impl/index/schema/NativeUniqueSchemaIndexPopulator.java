@@ -41,7 +41,8 @@ class NativeUniqueSchemaIndexPopulator<KEY extends NativeSchemaKey, VALUE extend
     NativeUniqueSchemaIndexPopulator( PageCache pageCache, FileSystemAbstraction fs, File storeFile, Layout<KEY,VALUE> layout,
             SchemaIndexProvider.Monitor monitor, IndexDescriptor descriptor, long indexId )
     {
-        super( pageCache, fs, storeFile, layout, monitor, descriptor, indexId );
+        // Uniqueness is verified as the entries are inserted, so they can't be bulk loaded at the end
+        super( pageCache, fs, storeFile, layout, monitor, descriptor, indexId, false );
         this.sampler = new UniqueIndexSampler();
     }
 
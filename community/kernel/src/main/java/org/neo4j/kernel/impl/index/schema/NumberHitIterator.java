@@ -55,9 +55,13 @@ public class NumberHitIterator<KEY extends NativeSchemaKey, VALUE extends Native
     {
         try
         {
-            if ( seeker.next() )
+            while ( seeker.next() )
             {
-                return next( seeker.get().key().getEntityId() );
+                KEY key = seeker.get().key();
+                if ( acceptValue( key ) )
+                {
+                    return next( key.getEntityId() );
+                }
             }
             return false;
         }
@@ -67,6 +71,15 @@ public class NumberHitIterator<KEY extends NativeSchemaKey, VALUE extends Native
         }
     }
 
+    /**
+     * @param key the key of a hit in the seek range.
+     * @return whether or not the hit should be included in the result.
+     */
+    boolean acceptValue( KEY key )
+    {
+        return true;
+    }
+
     private void ensureCursorClosed() throws IOException
     {
         if ( !closed )
@@ -196,7 +196,7 @@ public class NumberSchemaIndexProvider extends SchemaIndexProvider
 
     private static class NativeIndexCapability implements IndexCapability
     {
-        private static final IndexOrder[] SUPPORTED_ORDER = {IndexOrder.ASCENDING};
+        private static final IndexOrder[] SUPPORTED_ORDER = {IndexOrder.ASCENDING, IndexOrder.DESCENDING};
         private static final IndexOrder[] EMPTY_ORDER = new IndexOrder[0];
 
         @Override
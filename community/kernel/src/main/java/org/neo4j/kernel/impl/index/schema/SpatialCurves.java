@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import org.neo4j.gis.spatial.index.Envelope;
+import org.neo4j.gis.spatial.index.curves.HilbertSpaceFillingCurve2D;
+import org.neo4j.gis.spatial.index.curves.SpaceFillingCurve;
+import org.neo4j.values.storable.CoordinateReferenceSystem;
+import org.neo4j.values.storable.PointValue;
+
+/**
+ * The {@link SpaceFillingCurve space filling curves} used by the native spatial index, one for each supported
+ * {@link CoordinateReferenceSystem}. The index can only hold two dimensional points in a supported coordinate reference system,
+ * all other points are left for lucene.
+ * <p>
+ * A curve maps the points within its extent to tiles along the curve. Points outside of the extent are mapped to the tiles on
+ * the border of the extent, which is correct since the readers filter the hits of the tiles by their exact coordinates anyway.
+ */
+final class SpatialCurves
+{
+    static final int DIMENSIONS = 2;
+
+    private static final SpaceFillingCurve WGS84_CURVE = new HilbertSpaceFillingCurve2D( new Envelope( -180, 180, -90, 90 ) );
+    private static final SpaceFillingCurve CARTESIAN_CURVE =
+            new HilbertSpaceFillingCurve2D( new Envelope( -1_000_000, 1_000_000, -1_000_000, 1_000_000 ) );
+
+    private SpatialCurves()
+    {
+    }
+
+    static boolean supports( PointValue point )
+    {
+        return supports( point.getCoordinateReferenceSystem(), point.coordinate().length );
+    }
+
+    static boolean supports( CoordinateReferenceSystem crs, int dimensions )
+    {
+        return dimensions == DIMENSIONS && (crs.equals( CoordinateReferenceSystem.WGS84 ) || crs.equals( CoordinateReferenceSystem.Cartesian ));
+    }
+
+    /**
+     * @param crs the {@link CoordinateReferenceSystem} of the points.
+     * @return the {@link SpaceFillingCurve} for points in the given {@link CoordinateReferenceSystem}.
+     * @throws IllegalArgumentException if the {@link CoordinateReferenceSystem} is not supported.
+     */
+    static SpaceFillingCurve curveFor( CoordinateReferenceSystem crs )
+    {
+        if ( crs.equals( CoordinateReferenceSystem.WGS84 ) )
+        {
+            return WGS84_CURVE;
+        }
+        if ( crs.equals( CoordinateReferenceSystem.Cartesian ) )
+        {
+            return CARTESIAN_CURVE;
+        }
+        throw new IllegalArgumentException( "Native spatial index does not support coordinate reference system " + crs );
+    }
+}
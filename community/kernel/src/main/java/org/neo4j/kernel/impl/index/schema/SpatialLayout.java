@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import org.neo4j.index.internal.gbptree.Layout;
+import org.neo4j.io.pagecache.PageCursor;
+
+/**
+ * {@link Layout} for two dimensional points.
+ */
+abstract class SpatialLayout extends Layout.Adapter<SpatialSchemaKey,NativeSchemaValue>
+{
+    @Override
+    public SpatialSchemaKey newKey()
+    {
+        return new SpatialSchemaKey();
+    }
+
+    @Override
+    public SpatialSchemaKey copyKey( SpatialSchemaKey key, SpatialSchemaKey into )
+    {
+        into.crsTableId = key.crsTableId;
+        into.crsCode = key.crsCode;
+        into.rawValueBits = key.rawValueBits;
+        System.arraycopy( key.coordinate, 0, into.coordinate, 0, key.coordinate.length );
+        into.setEntityId( key.getEntityId() );
+        into.setEntityIdIsSpecialTieBreaker( key.getEntityIdIsSpecialTieBreaker() );
+        return into;
+    }
+
+    @Override
+    public NativeSchemaValue newValue()
+    {
+        return NativeSchemaValue.INSTANCE;
+    }
+
+    @Override
+    public int keySize( SpatialSchemaKey key )
+    {
+        return SpatialSchemaKey.SIZE;
+    }
+
+    @Override
+    public int valueSize( NativeSchemaValue value )
+    {
+        return NativeSchemaValue.SIZE;
+    }
+
+    @Override
+    public void writeKey( PageCursor cursor, SpatialSchemaKey key )
+    {
+        cursor.putInt( key.crsTableId );
+        cursor.putInt( key.crsCode );
+        cursor.putLong( key.rawValueBits );
+        for ( double coordinate : key.coordinate )
+        {
+            cursor.putLong( Double.doubleToLongBits( coordinate ) );
+        }
+        cursor.putLong( key.getEntityId() );
+    }
+
+    @Override
+    public void writeValue( PageCursor cursor, NativeSchemaValue value )
+    {
+    }
+
+    @Override
+    public void readKey( PageCursor cursor, SpatialSchemaKey into, int keySize )
+    {
+        into.crsTableId = cursor.getInt();
+        into.crsCode = cursor.getInt();
+        into.rawValueBits = cursor.getLong();
+        for ( int i = 0; i < into.coordinate.length; i++ )
+        {
+            into.coordinate[i] = Double.longBitsToDouble( cursor.getLong() );
+        }
+        into.setEntityId( cursor.getLong() );
+    }
+
+    @Override
+    public void readValue( PageCursor cursor, NativeSchemaValue into, int valueSize )
+    {
+    }
+
+    @Override
+    public boolean fixedSize()
+    {
+        return true;
+    }
+}
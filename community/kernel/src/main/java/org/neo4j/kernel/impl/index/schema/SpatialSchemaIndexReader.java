@@ -0,0 +1,277 @@
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import org.neo4j.collection.primitive.PrimitiveLongCollections;
+import org.neo4j.collection.primitive.PrimitiveLongResourceIterator;
+import org.neo4j.gis.spatial.index.Envelope;
+import org.neo4j.gis.spatial.index.curves.SpaceFillingCurve;
+import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.index.internal.gbptree.Layout;
+import org.neo4j.internal.kernel.api.IndexOrder;
+import org.neo4j.internal.kernel.api.IndexQuery;
+import org.neo4j.internal.kernel.api.IndexQuery.ExactPredicate;
+import org.neo4j.internal.kernel.api.IndexQuery.GeometryRangePredicate;
+import org.neo4j.kernel.api.exceptions.index.IndexNotApplicableKernelException;
+import org.neo4j.kernel.api.schema.index.IndexDescriptor;
+import org.neo4j.kernel.impl.api.index.sampling.IndexSamplingConfig;
+import org.neo4j.storageengine.api.schema.IndexProgressor;
+import org.neo4j.values.storable.PointValue;
+import org.neo4j.values.storable.Value;
+
+import static java.lang.String.format;
+
+/**
+ * Reader of a native spatial index. A geometry range, i.e. a bounding box, is decomposed into the ranges of tiles on the
+ * {@link SpatialCurves space filling curve} that intersect the box. There is one seek per range of tiles, and since the tiles on the
+ * border of the box stick out of it, the hits of the seeks are filtered by their exact coordinates.
+ */
+class SpatialSchemaIndexReader<KEY extends SpatialSchemaKey, VALUE extends NativeSchemaValue> extends NativeSchemaIndexReader<KEY,VALUE>
+{
+    private final Layout<KEY,VALUE> layout;
+    private final IndexDescriptor descriptor;
+
+    SpatialSchemaIndexReader( GBPTree<KEY,VALUE> tree, Layout<KEY,VALUE> layout, IndexSamplingConfig samplingConfig,
+            IndexDescriptor descriptor )
+    {
+        super( tree, layout, samplingConfig, descriptor );
+        this.layout = layout;
+        this.descriptor = descriptor;
+    }
+
+    @Override
+    void validateQuery( IndexOrder indexOrder, IndexQuery[] predicates )
+    {
+        if ( predicates.length != 1 )
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        if ( indexOrder != IndexOrder.NONE )
+        {
+            throw new UnsupportedOperationException(
+                    format( "Tried to query index with unsupported order %s. Supported orders for query %s are %s.", indexOrder,
+                            Arrays.toString( predicates ), IndexOrder.NONE ) );
+        }
+    }
+
+    @Override
+    public PrimitiveLongResourceIterator query( IndexQuery... predicates ) throws IndexNotApplicableKernelException
+    {
+        if ( predicates[0] instanceof GeometryRangePredicate )
+        {
+            return new TileRangesIterator( seekRanges( (GeometryRangePredicate) predicates[0] ).iterator(), predicates );
+        }
+        return super.query( predicates );
+    }
+
+    @Override
+    public void query( IndexProgressor.NodeValueClient cursor, IndexOrder indexOrder, IndexQuery... predicates )
+    {
+        if ( predicates[0] instanceof GeometryRangePredicate )
+        {
+            validateQuery( indexOrder, predicates );
+            Iterator<KEY[]> ranges = seekRanges( (GeometryRangePredicate) predicates[0] ).iterator();
+            cursor.initialize( descriptor, new TileRangesProgressor( ranges, cursor, predicates ), predicates );
+            return;
+        }
+        super.query( cursor, indexOrder, predicates );
+    }
+
+    /**
+     * Decomposes the box of the given range into ranges of tiles on the space filling curve. The tiles are searched no deeper than
+     * {@link SpaceFillingCurve#getSearchDepth(Envelope)}, which keeps the number of seeks small also for large boxes.
+     *
+     * @param rangePredicate the geometry range to seek.
+     * @return pairs of from (inclusive) and to (exclusive) keys, one pair for each range of tiles. Empty if the coordinate
+     * reference system or dimension of the range is not supported by this index, in which case it contains no matching points.
+     */
+    private List<KEY[]> seekRanges( GeometryRangePredicate rangePredicate )
+    {
+        PointValue corner = rangePredicate.from() != null ? rangePredicate.from() : rangePredicate.to();
+        List<KEY[]> ranges = new ArrayList<>();
+        if ( !SpatialCurves.supports( corner ) )
+        {
+            return ranges;
+        }
+
+        SpaceFillingCurve curve = SpatialCurves.curveFor( rangePredicate.crs() );
+        Envelope extent = curve.getRange();
+        double[] min = rangePredicate.from() != null ? rangePredicate.from().coordinate() : extent.getMin();
+        double[] max = rangePredicate.to() != null ? rangePredicate.to().coordinate() : extent.getMax();
+        for ( int i = 0; i < min.length; i++ )
+        {
+            if ( min[i] > max[i] )
+            {
+                return ranges;
+            }
+        }
+        Envelope box = new Envelope( min, max );
+        for ( SpaceFillingCurve.LongRange tiles : curve.getTilesIntersectingEnvelope( box, curve.getSearchDepth( box ) ) )
+        {
+            KEY treeKeyFrom = layout.newKey();
+            KEY treeKeyTo = layout.newKey();
+            treeKeyFrom.initAsTileBound( rangePredicate.crs(), tiles.min );
+            treeKeyTo.initAsTileBound( rangePredicate.crs(), tiles.max + 1 );
+            @SuppressWarnings( "unchecked" )
+            KEY[] range = (KEY[]) new SpatialSchemaKey[]{treeKeyFrom, treeKeyTo};
+            ranges.add( range );
+        }
+        return ranges;
+    }
+
+    @Override
+    void initializeRangeForQuery( KEY treeKeyFrom, KEY treeKeyTo, IndexQuery[] predicates )
+    {
+        IndexQuery predicate = predicates[0];
+        switch ( predicate.type() )
+        {
+        case exists:
+            treeKeyFrom.initAsLowest();
+            treeKeyTo.initAsHighest();
+            break;
+        case exact:
+            ExactPredicate exactPredicate = (ExactPredicate) predicate;
+            treeKeyFrom.from( Long.MIN_VALUE, exactPredicate.value() );
+            treeKeyTo.from( Long.MAX_VALUE, exactPredicate.value() );
+            break;
+        default:
+            throw new IllegalArgumentException( "IndexQuery of type " + predicate.type() + " is not supported." );
+        }
+    }
+
+    @Override
+    boolean needFilter( IndexQuery[] predicates )
+    {
+        return predicates[0].type() == IndexQuery.IndexQueryType.rangeGeometric;
+    }
+
+    @Override
+    public boolean hasFullNumberPrecision( IndexQuery... predicates )
+    {
+        // Keys hold the exact coordinates of the points, and hits of geometry ranges are filtered by them
+        return true;
+    }
+
+    /**
+     * Iterates over the hits of one range of tiles after the other. The seek of a range is started when the hits of the range before it
+     * have been exhausted, so that no more than one seeker is open at a time.
+     */
+    private class TileRangesIterator extends PrimitiveLongCollections.PrimitiveLongBaseIterator implements PrimitiveLongResourceIterator
+    {
+        private final Iterator<KEY[]> ranges;
+        private final IndexQuery[] predicates;
+        private PrimitiveLongResourceIterator current;
+
+        TileRangesIterator( Iterator<KEY[]> ranges, IndexQuery[] predicates )
+        {
+            this.ranges = ranges;
+            this.predicates = predicates;
+        }
+
+        @Override
+        protected boolean fetchNext()
+        {
+            while ( current == null || !current.hasNext() )
+            {
+                close();
+                if ( !ranges.hasNext() )
+                {
+                    return false;
+                }
+                KEY[] range = ranges.next();
+                current = startSeekForInitializedRange( range[0], range[1], predicates );
+            }
+            return next( current.next() );
+        }
+
+        @Override
+        public void close()
+        {
+            if ( current != null )
+            {
+                current.close();
+                current = null;
+            }
+        }
+    }
+
+    /**
+     * Progresses over the hits of one range of tiles after the other, in the same way as {@link TileRangesIterator}.
+     * It is the client of the progressors of the ranges and passes their hits on to the actual client.
+     */
+    private class TileRangesProgressor implements IndexProgressor, IndexProgressor.NodeValueClient
+    {
+        private final Iterator<KEY[]> ranges;
+        private final NodeValueClient client;
+        private final IndexQuery[] predicates;
+        private IndexProgressor current;
+
+        TileRangesProgressor( Iterator<KEY[]> ranges, NodeValueClient client, IndexQuery[] predicates )
+        {
+            this.ranges = ranges;
+            this.client = client;
+            this.predicates = predicates;
+        }
+
+        @Override
+        public boolean next()
+        {
+            while ( current == null || !current.next() )
+            {
+                close();
+                if ( !ranges.hasNext() )
+                {
+                    return false;
+                }
+                KEY[] range = ranges.next();
+                startSeekForInitializedRange( this, range[0], range[1], predicates, IndexOrder.NONE );
+            }
+            return true;
+        }
+
+        @Override
+        public void initialize( IndexDescriptor descriptor, IndexProgressor progressor, IndexQuery[] query )
+        {
+            current = progressor;
+        }
+
+        @Override
+        public boolean acceptNode( long reference, Value[] values )
+        {
+            return client.acceptNode( reference, values );
+        }
+
+        @Override
+        public void close()
+        {
+            if ( current != null )
+            {
+                current.close();
+                current = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.util.Arrays;
+
+import org.neo4j.values.storable.CoordinateReferenceSystem;
+import org.neo4j.values.storable.PointValue;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.ValueWriter;
+import org.neo4j.values.storable.Values;
+
+import static java.lang.String.format;
+
+/**
+ * Includes value and entity id (to be able to handle non-unique values).
+ * A value is a two dimensional {@link PointValue} and is represented by its coordinate reference system, the value of its
+ * tile on the {@link SpatialCurves space filling curve} of that coordinate reference system and its exact coordinate.
+ * <p>
+ * Keys are ordered by coordinate reference system first and curve value second, so that all points of a tile, and of a range
+ * of tiles, are next to each other in the tree. The exact coordinate comes last, only to give points in the same tile an order.
+ */
+class SpatialSchemaKey extends ValueWriter.Adapter<RuntimeException> implements NativeSchemaKey
+{
+    static final int SIZE =
+            Integer.BYTES + /* coordinate reference system table id */
+            Integer.BYTES + /* coordinate reference system code */
+            Long.BYTES +    /* curve value */
+            SpatialCurves.DIMENSIONS * Long.BYTES + /* raw coordinate bits */
+            Long.BYTES;     /* entityId */
+
+    private long entityId;
+    private boolean entityIdIsSpecialTieBreaker;
+
+    int crsTableId;
+    int crsCode;
+    long rawValueBits;
+    final double[] coordinate = new double[SpatialCurves.DIMENSIONS];
+
+    @Override
+    public void setEntityIdIsSpecialTieBreaker( boolean entityIdIsSpecialTieBreaker )
+    {
+        this.entityIdIsSpecialTieBreaker = entityIdIsSpecialTieBreaker;
+    }
+
+    @Override
+    public boolean getEntityIdIsSpecialTieBreaker()
+    {
+        return entityIdIsSpecialTieBreaker;
+    }
+
+    @Override
+    public long getEntityId()
+    {
+        return entityId;
+    }
+
+    @Override
+    public void setEntityId( long entityId )
+    {
+        this.entityId = entityId;
+    }
+
+    @Override
+    public void from( long entityId, Value... values )
+    {
+        assertValidValue( values ).writeTo( this );
+        this.entityId = entityId;
+        entityIdIsSpecialTieBreaker = false;
+    }
+
+    private PointValue assertValidValue( Value... values )
+    {
+        if ( values.length > 1 )
+        {
+            throw new IllegalArgumentException( "Tried to create composite key with non-composite schema key layout" );
+        }
+        if ( values.length < 1 )
+        {
+            throw new IllegalArgumentException( "Tried to create key without value" );
+        }
+        if ( !(values[0] instanceof PointValue) || !SpatialCurves.supports( (PointValue) values[0] ) )
+        {
+            throw new IllegalArgumentException(
+                    "Key layout does only support two dimensional points, tried to create key from " + values[0] );
+        }
+        return (PointValue) values[0];
+    }
+
+    @Override
+    public String propertiesAsString()
+    {
+        return asValue().toString();
+    }
+
+    @Override
+    public PointValue asValue()
+    {
+        return Values.pointValue( CoordinateReferenceSystem.get( crsTableId, crsCode ), coordinate.clone() );
+    }
+
+    @Override
+    public void initAsLowest()
+    {
+        crsTableId = Integer.MIN_VALUE;
+        crsCode = Integer.MIN_VALUE;
+        rawValueBits = Long.MIN_VALUE;
+        Arrays.fill( coordinate, Double.NEGATIVE_INFINITY );
+        entityId = Long.MIN_VALUE;
+        entityIdIsSpecialTieBreaker = true;
+    }
+
+    @Override
+    public void initAsHighest()
+    {
+        crsTableId = Integer.MAX_VALUE;
+        crsCode = Integer.MAX_VALUE;
+        rawValueBits = Long.MAX_VALUE;
+        Arrays.fill( coordinate, Double.POSITIVE_INFINITY );
+        entityId = Long.MAX_VALUE;
+        entityIdIsSpecialTieBreaker = true;
+    }
+
+    /**
+     * Initializes this key to come before all points of the given {@link CoordinateReferenceSystem} that are in the tile with the
+     * given curve value, and after all points in the tiles before it. This makes it both the inclusive lower bound of a seek
+     * starting at the tile and the exclusive upper bound of a seek ending at the tile before it.
+     *
+     * @param crs the {@link CoordinateReferenceSystem} of the points to seek.
+     * @param curveValue the value of the tile on the {@link SpatialCurves space filling curve}.
+     */
+    void initAsTileBound( CoordinateReferenceSystem crs, long curveValue )
+    {
+        crsTableId = crs.getTable().getTableId();
+        crsCode = crs.getCode();
+        rawValueBits = curveValue;
+        Arrays.fill( coordinate, Double.NEGATIVE_INFINITY );
+        entityId = Long.MIN_VALUE;
+        entityIdIsSpecialTieBreaker = true;
+    }
+
+    /**
+     * Compares the value of this key to that of another key.
+     * This method is expected to be called in scenarios where inconsistent reads may happen (and later retried).
+     *
+     * @param other the {@link SpatialSchemaKey} to compare to.
+     * @return comparison against the {@code other} {@link SpatialSchemaKey}.
+     */
+    int compareValueTo( SpatialSchemaKey other )
+    {
+        int comparison = Integer.compare( crsTableId, other.crsTableId );
+        if ( comparison != 0 )
+        {
+            return comparison;
+        }
+        comparison = Integer.compare( crsCode, other.crsCode );
+        if ( comparison != 0 )
+        {
+            return comparison;
+        }
+        comparison = Long.compare( rawValueBits, other.rawValueBits );
+        for ( int i = 0; comparison == 0 && i < coordinate.length; i++ )
+        {
+            comparison = Double.compare( coordinate[i], other.coordinate[i] );
+        }
+        return comparison;
+    }
+
+    @Override
+    public String toString()
+    {
+        return format( "crs=%d:%d,rawValue=%d,coordinate=%s,entityId=%d", crsTableId, crsCode, rawValueBits,
+                Arrays.toString( coordinate ), entityId );
+    }
+
+    @Override
+    public void writePoint( CoordinateReferenceSystem crs, double[] coordinate )
+    {
+        crsTableId = crs.getTable().getTableId();
+        crsCode = crs.getCode();
+        rawValueBits = SpatialCurves.curveFor( crs ).derivedValueFor( coordinate );
+        System.arraycopy( coordinate, 0, this.coordinate, 0, this.coordinate.length );
+    }
+}
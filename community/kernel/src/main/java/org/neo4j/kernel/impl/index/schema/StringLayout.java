@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import org.neo4j.index.internal.gbptree.Layout;
+import org.neo4j.io.pagecache.PageCursor;
+
+import static java.lang.String.format;
+
+/**
+ * {@link Layout} for strings. Keys have dynamic size, since the size of a key depends on the length of its string.
+ */
+abstract class StringLayout extends Layout.Adapter<StringSchemaKey,NativeSchemaValue>
+{
+    @Override
+    public StringSchemaKey newKey()
+    {
+        return new StringSchemaKey();
+    }
+
+    @Override
+    public StringSchemaKey copyKey( StringSchemaKey key, StringSchemaKey into )
+    {
+        into.setBytesLength( key.bytes.length );
+        System.arraycopy( key.bytes, 0, into.bytes, 0, key.bytes.length );
+        into.ignoreLength = key.ignoreLength;
+        into.setEntityId( key.getEntityId() );
+        into.setEntityIdIsSpecialTieBreaker( key.getEntityIdIsSpecialTieBreaker() );
+        return into;
+    }
+
+    @Override
+    public void minimalSplitter( StringSchemaKey left, StringSchemaKey right, StringSchemaKey into )
+    {
+        int splitterLength = minimalLengthFromRightNeededToDifferentiateFromLeft( left.bytes, right.bytes );
+        if ( splitterLength == right.bytes.length )
+        {
+            copyKey( right, into );
+            return;
+        }
+
+        // A strict prefix of right which is still greater than left, so left < splitter <= right holds.
+        // Keys with this exact value can be inserted later on, and like any key equal to a splitter they belong to
+        // the right of it. The lowest entity id makes sure they compare equal to or greater than the splitter,
+        // whatever their own entity id is.
+        into.setBytesLength( splitterLength );
+        System.arraycopy( right.bytes, 0, into.bytes, 0, splitterLength );
+        into.ignoreLength = false;
+        into.setEntityId( Long.MIN_VALUE );
+        into.setEntityIdIsSpecialTieBreaker( false );
+    }
+
+    private static int minimalLengthFromRightNeededToDifferentiateFromLeft( byte[] leftBytes, byte[] rightBytes )
+    {
+        int maxLength = Math.min( leftBytes.length, rightBytes.length );
+        int index = 0;
+        while ( index < maxLength && leftBytes[index] == rightBytes[index] )
+        {
+            index++;
+        }
+        // Include the first differing byte, or the first byte after left if left is a prefix of right
+        return Math.min( rightBytes.length, index + 1 );
+    }
+
+    @Override
+    public NativeSchemaValue newValue()
+    {
+        return NativeSchemaValue.INSTANCE;
+    }
+
+    @Override
+    public int keySize( StringSchemaKey key )
+    {
+        return key.size();
+    }
+
+    @Override
+    public int valueSize( NativeSchemaValue value )
+    {
+        return NativeSchemaValue.SIZE;
+    }
+
+    @Override
+    public void writeKey( PageCursor cursor, StringSchemaKey key )
+    {
+        cursor.putLong( key.getEntityId() );
+        cursor.putBytes( key.bytes );
+    }
+
+    @Override
+    public void writeValue( PageCursor cursor, NativeSchemaValue value )
+    {
+    }
+
+    @Override
+    public void readKey( PageCursor cursor, StringSchemaKey into, int keySize )
+    {
+        int bytesLength = keySize - StringSchemaKey.ENTITY_ID_SIZE;
+        if ( bytesLength < 0 )
+        {
+            // Inconsistent read, the reader will retry
+            cursor.setCursorException( format( "Read unreliable string key, keySize=%d", keySize ) );
+            return;
+        }
+        into.setEntityId( cursor.getLong() );
+        into.setBytesLength( bytesLength );
+        cursor.getBytes( into.bytes );
+        into.ignoreLength = false;
+    }
+
+    @Override
+    public void readValue( PageCursor cursor, NativeSchemaValue into, int valueSize )
+    {
+    }
+
+    @Override
+    public boolean fixedSize()
+    {
+        return false;
+    }
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.neo4j.values.storable.TextValue;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.ValueWriter;
+import org.neo4j.values.storable.Values;
+
+import static java.lang.String.format;
+
+/**
+ * Includes value and entity id (to be able to handle non-unique values).
+ * A value can be any {@link String} and is represented by its UTF-8 encoded bytes, which compare unsigned byte by byte
+ * in the same order as the code points of the strings they encode.
+ * <p>
+ * The size of a key depends on the length of its string, so this key needs a {@link StringLayout} with dynamic size.
+ */
+class StringSchemaKey extends ValueWriter.Adapter<RuntimeException> implements NativeSchemaKey
+{
+    static final int ENTITY_ID_SIZE = Long.BYTES;
+    private static final byte[] EMPTY_BYTES = new byte[0];
+
+    private long entityId;
+    private boolean entityIdIsSpecialTieBreaker;
+
+    byte[] bytes = EMPTY_BYTES;
+    // A key that ignores length compares greater than all keys that start with its bytes, which is what the upper
+    // bound of a prefix seek needs. A key with no bytes that ignores length is thereby greater than all other keys.
+    // Note that ignoreLength is only an in memory state.
+    boolean ignoreLength;
+
+    @Override
+    public void setEntityIdIsSpecialTieBreaker( boolean entityIdIsSpecialTieBreaker )
+    {
+        this.entityIdIsSpecialTieBreaker = entityIdIsSpecialTieBreaker;
+    }
+
+    @Override
+    public boolean getEntityIdIsSpecialTieBreaker()
+    {
+        return entityIdIsSpecialTieBreaker;
+    }
+
+    @Override
+    public long getEntityId()
+    {
+        return entityId;
+    }
+
+    @Override
+    public void setEntityId( long entityId )
+    {
+        this.entityId = entityId;
+    }
+
+    @Override
+    public void from( long entityId, Value... values )
+    {
+        assertValidValue( values ).writeTo( this );
+        this.entityId = entityId;
+        entityIdIsSpecialTieBreaker = false;
+        ignoreLength = false;
+    }
+
+    private TextValue assertValidValue( Value... values )
+    {
+        if ( values.length > 1 )
+        {
+            throw new IllegalArgumentException( "Tried to create composite key with non-composite schema key layout" );
+        }
+        if ( values.length < 1 )
+        {
+            throw new IllegalArgumentException( "Tried to create key without value" );
+        }
+        if ( !Values.isTextValue( values[0] ) )
+        {
+            throw new IllegalArgumentException(
+                    "Key layout does only support strings, tried to create key from " + values[0] );
+        }
+        return (TextValue) values[0];
+    }
+
+    @Override
+    public String propertiesAsString()
+    {
+        return asValue().toString();
+    }
+
+    @Override
+    public TextValue asValue()
+    {
+        return Values.utf8Value( bytes );
+    }
+
+    @Override
+    public void initAsLowest()
+    {
+        bytes = EMPTY_BYTES;
+        ignoreLength = false;
+        entityId = Long.MIN_VALUE;
+        entityIdIsSpecialTieBreaker = true;
+    }
+
+    @Override
+    public void initAsHighest()
+    {
+        bytes = EMPTY_BYTES;
+        ignoreLength = true;
+        entityId = Long.MAX_VALUE;
+        entityIdIsSpecialTieBreaker = true;
+    }
+
+    /**
+     * Initializes this key as the exclusive upper bound of a seek for all strings that start with {@code prefix}.
+     *
+     * @param prefix the prefix of the strings to seek.
+     */
+    void initAsPrefixHigh( String prefix )
+    {
+        writeString( prefix );
+        ignoreLength = true;
+        entityId = Long.MAX_VALUE;
+        entityIdIsSpecialTieBreaker = true;
+    }
+
+    /**
+     * Compares the value of this key to that of another key.
+     * This method is expected to be called in scenarios where inconsistent reads may happen (and later retried).
+     *
+     * @param other the {@link StringSchemaKey} to compare to.
+     * @return comparison against the {@code other} {@link StringSchemaKey}.
+     */
+    int compareValueTo( StringSchemaKey other )
+    {
+        int length = Math.min( bytes.length, other.bytes.length );
+        for ( int i = 0; i < length; i++ )
+        {
+            int comparison = Byte.toUnsignedInt( bytes[i] ) - Byte.toUnsignedInt( other.bytes[i] );
+            if ( comparison != 0 )
+            {
+                return comparison;
+            }
+        }
+        if ( ignoreLength != other.ignoreLength )
+        {
+            if ( ignoreLength && bytes.length <= other.bytes.length )
+            {
+                return 1;
+            }
+            if ( other.ignoreLength && other.bytes.length <= bytes.length )
+            {
+                return -1;
+            }
+        }
+        return Integer.compare( bytes.length, other.bytes.length );
+    }
+
+    int size()
+    {
+        return ENTITY_ID_SIZE + bytes.length;
+    }
+
+    /**
+     * Makes sure {@link #bytes} has the given length, reusing the current array if it already has that length.
+     *
+     * @param length number of bytes of the string of this key.
+     */
+    void setBytesLength( int length )
+    {
+        if ( bytes.length != length )
+        {
+            bytes = length == 0 ? EMPTY_BYTES : new byte[length];
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return format( "value=%s,entityId=%d,bytes=%s", asValue(), entityId, Arrays.toString( bytes ) );
+    }
+
+    @Override
+    public void writeString( String value )
+    {
+        bytes = value.getBytes( StandardCharsets.UTF_8 );
+    }
+
+    @Override
+    public void writeString( char value )
+    {
+        writeString( String.valueOf( value ) );
+    }
+
+    @Override
+    public void writeUTF8( byte[] bytes, int offset, int length )
+    {
+        this.bytes = Arrays.copyOfRange( bytes, offset, offset + length );
+    }
+}
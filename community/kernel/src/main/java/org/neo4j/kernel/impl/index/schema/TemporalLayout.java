@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import org.neo4j.index.internal.gbptree.Layout;
+import org.neo4j.io.pagecache.PageCursor;
+
+/**
+ * {@link Layout} for temporal values.
+ */
+abstract class TemporalLayout extends Layout.Adapter<TemporalSchemaKey,NativeSchemaValue>
+{
+    @Override
+    public TemporalSchemaKey newKey()
+    {
+        return new TemporalSchemaKey();
+    }
+
+    @Override
+    public TemporalSchemaKey copyKey( TemporalSchemaKey key, TemporalSchemaKey into )
+    {
+        into.type = key.type;
+        System.arraycopy( key.components, 0, into.components, 0, key.components.length );
+        into.setEntityId( key.getEntityId() );
+        into.setEntityIdIsSpecialTieBreaker( key.getEntityIdIsSpecialTieBreaker() );
+        return into;
+    }
+
+    @Override
+    public NativeSchemaValue newValue()
+    {
+        return NativeSchemaValue.INSTANCE;
+    }
+
+    @Override
+    public int keySize( TemporalSchemaKey key )
+    {
+        return TemporalSchemaKey.SIZE;
+    }
+
+    @Override
+    public int valueSize( NativeSchemaValue value )
+    {
+        return NativeSchemaValue.SIZE;
+    }
+
+    @Override
+    public void writeKey( PageCursor cursor, TemporalSchemaKey key )
+    {
+        cursor.putByte( key.type );
+        for ( long component : key.components )
+        {
+            cursor.putLong( component );
+        }
+        cursor.putLong( key.getEntityId() );
+    }
+
+    @Override
+    public void writeValue( PageCursor cursor, NativeSchemaValue value )
+    {
+    }
+
+    @Override
+    public void readKey( PageCursor cursor, TemporalSchemaKey into, int keySize )
+    {
+        into.type = cursor.getByte();
+        for ( int i = 0; i < into.components.length; i++ )
+        {
+            into.components[i] = cursor.getLong();
+        }
+        into.setEntityId( cursor.getLong() );
+    }
+
+    @Override
+    public void readValue( PageCursor cursor, NativeSchemaValue into, int valueSize )
+    {
+    }
+
+    @Override
+    public boolean fixedSize()
+    {
+        return true;
+    }
+}
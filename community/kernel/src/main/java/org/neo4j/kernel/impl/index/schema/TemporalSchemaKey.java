@@ -0,0 +1,364 @@
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+import org.neo4j.values.storable.DateTimeValue;
+import org.neo4j.values.storable.DateValue;
+import org.neo4j.values.storable.DurationValue;
+import org.neo4j.values.storable.LocalDateTimeValue;
+import org.neo4j.values.storable.LocalTimeValue;
+import org.neo4j.values.storable.TimeValue;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.ValueGroup;
+import org.neo4j.values.storable.ValueWriter;
+import org.neo4j.values.storable.Values;
+
+import static java.lang.String.format;
+
+/**
+ * Includes value and entity id (to be able to handle non-unique values).
+ * A value can be any temporal value, i.e. a date, a time, a date time or a duration, and is represented by the type of
+ * the value and up to {@link #COMPONENTS} long components whose order is the order of the values of that type:
+ * <ul>
+ * <li>{@link #ZONED_DATE_TIME}: epoch second in UTC, nano of second and offset seconds</li>
+ * <li>{@link #LOCAL_DATE_TIME}: epoch second and nano of second</li>
+ * <li>{@link #DATE}: epoch day</li>
+ * <li>{@link #ZONED_TIME}: nano of day in UTC, not wrapped to a single day so that it orders by instant, and offset seconds</li>
+ * <li>{@link #LOCAL_TIME}: nano of day</li>
+ * <li>{@link #DURATION}: average length in seconds, nanos, months and days</li>
+ * </ul>
+ * Keys are ordered by type first and components second, so that all values of one type are next to each other in the tree.
+ * Date times with a named time zone are stored with the offset of that zone at their instant, since the name of the zone
+ * has no place in the key.
+ */
+class TemporalSchemaKey extends ValueWriter.Adapter<RuntimeException> implements NativeSchemaKey
+{
+    // In the same order as their value groups, so that values of different types are in the order of the value groups in the tree
+    static final byte ZONED_DATE_TIME = 0;
+    static final byte LOCAL_DATE_TIME = 1;
+    static final byte DATE = 2;
+    static final byte ZONED_TIME = 3;
+    static final byte LOCAL_TIME = 4;
+    static final byte DURATION = 5;
+
+    static final int COMPONENTS = 4;
+    static final int SIZE =
+            Byte.BYTES +                /* type */
+            COMPONENTS * Long.BYTES +   /* components */
+            Long.BYTES;                 /* entityId */
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final long SECONDS_PER_DAY = 86_400L;
+    private static final long NANOS_PER_DAY = SECONDS_PER_DAY * NANOS_PER_SECOND;
+    // Same as the average month that durations are compared by
+    private static final long AVG_SECONDS_PER_MONTH = 2_629_746L;
+
+    private long entityId;
+    private boolean entityIdIsSpecialTieBreaker;
+
+    byte type;
+    final long[] components = new long[COMPONENTS];
+
+    @Override
+    public void setEntityIdIsSpecialTieBreaker( boolean entityIdIsSpecialTieBreaker )
+    {
+        this.entityIdIsSpecialTieBreaker = entityIdIsSpecialTieBreaker;
+    }
+
+    @Override
+    public boolean getEntityIdIsSpecialTieBreaker()
+    {
+        return entityIdIsSpecialTieBreaker;
+    }
+
+    @Override
+    public long getEntityId()
+    {
+        return entityId;
+    }
+
+    @Override
+    public void setEntityId( long entityId )
+    {
+        this.entityId = entityId;
+    }
+
+    @Override
+    public void from( long entityId, Value... values )
+    {
+        Arrays.fill( components, 0 );
+        assertValidValue( values ).writeTo( this );
+        this.entityId = entityId;
+        entityIdIsSpecialTieBreaker = false;
+    }
+
+    private Value assertValidValue( Value... values )
+    {
+        if ( values.length > 1 )
+        {
+            throw new IllegalArgumentException( "Tried to create composite key with non-composite schema key layout" );
+        }
+        if ( values.length < 1 )
+        {
+            throw new IllegalArgumentException( "Tried to create key without value" );
+        }
+        if ( !supports( values[0].valueGroup() ) )
+        {
+            throw new IllegalArgumentException(
+                    "Key layout does only support temporal values, tried to create key from " + values[0] );
+        }
+        return values[0];
+    }
+
+    @Override
+    public String propertiesAsString()
+    {
+        return asValue().toString();
+    }
+
+    @Override
+    public Value asValue()
+    {
+        switch ( type )
+        {
+        case DATE:
+            return DateValue.epochDate( components[0] );
+        case LOCAL_TIME:
+            return LocalTimeValue.localTime( components[0] );
+        case ZONED_TIME:
+            return TimeValue.time( components[0], ZoneOffset.ofTotalSeconds( (int) components[1] ) );
+        case LOCAL_DATE_TIME:
+            return LocalDateTimeValue.localDateTime( components[0], components[1] );
+        case ZONED_DATE_TIME:
+            return DateTimeValue.datetime( components[0], components[1], ZoneOffset.ofTotalSeconds( (int) components[2] ) );
+        case DURATION:
+            long months = components[2];
+            long days = components[3];
+            long seconds = components[0] - months * AVG_SECONDS_PER_MONTH - days * SECONDS_PER_DAY;
+            return DurationValue.duration( months, days, seconds, components[1] );
+        default:
+            return Values.NO_VALUE;
+        }
+    }
+
+    @Override
+    public void initAsLowest()
+    {
+        type = Byte.MIN_VALUE;
+        Arrays.fill( components, Long.MIN_VALUE );
+        entityId = Long.MIN_VALUE;
+        entityIdIsSpecialTieBreaker = true;
+    }
+
+    @Override
+    public void initAsHighest()
+    {
+        type = Byte.MAX_VALUE;
+        Arrays.fill( components, Long.MAX_VALUE );
+        entityId = Long.MAX_VALUE;
+        entityIdIsSpecialTieBreaker = true;
+    }
+
+    /**
+     * Initializes this key to come before all values of the given {@link ValueGroup}, but after all values of the types before it.
+     *
+     * @param valueGroup temporal {@link ValueGroup} of the values to seek.
+     */
+    void initAsLowestOf( ValueGroup valueGroup )
+    {
+        initAsLowest();
+        type = typeOf( valueGroup );
+    }
+
+    /**
+     * Initializes this key to come after all values of the given {@link ValueGroup}, but before all values of the types after it.
+     *
+     * @param valueGroup temporal {@link ValueGroup} of the values to seek.
+     */
+    void initAsHighestOf( ValueGroup valueGroup )
+    {
+        initAsHighest();
+        type = typeOf( valueGroup );
+    }
+
+    /**
+     * Initializes this key as the inclusive lower bound of a seek for all values that are equal to the given value.
+     * Zoned times and date times are equal when they represent the same instant, regardless of their offsets,
+     * so for those this key is made to come before all offsets of the instant.
+     *
+     * @param value the value to seek.
+     */
+    void initAsLowestEqualTo( Value value )
+    {
+        from( Long.MIN_VALUE, value );
+        setOffset( Long.MIN_VALUE );
+        entityIdIsSpecialTieBreaker = true;
+    }
+
+    /**
+     * Initializes this key as the inclusive upper bound of a seek for all values that are equal to the given value.
+     *
+     * @param value the value to seek.
+     * @see #initAsLowestEqualTo(Value)
+     */
+    void initAsHighestEqualTo( Value value )
+    {
+        from( Long.MAX_VALUE, value );
+        setOffset( Long.MAX_VALUE );
+        entityIdIsSpecialTieBreaker = true;
+    }
+
+    private void setOffset( long offset )
+    {
+        if ( type == ZONED_TIME )
+        {
+            components[1] = offset;
+        }
+        else if ( type == ZONED_DATE_TIME )
+        {
+            components[2] = offset;
+        }
+    }
+
+    /**
+     * Compares the value of this key to that of another key.
+     * This method is expected to be called in scenarios where inconsistent reads may happen (and later retried).
+     *
+     * @param other the {@link TemporalSchemaKey} to compare to.
+     * @return comparison against the {@code other} {@link TemporalSchemaKey}.
+     */
+    int compareValueTo( TemporalSchemaKey other )
+    {
+        int comparison = Byte.compare( type, other.type );
+        for ( int i = 0; comparison == 0 && i < COMPONENTS; i++ )
+        {
+            comparison = Long.compare( components[i], other.components[i] );
+        }
+        return comparison;
+    }
+
+    @Override
+    public String toString()
+    {
+        return format( "type=%d,components=%s,entityId=%d", type, Arrays.toString( components ), entityId );
+    }
+
+    static boolean supports( ValueGroup valueGroup )
+    {
+        switch ( valueGroup )
+        {
+        case DATE:
+        case LOCAL_TIME:
+        case ZONED_TIME:
+        case LOCAL_DATE_TIME:
+        case ZONED_DATE_TIME:
+        case DURATION:
+            return true;
+        default:
+            return false;
+        }
+    }
+
+    private static byte typeOf( ValueGroup valueGroup )
+    {
+        switch ( valueGroup )
+        {
+        case DATE:
+            return DATE;
+        case LOCAL_TIME:
+            return LOCAL_TIME;
+        case ZONED_TIME:
+            return ZONED_TIME;
+        case LOCAL_DATE_TIME:
+            return LOCAL_DATE_TIME;
+        case ZONED_DATE_TIME:
+            return ZONED_DATE_TIME;
+        case DURATION:
+            return DURATION;
+        default:
+            throw new IllegalArgumentException( "Not a temporal value group " + valueGroup );
+        }
+    }
+
+    @Override
+    public void writeDate( long epochDay )
+    {
+        type = DATE;
+        components[0] = epochDay;
+    }
+
+    @Override
+    public void writeLocalTime( long nanoOfDay )
+    {
+        type = LOCAL_TIME;
+        components[0] = nanoOfDay;
+    }
+
+    @Override
+    public void writeTime( long nanosOfDayUTC, int offsetSeconds )
+    {
+        // The nano of day in UTC is wrapped to a single day, which would make e.g. 23:00-02:00 come before 00:00+00:00.
+        // Times compare by the instant they represent on the same local day instead, which is the local nano of day minus the offset.
+        long offsetNanos = offsetSeconds * NANOS_PER_SECOND;
+        long localNanoOfDay = Math.floorMod( nanosOfDayUTC + offsetNanos, NANOS_PER_DAY );
+        type = ZONED_TIME;
+        components[0] = localNanoOfDay - offsetNanos;
+        components[1] = offsetSeconds;
+    }
+
+    @Override
+    public void writeLocalDateTime( long epochSecond, int nano )
+    {
+        type = LOCAL_DATE_TIME;
+        components[0] = epochSecond;
+        components[1] = nano;
+    }
+
+    @Override
+    public void writeDateTime( long epochSecondUTC, int nano, int offsetSeconds )
+    {
+        type = ZONED_DATE_TIME;
+        components[0] = epochSecondUTC;
+        components[1] = nano;
+        components[2] = offsetSeconds;
+    }
+
+    @Override
+    public void writeDateTime( long epochSecondUTC, int nano, String zoneId )
+    {
+        ZoneOffset offset = ZoneId.of( zoneId ).getRules().getOffset( Instant.ofEpochSecond( epochSecondUTC, nano ) );
+        writeDateTime( epochSecondUTC, nano, offset.getTotalSeconds() );
+    }
+
+    @Override
+    public void writeDuration( long months, long days, long seconds, int nanos )
+    {
+        type = DURATION;
+        components[0] = seconds + days * SECONDS_PER_DAY + months * AVG_SECONDS_PER_MONTH;
+        components[1] = nanos;
+        components[2] = months;
+        components[3] = days;
+    }
+}
@@ -21,11 +21,14 @@ package org.neo4j.kernel.impl.index.schema.fusion;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 
 import org.neo4j.graphdb.ResourceIterator;
 import org.neo4j.helpers.collection.BoundedIterable;
 import org.neo4j.helpers.collection.Iterables;
+import org.neo4j.io.pagecache.IOLimiter;
 import org.neo4j.kernel.api.exceptions.index.IndexEntryConflictException;
 import org.neo4j.kernel.api.index.IndexAccessor;
 import org.neo4j.kernel.api.index.IndexUpdater;
@@ -36,23 +39,20 @@ import org.neo4j.kernel.impl.index.schema.fusion.FusionSchemaIndexProvider.DropA
 import org.neo4j.kernel.impl.index.schema.fusion.FusionSchemaIndexProvider.Selector;
 import org.neo4j.storageengine.api.schema.IndexReader;
 
-import static java.util.Arrays.asList;
 import static org.neo4j.helpers.collection.Iterators.concatResourceIterators;
+import static org.neo4j.kernel.impl.index.schema.fusion.FusionSchemaIndexProvider.forAll;
 
 class FusionIndexAccessor implements IndexAccessor
 {
-    private final IndexAccessor nativeAccessor;
-    private final IndexAccessor luceneAccessor;
+    private final IndexAccessor[] accessors;
     private final Selector selector;
     private final long indexId;
     private final IndexDescriptor descriptor;
     private final DropAction dropAction;
 
-    FusionIndexAccessor( IndexAccessor nativeAccessor, IndexAccessor luceneAccessor, Selector selector,
-            long indexId, IndexDescriptor descriptor, DropAction dropAction )
+    FusionIndexAccessor( IndexAccessor[] accessors, Selector selector, long indexId, IndexDescriptor descriptor, DropAction dropAction )
     {
-        this.nativeAccessor = nativeAccessor;
-        this.luceneAccessor = luceneAccessor;
+        this.accessors = accessors;
         this.selector = selector;
         this.indexId = indexId;
         this.descriptor = descriptor;
@@ -62,89 +62,115 @@ class FusionIndexAccessor implements IndexAccessor
     @Override
     public void drop() throws IOException
     {
-        try
-        {
-            nativeAccessor.drop();
-        }
-        finally
-        {
-            luceneAccessor.drop();
-        }
+        forAll( IndexAccessor::drop, accessors );
         dropAction.drop( indexId );
     }
 
     @Override
     public IndexUpdater newUpdater( IndexUpdateMode mode )
     {
-        return new FusionIndexUpdater( nativeAccessor.newUpdater( mode ), luceneAccessor.newUpdater( mode ), selector );
+        IndexUpdater[] updaters = new IndexUpdater[accessors.length];
+        for ( int i = 0; i < accessors.length; i++ )
+        {
+            updaters[i] = accessors[i].newUpdater( mode );
+        }
+        return new FusionIndexUpdater( updaters, selector );
     }
 
     @Override
-    public void force() throws IOException
+    public boolean supportsConcurrentUpdaters()
     {
-        nativeAccessor.force();
-        luceneAccessor.force();
+        for ( IndexAccessor accessor : accessors )
+        {
+            if ( !accessor.supportsConcurrentUpdaters() )
+            {
+                return false;
+            }
+        }
+        return true;
     }
 
     @Override
-    public void refresh() throws IOException
+    public void force() throws IOException
     {
-        nativeAccessor.refresh();
-        luceneAccessor.refresh();
+        for ( IndexAccessor accessor : accessors )
+        {
+            accessor.force();
+        }
     }
 
     @Override
-    public void close() throws IOException
+    public void compact( IOLimiter ioLimiter ) throws IOException
     {
-        try
+        for ( IndexAccessor accessor : accessors )
         {
-            nativeAccessor.close();
+            accessor.compact( ioLimiter );
         }
-        finally
+    }
+
+    @Override
+    public void refresh() throws IOException
+    {
+        for ( IndexAccessor accessor : accessors )
         {
-            luceneAccessor.close();
+            accessor.refresh();
         }
     }
 
+    @Override
+    public void close() throws IOException
+    {
+        forAll( IndexAccessor::close, accessors );
+    }
+
     @Override
     public IndexReader newReader()
     {
-        return new FusionIndexReader( nativeAccessor.newReader(), luceneAccessor.newReader(), selector, descriptor );
+        IndexReader[] readers = new IndexReader[accessors.length];
+        for ( int i = 0; i < accessors.length; i++ )
+        {
+            readers[i] = accessors[i].newReader();
+        }
+        return new FusionIndexReader( readers, selector, descriptor );
     }
 
     @Override
     public BoundedIterable<Long> newAllEntriesReader()
     {
-        BoundedIterable<Long> nativeAllEntries = nativeAccessor.newAllEntriesReader();
-        BoundedIterable<Long> luceneAllEntries = luceneAccessor.newAllEntriesReader();
+        @SuppressWarnings( "unchecked" )
+        BoundedIterable<Long>[] allEntries = new BoundedIterable[accessors.length];
+        for ( int i = 0; i < accessors.length; i++ )
+        {
+            allEntries[i] = accessors[i].newAllEntriesReader();
+        }
         return new BoundedIterable<Long>()
         {
             @Override
             public long maxCount()
             {
-                long nativeMaxCount = nativeAllEntries.maxCount();
-                long luceneMaxCount = luceneAllEntries.maxCount();
-                return nativeMaxCount == UNKNOWN_MAX_COUNT || luceneMaxCount == UNKNOWN_MAX_COUNT ?
-                       UNKNOWN_MAX_COUNT : nativeMaxCount + luceneMaxCount;
+                long sum = 0;
+                for ( BoundedIterable<Long> part : allEntries )
+                {
+                    long maxCount = part.maxCount();
+                    if ( maxCount == UNKNOWN_MAX_COUNT )
+                    {
+                        return UNKNOWN_MAX_COUNT;
+                    }
+                    sum += maxCount;
+                }
+                return sum;
             }
 
             @Override
             public void close() throws Exception
             {
-                try
-                {
-                    nativeAllEntries.close();
-                }
-                finally
-                {
-                    luceneAllEntries.close();
-                }
+                forAll( BoundedIterable::close, allEntries );
             }
 
             @Override
             public Iterator<Long> iterator()
             {
-                return Iterables.concat( nativeAllEntries, luceneAllEntries ).iterator();
+                return Iterables.concat( allEntries ).iterator();
             }
         };
     }
@@ -152,15 +178,21 @@ class FusionIndexAccessor implements IndexAccessor
     @Override
     public ResourceIterator<File> snapshotFiles() throws IOException
     {
-        return concatResourceIterators(
-                asList( nativeAccessor.snapshotFiles(), luceneAccessor.snapshotFiles() ).iterator() );
+        List<ResourceIterator<File>> snapshotFiles = new ArrayList<>();
+        for ( IndexAccessor accessor : accessors )
+        {
+            snapshotFiles.add( accessor.snapshotFiles() );
+        }
+        return concatResourceIterators( snapshotFiles.iterator() );
     }
 
     @Override
     public void verifyDeferredConstraints( PropertyAccessor propertyAccessor )
             throws IndexEntryConflictException, IOException
     {
-        nativeAccessor.verifyDeferredConstraints( propertyAccessor );
-        luceneAccessor.verifyDeferredConstraints( propertyAccessor );
+        for ( IndexAccessor accessor : accessors )
+        {
+            accessor.verifyDeferredConstraints( propertyAccessor );
+        }
     }
 }
@@ -22,6 +22,7 @@ package org.neo4j.kernel.impl.index.schema.fusion;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 import org.neo4j.kernel.api.exceptions.index.IndexEntryConflictException;
 import org.neo4j.kernel.api.index.IndexEntryUpdate;
@@ -33,20 +34,18 @@ import org.neo4j.kernel.impl.index.schema.fusion.FusionSchemaIndexProvider.Selec
 import org.neo4j.storageengine.api.schema.IndexSample;
 
 import static org.neo4j.kernel.impl.index.schema.fusion.FusionSchemaIndexProvider.combineSamples;
+import static org.neo4j.kernel.impl.index.schema.fusion.FusionSchemaIndexProvider.forAll;
 
 class FusionIndexPopulator implements IndexPopulator
 {
-    private final IndexPopulator nativePopulator;
-    private final IndexPopulator lucenePopulator;
+    private final IndexPopulator[] populators;
     private final Selector selector;
     private final long indexId;
     private final DropAction dropAction;
 
-    FusionIndexPopulator( IndexPopulator nativePopulator, IndexPopulator lucenePopulator, Selector selector,
-            long indexId, DropAction dropAction )
+    FusionIndexPopulator( IndexPopulator[] populators, Selector selector, long indexId, DropAction dropAction )
     {
-        this.nativePopulator = nativePopulator;
-        this.lucenePopulator = lucenePopulator;
+        this.populators = populators;
         this.selector = selector;
         this.indexId = indexId;
         this.dropAction = dropAction;
@@ -55,88 +54,85 @@ class FusionIndexPopulator implements IndexPopulator
     @Override
     public void create() throws IOException
     {
-        nativePopulator.create();
-        lucenePopulator.create();
+        for ( IndexPopulator populator : populators )
+        {
+            populator.create();
+        }
     }
 
     @Override
     public void drop() throws IOException
     {
-        try
-        {
-            nativePopulator.drop();
-        }
-        finally
-        {
-            lucenePopulator.drop();
-        }
+        forAll( IndexPopulator::drop, populators );
         dropAction.drop( indexId );
     }
 
     @Override
     public void add( Collection<? extends IndexEntryUpdate<?>> updates ) throws IndexEntryConflictException, IOException
     {
-        Collection<IndexEntryUpdate<?>> luceneBatch = new ArrayList<>();
-        Collection<IndexEntryUpdate<?>> nativeBatch = new ArrayList<>();
+        @SuppressWarnings( "unchecked" )
+        List<IndexEntryUpdate<?>>[] batches = new List[populators.length];
+        for ( int i = 0; i < batches.length; i++ )
+        {
+            batches[i] = new ArrayList<>();
+        }
         for ( IndexEntryUpdate<?> update : updates )
         {
-            selector.select( nativeBatch, luceneBatch, update.values() ).add( update );
+            selector.select( batches, update.values() ).add( update );
+        }
+        for ( int i = 0; i < populators.length; i++ )
+        {
+            populators[i].add( batches[i] );
         }
-        lucenePopulator.add( luceneBatch );
-        nativePopulator.add( nativeBatch );
     }
 
     @Override
     public void verifyDeferredConstraints( PropertyAccessor propertyAccessor )
             throws IndexEntryConflictException, IOException
     {
-        nativePopulator.verifyDeferredConstraints( propertyAccessor );
-        lucenePopulator.verifyDeferredConstraints( propertyAccessor );
+        for ( IndexPopulator populator : populators )
+        {
+            populator.verifyDeferredConstraints( propertyAccessor );
+        }
     }
 
     @Override
     public IndexUpdater newPopulatingUpdater( PropertyAccessor accessor ) throws IOException
     {
-        return new FusionIndexUpdater(
-                nativePopulator.newPopulatingUpdater( accessor ),
-                lucenePopulator.newPopulatingUpdater( accessor ), selector );
+        IndexUpdater[] updaters = new IndexUpdater[populators.length];
+        for ( int i = 0; i < populators.length; i++ )
+        {
+            updaters[i] = populators[i].newPopulatingUpdater( accessor );
+        }
+        return new FusionIndexUpdater( updaters, selector );
     }
 
     @Override
     public void close( boolean populationCompletedSuccessfully ) throws IOException
     {
-        try
-        {
-            nativePopulator.close( populationCompletedSuccessfully );
-        }
-        finally
-        {
-            lucenePopulator.close( populationCompletedSuccessfully );
-        }
+        forAll( populator -> populator.close( populationCompletedSuccessfully ), populators );
     }
 
     @Override
     public void markAsFailed( String failure ) throws IOException
     {
-        try
-        {
-            nativePopulator.markAsFailed( failure );
-        }
-        finally
-        {
-            lucenePopulator.markAsFailed( failure );
-        }
+        forAll( populator -> populator.markAsFailed( failure ), populators );
     }
 
     @Override
     public void includeSample( IndexEntryUpdate<?> update )
     {
-        selector.select( nativePopulator, lucenePopulator, update.values() ).includeSample( update );
+        selector.select( populators, update.values() ).includeSample( update );
     }
 
     @Override
     public IndexSample sampleResult()
     {
-        return combineSamples( nativePopulator.sampleResult(), lucenePopulator.sampleResult() );
+        IndexSample[] samples = new IndexSample[populators.length];
+        for ( int i = 0; i < populators.length; i++ )
+        {
+            samples[i] = populators[i].sampleResult();
+        }
+        return combineSamples( samples );
     }
 }
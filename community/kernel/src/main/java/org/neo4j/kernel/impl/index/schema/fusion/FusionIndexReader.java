@@ -29,29 +29,41 @@ import org.neo4j.internal.kernel.api.IndexOrder;
 import org.neo4j.internal.kernel.api.IndexQuery;
 import org.neo4j.internal.kernel.api.IndexQuery.ExactPredicate;
 import org.neo4j.internal.kernel.api.IndexQuery.ExistsPredicate;
+import org.neo4j.internal.kernel.api.IndexQuery.GeometryRangePredicate;
+import org.neo4j.internal.kernel.api.IndexQuery.IndexQueryType;
 import org.neo4j.internal.kernel.api.IndexQuery.NumberRangePredicate;
+import org.neo4j.internal.kernel.api.IndexQuery.StringPredicate;
+import org.neo4j.internal.kernel.api.IndexQuery.TemporalRangePredicate;
 import org.neo4j.kernel.api.exceptions.index.IndexNotApplicableKernelException;
 import org.neo4j.kernel.api.schema.index.IndexDescriptor;
+import org.neo4j.kernel.impl.index.schema.CompositeSchemaIndexProvider;
 import org.neo4j.kernel.impl.index.schema.fusion.FusionSchemaIndexProvider.Selector;
 import org.neo4j.storageengine.api.schema.IndexProgressor;
 import org.neo4j.storageengine.api.schema.IndexReader;
 import org.neo4j.storageengine.api.schema.IndexSampler;
 import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
 
 import static java.lang.String.format;
+import static org.neo4j.kernel.impl.index.schema.fusion.FusionSchemaIndexProvider.Selector.COMPOSITE;
+import static org.neo4j.kernel.impl.index.schema.fusion.FusionSchemaIndexProvider.Selector.LUCENE;
+import static org.neo4j.kernel.impl.index.schema.fusion.FusionSchemaIndexProvider.Selector.NUMBER;
+import static org.neo4j.kernel.impl.index.schema.fusion.FusionSchemaIndexProvider.Selector.SPATIAL;
+import static org.neo4j.kernel.impl.index.schema.fusion.FusionSchemaIndexProvider.Selector.STRING;
+import static org.neo4j.kernel.impl.index.schema.fusion.FusionSchemaIndexProvider.Selector.TEMPORAL;
+import static org.neo4j.kernel.impl.index.schema.fusion.FusionSchemaIndexProvider.forAll;
 
 class FusionIndexReader implements IndexReader
 {
-    private final IndexReader nativeReader;
-    private final IndexReader luceneReader;
+    private static final Value ANY_NUMBER = Values.longValue( 0 );
+
+    private final IndexReader[] readers;
     private final Selector selector;
     private final IndexDescriptor descriptor;
 
-    FusionIndexReader( IndexReader nativeReader, IndexReader luceneReader, Selector selector,
-            IndexDescriptor descriptor )
+    FusionIndexReader( IndexReader[] readers, Selector selector, IndexDescriptor descriptor )
     {
-        this.nativeReader = nativeReader;
-        this.luceneReader = luceneReader;
+        this.readers = readers;
         this.selector = selector;
         this.descriptor = descriptor;
     }
@@ -59,26 +71,24 @@ class FusionIndexReader implements IndexReader
     @Override
     public void close()
     {
-        try
-        {
-            nativeReader.close();
-        }
-        finally
-        {
-            luceneReader.close();
-        }
+        forAll( IndexReader::close, readers );
     }
 
     @Override
     public long countIndexedNodes( long nodeId, Value... propertyValues )
     {
-        return selector.select( nativeReader, luceneReader, propertyValues ).countIndexedNodes( nodeId, propertyValues );
+        return selector.select( readers, propertyValues ).countIndexedNodes( nodeId, propertyValues );
     }
 
     @Override
     public IndexSampler createSampler()
     {
-        return new FusionIndexSampler( nativeReader.createSampler(), luceneReader.createSampler() );
+        IndexSampler[] samplers = new IndexSampler[readers.length];
+        for ( int i = 0; i < readers.length; i++ )
+        {
+            samplers[i] = readers[i].createSampler();
+        }
+        return new FusionIndexSampler( samplers );
     }
 
     @Override
@@ -86,29 +96,51 @@ class FusionIndexReader implements IndexReader
     {
         if ( predicates.length > 1 )
         {
-            return luceneReader.query( predicates );
+            return compositeQuery( predicates );
         }
 
         if ( predicates[0] instanceof ExactPredicate )
         {
             ExactPredicate exactPredicate = (ExactPredicate) predicates[0];
-            return selector.select( nativeReader, luceneReader, exactPredicate.value() ).query( predicates );
+            return selector.select( readers, exactPredicate.value() ).query( predicates );
         }
 
         if ( predicates[0] instanceof NumberRangePredicate )
         {
-            return nativeReader.query( predicates[0] );
+            return readers[NUMBER].query( predicates[0] );
+        }
+
+        if ( predicates[0] instanceof TemporalRangePredicate )
+        {
+            return readers[TEMPORAL].query( predicates[0] );
+        }
+
+        // Points that the spatial index can not hold are in the lucene index, but lucene can not seek them by range
+        if ( predicates[0] instanceof GeometryRangePredicate )
+        {
+            return readers[SPATIAL].query( predicates[0] );
+        }
+
+        // Strings too long for the string index are in the lucene index
+        if ( predicates[0] instanceof StringPredicate )
+        {
+            PrimitiveLongResourceIterator stringResult = readers[STRING].query( predicates[0] );
+            PrimitiveLongResourceIterator luceneResult = readers[LUCENE].query( predicates[0] );
+            return PrimitiveLongResourceCollections.concat( stringResult, luceneResult );
         }
 
         // todo: There will be no ordering of the node ids here. Is this a problem?
         if ( predicates[0] instanceof ExistsPredicate )
         {
-            PrimitiveLongResourceIterator nativeResult = nativeReader.query( predicates[0] );
-            PrimitiveLongResourceIterator luceneResult = luceneReader.query( predicates[0] );
-            return PrimitiveLongResourceCollections.concat( nativeResult, luceneResult );
+            PrimitiveLongResourceIterator[] results = new PrimitiveLongResourceIterator[readers.length];
+            for ( int i = 0; i < readers.length; i++ )
+            {
+                results[i] = readers[i].query( predicates[0] );
+            }
+            return PrimitiveLongResourceCollections.concat( results );
         }
 
-        return luceneReader.query( predicates );
+        return readers[LUCENE].query( predicates );
     }
 
     @Override
@@ -117,25 +149,113 @@ class FusionIndexReader implements IndexReader
     {
         if ( predicates.length > 1 )
         {
-            luceneReader.query( cursor, indexOrder, predicates );
+            compositeQuery( cursor, indexOrder, predicates );
             return;
         }
 
         if ( predicates[0] instanceof ExactPredicate )
         {
             ExactPredicate exactPredicate = (ExactPredicate) predicates[0];
-            selector.select( nativeReader, luceneReader, exactPredicate.value() ).query( cursor, indexOrder, predicates );
+            selector.select( readers, exactPredicate.value() ).query( cursor, indexOrder, predicates );
             return;
         }
 
         if ( predicates[0] instanceof NumberRangePredicate )
         {
-            nativeReader.query( cursor, indexOrder, predicates[0] );
+            readers[NUMBER].query( cursor, indexOrder, predicates[0] );
+            return;
+        }
+
+        if ( predicates[0] instanceof TemporalRangePredicate )
+        {
+            readers[TEMPORAL].query( cursor, indexOrder, predicates[0] );
+            return;
+        }
+
+        // Points that the spatial index can not hold are in the lucene index, but lucene can not seek them by range
+        if ( predicates[0] instanceof GeometryRangePredicate )
+        {
+            readers[SPATIAL].query( cursor, indexOrder, predicates[0] );
+            return;
+        }
+
+        // Strings too long for the string index are in the lucene index
+        if ( predicates[0] instanceof StringPredicate )
+        {
+            queryAll( cursor, indexOrder, predicates, readers[STRING], readers[LUCENE] );
             return;
         }
 
         // todo: There will be no ordering of the node ids here. Is this a problem?
         if ( predicates[0] instanceof ExistsPredicate )
+        {
+            queryAll( cursor, indexOrder, predicates, readers );
+            return;
+        }
+
+        readers[LUCENE].query( cursor, indexOrder, predicates );
+    }
+
+    private void queryAll( IndexProgressor.NodeValueClient cursor, IndexOrder indexOrder, IndexQuery[] predicates,
+            IndexReader... readers ) throws IndexNotApplicableKernelException
+    {
+        if ( indexOrder != IndexOrder.NONE )
+        {
+            throw new UnsupportedOperationException(
+                    format( "Tried to query index with unsupported order %s. Supported orders for query %s are %s.",
+                            indexOrder, Arrays.toString( predicates ), IndexOrder.NONE ) );
+        }
+        BridgingIndexProgressor multiProgressor = new BridgingIndexProgressor( cursor,
+                descriptor.schema().getPropertyIds() );
+        cursor.initialize( descriptor, multiProgressor, predicates );
+        for ( IndexReader reader : readers )
+        {
+            reader.query( multiProgressor, indexOrder, predicates );
+        }
+    }
+
+    private PrimitiveLongResourceIterator compositeQuery( IndexQuery[] predicates ) throws IndexNotApplicableKernelException
+    {
+        if ( allOfType( predicates, IndexQueryType.exact ) )
+        {
+            return selector.select( readers, exactValues( predicates ) ).query( predicates );
+        }
+        if ( allOfType( predicates, IndexQueryType.exists ) )
+        {
+            return PrimitiveLongResourceCollections.concat( readers[COMPOSITE].query( predicates ), readers[LUCENE].query( predicates ) );
+        }
+        if ( !CompositeSchemaIndexProvider.canSeek( predicates ) )
+        {
+            return readers[LUCENE].query( existsPredicates( predicates ) );
+        }
+        if ( !luceneMayHoldMatches( predicates ) )
+        {
+            return readers[COMPOSITE].query( predicates );
+        }
+        return PrimitiveLongResourceCollections.concat( readers[COMPOSITE].query( predicates ),
+                readers[LUCENE].query( existsPredicates( predicates ) ) );
+    }
+
+    private void compositeQuery( IndexProgressor.NodeValueClient cursor, IndexOrder indexOrder, IndexQuery[] predicates )
+            throws IndexNotApplicableKernelException
+    {
+        if ( allOfType( predicates, IndexQueryType.exact ) )
+        {
+            selector.select( readers, exactValues( predicates ) ).query( cursor, indexOrder, predicates );
+        }
+        else if ( allOfType( predicates, IndexQueryType.exists ) )
+        {
+            queryAll( cursor, indexOrder, predicates, readers[COMPOSITE], readers[LUCENE] );
+        }
+        else if ( !CompositeSchemaIndexProvider.canSeek( predicates ) )
+        {
+            readers[LUCENE].query( cursor, indexOrder, existsPredicates( predicates ) );
+        }
+        else if ( !luceneMayHoldMatches( predicates ) )
+        {
+            readers[COMPOSITE].query( cursor, indexOrder, predicates );
+        }
+        else
         {
             if ( indexOrder != IndexOrder.NONE )
             {
@@ -146,12 +266,66 @@ class FusionIndexReader implements IndexReader
             BridgingIndexProgressor multiProgressor = new BridgingIndexProgressor( cursor,
                     descriptor.schema().getPropertyIds() );
             cursor.initialize( descriptor, multiProgressor, predicates );
-            nativeReader.query( multiProgressor, indexOrder, predicates[0] );
-            luceneReader.query( multiProgressor, indexOrder, predicates[0] );
-            return;
+            readers[COMPOSITE].query( multiProgressor, indexOrder, predicates );
+            readers[LUCENE].query( multiProgressor, indexOrder, existsPredicates( predicates ) );
         }
+    }
 
-        luceneReader.query( cursor, indexOrder, predicates );
+    /**
+     * The lucene index can only seek composite values that are exact on all properties, so any other composite query is a scan
+     * of the lucene index, and its hits must be filtered by the caller. It is left out if it can not hold any entries that match.
+     * That is the case for a range of numbers after exact values that fit in the composite index, since any number takes the same
+     * space in a composite key, so if one number fits after the exact values then all of them do.
+     */
+    private boolean luceneMayHoldMatches( IndexQuery[] predicates )
+    {
+        int last = predicates.length - 1;
+        if ( predicates[last].type() != IndexQueryType.rangeNumeric )
+        {
+            return true;
+        }
+        Value[] values = exactValues( predicates );
+        for ( int i = 0; i < last; i++ )
+        {
+            if ( values[i] == null )
+            {
+                return true;
+            }
+        }
+        values[last] = ANY_NUMBER;
+        return selector.selectSlot( values ) != COMPOSITE;
+    }
+
+    private static boolean allOfType( IndexQuery[] predicates, IndexQueryType type )
+    {
+        for ( IndexQuery predicate : predicates )
+        {
+            if ( predicate.type() != type )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Value[] exactValues( IndexQuery[] predicates )
+    {
+        Value[] values = new Value[predicates.length];
+        for ( int i = 0; i < predicates.length && predicates[i].type() == IndexQueryType.exact; i++ )
+        {
+            values[i] = ((ExactPredicate) predicates[i]).value();
+        }
+        return values;
+    }
+
+    private static IndexQuery[] existsPredicates( IndexQuery[] predicates )
+    {
+        IndexQuery[] exists = new IndexQuery[predicates.length];
+        for ( int i = 0; i < predicates.length; i++ )
+        {
+            exists[i] = IndexQuery.exists( predicates[i].propertyKeyId() );
+        }
+        return exists;
     }
 
     @Override
@@ -159,18 +333,30 @@ class FusionIndexReader implements IndexReader
     {
         if ( predicates.length > 1 )
         {
-            return false;
+            if ( allOfType( predicates, IndexQueryType.exact ) )
+            {
+                return selector.select( readers, exactValues( predicates ) ).hasFullNumberPrecision( predicates );
+            }
+            // Other composite queries scan the lucene index, unless it can not hold any matches
+            return !allOfType( predicates, IndexQueryType.exists ) && CompositeSchemaIndexProvider.canSeek( predicates ) &&
+                   !luceneMayHoldMatches( predicates );
         }
 
         IndexQuery predicate = predicates[0];
         if ( predicate instanceof ExactPredicate )
         {
             Value value = ((ExactPredicate) predicate).value();
-            return selector.select(
-                    nativeReader.hasFullNumberPrecision( predicates ),
-                    luceneReader.hasFullNumberPrecision( predicates ), value );
+            return selector.select( readers, value ).hasFullNumberPrecision( predicates );
+        }
+        if ( predicate instanceof GeometryRangePredicate )
+        {
+            return readers[SPATIAL].hasFullNumberPrecision( predicates );
+        }
+        if ( predicate instanceof TemporalRangePredicate )
+        {
+            return readers[TEMPORAL].hasFullNumberPrecision( predicates );
         }
-        return predicates[0] instanceof NumberRangePredicate && nativeReader.hasFullNumberPrecision( predicates );
+        return predicates[0] instanceof NumberRangePredicate && readers[NUMBER].hasFullNumberPrecision( predicates );
     }
 
     /**
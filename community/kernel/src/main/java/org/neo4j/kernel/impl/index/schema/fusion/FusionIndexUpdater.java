@@ -26,16 +26,16 @@ import org.neo4j.kernel.api.index.IndexEntryUpdate;
 import org.neo4j.kernel.api.index.IndexUpdater;
 import org.neo4j.kernel.impl.index.schema.fusion.FusionSchemaIndexProvider.Selector;
 
+import static org.neo4j.kernel.impl.index.schema.fusion.FusionSchemaIndexProvider.forAll;
+
 class FusionIndexUpdater implements IndexUpdater
 {
-    private final IndexUpdater nativeUpdater;
-    private final IndexUpdater luceneUpdater;
+    private final IndexUpdater[] updaters;
     private final Selector selector;
 
-    FusionIndexUpdater( IndexUpdater nativeUpdater, IndexUpdater luceneUpdater, Selector selector )
+    FusionIndexUpdater( IndexUpdater[] updaters, Selector selector )
     {
-        this.nativeUpdater = nativeUpdater;
-        this.luceneUpdater = luceneUpdater;
+        this.updaters = updaters;
         this.selector = selector;
     }
 
@@ -45,14 +45,14 @@ class FusionIndexUpdater implements IndexUpdater
         switch ( update.updateMode() )
         {
         case ADDED:
-            selector.select( nativeUpdater, luceneUpdater, update.values() ).process( update );
+            selector.select( updaters, update.values() ).process( update );
             break;
         case CHANGED:
-            // Hmm, here's a little conundrum. What if we change from a value that goes into native
-            // to a value that goes into fallback, or vice versa? We also don't want to blindly pass
+            // Hmm, here's a little conundrum. What if we change from a value that goes into one index
+            // to a value that goes into another, e.g. from native to fallback? We also don't want to blindly pass
             // all CHANGED updates to both updaters since not all values will work in them.
-            IndexUpdater from = selector.select( nativeUpdater, luceneUpdater, update.beforeValues() );
-            IndexUpdater to = selector.select( nativeUpdater, luceneUpdater, update.values() );
+            IndexUpdater from = selector.select( updaters, update.beforeValues() );
+            IndexUpdater to = selector.select( updaters, update.values() );
             // There are two cases:
             // - both before/after go into the same updater --> pass update into that updater
             if ( from == to )
@@ -69,7 +69,7 @@ class FusionIndexUpdater implements IndexUpdater
             }
             break;
         case REMOVED:
-            selector.select( nativeUpdater, luceneUpdater, update.values() ).process( update );
+            selector.select( updaters, update.values() ).process( update );
             break;
         default:
             throw new IllegalArgumentException( "Unknown update mode" );
@@ -81,11 +81,16 @@ class FusionIndexUpdater implements IndexUpdater
     {
         try
         {
-            nativeUpdater.close();
+            forAll( IndexUpdater::close, updaters );
+        }
+        catch ( IOException | IndexEntryConflictException | RuntimeException e )
+        {
+            throw e;
         }
-        finally
+        catch ( Exception e )
         {
-            luceneUpdater.close();
+            // IndexUpdater#close can not throw any other checked exception
+            throw new IllegalStateException( e );
         }
     }
 }
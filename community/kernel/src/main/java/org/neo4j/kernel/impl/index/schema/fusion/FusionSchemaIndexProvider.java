@@ -21,8 +21,12 @@ package org.neo4j.kernel.impl.index.schema.fusion;
 
 import java.io.IOException;
 
+import org.neo4j.function.ThrowingConsumer;
+import org.neo4j.helpers.ArrayUtil;
+import org.neo4j.helpers.Exceptions;
 import org.neo4j.internal.kernel.api.IndexCapability;
 import org.neo4j.internal.kernel.api.IndexOrder;
+import org.neo4j.internal.kernel.api.IndexValueCapability;
 import org.neo4j.internal.kernel.api.InternalIndexState;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.pagecache.PageCache;
@@ -38,30 +42,67 @@ import org.neo4j.storageengine.api.schema.IndexSample;
 import org.neo4j.values.storable.Value;
 import org.neo4j.values.storable.ValueGroup;
 
+import static org.neo4j.kernel.impl.index.schema.fusion.FusionSchemaIndexProvider.Selector.COMPOSITE;
+import static org.neo4j.kernel.impl.index.schema.fusion.FusionSchemaIndexProvider.Selector.INSTANCE_COUNT;
+import static org.neo4j.kernel.impl.index.schema.fusion.FusionSchemaIndexProvider.Selector.LUCENE;
+import static org.neo4j.kernel.impl.index.schema.fusion.FusionSchemaIndexProvider.Selector.NUMBER;
+import static org.neo4j.kernel.impl.index.schema.fusion.FusionSchemaIndexProvider.Selector.SPATIAL;
+import static org.neo4j.kernel.impl.index.schema.fusion.FusionSchemaIndexProvider.Selector.STRING;
+import static org.neo4j.kernel.impl.index.schema.fusion.FusionSchemaIndexProvider.Selector.TEMPORAL;
+
 /**
- * This {@link SchemaIndexProvider index provider} act as one logical index but is backed by two physical
- * indexes, the native index and the lucene index. All index entries that can be handled by the native index will be directed
- * there and the rest will be directed to the lucene index.
+ * This {@link SchemaIndexProvider index provider} act as one logical index but is backed by six physical
+ * indexes, the native number index, the native string index, the native spatial index, the native temporal index,
+ * the native composite index and the lucene index. All index entries that can be handled by one of the native indexes
+ * will be directed there and the rest will be directed to the lucene index.
+ * <p>
+ * The parts of a fusion index are kept in arrays, where the part of each physical index is in the slot given by {@link Selector}.
  */
 public class FusionSchemaIndexProvider extends SchemaIndexProvider
 {
     public interface Selector
     {
-        <T> T select( T nativeInstance, T luceneInstance, Value... values );
+        int INSTANCE_COUNT = 6;
+
+        int NUMBER = 0;
+        int STRING = 1;
+        int SPATIAL = 2;
+        int TEMPORAL = 3;
+        int COMPOSITE = 4;
+        int LUCENE = 5;
+
+        /**
+         * @param values the values of an index entry, or of an exact query.
+         * @return the slot of the index that handles the given values, one of {@link #NUMBER}, {@link #STRING},
+         * {@link #SPATIAL}, {@link #TEMPORAL}, {@link #COMPOSITE} and {@link #LUCENE}.
+         */
+        int selectSlot( Value... values );
+
+        default <T> T select( T[] instances, Value... values )
+        {
+            return instances[selectSlot( values )];
+        }
     }
 
-    private final SchemaIndexProvider nativeProvider;
-    private final SchemaIndexProvider luceneProvider;
+    private static final String[] SLOT_NAMES = {"number", "string", "spatial", "temporal", "composite", "lucene"};
+
+    private final SchemaIndexProvider[] providers;
     private final Selector selector;
     private final DropAction dropAction;
 
-    public FusionSchemaIndexProvider( SchemaIndexProvider nativeProvider,
-            SchemaIndexProvider luceneProvider, Selector selector, SchemaIndexProvider.Descriptor descriptor,
-            int priority, IndexDirectoryStructure.Factory directoryStructure, FileSystemAbstraction fs )
+    public FusionSchemaIndexProvider( SchemaIndexProvider numberProvider, SchemaIndexProvider stringProvider,
+            SchemaIndexProvider spatialProvider, SchemaIndexProvider temporalProvider, SchemaIndexProvider compositeProvider,
+            SchemaIndexProvider luceneProvider, Selector selector, SchemaIndexProvider.Descriptor descriptor, int priority, IndexDirectoryStructure.Factory directoryStructure,
+            FileSystemAbstraction fs )
     {
         super( descriptor, priority, directoryStructure );
-        this.nativeProvider = nativeProvider;
-        this.luceneProvider = luceneProvider;
+        this.providers = new SchemaIndexProvider[INSTANCE_COUNT];
+        providers[NUMBER] = numberProvider;
+        providers[STRING] = stringProvider;
+        providers[SPATIAL] = spatialProvider;
+        providers[TEMPORAL] = temporalProvider;
+        providers[COMPOSITE] = compositeProvider;
+        providers[LUCENE] = luceneProvider;
         this.selector = selector;
         this.dropAction = new FileSystemDropAction( fs, directoryStructure() );
     }
@@ -69,84 +110,114 @@ public class FusionSchemaIndexProvider extends SchemaIndexProvider
     @Override
     public IndexPopulator getPopulator( long indexId, IndexDescriptor descriptor, IndexSamplingConfig samplingConfig )
     {
-        return new FusionIndexPopulator(
-                nativeProvider.getPopulator( indexId, descriptor, samplingConfig ),
-                luceneProvider.getPopulator( indexId, descriptor, samplingConfig ), selector, indexId, dropAction );
+        IndexPopulator[] populators = new IndexPopulator[providers.length];
+        for ( int i = 0; i < providers.length; i++ )
+        {
+            populators[i] = providers[i].getPopulator( indexId, descriptor, samplingConfig );
+        }
+        return new FusionIndexPopulator( populators, selector, indexId, dropAction );
     }
 
     @Override
     public IndexAccessor getOnlineAccessor( long indexId, IndexDescriptor descriptor,
             IndexSamplingConfig samplingConfig ) throws IOException
     {
-        return new FusionIndexAccessor(
-                nativeProvider.getOnlineAccessor( indexId, descriptor, samplingConfig ),
-                luceneProvider.getOnlineAccessor( indexId, descriptor, samplingConfig ), selector, indexId, descriptor, dropAction );
+        IndexAccessor[] accessors = new IndexAccessor[providers.length];
+        for ( int i = 0; i < providers.length; i++ )
+        {
+            accessors[i] = providers[i].getOnlineAccessor( indexId, descriptor, samplingConfig );
+        }
+        return new FusionIndexAccessor( accessors, selector, indexId, descriptor, dropAction );
     }
 
     @Override
     public String getPopulationFailure( long indexId, IndexDescriptor descriptor ) throws IllegalStateException
     {
-        String nativeFailure = null;
-        try
+        StringBuilder failures = new StringBuilder();
+        boolean anyFailure = false;
+        for ( int i = 0; i < providers.length; i++ )
         {
-            nativeFailure = nativeProvider.getPopulationFailure( indexId, descriptor );
+            String failure = populationFailure( providers[i], indexId, descriptor );
+            anyFailure |= failure != null;
+            failures.append( i == 0 ? "" : " " ).append( SLOT_NAMES[i] ).append( ": " ).append( failure );
         }
-        catch ( IllegalStateException e )
-        {   // Just catch
+
+        if ( anyFailure )
+        {
+            return failures.toString();
         }
-        String luceneFailure = null;
+        throw new IllegalStateException( "None of the indexes were in a failed state" );
+    }
+
+    private static String populationFailure( SchemaIndexProvider provider, long indexId, IndexDescriptor descriptor )
+    {
         try
         {
-            luceneFailure = luceneProvider.getPopulationFailure( indexId, descriptor );
+            return provider.getPopulationFailure( indexId, descriptor );
         }
         catch ( IllegalStateException e )
         {   // Just catch
+            return null;
         }
-
-        if ( nativeFailure != null || luceneFailure != null )
-        {
-            return "native: " + nativeFailure + " lucene: " + luceneFailure;
-        }
-        throw new IllegalStateException( "None of the indexes were in a failed state" );
     }
 
     @Override
     public InternalIndexState getInitialState( long indexId, IndexDescriptor descriptor )
     {
-        InternalIndexState nativeState = nativeProvider.getInitialState( indexId, descriptor );
-        InternalIndexState luceneState = luceneProvider.getInitialState( indexId, descriptor );
-        if ( nativeState == InternalIndexState.FAILED || luceneState == InternalIndexState.FAILED )
+        InternalIndexState[] states = new InternalIndexState[providers.length];
+        for ( int i = 0; i < providers.length; i++ )
+        {
+            states[i] = providers[i].getInitialState( indexId, descriptor );
+        }
+        if ( ArrayUtil.contains( states, InternalIndexState.FAILED ) )
         {
             // One of the state is FAILED, the whole state must be considered FAILED
             return InternalIndexState.FAILED;
         }
-        if ( nativeState == InternalIndexState.POPULATING || luceneState == InternalIndexState.POPULATING )
+        if ( ArrayUtil.contains( states, InternalIndexState.POPULATING ) )
         {
             // No state is FAILED and one of the state is POPULATING, the whole state must be considered POPULATING
             return InternalIndexState.POPULATING;
         }
-        // This means that both states are ONLINE
-        return nativeState;
+        // This means that all states are ONLINE
+        return states[0];
     }
 
     @Override
     public IndexCapability getCapability( IndexDescriptor indexDescriptor )
     {
-        IndexCapability nativeCapability = nativeProvider.getCapability( indexDescriptor );
-        IndexCapability luceneCapability = luceneProvider.getCapability( indexDescriptor );
-        return new UnionIndexCapability( nativeCapability, luceneCapability )
+        IndexCapability[] capabilities = new IndexCapability[providers.length];
+        for ( int i = 0; i < providers.length; i++ )
+        {
+            capabilities[i] = providers[i].getCapability( indexDescriptor );
+        }
+        return new UnionIndexCapability( capabilities )
         {
             @Override
             public IndexOrder[] orderCapability( ValueGroup... valueGroups )
             {
-                // No order capability when combining results from different indexes
-                if ( valueGroups.length == 1 && valueGroups[0] == ValueGroup.UNKNOWN )
+                // No order capability when combining results from different indexes. Strings that are too long
+                // for the string index, or the composite index, live in the lucene index, so string results may be combined too.
+                if ( ArrayUtil.contains( valueGroups, ValueGroup.UNKNOWN ) || ArrayUtil.contains( valueGroups, ValueGroup.TEXT ) )
                 {
                     return new IndexOrder[0];
                 }
                 // Otherwise union of capabilities
                 return super.orderCapability( valueGroups );
             }
+
+            @Override
+            public IndexValueCapability valueCapability( ValueGroup... valueGroups )
+            {
+                // Strings that are too long for the string index, or the composite index, and points that the spatial index
+                // can not hold, live in the lucene index, which has no values
+                if ( valueGroups.length == 1 && (valueGroups[0] == ValueGroup.TEXT || valueGroups[0] == ValueGroup.GEOMETRY) ||
+                     valueGroups.length > 1 && ArrayUtil.contains( valueGroups, ValueGroup.TEXT ) )
+                {
+                    return IndexValueCapability.PARTIAL;
+                }
+                return super.valueCapability( valueGroups );
+            }
         };
     }
 
@@ -157,12 +228,47 @@ public class FusionSchemaIndexProvider extends SchemaIndexProvider
         return StoreMigrationParticipant.NOT_PARTICIPATING;
     }
 
-    static IndexSample combineSamples( IndexSample first, IndexSample other )
+    static IndexSample combineSamples( IndexSample... samples )
     {
-        return new IndexSample(
-                first.indexSize() + other.indexSize(),
-                first.uniqueValues() + other.uniqueValues(),
-                first.sampleSize() + other.sampleSize() );
+        long indexSize = 0;
+        long uniqueValues = 0;
+        long sampleSize = 0;
+        for ( IndexSample sample : samples )
+        {
+            indexSize += sample.indexSize();
+            uniqueValues += sample.uniqueValues();
+            sampleSize += sample.sampleSize();
+        }
+        return new IndexSample( indexSize, uniqueValues, sampleSize );
+    }
+
+    /**
+     * Applies the given action to all of the given subjects, also if it fails for some of them. The failure of the first
+     * subject that failed is thrown after all of them have been visited, with the failures of the others as suppressed.
+     *
+     * @param action the action to apply, e.g. close or drop.
+     * @param subjects the parts of a fusion index to apply the action to.
+     * @throws E the failure of the first subject that failed.
+     */
+    @SuppressWarnings( "unchecked" )
+    static <T, E extends Exception> void forAll( ThrowingConsumer<T,E> action, T[] subjects ) throws E
+    {
+        E failure = null;
+        for ( T subject : subjects )
+        {
+            try
+            {
+                action.accept( subject );
+            }
+            catch ( Exception e )
+            {
+                failure = Exceptions.chain( failure, (E) e );
+            }
+        }
+        if ( failure != null )
+        {
+            throw failure;
+        }
     }
 
     /**
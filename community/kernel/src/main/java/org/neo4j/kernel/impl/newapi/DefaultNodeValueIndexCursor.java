@@ -39,6 +39,7 @@ import static org.neo4j.collection.primitive.PrimitiveLongCollections.asSet;
 import static org.neo4j.collection.primitive.PrimitiveLongCollections.emptyIterator;
 import static org.neo4j.collection.primitive.PrimitiveLongCollections.emptySet;
 import static org.neo4j.kernel.impl.api.StateHandlingStatementOperations.assertOnlyExactPredicates;
+import static org.neo4j.kernel.impl.api.StateHandlingStatementOperations.onlyExactPredicates;
 import static org.neo4j.kernel.impl.store.record.AbstractBaseRecord.NO_ID;
 
 final class DefaultNodeValueIndexCursor extends IndexCursor<IndexProgressor>
@@ -67,7 +68,14 @@ final class DefaultNodeValueIndexCursor extends IndexCursor<IndexProgressor>
         switch ( firstPredicate.type() )
         {
         case exact:
-            seekQuery( descriptor, query );
+            if ( onlyExactPredicates( query ) )
+            {
+                seekQuery( descriptor, query );
+            }
+            else
+            {
+                compositeRangeQuery( descriptor, query );
+            }
             break;
 
         case stringSuffix:
@@ -90,6 +98,16 @@ final class DefaultNodeValueIndexCursor extends IndexCursor<IndexProgressor>
             prefixQuery( descriptor, (IndexQuery.StringPrefixPredicate) query[0] );
             break;
 
+        case rangeGeometric:
+            assert query.length == 1;
+            geometryRangeQuery( descriptor, (IndexQuery.GeometryRangePredicate) query[0] );
+            break;
+
+        case rangeTemporal:
+            assert query.length == 1;
+            temporalRangeQuery( descriptor, (IndexQuery.TemporalRangePredicate) query[0] );
+            break;
+
         default:
             throw new UnsupportedOperationException( "Query not supported: " + Arrays.toString( query ) );
         }
@@ -243,6 +261,39 @@ final class DefaultNodeValueIndexCursor extends IndexCursor<IndexProgressor>
         }
     }
 
+    private void geometryRangeQuery( IndexDescriptor descriptor, IndexQuery.GeometryRangePredicate predicate )
+    {
+        if ( read.hasTxStateWithChanges() )
+        {
+            TransactionState txState = read.txState();
+            PrimitiveLongReadableDiffSets changes = read.txState().indexUpdatesForRangeSeekByGeometry( descriptor, predicate );
+            added = changes.augment( emptyIterator() );
+            removed = removed( txState, changes );
+        }
+    }
+
+    private void temporalRangeQuery( IndexDescriptor descriptor, IndexQuery.TemporalRangePredicate predicate )
+    {
+        if ( read.hasTxStateWithChanges() )
+        {
+            TransactionState txState = read.txState();
+            PrimitiveLongReadableDiffSets changes = read.txState().indexUpdatesForRangeSeekByTemporal( descriptor, predicate );
+            added = changes.augment( emptyIterator() );
+            removed = removed( txState, changes );
+        }
+    }
+
+    private void compositeRangeQuery( IndexDescriptor descriptor, IndexQuery[] query )
+    {
+        if ( read.hasTxStateWithChanges() )
+        {
+            TransactionState txState = read.txState();
+            PrimitiveLongReadableDiffSets changes = read.txState().indexUpdatesForCompositeRangeSeek( descriptor, query );
+            added = changes.augment( emptyIterator() );
+            removed = removed( txState, changes );
+        }
+    }
+
     private void scanQuery( IndexDescriptor descriptor )
     {
         if ( read.hasTxStateWithChanges() )
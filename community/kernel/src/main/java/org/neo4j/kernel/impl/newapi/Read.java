@@ -61,6 +61,7 @@ import org.neo4j.values.storable.Value;
 import org.neo4j.values.storable.ValueGroup;
 import org.neo4j.values.storable.Values;
 
+import static org.neo4j.kernel.impl.api.StateHandlingStatementOperations.onlyExactPredicates;
 import static org.neo4j.kernel.impl.newapi.GroupReferenceEncoding.isRelationship;
 import static org.neo4j.kernel.impl.newapi.References.clearEncoding;
 import static org.neo4j.kernel.impl.newapi.RelationshipDirection.INCOMING;
@@ -98,28 +99,39 @@ abstract class Read implements TxStateHolder,
         {
             IndexQuery[] filters = new IndexQuery[query.length];
             int j = 0;
-            for ( IndexQuery q : query )
+            if ( query.length > 1 && !onlyExactPredicates( query ) )
             {
-                switch ( q.type() )
+                // composite ranges may be answered by scanning an index that cannot seek them, so all predicates need checking
+                System.arraycopy( query, 0, filters, 0, query.length );
+                j = query.length;
+            }
+            else
+            {
+                for ( IndexQuery q : query )
                 {
-                case rangeNumeric:
-                    if ( !reader.hasFullNumberPrecision( q ) )
-                    {
-                        filters[j++] = q;
-                    }
-                    break;
-                case exact:
-                    Value value = ((IndexQuery.ExactPredicate) q).value();
-                    if ( value.valueGroup() == ValueGroup.NUMBER || Values.isArrayValue( value ) )
+                    switch ( q.type() )
                     {
+                    case rangeNumeric:
+                    case rangeGeometric:
+                    case rangeTemporal:
                         if ( !reader.hasFullNumberPrecision( q ) )
                         {
                             filters[j++] = q;
                         }
+                        break;
+                    case exact:
+                        Value value = ((IndexQuery.ExactPredicate) q).value();
+                        if ( value.valueGroup() == ValueGroup.NUMBER || Values.isArrayValue( value ) )
+                        {
+                            if ( !reader.hasFullNumberPrecision( q ) )
+                            {
+                                filters[j++] = q;
+                            }
+                        }
+                        break;
+                    default:
+                        break;
                     }
-                    break;
-                default:
-                    break;
                 }
             }
             if ( j > 0 )
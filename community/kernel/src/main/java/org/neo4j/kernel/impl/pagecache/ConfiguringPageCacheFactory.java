@@ -25,9 +25,11 @@ import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.mem.MemoryAllocator;
 import org.neo4j.io.os.OsBeanUtil;
 import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageCacheAlgorithmFactory;
 import org.neo4j.io.pagecache.PageSwapperFactory;
 import org.neo4j.io.pagecache.impl.SingleFilePageSwapperFactory;
 import org.neo4j.io.pagecache.impl.muninn.MuninnPageCache;
+import org.neo4j.io.pagecache.impl.muninn.PageCacheAlgorithm.PageCacheAlgorithmFactories;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracerSupplier;
 import org.neo4j.kernel.configuration.Config;
@@ -35,7 +37,15 @@ import org.neo4j.logging.Log;
 import org.neo4j.memory.GlobalMemoryTracker;
 
 import static org.neo4j.graphdb.factory.GraphDatabaseSettings.mapped_memory_page_size;
+import static org.neo4j.graphdb.factory.GraphDatabaseSettings.pagecache_eviction_2q_a1in;
+import static org.neo4j.graphdb.factory.GraphDatabaseSettings.pagecache_eviction_2q_a1out;
+import static org.neo4j.graphdb.factory.GraphDatabaseSettings.pagecache_eviction_algorithm;
+import static org.neo4j.graphdb.factory.GraphDatabaseSettings.pagecache_eviction_lfu_new_section;
+import static org.neo4j.graphdb.factory.GraphDatabaseSettings.pagecache_eviction_lfu_old_section;
+import static org.neo4j.graphdb.factory.GraphDatabaseSettings.pagecache_eviction_lru_k;
+import static org.neo4j.graphdb.factory.GraphDatabaseSettings.pagecache_eviction_tinylfu_window;
 import static org.neo4j.graphdb.factory.GraphDatabaseSettings.pagecache_memory;
+import static org.neo4j.graphdb.factory.GraphDatabaseSettings.pagecache_partitions;
 import static org.neo4j.graphdb.factory.GraphDatabaseSettings.pagecache_swapper;
 import static org.neo4j.kernel.configuration.Settings.BYTES;
 
@@ -82,7 +92,10 @@ public class ConfiguringPageCacheFactory
     {
         checkPageSize( config );
         MemoryAllocator memoryAllocator = buildMemoryAllocator( config );
-        return new MuninnPageCache( swapperFactory, memoryAllocator, pageCacheTracer, pageCursorTracerSupplier );
+        PageCacheAlgorithmFactory algorithmFactory = getPageCacheAlgorithmFactory( config, log );
+        int partitions = config.get( pagecache_partitions );
+        return new MuninnPageCache( swapperFactory, memoryAllocator, algorithmFactory, partitions, pageCacheTracer,
+                pageCursorTracerSupplier );
     }
 
     private MemoryAllocator buildMemoryAllocator( Config config )
@@ -195,4 +208,46 @@ public class ConfiguringPageCacheFactory
         }
         return new SingleFilePageSwapperFactory();
     }
+
+    static PageCacheAlgorithmFactory getPageCacheAlgorithmFactory( Config config, Log log )
+    {
+        String desiredImplementation = config.get( pagecache_eviction_algorithm );
+        PageCacheAlgorithmFactory factory = getBuiltInPageCacheAlgorithmFactory( desiredImplementation, config );
+        if ( factory == null )
+        {
+            for ( PageCacheAlgorithmFactory candidate : Service.load( PageCacheAlgorithmFactory.class ) )
+            {
+                if ( candidate.implementationName().equals( desiredImplementation ) )
+                {
+                    factory = candidate;
+                    break;
+                }
+            }
+        }
+        if ( factory == null )
+        {
+            throw new IllegalArgumentException( "Cannot find PageCacheAlgorithmFactory: " + desiredImplementation );
+        }
+        log.info( "Configured " + pagecache_eviction_algorithm.name() + ": " + desiredImplementation );
+        return factory;
+    }
+
+    private static PageCacheAlgorithmFactory getBuiltInPageCacheAlgorithmFactory( String name, Config config )
+    {
+        switch ( name )
+        {
+        case PageCacheAlgorithmFactories.LRU_K:
+            return PageCacheAlgorithmFactories.lruK( config.get( pagecache_eviction_lru_k ) );
+        case PageCacheAlgorithmFactories.TWO_QUEUE:
+            return PageCacheAlgorithmFactories.twoQueue(
+                    config.get( pagecache_eviction_2q_a1in ), config.get( pagecache_eviction_2q_a1out ) );
+        case PageCacheAlgorithmFactories.LFU:
+            return PageCacheAlgorithmFactories.lfu(
+                    config.get( pagecache_eviction_lfu_new_section ), config.get( pagecache_eviction_lfu_old_section ) );
+        case PageCacheAlgorithmFactories.TINY_LFU:
+            return PageCacheAlgorithmFactories.tinyLfu( config.get( pagecache_eviction_tinylfu_window ) );
+        default:
+            return PageCacheAlgorithmFactories.byName( name );
+        }
+    }
 }
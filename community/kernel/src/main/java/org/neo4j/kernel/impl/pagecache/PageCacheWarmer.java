@@ -0,0 +1,534 @@
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.pagecache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.neo4j.graphdb.factory.GraphDatabaseSettings;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.kernel.configuration.Config;
+import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+import org.neo4j.logging.Log;
+import org.neo4j.logging.LogProvider;
+import org.neo4j.scheduler.JobScheduler;
+
+import static java.lang.System.currentTimeMillis;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static org.neo4j.helpers.Format.duration;
+import static org.neo4j.io.pagecache.PagedFile.PF_NO_CACHE_RETENTION;
+import static org.neo4j.io.pagecache.PagedFile.PF_NO_FAULT;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
+
+/**
+ * Warms the page cache up after a restart, by loading the pages that were in memory before the restart.
+ * <p>
+ * The {@link #profile() profile} of a mapped file is the set of its pages that are in memory, written as compressed
+ * runs of consecutive page ids, in file order, to a {@value #SUFFIX_CACHEPROF} file next to the mapped file. The
+ * profiles are written by a recurring job of their own, at the configured profiling interval.
+ * <p>
+ * When the warmer starts, the profiles of the mapped files are {@link #reheat() reheated} in the background. The runs
+ * of pages in the profiles are split, in file order, into chunks that a number of loader jobs fault in with vectored
+ * reads through {@link PagedFile#loadPages(long, int)}. The progress is logged as the pages are loaded, and stopping
+ * the warmer cancels the loading.
+ * <p>
+ * Profiling is held back until the page cache has been warmed up, so the profiles from before the restart are not
+ * overwritten with those of a cold page cache.
+ */
+public class PageCacheWarmer extends LifecycleAdapter
+{
+    public static final String SUFFIX_CACHEPROF = ".cacheprof";
+
+    private static final long PROFILE_MAGIC = 0x7072_6F66_696C_6531L;
+    // The loader jobs take chunks of runs covering up to this many pages at a time.
+    private static final int CHUNK_PAGES = 4096;
+    // The loader jobs load up to this many pages at a time, so they can stop soon after the page cache is full.
+    private static final int LOAD_PAGES = 256;
+    private static final int PROGRESS_REPORT_STEPS = 10;
+
+    private final FileSystemAbstraction fs;
+    private final PageCache pageCache;
+    private final JobScheduler scheduler;
+    private final Log log;
+    private final boolean enabled;
+    private final long profilingIntervalMillis;
+    private final int parallelism;
+
+    private volatile boolean stopped;
+    private volatile boolean warm;
+    private JobScheduler.JobHandle reheatJob;
+    private JobScheduler.JobHandle profileJob;
+    private long reportedProgressStep;
+
+    public PageCacheWarmer( FileSystemAbstraction fs, PageCache pageCache, JobScheduler scheduler, Config config,
+            LogProvider logProvider )
+    {
+        this.fs = fs;
+        this.pageCache = pageCache;
+        this.scheduler = scheduler;
+        this.log = logProvider.getLog( PageCacheWarmer.class );
+        this.enabled = config.get( GraphDatabaseSettings.pagecache_warmup_enabled );
+        this.profilingIntervalMillis = config.get( GraphDatabaseSettings.pagecache_warmup_profiling_interval ).toMillis();
+        int configuredParallelism = config.get( GraphDatabaseSettings.pagecache_warmup_parallelism );
+        this.parallelism = configuredParallelism == 0 ? Runtime.getRuntime().availableProcessors()
+                                                      : configuredParallelism;
+    }
+
+    @Override
+    public synchronized void start()
+    {
+        stopped = false;
+        warm = false;
+        if ( enabled )
+        {
+            reheatJob = scheduler.schedule( JobScheduler.Groups.pageCacheWarmup, this::reheatInBackground );
+            profileJob = scheduler.scheduleRecurring( JobScheduler.Groups.pageCacheWarmup, this::profileInBackground,
+                    profilingIntervalMillis, profilingIntervalMillis, MILLISECONDS );
+        }
+    }
+
+    @Override
+    public void stop() throws InterruptedException
+    {
+        stopped = true;
+        JobScheduler.JobHandle job;
+        synchronized ( this )
+        {
+            // Waits for an ongoing profiling to notice that the warmer is stopped
+            job = reheatJob;
+            reheatJob = null;
+            if ( profileJob != null )
+            {
+                profileJob.cancel( false );
+                profileJob = null;
+            }
+        }
+        if ( job != null )
+        {
+            try
+            {
+                job.waitTermination();
+            }
+            catch ( ExecutionException | CancellationException e )
+            {
+                log.debug( "Page cache warmup did not complete.", e );
+            }
+        }
+    }
+
+    /**
+     * Write the profiles of all mapped files, unless the page cache is still being warmed up.
+     */
+    public synchronized void profile() throws IOException
+    {
+        if ( !enabled || !warm || stopped )
+        {
+            return;
+        }
+        long startTime = currentTimeMillis();
+        long profiledPages = 0;
+        List<PagedFile> files = pageCache.listExistingMappings();
+        try
+        {
+            for ( PagedFile file : files )
+            {
+                profiledPages += profile( file );
+            }
+        }
+        finally
+        {
+            closeAll( files );
+        }
+        log.debug( "Profiled " + profiledPages + " pages of " + files.size() + " mapped files in the page cache in " +
+                  duration( currentTimeMillis() - startTime ) + "." );
+    }
+
+    /**
+     * Load the pages in the profiles of the mapped files into the page cache, and wait for them to be loaded. Loading
+     * stops early if the warmer is stopped, or once as many pages as the page cache can hold have been loaded.
+     *
+     * @return the number of pages that were loaded.
+     */
+    public long reheat() throws IOException, InterruptedException
+    {
+        long startTime = currentTimeMillis();
+        List<PagedFile> files = pageCache.listExistingMappings();
+        try
+        {
+            List<PagedFile> profiledFiles = new ArrayList<>();
+            List<File> profiles = new ArrayList<>();
+            long profiledPages = 0;
+            for ( PagedFile file : files )
+            {
+                File profile = profileOf( file );
+                if ( fs.fileExists( profile ) )
+                {
+                    try ( DataInputStream in = openProfile( profile ) )
+                    {
+                        profiledPages += in.readLong();
+                    }
+                    profiledFiles.add( file );
+                    profiles.add( profile );
+                }
+            }
+            long pageLimit = Math.min( profiledPages, pageCache.maxCachedPages() );
+            if ( pageLimit == 0 )
+            {
+                return 0;
+            }
+
+            log.info( "Page cache warmup started, loading " + pageLimit + " pages from the profiles of " +
+                      profiles.size() + " mapped files." );
+            Queue<Chunk> chunks = new ConcurrentLinkedQueue<>();
+            for ( int i = 0; i < profiles.size() && !stopped; i++ )
+            {
+                readChunks( profiledFiles.get( i ), profiles.get( i ), chunks );
+            }
+            AtomicLong loadedPages = new AtomicLong();
+            reportedProgressStep = 0;
+            List<JobScheduler.JobHandle> loaders = new ArrayList<>( parallelism );
+            for ( int i = 0; i < parallelism; i++ )
+            {
+                loaders.add( scheduler.schedule( JobScheduler.Groups.pageCacheWarmup,
+                        () -> loadChunks( chunks, loadedPages, pageLimit ) ) );
+            }
+            awaitLoaders( loaders );
+
+            long loaded = loadedPages.get();
+            log.info( "Page cache warmup " + (stopped ? "cancelled" : "completed") + " after loading " + loaded +
+                      " pages in " + duration( currentTimeMillis() - startTime ) + "." );
+            return loaded;
+        }
+        finally
+        {
+            closeAll( files );
+        }
+    }
+
+    private void profileInBackground()
+    {
+        try
+        {
+            profile();
+        }
+        catch ( Throwable e )
+        {
+            // The profile is only an optimisation, so just try again next time.
+            log.warn( "Failed to profile the page cache.", e );
+        }
+    }
+
+    private void reheatInBackground()
+    {
+        try
+        {
+            reheat();
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        catch ( Throwable e )
+        {
+            // Failing to warm up only means that the page cache has to warm up by itself, which is no reason to hold
+            // back profiling.
+            log.warn( "Page cache warmup failed.", e );
+        }
+        warm = !stopped;
+    }
+
+    private long profile( PagedFile file ) throws IOException
+    {
+        ByteArrayOutputStream runs = new ByteArrayOutputStream();
+        long pageCount = 0;
+        long previousRunEnd = 0;
+        long runStart = -1;
+        long pageId = 0;
+        try ( PageCursor cursor = file.io( 0, PF_SHARED_READ_LOCK | PF_NO_FAULT | PF_NO_CACHE_RETENTION ) )
+        {
+            for ( ; cursor.next() && !stopped; pageId++ )
+            {
+                boolean inMemory = cursor.getCurrentPageId() != PageCursor.UNBOUND_PAGE_ID;
+                if ( inMemory && runStart == -1 )
+                {
+                    runStart = pageId;
+                }
+                else if ( !inMemory && runStart != -1 )
+                {
+                    writeRun( runs, runStart - previousRunEnd, pageId - runStart );
+                    pageCount += pageId - runStart;
+                    previousRunEnd = pageId;
+                    runStart = -1;
+                }
+            }
+        }
+        if ( stopped )
+        {
+            return 0;
+        }
+        if ( runStart != -1 )
+        {
+            writeRun( runs, runStart - previousRunEnd, pageId - runStart );
+            pageCount += pageId - runStart;
+        }
+
+        File profile = profileOf( file );
+        File tempProfile = new File( profile.getParentFile(), profile.getName() + ".tmp" );
+        try ( DataOutputStream out = new DataOutputStream( new BufferedOutputStream(
+                new GZIPOutputStream( fs.openAsOutputStream( tempProfile, false ) ) ) ) )
+        {
+            out.writeLong( PROFILE_MAGIC );
+            out.writeLong( pageCount );
+            runs.writeTo( out );
+        }
+        fs.renameFile( tempProfile, profile, REPLACE_EXISTING );
+        return pageCount;
+    }
+
+    private void readChunks( PagedFile file, File profile, Queue<Chunk> chunks ) throws IOException
+    {
+        try ( DataInputStream in = openProfile( profile ) )
+        {
+            long pageCount = in.readLong();
+            long pageId = 0;
+            List<long[]> runs = new ArrayList<>();
+            long chunkPages = 0;
+            while ( pageCount > 0 && !stopped )
+            {
+                long start = pageId + readVarLong( in );
+                long length = Math.min( readVarLong( in ), pageCount );
+                pageId = start + length;
+                pageCount -= length;
+                runs.add( new long[]{start, length} );
+                chunkPages += length;
+                if ( chunkPages >= CHUNK_PAGES || pageCount == 0 )
+                {
+                    chunks.add( new Chunk( file, runs ) );
+                    runs = new ArrayList<>();
+                    chunkPages = 0;
+                }
+            }
+        }
+        catch ( EOFException e )
+        {
+            log.warn( "The page cache profile " + profile + " is truncated.", e );
+        }
+    }
+
+    private void loadChunks( Queue<Chunk> chunks, AtomicLong loadedPages, long pageLimit )
+    {
+        try
+        {
+            Chunk chunk;
+            while ( (chunk = chunks.poll()) != null && loadRuns( chunk, loadedPages, pageLimit ) )
+            {
+                reportProgress( loadedPages, pageLimit );
+            }
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+    }
+
+    /**
+     * @return {@code true} if all the runs of the chunk were loaded, or {@code false} if loading should stop.
+     */
+    private boolean loadRuns( Chunk chunk, AtomicLong loadedPages, long pageLimit ) throws IOException
+    {
+        for ( long[] run : chunk.runs )
+        {
+            long pageId = run[0];
+            long end = run[0] + run[1];
+            while ( pageId < end )
+            {
+                long remaining = pageLimit - loadedPages.get();
+                if ( stopped || remaining <= 0 )
+                {
+                    return false;
+                }
+                int length = (int) Math.min( Math.min( end - pageId, LOAD_PAGES ), remaining );
+                loadedPages.addAndGet( chunk.file.loadPages( pageId, length ) );
+                pageId += length;
+            }
+        }
+        return true;
+    }
+
+    private synchronized void reportProgress( AtomicLong loadedPages, long pageLimit )
+    {
+        long loaded = Math.min( loadedPages.get(), pageLimit );
+        long step = loaded * PROGRESS_REPORT_STEPS / pageLimit;
+        if ( step > reportedProgressStep && !stopped )
+        {
+            reportedProgressStep = step;
+            log.info( "Page cache warmup " + step * 100 / PROGRESS_REPORT_STEPS + "% complete, " + loaded + " of " +
+                      pageLimit + " pages loaded." );
+        }
+    }
+
+    private static void awaitLoaders( List<JobScheduler.JobHandle> loaders ) throws IOException, InterruptedException
+    {
+        IOException failure = null;
+        for ( JobScheduler.JobHandle loader : loaders )
+        {
+            try
+            {
+                loader.waitTermination();
+            }
+            catch ( ExecutionException e )
+            {
+                if ( failure == null )
+                {
+                    failure = new IOException( "Failed to load pages into the page cache.", e.getCause() );
+                }
+            }
+        }
+        if ( failure != null )
+        {
+            throw failure;
+        }
+    }
+
+    private DataInputStream openProfile( File profile ) throws IOException
+    {
+        InputStream in = fs.openAsInputStream( profile );
+        try
+        {
+            DataInputStream data = new DataInputStream( new BufferedInputStream( new GZIPInputStream( in ) ) );
+            if ( data.readLong() != PROFILE_MAGIC )
+            {
+                throw new IOException( "The file " + profile + " is not a page cache profile." );
+            }
+            return data;
+        }
+        catch ( IOException e )
+        {
+            in.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Runs of pages of a mapped file, covering up to {@link #CHUNK_PAGES} pages, that a loader job loads at a time.
+     */
+    private static class Chunk
+    {
+        private final PagedFile file;
+        private final List<long[]> runs;
+
+        Chunk( PagedFile file, List<long[]> runs )
+        {
+            this.file = file;
+            this.runs = runs;
+        }
+    }
+
+    private static File profileOf( PagedFile file )
+    {
+        File mappedFile = file.file();
+        return new File( mappedFile.getParentFile(), mappedFile.getName() + SUFFIX_CACHEPROF );
+    }
+
+    /**
+     * Runs are written as the number of pages since the end of the previous run, followed by the length of the run,
+     * both as variable length integers of seven bits per byte.
+     */
+    private static void writeRun( OutputStream out, long gap, long length ) throws IOException
+    {
+        writeVarLong( out, gap );
+        writeVarLong( out, length );
+    }
+
+    private static void writeVarLong( OutputStream out, long value ) throws IOException
+    {
+        while ( (value & ~0x7FL) != 0 )
+        {
+            out.write( (int) ((value & 0x7F) | 0x80) );
+            value >>>= 7;
+        }
+        out.write( (int) value );
+    }
+
+    private static long readVarLong( DataInputStream in ) throws IOException
+    {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do
+        {
+            b = in.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        }
+        while ( (b & 0x80) != 0 );
+        return value;
+    }
+
+    private static void closeAll( List<PagedFile> files ) throws IOException
+    {
+        IOException exception = null;
+        for ( PagedFile file : files )
+        {
+            try
+            {
+                file.close();
+            }
+            catch ( IOException e )
+            {
+                if ( exception == null )
+                {
+                    exception = e;
+                }
+                else
+                {
+                    exception.addSuppressed( e );
+                }
+            }
+        }
+        if ( exception != null )
+        {
+            throw exception;
+        }
+    }
+}
@@ -0,0 +1,419 @@
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.storageengine.impl.recordstorage;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import org.neo4j.collection.primitive.Primitive;
+import org.neo4j.collection.primitive.PrimitiveLongIntMap;
+import org.neo4j.collection.primitive.PrimitiveLongIterator;
+import org.neo4j.collection.primitive.PrimitiveLongSet;
+import org.neo4j.helpers.collection.Visitor;
+import org.neo4j.kernel.impl.api.CommandVisitor;
+import org.neo4j.kernel.impl.core.CacheAccessBackDoor;
+import org.neo4j.kernel.impl.locking.LockGroup;
+import org.neo4j.kernel.impl.store.NeoStores;
+import org.neo4j.kernel.impl.store.PropertyType;
+import org.neo4j.kernel.impl.store.record.AbstractBaseRecord;
+import org.neo4j.kernel.impl.store.record.DynamicRecord;
+import org.neo4j.kernel.impl.store.record.PropertyBlock;
+import org.neo4j.kernel.impl.store.record.PropertyRecord;
+import org.neo4j.kernel.impl.transaction.command.Command;
+import org.neo4j.kernel.impl.transaction.command.Command.BaseCommand;
+import org.neo4j.kernel.impl.transaction.command.Command.LabelTokenCommand;
+import org.neo4j.kernel.impl.transaction.command.Command.NeoStoreCommand;
+import org.neo4j.kernel.impl.transaction.command.Command.NodeCommand;
+import org.neo4j.kernel.impl.transaction.command.Command.PropertyCommand;
+import org.neo4j.kernel.impl.transaction.command.Command.PropertyKeyTokenCommand;
+import org.neo4j.kernel.impl.transaction.command.Command.RelationshipCommand;
+import org.neo4j.kernel.impl.transaction.command.Command.RelationshipGroupCommand;
+import org.neo4j.kernel.impl.transaction.command.Command.RelationshipTypeTokenCommand;
+import org.neo4j.kernel.impl.transaction.command.Command.SchemaRuleCommand;
+import org.neo4j.kernel.impl.transaction.command.NeoStoreTransactionApplier;
+import org.neo4j.storageengine.api.CommandsToApply;
+import org.neo4j.storageengine.api.StorageCommand;
+import org.neo4j.storageengine.api.TransactionApplicationMode;
+
+import static org.neo4j.kernel.impl.api.TransactionToApply.TRANSACTION_ID_NOT_SPECIFIED;
+import static org.neo4j.kernel.impl.locking.LockService.NO_LOCK_SERVICE;
+
+/**
+ * Applies batches of recovered transactions using multiple threads. The record changes of a batch are split into
+ * partitions by record id and the partitions are written to the stores concurrently, each partition in transaction
+ * order. Record commands carry whole records, so the stores end up the same as if the batch had been applied serially.
+ * After that the rest of the appliers, i.e. the ones updating counts, indexes, label scan store and high ids, get to
+ * see the transactions one by one, just like when applying serially.
+ * <p>
+ * Some changes must not be reordered, so batches are split up further such that within each part:
+ * <ul>
+ * <li>A secondary record unit or dynamic record is only written by records in one partition. These are handed
+ * over between records when they are reused, so they must be written in transaction order.</li>
+ * <li>A node is changed by at most one transaction, when indexes are updated as well. Index updates are read
+ * partly from the store, which must not include changes to the node made by later transactions.</li>
+ * </ul>
+ * Transactions changing the schema, and transactions that cannot be partitioned on their own, are applied serially.
+ */
+class ParallelRecoveryApplier implements AutoCloseable
+{
+    /**
+     * Applies transactions serially through the regular appliers of the storage engine.
+     */
+    interface SerialApplier
+    {
+        /**
+         * Applies the transactions from {@code first} up until, but not including, {@code end}.
+         *
+         * @param includeRecordStores whether or not to update the record stores, or only what is derived
+         * from the commands, like counts and indexes.
+         */
+        void apply( CommandsToApply first, CommandsToApply end, TransactionApplicationMode mode,
+                boolean includeRecordStores ) throws Exception;
+    }
+
+    private enum Slot
+    {
+        NODE,
+        RELATIONSHIP,
+        PROPERTY,
+        RELATIONSHIP_GROUP,
+        NODE_LABELS,
+        STRING,
+        ARRAY
+    }
+
+    private final NeoStores neoStores;
+    private final CacheAccessBackDoor cacheAccess;
+    private final SerialApplier serialApplier;
+    private final ExecutorService executor;
+    private final List<List<Command>> partitions = new ArrayList<>();
+    private final List<List<Command>> transactionPartitions = new ArrayList<>();
+    private final PrimitiveLongIntMap[] slotPartitions = new PrimitiveLongIntMap[Slot.values().length];
+    private final PrimitiveLongSet changedNodes = Primitive.longSet();
+    private final PrimitiveLongSet transactionNodes = Primitive.longSet();
+    private final Partitioner partitioner = new Partitioner();
+
+    ParallelRecoveryApplier( NeoStores neoStores, CacheAccessBackDoor cacheAccess, SerialApplier serialApplier,
+            int parallelism, ThreadFactory threadFactory )
+    {
+        this.neoStores = neoStores;
+        this.cacheAccess = cacheAccess;
+        this.serialApplier = serialApplier;
+        for ( int i = 0; i < parallelism; i++ )
+        {
+            partitions.add( new ArrayList<>() );
+            transactionPartitions.add( new ArrayList<>() );
+        }
+        for ( int i = 0; i < slotPartitions.length; i++ )
+        {
+            slotPartitions[i] = Primitive.longIntMap();
+        }
+        // The calling thread applies the first partition itself
+        this.executor = Executors.newFixedThreadPool( parallelism - 1, threadFactory );
+    }
+
+    void apply( CommandsToApply batch, TransactionApplicationMode mode ) throws Exception
+    {
+        boolean readsNodes = mode.needsAuxiliaryStores();
+        CommandsToApply first = batch;
+        for ( CommandsToApply transaction = batch; transaction != null; transaction = transaction.next() )
+        {
+            if ( !partition( transaction, readsNodes ) )
+            {
+                applyPartitions( first, transaction, mode );
+                first = transaction;
+                if ( !partition( transaction, readsNodes ) )
+                {
+                    clear();
+                    serialApplier.apply( transaction, transaction.next(), mode, true );
+                    first = transaction.next();
+                }
+            }
+        }
+        applyPartitions( first, null, mode );
+    }
+
+    /**
+     * Adds the record commands of the given transaction to the partitions, unless that would reorder changes that
+     * must be applied in order.
+     *
+     * @return {@code true} if the commands were added, otherwise {@code false} and the partitions are left as they were.
+     */
+    private boolean partition( CommandsToApply transaction, boolean readsNodes ) throws IOException
+    {
+        for ( List<Command> commands : transactionPartitions )
+        {
+            commands.clear();
+        }
+        transactionNodes.clear();
+        if ( transaction.accept( partitioner ) )
+        {
+            return false;
+        }
+        if ( readsNodes )
+        {
+            PrimitiveLongIterator nodes = transactionNodes.iterator();
+            while ( nodes.hasNext() )
+            {
+                if ( changedNodes.contains( nodes.next() ) )
+                {
+                    return false;
+                }
+            }
+            changedNodes.addAll( transactionNodes.iterator() );
+        }
+        for ( int i = 0; i < partitions.size(); i++ )
+        {
+            partitions.get( i ).addAll( transactionPartitions.get( i ) );
+        }
+        return true;
+    }
+
+    private void applyPartitions( CommandsToApply first, CommandsToApply end, TransactionApplicationMode mode )
+            throws Exception
+    {
+        if ( first == end )
+        {
+            return;
+        }
+
+        List<Future<?>> applied = new ArrayList<>();
+        for ( int i = 1; i < partitions.size(); i++ )
+        {
+            List<Command> commands = partitions.get( i );
+            if ( !commands.isEmpty() )
+            {
+                applied.add( executor.submit( () ->
+                {
+                    applyToStores( commands, mode );
+                    return null;
+                } ) );
+            }
+        }
+        applyToStores( partitions.get( 0 ), mode );
+        for ( Future<?> future : applied )
+        {
+            future.get();
+        }
+        clear();
+
+        serialApplier.apply( first, end, mode, false );
+    }
+
+    private void applyToStores( List<Command> commands, TransactionApplicationMode mode ) throws Exception
+    {
+        // The transaction id is only used for schema changes, which are never applied in partitions
+        try ( NeoStoreTransactionApplier applier = new NeoStoreTransactionApplier( mode.version(), neoStores,
+                cacheAccess, NO_LOCK_SERVICE, TRANSACTION_ID_NOT_SPECIFIED, new LockGroup() ) )
+        {
+            for ( Command command : commands )
+            {
+                command.handle( applier );
+            }
+        }
+    }
+
+    private void clear()
+    {
+        for ( List<Command> commands : partitions )
+        {
+            commands.clear();
+        }
+        for ( PrimitiveLongIntMap slots : slotPartitions )
+        {
+            slots.clear();
+        }
+        changedNodes.clear();
+    }
+
+    @Override
+    public void close()
+    {
+        executor.shutdown();
+    }
+
+    /**
+     * Puts the record commands it visits into {@link #transactionPartitions} and claims the record slots they write
+     * for their partition. Stops visiting, by returning {@code true}, when a slot has already been claimed by another
+     * partition, or when visiting a schema change.
+     */
+    private class Partitioner extends CommandVisitor.Adapter implements Visitor<StorageCommand,IOException>
+    {
+        @Override
+        public boolean visit( StorageCommand command ) throws IOException
+        {
+            return ((Command) command).handle( this );
+        }
+
+        @Override
+        public boolean visitNodeCommand( NodeCommand command )
+        {
+            int partition = partitionOf( command.getKey() );
+            transactionNodes.add( command.getKey() );
+            boolean claimed = claimRecord( Slot.NODE, command, partition ) &&
+                    claimDynamicRecords( Slot.NODE_LABELS, command.getBefore().getDynamicLabelRecords(), partition ) &&
+                    claimDynamicRecords( Slot.NODE_LABELS, command.getAfter().getDynamicLabelRecords(), partition );
+            return !claimed || add( command, partition );
+        }
+
+        @Override
+        public boolean visitRelationshipCommand( RelationshipCommand command )
+        {
+            int partition = partitionOf( command.getKey() );
+            return !claimRecord( Slot.RELATIONSHIP, command, partition ) || add( command, partition );
+        }
+
+        @Override
+        public boolean visitPropertyCommand( PropertyCommand command )
+        {
+            int partition = partitionOf( command.getKey() );
+            addNode( command.getBefore() );
+            addNode( command.getAfter() );
+            boolean claimed = claimRecord( Slot.PROPERTY, command, partition ) &&
+                    claimValueRecords( command.getBefore(), partition ) &&
+                    claimValueRecords( command.getAfter(), partition );
+            return !claimed || add( command, partition );
+        }
+
+        @Override
+        public boolean visitRelationshipGroupCommand( RelationshipGroupCommand command )
+        {
+            int partition = partitionOf( command.getKey() );
+            return !claimRecord( Slot.RELATIONSHIP_GROUP, command, partition ) || add( command, partition );
+        }
+
+        // Tokens are never deleted, so neither token records nor their name records are ever reused
+
+        @Override
+        public boolean visitRelationshipTypeTokenCommand( RelationshipTypeTokenCommand command )
+        {
+            return add( command, partitionOf( command.getKey() ) );
+        }
+
+        @Override
+        public boolean visitLabelTokenCommand( LabelTokenCommand command )
+        {
+            return add( command, partitionOf( command.getKey() ) );
+        }
+
+        @Override
+        public boolean visitPropertyKeyTokenCommand( PropertyKeyTokenCommand command )
+        {
+            return add( command, partitionOf( command.getKey() ) );
+        }
+
+        @Override
+        public boolean visitNeoStoreCommand( NeoStoreCommand command )
+        {
+            return add( command, 0 );
+        }
+
+        @Override
+        public boolean visitSchemaRuleCommand( SchemaRuleCommand command )
+        {
+            // Schema changes affect how the other appliers treat later transactions, so these are applied serially
+            return true;
+        }
+
+        private int partitionOf( long id )
+        {
+            return (int) (id % partitions.size());
+        }
+
+        private boolean add( Command command, int partition )
+        {
+            transactionPartitions.get( partition ).add( command );
+            return false;
+        }
+
+        private void addNode( PropertyRecord record )
+        {
+            if ( record.getNodeId() != -1 )
+            {
+                transactionNodes.add( record.getNodeId() );
+            }
+        }
+
+        private boolean claimRecord( Slot slot, BaseCommand<?> command, int partition )
+        {
+            return claim( slot, command.getKey(), partition ) &&
+                    claimSecondaryUnit( slot, command.getBefore(), partition ) &&
+                    claimSecondaryUnit( slot, command.getAfter(), partition );
+        }
+
+        private boolean claimSecondaryUnit( Slot slot, AbstractBaseRecord record, int partition )
+        {
+            return !record.hasSecondaryUnitId() || claim( slot, record.getSecondaryUnitId(), partition );
+        }
+
+        private boolean claimValueRecords( PropertyRecord record, int partition )
+        {
+            for ( PropertyBlock block : record )
+            {
+                if ( !claimDynamicRecords( block.getValueRecords(), partition ) )
+                {
+                    return false;
+                }
+            }
+            return claimDynamicRecords( record.getDeletedRecords(), partition );
+        }
+
+        private boolean claimDynamicRecords( Iterable<DynamicRecord> records, int partition )
+        {
+            for ( DynamicRecord record : records )
+            {
+                Slot slot = record.getType() == PropertyType.STRING ? Slot.STRING : Slot.ARRAY;
+                if ( !claim( slot, record.getId(), partition ) )
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean claimDynamicRecords( Slot slot, Iterable<DynamicRecord> records, int partition )
+        {
+            for ( DynamicRecord record : records )
+            {
+                if ( !claim( slot, record.getId(), partition ) )
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean claim( Slot slot, long id, int partition )
+        {
+            PrimitiveLongIntMap claimed = slotPartitions[slot.ordinal()];
+            if ( claimed.containsKey( id ) )
+            {
+                return claimed.get( id ) == partition;
+            }
+            claimed.put( id, partition );
+            return true;
+        }
+    }
+}
@@ -154,6 +154,9 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
     private final IdController idController;
     private final int denseNodeThreshold;
     private final int recordIdBatchSize;
+    private final int recoveryParallelism;
+    private final JobScheduler scheduler;
+    private ParallelRecoveryApplier parallelRecoveryApplier;
 
     public RecordStorageEngine(
             File storeDir,
@@ -191,6 +194,7 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
         this.indexConfigStore = indexConfigStore;
         this.constraintSemantics = constraintSemantics;
         this.explicitIndexTransactionOrdering = explicitIndexTransactionOrdering;
+        this.scheduler = scheduler;
 
         this.idController = idController;
         StoreFactory factory = new StoreFactory( storeDir, config, idGeneratorFactory, pageCache, fs, logProvider );
@@ -234,6 +238,7 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
 
             denseNodeThreshold = config.get( GraphDatabaseSettings.dense_node_threshold );
             recordIdBatchSize = config.get( GraphDatabaseSettings.record_id_batch_size );
+            recoveryParallelism = recoveryParallelism( config );
         }
         catch ( Throwable failure )
         {
@@ -310,9 +315,25 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
         }
     }
 
+    /**
+     * @return the number of threads recovered transactions get applied with, where anything above one means
+     * that recovered transactions are applied in parallel partitions.
+     */
+    public static int recoveryParallelism( Config config )
+    {
+        int parallelism = config.get( GraphDatabaseSettings.recovery_parallelism );
+        return parallelism == 0 ? Runtime.getRuntime().availableProcessors() : parallelism;
+    }
+
     @Override
     public void apply( CommandsToApply batch, TransactionApplicationMode mode ) throws Exception
     {
+        if ( recoveryParallelism > 1 && (mode == RECOVERY || mode == REVERSE_RECOVERY) )
+        {
+            applyInParallel( batch, mode );
+            return;
+        }
+
         // Have these command appliers as separate try-with-resource to have better control over
         // point between closing this and the locks above
         try ( BatchTransactionApplier batchApplier = applier( mode ) )
@@ -338,6 +359,43 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
         }
     }
 
+    private void applyInParallel( CommandsToApply batch, TransactionApplicationMode mode ) throws Exception
+    {
+        try
+        {
+            if ( parallelRecoveryApplier == null )
+            {
+                parallelRecoveryApplier = new ParallelRecoveryApplier( neoStores, cacheAccess, this::applyInOrder,
+                        recoveryParallelism, scheduler.threadFactory( JobScheduler.Groups.recovery ) );
+            }
+            parallelRecoveryApplier.apply( batch, mode );
+        }
+        catch ( Throwable cause )
+        {
+            TransactionApplyKernelException kernelException =
+                    new TransactionApplyKernelException( cause, "Failed to apply transactions: %s", batch );
+            databaseHealth.panic( kernelException );
+            throw kernelException;
+        }
+    }
+
+    private void applyInOrder( CommandsToApply first, CommandsToApply end, TransactionApplicationMode mode,
+            boolean includeRecordStores ) throws Exception
+    {
+        try ( BatchTransactionApplier batchApplier = includeRecordStores ? applier( mode )
+                : new BatchTransactionApplierFacade( decoratingAppliers( mode ) ) )
+        {
+            for ( CommandsToApply batch = first; batch != end; batch = batch.next() )
+            {
+                try ( LockGroup locks = new LockGroup();
+                      TransactionApplier txApplier = batchApplier.startTx( batch, locks ) )
+                {
+                    batch.accept( txApplier );
+                }
+            }
+        }
+    }
+
     /**
      * Creates a {@link BatchTransactionApplierFacade} that is to be used for all transactions
      * in a batch. Each transaction is handled by a {@link TransactionApplierFacade} which wraps the
@@ -350,6 +408,20 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
         ArrayList<BatchTransactionApplier> appliers = new ArrayList<>();
         // Graph store application. The order of the decorated store appliers is irrelevant
         appliers.add( new NeoStoreBatchTransactionApplier( mode.version(), neoStores, cacheAccess, lockService( mode ) ) );
+        Collections.addAll( appliers, decoratingAppliers( mode ) );
+
+        // Perform the application
+        return new BatchTransactionApplierFacade(
+                appliers.toArray( new BatchTransactionApplier[appliers.size()] ) );
+    }
+
+    /**
+     * Creates the appliers that apply what is derived from the commands, e.g. counts, indexes and high ids,
+     * as opposed to the record changes themselves.
+     */
+    private BatchTransactionApplier[] decoratingAppliers( TransactionApplicationMode mode )
+    {
+        ArrayList<BatchTransactionApplier> appliers = new ArrayList<>();
         if ( mode.needsHighIdTracking() )
         {
             appliers.add( new HighIdBatchTransactionApplier( neoStores ) );
@@ -374,10 +446,7 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
                             explicitIndexTransactionOrdering,
                             mode ) );
         }
-
-        // Perform the application
-        return new BatchTransactionApplierFacade(
-                appliers.toArray( new BatchTransactionApplier[appliers.size()] ) );
+        return appliers.toArray( new BatchTransactionApplier[appliers.size()] );
     }
 
     private LockService lockService( TransactionApplicationMode mode )
@@ -408,6 +477,8 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
     @Override
     public void start() throws Throwable
     {
+        // Recovery happens before start, so there will be no more use for the recovery threads
+        closeParallelRecoveryApplier();
         neoStores.makeStoreOk();
 
         propertyKeyTokenHolder.setInitialTokens(
@@ -448,11 +519,21 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
     @Override
     public void shutdown() throws Throwable
     {
+        closeParallelRecoveryApplier();
         indexingService.shutdown();
         labelScanStore.shutdown();
         neoStores.close();
     }
 
+    private void closeParallelRecoveryApplier()
+    {
+        if ( parallelRecoveryApplier != null )
+        {
+            parallelRecoveryApplier.close();
+            parallelRecoveryApplier = null;
+        }
+    }
+
     @Override
     public void flushAndForce( IOLimiter limiter )
     {
@@ -52,6 +52,7 @@ import static java.nio.file.StandardOpenOption.DELETE_ON_CLOSE;
 import static org.neo4j.helpers.ArrayUtil.contains;
 import static org.neo4j.helpers.Exceptions.throwIfUnchecked;
 import static org.neo4j.io.pagecache.PageCacheOpenOptions.ANY_PAGE_SIZE;
+import static org.neo4j.io.pagecache.PagedFile.PF_NO_CACHE_RETENTION;
 import static org.neo4j.io.pagecache.PagedFile.PF_READ_AHEAD;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
@@ -455,7 +456,8 @@ public abstract class CommonAbstractStore<RECORD extends AbstractBaseRecord,HEAD
             setHighId( foundHighId );
             if ( !fastRebuild )
             {
-                try ( PageCursor cursor = storeFile.io( 0, PF_SHARED_WRITE_LOCK | PF_READ_AHEAD ) )
+                int pf_flags = PF_SHARED_WRITE_LOCK | PF_READ_AHEAD | PF_NO_CACHE_RETENTION;
+                try ( PageCursor cursor = storeFile.io( 0, pf_flags ) )
                 {
                     defraggedCount = rebuildIdGeneratorSlow( cursor, getRecordsPerPage(), blockSize, foundHighId );
                 }
@@ -1118,7 +1120,7 @@ public abstract class CommonAbstractStore<RECORD extends AbstractBaseRecord,HEAD
     @Override
     public <EXCEPTION extends Exception> void scanAllRecords( Visitor<RECORD,EXCEPTION> visitor ) throws EXCEPTION
     {
-        try ( RecordCursor<RECORD> cursor = newRecordCursor( newRecord() ) )
+        try ( RecordCursor<RECORD> cursor = newRecordScanCursor( newRecord() ) )
         {
             long highId = getHighId();
             cursor.acquire( getNumberOfReservedLowIds(), CHECK );
@@ -1148,6 +1150,12 @@ public abstract class CommonAbstractStore<RECORD extends AbstractBaseRecord,HEAD
         return new StoreRecordCursor<>( record, this );
     }
 
+    @Override
+    public RecordCursor<RECORD> newRecordScanCursor( final RECORD record )
+    {
+        return new StoreRecordCursor<>( record, this, PF_SHARED_READ_LOCK | PF_READ_AHEAD | PF_NO_CACHE_RETENTION );
+    }
+
     private void verifyAfterNotRead( RECORD record, RecordLoad mode )
     {
         record.clear();
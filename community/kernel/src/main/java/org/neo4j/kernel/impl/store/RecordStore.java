@@ -158,6 +158,19 @@ public interface RecordStore<RECORD extends AbstractBaseRecord> extends IdSequen
      */
     RecordCursor<RECORD> newRecordCursor( RECORD record );
 
+    /**
+     * Instantiates a new record cursor for reading through all, or a large part of, the records in this store,
+     * where each record is only read once. The pages read by the cursor are not retained in the page cache at the
+     * expense of other pages, see {@link org.neo4j.io.pagecache.PagedFile#PF_NO_CACHE_RETENTION}.
+     *
+     * @param record instance to use when reading record data.
+     * @return a new {@link RecordCursor} instance for scanning the records in this store.
+     */
+    default RecordCursor<RECORD> newRecordScanCursor( RECORD record )
+    {
+        return newRecordCursor( record );
+    }
+
     /**
      * Returns another record id which the given {@code record} references and which a {@link RecordCursor}
      * would follow and read next.
@@ -63,7 +63,7 @@ public class Scanner
         {
             this.filters = filters;
             this.ids = new StoreIdIterator( store, forward );
-            this.cursor = store.newRecordCursor( store.newRecord() );
+            this.cursor = store.newRecordScanCursor( store.newRecord() );
             cursor.acquire( 0, RecordLoad.CHECK );
         }
 
@@ -27,9 +27,12 @@ import java.util.function.Supplier;
 
 import org.neo4j.concurrent.AsyncApply;
 import org.neo4j.concurrent.WorkSync;
+import org.neo4j.internal.kernel.api.schema.LabelSchemaDescriptor;
 import org.neo4j.kernel.api.exceptions.index.IndexActivationFailedKernelException;
+import org.neo4j.kernel.api.exceptions.index.IndexEntryConflictException;
 import org.neo4j.kernel.api.exceptions.index.IndexNotFoundKernelException;
 import org.neo4j.kernel.api.exceptions.index.IndexPopulationFailedKernelException;
+import org.neo4j.kernel.api.index.IndexEntryUpdate;
 import org.neo4j.kernel.api.labelscan.LabelScanWriter;
 import org.neo4j.kernel.api.labelscan.NodeLabelUpdate;
 import org.neo4j.kernel.impl.api.BatchTransactionApplier;
@@ -43,6 +46,7 @@ import org.neo4j.kernel.impl.store.NodeStore;
 import org.neo4j.kernel.impl.store.record.IndexRule;
 import org.neo4j.kernel.impl.store.record.NodeRecord;
 import org.neo4j.kernel.impl.transaction.command.Command.PropertyCommand;
+import org.neo4j.kernel.impl.transaction.state.DirectIndexUpdates;
 import org.neo4j.kernel.impl.transaction.state.IndexUpdates;
 import org.neo4j.kernel.impl.transaction.state.OnlineIndexUpdates;
 import org.neo4j.storageengine.api.CommandsToApply;
@@ -94,11 +98,28 @@ public class IndexBatchTransactionApplier extends BatchTransactionApplier.Adapte
         }
         if ( indexUpdates != null && indexUpdates.hasUpdates() )
         {
+            // Indexes that take updates from several threads at the same time get the updates of this batch right
+            // away, on this thread. The others get them through the work sync, together with the updates of other
+            // concurrently committing batches.
+            List<IndexEntryUpdate<LabelSchemaDescriptor>> concurrentUpdates = new ArrayList<>();
+            List<IndexEntryUpdate<LabelSchemaDescriptor>> serialUpdates = new ArrayList<>();
+            for ( IndexEntryUpdate<LabelSchemaDescriptor> update : indexUpdates )
+            {
+                boolean concurrent = indexingService.supportsConcurrentUpdaters( update.indexKey().schema() );
+                (concurrent ? concurrentUpdates : serialUpdates).add( update );
+            }
             try
             {
-                indexUpdatesSync.apply( new IndexUpdatesWork( indexUpdates ) );
+                if ( !concurrentUpdates.isEmpty() )
+                {
+                    indexingService.apply( new DirectIndexUpdates( concurrentUpdates ) );
+                }
+                if ( !serialUpdates.isEmpty() )
+                {
+                    indexUpdatesSync.apply( new IndexUpdatesWork( new DirectIndexUpdates( serialUpdates ) ) );
+                }
             }
-            catch ( ExecutionException e )
+            catch ( ExecutionException | IndexEntryConflictException e )
             {
                 throw new IOException( "Failed to flush index updates", e );
             }
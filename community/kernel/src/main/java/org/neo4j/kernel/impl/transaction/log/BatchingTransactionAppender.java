@@ -23,11 +23,13 @@ import java.io.Flushable;
 import java.io.IOException;
 import java.nio.channels.ClosedChannelException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.LockSupport;
 import java.util.concurrent.locks.ReentrantLock;
 
+import org.neo4j.collection.pool.LinkedQueuePool;
 import org.neo4j.kernel.impl.api.TransactionToApply;
 import org.neo4j.kernel.impl.transaction.TransactionRepresentation;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryWriter;
@@ -53,6 +55,9 @@ import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryStart.checksum
  */
 public class BatchingTransactionAppender extends LifecycleAdapter implements TransactionAppender
 {
+    private static final long GROUP_COMMIT_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos( 50 );
+    private static final int MIN_POOLED_COMMAND_BUFFERS = 4;
+
     // For the graph store and schema indexes order-of-updates are managed by the high level entity locks
     // such that changes are applied to the affected records in the same order that they are written to the
     // log. For the explicit indexes there are no such locks, and hence no such ordering. This queue below
@@ -67,8 +72,17 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
     private final LogPositionMarker positionMarker = new LogPositionMarker();
     private final DatabaseHealth databaseHealth;
     private final Lock forceLock = new ReentrantLock();
+    private final GroupCommitPolicy groupCommitPolicy;
+    // Appends waiting for the next force; only a hint to the forcing thread of how large that force is going to be
+    private final AtomicInteger pendingAppends = new AtomicInteger();
+    // Appends somewhere between starting to serialize and having been forced; the ones that may still join a force
+    private final AtomicInteger appendsInProgress = new AtomicInteger();
+    // Pooled rather than kept per thread, so that there are only about as many as there are concurrent committers,
+    // and they are all let go of on shutdown
+    private final LinkedQueuePool<SerializedCommandsBuffer> serializedCommandsBuffers;
 
     private FlushablePositionAwareChannel writer;
+    private LogEntryWriter logEntryWriter;
     private TransactionLogWriter transactionLogWriter;
     private IndexCommandDetector indexCommandDetector;
 
@@ -76,6 +90,27 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
             TransactionMetadataCache transactionMetadataCache, TransactionIdStore transactionIdStore,
             IdOrderingQueue explicitIndexTransactionOrdering, DatabaseHealth databaseHealth )
     {
+        this( logFiles, logRotation, transactionMetadataCache, transactionIdStore, explicitIndexTransactionOrdering,
+                databaseHealth, GroupCommitPolicy.NO_WAIT );
+    }
+
+    public BatchingTransactionAppender( LogFiles logFiles, LogRotation logRotation,
+            TransactionMetadataCache transactionMetadataCache, TransactionIdStore transactionIdStore,
+            IdOrderingQueue explicitIndexTransactionOrdering, DatabaseHealth databaseHealth,
+            GroupCommitPolicy groupCommitPolicy )
+    {
+        this( logFiles, logRotation, transactionMetadataCache, transactionIdStore, explicitIndexTransactionOrdering,
+                databaseHealth, groupCommitPolicy, SerializedCommandsBuffer.DEFAULT_MAX_CAPACITY );
+    }
+
+    BatchingTransactionAppender( LogFiles logFiles, LogRotation logRotation,
+            TransactionMetadataCache transactionMetadataCache, TransactionIdStore transactionIdStore,
+            IdOrderingQueue explicitIndexTransactionOrdering, DatabaseHealth databaseHealth,
+            GroupCommitPolicy groupCommitPolicy, int maxSerializedCommandsSize )
+    {
+        this.serializedCommandsBuffers = new LinkedQueuePool<>( MIN_POOLED_COMMAND_BUFFERS,
+                () -> new SerializedCommandsBuffer( maxSerializedCommandsSize ) );
+        this.groupCommitPolicy = groupCommitPolicy;
         this.logFile = logFiles.getLogFile();
         this.logRotation = logRotation;
         this.transactionIdStore = transactionIdStore;
@@ -89,7 +124,14 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
     {
         this.writer = logFile.getWriter();
         this.indexCommandDetector = new IndexCommandDetector();
-        this.transactionLogWriter = new TransactionLogWriter( new LogEntryWriter( writer ) );
+        this.logEntryWriter = new LogEntryWriter( writer );
+        this.transactionLogWriter = new TransactionLogWriter( logEntryWriter );
+    }
+
+    @Override
+    public void shutdown()
+    {
+        serializedCommandsBuffers.disposeAll();
     }
 
     @Override
@@ -97,39 +139,66 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
     {
         // Assigned base tx id just to make compiler happy
         long lastTransactionId = TransactionIdStore.BASE_TX_ID;
-        // Synchronized with logFile to get absolute control over concurrent rotations happening
-        synchronized ( logFile )
+        boolean forced;
+        appendsInProgress.incrementAndGet();
+        try
         {
-            // Assert that kernel is healthy before making any changes
-            databaseHealth.assertHealthy( IOException.class );
+            SerializedCommandsBuffer serializedCommands = serializedCommandsBuffers.acquire();
             try ( SerializeTransactionEvent serialiseEvent = logAppendEvent.beginSerializeTransaction() )
             {
-                // Append all transactions in this batch to the log under the same logFile monitor
-                TransactionToApply tx = batch;
-                while ( tx != null )
+                // The commands make up the bulk of a transaction in the log and don't depend on where in the log
+                // they end up, so they are serialized here, before taking the logFile monitor, and merely copied into
+                // the log below. That way concurrent committers can serialize their transactions at the same time.
+                // Commands of transactions too large for the buffer are serialized straight into the log instead.
+                for ( TransactionToApply tx = batch; tx != null; tx = tx.next() )
                 {
-                    long transactionId = transactionIdStore.nextCommittingTransactionId();
-
-                    // If we're in a scenario where we're merely replicating transactions, i.e. transaction
-                    // id have already been generated by another entity we simply check that our id
-                    // that we generated match that id. If it doesn't we've run into a problem we can't ´
-                    // really recover from and would point to a bug somewhere.
-                    matchAgainstExpectedTransactionIdIfAny( transactionId, tx );
-
-                    TransactionCommitment commitment = appendToLog( tx.transactionRepresentation(), transactionId );
-                    tx.commitment( commitment, transactionId );
-                    tx.logPosition( commitment.logPosition() );
-                    tx = tx.next();
-                    lastTransactionId = transactionId;
+                    serializedCommands.add( tx.transactionRepresentation() );
+                }
+
+                // Synchronized with logFile to get absolute control over concurrent rotations happening
+                synchronized ( logFile )
+                {
+                    // Assert that kernel is healthy before making any changes
+                    databaseHealth.assertHealthy( IOException.class );
+                    // Append all transactions in this batch to the log under the same logFile monitor
+                    TransactionToApply tx = batch;
+                    for ( int index = 0; tx != null; index++ )
+                    {
+                        long transactionId = transactionIdStore.nextCommittingTransactionId();
+
+                        // If we're in a scenario where we're merely replicating transactions, i.e. transaction
+                        // id have already been generated by another entity we simply check that our id
+                        // that we generated match that id. If it doesn't we've run into a problem we can't ´
+                        // really recover from and would point to a bug somewhere.
+                        matchAgainstExpectedTransactionIdIfAny( transactionId, tx );
+
+                        TransactionCommitment commitment =
+                                appendToLog( tx.transactionRepresentation(), transactionId, serializedCommands, index );
+                        tx.commitment( commitment, transactionId );
+                        tx.logPosition( commitment.logPosition() );
+                        tx = tx.next();
+                        lastTransactionId = transactionId;
+                    }
                 }
             }
+            finally
+            {
+                serializedCommands.clear();
+                serializedCommandsBuffers.release( serializedCommands );
+            }
+
+            // At this point we've appended all transactions in this batch, but we can't mark any of them
+            // as committed since they haven't been forced to disk yet. So here we force, or potentially
+            // piggy-back on another force, but anyway after this call below we can be sure that all our transactions
+            // in this batch exist durably on disk.
+            forced = forceAfterAppend( logAppendEvent );
+        }
+        finally
+        {
+            appendsInProgress.decrementAndGet();
         }
 
-        // At this point we've appended all transactions in this batch, but we can't mark any of them
-        // as committed since they haven't been forced to disk yet. So here we force, or potentially
-        // piggy-back on another force, but anyway after this call below we can be sure that all our transactions
-        // in this batch exist durably on disk.
-        if ( forceAfterAppend( logAppendEvent ) )
+        if ( forced )
         {
             // We got lucky and were the one forcing the log. It's enough if ones of all doing concurrent committerss
             // checks the need for log rotation.
@@ -193,8 +262,8 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
      * @return A TransactionCommitment instance with metadata about the committed transaction, such as whether or not
      * this transaction contains any explicit index changes.
      */
-    private TransactionCommitment appendToLog( TransactionRepresentation transaction, long transactionId )
-            throws IOException
+    private TransactionCommitment appendToLog( TransactionRepresentation transaction, long transactionId,
+            SerializedCommandsBuffer serializedCommands, int index ) throws IOException
     {
         // Reset command writer so that we, after we've written the transaction, can ask it whether or
         // not any explicit index command was written. If so then there's additional ordering to care about below.
@@ -209,7 +278,19 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
         try
         {
             LogPosition logPositionBeforeCommit = writer.getCurrentPosition( positionMarker ).newPosition();
-            transactionLogWriter.append( transaction, transactionId );
+            if ( serializedCommands.isSerialized( index ) )
+            {
+                // Same as TransactionLogWriter#append, only with the commands already serialized
+                logEntryWriter.writeStartEntry( transaction.getMasterId(), transaction.getAuthorId(),
+                        transaction.getTimeStarted(), transaction.getLatestCommittedTxWhenStarted(),
+                        transaction.additionalHeader() );
+                serializedCommands.writeTo( index, writer );
+                logEntryWriter.writeCommitEntry( transactionId, transaction.getTimeCommitted() );
+            }
+            else
+            {
+                transactionLogWriter.append( transaction, transactionId );
+            }
             LogPosition logPositionAfterCommit = writer.getCurrentPosition( positionMarker ).newPosition();
 
             long transactionChecksum =
@@ -247,6 +328,7 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
         // This is okay, however, because unparkAll() spins when it sees a null next pointer.
         ThreadLink threadLink = new ThreadLink( Thread.currentThread() );
         threadLink.next = threadLinkHead.getAndSet( threadLink );
+        pendingAppends.incrementAndGet();
         boolean attemptedForce = false;
 
         try ( LogForceWaitEvent logForceWaitEvent = logForceEvents.beginLogForceWait() )
@@ -255,11 +337,16 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
             {
                 if ( forceLock.tryLock() )
                 {
-                    attemptedForce = true;
                     try
                     {
-                        forceLog( logForceEvents );
-                        // In the event of any failure a database panic will be raised and thrown here
+                        // The thread holding the lock just before us may already have forced our append
+                        if ( !threadLink.done )
+                        {
+                            attemptedForce = true;
+                            awaitMoreAppends();
+                            forceLog( logForceEvents );
+                            // In the event of any failure a database panic will be raised and thrown here
+                        }
                     }
                     finally
                     {
@@ -291,12 +378,37 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
         return attemptedForce;
     }
 
+    /**
+     * Gives appends of other concurrently committing transactions a chance to join the upcoming force, for as long
+     * as the {@link GroupCommitPolicy} deems it worthwhile. There is no point in waiting once every append in
+     * progress is waiting for this force, so a lone committer never waits.
+     */
+    private void awaitMoreAppends()
+    {
+        long waitNanos = groupCommitPolicy.waitNanos();
+        if ( waitNanos > 0 )
+        {
+            long deadline = System.nanoTime() + waitNanos;
+            int targetBatchSize = groupCommitPolicy.targetBatchSize();
+            int pending;
+            while ( (pending = pendingAppends.get()) < targetBatchSize && appendsInProgress.get() > pending &&
+                    System.nanoTime() < deadline )
+            {
+                LockSupport.parkNanos( this, GROUP_COMMIT_PARK_NANOS );
+            }
+        }
+    }
+
     private void forceLog( LogForceEvents logForceEvents ) throws IOException
     {
         ThreadLink links = threadLinkHead.getAndSet( ThreadLink.END );
+        pendingAppends.set( 0 );
         try ( LogForceEvent logForceEvent = logForceEvents.beginLogForce() )
         {
+            logForceEvent.setBatchSize( count( links ) );
+            long startNanos = System.nanoTime();
             force();
+            groupCommitPolicy.forced( System.nanoTime() - startNanos, pendingAppends.get() );
         }
         catch ( final Throwable panic )
         {
@@ -309,24 +421,40 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
         }
     }
 
+    private static int count( ThreadLink links )
+    {
+        int count = 0;
+        while ( links != ThreadLink.END )
+        {
+            count++;
+            links = next( links );
+        }
+        return count;
+    }
+
     private void unparkAll( ThreadLink links )
     {
         do
         {
             links.done = true;
             links.unpark();
-            ThreadLink tmp;
-            do
-            {
-                // Spin because of the race:y update when consing.
-                tmp = links.next;
-            }
-            while ( tmp == null );
-            links = tmp;
+            links = next( links );
         }
         while ( links != ThreadLink.END );
     }
 
+    private static ThreadLink next( ThreadLink link )
+    {
+        ThreadLink next;
+        do
+        {
+            // Spin because of the race:y update when consing.
+            next = link.next;
+        }
+        while ( next == null );
+        return next;
+    }
+
     private void waitForLogForce()
     {
         long parkTime = TimeUnit.MILLISECONDS.toNanos( 100 );
@@ -22,6 +22,7 @@ package org.neo4j.kernel.impl.transaction.log;
 import java.io.Closeable;
 import java.io.Flushable;
 import java.io.IOException;
+import java.util.Arrays;
 
 import org.neo4j.storageengine.api.WritableChannel;
 
@@ -60,4 +61,18 @@ public interface FlushableChannel extends WritableChannel, Closeable
 
     @Override
     FlushableChannel put( byte[] value, int length ) throws IOException;
+
+    /**
+     * Writes {@code length} bytes of {@code value}, starting at {@code offset}, to this channel.
+     *
+     * @param value byte array containing the bytes to write.
+     * @param offset index of the first byte in {@code value} to write.
+     * @param length number of bytes to write.
+     * @return this channel, for fluent usage.
+     * @throws IOException if I/O error occurs.
+     */
+    default FlushableChannel put( byte[] value, int offset, int length ) throws IOException
+    {
+        return put( offset == 0 ? value : Arrays.copyOfRange( value, offset, offset + length ), length );
+    }
 }
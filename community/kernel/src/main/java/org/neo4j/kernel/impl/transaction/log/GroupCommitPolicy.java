@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log;
+
+import static java.lang.Math.min;
+
+/**
+ * Decides for how long the thread that is about to force the transaction log should wait for more appends to join
+ * that force, trading a little commit latency for fewer and larger forces.
+ * <p>
+ * Waiting only pays off if other transactions are committing at the same time, and only as long as it takes less
+ * time than a force. So the wait adapts to what is observed: there is no wait unless appends arrive during at least
+ * every other force of the log, and the wait is never longer than half of the average force time, nor longer than
+ * the configured max wait. A wait ends early when the target batch size has been reached.
+ * <p>
+ * {@link #forced(long, int)} is called by one thread at a time, i.e. the one forcing the log.
+ */
+public class GroupCommitPolicy
+{
+    public static final GroupCommitPolicy NO_WAIT = new GroupCommitPolicy( 0, 1 );
+
+    // The weight of each new observation in the moving averages, as a shift: 1/8
+    private static final int AVERAGE_SHIFT = 3;
+    // Arrivals are averaged in this fixed point precision, since they are typically small numbers
+    private static final int ARRIVALS_PRECISION = 1024;
+
+    private final long maxWaitNanos;
+    private final int targetBatchSize;
+    private volatile long averageForceNanos;
+    private volatile long averageArrivalsDuringForce;
+
+    public GroupCommitPolicy( long maxWaitNanos, int targetBatchSize )
+    {
+        this.maxWaitNanos = maxWaitNanos;
+        this.targetBatchSize = targetBatchSize;
+    }
+
+    /**
+     * @return nanoseconds to wait for more appends before forcing the log, or {@code 0} to force right away.
+     */
+    public long waitNanos()
+    {
+        if ( maxWaitNanos == 0 || averageArrivalsDuringForce < ARRIVALS_PRECISION / 2 )
+        {
+            // Either disabled, or appends rarely arrive during a force, i.e. there's nobody to wait for
+            return 0;
+        }
+        return min( maxWaitNanos, averageForceNanos / 2 );
+    }
+
+    /**
+     * @return the number of appends to wait for, at most, before forcing the log.
+     */
+    public int targetBatchSize()
+    {
+        return targetBatchSize;
+    }
+
+    /**
+     * Observes a completed force of the log.
+     *
+     * @param forceNanos the time the force took.
+     * @param arrivalsDuringForce the number of appends that arrived while the log was being forced.
+     */
+    public void forced( long forceNanos, int arrivalsDuringForce )
+    {
+        averageForceNanos = movingAverage( averageForceNanos, forceNanos );
+        averageArrivalsDuringForce =
+                movingAverage( averageArrivalsDuringForce, (long) arrivalsDuringForce * ARRIVALS_PRECISION );
+    }
+
+    private static long movingAverage( long average, long observation )
+    {
+        return average + ((observation - average) >> AVERAGE_SHIFT);
+    }
+}
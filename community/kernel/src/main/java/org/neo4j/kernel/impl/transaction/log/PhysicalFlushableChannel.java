@@ -48,9 +48,18 @@ public class PhysicalFlushableChannel implements FlushableChannel
     }
 
     public PhysicalFlushableChannel( StoreChannel channel, int bufferSize )
+    {
+        this( channel, ByteBuffer.allocate( bufferSize ) );
+    }
+
+    /**
+     * @param buffer the buffer to use for writes, e.g. a direct buffer which, unlike a heap buffer, can be written
+     * to the channel without first being copied into a temporary direct buffer.
+     */
+    public PhysicalFlushableChannel( StoreChannel channel, ByteBuffer buffer )
     {
         this.channel = channel;
-        this.buffer = ByteBuffer.allocate( bufferSize );
+        this.buffer = buffer;
     }
 
     void setChannel( LogVersionedStoreChannel channel )
@@ -139,10 +148,16 @@ public class PhysicalFlushableChannel implements FlushableChannel
     @Override
     public FlushableChannel put( byte[] value, int length ) throws IOException
     {
-        int offset = 0;
-        while ( offset < length )
+        return put( value, 0, length );
+    }
+
+    @Override
+    public FlushableChannel put( byte[] value, int offset, int length ) throws IOException
+    {
+        int end = offset + length;
+        while ( offset < end )
         {
-            int chunkSize = min( length - offset, buffer.capacity() >> 1 );
+            int chunkSize = min( end - offset, buffer.capacity() >> 1 );
             bufferWithGuaranteedSpace( chunkSize ).put( value, offset, chunkSize );
 
             offset += chunkSize;
@@ -21,6 +21,7 @@ package org.neo4j.kernel.impl.transaction.log;
 
 import java.io.Flushable;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 /**
  * Decorator around a {@link LogVersionedStoreChannel} making it expose {@link FlushablePositionAwareChannel}. This
@@ -44,6 +45,12 @@ public class PositionAwarePhysicalFlushableChannel implements FlushablePositionA
         this.channel = new PhysicalFlushableChannel( logVersionedStoreChannel, bufferSize );
     }
 
+    public PositionAwarePhysicalFlushableChannel( LogVersionedStoreChannel logVersionedStoreChannel, ByteBuffer buffer )
+    {
+        this.logVersionedStoreChannel = logVersionedStoreChannel;
+        this.channel = new PhysicalFlushableChannel( logVersionedStoreChannel, buffer );
+    }
+
     @Override
     public LogPositionMarker getCurrentPosition( LogPositionMarker positionMarker ) throws IOException
     {
@@ -99,6 +106,12 @@ public class PositionAwarePhysicalFlushableChannel implements FlushablePositionA
         return channel.put( value, length );
     }
 
+    @Override
+    public FlushableChannel put( byte[] value, int offset, int length ) throws IOException
+    {
+        return channel.put( value, offset, length );
+    }
+
     @Override
     public void close() throws IOException
     {
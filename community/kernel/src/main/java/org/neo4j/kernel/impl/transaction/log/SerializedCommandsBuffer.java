@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.neo4j.io.ByteUnit;
+import org.neo4j.kernel.impl.transaction.TransactionRepresentation;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntryWriter;
+
+/**
+ * Holds the serialized command entries of the transactions in a batch, so that they can be serialized before
+ * the log is locked and then copied into the log under the lock. The commands are written in exactly the same
+ * format as they would have been written to the log directly, see {@link LogEntryWriter#serialize(TransactionRepresentation)}.
+ * <p>
+ * Instances are meant to be reused by one thread at a time. The buffer grows to fit the largest batch, but shrinks
+ * back when a batch larger than {@link #RETAINED_CAPACITY} has been written out, so that a single large transaction
+ * does not hold on to memory forever. It never grows beyond its max capacity though; transactions that don't fit are
+ * left out and have to be serialized straight into the log instead, see {@link #isSerialized(int)}.
+ */
+class SerializedCommandsBuffer implements FlushableChannel
+{
+    static final int INITIAL_CAPACITY = (int) ByteUnit.kibiBytes( 8 );
+    static final int RETAINED_CAPACITY = (int) ByteUnit.mebiBytes( 1 );
+    static final int DEFAULT_MAX_CAPACITY = (int) ByteUnit.mebiBytes( 32 );
+
+    private final LogEntryWriter entryWriter = new LogEntryWriter( this );
+    private final int maxCapacity;
+    private ByteBuffer buffer;
+    private int[] ends = new int[1];
+    private boolean[] serialized = new boolean[1];
+    private int transactions;
+
+    SerializedCommandsBuffer()
+    {
+        this( DEFAULT_MAX_CAPACITY );
+    }
+
+    SerializedCommandsBuffer( int maxCapacity )
+    {
+        this.maxCapacity = maxCapacity;
+        this.buffer = allocateInitial();
+    }
+
+    /**
+     * Serializes the commands of the given transaction after those of previously added transactions, unless that
+     * would take this buffer beyond its max capacity.
+     *
+     * @return the index of the transaction in this buffer, to be used in {@link #isSerialized(int)} and
+     * {@link #writeTo(int, FlushableChannel)}.
+     */
+    int add( TransactionRepresentation transaction ) throws IOException
+    {
+        int start = buffer.position();
+        boolean fits;
+        try
+        {
+            entryWriter.serialize( transaction );
+            fits = true;
+        }
+        catch ( CapacityExceededException e )
+        {
+            buffer.position( start );
+            fits = false;
+        }
+        if ( transactions == ends.length )
+        {
+            ends = Arrays.copyOf( ends, transactions * 2 );
+            serialized = Arrays.copyOf( serialized, transactions * 2 );
+        }
+        ends[transactions] = buffer.position();
+        serialized[transactions] = fits;
+        return transactions++;
+    }
+
+    /**
+     * @return whether or not the commands of the transaction with the given index fit in this buffer. If they didn't
+     * they have to be serialized by other means.
+     */
+    boolean isSerialized( int transaction )
+    {
+        return serialized[transaction];
+    }
+
+    /**
+     * Writes the serialized commands of the transaction with the given index to the given channel.
+     */
+    void writeTo( int transaction, FlushableChannel channel ) throws IOException
+    {
+        if ( !serialized[transaction] )
+        {
+            throw new IllegalStateException( "Commands of transaction " + transaction + " in batch were too large " +
+                    "to be serialized into this buffer" );
+        }
+        int start = transaction == 0 ? 0 : ends[transaction - 1];
+        channel.put( buffer.array(), start, ends[transaction] - start );
+    }
+
+    /**
+     * Forgets all added transactions, so that this buffer can be used for another batch.
+     */
+    void clear()
+    {
+        if ( buffer.capacity() > RETAINED_CAPACITY )
+        {
+            buffer = allocateInitial();
+        }
+        buffer.clear();
+        transactions = 0;
+    }
+
+    private ByteBuffer allocateInitial()
+    {
+        return ByteBuffer.allocate( Math.min( INITIAL_CAPACITY, maxCapacity ) );
+    }
+
+    private ByteBuffer bufferWithGuaranteedSpace( int spaceInBytes ) throws CapacityExceededException
+    {
+        if ( buffer.remaining() < spaceInBytes )
+        {
+            long required = (long) buffer.position() + spaceInBytes;
+            if ( required > maxCapacity )
+            {
+                throw new CapacityExceededException();
+            }
+            int capacity = (int) Math.min( Math.max( (long) buffer.capacity() * 2, required ), maxCapacity );
+            ByteBuffer grown = ByteBuffer.allocate( capacity );
+            buffer.flip();
+            grown.put( buffer );
+            buffer = grown;
+        }
+        return buffer;
+    }
+
+    @Override
+    public Flushable prepareForFlush()
+    {
+        return () ->
+        {
+        };
+    }
+
+    @Override
+    public FlushableChannel put( byte value ) throws IOException
+    {
+        bufferWithGuaranteedSpace( 1 ).put( value );
+        return this;
+    }
+
+    @Override
+    public FlushableChannel putShort( short value ) throws IOException
+    {
+        bufferWithGuaranteedSpace( 2 ).putShort( value );
+        return this;
+    }
+
+    @Override
+    public FlushableChannel putInt( int value ) throws IOException
+    {
+        bufferWithGuaranteedSpace( 4 ).putInt( value );
+        return this;
+    }
+
+    @Override
+    public FlushableChannel putLong( long value ) throws IOException
+    {
+        bufferWithGuaranteedSpace( 8 ).putLong( value );
+        return this;
+    }
+
+    @Override
+    public FlushableChannel putFloat( float value ) throws IOException
+    {
+        bufferWithGuaranteedSpace( 4 ).putFloat( value );
+        return this;
+    }
+
+    @Override
+    public FlushableChannel putDouble( double value ) throws IOException
+    {
+        bufferWithGuaranteedSpace( 8 ).putDouble( value );
+        return this;
+    }
+
+    @Override
+    public FlushableChannel put( byte[] value, int length ) throws IOException
+    {
+        bufferWithGuaranteedSpace( length ).put( value, 0, length );
+        return this;
+    }
+
+    @Override
+    public void close()
+    {
+        clear();
+    }
+
+    /**
+     * Thrown from the put methods to abort serializing a transaction which doesn't fit in the buffer. Never leaves
+     * {@link #add(TransactionRepresentation)}.
+     */
+    private static class CapacityExceededException extends IOException
+    {
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.checkpoint;
+
+import org.neo4j.io.pagecache.IOLimiter;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.kernel.impl.transaction.log.TransactionIdStore;
+import org.neo4j.kernel.internal.DatabaseHealth;
+import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+import org.neo4j.logging.Log;
+import org.neo4j.logging.LogProvider;
+import org.neo4j.scheduler.JobScheduler;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.neo4j.scheduler.JobScheduler.Groups.checkPoint;
+import static org.neo4j.scheduler.JobScheduler.Groups.pageCacheFlush;
+
+/**
+ * Flushes dirty pages of the {@link PageCache} in the background, so that check points, which still flush and force
+ * everything, find less to do and the IO of the database is spread out over time rather than done in bursts.
+ * The pages are only written to the files, not forced; forcing every mapped file is left to the check point.
+ * <p>
+ * The flushing is paced by the transaction log: a flush is started each time the given number of bytes have been
+ * appended to the log since the previous flush started, and it is rate limited by the same {@link IOLimiter} as
+ * check pointing is. Flushing a page is no different from evicting it, so this does not affect what recovery
+ * needs to replay; only the check point decides that.
+ */
+public class BackgroundFlusher extends LifecycleAdapter
+{
+    static final long CHECK_PERIOD_MILLIS = 1_000;
+
+    private final PageCache pageCache;
+    private final TransactionIdStore transactionIdStore;
+    private final IOLimiter ioLimiter;
+    private final JobScheduler scheduler;
+    private final long logBytesPerFlush;
+    private final long logRotationThreshold;
+    private final DatabaseHealth health;
+    private final Log log;
+
+    private final Runnable check = this::flushIfNeeded;
+    private final Runnable flush = this::flush;
+
+    private volatile JobScheduler.JobHandle handle;
+    private volatile JobScheduler.JobHandle flushHandle;
+    private volatile boolean stopped;
+    private volatile boolean flushing;
+    private long lastFlushLogVersion;
+    private long lastFlushLogOffset;
+
+    public BackgroundFlusher( PageCache pageCache, TransactionIdStore transactionIdStore, IOLimiter ioLimiter,
+            JobScheduler scheduler, long logBytesPerFlush, long logRotationThreshold, DatabaseHealth health,
+            LogProvider logProvider )
+    {
+        this.pageCache = pageCache;
+        this.transactionIdStore = transactionIdStore;
+        this.ioLimiter = ioLimiter;
+        this.scheduler = scheduler;
+        this.logBytesPerFlush = logBytesPerFlush;
+        this.logRotationThreshold = logRotationThreshold;
+        this.health = health;
+        this.log = logProvider.getLog( getClass() );
+    }
+
+    @Override
+    public void start() throws Throwable
+    {
+        if ( logBytesPerFlush > 0 )
+        {
+            stopped = false;
+            long[] lastClosedTransaction = transactionIdStore.getLastClosedTransaction();
+            lastFlushLogVersion = lastClosedTransaction[1];
+            lastFlushLogOffset = lastClosedTransaction[2];
+            handle = scheduler.scheduleRecurring( checkPoint, check, CHECK_PERIOD_MILLIS, MILLISECONDS );
+        }
+    }
+
+    @Override
+    public void stop() throws Throwable
+    {
+        stopped = true;
+        if ( handle != null )
+        {
+            handle.cancel( false );
+            handle = null;
+        }
+        JobScheduler.JobHandle ongoingFlush = flushHandle;
+        if ( ongoingFlush != null )
+        {
+            // A flush that has not started yet will not do anything now, and one that has will finish at full speed
+            ioLimiter.disableLimit();
+            try
+            {
+                ongoingFlush.waitTermination();
+            }
+            finally
+            {
+                ioLimiter.enableLimit();
+            }
+            flushHandle = null;
+        }
+    }
+
+    /**
+     * Hands a flush over to a thread of its own if enough has been appended to the transaction log since the
+     * previous flush was started, and no flush is running. Runs on the scheduler thread, so it must be quick.
+     */
+    private void flushIfNeeded()
+    {
+        if ( stopped || flushing || !health.isHealthy() )
+        {
+            return;
+        }
+        long[] lastClosedTransaction = transactionIdStore.getLastClosedTransaction();
+        long logVersion = lastClosedTransaction[1];
+        long logOffset = lastClosedTransaction[2];
+        if ( appendedLogBytes( logVersion, logOffset ) >= logBytesPerFlush )
+        {
+            lastFlushLogVersion = logVersion;
+            lastFlushLogOffset = logOffset;
+            flushing = true;
+            flushHandle = scheduler.schedule( pageCacheFlush, flush );
+        }
+    }
+
+    /**
+     * @return the number of bytes appended to the transaction log since the previous flush, counting each rotation
+     * as the rotation threshold, since that is roughly how large the log files become.
+     */
+    private long appendedLogBytes( long logVersion, long logOffset )
+    {
+        return (logVersion - lastFlushLogVersion) * logRotationThreshold + logOffset - lastFlushLogOffset;
+    }
+
+    private void flush()
+    {
+        try
+        {
+            if ( !stopped )
+            {
+                pageCache.flush( ioLimiter );
+            }
+        }
+        catch ( Throwable t )
+        {
+            // Failing to flush ahead of time is not a problem in itself; the next check point will flush the same
+            // pages, and fail loudly if there is something wrong with the store files.
+            log.warn( "Background flushing of the page cache failed", t );
+        }
+        finally
+        {
+            flushing = false;
+        }
+    }
+}
@@ -178,6 +178,14 @@ public class StoreCopyCheckPointMutex
         storeCopyActionError = null;
     }
 
+    /**
+     * @return whether or not there are store-copy requests ongoing, i.e. store files may currently be streamed.
+     */
+    public synchronized boolean isStoreCopyInProgress()
+    {
+        return storeCopyCount > 0;
+    }
+
     private synchronized int incrementCount()
     {
         return storeCopyCount++;
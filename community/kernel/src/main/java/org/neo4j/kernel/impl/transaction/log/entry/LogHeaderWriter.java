@@ -74,4 +74,9 @@ public class LogHeaderWriter
     {
         return logVersion | (((long) CURRENT_FORMAT_VERSION) << 56);
     }
+
+    public static long encodeLogVersion( long logVersion, byte logFormatVersion )
+    {
+        return logVersion | (((long) logFormatVersion & 0xFF) << 56);
+    }
 }
@@ -0,0 +1,315 @@
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.files;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileLock;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import org.neo4j.io.fs.StoreChannel;
+
+import static java.lang.Math.min;
+import static java.lang.Math.toIntExact;
+import static java.lang.String.format;
+import static org.neo4j.kernel.impl.transaction.log.entry.LogHeader.LOG_HEADER_SIZE;
+
+/**
+ * Reads the original log file out of a compressed log file, see {@link TransactionLogFileCompressor} for the layout
+ * of those. Positions and size are those of the original log file, so log positions into it stay valid after it has
+ * been compressed. Only the block containing the current position is kept inflated, and positioning anywhere only
+ * requires inflating the block at that position.
+ * <p>
+ * Compressed log files are never written to, so this channel is read only.
+ */
+public class CompressedLogChannel implements StoreChannel
+{
+    private final StoreChannel channel;
+    private final int blockSize;
+    private final long size;
+    private final long[] blockOffsets;
+    private final byte[] block;
+    private final Inflater inflater = new Inflater();
+    private ByteBuffer compressedBlock = ByteBuffer.allocate( 0 );
+    private int currentBlock = -1;
+    private int currentBlockLength;
+    private long position;
+
+    /**
+     * @param channel the channel of a compressed log file, which this channel takes ownership of.
+     * @throws IOException if the index of the compressed log file could not be read.
+     */
+    public CompressedLogChannel( StoreChannel channel ) throws IOException
+    {
+        this.channel = channel;
+        long fileSize = channel.size();
+        ByteBuffer indexOffsetBuffer = ByteBuffer.allocate( Long.BYTES );
+        readFully( indexOffsetBuffer, fileSize - Long.BYTES );
+        long indexOffset = indexOffsetBuffer.getLong( 0 );
+        if ( indexOffset < LOG_HEADER_SIZE || indexOffset > fileSize - Long.BYTES - indexSize( 0 ) )
+        {
+            throw new IOException( format( "Compressed log file of size %d has its index at invalid offset %d",
+                    fileSize, indexOffset ) );
+        }
+
+        ByteBuffer index = ByteBuffer.allocate( toIntExact( fileSize - Long.BYTES - indexOffset ) );
+        readFully( index, indexOffset );
+        index.flip();
+        this.blockSize = index.getInt();
+        this.size = index.getLong();
+        int blocks = index.getInt();
+        if ( blockSize <= 0 || blocks < 0 || index.capacity() != indexSize( blocks ) ||
+             size > (long) blocks * blockSize || size <= (long) (blocks - 1) * blockSize )
+        {
+            throw new IOException( format( "Compressed log file has an invalid index of %d blocks of %d bytes, " +
+                    "for %d bytes", blocks, blockSize, size ) );
+        }
+        this.blockOffsets = new long[blocks + 1];
+        for ( int i = 0; i < blockOffsets.length; i++ )
+        {
+            blockOffsets[i] = index.getLong();
+        }
+        this.block = new byte[blockSize];
+    }
+
+    static int indexSize( int blocks )
+    {
+        return Integer.BYTES + Long.BYTES + Integer.BYTES + (blocks + 1) * Long.BYTES;
+    }
+
+    @Override
+    public int read( ByteBuffer dst ) throws IOException
+    {
+        int read = read( dst, position );
+        if ( read > 0 )
+        {
+            position += read;
+        }
+        return read;
+    }
+
+    @Override
+    public int read( ByteBuffer dst, long position ) throws IOException
+    {
+        if ( position >= size )
+        {
+            return -1;
+        }
+        int read = 0;
+        while ( dst.hasRemaining() && position < size )
+        {
+            int blockIndex = toIntExact( position / blockSize );
+            inflateBlock( blockIndex );
+            int offsetInBlock = (int) (position - (long) blockIndex * blockSize);
+            int length = min( dst.remaining(), currentBlockLength - offsetInBlock );
+            dst.put( block, offsetInBlock, length );
+            position += length;
+            read += length;
+        }
+        return read;
+    }
+
+    @Override
+    public void readAll( ByteBuffer dst ) throws IOException
+    {
+        while ( dst.hasRemaining() )
+        {
+            if ( read( dst ) < 0 )
+            {
+                throw new IllegalStateException( "Channel has reached end-of-stream." );
+            }
+        }
+    }
+
+    @Override
+    public long read( ByteBuffer[] dsts, int offset, int length ) throws IOException
+    {
+        long read = 0;
+        for ( int i = offset; i < offset + length; i++ )
+        {
+            int readIntoBuffer = read( dsts[i] );
+            if ( readIntoBuffer < 0 )
+            {
+                return read == 0 ? -1 : read;
+            }
+            read += readIntoBuffer;
+        }
+        return read;
+    }
+
+    @Override
+    public long read( ByteBuffer[] dsts ) throws IOException
+    {
+        return read( dsts, 0, dsts.length );
+    }
+
+    private void inflateBlock( int blockIndex ) throws IOException
+    {
+        if ( blockIndex == currentBlock )
+        {
+            return;
+        }
+        currentBlock = -1;
+        int compressedLength = toIntExact( blockOffsets[blockIndex + 1] - blockOffsets[blockIndex] );
+        if ( compressedBlock.capacity() < compressedLength )
+        {
+            compressedBlock = ByteBuffer.allocate( compressedLength );
+        }
+        compressedBlock.clear();
+        compressedBlock.limit( compressedLength );
+        readFully( compressedBlock, blockOffsets[blockIndex] );
+
+        int expectedLength = (int) min( blockSize, size - (long) blockIndex * blockSize );
+        int length = 0;
+        inflater.reset();
+        inflater.setInput( compressedBlock.array(), 0, compressedLength );
+        try
+        {
+            while ( !inflater.finished() && length < expectedLength )
+            {
+                int inflated = inflater.inflate( block, length, expectedLength - length );
+                if ( inflated == 0 && (inflater.needsInput() || inflater.needsDictionary()) )
+                {
+                    break;
+                }
+                length += inflated;
+            }
+        }
+        catch ( DataFormatException e )
+        {
+            throw new IOException( format( "Block %d of compressed log file is corrupt", blockIndex ), e );
+        }
+        if ( length != expectedLength || !inflater.finished() )
+        {
+            throw new IOException( format( "Block %d of compressed log file inflated to %d bytes, expected %d",
+                    blockIndex, length, expectedLength ) );
+        }
+        currentBlock = blockIndex;
+        currentBlockLength = length;
+    }
+
+    private void readFully( ByteBuffer buffer, long offset ) throws IOException
+    {
+        while ( buffer.hasRemaining() )
+        {
+            if ( channel.read( buffer, offset + buffer.position() ) < 0 )
+            {
+                throw new IOException( format( "Compressed log file ended at %d, before its %d bytes at offset %d",
+                        channel.size(), buffer.limit(), offset ) );
+            }
+        }
+    }
+
+    @Override
+    public long position()
+    {
+        return position;
+    }
+
+    @Override
+    public StoreChannel position( long newPosition )
+    {
+        if ( newPosition < 0 )
+        {
+            throw new IllegalArgumentException( "Position must be >= 0." );
+        }
+        this.position = newPosition;
+        return this;
+    }
+
+    @Override
+    public long size()
+    {
+        return size;
+    }
+
+    @Override
+    public FileLock tryLock() throws IOException
+    {
+        return channel.tryLock();
+    }
+
+    @Override
+    public void force( boolean metaData )
+    {
+        // Nothing is ever written
+    }
+
+    @Override
+    public void flush()
+    {
+        // Nothing is ever written
+    }
+
+    @Override
+    public boolean isOpen()
+    {
+        return channel.isOpen();
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        inflater.end();
+        channel.close();
+    }
+
+    @Override
+    public int write( ByteBuffer src )
+    {
+        throw readOnly();
+    }
+
+    @Override
+    public long write( ByteBuffer[] srcs, int offset, int length )
+    {
+        throw readOnly();
+    }
+
+    @Override
+    public long write( ByteBuffer[] srcs )
+    {
+        throw readOnly();
+    }
+
+    @Override
+    public void writeAll( ByteBuffer src, long position )
+    {
+        throw readOnly();
+    }
+
+    @Override
+    public void writeAll( ByteBuffer src )
+    {
+        throw readOnly();
+    }
+
+    @Override
+    public StoreChannel truncate( long size )
+    {
+        throw readOnly();
+    }
+
+    private static UnsupportedOperationException readOnly()
+    {
+        return new UnsupportedOperationException( "Compressed log files are read only" );
+    }
+}
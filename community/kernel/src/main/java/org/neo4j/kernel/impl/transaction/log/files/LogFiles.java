@@ -57,6 +57,12 @@ public interface LogFiles extends Lifecycle
 
     boolean versionExists( long version );
 
+    /**
+     * @return whether or not the log file of the given version is currently open for reading, i.e. whether
+     * a channel from {@link #openForVersion(long)} is still open for it.
+     */
+    boolean hasOpenReaders( long version );
+
     boolean hasAnyEntries( long version );
 
     void accept( LogVersionVisitor visitor );
@@ -21,6 +21,7 @@ package org.neo4j.kernel.impl.transaction.log.files;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.neo4j.io.fs.FileSystemAbstraction;
@@ -30,6 +31,7 @@ import org.neo4j.kernel.impl.transaction.log.LogPosition;
 import org.neo4j.kernel.impl.transaction.log.LogVersionBridge;
 import org.neo4j.kernel.impl.transaction.log.LogVersionRepository;
 import org.neo4j.kernel.impl.transaction.log.LogVersionedStoreChannel;
+import org.neo4j.kernel.impl.transaction.log.PhysicalFlushableChannel;
 import org.neo4j.kernel.impl.transaction.log.PhysicalLogVersionedStoreChannel;
 import org.neo4j.kernel.impl.transaction.log.PositionAwarePhysicalFlushableChannel;
 import org.neo4j.kernel.impl.transaction.log.ReadAheadLogChannel;
@@ -78,7 +80,9 @@ class TransactionLogFile extends LifecycleAdapter implements LogFile
         channel = logFiles.createLogChannelForVersion( lastLogVersionUsed, OpenMode.READ_WRITE, context::getLastCommittedTransactionId );
         // Move to the end
         channel.position( channel.size() );
-        writer = new PositionAwarePhysicalFlushableChannel( channel );
+        // A direct buffer is written to the channel as is, where a heap buffer would first be copied off heap
+        writer = new PositionAwarePhysicalFlushableChannel( channel,
+                ByteBuffer.allocateDirect( PhysicalFlushableChannel.DEFAULT_BUFFER_SIZE ) );
     }
 
     // In order to be able to write into a logfile after life.stop during shutdown sequence
@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.files;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.function.LongPredicate;
+import java.util.zip.Deflater;
+
+import org.neo4j.io.ByteUnit;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.OpenMode;
+import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.kernel.impl.transaction.log.entry.LogHeader;
+
+import static java.lang.Math.min;
+import static java.lang.Math.toIntExact;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static org.neo4j.kernel.impl.transaction.log.entry.LogHeader.LOG_HEADER_SIZE;
+import static org.neo4j.kernel.impl.transaction.log.entry.LogHeaderWriter.encodeLogVersion;
+
+/**
+ * Compresses log files which are no longer written to, replacing each of them with a compressed log file of the
+ * same name. A compressed log file starts with the same header as the original, except for the log format version
+ * being {@link #COMPRESSED_LOG_VERSION}, and is laid out as:
+ * <pre>
+ * header       | 16 bytes, see above
+ * blocks       | the original log file, header and all, in blocks of {@link #BLOCK_SIZE} bytes, each one deflated
+ *              | on its own so that it can be inflated on its own
+ * index        | int block size, long original file size, int number of blocks, and for each block the long offset
+ *              | of it in this file, followed by the offset of the index, i.e. the end of the last block
+ * index offset | long offset of the index in this file
+ * </pre>
+ * The original log file is read through a {@link CompressedLogChannel}.
+ */
+public class TransactionLogFileCompressor
+{
+    /**
+     * Not a format of the log entries, but of the file they are in: the log format version in the header of
+     * compressed log files, which otherwise is one of the versions in
+     * {@link org.neo4j.kernel.impl.transaction.log.entry.LogVersions}.
+     */
+    public static final byte COMPRESSED_LOG_VERSION = 7;
+
+    static final int BLOCK_SIZE = (int) ByteUnit.kibiBytes( 64 );
+    static final String TEMP_FILE_NAME = "compressing." + TransactionLogFiles.DEFAULT_NAME;
+
+    private final FileSystemAbstraction fileSystem;
+    private final LogFiles logFiles;
+    private final LongPredicate inUse;
+
+    public TransactionLogFileCompressor( FileSystemAbstraction fileSystem, LogFiles logFiles )
+    {
+        this( fileSystem, logFiles, logFiles::hasOpenReaders );
+    }
+
+    /**
+     * @param inUse tells whether the log file of a given version is in use, e.g. being read or streamed somewhere,
+     * in which case it is left as it is.
+     */
+    public TransactionLogFileCompressor( FileSystemAbstraction fileSystem, LogFiles logFiles, LongPredicate inUse )
+    {
+        this.fileSystem = fileSystem;
+        this.logFiles = logFiles;
+        this.inUse = inUse;
+    }
+
+    /**
+     * Compresses the log file of the given version, unless it already is compressed, has no entries or is in use.
+     * The log file must not be written to anymore. The compressed file is written aside and only moved in place of
+     * the original if the original still isn't in use by then, otherwise the compressed file is thrown away.
+     *
+     * @param version the version of the log file to compress.
+     * @return {@code true} if the log file was compressed, otherwise {@code false}.
+     * @throws IOException if the log file could not be compressed, in which case it is left as it was.
+     */
+    public boolean compress( long version ) throws IOException
+    {
+        LogHeader header = logFiles.extractHeader( version );
+        if ( header.logFormatVersion == COMPRESSED_LOG_VERSION || !logFiles.hasAnyEntries( version ) ||
+             inUse.test( version ) )
+        {
+            return false;
+        }
+
+        File logFile = logFiles.getLogFileForVersion( version );
+        File tempFile = new File( logFiles.logFilesDirectory(), TEMP_FILE_NAME );
+        try
+        {
+            try ( StoreChannel source = fileSystem.open( logFile, OpenMode.READ );
+                  StoreChannel target = fileSystem.open( tempFile, OpenMode.READ_WRITE ) )
+            {
+                target.truncate( 0 );
+                compress( header, source, target );
+                target.force( false );
+            }
+            if ( inUse.test( version ) )
+            {
+                fileSystem.deleteFile( tempFile );
+                return false;
+            }
+            fileSystem.renameFile( tempFile, logFile, REPLACE_EXISTING );
+            return true;
+        }
+        catch ( IOException | RuntimeException e )
+        {
+            fileSystem.deleteFile( tempFile );
+            throw e;
+        }
+    }
+
+    private static void compress( LogHeader header, StoreChannel source, StoreChannel target ) throws IOException
+    {
+        ByteBuffer headerBuffer = ByteBuffer.allocate( LOG_HEADER_SIZE );
+        headerBuffer.putLong( encodeLogVersion( header.logVersion, COMPRESSED_LOG_VERSION ) );
+        headerBuffer.putLong( header.lastCommittedTxId );
+        headerBuffer.flip();
+        target.writeAll( headerBuffer );
+
+        long size = source.size();
+        int blocks = toIntExact( (size + BLOCK_SIZE - 1) / BLOCK_SIZE );
+        long[] blockOffsets = new long[blocks + 1];
+        long offset = LOG_HEADER_SIZE;
+        ByteBuffer block = ByteBuffer.allocate( BLOCK_SIZE );
+        ByteBuffer compressed = ByteBuffer.allocate( BLOCK_SIZE );
+        Deflater deflater = new Deflater( Deflater.BEST_SPEED );
+        try
+        {
+            source.position( 0 );
+            for ( int i = 0; i < blocks; i++ )
+            {
+                blockOffsets[i] = offset;
+                block.clear();
+                block.limit( (int) min( BLOCK_SIZE, size - (long) i * BLOCK_SIZE ) );
+                source.readAll( block );
+                deflater.reset();
+                deflater.setInput( block.array(), 0, block.limit() );
+                deflater.finish();
+                while ( !deflater.finished() )
+                {
+                    compressed.clear();
+                    compressed.limit( deflater.deflate( compressed.array() ) );
+                    offset += compressed.remaining();
+                    target.writeAll( compressed );
+                }
+            }
+            blockOffsets[blocks] = offset;
+        }
+        finally
+        {
+            deflater.end();
+        }
+
+        ByteBuffer index = ByteBuffer.allocate( CompressedLogChannel.indexSize( blocks ) + Long.BYTES );
+        index.putInt( BLOCK_SIZE );
+        index.putLong( size );
+        index.putInt( blocks );
+        for ( long blockOffset : blockOffsets )
+        {
+            index.putLong( blockOffset );
+        }
+        index.putLong( offset );
+        index.flip();
+        target.writeAll( index );
+    }
+}
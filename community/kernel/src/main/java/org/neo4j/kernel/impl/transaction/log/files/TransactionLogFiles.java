@@ -24,6 +24,9 @@ import java.io.FileNotFoundException;
 import java.io.FilenameFilter;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.LongSupplier;
 
 import org.neo4j.io.fs.FileSystemAbstraction;
@@ -42,6 +45,7 @@ import static org.neo4j.kernel.impl.transaction.log.entry.LogHeader.LOG_HEADER_S
 import static org.neo4j.kernel.impl.transaction.log.entry.LogHeaderReader.readLogHeader;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogHeaderWriter.writeLogHeader;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogVersions.CURRENT_LOG_VERSION;
+import static org.neo4j.kernel.impl.transaction.log.files.TransactionLogFileCompressor.COMPRESSED_LOG_VERSION;
 
 /**
  * Used to figure out what logical log file to open when the database
@@ -62,6 +66,7 @@ public class TransactionLogFiles extends LifecycleAdapter implements LogFiles
     private final TransactionLogFilesHelper fileHelper;
     private final TransactionLogFile logFile;
     private final File logsDirectory;
+    private final ConcurrentMap<Long,Integer> openReaders = new ConcurrentHashMap<>();
 
     TransactionLogFiles( File logsDirectory, String name, TransactionLogFilesContext context )
     {
@@ -146,6 +151,12 @@ public class TransactionLogFiles extends LifecycleAdapter implements LogFiles
         return fileSystem.fileExists( getLogFileForVersion( version ) );
     }
 
+    @Override
+    public boolean hasOpenReaders( long version )
+    {
+        return openReaders.containsKey( version );
+    }
+
     @Override
     public LogHeader extractHeader( long version ) throws IOException
     {
@@ -199,13 +210,19 @@ public class TransactionLogFiles extends LifecycleAdapter implements LogFiles
             rawChannel = openLogFileChannel( fileToOpen, OpenMode.READ );
             ByteBuffer buffer = ByteBuffer.allocate( LOG_HEADER_SIZE );
             LogHeader header = readLogHeader( buffer, rawChannel, true, fileToOpen );
+            if ( header.logFormatVersion == COMPRESSED_LOG_VERSION )
+            {
+                // Read the original log file instead, which starts with the original header
+                rawChannel = new CompressedLogChannel( rawChannel );
+                header = readLogHeader( buffer, rawChannel, true, fileToOpen );
+            }
             if ( (header == null) || (header.logVersion != version) )
             {
                 throw new IllegalStateException(
                         format( "Unexpected log file header. Expected header version: %d, actual header: %s", version,
                                 header != null ? header.toString() : "null header." ) );
             }
-            return new PhysicalLogVersionedStoreChannel( rawChannel, version, header.logFormatVersion );
+            return new ReaderChannel( rawChannel, version, header.logFormatVersion );
         }
         catch ( FileNotFoundException cause )
         {
@@ -325,4 +342,28 @@ public class TransactionLogFiles extends LifecycleAdapter implements LogFiles
             lowest = lowest == -1 ? logVersion : min( lowest, logVersion );
         }
     }
+
+    /**
+     * Channel returned from {@link #openForVersion(long)}, keeping track of which versions are being read.
+     */
+    private class ReaderChannel extends PhysicalLogVersionedStoreChannel
+    {
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        ReaderChannel( StoreChannel delegateChannel, long version, byte formatVersion ) throws IOException
+        {
+            super( delegateChannel, version, formatVersion );
+            openReaders.merge( version, 1, Integer::sum );
+        }
+
+        @Override
+        public void close() throws IOException
+        {
+            if ( closed.compareAndSet( false, true ) )
+            {
+                openReaders.computeIfPresent( getVersion(), ( version, count ) -> count == 1 ? null : count - 1 );
+            }
+            super.close();
+        }
+    }
 }
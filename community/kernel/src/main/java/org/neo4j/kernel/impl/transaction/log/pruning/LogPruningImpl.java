@@ -20,7 +20,10 @@
 package org.neo4j.kernel.impl.transaction.log.pruning;
 
 import java.io.File;
+import java.io.IOException;
 import java.time.Clock;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.LongConsumer;
@@ -28,9 +31,12 @@ import java.util.function.LongConsumer;
 import org.neo4j.graphdb.factory.GraphDatabaseSettings;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.kernel.configuration.Config;
+import org.neo4j.kernel.impl.transaction.log.checkpoint.StoreCopyCheckPointMutex;
 import org.neo4j.kernel.impl.transaction.log.files.LogFiles;
+import org.neo4j.kernel.impl.transaction.log.files.TransactionLogFileCompressor;
 import org.neo4j.logging.Log;
 import org.neo4j.logging.LogProvider;
+import org.neo4j.scheduler.JobScheduler;
 
 /**
  * This class listens for rotations and does log pruning.
@@ -43,6 +49,11 @@ public class LogPruningImpl implements LogPruning
     private final Log msgLog;
     private final LogPruneStrategyFactory strategyFactory;
     private final Clock clock;
+    private final JobScheduler scheduler;
+    private final boolean compressLogs;
+    private final TransactionLogFileCompressor compressor;
+    private final AtomicLong compressUpToVersion = new AtomicLong( -1 );
+    private final AtomicBoolean compressionScheduled = new AtomicBoolean();
     private volatile LogPruneStrategy pruneStrategy;
 
     public LogPruningImpl( FileSystemAbstraction fs,
@@ -50,13 +61,19 @@ public class LogPruningImpl implements LogPruning
                            LogProvider logProvider,
                            LogPruneStrategyFactory strategyFactory,
                            Clock clock,
-                           Config config )
+                           Config config,
+                           JobScheduler scheduler,
+                           StoreCopyCheckPointMutex storeCopyCheckPointMutex )
     {
         this.fs = fs;
         this.logFiles = logFiles;
         this.msgLog = logProvider.getLog( getClass() );
         this.strategyFactory = strategyFactory;
         this.clock = clock;
+        this.scheduler = scheduler;
+        this.compressLogs = config.get( GraphDatabaseSettings.tx_log_compression );
+        this.compressor = new TransactionLogFileCompressor( fs, logFiles,
+                version -> logFiles.hasOpenReaders( version ) || storeCopyCheckPointMutex.isStoreCopyInProgress() );
         this.pruneStrategy = strategyFactory.strategyFromConfigValue( fs, logFiles, clock, config.get( GraphDatabaseSettings.keep_logical_logs ) );
 
         // Register listener for updates
@@ -129,6 +146,72 @@ public class LogPruningImpl implements LogPruning
                 pruneLock.unlock();
             }
         }
+        if ( compressLogs )
+        {
+            scheduleCompressionOfLogsBefore( upToVersion );
+        }
+    }
+
+    /**
+     * Compresses the log files that survived pruning before the given version, in a job of its own rather than
+     * as part of the check point that pruned them. These are only kept for the sake of the retention policy, since
+     * the last check point is in a later version, so they are never written to again, nor needed by recovery.
+     */
+    private void scheduleCompressionOfLogsBefore( long upToVersion )
+    {
+        compressUpToVersion.accumulateAndGet( upToVersion, Math::max );
+        if ( compressionScheduled.compareAndSet( false, true ) )
+        {
+            scheduler.schedule( JobScheduler.Groups.transactionLogCompression, this::compressLogs );
+        }
+    }
+
+    private void compressLogs()
+    {
+        try
+        {
+            long version = compressUpToVersion.get() - 1;
+            while ( compressLog( version ) )
+            {
+                version--;
+            }
+        }
+        finally
+        {
+            compressionScheduled.set( false );
+        }
+    }
+
+    /**
+     * Compresses a single log file while holding the prune lock, so that it's not pruned while being compressed.
+     * Pruning of a check point that happens meanwhile is skipped, just like when pruning concurrently.
+     *
+     * @return {@code true} if there may be more log files to compress before the given version.
+     */
+    private boolean compressLog( long version )
+    {
+        pruneLock.lock();
+        try
+        {
+            if ( !logFiles.versionExists( version ) )
+            {
+                return false;
+            }
+            if ( compressor.compress( version ) )
+            {
+                msgLog.info( "Compressed log version " + version );
+            }
+        }
+        catch ( IOException e )
+        {
+            msgLog.warn( "Failed to compress log version " + version + ", will try again after the next checkpoint",
+                    e );
+        }
+        finally
+        {
+            pruneLock.unlock();
+        }
+        return true;
     }
 
     @Override
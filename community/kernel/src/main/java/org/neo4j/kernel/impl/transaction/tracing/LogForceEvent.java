@@ -30,6 +30,14 @@ public interface LogForceEvent extends AutoCloseable
     {
     };
 
+    /**
+     * Sets the size of the batch being forced, i.e. the number of appends to the transaction log that this force
+     * makes durable.
+     */
+    default void setBatchSize( int batchSize )
+    {
+    }
+
     /**
      * Marks the end of the force call on the transaction log file.
      */
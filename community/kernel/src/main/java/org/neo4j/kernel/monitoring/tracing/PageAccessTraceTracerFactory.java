@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.monitoring.tracing;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracerSupplier;
+import org.neo4j.io.pagecache.tracing.trace.PageAccessTraceWriter;
+import org.neo4j.io.pagecache.tracing.trace.TraceWritingPageCacheTracer;
+import org.neo4j.io.pagecache.tracing.trace.TraceWritingPageCursorTracerSupplier;
+import org.neo4j.kernel.monitoring.Monitors;
+import org.neo4j.logging.Log;
+import org.neo4j.scheduler.JobScheduler;
+import org.neo4j.time.SystemNanoClock;
+
+import static org.neo4j.util.FeatureToggles.getString;
+
+/**
+ * The {@code page_cache_access_trace} TracerFactory works like the {@link DefaultTracerFactory}, but also records a
+ * {@link org.neo4j.io.pagecache.tracing.trace.PageAccessTrace trace} of all page cache accesses, which can be
+ * replayed against the page cache eviction algorithms offline. The trace is written to the file given by the
+ * {@code org.neo4j.kernel.monitoring.tracing.PageAccessTraceTracerFactory.file} system property.
+ */
+public class PageAccessTraceTracerFactory extends DefaultTracerFactory
+{
+    private static final String traceFile = getString(
+            PageAccessTraceTracerFactory.class, "file", "page-cache-access.trace" );
+
+    @Override
+    public String getImplementationName()
+    {
+        return "page_cache_access_trace";
+    }
+
+    @Override
+    public PageCacheTracer createPageCacheTracer( Monitors monitors, JobScheduler jobScheduler, SystemNanoClock clock,
+            Log log )
+    {
+        File file = new File( traceFile );
+        try
+        {
+            PageAccessTraceWriter traceWriter = new PageAccessTraceWriter( new FileOutputStream( file ) );
+            log.info( "Recording page cache access trace to " + file.getAbsolutePath() );
+            return new TraceWritingPageCacheTracer( traceWriter );
+        }
+        catch ( IOException e )
+        {
+            log.warn( "Failed to create page cache access trace file " + file.getAbsolutePath() +
+                      ", so page cache accesses will not be recorded.", e );
+            return super.createPageCacheTracer( monitors, jobScheduler, clock, log );
+        }
+    }
+
+    @Override
+    public PageCursorTracerSupplier createPageCursorTracerSupplier( Monitors monitors, JobScheduler jobScheduler )
+    {
+        return TraceWritingPageCursorTracerSupplier.INSTANCE;
+    }
+}
@@ -50,7 +50,9 @@ import org.neo4j.time.SystemNanoClock;
  * </p>
  * <p>
  *     The tracing implementation is determined by the {@code unsupported.dbms.tracer} setting. Two built-in implementations
- *     exist: {@code default} and {@code null}. Alternative implementations can be loaded from the
+ *     exist: {@code default} and {@code null}. The {@code page_cache_access_trace} implementation is like
+ *     {@code default}, but also records the page cache accesses to a file, that can be replayed offline against the
+ *     page cache eviction algorithms. Alternative implementations can be loaded from the
  *     classpath by referencing their {@link org.neo4j.kernel.monitoring.tracing.TracerFactory} in a
  *     {@code META-INF/services/org.neo4j.kernel.monitoring.tracing.TracerFactory}, and setting
  *     {@code unsupported.dbms.tracer} to the appropriate value.
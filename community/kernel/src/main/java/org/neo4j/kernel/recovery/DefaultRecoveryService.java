@@ -20,7 +20,10 @@
 package org.neo4j.kernel.recovery;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
+import org.neo4j.kernel.impl.api.TransactionQueue;
 import org.neo4j.kernel.impl.api.TransactionToApply;
 import org.neo4j.kernel.impl.transaction.CommittedTransactionRepresentation;
 import org.neo4j.kernel.impl.transaction.TransactionRepresentation;
@@ -38,17 +41,38 @@ import static org.neo4j.kernel.impl.transaction.log.Commitment.NO_COMMITMENT;
 
 public class DefaultRecoveryService implements RecoveryService
 {
+    /**
+     * Number of recovered transactions handed over to the storage engine at a time, if batching.
+     */
+    public static final int BATCH_SIZE = 100;
+
     private final RecoveryStartInformationProvider recoveryStartInformationProvider;
     private final StorageEngine storageEngine;
     private final TransactionIdStore transactionIdStore;
     private final LogicalTransactionStore logicalTransactionStore;
     private final LogVersionRepository logVersionRepository;
+    private final boolean batchRecoveredTransactions;
 
     public DefaultRecoveryService( StorageEngine storageEngine, LogTailScanner logTailScanner,
             TransactionIdStore transactionIdStore, LogicalTransactionStore logicalTransactionStore,
             LogVersionRepository logVersionRepository, RecoveryStartInformationProvider.Monitor monitor )
+    {
+        this( storageEngine, logTailScanner, transactionIdStore, logicalTransactionStore, logVersionRepository,
+                monitor, false );
+    }
+
+    /**
+     * @param batchRecoveredTransactions whether to hand recovered transactions over to the storage engine in
+     * batches rather than one by one. Only worth it if the storage engine applies recovered transactions in
+     * parallel, see {@link org.neo4j.graphdb.factory.GraphDatabaseSettings#recovery_parallelism}.
+     */
+    public DefaultRecoveryService( StorageEngine storageEngine, LogTailScanner logTailScanner,
+            TransactionIdStore transactionIdStore, LogicalTransactionStore logicalTransactionStore,
+            LogVersionRepository logVersionRepository, RecoveryStartInformationProvider.Monitor monitor,
+            boolean batchRecoveredTransactions )
     {
         this.storageEngine = storageEngine;
+        this.batchRecoveredTransactions = batchRecoveredTransactions;
         this.transactionIdStore = transactionIdStore;
         this.logicalTransactionStore = logicalTransactionStore;
         this.logVersionRepository = logVersionRepository;
@@ -73,9 +97,12 @@ public class DefaultRecoveryService implements RecoveryService
     }
 
     @Override
-    public RecoveryApplier getRecoveryApplier( TransactionApplicationMode mode ) throws Exception
+    public RecoveryApplier getRecoveryApplier( TransactionApplicationMode mode,
+            RecoveryApplier.AppliedTransactionListener appliedTransactionListener ) throws Exception
     {
-        return new RecoveryVisitor( storageEngine, mode );
+        return batchRecoveredTransactions
+               ? new BatchingRecoveryVisitor( storageEngine, mode, appliedTransactionListener )
+               : new RecoveryVisitor( storageEngine, mode, appliedTransactionListener );
     }
 
     @Override
@@ -109,26 +136,35 @@ public class DefaultRecoveryService implements RecoveryService
         logVersionRepository.setCurrentLogVersion( recoveredTransactionLogVersion );
     }
 
+    private static TransactionToApply toApply( CommittedTransactionRepresentation transaction )
+    {
+        TransactionRepresentation txRepresentation = transaction.getTransactionRepresentation();
+        long txId = transaction.getCommitEntry().getTxId();
+        TransactionToApply tx = new TransactionToApply( txRepresentation, txId );
+        tx.commitment( NO_COMMITMENT, txId );
+        tx.logPosition( transaction.getStartEntry().getStartPosition() );
+        return tx;
+    }
+
     static class RecoveryVisitor implements RecoveryApplier
     {
         private final StorageEngine storageEngine;
         private final TransactionApplicationMode mode;
+        private final AppliedTransactionListener appliedTransactionListener;
 
-        RecoveryVisitor( StorageEngine storageEngine, TransactionApplicationMode mode )
+        RecoveryVisitor( StorageEngine storageEngine, TransactionApplicationMode mode,
+                AppliedTransactionListener appliedTransactionListener )
         {
             this.storageEngine = storageEngine;
             this.mode = mode;
+            this.appliedTransactionListener = appliedTransactionListener;
         }
 
         @Override
         public boolean visit( CommittedTransactionRepresentation transaction ) throws Exception
         {
-            TransactionRepresentation txRepresentation = transaction.getTransactionRepresentation();
-            long txId = transaction.getCommitEntry().getTxId();
-            TransactionToApply tx = new TransactionToApply( txRepresentation, txId );
-            tx.commitment( NO_COMMITMENT, txId );
-            tx.logPosition( transaction.getStartEntry().getStartPosition() );
-            storageEngine.apply( tx, mode );
+            storageEngine.apply( toApply( transaction ), mode );
+            appliedTransactionListener.applied( transaction );
             return false;
         }
 
@@ -137,4 +173,48 @@ public class DefaultRecoveryService implements RecoveryService
         {   // nothing to close
         }
     }
+
+    /**
+     * Applies recovered transactions in batches, so that the storage engine can apply the transactions of a batch
+     * together, e.g. in parallel. A transaction is therefore not necessarily applied when
+     * {@link #visit(CommittedTransactionRepresentation)} returns, but at the latest when this applier is closed.
+     * The {@link AppliedTransactionListener} is only notified about the transactions of a batch once the whole
+     * batch has been applied. If applying a batch fails then nothing more is applied, not even on close.
+     */
+    static class BatchingRecoveryVisitor implements RecoveryApplier
+    {
+        private final TransactionQueue queue;
+        private final List<CommittedTransactionRepresentation> batch = new ArrayList<>( BATCH_SIZE );
+        private boolean failed;
+
+        BatchingRecoveryVisitor( StorageEngine storageEngine, TransactionApplicationMode mode,
+                AppliedTransactionListener appliedTransactionListener )
+        {
+            this.queue = new TransactionQueue( BATCH_SIZE, ( first, last ) ->
+            {
+                failed = true;
+                storageEngine.apply( first, mode );
+                failed = false;
+                batch.forEach( appliedTransactionListener::applied );
+                batch.clear();
+            } );
+        }
+
+        @Override
+        public boolean visit( CommittedTransactionRepresentation transaction ) throws Exception
+        {
+            batch.add( transaction );
+            queue.queue( toApply( transaction ) );
+            return false;
+        }
+
+        @Override
+        public void close() throws Exception
+        {
+            if ( !failed )
+            {
+                queue.empty();
+            }
+        }
+    }
 }
@@ -19,6 +19,9 @@
  */
 package org.neo4j.kernel.recovery;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
+
 import org.neo4j.kernel.impl.core.StartupStatisticsProvider;
 import org.neo4j.kernel.impl.transaction.CommittedTransactionRepresentation;
 import org.neo4j.kernel.impl.transaction.log.LogPosition;
@@ -73,14 +76,14 @@ public class Recovery extends LifecycleAdapter
         monitor.recoveryRequired( recoveryPosition );
         recoveryService.startRecovery();
 
-        LogPosition recoveryToPosition = recoveryPosition;
-        CommittedTransactionRepresentation lastTransaction = null;
+        RecoveredTransactions recoveredTransactions = new RecoveredTransactions( recoveryPosition );
         CommittedTransactionRepresentation lastReversedTransaction = null;
         try
         {
             long lowestRecoveredTxId = TransactionIdStore.BASE_TX_ID;
             try ( TransactionCursor transactionsToRecover = recoveryService.getTransactionsInReverseOrder( recoveryPosition );
-                    RecoveryApplier recoveryVisitor = recoveryService.getRecoveryApplier( REVERSE_RECOVERY ) )
+                    RecoveryApplier recoveryVisitor = recoveryService.getRecoveryApplier( REVERSE_RECOVERY,
+                            RecoveryApplier.AppliedTransactionListener.NONE ) )
             {
                 while ( transactionsToRecover.next() )
                 {
@@ -98,21 +101,21 @@ public class Recovery extends LifecycleAdapter
 
             monitor.reverseStoreRecoveryCompleted( lowestRecoveredTxId );
 
+            LogPosition positionAfterLastTransaction;
             try ( TransactionCursor transactionsToRecover = recoveryService.getTransactions( recoveryPosition );
-                    RecoveryApplier recoveryVisitor = recoveryService.getRecoveryApplier( RECOVERY ) )
+                    RecoveryApplier recoveryVisitor =
+                            recoveryService.getRecoveryApplier( RECOVERY, recoveredTransactions ) )
             {
                 while ( transactionsToRecover.next() )
                 {
-                    lastTransaction = transactionsToRecover.get();
-                    long txId = lastTransaction.getCommitEntry().getTxId();
-                    recoveryVisitor.visit( lastTransaction );
-                    monitor.transactionRecovered( txId );
-                    numberOfRecoveredTransactions++;
-                    recoveryToPosition = transactionsToRecover.position();
-                    reportProgress();
+                    CommittedTransactionRepresentation transaction = transactionsToRecover.get();
+                    recoveredTransactions.visited( transactionsToRecover.position() );
+                    recoveryVisitor.visit( transaction );
                 }
-                recoveryToPosition = transactionsToRecover.position();
+                positionAfterLastTransaction = transactionsToRecover.position();
             }
+            // Only now, with the recovery applier closed, are all the recovered transactions applied
+            recoveredTransactions.completed( positionAfterLastTransaction );
         }
         catch ( Throwable t )
         {
@@ -121,17 +124,18 @@ public class Recovery extends LifecycleAdapter
                 throwIfUnchecked( t );
                 throw new RuntimeException( t );
             }
-            if ( lastTransaction != null )
+            if ( recoveredTransactions.lastTransaction != null )
             {
-                LogEntryCommit commitEntry = lastTransaction.getCommitEntry();
-                monitor.failToRecoverTransactionsAfterCommit( t, commitEntry, recoveryToPosition );
+                LogEntryCommit commitEntry = recoveredTransactions.lastTransaction.getCommitEntry();
+                monitor.failToRecoverTransactionsAfterCommit( t, commitEntry, recoveredTransactions.position );
             }
             else
             {
                 monitor.failToRecoverTransactionsAfterPosition( t, recoveryPosition );
-                recoveryToPosition = recoveryPosition;
             }
         }
+        CommittedTransactionRepresentation lastTransaction = recoveredTransactions.lastTransaction;
+        LogPosition recoveryToPosition = recoveredTransactions.position;
         progressReporter.completed();
         logsTruncator.truncate( recoveryToPosition );
 
@@ -140,6 +144,42 @@ public class Recovery extends LifecycleAdapter
         monitor.recoveryCompleted( numberOfRecoveredTransactions );
     }
 
+    /**
+     * Keeps track of how far recovery has come, i.e. the last transaction that has actually been applied
+     * and the log position right after it. This is what the log gets truncated to if recovery fails midway.
+     */
+    private class RecoveredTransactions implements RecoveryApplier.AppliedTransactionListener
+    {
+        private final Deque<LogPosition> positionsAfterVisitedTransactions = new ArrayDeque<>();
+        private CommittedTransactionRepresentation lastTransaction;
+        private LogPosition position;
+
+        RecoveredTransactions( LogPosition recoveryPosition )
+        {
+            this.position = recoveryPosition;
+        }
+
+        void visited( LogPosition positionAfterTransaction )
+        {
+            positionsAfterVisitedTransactions.addLast( positionAfterTransaction );
+        }
+
+        @Override
+        public void applied( CommittedTransactionRepresentation transaction )
+        {
+            lastTransaction = transaction;
+            position = positionsAfterVisitedTransactions.removeFirst();
+            monitor.transactionRecovered( transaction.getCommitEntry().getTxId() );
+            numberOfRecoveredTransactions++;
+            reportProgress();
+        }
+
+        void completed( LogPosition positionAfterLastTransaction )
+        {
+            position = positionAfterLastTransaction;
+        }
+    }
+
     private void initProgressReporter( RecoveryStartInformation recoveryStartInformation,
             CommittedTransactionRepresentation lastReversedTransaction )
     {
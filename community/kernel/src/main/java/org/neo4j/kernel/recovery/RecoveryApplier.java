@@ -27,4 +27,18 @@ import org.neo4j.kernel.impl.transaction.CommittedTransactionRepresentation;
  */
 public interface RecoveryApplier extends Visitor<CommittedTransactionRepresentation,Exception>, AutoCloseable
 {
+    /**
+     * Notified about each visited transaction once it has actually been applied to the store, in the order the
+     * transactions were visited. An applier may hold on to visited transactions and apply them later, at the
+     * latest when it is closed, so progress of recovery must be tracked from here rather than from the visit.
+     */
+    @FunctionalInterface
+    interface AppliedTransactionListener
+    {
+        AppliedTransactionListener NONE = transaction ->
+        {
+        };
+
+        void applied( CommittedTransactionRepresentation transaction );
+    }
 }
@@ -36,7 +36,8 @@ public interface RecoveryService
 
     RecoveryStartInformation getRecoveryStartInformation() throws IOException;
 
-    RecoveryApplier getRecoveryApplier( TransactionApplicationMode mode ) throws Exception;
+    RecoveryApplier getRecoveryApplier( TransactionApplicationMode mode,
+            RecoveryApplier.AppliedTransactionListener appliedTransactionListener ) throws Exception;
 
     void transactionsRecovered( CommittedTransactionRepresentation lastRecoveredTransaction,
             LogPosition positionAfterLastRecoveredTransaction );
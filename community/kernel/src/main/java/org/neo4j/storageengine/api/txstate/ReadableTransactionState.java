@@ -25,6 +25,7 @@ import org.neo4j.collection.primitive.PrimitiveIntSet;
 import org.neo4j.collection.primitive.PrimitiveLongIterator;
 import org.neo4j.collection.primitive.PrimitiveLongResourceIterator;
 import org.neo4j.cursor.Cursor;
+import org.neo4j.internal.kernel.api.IndexQuery;
 import org.neo4j.internal.kernel.api.exceptions.schema.ConstraintValidationException;
 import org.neo4j.internal.kernel.api.schema.SchemaDescriptor;
 import org.neo4j.internal.kernel.api.schema.constraints.ConstraintDescriptor;
@@ -149,6 +150,12 @@ public interface ReadableTransactionState
 
     PrimitiveLongReadableDiffSets indexUpdatesForRangeSeekByPrefix( IndexDescriptor index, String prefix );
 
+    PrimitiveLongReadableDiffSets indexUpdatesForRangeSeekByGeometry( IndexDescriptor index, IndexQuery.GeometryRangePredicate range );
+
+    PrimitiveLongReadableDiffSets indexUpdatesForRangeSeekByTemporal( IndexDescriptor index, IndexQuery.TemporalRangePredicate range );
+
+    PrimitiveLongReadableDiffSets indexUpdatesForCompositeRangeSeek( IndexDescriptor index, IndexQuery[] predicates );
+
     NodeState getNodeState( long id );
 
     RelationshipState getRelationshipState( long id );
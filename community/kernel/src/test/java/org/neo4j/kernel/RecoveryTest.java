@@ -67,6 +67,7 @@ import org.neo4j.kernel.recovery.LogTailScanner;
 import org.neo4j.kernel.recovery.Recovery;
 import org.neo4j.kernel.recovery.RecoveryApplier;
 import org.neo4j.kernel.recovery.RecoveryMonitor;
+import org.neo4j.storageengine.api.CommandsToApply;
 import org.neo4j.storageengine.api.StorageEngine;
 import org.neo4j.storageengine.api.TransactionApplicationMode;
 import org.neo4j.test.rule.TestDirectory;
@@ -76,9 +77,13 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.neo4j.kernel.impl.transaction.log.TransactionIdStore.BASE_TX_COMMIT_TIMESTAMP;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogHeaderWriter.writeLogHeader;
@@ -176,10 +181,10 @@ public class RecoveryTest
                 }
 
                 @Override
-                public RecoveryApplier getRecoveryApplier( TransactionApplicationMode mode )
-                        throws Exception
+                public RecoveryApplier getRecoveryApplier( TransactionApplicationMode mode,
+                        RecoveryApplier.AppliedTransactionListener appliedTransactionListener ) throws Exception
                 {
-                    RecoveryApplier actual = super.getRecoveryApplier( mode );
+                    RecoveryApplier actual = super.getRecoveryApplier( mode, appliedTransactionListener );
                     if ( mode == TransactionApplicationMode.REVERSE_RECOVERY )
                     {
                         return actual;
@@ -403,14 +408,65 @@ public class RecoveryTest
         assertEquals( marker.getByteOffset(), lastClosedTransaction[2] );
     }
 
+    @Test
+    public void shouldTruncateLogAfterLastAppliedBatchWhenApplyingBatchFails() throws Exception
+    {
+        // GIVEN
+        File file = logFiles.getLogFileForVersion( logVersion );
+        final LogPositionMarker marker = new LogPositionMarker();
+        final int batchSize = DefaultRecoveryService.BATCH_SIZE;
+        final long firstTxId = 6;
+        final long lastTxIdOfFirstBatch = firstTxId + batchSize - 1;
+
+        writeSomeData( file, pair ->
+        {
+            LogEntryWriter writer = pair.first();
+            Consumer<LogPositionMarker> consumer = pair.other();
+
+            // one full batch and then some more transactions in the next batch
+            for ( long txId = firstTxId; txId < firstTxId + batchSize + 10; txId++ )
+            {
+                writer.writeStartEntry( 0, 1, txId, txId - 1, new byte[0] );
+                writer.writeCommitEntry( txId, txId );
+                if ( txId == lastTxIdOfFirstBatch )
+                {
+                    consumer.accept( marker ); // <-- marker has the position after the last applied transaction
+                }
+            }
+
+            return true;
+        } );
+        StorageEngine storageEngine = mock( StorageEngine.class );
+        doNothing().doThrow( new IOException( "Failure applying second batch" ) )
+                .when( storageEngine ).apply( any( CommandsToApply.class ), eq( TransactionApplicationMode.RECOVERY ) );
+        RecoveryMonitor monitor = mock( RecoveryMonitor.class );
+
+        // WHEN
+        boolean recoveryRequired = recover( storeDir, logFiles, storageEngine, monitor, true );
+
+        // THEN
+        assertTrue( recoveryRequired );
+        assertEquals( marker.getByteOffset(), file.length() );
+        verify( monitor, times( batchSize ) ).transactionRecovered( anyLong() );
+        verify( monitor ).failToRecoverTransactionsAfterCommit( any( IOException.class ),
+                any( LogEntryCommit.class ), eq( new LogPosition( logVersion, marker.getByteOffset() ) ) );
+        long[] lastClosedTransaction = transactionIdStore.getLastClosedTransaction();
+        assertEquals( lastTxIdOfFirstBatch, lastClosedTransaction[0] );
+        assertEquals( marker.getByteOffset(), lastClosedTransaction[2] );
+    }
+
     private boolean recover( File storeDir, LogFiles logFiles )
+    {
+        return recover( storeDir, logFiles, mock( StorageEngine.class ), mock( RecoveryMonitor.class ), false );
+    }
+
+    private boolean recover( File storeDir, LogFiles logFiles, StorageEngine storageEngine, RecoveryMonitor monitor,
+            boolean batchRecoveredTransactions )
     {
         LifeSupport life = new LifeSupport();
-        RecoveryMonitor monitor = mock( RecoveryMonitor.class );
         final AtomicBoolean recoveryRequired = new AtomicBoolean();
         try
         {
-            StorageEngine storageEngine = mock( StorageEngine.class );
             final LogEntryReader<ReadableClosablePositionAwareChannel> reader = new VersionAwareLogEntryReader<>();
             LogTailScanner tailScanner = getTailScanner( logFiles, reader );
 
@@ -418,7 +474,7 @@ public class RecoveryTest
             LogicalTransactionStore txStore = new PhysicalLogicalTransactionStore( logFiles, metadataCache, reader, monitors, false );
             CorruptedLogsTruncator logPruner = new CorruptedLogsTruncator( storeDir, logFiles, fileSystemRule.get() );
             life.add( new Recovery( new DefaultRecoveryService( storageEngine, tailScanner, transactionIdStore,
-                    txStore, versionRepository, NO_MONITOR )
+                    txStore, versionRepository, NO_MONITOR, batchRecoveredTransactions )
             {
                 @Override
                 public void startRecovery()
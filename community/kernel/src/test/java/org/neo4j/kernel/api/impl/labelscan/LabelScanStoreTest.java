@@ -128,6 +128,13 @@ public abstract class LabelScanStoreTest
         store.force( IOLimiter.unlimited() );
     }
 
+    @Test
+    public void compactShouldNotChangeReadOnlyScanStore()
+    {
+        createAndStartReadOnly();
+        store.compact( IOLimiter.unlimited() );
+    }
+
     @Test
     public void shouldStartIfLabelScanStoreIndexDoesNotExistInReadOnlyMode() throws IOException
     {
@@ -224,6 +231,42 @@ public abstract class LabelScanStoreTest
         assertNodesForLabel( labelId );
     }
 
+    @Test
+    public void shouldKeepLabelsOfRemainingNodesWhenCompacting() throws Exception
+    {
+        // GIVEN labels removed from most nodes, with each node in a range of its own
+        int labelId = 1;
+        int nodeCount = 5_000;
+        long nodeIdStep = 100;
+        start();
+        List<NodeLabelUpdate> added = new ArrayList<>();
+        for ( int i = 0; i < nodeCount; i++ )
+        {
+            added.add( labelChanges( i * nodeIdStep, NO_LABELS, new long[]{labelId} ) );
+        }
+        write( added.iterator() );
+        List<NodeLabelUpdate> removed = new ArrayList<>();
+        List<Long> remaining = new ArrayList<>();
+        for ( int i = 0; i < nodeCount; i++ )
+        {
+            if ( i % 10 == 0 )
+            {
+                remaining.add( i * nodeIdStep );
+            }
+            else
+            {
+                removed.add( labelChanges( i * nodeIdStep, new long[]{labelId}, NO_LABELS ) );
+            }
+        }
+        write( removed.iterator() );
+
+        // WHEN
+        store.compact( IOLimiter.unlimited() );
+
+        // THEN
+        assertNodesForLabel( labelId, remaining.stream().mapToLong( Long::longValue ).toArray() );
+    }
+
     @Test
     public void shouldScanSingleRange() throws Exception
     {
@@ -27,6 +27,7 @@ import java.util.concurrent.TimeUnit;
 import org.neo4j.kernel.impl.api.DefaultTransactionTracer.Monitor;
 import org.neo4j.kernel.impl.transaction.tracing.CommitEvent;
 import org.neo4j.kernel.impl.transaction.tracing.LogAppendEvent;
+import org.neo4j.kernel.impl.transaction.tracing.LogForceEvent;
 import org.neo4j.kernel.impl.transaction.tracing.LogRotateEvent;
 import org.neo4j.kernel.impl.transaction.tracing.TransactionEvent;
 import org.neo4j.test.OnDemandJobScheduler;
@@ -76,6 +77,35 @@ public class DefaultTransactionTracerTest
         verifyZeroInteractions( monitor );
     }
 
+    @Test
+    public void shouldCountLogForcesPerBatchSize() throws Throwable
+    {
+        DefaultTransactionTracer tracer = new DefaultTransactionTracer( clock, monitor, jobScheduler );
+
+        forceLog( tracer, 1 );
+        forceLog( tracer, 3 );
+        forceLog( tracer, 2 );
+        forceLog( tracer, 1_000 );
+
+        assertEquals( 4, tracer.numberOfLogForces() );
+        assertEquals( 1_006, tracer.numberOfForcedAppends() );
+        assertEquals( 1, tracer.numberOfLogForcesInBatchSizeBucket( 0 ) );
+        assertEquals( 2, tracer.numberOfLogForcesInBatchSizeBucket( 1 ) );
+        assertEquals( 0, tracer.numberOfLogForcesInBatchSizeBucket( 2 ) );
+        assertEquals( 1, tracer.numberOfLogForcesInBatchSizeBucket( LogForceMonitor.BATCH_SIZE_BUCKETS - 1 ) );
+    }
+
+    private void forceLog( DefaultTransactionTracer tracer, int batchSize )
+    {
+        try ( TransactionEvent txEvent = tracer.beginTransaction();
+              CommitEvent commitEvent = txEvent.beginCommitEvent();
+              LogAppendEvent logAppendEvent = commitEvent.beginLogAppend();
+              LogForceEvent logForceEvent = logAppendEvent.beginLogForce() )
+        {
+            logForceEvent.setBatchSize( batchSize );
+        }
+    }
+
     private void triggerEvent( DefaultTransactionTracer tracer, int eventDuration )
     {
         try ( TransactionEvent txEvent = tracer.beginTransaction() )
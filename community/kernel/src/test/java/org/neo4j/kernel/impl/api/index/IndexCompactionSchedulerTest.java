@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api.index;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+
+import org.neo4j.io.pagecache.IOLimiter;
+import org.neo4j.kernel.api.labelscan.LabelScanStore;
+import org.neo4j.kernel.impl.store.UnderlyingStorageException;
+import org.neo4j.kernel.internal.DatabaseHealth;
+import org.neo4j.logging.AssertableLogProvider;
+import org.neo4j.scheduler.JobScheduler;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+import static org.neo4j.logging.AssertableLogProvider.inLog;
+import static org.neo4j.scheduler.JobScheduler.Groups.indexCompaction;
+
+public class IndexCompactionSchedulerTest
+{
+    private static final long INTERVAL_MILLIS = 1_000;
+
+    private final LabelScanStore labelScanStore = mock( LabelScanStore.class );
+    private final IndexingService indexingService = mock( IndexingService.class );
+    private final IOLimiter ioLimiter = mock( IOLimiter.class );
+    private final JobScheduler scheduler = mock( JobScheduler.class );
+    private final DatabaseHealth health = mock( DatabaseHealth.class );
+    private final AssertableLogProvider logProvider = new AssertableLogProvider();
+
+    @Before
+    public void setUp()
+    {
+        when( scheduler.scheduleRecurring( any(), any(), anyLong(), anyLong(), any() ) )
+                .thenReturn( mock( JobScheduler.JobHandle.class ) );
+        when( scheduler.schedule( any(), any( Runnable.class ) ) ).thenReturn( mock( JobScheduler.JobHandle.class ) );
+        when( health.isHealthy() ).thenReturn( true );
+    }
+
+    @Test
+    public void shouldNotScheduleAnythingWhenDisabled() throws Throwable
+    {
+        // given
+        IndexCompactionScheduler compactionScheduler = new IndexCompactionScheduler( labelScanStore, indexingService,
+                ioLimiter, scheduler, 0, health, logProvider );
+
+        // when
+        compactionScheduler.start();
+        compactionScheduler.stop();
+
+        // then
+        verifyZeroInteractions( scheduler, labelScanStore, indexingService );
+    }
+
+    @Test
+    public void shouldCompactLabelScanStoreAndIndexesWithTheCheckPointLimiter() throws Throwable
+    {
+        // given
+        Runnable trigger = startCompactionScheduler();
+
+        // when
+        trigger.run();
+        scheduledCompaction().run();
+
+        // then
+        InOrder inOrder = inOrder( labelScanStore, indexingService );
+        inOrder.verify( labelScanStore ).compact( ioLimiter );
+        inOrder.verify( indexingService ).compactAll( ioLimiter );
+    }
+
+    @Test
+    public void shouldNotStartAnotherCompactionWhileCompacting() throws Throwable
+    {
+        // given
+        Runnable trigger = startCompactionScheduler();
+        trigger.run();
+
+        // when
+        trigger.run();
+
+        // then
+        verify( scheduler, times( 1 ) ).schedule( eq( indexCompaction ), any( Runnable.class ) );
+    }
+
+    @Test
+    public void shouldNotCompactWhenDatabaseIsUnhealthy() throws Throwable
+    {
+        // given
+        Runnable trigger = startCompactionScheduler();
+        when( health.isHealthy() ).thenReturn( false );
+
+        // when
+        trigger.run();
+
+        // then
+        verify( scheduler, never() ).schedule( eq( indexCompaction ), any( Runnable.class ) );
+    }
+
+    @Test
+    public void shouldNotCompactAfterStopped() throws Throwable
+    {
+        // given
+        IndexCompactionScheduler compactionScheduler = new IndexCompactionScheduler( labelScanStore, indexingService,
+                ioLimiter, scheduler, INTERVAL_MILLIS, health, logProvider );
+        compactionScheduler.start();
+        Runnable trigger = capturedTrigger();
+        trigger.run();
+        Runnable compaction = scheduledCompaction();
+
+        // when
+        compactionScheduler.stop();
+        compaction.run();
+
+        // then
+        verify( labelScanStore, never() ).compact( any() );
+        verify( indexingService, never() ).compactAll( any() );
+    }
+
+    @Test
+    public void shouldLogFailedCompactionAndCompactAgainLater() throws Throwable
+    {
+        // given
+        UnderlyingStorageException failure = new UnderlyingStorageException( "No space left on device" );
+        doThrow( failure ).when( labelScanStore ).compact( ioLimiter );
+        Runnable trigger = startCompactionScheduler();
+        trigger.run();
+
+        // when
+        scheduledCompaction().run();
+        trigger.run();
+
+        // then
+        logProvider.assertAtLeastOnce(
+                inLog( IndexCompactionScheduler.class ).warn( equalTo( "Background compaction of the indexes failed" ),
+                sameInstance( failure ) ) );
+        verify( scheduler, times( 2 ) ).schedule( eq( indexCompaction ), any( Runnable.class ) );
+    }
+
+    private Runnable startCompactionScheduler() throws Throwable
+    {
+        IndexCompactionScheduler compactionScheduler = new IndexCompactionScheduler( labelScanStore, indexingService,
+                ioLimiter, scheduler, INTERVAL_MILLIS, health, logProvider );
+        compactionScheduler.start();
+        return capturedTrigger();
+    }
+
+    private Runnable capturedTrigger()
+    {
+        ArgumentCaptor<Runnable> trigger = ArgumentCaptor.forClass( Runnable.class );
+        verify( scheduler ).scheduleRecurring( eq( indexCompaction ), trigger.capture(),
+                eq( INTERVAL_MILLIS ), eq( INTERVAL_MILLIS ), any() );
+        return trigger.getValue();
+    }
+
+    private Runnable scheduledCompaction()
+    {
+        ArgumentCaptor<Runnable> compaction = ArgumentCaptor.forClass( Runnable.class );
+        verify( scheduler, times( 1 ) ).schedule( eq( indexCompaction ), compaction.capture() );
+        return compaction.getValue();
+    }
+}
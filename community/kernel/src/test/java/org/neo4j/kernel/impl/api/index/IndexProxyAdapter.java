@@ -26,6 +26,7 @@ import org.neo4j.graphdb.ResourceIterator;
 import org.neo4j.internal.kernel.api.IndexCapability;
 import org.neo4j.internal.kernel.api.InternalIndexState;
 import org.neo4j.internal.kernel.api.schema.LabelSchemaDescriptor;
+import org.neo4j.io.pagecache.IOLimiter;
 import org.neo4j.kernel.api.index.IndexUpdater;
 import org.neo4j.kernel.api.index.SchemaIndexProvider;
 import org.neo4j.kernel.api.schema.index.IndexDescriptor;
@@ -49,6 +50,12 @@ public class IndexProxyAdapter implements IndexProxy
         return SwallowingIndexUpdater.INSTANCE;
     }
 
+    @Override
+    public boolean supportsConcurrentUpdaters()
+    {
+        return false;
+    }
+
     @Override
     public Future<Void> drop()
     {
@@ -72,6 +79,11 @@ public class IndexProxyAdapter implements IndexProxy
     {
     }
 
+    @Override
+    public void compact( IOLimiter ioLimiter )
+    {
+    }
+
     @Override
     public void refresh()
     {
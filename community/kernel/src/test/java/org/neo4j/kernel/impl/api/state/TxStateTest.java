@@ -38,6 +38,7 @@ import java.util.Set;
 import org.neo4j.cursor.Cursor;
 import org.neo4j.helpers.collection.Iterables;
 import org.neo4j.helpers.collection.Pair;
+import org.neo4j.internal.kernel.api.IndexQuery;
 import org.neo4j.internal.kernel.api.schema.constraints.ConstraintDescriptor;
 import org.neo4j.kernel.api.schema.constaints.ConstraintDescriptorFactory;
 import org.neo4j.kernel.api.schema.constaints.UniquenessConstraintDescriptor;
@@ -51,6 +52,10 @@ import org.neo4j.storageengine.api.txstate.ReadableDiffSets;
 import org.neo4j.storageengine.api.txstate.TxStateVisitor;
 import org.neo4j.test.rule.RandomRule;
 import org.neo4j.test.rule.RepeatRule;
+import org.neo4j.values.storable.CoordinateReferenceSystem;
+import org.neo4j.values.storable.DateValue;
+import org.neo4j.values.storable.LocalTimeValue;
+import org.neo4j.values.storable.PointValue;
 import org.neo4j.values.storable.Value;
 import org.neo4j.values.storable.ValueTuple;
 import org.neo4j.values.storable.Values;
@@ -931,6 +936,137 @@ public class TxStateTest
 
     //endregion
 
+    //region range seek by geometry index update tests
+
+    @Test
+    public void shouldComputeIndexUpdatesForRangeSeekByGeometryWhenThereAreNoMatchingNodes() throws Exception
+    {
+        // GIVEN
+        addNodesToIndex( indexOn_1_1 ).withPointProperties( asList( of( 42L, cartesian( 10, 10 ) ), of( 43L, cartesian( -10, 5 ) ) ) );
+        addNodesToIndex( indexOn_1_2 ).withPointProperties( singletonList( of( 44L, cartesian( 1, 1 ) ) ) );
+
+        // WHEN
+        PrimitiveLongReadableDiffSets diffSets = state.indexUpdatesForRangeSeekByGeometry( indexOn_1_1,
+                IndexQuery.range( 1, cartesian( 0, 0 ), true, cartesian( 5, 5 ), true ) );
+
+        // THEN
+        assertEquals( emptySet(), toSet( diffSets.getAdded() ) );
+    }
+
+    @Test
+    public void shouldComputeIndexUpdatesForRangeSeekByGeometryWhenThereArePartiallyMatchingNewNodes() throws Exception
+    {
+        // GIVEN
+        addNodesToIndex( indexOn_1_1 ).withBooleanProperties( asList( of( 39L, true ), of( 38L, false ) ) );
+        addNodesToIndex( indexOn_1_1 ).withNumberProperties( asList( of( 40L, 2 ), of( 41L, 3.0 ) ) );
+        addNodesToIndex( indexOn_1_1 ).withPointProperties( asList(
+                of( 42L, cartesian( 1, 1 ) ), of( 43L, cartesian( 5, 2 ) ), of( 44L, cartesian( 6, 2 ) ),
+                of( 45L, cartesian( 2, -1 ) ), of( 46L, Values.pointValue( CoordinateReferenceSystem.WGS84, 1, 1 ) ) ) );
+        addNodesToIndex( indexOn_1_2 ).withPointProperties( singletonList( of( 47L, cartesian( 1, 1 ) ) ) );
+
+        // WHEN
+        PrimitiveLongReadableDiffSets diffSets = state.indexUpdatesForRangeSeekByGeometry( indexOn_1_1,
+                IndexQuery.range( 1, cartesian( 0, 0 ), true, cartesian( 5, 5 ), false ) );
+
+        // THEN
+        assertEquals( asSet( 42L ), toSet( diffSets.getAdded() ) );
+    }
+
+    //endregion
+
+    //region range seek by temporal index update tests
+
+    @Test
+    public void shouldComputeIndexUpdatesForRangeSeekByTemporalWhenThereAreNoMatchingNodes() throws Exception
+    {
+        // GIVEN
+        addNodesToIndex( indexOn_1_1 ).withTemporalProperties( asList( of( 42L, epochDate( 10 ) ), of( 43L, epochDate( -10 ) ) ) );
+        addNodesToIndex( indexOn_1_2 ).withTemporalProperties( singletonList( of( 44L, epochDate( 1 ) ) ) );
+
+        // WHEN
+        PrimitiveLongReadableDiffSets diffSets = state.indexUpdatesForRangeSeekByTemporal( indexOn_1_1,
+                IndexQuery.range( 1, epochDate( 0 ), true, epochDate( 5 ), true ) );
+
+        // THEN
+        assertEquals( emptySet(), toSet( diffSets.getAdded() ) );
+    }
+
+    @Test
+    public void shouldComputeIndexUpdatesForRangeSeekByTemporalWhenThereArePartiallyMatchingNewNodes() throws Exception
+    {
+        // GIVEN
+        addNodesToIndex( indexOn_1_1 ).withBooleanProperties( asList( of( 39L, true ), of( 38L, false ) ) );
+        addNodesToIndex( indexOn_1_1 ).withNumberProperties( asList( of( 40L, 2 ), of( 41L, 3.0 ) ) );
+        addNodesToIndex( indexOn_1_1 ).withTemporalProperties( asList(
+                of( 42L, epochDate( 1 ) ), of( 43L, epochDate( 5 ) ), of( 44L, epochDate( 6 ) ),
+                of( 45L, epochDate( -1 ) ), of( 46L, LocalTimeValue.localTime( 1 ) ) ) );
+        addNodesToIndex( indexOn_1_2 ).withTemporalProperties( singletonList( of( 47L, epochDate( 1 ) ) ) );
+
+        // WHEN
+        PrimitiveLongReadableDiffSets diffSets = state.indexUpdatesForRangeSeekByTemporal( indexOn_1_1,
+                IndexQuery.range( 1, epochDate( 0 ), true, epochDate( 5 ), false ) );
+
+        // THEN
+        assertEquals( asSet( 42L ), toSet( diffSets.getAdded() ) );
+    }
+
+    @Test
+    public void shouldComputeIndexUpdatesForRangeSeekByTemporalWithoutUpperBound() throws Exception
+    {
+        // GIVEN
+        addNodesToIndex( indexOn_1_1 ).withTemporalProperties( asList(
+                of( 42L, epochDate( 1 ) ), of( 43L, epochDate( 5 ) ), of( 44L, epochDate( -1 ) ),
+                of( 45L, LocalTimeValue.localTime( 1 ) ) ) );
+
+        // WHEN
+        PrimitiveLongReadableDiffSets diffSets = state.indexUpdatesForRangeSeekByTemporal( indexOn_1_1,
+                IndexQuery.range( 1, epochDate( 1 ), false, null, false ) );
+
+        // THEN
+        assertEquals( asSet( 43L ), toSet( diffSets.getAdded() ) );
+    }
+
+    //endregion
+
+    //region range seek by composite index update tests
+
+    @Test
+    public void shouldComputeIndexUpdatesForCompositeRangeSeekByNumberAfterExactValue() throws Exception
+    {
+        // GIVEN
+        addNodeToCompositeIndex( 42L, "a", 10 );
+        addNodeToCompositeIndex( 43L, "a", 20 );
+        addNodeToCompositeIndex( 44L, "b", 15 );
+        addNodeToCompositeIndex( 45L, "a", "15" );
+        addNodeToCompositeIndex( 46L, "a", 19.5 );
+        addNodesToIndex( indexOn_1_1 ).withStringProperties( singletonList( of( 47L, "a" ) ) );
+
+        // WHEN
+        PrimitiveLongReadableDiffSets diffSets = state.indexUpdatesForCompositeRangeSeek( indexOn_1_1_2,
+                new IndexQuery[]{IndexQuery.exact( 1, "a" ), IndexQuery.range( 2, 10, true, 20, false )} );
+
+        // THEN
+        assertEquals( asSet( 42L, 46L ), toSet( diffSets.getAdded() ) );
+    }
+
+    @Test
+    public void shouldComputeIndexUpdatesForCompositeRangeSeekByExistsAfterExactValue() throws Exception
+    {
+        // GIVEN
+        addNodeToCompositeIndex( 42L, "a", 1 );
+        addNodeToCompositeIndex( 43L, "b", 1 );
+        addNodeToCompositeIndex( 44L, "a", true );
+
+        // WHEN
+        PrimitiveLongReadableDiffSets diffSets = state.indexUpdatesForCompositeRangeSeek( indexOn_1_1_2,
+                new IndexQuery[]{IndexQuery.exact( 1, "a" ), IndexQuery.exists( 2 )} );
+
+        // THEN
+        assertEquals( asSet( 42L, 44L ), toSet( diffSets.getAdded() ) );
+    }
+
+    //endregion
+
     //region miscellaneous
 
     @Test
@@ -1645,6 +1781,7 @@ public class TxStateTest
     private final IndexDescriptor indexOn_1_1 = IndexDescriptorFactory.forLabel( 1, 1 );
     private final IndexDescriptor indexOn_1_2 = IndexDescriptorFactory.forLabel( 1, 2 );
     private final IndexDescriptor indexOn_2_1 = IndexDescriptorFactory.forLabel( 2, 1 );
+    private final IndexDescriptor indexOn_1_1_2 = IndexDescriptorFactory.forLabel( 1, 1, 2 );
 
     private TransactionState state;
 
@@ -1663,6 +1800,32 @@ public class TxStateTest
         <T extends Number> void withNumberProperties( Collection<Pair<Long,T>> nodesWithValues );
 
         void withBooleanProperties( Collection<Pair<Long,Boolean>> nodesWithValues );
+
+        void withPointProperties( Collection<Pair<Long,PointValue>> nodesWithValues );
+
+        void withTemporalProperties( Collection<Pair<Long,Value>> nodesWithValues );
+    }
+
+    private static PointValue cartesian( double x, double y )
+    {
+        return Values.pointValue( CoordinateReferenceSystem.Cartesian, x, y );
+    }
+
+    private static Value epochDate( long epochDay )
+    {
+        return DateValue.epochDate( epochDay );
+    }
+
+    private void addNodeToCompositeIndex( long nodeId, Object... values )
+    {
+        state.nodeDoCreate( nodeId );
+        state.nodeDoAddLabel( indexOn_1_1_2.schema().getLabelId(), nodeId );
+        int[] propertyKeyIds = indexOn_1_1_2.schema().getPropertyIds();
+        for ( int i = 0; i < values.length; i++ )
+        {
+            state.nodeDoAddProperty( nodeId, propertyKeyIds[i], Values.of( values[i] ) );
+        }
+        state.indexDoUpdateEntry( indexOn_1_1_2.schema(), nodeId, null, ValueTuple.of( values ) );
     }
 
     private IndexUpdater addNodesToIndex( final IndexDescriptor descriptor )
@@ -1698,6 +1861,18 @@ public class TxStateTest
                 withProperties( nodesWithValues );
             }
 
+            @Override
+            public void withPointProperties( Collection<Pair<Long,PointValue>> nodesWithValues )
+            {
+                withProperties( nodesWithValues );
+            }
+
+            @Override
+            public void withTemporalProperties( Collection<Pair<Long,Value>> nodesWithValues )
+            {
+                withProperties( nodesWithValues );
+            }
+
             private <T> void withProperties( Collection<Pair<Long,T>> nodesWithValues )
             {
                 final int labelId = descriptor.schema().getLabelId();
@@ -1707,7 +1882,7 @@ public class TxStateTest
                     long nodeId = entry.first();
                     state.nodeDoCreate( nodeId );
                     state.nodeDoAddLabel( labelId, nodeId );
-                    Value valueAfter = Values.of( entry.other() );
+                    Value valueAfter = entry.other() instanceof Value ? (Value) entry.other() : Values.of( entry.other() );
                     state.nodeDoAddProperty( nodeId, propertyKeyId, valueAfter );
                     state.indexDoUpdateEntry( descriptor.schema(), nodeId, null,
                             ValueTuple.of( valueAfter ) );
@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.io.pagecache.ByteArrayPageCursor;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.ValueGroup;
+import org.neo4j.values.storable.ValueTuple;
+import org.neo4j.values.storable.Values;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith( Parameterized.class )
+public class CompositeLayoutTest
+{
+    @Parameterized.Parameter()
+    public String name;
+
+    @Parameterized.Parameter( 1 )
+    public CompositeLayout layout;
+
+    @Parameterized.Parameters( name = "{0}" )
+    public static List<Object[]> layouts()
+    {
+        return asList(
+                new Object[]{"Unique",
+                        new CompositeLayoutUnique()
+                },
+                new Object[]{"NonUnique",
+                        new CompositeLayoutNonUnique()
+                }
+        );
+    }
+
+    private final List<Value> slotValues = asList(
+            Values.stringValue( "" ),
+            Values.stringValue( "a" ),
+            Values.stringValue( "ab" ),
+            Values.stringValue( "b" ),
+            Values.stringValue( "å" ),
+            Values.booleanValue( false ),
+            Values.booleanValue( true ),
+            Values.doubleValue( Double.NEGATIVE_INFINITY ),
+            Values.longValue( Long.MIN_VALUE ),
+            Values.doubleValue( -1.5 ),
+            Values.intValue( 0 ),
+            Values.floatValue( 0.5f ),
+            Values.byteValue( (byte) 1 ),
+            Values.longValue( Long.MAX_VALUE ),
+            Values.doubleValue( Double.NaN ) );
+
+    private final List<Value[]> tuples = tuples( slotValues );
+
+    @Test
+    public void mustSortInSameOrderAsValueTuples()
+    {
+        List<CompositeSchemaKey> keys = keys( tuples );
+        for ( int i = 0; i < tuples.size(); i++ )
+        {
+            for ( int j = 0; j < tuples.size(); j++ )
+            {
+                ValueTuple left = ValueTuple.of( tuples.get( i ) );
+                ValueTuple right = ValueTuple.of( tuples.get( j ) );
+                int expected = Integer.signum( ValueTuple.COMPARATOR.compare( left, right ) );
+                if ( expected != 0 )
+                {
+                    assertEquals( left + " compared to " + right, expected, Integer.signum( layout.compare( keys.get( i ), keys.get( j ) ) ) );
+                }
+            }
+        }
+    }
+
+    @Test
+    public void mustPlaceLowestAndHighestAroundAllValues()
+    {
+        CompositeSchemaKey lowest = layout.newKey();
+        lowest.initAsLowest();
+        CompositeSchemaKey highest = layout.newKey();
+        highest.initAsHighest();
+        for ( CompositeSchemaKey key : keys( tuples ) )
+        {
+            assertTrue( key.toString(), layout.compare( lowest, key ) < 0 );
+            assertTrue( key.toString(), layout.compare( highest, key ) > 0 );
+        }
+    }
+
+    @Test
+    public void mustPlaceSlotBoundsAroundTuplesWithSameFirstValueAndSecondValueOfThatGroup()
+    {
+        for ( Value first : slotValues )
+        {
+            for ( ValueGroup valueGroup : asList( ValueGroup.TEXT, ValueGroup.BOOLEAN, ValueGroup.NUMBER, ValueGroup.UNKNOWN ) )
+            {
+                CompositeSchemaKey lowest = boundKey( first, valueGroup, true );
+                CompositeSchemaKey highest = boundKey( first, valueGroup, false );
+                for ( CompositeSchemaKey key : keys( tuples ) )
+                {
+                    Value[] values = key.asValues();
+                    boolean expected = Values.COMPARATOR.compare( values[0], first ) == 0 &&
+                            (valueGroup == ValueGroup.UNKNOWN || values[1].valueGroup() == valueGroup);
+                    boolean inRange = layout.compare( lowest, key ) < 0 && layout.compare( highest, key ) > 0;
+                    assertEquals( first + " " + valueGroup + " bounds around " + key, expected, inRange );
+                }
+            }
+        }
+    }
+
+    @Test
+    public void mustReadWhatWasWritten()
+    {
+        PageCursor cursor = ByteArrayPageCursor.wrap( 1024 );
+        CompositeSchemaKey readKey = layout.newKey();
+        for ( CompositeSchemaKey key : keys( tuples ) )
+        {
+            cursor.setOffset( 0 );
+            layout.writeKey( cursor, key );
+            assertEquals( layout.keySize( key ), cursor.getOffset() );
+
+            cursor.setOffset( 0 );
+            layout.readKey( cursor, readKey, layout.keySize( key ) );
+            assertEquals( 0, layout.compare( key, readKey ) );
+            assertEquals( key.getEntityId(), readKey.getEntityId() );
+            assertEquals( 0, ValueTuple.COMPARATOR.compare( ValueTuple.of( key.asValues() ), ValueTuple.of( readKey.asValues() ) ) );
+        }
+    }
+
+    @Test
+    public void mustGiveBackTheValuesOfTheKey()
+    {
+        List<CompositeSchemaKey> keys = keys( tuples );
+        for ( int i = 0; i < tuples.size(); i++ )
+        {
+            assertEquals( 0, ValueTuple.COMPARATOR.compare( ValueTuple.of( tuples.get( i ) ), ValueTuple.of( keys.get( i ).asValues() ) ) );
+        }
+    }
+
+    @Test
+    public void mustCopyKey()
+    {
+        CompositeSchemaKey copy = layout.newKey();
+        for ( CompositeSchemaKey key : keys( tuples ) )
+        {
+            layout.copyKey( key, copy );
+            assertEquals( 0, layout.compare( key, copy ) );
+            assertEquals( key.getEntityId(), copy.getEntityId() );
+            assertEquals( layout.keySize( key ), layout.keySize( copy ) );
+        }
+    }
+
+    private CompositeSchemaKey boundKey( Value first, ValueGroup valueGroup, boolean lowest )
+    {
+        CompositeSchemaKey key = layout.newKey();
+        key.initialize( 2 );
+        key.writeSlot( 0, first );
+        if ( lowest )
+        {
+            key.initSlotAsLowest( 1, valueGroup );
+            key.setEntityId( Long.MIN_VALUE );
+        }
+        else
+        {
+            key.initSlotAsHighest( 1, valueGroup );
+            key.setEntityId( Long.MAX_VALUE );
+        }
+        key.setEntityIdIsSpecialTieBreaker( true );
+        return key;
+    }
+
+    private static List<Value[]> tuples( List<Value> slotValues )
+    {
+        List<Value[]> tuples = new ArrayList<>();
+        for ( Value first : slotValues )
+        {
+            for ( Value second : slotValues )
+            {
+                tuples.add( new Value[]{first, second} );
+            }
+        }
+        return tuples;
+    }
+
+    private List<CompositeSchemaKey> keys( List<Value[]> tuples )
+    {
+        List<CompositeSchemaKey> keys = new ArrayList<>();
+        long entityId = 0;
+        for ( Value[] tuple : tuples )
+        {
+            CompositeSchemaKey key = layout.newKey();
+            key.from( entityId++, tuple );
+            keys.add( key );
+        }
+        return keys;
+    }
+}
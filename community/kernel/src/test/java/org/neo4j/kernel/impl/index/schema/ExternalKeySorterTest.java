@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+import org.neo4j.cursor.RawCursor;
+import org.neo4j.index.internal.gbptree.Hit;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.test.Randoms;
+import org.neo4j.test.rule.PageCacheRule;
+import org.neo4j.test.rule.RandomRule;
+import org.neo4j.test.rule.TestDirectory;
+import org.neo4j.test.rule.fs.DefaultFileSystemRule;
+import org.neo4j.values.storable.Values;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.rules.RuleChain.outerRule;
+
+public class ExternalKeySorterTest
+{
+    private final DefaultFileSystemRule fs = new DefaultFileSystemRule();
+    private final TestDirectory directory = TestDirectory.testDirectory( getClass(), fs.get() );
+    private final PageCacheRule pageCacheRule = new PageCacheRule();
+    private final RandomRule random = new RandomRule();
+    @Rule
+    public final RuleChain rules = outerRule( fs ).around( directory ).around( pageCacheRule ).around( random );
+
+    private final StringLayout layout = new StringLayoutNonUnique();
+    private PageCache pageCache;
+    private File file;
+
+    @Before
+    public void setup()
+    {
+        pageCache = pageCacheRule.getPageCache( fs );
+        file = directory.file( "sort" );
+    }
+
+    @Test
+    public void shouldSortKeysInMemory() throws Exception
+    {
+        try ( ExternalKeySorter<StringSchemaKey,NativeSchemaValue> sorter =
+                      new ExternalKeySorter<>( pageCache, file, layout, ExternalKeySorter.DEFAULT_MEMORY_LIMIT ) )
+        {
+            // when
+            TreeSet<StringSchemaKey> expected = addRandomKeys( sorter, 1_000 );
+
+            // then
+            assertSorted( expected, sorter );
+            assertFalse( fs.fileExists( file ) );
+        }
+    }
+
+    @Test
+    public void shouldMergeSortedRunsOfKeysWrittenToFile() throws Exception
+    {
+        ExternalKeySorter<StringSchemaKey,NativeSchemaValue> sorter = new ExternalKeySorter<>( pageCache, file, layout, 4_000 );
+        try
+        {
+            // when
+            TreeSet<StringSchemaKey> expected = addRandomKeys( sorter, 5_000 );
+
+            // then
+            assertTrue( fs.fileExists( file ) );
+            assertSorted( expected, sorter );
+        }
+        finally
+        {
+            sorter.close();
+        }
+        assertFalse( fs.fileExists( file ) );
+    }
+
+    private TreeSet<StringSchemaKey> addRandomKeys( ExternalKeySorter<StringSchemaKey,NativeSchemaValue> sorter, int count )
+            throws IOException
+    {
+        TreeSet<StringSchemaKey> expected = new TreeSet<>( layout );
+        List<StringSchemaKey> added = new ArrayList<>();
+        for ( int i = 0; i < count; i++ )
+        {
+            StringSchemaKey key;
+            if ( !added.isEmpty() && random.nextInt( 10 ) == 0 )
+            {
+                // The very same key again, which should only be included once
+                key = added.get( random.nextInt( added.size() ) );
+            }
+            else
+            {
+                key = layout.newKey();
+                key.from( random.nextInt( count ), Values.stringValue( random.string( 0, 300, Randoms.CSA_LETTERS_AND_DIGITS ) ) );
+                added.add( key );
+            }
+            sorter.add( key );
+            expected.add( key );
+        }
+        return expected;
+    }
+
+    private void assertSorted( TreeSet<StringSchemaKey> expected, ExternalKeySorter<StringSchemaKey,NativeSchemaValue> sorter )
+            throws IOException
+    {
+        List<StringSchemaKey> actual = new ArrayList<>();
+        try ( RawCursor<Hit<StringSchemaKey,NativeSchemaValue>,IOException> sorted = sorter.sorted() )
+        {
+            while ( sorted.next() )
+            {
+                actual.add( layout.copyKey( sorted.get().key(), layout.newKey() ) );
+            }
+        }
+        assertEquals( expected.size(), actual.size() );
+        int i = 0;
+        for ( StringSchemaKey key : expected )
+        {
+            assertEquals( 0, layout.compare( key, actual.get( i++ ) ) );
+        }
+    }
+}
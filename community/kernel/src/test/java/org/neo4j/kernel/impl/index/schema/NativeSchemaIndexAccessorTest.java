@@ -34,7 +34,9 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CyclicBarrier;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -44,6 +46,7 @@ import org.neo4j.collection.primitive.PrimitiveLongIterator;
 import org.neo4j.graphdb.ResourceIterator;
 import org.neo4j.internal.kernel.api.IndexOrder;
 import org.neo4j.internal.kernel.api.IndexQuery;
+import org.neo4j.io.pagecache.IOLimiter;
 import org.neo4j.kernel.api.exceptions.index.IndexEntryConflictException;
 import org.neo4j.kernel.api.exceptions.index.IndexNotApplicableKernelException;
 import org.neo4j.kernel.api.index.IndexEntryUpdate;
@@ -57,6 +60,7 @@ import org.neo4j.storageengine.api.schema.IndexReader;
 import org.neo4j.storageengine.api.schema.IndexSample;
 import org.neo4j.storageengine.api.schema.IndexSampler;
 import org.neo4j.storageengine.api.schema.SimpleNodeValueClient;
+import org.neo4j.test.Race;
 import org.neo4j.values.storable.Value;
 import org.neo4j.values.storable.Values;
 
@@ -74,6 +78,7 @@ import static org.neo4j.kernel.api.index.IndexEntryUpdate.change;
 import static org.neo4j.kernel.api.index.IndexEntryUpdate.remove;
 import static org.neo4j.kernel.impl.api.index.IndexUpdateMode.ONLINE;
 import static org.neo4j.kernel.impl.index.schema.LayoutTestUtil.countUniqueValues;
+import static org.neo4j.test.Race.throwing;
 import static org.neo4j.values.storable.Values.COMPARATOR;
 import static org.neo4j.values.storable.Values.of;
 
@@ -210,6 +215,40 @@ public abstract class NativeSchemaIndexAccessorTest<KEY extends NativeSchemaKey,
         }
     }
 
+    @Test
+    public void shouldKeepRemainingEntriesWhenCompacting() throws Exception
+    {
+        // given an index where most of the entries have been removed
+        Iterator<IndexEntryUpdate<IndexDescriptor>> generator = layoutUtil.randomUpdateGenerator( random );
+        @SuppressWarnings( "unchecked" )
+        IndexEntryUpdate<IndexDescriptor>[] updates = new IndexEntryUpdate[5_000];
+        for ( int i = 0; i < updates.length; i++ )
+        {
+            updates[i] = generator.next();
+        }
+        processAll( updates );
+        List<IndexEntryUpdate<IndexDescriptor>> remaining = new ArrayList<>();
+        for ( int i = 0; i < updates.length; i++ )
+        {
+            IndexEntryUpdate<IndexDescriptor> update = updates[i];
+            if ( i % 10 == 0 )
+            {
+                remaining.add( update );
+            }
+            else
+            {
+                processAll( remove( update.getEntityId(), indexDescriptor, update.values() ) );
+            }
+        }
+
+        // when
+        accessor.compact( IOLimiter.unlimited() );
+        forceAndCloseAccessor();
+
+        // then
+        verifyUpdates( remaining.toArray( new IndexEntryUpdate[remaining.size()] ) );
+    }
+
     @SuppressWarnings( "unchecked" )
     @Test
     public void shouldHandleRandomUpdates() throws Exception
@@ -567,17 +606,42 @@ public abstract class NativeSchemaIndexAccessorTest<KEY extends NativeSchemaKey,
     }
 
     @Test
-    public void requestForSecondUpdaterMustThrow() throws Exception
+    public void shouldApplyUpdatesFromConcurrentUpdatersInSeveralThreads() throws Throwable
     {
         // given
-        try ( IndexUpdater ignored = accessor.newUpdater( ONLINE ) )
+        int threads = 4;
+        Iterator<IndexEntryUpdate<IndexDescriptor>> generator = layoutUtil.randomUpdateGenerator( random );
+        @SuppressWarnings( "unchecked" )
+        IndexEntryUpdate<IndexDescriptor>[] updates = new IndexEntryUpdate[5_000];
+        for ( int i = 0; i < updates.length; i++ )
         {
-            // then
-            expected.expect( IllegalStateException.class );
+            updates[i] = generator.next();
+        }
+        assertTrue( accessor.supportsConcurrentUpdaters() );
 
-            // when
-            accessor.newUpdater( ONLINE );
+        // when every thread has its own updater open at the same time, and applies its share of the updates
+        CyclicBarrier allUpdatersOpen = new CyclicBarrier( threads );
+        Race race = new Race();
+        for ( int thread = 0; thread < threads; thread++ )
+        {
+            int first = thread;
+            race.addContestant( throwing( () ->
+            {
+                try ( IndexUpdater updater = accessor.newUpdater( ONLINE ) )
+                {
+                    allUpdatersOpen.await();
+                    for ( int i = first; i < updates.length; i += threads )
+                    {
+                        updater.process( updates[i] );
+                    }
+                }
+            } ) );
         }
+        race.go();
+
+        // then
+        forceAndCloseAccessor();
+        verifyUpdates( updates );
     }
 
     @Test
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.io.pagecache.ByteArrayPageCursor;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.values.storable.CoordinateReferenceSystem;
+import org.neo4j.values.storable.PointValue;
+import org.neo4j.values.storable.Values;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith( Parameterized.class )
+public class SpatialLayoutTest
+{
+    @Parameterized.Parameter()
+    public String name;
+
+    @Parameterized.Parameter( 1 )
+    public SpatialLayout layout;
+
+    @Parameterized.Parameters( name = "{0}" )
+    public static List<Object[]> layouts()
+    {
+        return asList(
+                new Object[]{"Unique",
+                        new SpatialLayoutUnique()
+                },
+                new Object[]{"NonUnique",
+                        new SpatialLayoutNonUnique()
+                }
+        );
+    }
+
+    private final List<PointValue> points = asList(
+            Values.pointValue( CoordinateReferenceSystem.WGS84, -180, -90 ),
+            Values.pointValue( CoordinateReferenceSystem.WGS84, 0, 0 ),
+            Values.pointValue( CoordinateReferenceSystem.WGS84, 12.78, 56.7 ),
+            Values.pointValue( CoordinateReferenceSystem.WGS84, 12.78, 56.71 ),
+            Values.pointValue( CoordinateReferenceSystem.WGS84, 180, 90 ),
+            Values.pointValue( CoordinateReferenceSystem.Cartesian, -1_000_000, -1_000_000 ),
+            Values.pointValue( CoordinateReferenceSystem.Cartesian, -1, 1 ),
+            Values.pointValue( CoordinateReferenceSystem.Cartesian, 0, 0 ),
+            Values.pointValue( CoordinateReferenceSystem.Cartesian, 1, -1 ),
+            Values.pointValue( CoordinateReferenceSystem.Cartesian, 1_000_000, 1_000_000 ) );
+
+    @Test
+    public void mustSortPointsByCurveValueWithinCoordinateReferenceSystem()
+    {
+        List<SpatialSchemaKey> keys = keys( points );
+        for ( SpatialSchemaKey a : keys )
+        {
+            for ( SpatialSchemaKey b : keys )
+            {
+                PointValue pointA = a.asValue();
+                PointValue pointB = b.asValue();
+                CoordinateReferenceSystem crs = pointA.getCoordinateReferenceSystem();
+                if ( crs.equals( pointB.getCoordinateReferenceSystem() ) )
+                {
+                    long curveA = SpatialCurves.curveFor( crs ).derivedValueFor( pointA.coordinate() );
+                    long curveB = SpatialCurves.curveFor( crs ).derivedValueFor( pointB.coordinate() );
+                    if ( curveA != curveB )
+                    {
+                        assertEquals( a + " compared to " + b, Long.signum( Long.compare( curveA, curveB ) ),
+                                Integer.signum( layout.compare( a, b ) ) );
+                    }
+                }
+                else
+                {
+                    // All points of a coordinate reference system must be next to each other
+                    int expected = Integer.signum( layout.compare( a, b ) );
+                    for ( SpatialSchemaKey other : keys )
+                    {
+                        if ( other.asValue().getCoordinateReferenceSystem().equals( crs ) )
+                        {
+                            assertEquals( other + " compared to " + b, expected, Integer.signum( layout.compare( other, b ) ) );
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void mustPlaceLowestAndHighestAroundAllPoints()
+    {
+        SpatialSchemaKey lowest = layout.newKey();
+        lowest.initAsLowest();
+        SpatialSchemaKey highest = layout.newKey();
+        highest.initAsHighest();
+        for ( SpatialSchemaKey key : keys( points ) )
+        {
+            assertTrue( key.toString(), layout.compare( lowest, key ) < 0 );
+            assertTrue( key.toString(), layout.compare( highest, key ) > 0 );
+        }
+    }
+
+    @Test
+    public void mustPlaceTileBoundsAroundAllPointsInTile()
+    {
+        for ( SpatialSchemaKey key : keys( points ) )
+        {
+            PointValue point = key.asValue();
+            CoordinateReferenceSystem crs = point.getCoordinateReferenceSystem();
+            long curveValue = SpatialCurves.curveFor( crs ).derivedValueFor( point.coordinate() );
+            SpatialSchemaKey tileStart = layout.newKey();
+            tileStart.initAsTileBound( crs, curveValue );
+            SpatialSchemaKey nextTileStart = layout.newKey();
+            nextTileStart.initAsTileBound( crs, curveValue + 1 );
+
+            assertTrue( key.toString(), layout.compare( tileStart, key ) < 0 );
+            assertTrue( key.toString(), layout.compare( nextTileStart, key ) > 0 );
+        }
+    }
+
+    @Test
+    public void mustReadWhatWasWritten()
+    {
+        PageCursor cursor = ByteArrayPageCursor.wrap( 1024 );
+        SpatialSchemaKey readKey = layout.newKey();
+        for ( SpatialSchemaKey key : keys( points ) )
+        {
+            cursor.setOffset( 0 );
+            layout.writeKey( cursor, key );
+            assertEquals( layout.keySize( key ), cursor.getOffset() );
+
+            cursor.setOffset( 0 );
+            layout.readKey( cursor, readKey, layout.keySize( key ) );
+            assertEquals( 0, layout.compare( key, readKey ) );
+            assertEquals( key.getEntityId(), readKey.getEntityId() );
+            assertEquals( key.asValue(), readKey.asValue() );
+        }
+    }
+
+    private List<SpatialSchemaKey> keys( List<PointValue> points )
+    {
+        List<SpatialSchemaKey> keys = new ArrayList<>();
+        long entityId = 0;
+        for ( PointValue point : points )
+        {
+            SpatialSchemaKey key = layout.newKey();
+            key.from( entityId++, point );
+            keys.add( key );
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.cursor.RawCursor;
+import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.index.internal.gbptree.Hit;
+import org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector;
+import org.neo4j.index.internal.gbptree.Writer;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.test.rule.PageCacheRule;
+import org.neo4j.test.rule.TestDirectory;
+import org.neo4j.test.rule.fs.DefaultFileSystemRule;
+import org.neo4j.test.rule.fs.FileSystemRule;
+import org.neo4j.values.storable.Values;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.rules.RuleChain.outerRule;
+import static org.neo4j.index.internal.gbptree.GBPTree.NO_HEADER_READER;
+import static org.neo4j.index.internal.gbptree.GBPTree.NO_HEADER_WRITER;
+
+/**
+ * Inserts keys equal to the shortened separators that {@link StringLayout#minimalSplitter(StringSchemaKey,
+ * StringSchemaKey, StringSchemaKey)} produces when leaves split, and checks that seeks find them in the right place.
+ */
+@RunWith( Parameterized.class )
+public class StringLayoutMinimalSplitterTreeTest
+{
+    private static final int KEY_COUNT = 2_000;
+    private static final long LONG_KEY_ENTITY_ID_OFFSET = 1_000_000;
+    private static final String LONG_KEY_SUFFIX = new String( new char[100] ).replace( '\0', 'x' );
+
+    @Parameterized.Parameter()
+    public String name;
+
+    @Parameterized.Parameter( 1 )
+    public StringLayout layout;
+
+    @Parameterized.Parameters( name = "{0}" )
+    public static List<Object[]> layouts()
+    {
+        return asList(
+                new Object[]{"Unique",
+                        new StringLayoutUnique()
+                },
+                new Object[]{"NonUnique",
+                        new StringLayoutNonUnique()
+                }
+        );
+    }
+
+    private final FileSystemRule fs = new DefaultFileSystemRule();
+    private final TestDirectory directory = TestDirectory.testDirectory( getClass(), fs.get() );
+    private final PageCacheRule pageCacheRule = new PageCacheRule();
+    @Rule
+    public final RuleChain rules = outerRule( fs ).around( directory ).around( pageCacheRule );
+
+    @Test
+    public void mustSeekKeysEqualToShortenedSeparatorsOnBothSidesOfThem() throws Exception
+    {
+        PageCache pageCache = pageCacheRule.getPageCache( fs );
+        try ( GBPTree<StringSchemaKey,NativeSchemaValue> tree = new GBPTree<>( pageCache, directory.file( "index" ),
+                layout, 0, GBPTree.NO_MONITOR, NO_HEADER_READER, NO_HEADER_WRITER, RecoveryCleanupWorkCollector.IMMEDIATE ) )
+        {
+            // given
+            // Adjacent long keys differ in the last digit before the suffix, so every leaf split shortens the
+            // separator to the digits, which is exactly a short key. Short keys get lower entity ids than the
+            // long keys the separators were taken from.
+            try ( Writer<StringSchemaKey,NativeSchemaValue> writer = tree.writer() )
+            {
+                for ( int i = 0; i < KEY_COUNT; i++ )
+                {
+                    writer.put( longKey( i ), NativeSchemaValue.INSTANCE );
+                }
+            }
+
+            // when
+            try ( Writer<StringSchemaKey,NativeSchemaValue> writer = tree.writer() )
+            {
+                for ( int i = 0; i < KEY_COUNT; i++ )
+                {
+                    writer.put( shortKey( i ), NativeSchemaValue.INSTANCE );
+                }
+            }
+
+            // then
+            for ( int i = 1; i < KEY_COUNT - 1; i++ )
+            {
+                assertHits( tree, shortKey( i ), shortKey( i ), shortKey( i ) );
+                assertHits( tree, longKey( i - 1 ), shortKey( i + 1 ), longKey( i - 1 ), shortKey( i ), longKey( i ) );
+                assertHits( tree, longKey( i ), shortKey( i - 1 ), longKey( i ), shortKey( i ), longKey( i - 1 ) );
+            }
+        }
+    }
+
+    private void assertHits( GBPTree<StringSchemaKey,NativeSchemaValue> tree, StringSchemaKey from,
+            StringSchemaKey to, StringSchemaKey... expected ) throws IOException
+    {
+        List<StringSchemaKey> hits = new ArrayList<>();
+        try ( RawCursor<Hit<StringSchemaKey,NativeSchemaValue>,IOException> seek = tree.seek( from, to ) )
+        {
+            while ( seek.next() )
+            {
+                hits.add( layout.copyKey( seek.get().key(), layout.newKey() ) );
+            }
+        }
+        assertEquals( "hits of seek from " + from + " to " + to + ": " + hits, expected.length, hits.size() );
+        for ( int i = 0; i < expected.length; i++ )
+        {
+            assertTrue( "expected " + expected[i] + " but was " + hits.get( i ),
+                    layout.compare( expected[i], hits.get( i ) ) == 0 &&
+                    expected[i].getEntityId() == hits.get( i ).getEntityId() );
+        }
+    }
+
+    private StringSchemaKey longKey( int i )
+    {
+        return key( String.format( "%05d", i ) + LONG_KEY_SUFFIX, LONG_KEY_ENTITY_ID_OFFSET + i );
+    }
+
+    private StringSchemaKey shortKey( int i )
+    {
+        return key( String.format( "%05d", i ), i );
+    }
+
+    private StringSchemaKey key( String string, long entityId )
+    {
+        StringSchemaKey key = layout.newKey();
+        key.from( entityId, Values.stringValue( string ) );
+        return key;
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.io.pagecache.ByteArrayPageCursor;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.values.storable.Values;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith( Parameterized.class )
+public class StringLayoutTest
+{
+    @Parameterized.Parameter()
+    public String name;
+
+    @Parameterized.Parameter( 1 )
+    public StringLayout layout;
+
+    @Parameterized.Parameters( name = "{0}" )
+    public static List<Object[]> layouts()
+    {
+        return asList(
+                new Object[]{"Unique",
+                        new StringLayoutUnique()
+                },
+                new Object[]{"NonUnique",
+                        new StringLayoutNonUnique()
+                }
+        );
+    }
+
+    // In code point order
+    private final List<String> strings = asList(
+            "",
+            "\u0000",
+            "A",
+            "AA",
+            "AB",
+            "B",
+            "a",
+            "ab",
+            "abc",
+            "abd",
+            "b",
+            "\u00e5",
+            "\u00e5a",
+            "\u2202",
+            "\uD83D\uDE00" );
+
+    @Test
+    public void mustSortStringsInCodePointOrder()
+    {
+        List<StringSchemaKey> keys = keys( strings );
+        for ( int i = 0; i < keys.size(); i++ )
+        {
+            for ( int j = 0; j < keys.size(); j++ )
+            {
+                int comparison = layout.compare( keys.get( i ), keys.get( j ) );
+                assertEquals( keys.get( i ) + " compared to " + keys.get( j ), Integer.signum( Integer.compare( i, j ) ),
+                        Integer.signum( comparison ) );
+            }
+        }
+    }
+
+    @Test
+    public void mustPlaceLowestAndHighestAroundAllStrings()
+    {
+        StringSchemaKey lowest = layout.newKey();
+        lowest.initAsLowest();
+        StringSchemaKey highest = layout.newKey();
+        highest.initAsHighest();
+        for ( StringSchemaKey key : keys( strings ) )
+        {
+            assertTrue( key.toString(), layout.compare( lowest, key ) < 0 );
+            assertTrue( key.toString(), layout.compare( highest, key ) > 0 );
+        }
+    }
+
+    @Test
+    public void mustPlacePrefixHighAfterAllStringsWithPrefixAndBeforeAllOthers()
+    {
+        for ( String prefix : strings )
+        {
+            StringSchemaKey prefixHigh = layout.newKey();
+            prefixHigh.initAsPrefixHigh( prefix );
+            for ( StringSchemaKey key : keys( strings ) )
+            {
+                String string = key.asValue().stringValue();
+                boolean hasPrefix = string.startsWith( prefix );
+                boolean isBefore = string.compareTo( prefix ) < 0;
+                int comparison = layout.compare( prefixHigh, key );
+                if ( hasPrefix || isBefore )
+                {
+                    assertTrue( "'" + string + "' should be before prefix high of '" + prefix + "'", comparison > 0 );
+                }
+                else
+                {
+                    assertTrue( "'" + string + "' should be after prefix high of '" + prefix + "'", comparison < 0 );
+                }
+            }
+        }
+    }
+
+    @Test
+    public void mustReadWhatWasWritten()
+    {
+        PageCursor cursor = ByteArrayPageCursor.wrap( 1024 );
+        StringSchemaKey readKey = layout.newKey();
+        for ( StringSchemaKey key : keys( strings ) )
+        {
+            cursor.setOffset( 0 );
+            layout.writeKey( cursor, key );
+            assertEquals( layout.keySize( key ), cursor.getOffset() );
+
+            cursor.setOffset( 0 );
+            layout.readKey( cursor, readKey, layout.keySize( key ) );
+            assertEquals( 0, layout.compare( key, readKey ) );
+            assertEquals( key.getEntityId(), readKey.getEntityId() );
+            assertEquals( key.asValue(), readKey.asValue() );
+        }
+    }
+
+    @Test
+    public void minimalSplitterMustSeparateAllOrderedPairsOfKeys()
+    {
+        List<StringSchemaKey> keys = keys( strings );
+        StringSchemaKey splitter = layout.newKey();
+        for ( int i = 0; i < keys.size(); i++ )
+        {
+            for ( int j = i + 1; j < keys.size(); j++ )
+            {
+                StringSchemaKey left = keys.get( i );
+                StringSchemaKey right = keys.get( j );
+                layout.minimalSplitter( left, right, splitter );
+                assertTrue( left + " should be before splitter " + splitter, layout.compare( left, splitter ) < 0 );
+                assertTrue( right + " should not be before splitter " + splitter, layout.compare( splitter, right ) <= 0 );
+                assertTrue( layout.keySize( splitter ) <= layout.keySize( right ) );
+            }
+        }
+    }
+
+    @Test
+    public void minimalSplitterMustShortenRightKeyToFirstDifferingByte()
+    {
+        StringSchemaKey splitter = layout.newKey();
+        layout.minimalSplitter( key( "abc", 0 ), key( "abdefg", 1 ), splitter );
+        assertEquals( Values.stringValue( "abd" ), splitter.asValue() );
+        layout.minimalSplitter( key( "ab", 0 ), key( "abdefg", 1 ), splitter );
+        assertEquals( Values.stringValue( "abd" ), splitter.asValue() );
+    }
+
+    @Test
+    public void minimalSplitterMustKeepEntityIdOfRightKeyForEqualValues()
+    {
+        StringSchemaKey left = key( "abc", 0 );
+        StringSchemaKey right = key( "abc", 1 );
+        StringSchemaKey splitter = layout.newKey();
+        layout.minimalSplitter( left, right, splitter );
+        assertEquals( right.asValue(), splitter.asValue() );
+        assertEquals( right.getEntityId(), splitter.getEntityId() );
+    }
+
+    @Test
+    public void minimalSplitterMustNotBeAfterKeysWithSameValueAsShortenedSplitter()
+    {
+        StringSchemaKey splitter = layout.newKey();
+        layout.minimalSplitter( key( "abc", 5 ), key( "abdefg", 6 ), splitter );
+        for ( long entityId : new long[]{0, 5, 6, Long.MAX_VALUE} )
+        {
+            StringSchemaKey key = key( "abd", entityId );
+            assertTrue( key + " should not be before splitter " + splitter, layout.compare( splitter, key ) <= 0 );
+        }
+    }
+
+    private StringSchemaKey key( String string, long entityId )
+    {
+        StringSchemaKey key = layout.newKey();
+        key.from( entityId, Values.stringValue( string ) );
+        return key;
+    }
+
+    private List<StringSchemaKey> keys( List<String> strings )
+    {
+        List<StringSchemaKey> keys = new ArrayList<>();
+        long entityId = 0;
+        for ( String string : strings )
+        {
+            StringSchemaKey key = layout.newKey();
+            key.from( entityId++, Values.stringValue( string ) );
+            keys.add( key );
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.io.pagecache.ByteArrayPageCursor;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.values.storable.DateTimeValue;
+import org.neo4j.values.storable.DateValue;
+import org.neo4j.values.storable.DurationValue;
+import org.neo4j.values.storable.LocalDateTimeValue;
+import org.neo4j.values.storable.LocalTimeValue;
+import org.neo4j.values.storable.TimeValue;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.ValueGroup;
+import org.neo4j.values.storable.Values;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith( Parameterized.class )
+public class TemporalLayoutTest
+{
+    @Parameterized.Parameter()
+    public String name;
+
+    @Parameterized.Parameter( 1 )
+    public TemporalLayout layout;
+
+    @Parameterized.Parameters( name = "{0}" )
+    public static List<Object[]> layouts()
+    {
+        return asList(
+                new Object[]{"Unique",
+                        new TemporalLayoutUnique()
+                },
+                new Object[]{"NonUnique",
+                        new TemporalLayoutNonUnique()
+                }
+        );
+    }
+
+    private final List<Value> values = asList(
+            DateTimeValue.datetime( -1, 999_999_999, ZoneOffset.UTC ),
+            DateTimeValue.datetime( 0, 0, ZoneOffset.UTC ),
+            DateTimeValue.datetime( 0, 0, ZoneOffset.ofHours( 2 ) ),
+            DateTimeValue.datetime( 0, 1, ZoneOffset.ofHours( -5 ) ),
+            DateTimeValue.datetime( 1_500_000_000, 0, ZoneOffset.ofHoursMinutes( 5, 30 ) ),
+            LocalDateTimeValue.localDateTime( -1, 999_999_999 ),
+            LocalDateTimeValue.localDateTime( 0, 0 ),
+            LocalDateTimeValue.localDateTime( 0, 1 ),
+            LocalDateTimeValue.localDateTime( 1_500_000_000, 0 ),
+            DateValue.epochDate( -10_000 ),
+            DateValue.epochDate( 0 ),
+            DateValue.epochDate( 17_000 ),
+            TimeValue.time( 23, 0, 0, 0, ZoneOffset.ofHours( -2 ) ),
+            TimeValue.time( 0, 0, 0, 0, ZoneOffset.UTC ),
+            TimeValue.time( 1, 0, 0, 0, ZoneOffset.ofHours( 1 ) ),
+            TimeValue.time( 12, 0, 0, 0, ZoneOffset.ofHours( 1 ) ),
+            TimeValue.time( 11, 0, 0, 1, ZoneOffset.UTC ),
+            TimeValue.time( 0, 30, 0, 0, ZoneOffset.ofHours( 14 ) ),
+            LocalTimeValue.localTime( 0 ),
+            LocalTimeValue.localTime( 1 ),
+            LocalTimeValue.localTime( 86_399_999_999_999L ),
+            DurationValue.duration( 0, 0, -1, -500 ),
+            DurationValue.duration( 0, 0, 0, 0 ),
+            DurationValue.duration( 0, 0, 0, 1 ),
+            DurationValue.duration( 0, 1, 0, 0 ),
+            DurationValue.duration( 0, 0, 86_400, 0 ),
+            DurationValue.duration( 1, 0, 0, 0 ),
+            DurationValue.duration( 0, 30, 37_800, 0 ),
+            DurationValue.duration( -2, 14, 0, 0 ) );
+
+    @Test
+    public void mustSortInSameOrderAsValues()
+    {
+        List<TemporalSchemaKey> keys = keys( values );
+        for ( int i = 0; i < values.size(); i++ )
+        {
+            for ( int j = 0; j < values.size(); j++ )
+            {
+                int expected = Integer.signum( Values.COMPARATOR.compare( values.get( i ), values.get( j ) ) );
+                if ( expected != 0 )
+                {
+                    assertEquals( values.get( i ) + " compared to " + values.get( j ), expected,
+                            Integer.signum( layout.compare( keys.get( i ), keys.get( j ) ) ) );
+                }
+            }
+        }
+    }
+
+    @Test
+    public void mustPlaceLowestAndHighestAroundAllValues()
+    {
+        TemporalSchemaKey lowest = layout.newKey();
+        lowest.initAsLowest();
+        TemporalSchemaKey highest = layout.newKey();
+        highest.initAsHighest();
+        for ( TemporalSchemaKey key : keys( values ) )
+        {
+            assertTrue( key.toString(), layout.compare( lowest, key ) < 0 );
+            assertTrue( key.toString(), layout.compare( highest, key ) > 0 );
+        }
+    }
+
+    @Test
+    public void mustPlaceLowestAndHighestOfValueGroupAroundValuesOfThatGroupOnly()
+    {
+        for ( Value value : values )
+        {
+            ValueGroup valueGroup = value.valueGroup();
+            TemporalSchemaKey lowest = layout.newKey();
+            lowest.initAsLowestOf( valueGroup );
+            TemporalSchemaKey highest = layout.newKey();
+            highest.initAsHighestOf( valueGroup );
+            for ( TemporalSchemaKey key : keys( values ) )
+            {
+                boolean sameGroup = key.asValue().valueGroup() == valueGroup;
+                boolean inRange = layout.compare( lowest, key ) < 0 && layout.compare( highest, key ) > 0;
+                assertEquals( value + " bounds around " + key, sameGroup, inRange );
+            }
+        }
+    }
+
+    @Test
+    public void mustPlaceEqualToBoundsAroundAllEqualValues()
+    {
+        for ( Value value : values )
+        {
+            TemporalSchemaKey lowest = layout.newKey();
+            lowest.initAsLowestEqualTo( value );
+            TemporalSchemaKey highest = layout.newKey();
+            highest.initAsHighestEqualTo( value );
+            for ( TemporalSchemaKey key : keys( values ) )
+            {
+                boolean equal = key.asValue().equals( value );
+                boolean inRange = layout.compare( lowest, key ) < 0 && layout.compare( highest, key ) > 0;
+                assertEquals( value + " bounds around " + key, equal, inRange );
+            }
+        }
+    }
+
+    @Test
+    public void mustStoreDateTimeWithNamedZoneByInstantAndOffset()
+    {
+        DateTimeValue named = DateTimeValue.datetime( 1_500_000_000, 0, ZoneId.of( "Europe/Stockholm" ) );
+        DateTimeValue offset = DateTimeValue.datetime( 1_500_000_000, 0, ZoneOffset.ofHours( 2 ) );
+        List<TemporalSchemaKey> keys = keys( asList( named, offset ) );
+        keys.get( 1 ).setEntityId( keys.get( 0 ).getEntityId() );
+
+        assertEquals( 0, layout.compare( keys.get( 0 ), keys.get( 1 ) ) );
+        assertEquals( offset, keys.get( 0 ).asValue() );
+    }
+
+    @Test
+    public void mustReadWhatWasWritten()
+    {
+        PageCursor cursor = ByteArrayPageCursor.wrap( 1024 );
+        TemporalSchemaKey readKey = layout.newKey();
+        for ( TemporalSchemaKey key : keys( values ) )
+        {
+            cursor.setOffset( 0 );
+            layout.writeKey( cursor, key );
+            assertEquals( layout.keySize( key ), cursor.getOffset() );
+
+            cursor.setOffset( 0 );
+            layout.readKey( cursor, readKey, layout.keySize( key ) );
+            assertEquals( 0, layout.compare( key, readKey ) );
+            assertEquals( key.getEntityId(), readKey.getEntityId() );
+            assertEquals( 0, Values.COMPARATOR.compare( key.asValue(), readKey.asValue() ) );
+        }
+    }
+
+    @Test
+    public void mustGiveBackTheValueOfTheKey()
+    {
+        List<TemporalSchemaKey> keys = keys( values );
+        for ( int i = 0; i < values.size(); i++ )
+        {
+            assertEquals( 0, Values.COMPARATOR.compare( values.get( i ), keys.get( i ).asValue() ) );
+        }
+    }
+
+    private List<TemporalSchemaKey> keys( List<? extends Value> values )
+    {
+        List<TemporalSchemaKey> keys = new ArrayList<>();
+        long entityId = 0;
+        for ( Value value : values )
+        {
+            TemporalSchemaKey key = layout.newKey();
+            key.from( entityId++, value );
+            keys.add( key );
+        }
+        return keys;
+    }
+}
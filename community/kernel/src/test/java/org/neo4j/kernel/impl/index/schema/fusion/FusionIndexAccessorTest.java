@@ -46,13 +46,19 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.internal.verification.VerificationModeFactory.times;
 
-import static org.neo4j.kernel.impl.index.schema.fusion.FusionIndexTestHelp.verifyFusionCloseThrowIfBothThrow;
+import static org.neo4j.kernel.impl.index.schema.fusion.FusionIndexTestHelp.MAX_COMPOSITE_KEY_BYTES;
+import static org.neo4j.kernel.impl.index.schema.fusion.FusionIndexTestHelp.MAX_STRING_BYTES;
+import static org.neo4j.kernel.impl.index.schema.fusion.FusionIndexTestHelp.verifyFusionCloseThrowIfAllThrow;
 import static org.neo4j.kernel.impl.index.schema.fusion.FusionIndexTestHelp.verifyFusionCloseThrowOnSingleCloseThrow;
 import static org.neo4j.kernel.impl.index.schema.fusion.FusionIndexTestHelp.verifyOtherIsClosedOnSingleThrow;
 
 public class FusionIndexAccessorTest
 {
-    private IndexAccessor nativeAccessor;
+    private IndexAccessor numberAccessor;
+    private IndexAccessor stringAccessor;
+    private IndexAccessor spatialAccessor;
+    private IndexAccessor temporalAccessor;
+    private IndexAccessor compositeAccessor;
     private IndexAccessor luceneAccessor;
     private FusionIndexAccessor fusionIndexAccessor;
     private final long indexId = 10;
@@ -61,31 +67,68 @@ public class FusionIndexAccessorTest
     @Before
     public void setup()
     {
-        nativeAccessor = mock( IndexAccessor.class );
+        numberAccessor = mock( IndexAccessor.class );
+        stringAccessor = mock( IndexAccessor.class );
+        spatialAccessor = mock( IndexAccessor.class );
+        temporalAccessor = mock( IndexAccessor.class );
+        compositeAccessor = mock( IndexAccessor.class );
         luceneAccessor = mock( IndexAccessor.class );
-        fusionIndexAccessor = new FusionIndexAccessor( nativeAccessor, luceneAccessor, new NativeSelector(), indexId, mock(
-                IndexDescriptor.class ), dropAction );
+        IndexAccessor[] accessors = {numberAccessor, stringAccessor, spatialAccessor, temporalAccessor, compositeAccessor, luceneAccessor};
+        fusionIndexAccessor = new FusionIndexAccessor( accessors,
+                new NativeSelector( MAX_STRING_BYTES, MAX_COMPOSITE_KEY_BYTES ), indexId, mock( IndexDescriptor.class ), dropAction );
     }
 
     /* drop */
 
     @Test
-    public void dropMustDropNativeAndLucene() throws Exception
+    public void dropMustDropAll() throws Exception
     {
         // when
-        // ... both drop successful
+        // ... all drop successful
         fusionIndexAccessor.drop();
         // then
-        verify( nativeAccessor, times( 1 ) ).drop();
+        verify( numberAccessor, times( 1 ) ).drop();
+        verify( stringAccessor, times( 1 ) ).drop();
+        verify( spatialAccessor, times( 1 ) ).drop();
+        verify( temporalAccessor, times( 1 ) ).drop();
+        verify( compositeAccessor, times( 1 ) ).drop();
         verify( luceneAccessor, times( 1 ) ).drop();
         verify( dropAction ).drop( indexId );
     }
 
     @Test
-    public void dropMustThrowIfDropNativeFail() throws Exception
+    public void dropMustThrowIfDropNumberFail() throws Exception
     {
         // when
-        verifyFailOnSingleDropFailure( nativeAccessor, fusionIndexAccessor );
+        verifyFailOnSingleDropFailure( numberAccessor, fusionIndexAccessor );
+    }
+
+    @Test
+    public void dropMustThrowIfDropStringFail() throws Exception
+    {
+        // when
+        verifyFailOnSingleDropFailure( stringAccessor, fusionIndexAccessor );
+    }
+
+    @Test
+    public void dropMustThrowIfDropSpatialFail() throws Exception
+    {
+        // when
+        verifyFailOnSingleDropFailure( spatialAccessor, fusionIndexAccessor );
+    }
+
+    @Test
+    public void dropMustThrowIfDropTemporalFail() throws Exception
+    {
+        // when
+        verifyFailOnSingleDropFailure( temporalAccessor, fusionIndexAccessor );
+    }
+
+    @Test
+    public void dropMustThrowIfDropCompositeFail() throws Exception
+    {
+        // when
+        verifyFailOnSingleDropFailure( compositeAccessor, fusionIndexAccessor );
     }
 
     @Test
@@ -112,12 +155,20 @@ public class FusionIndexAccessorTest
     }
 
     @Test
-    public void dropMustThrowIfBothFail() throws Exception
+    public void dropMustThrowIfAllFail() throws Exception
     {
         // given
-        IOException nativeFailure = new IOException( "native" );
+        IOException numberFailure = new IOException( "number" );
+        IOException stringFailure = new IOException( "string" );
+        IOException spatialFailure = new IOException( "spatial" );
+        IOException temporalFailure = new IOException( "temporal" );
+        IOException compositeFailure = new IOException( "composite" );
         IOException luceneFailure = new IOException( "lucene" );
-        doThrow( nativeFailure ).when( nativeAccessor ).drop();
+        doThrow( numberFailure ).when( numberAccessor ).drop();
+        doThrow( stringFailure ).when( stringAccessor ).drop();
+        doThrow( spatialFailure ).when( spatialAccessor ).drop();
+        doThrow( temporalFailure ).when( temporalAccessor ).drop();
+        doThrow( compositeFailure ).when( compositeAccessor ).drop();
         doThrow( luceneFailure ).when( luceneAccessor ).drop();
 
         try
@@ -129,21 +180,26 @@ public class FusionIndexAccessorTest
         catch ( IOException e )
         {
             // then
-            assertThat( e, anyOf( sameInstance( nativeFailure ), sameInstance( luceneFailure ) ) );
+            assertThat( e, anyOf( sameInstance( numberFailure ), sameInstance( stringFailure ), sameInstance( spatialFailure ),
+                    sameInstance( temporalFailure ), sameInstance( compositeFailure ), sameInstance( luceneFailure ) ) );
         }
     }
 
     /* close */
 
     @Test
-    public void closeMustCloseNativeAndLucene() throws Exception
+    public void closeMustCloseAll() throws Exception
     {
         // when
-        // ... both drop successful
+        // ... all close successful
         fusionIndexAccessor.close();
 
         // then
-        verify( nativeAccessor, times( 1 ) ).close();
+        verify( numberAccessor, times( 1 ) ).close();
+        verify( stringAccessor, times( 1 ) ).close();
+        verify( spatialAccessor, times( 1 ) ).close();
+        verify( temporalAccessor, times( 1 ) ).close();
+        verify( compositeAccessor, times( 1 ) ).close();
         verify( luceneAccessor, times( 1 ) ).close();
     }
 
@@ -154,140 +210,257 @@ public class FusionIndexAccessorTest
     }
 
     @Test
-    public void closeMustThrowIfNativeThrow() throws Exception
+    public void closeMustThrowIfStringThrow() throws Exception
+    {
+        verifyFusionCloseThrowOnSingleCloseThrow( stringAccessor, fusionIndexAccessor );
+    }
+
+    @Test
+    public void closeMustThrowIfSpatialThrow() throws Exception
     {
-        verifyFusionCloseThrowOnSingleCloseThrow( nativeAccessor, fusionIndexAccessor );
+        verifyFusionCloseThrowOnSingleCloseThrow( spatialAccessor, fusionIndexAccessor );
     }
 
     @Test
-    public void closeMustCloseNativeIfLuceneThrow() throws Exception
+    public void closeMustThrowIfTemporalThrow() throws Exception
     {
-        verifyOtherIsClosedOnSingleThrow( luceneAccessor, nativeAccessor, fusionIndexAccessor );
+        verifyFusionCloseThrowOnSingleCloseThrow( temporalAccessor, fusionIndexAccessor );
     }
 
     @Test
-    public void closeMustCloseLuceneIfNativeThrow() throws Exception
+    public void closeMustThrowIfCompositeThrow() throws Exception
     {
-        verifyOtherIsClosedOnSingleThrow( nativeAccessor, luceneAccessor, fusionIndexAccessor );
+        verifyFusionCloseThrowOnSingleCloseThrow( compositeAccessor, fusionIndexAccessor );
     }
 
     @Test
-    public void closeMustThrowIfBothFail() throws Exception
+    public void closeMustThrowIfNumberThrow() throws Exception
     {
-        verifyFusionCloseThrowIfBothThrow( nativeAccessor, luceneAccessor, fusionIndexAccessor );
+        verifyFusionCloseThrowOnSingleCloseThrow( numberAccessor, fusionIndexAccessor );
+    }
+
+    @Test
+    public void closeMustCloseOthersIfLuceneThrow() throws Exception
+    {
+        verifyOtherIsClosedOnSingleThrow( luceneAccessor, fusionIndexAccessor, numberAccessor, stringAccessor, spatialAccessor, temporalAccessor,
+                compositeAccessor );
+    }
+
+    @Test
+    public void closeMustCloseOthersIfStringThrow() throws Exception
+    {
+        verifyOtherIsClosedOnSingleThrow( stringAccessor, fusionIndexAccessor, numberAccessor, spatialAccessor, temporalAccessor, compositeAccessor,
+                luceneAccessor );
+    }
+
+    @Test
+    public void closeMustCloseOthersIfNumberThrow() throws Exception
+    {
+        verifyOtherIsClosedOnSingleThrow( numberAccessor, fusionIndexAccessor, stringAccessor, spatialAccessor, temporalAccessor, compositeAccessor,
+                luceneAccessor );
+    }
+
+    @Test
+    public void closeMustCloseOthersIfSpatialThrow() throws Exception
+    {
+        verifyOtherIsClosedOnSingleThrow( spatialAccessor, fusionIndexAccessor, numberAccessor, stringAccessor, temporalAccessor, compositeAccessor,
+                luceneAccessor );
+    }
+
+    @Test
+    public void closeMustCloseOthersIfTemporalThrow() throws Exception
+    {
+        verifyOtherIsClosedOnSingleThrow( temporalAccessor, fusionIndexAccessor, numberAccessor, stringAccessor, spatialAccessor, compositeAccessor,
+                luceneAccessor );
+    }
+
+    @Test
+    public void closeMustCloseOthersIfCompositeThrow() throws Exception
+    {
+        verifyOtherIsClosedOnSingleThrow( compositeAccessor, fusionIndexAccessor, numberAccessor, stringAccessor, spatialAccessor, temporalAccessor,
+                luceneAccessor );
+    }
+
+    @Test
+    public void closeMustThrowIfAllFail() throws Exception
+    {
+        verifyFusionCloseThrowIfAllThrow( fusionIndexAccessor, numberAccessor, stringAccessor, spatialAccessor, temporalAccessor, compositeAccessor,
+                luceneAccessor );
     }
 
     // newAllEntriesReader
 
     @Test
-    public void allEntriesReaderMustCombineResultFromNativeAndLucene() throws Exception
+    public void allEntriesReaderMustCombineResultFromAll() throws Exception
     {
         // given
-        long[] nativeEntries = {0, 1, 2, 5, 6};
+        long[] numberEntries = {0, 1, 2, 5, 6};
+        long[] stringEntries = {9, 10, 11};
         long[] luceneEntries = {3, 4, 7, 8};
-        mockAllEntriesReaders( nativeEntries, luceneEntries );
+        mockAllEntriesReaders( numberEntries, stringEntries, luceneEntries );
 
         // when
         Set<Long> result = Iterables.asSet( fusionIndexAccessor.newAllEntriesReader() );
 
         // then
-        assertResultContainsAll( result, nativeEntries );
+        assertResultContainsAll( result, numberEntries );
+        assertResultContainsAll( result, stringEntries );
         assertResultContainsAll( result, luceneEntries );
     }
 
     @Test
-    public void allEntriesReaderMustCombineResultFromNativeAndLuceneWithEmptyNative() throws Exception
+    public void allEntriesReaderMustCombineResultFromAllWithEmptyNumber() throws Exception
     {
         // given
-        long[] nativeEntries = new long[0];
+        long[] numberEntries = new long[0];
+        long[] stringEntries = {9, 10, 11};
         long[] luceneEntries = {3, 4, 7, 8};
-        mockAllEntriesReaders( nativeEntries, luceneEntries );
+        mockAllEntriesReaders( numberEntries, stringEntries, luceneEntries );
 
         // when
         Set<Long> result = Iterables.asSet( fusionIndexAccessor.newAllEntriesReader() );
 
         // then
-        assertResultContainsAll( result, nativeEntries );
+        assertResultContainsAll( result, numberEntries );
+        assertResultContainsAll( result, stringEntries );
         assertResultContainsAll( result, luceneEntries );
     }
 
     @Test
-    public void allEntriesReaderMustCombineResultFromNativeAndLuceneWithEmptyLucene() throws Exception
+    public void allEntriesReaderMustCombineResultFromAllWithEmptyString() throws Exception
     {
         // given
-        long[] nativeEntries = {0, 1, 2, 5, 6};
-        long[] luceneEntries = new long[0];
-        mockAllEntriesReaders( nativeEntries, luceneEntries );
+        long[] numberEntries = {0, 1, 2, 5, 6};
+        long[] stringEntries = new long[0];
+        long[] luceneEntries = {3, 4, 7, 8};
+        mockAllEntriesReaders( numberEntries, stringEntries, luceneEntries );
 
         // when
         Set<Long> result = Iterables.asSet( fusionIndexAccessor.newAllEntriesReader() );
 
         // then
-        assertResultContainsAll( result, nativeEntries );
+        assertResultContainsAll( result, numberEntries );
+        assertResultContainsAll( result, stringEntries );
         assertResultContainsAll( result, luceneEntries );
     }
 
     @Test
-    public void allEntriesReaderMustCombineResultFromNativeAndLuceneBothEmpty() throws Exception
+    public void allEntriesReaderMustCombineResultFromAllWithEmptyLucene() throws Exception
     {
         // given
-        long[] nativeEntries = new long[0];
+        long[] numberEntries = {0, 1, 2, 5, 6};
+        long[] stringEntries = {9, 10, 11};
         long[] luceneEntries = new long[0];
-        mockAllEntriesReaders( nativeEntries, luceneEntries );
+        mockAllEntriesReaders( numberEntries, stringEntries, luceneEntries );
 
         // when
         Set<Long> result = Iterables.asSet( fusionIndexAccessor.newAllEntriesReader() );
 
         // then
-        assertResultContainsAll( result, nativeEntries );
+        assertResultContainsAll( result, numberEntries );
+        assertResultContainsAll( result, stringEntries );
         assertResultContainsAll( result, luceneEntries );
+    }
+
+    @Test
+    public void allEntriesReaderMustCombineResultFromAllEmpty() throws Exception
+    {
+        // given
+        long[] numberEntries = new long[0];
+        long[] stringEntries = new long[0];
+        long[] luceneEntries = new long[0];
+        mockAllEntriesReaders( numberEntries, stringEntries, luceneEntries );
+
+        // when
+        Set<Long> result = Iterables.asSet( fusionIndexAccessor.newAllEntriesReader() );
+
+        // then
         assertTrue( result.isEmpty() );
     }
 
     @Test
-    public void allEntriesReaderMustCloseBothNativeAndLucene() throws Exception
+    public void allEntriesReaderMustCloseAll() throws Exception
     {
         // given
-        BoundedIterable<Long> nativeAllEntriesReader = mockSingleAllEntriesReader( nativeAccessor, new long[0] );
+        BoundedIterable<Long> numberAllEntriesReader = mockSingleAllEntriesReader( numberAccessor, new long[0] );
+        BoundedIterable<Long> stringAllEntriesReader = mockSingleAllEntriesReader( stringAccessor, new long[0] );
+        BoundedIterable<Long> spatialAllEntriesReader = mockSingleAllEntriesReader( spatialAccessor, new long[0] );
+        BoundedIterable<Long> temporalAllEntriesReader = mockSingleAllEntriesReader( temporalAccessor, new long[0] );
+        BoundedIterable<Long> compositeAllEntriesReader = mockSingleAllEntriesReader( compositeAccessor, new long[0] );
         BoundedIterable<Long> luceneAllEntriesReader = mockSingleAllEntriesReader( luceneAccessor, new long[0] );
 
         // when
         fusionIndexAccessor.newAllEntriesReader().close();
 
         // then
-        verify( nativeAllEntriesReader, times( 1 ) ).close();
+        verify( numberAllEntriesReader, times( 1 ) ).close();
+        verify( stringAllEntriesReader, times( 1 ) ).close();
+        verify( spatialAllEntriesReader, times( 1 ) ).close();
+        verify( temporalAllEntriesReader, times( 1 ) ).close();
+        verify( compositeAllEntriesReader, times( 1 ) ).close();
         verify( luceneAllEntriesReader, times( 1 ) ).close();
     }
 
     @Test
-    public void allEntriesReaderMustCloseNativeIfLuceneThrow() throws Exception
+    public void allEntriesReaderMustCloseOthersIfLuceneThrow() throws Exception
+    {
+        // given
+        BoundedIterable<Long> numberAllEntriesReader = mockSingleAllEntriesReader( numberAccessor, new long[0] );
+        BoundedIterable<Long> stringAllEntriesReader = mockSingleAllEntriesReader( stringAccessor, new long[0] );
+        BoundedIterable<Long> spatialAllEntriesReader = mockSingleAllEntriesReader( spatialAccessor, new long[0] );
+        BoundedIterable<Long> temporalAllEntriesReader = mockSingleAllEntriesReader( temporalAccessor, new long[0] );
+        BoundedIterable<Long> compositeAllEntriesReader = mockSingleAllEntriesReader( compositeAccessor, new long[0] );
+        BoundedIterable<Long> luceneAllEntriesReader = mockSingleAllEntriesReader( luceneAccessor, new long[0] );
+
+        // then
+        BoundedIterable<Long> fusionAllEntriesReader = fusionIndexAccessor.newAllEntriesReader();
+        verifyOtherIsClosedOnSingleThrow( luceneAllEntriesReader, fusionAllEntriesReader, numberAllEntriesReader, stringAllEntriesReader,
+                spatialAllEntriesReader, temporalAllEntriesReader, compositeAllEntriesReader );
+    }
+
+    @Test
+    public void allEntriesReaderMustCloseOthersIfStringThrow() throws Exception
     {
         // given
-        BoundedIterable<Long> nativeAllEntriesReader = mockSingleAllEntriesReader( nativeAccessor, new long[0] );
+        BoundedIterable<Long> numberAllEntriesReader = mockSingleAllEntriesReader( numberAccessor, new long[0] );
+        BoundedIterable<Long> stringAllEntriesReader = mockSingleAllEntriesReader( stringAccessor, new long[0] );
+        BoundedIterable<Long> spatialAllEntriesReader = mockSingleAllEntriesReader( spatialAccessor, new long[0] );
+        BoundedIterable<Long> temporalAllEntriesReader = mockSingleAllEntriesReader( temporalAccessor, new long[0] );
+        BoundedIterable<Long> compositeAllEntriesReader = mockSingleAllEntriesReader( compositeAccessor, new long[0] );
         BoundedIterable<Long> luceneAllEntriesReader = mockSingleAllEntriesReader( luceneAccessor, new long[0] );
 
         // then
         BoundedIterable<Long> fusionAllEntriesReader = fusionIndexAccessor.newAllEntriesReader();
-        verifyOtherIsClosedOnSingleThrow( luceneAllEntriesReader, nativeAllEntriesReader, fusionAllEntriesReader );
+        verifyOtherIsClosedOnSingleThrow( stringAllEntriesReader, fusionAllEntriesReader, numberAllEntriesReader, spatialAllEntriesReader,
+                temporalAllEntriesReader, compositeAllEntriesReader, luceneAllEntriesReader );
     }
 
     @Test
-    public void allEntriesReaderMustCloseLuceneIfNativeThrow() throws Exception
+    public void allEntriesReaderMustCloseOthersIfNumberThrow() throws Exception
     {
         // given
-        BoundedIterable<Long> nativeAllEntriesReader = mockSingleAllEntriesReader( nativeAccessor, new long[0] );
+        BoundedIterable<Long> numberAllEntriesReader = mockSingleAllEntriesReader( numberAccessor, new long[0] );
+        BoundedIterable<Long> stringAllEntriesReader = mockSingleAllEntriesReader( stringAccessor, new long[0] );
+        BoundedIterable<Long> spatialAllEntriesReader = mockSingleAllEntriesReader( spatialAccessor, new long[0] );
+        BoundedIterable<Long> temporalAllEntriesReader = mockSingleAllEntriesReader( temporalAccessor, new long[0] );
+        BoundedIterable<Long> compositeAllEntriesReader = mockSingleAllEntriesReader( compositeAccessor, new long[0] );
         BoundedIterable<Long> luceneAllEntriesReader = mockSingleAllEntriesReader( luceneAccessor, new long[0] );
 
         // then
         BoundedIterable<Long> fusionAllEntriesReader = fusionIndexAccessor.newAllEntriesReader();
-        verifyOtherIsClosedOnSingleThrow( nativeAllEntriesReader, luceneAllEntriesReader, fusionAllEntriesReader );
+        verifyOtherIsClosedOnSingleThrow( numberAllEntriesReader, fusionAllEntriesReader, stringAllEntriesReader, spatialAllEntriesReader,
+                temporalAllEntriesReader, compositeAllEntriesReader, luceneAllEntriesReader );
     }
 
     @Test
     public void allEntriesReaderMustThrowIfLuceneThrow() throws Exception
     {
         // given
-        mockSingleAllEntriesReader( nativeAccessor, new long[0] );
+        mockSingleAllEntriesReader( numberAccessor, new long[0] );
+        mockSingleAllEntriesReader( stringAccessor, new long[0] );
+        mockSingleAllEntriesReader( spatialAccessor, new long[0] );
+        mockSingleAllEntriesReader( temporalAccessor, new long[0] );
+        mockSingleAllEntriesReader( compositeAccessor, new long[0] );
         BoundedIterable<Long> luceneAllEntriesReader = mockSingleAllEntriesReader( luceneAccessor, new long[0] );
 
         // then
@@ -296,23 +469,62 @@ public class FusionIndexAccessorTest
     }
 
     @Test
-    public void allEntriesReaderMustThrowIfNativeThrow() throws Exception
+    public void allEntriesReaderMustThrowIfStringThrow() throws Exception
     {
         // given
-        BoundedIterable<Long> nativeAllEntriesReader = mockSingleAllEntriesReader( nativeAccessor, new long[0] );
+        mockSingleAllEntriesReader( numberAccessor, new long[0] );
+        BoundedIterable<Long> stringAllEntriesReader = mockSingleAllEntriesReader( stringAccessor, new long[0] );
+        mockSingleAllEntriesReader( spatialAccessor, new long[0] );
+        mockSingleAllEntriesReader( temporalAccessor, new long[0] );
+        mockSingleAllEntriesReader( compositeAccessor, new long[0] );
         mockSingleAllEntriesReader( luceneAccessor, new long[0] );
 
         // then
         BoundedIterable<Long> fusionAllEntriesReader = fusionIndexAccessor.newAllEntriesReader();
-        FusionIndexTestHelp.verifyFusionCloseThrowOnSingleCloseThrow( nativeAllEntriesReader, fusionAllEntriesReader );
+        FusionIndexTestHelp.verifyFusionCloseThrowOnSingleCloseThrow( stringAllEntriesReader, fusionAllEntriesReader );
+    }
+
+    @Test
+    public void allEntriesReaderMustThrowIfNumberThrow() throws Exception
+    {
+        // given
+        BoundedIterable<Long> numberAllEntriesReader = mockSingleAllEntriesReader( numberAccessor, new long[0] );
+        mockSingleAllEntriesReader( stringAccessor, new long[0] );
+        mockSingleAllEntriesReader( spatialAccessor, new long[0] );
+        mockSingleAllEntriesReader( temporalAccessor, new long[0] );
+        mockSingleAllEntriesReader( compositeAccessor, new long[0] );
+        mockSingleAllEntriesReader( luceneAccessor, new long[0] );
 
+        // then
+        BoundedIterable<Long> fusionAllEntriesReader = fusionIndexAccessor.newAllEntriesReader();
+        FusionIndexTestHelp.verifyFusionCloseThrowOnSingleCloseThrow( numberAllEntriesReader, fusionAllEntriesReader );
     }
 
     @Test
-    public void allEntriesReaderMustReportUnknownMaxCountIfNativeReportUnknownMaxCount() throws Exception
+    public void allEntriesReaderMustReportUnknownMaxCountIfNumberReportUnknownMaxCount() throws Exception
     {
         // given
-        mockSingleAllEntriesReaderWithUnknownMaxCount( nativeAccessor, new long[0] );
+        mockSingleAllEntriesReaderWithUnknownMaxCount( numberAccessor, new long[0] );
+        mockSingleAllEntriesReader( stringAccessor, new long[0] );
+        mockSingleAllEntriesReader( spatialAccessor, new long[0] );
+        mockSingleAllEntriesReader( temporalAccessor, new long[0] );
+        mockSingleAllEntriesReader( compositeAccessor, new long[0] );
+        mockSingleAllEntriesReader( luceneAccessor, new long[0] );
+
+        // then
+        BoundedIterable<Long> fusionAllEntriesReader = fusionIndexAccessor.newAllEntriesReader();
+        assertThat( fusionAllEntriesReader.maxCount(), is( BoundedIterable.UNKNOWN_MAX_COUNT ) );
+    }
+
+    @Test
+    public void allEntriesReaderMustReportUnknownMaxCountIfStringReportUnknownMaxCount() throws Exception
+    {
+        // given
+        mockSingleAllEntriesReader( numberAccessor, new long[0] );
+        mockSingleAllEntriesReaderWithUnknownMaxCount( stringAccessor, new long[0] );
+        mockSingleAllEntriesReader( spatialAccessor, new long[0] );
+        mockSingleAllEntriesReader( temporalAccessor, new long[0] );
+        mockSingleAllEntriesReader( compositeAccessor, new long[0] );
         mockSingleAllEntriesReader( luceneAccessor, new long[0] );
 
         // then
@@ -324,8 +536,12 @@ public class FusionIndexAccessorTest
     public void allEntriesReaderMustReportUnknownMaxCountIfLuceneReportUnknownMaxCount() throws Exception
     {
         // given
+        mockSingleAllEntriesReader( numberAccessor, new long[0] );
+        mockSingleAllEntriesReader( stringAccessor, new long[0] );
+        mockSingleAllEntriesReader( spatialAccessor, new long[0] );
+        mockSingleAllEntriesReader( temporalAccessor, new long[0] );
+        mockSingleAllEntriesReader( compositeAccessor, new long[0] );
         mockSingleAllEntriesReaderWithUnknownMaxCount( luceneAccessor, new long[0] );
-        mockSingleAllEntriesReader( nativeAccessor, new long[0] );
 
         // then
         BoundedIterable<Long> fusionAllEntriesReader = fusionIndexAccessor.newAllEntriesReader();
@@ -333,27 +549,37 @@ public class FusionIndexAccessorTest
     }
 
     @Test
-    public void allEntriesReaderMustReportFusionMaxCountOfNativeAndLucene() throws Exception
+    public void allEntriesReaderMustReportFusionMaxCountOfAll() throws Exception
     {
-        mockSingleAllEntriesReader( nativeAccessor, new long[]{1, 2} );
-        mockSingleAllEntriesReader( luceneAccessor, new long[]{3, 4} );
+        // given
+        long expectedMaxCount = 0;
+        expectedMaxCount += mockSingleAllEntriesReader( numberAccessor, new long[]{1, 2} ).maxCount();
+        expectedMaxCount += mockSingleAllEntriesReader( stringAccessor, new long[]{3, 4} ).maxCount();
+        expectedMaxCount += mockSingleAllEntriesReader( spatialAccessor, new long[]{5} ).maxCount();
+        expectedMaxCount += mockSingleAllEntriesReader( temporalAccessor, new long[]{6, 7, 8} ).maxCount();
+        expectedMaxCount += mockSingleAllEntriesReader( compositeAccessor, new long[]{9} ).maxCount();
+        expectedMaxCount += mockSingleAllEntriesReader( luceneAccessor, new long[]{10, 11} ).maxCount();
 
         // then
         BoundedIterable<Long> fusionAllEntriesReader = fusionIndexAccessor.newAllEntriesReader();
-        assertThat( fusionAllEntriesReader.maxCount(), is( 4L ) );
+        assertThat( fusionAllEntriesReader.maxCount(), is( expectedMaxCount ) );
     }
 
-    private void assertResultContainsAll( Set<Long> result, long[] nativeEntries )
+    private void assertResultContainsAll( Set<Long> result, long[] entries )
     {
-        for ( long nativeEntry : nativeEntries )
+        for ( long entry : entries )
         {
-            assertTrue( "Expected to contain " + nativeEntry + ", but was " + result, result.contains( nativeEntry ) );
+            assertTrue( "Expected to contain " + entry + ", but was " + result, result.contains( entry ) );
         }
     }
 
-    private void mockAllEntriesReaders( long[] nativeEntries, long[] luceneEntries )
+    private void mockAllEntriesReaders( long[] numberEntries, long[] stringEntries, long[] luceneEntries )
     {
-        mockSingleAllEntriesReader( nativeAccessor, nativeEntries );
+        mockSingleAllEntriesReader( numberAccessor, numberEntries );
+        mockSingleAllEntriesReader( stringAccessor, stringEntries );
+        mockSingleAllEntriesReader( spatialAccessor, new long[0] );
+        mockSingleAllEntriesReader( temporalAccessor, new long[0] );
+        mockSingleAllEntriesReader( compositeAccessor, new long[0] );
         mockSingleAllEntriesReader( luceneAccessor, luceneEntries );
     }
 
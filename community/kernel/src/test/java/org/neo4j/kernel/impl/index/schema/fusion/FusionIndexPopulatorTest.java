@@ -46,13 +46,21 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.neo4j.kernel.impl.index.schema.fusion.FusionIndexTestHelp.MAX_COMPOSITE_KEY_BYTES;
+import static org.neo4j.kernel.impl.index.schema.fusion.FusionIndexTestHelp.MAX_STRING_BYTES;
 import static org.neo4j.kernel.impl.index.schema.fusion.FusionIndexTestHelp.add;
+import static org.neo4j.kernel.impl.index.schema.fusion.FusionIndexTestHelp.supportedByComposite;
 import static org.neo4j.kernel.impl.index.schema.fusion.FusionIndexTestHelp.verifyCallFail;
 
 public class FusionIndexPopulatorTest
 {
-    private IndexPopulator nativePopulator;
+    private IndexPopulator numberPopulator;
+    private IndexPopulator stringPopulator;
+    private IndexPopulator spatialPopulator;
+    private IndexPopulator temporalPopulator;
+    private IndexPopulator compositePopulator;
     private IndexPopulator lucenePopulator;
+    private IndexPopulator[] allPopulators;
     private FusionIndexPopulator fusionIndexPopulator;
     private final long indexId = 8;
     private final DropAction dropAction = mock( DropAction.class );
@@ -60,30 +68,94 @@ public class FusionIndexPopulatorTest
     @Before
     public void mockComponents()
     {
-        nativePopulator = mock( IndexPopulator.class );
+        numberPopulator = mock( IndexPopulator.class );
+        stringPopulator = mock( IndexPopulator.class );
+        spatialPopulator = mock( IndexPopulator.class );
+        temporalPopulator = mock( IndexPopulator.class );
+        compositePopulator = mock( IndexPopulator.class );
         lucenePopulator = mock( IndexPopulator.class );
-        fusionIndexPopulator = new FusionIndexPopulator( nativePopulator, lucenePopulator, new NativeSelector(), indexId, dropAction );
+        allPopulators = new IndexPopulator[]{numberPopulator, stringPopulator, spatialPopulator, temporalPopulator, compositePopulator, lucenePopulator};
+        fusionIndexPopulator = new FusionIndexPopulator( allPopulators.clone(),
+                new NativeSelector( MAX_STRING_BYTES, MAX_COMPOSITE_KEY_BYTES ), indexId, dropAction );
     }
 
     /* create */
 
     @Test
-    public void createMustCreateBothNativeAndLucene() throws Exception
+    public void createMustCreateAll() throws Exception
     {
         // when
         fusionIndexPopulator.create();
 
         // then
-        verify( nativePopulator, times( 1 ) ).create();
-        verify( lucenePopulator, times( 1 ) ).create();
+        for ( IndexPopulator populator : allPopulators )
+        {
+            verify( populator, times( 1 ) ).create();
+        }
+    }
+
+    @Test
+    public void createMustThrowIfCreateNumberThrow() throws Exception
+    {
+        // given
+        IOException failure = new IOException( "fail" );
+        doThrow( failure ).when( numberPopulator ).create();
+
+        verifyCallFail( failure, () ->
+        {
+            fusionIndexPopulator.create();
+            return null;
+        } );
     }
 
     @Test
-    public void createMustThrowIfCreateNativeThrow() throws Exception
+    public void createMustThrowIfCreateStringThrow() throws Exception
     {
         // given
         IOException failure = new IOException( "fail" );
-        doThrow( failure ).when( nativePopulator ).create();
+        doThrow( failure ).when( stringPopulator ).create();
+
+        verifyCallFail( failure, () ->
+        {
+            fusionIndexPopulator.create();
+            return null;
+        } );
+    }
+
+    @Test
+    public void createMustThrowIfCreateSpatialThrow() throws Exception
+    {
+        // given
+        IOException failure = new IOException( "fail" );
+        doThrow( failure ).when( spatialPopulator ).create();
+
+        verifyCallFail( failure, () ->
+        {
+            fusionIndexPopulator.create();
+            return null;
+        } );
+    }
+
+    @Test
+    public void createMustThrowIfCreateTemporalThrow() throws Exception
+    {
+        // given
+        IOException failure = new IOException( "fail" );
+        doThrow( failure ).when( temporalPopulator ).create();
+
+        verifyCallFail( failure, () ->
+        {
+            fusionIndexPopulator.create();
+            return null;
+        } );
+    }
+
+    @Test
+    public void createMustThrowIfCreateCompositeThrow() throws Exception
+    {
+        // given
+        IOException failure = new IOException( "fail" );
+        doThrow( failure ).when( compositePopulator ).create();
 
         verifyCallFail( failure, () ->
         {
@@ -109,23 +181,81 @@ public class FusionIndexPopulatorTest
     /* drop */
 
     @Test
-    public void dropMustDropBothNativeAndLucene() throws Exception
+    public void dropMustDropAll() throws Exception
     {
         // when
         fusionIndexPopulator.drop();
 
         // then
-        verify( nativePopulator, times( 1 ) ).drop();
-        verify( lucenePopulator, times( 1 ) ).drop();
+        for ( IndexPopulator populator : allPopulators )
+        {
+            verify( populator, times( 1 ) ).drop();
+        }
         verify( dropAction ).drop( indexId );
     }
 
     @Test
-    public void dropMustThrowIfDropNativeThrow() throws Exception
+    public void dropMustThrowIfDropNumberThrow() throws Exception
     {
         // given
         IOException failure = new IOException( "fail" );
-        doThrow( failure ).when( nativePopulator ).drop();
+        doThrow( failure ).when( numberPopulator ).drop();
+
+        verifyCallFail( failure, () ->
+        {
+            fusionIndexPopulator.drop();
+            return null;
+        } );
+    }
+
+    @Test
+    public void dropMustThrowIfDropStringThrow() throws Exception
+    {
+        // given
+        IOException failure = new IOException( "fail" );
+        doThrow( failure ).when( stringPopulator ).drop();
+
+        verifyCallFail( failure, () ->
+        {
+            fusionIndexPopulator.drop();
+            return null;
+        } );
+    }
+
+    @Test
+    public void dropMustThrowIfDropSpatialThrow() throws Exception
+    {
+        // given
+        IOException failure = new IOException( "fail" );
+        doThrow( failure ).when( spatialPopulator ).drop();
+
+        verifyCallFail( failure, () ->
+        {
+            fusionIndexPopulator.drop();
+            return null;
+        } );
+    }
+
+    @Test
+    public void dropMustThrowIfDropTemporalThrow() throws Exception
+    {
+        // given
+        IOException failure = new IOException( "fail" );
+        doThrow( failure ).when( temporalPopulator ).drop();
+
+        verifyCallFail( failure, () ->
+        {
+            fusionIndexPopulator.drop();
+            return null;
+        } );
+    }
+
+    @Test
+    public void dropMustThrowIfDropCompositeThrow() throws Exception
+    {
+        // given
+        IOException failure = new IOException( "fail" );
+        doThrow( failure ).when( compositePopulator ).drop();
 
         verifyCallFail( failure, () ->
         {
@@ -154,49 +284,87 @@ public class FusionIndexPopulatorTest
     public void addMustSelectCorrectPopulator() throws Exception
     {
         // given
-        Value[] numberValues = FusionIndexTestHelp.valuesSupportedByNative();
+        Value[] numberValues = FusionIndexTestHelp.valuesSupportedByNumber();
+        Value[] stringValues = FusionIndexTestHelp.valuesSupportedByString();
+        Value[] spatialValues = FusionIndexTestHelp.valuesSupportedBySpatial();
+        Value[] temporalValues = FusionIndexTestHelp.valuesSupportedByTemporal();
         Value[] otherValues = FusionIndexTestHelp.valuesNotSupportedByNative();
         Value[] allValues = FusionIndexTestHelp.allValues();
 
-        // Add with native for number values
+        // Add with number for number values
         for ( Value numberValue : numberValues )
         {
-            verifyAddWithCorrectPopulator( nativePopulator, lucenePopulator, numberValue );
+            verifyAddWithCorrectPopulator( numberPopulator, numberValue );
+        }
+
+        // Add with string for string values
+        for ( Value stringValue : stringValues )
+        {
+            verifyAddWithCorrectPopulator( stringPopulator, stringValue );
+        }
+
+        // Add with spatial for spatial values
+        for ( Value spatialValue : spatialValues )
+        {
+            verifyAddWithCorrectPopulator( spatialPopulator, spatialValue );
+        }
+
+        // Add with temporal for temporal values
+        for ( Value temporalValue : temporalValues )
+        {
+            verifyAddWithCorrectPopulator( temporalPopulator, temporalValue );
         }
 
         // Add with lucene for other values
         for ( Value otherValue : otherValues )
         {
-            verifyAddWithCorrectPopulator( lucenePopulator, nativePopulator, otherValue );
+            verifyAddWithCorrectPopulator( lucenePopulator, otherValue );
         }
 
-        // All composite values should go to lucene
+        // Composite values of strings, booleans and numbers should go to composite, all others to lucene
         for ( Value firstValue : allValues )
         {
             for ( Value secondValue : allValues )
             {
-                verifyAddWithCorrectPopulator( lucenePopulator, nativePopulator, firstValue, secondValue );
+                IndexPopulator correctPopulator = supportedByComposite( firstValue, secondValue ) ? compositePopulator : lucenePopulator;
+                verifyAddWithCorrectPopulator( correctPopulator, firstValue, secondValue );
             }
         }
     }
 
-    private void verifyAddWithCorrectPopulator( IndexPopulator correctPopulator, IndexPopulator wrongPopulator, Value... numberValues )
+    private void verifyAddWithCorrectPopulator( IndexPopulator correctPopulator, Value... values )
             throws IndexEntryConflictException, IOException
     {
-        Collection<IndexEntryUpdate<LabelSchemaDescriptor>> update = asList( add( numberValues ) );
+        Collection<IndexEntryUpdate<LabelSchemaDescriptor>> update = asList( add( values ) );
         fusionIndexPopulator.add( update );
-        verify( correctPopulator, times( 1 ) ).add( update );
-        verify( wrongPopulator, times( 0 ) ).add( update );
+        for ( IndexPopulator populator : allPopulators )
+        {
+            verify( populator, times( populator == correctPopulator ? 1 : 0 ) ).add( update );
+        }
     }
 
     /* verifyDeferredConstraints */
 
     @Test
-    public void verifyDeferredConstraintsMustThrowIfNativeThrow() throws Exception
+    public void verifyDeferredConstraintsMustThrowIfNumberThrow() throws Exception
     {
         // given
         IndexEntryConflictException failure = mock( IndexEntryConflictException.class );
-        doThrow( failure ).when( nativePopulator ).verifyDeferredConstraints( any() );
+        doThrow( failure ).when( numberPopulator ).verifyDeferredConstraints( any() );
+
+        verifyCallFail( failure, () ->
+        {
+            fusionIndexPopulator.verifyDeferredConstraints( null );
+            return null;
+        } );
+    }
+
+    @Test
+    public void verifyDeferredConstraintsMustThrowIfStringThrow() throws Exception
+    {
+        // given
+        IndexEntryConflictException failure = mock( IndexEntryConflictException.class );
+        doThrow( failure ).when( stringPopulator ).verifyDeferredConstraints( any() );
 
         verifyCallFail( failure, () ->
         {
@@ -222,35 +390,50 @@ public class FusionIndexPopulatorTest
     /* close */
 
     @Test
-    public void successfulCloseMustCloseBothNativeAndLucene() throws Exception
+    public void successfulCloseMustCloseAll() throws Exception
     {
         // when
-        closeAndVerifyPropagation( nativePopulator, lucenePopulator, fusionIndexPopulator, true );
+        closeAndVerifyPropagation( true );
     }
 
     @Test
-    public void unsuccessfulCloseMustCloseBothNativeAndLucene() throws Exception
+    public void unsuccessfulCloseMustCloseAll() throws Exception
     {
         // when
-        closeAndVerifyPropagation( nativePopulator, lucenePopulator, fusionIndexPopulator, false );
+        closeAndVerifyPropagation( false );
     }
 
-    private void closeAndVerifyPropagation( IndexPopulator nativePopulator, IndexPopulator lucenePopulator,
-            FusionIndexPopulator fusionIndexPopulator, boolean populationCompletedSuccessfully ) throws IOException
+    private void closeAndVerifyPropagation( boolean populationCompletedSuccessfully ) throws IOException
     {
         fusionIndexPopulator.close( populationCompletedSuccessfully );
 
         // then
-        verify( nativePopulator, times( 1 ) ).close( populationCompletedSuccessfully );
-        verify( lucenePopulator, times( 1 ) ).close( populationCompletedSuccessfully );
+        for ( IndexPopulator populator : allPopulators )
+        {
+            verify( populator, times( 1 ) ).close( populationCompletedSuccessfully );
+        }
+    }
+
+    @Test
+    public void closeMustThrowIfCloseNumberThrow() throws Exception
+    {
+        // given
+        IOException failure = new IOException( "fail" );
+        doThrow( failure ).when( numberPopulator ).close( anyBoolean() );
+
+        verifyCallFail( failure, () ->
+        {
+            fusionIndexPopulator.close( anyBoolean() );
+            return null;
+        } );
     }
 
     @Test
-    public void closeMustThrowIfCloseNativeThrow() throws Exception
+    public void closeMustThrowIfCloseStringThrow() throws Exception
     {
         // given
         IOException failure = new IOException( "fail" );
-        doThrow( failure ).when( nativePopulator ).close( anyBoolean() );
+        doThrow( failure ).when( stringPopulator ).close( anyBoolean() );
 
         verifyCallFail( failure, () ->
         {
@@ -274,11 +457,86 @@ public class FusionIndexPopulatorTest
     }
 
     @Test
-    public void closeMustCloseNativeIfLuceneThrow() throws Exception
+    public void closeMustCloseOthersIfNumberThrow() throws Exception
     {
         // given
         IOException failure = new IOException( "fail" );
-        doThrow( failure ).when( lucenePopulator ).close( anyBoolean() );
+        doThrow( failure ).when( numberPopulator ).close( anyBoolean() );
+
+        // when
+        try
+        {
+            fusionIndexPopulator.close( true );
+            fail( "Should have failed" );
+        }
+        catch ( IOException ignore )
+        {
+        }
+
+        // then
+        verify( stringPopulator, times( 1 ) ).close( true );
+        verify( spatialPopulator, times( 1 ) ).close( true );
+        verify( temporalPopulator, times( 1 ) ).close( true );
+        verify( compositePopulator, times( 1 ) ).close( true );
+        verify( lucenePopulator, times( 1 ) ).close( true );
+    }
+
+    @Test
+    public void closeMustCloseOthersIfStringThrow() throws Exception
+    {
+        // given
+        IOException failure = new IOException( "fail" );
+        doThrow( failure ).when( stringPopulator ).close( anyBoolean() );
+
+        // when
+        try
+        {
+            fusionIndexPopulator.close( true );
+            fail( "Should have failed" );
+        }
+        catch ( IOException ignore )
+        {
+        }
+
+        // then
+        verify( numberPopulator, times( 1 ) ).close( true );
+        verify( spatialPopulator, times( 1 ) ).close( true );
+        verify( temporalPopulator, times( 1 ) ).close( true );
+        verify( compositePopulator, times( 1 ) ).close( true );
+        verify( lucenePopulator, times( 1 ) ).close( true );
+    }
+
+    @Test
+    public void closeMustCloseOthersIfSpatialThrow() throws Exception
+    {
+        // given
+        IOException failure = new IOException( "fail" );
+        doThrow( failure ).when( spatialPopulator ).close( anyBoolean() );
+
+        // when
+        try
+        {
+            fusionIndexPopulator.close( true );
+            fail( "Should have failed" );
+        }
+        catch ( IOException ignore )
+        {
+        }
+
+        // then
+        verify( numberPopulator, times( 1 ) ).close( true );
+        verify( stringPopulator, times( 1 ) ).close( true );
+        verify( temporalPopulator, times( 1 ) ).close( true );
+        verify( compositePopulator, times( 1 ) ).close( true );
+        verify( lucenePopulator, times( 1 ) ).close( true );
+    }
+
+    @Test
+    public void closeMustCloseOthersIfTemporalThrow() throws Exception
+    {
+        // given
+        IOException failure = new IOException( "fail" );
+        doThrow( failure ).when( temporalPopulator ).close( anyBoolean() );
 
         // when
         try
@@ -291,15 +549,18 @@ public class FusionIndexPopulatorTest
         }
 
         // then
-        verify( nativePopulator, times( 1 ) ).close( true );
+        verify( numberPopulator, times( 1 ) ).close( true );
+        verify( stringPopulator, times( 1 ) ).close( true );
+        verify( spatialPopulator, times( 1 ) ).close( true );
+        verify( lucenePopulator, times( 1 ) ).close( true );
     }
 
     @Test
-    public void closeMustCloseLuceneIfNativeThrow() throws Exception
+    public void closeMustCloseOthersIfCompositeThrow() throws Exception
     {
         // given
         IOException failure = new IOException( "fail" );
-        doThrow( failure ).when( nativePopulator ).close( anyBoolean() );
+        doThrow( failure ).when( compositePopulator ).close( anyBoolean() );
 
         // when
         try
@@ -312,16 +573,52 @@ public class FusionIndexPopulatorTest
         }
 
         // then
+        verify( numberPopulator, times( 1 ) ).close( true );
+        verify( stringPopulator, times( 1 ) ).close( true );
+        verify( spatialPopulator, times( 1 ) ).close( true );
         verify( lucenePopulator, times( 1 ) ).close( true );
     }
 
     @Test
-    public void closeMustThrowIfBothThrow() throws Exception
+    public void closeMustCloseOthersIfLuceneThrow() throws Exception
+    {
+        // given
+        IOException failure = new IOException( "fail" );
+        doThrow( failure ).when( lucenePopulator ).close( anyBoolean() );
+
+        // when
+        try
+        {
+            fusionIndexPopulator.close( true );
+            fail( "Should have failed" );
+        }
+        catch ( IOException ignore )
+        {
+        }
+
+        // then
+        verify( numberPopulator, times( 1 ) ).close( true );
+        verify( stringPopulator, times( 1 ) ).close( true );
+        verify( spatialPopulator, times( 1 ) ).close( true );
+        verify( temporalPopulator, times( 1 ) ).close( true );
+        verify( compositePopulator, times( 1 ) ).close( true );
+    }
+
+    @Test
+    public void closeMustThrowIfAllThrow() throws Exception
     {
         // given
-        IOException nativeFailure = new IOException( "native" );
+        IOException numberFailure = new IOException( "number" );
+        IOException stringFailure = new IOException( "string" );
+        IOException spatialFailure = new IOException( "spatial" );
+        IOException temporalFailure = new IOException( "temporal" );
+        IOException compositeFailure = new IOException( "composite" );
         IOException luceneFailure = new IOException( "lucene" );
-        doThrow( nativeFailure ).when( nativePopulator ).close( anyBoolean() );
+        doThrow( numberFailure ).when( numberPopulator ).close( anyBoolean() );
+        doThrow( stringFailure ).when( stringPopulator ).close( anyBoolean() );
+        doThrow( spatialFailure ).when( spatialPopulator ).close( anyBoolean() );
+        doThrow( temporalFailure ).when( temporalPopulator ).close( anyBoolean() );
+        doThrow( compositeFailure ).when( compositePopulator ).close( anyBoolean() );
         doThrow( luceneFailure ).when( lucenePopulator).close( anyBoolean() );
 
         try
@@ -333,32 +630,34 @@ public class FusionIndexPopulatorTest
         catch ( IOException e )
         {
             // then
-            assertThat( e, anyOf( sameInstance( nativeFailure ), sameInstance( luceneFailure ) ) );
+            assertThat( e, anyOf( sameInstance( numberFailure ), sameInstance( stringFailure ), sameInstance( spatialFailure ),
+                    sameInstance( temporalFailure ), sameInstance( compositeFailure ), sameInstance( luceneFailure ) ) );
         }
     }
 
     /* markAsFailed */
 
     @Test
-    public void markAsFailedMustMarkBothNativeAndLucene() throws Exception
+    public void markAsFailedMustMarkAll() throws Exception
     {
         // when
         String failureMessage = "failure";
         fusionIndexPopulator.markAsFailed( failureMessage );
 
         // then
-        verify( nativePopulator, times( 1 ) ).markAsFailed( failureMessage );
-        verify( lucenePopulator, times( 1 ) ).markAsFailed( failureMessage );
+        for ( IndexPopulator populator : allPopulators )
+        {
+            verify( populator, times( 1 ) ).markAsFailed( failureMessage );
+        }
     }
 
     @Test
-    public void markAsFailedMustThrowIfNativeThrow() throws Exception
+    public void markAsFailedMustThrowIfNumberThrow() throws Exception
     {
         // given
         IOException failure = new IOException( "fail" );
-        doThrow( failure ).when( nativePopulator ).markAsFailed( anyString() );
+        doThrow( failure ).when( numberPopulator ).markAsFailed( anyString() );
 
-        // then
         verifyCallFail( failure, () ->
         {
             fusionIndexPopulator.markAsFailed( anyString() );
@@ -367,13 +666,12 @@ public class FusionIndexPopulatorTest
     }
 
     @Test
-    public void markAsFailedMustThrowIfLuceneThrow() throws Exception
+    public void markAsFailedMustThrowIfStringThrow() throws Exception
     {
         // given
         IOException failure = new IOException( "fail" );
-        doThrow( failure ).when( lucenePopulator ).markAsFailed( anyString() );
+        doThrow( failure ).when( stringPopulator ).markAsFailed( anyString() );
 
-        // then
         verifyCallFail( failure, () ->
         {
             fusionIndexPopulator.markAsFailed( anyString() );
@@ -382,32 +680,40 @@ public class FusionIndexPopulatorTest
     }
 
     @Test
-    public void shouldIncludeSampleOnCorrectPopulator() throws Exception
+    public void markAsFailedMustThrowIfLuceneThrow() throws Exception
     {
         // given
-        Value[] numberValues = FusionIndexTestHelp.valuesSupportedByNative();
-        Value[] otherValues = FusionIndexTestHelp.valuesNotSupportedByNative();
+        IOException failure = new IOException( "fail" );
+        doThrow( failure ).when( lucenePopulator ).markAsFailed( anyString() );
 
-        for ( Value value : numberValues )
+        verifyCallFail( failure, () ->
         {
-            // when
-            IndexEntryUpdate<LabelSchemaDescriptor> update = add( value );
-            fusionIndexPopulator.includeSample( update );
+            fusionIndexPopulator.markAsFailed( anyString() );
+            return null;
+        } );
+    }
 
-            // then
-            verify( nativePopulator ).includeSample( update );
-            reset( nativePopulator );
-        }
+    @Test
+    public void shouldIncludeSampleOnCorrectPopulator() throws Exception
+    {
+        verifyIncludeSampleOnCorrectPopulator( numberPopulator, FusionIndexTestHelp.valuesSupportedByNumber() );
+        verifyIncludeSampleOnCorrectPopulator( stringPopulator, FusionIndexTestHelp.valuesSupportedByString() );
+        verifyIncludeSampleOnCorrectPopulator( spatialPopulator, FusionIndexTestHelp.valuesSupportedBySpatial() );
+        verifyIncludeSampleOnCorrectPopulator( temporalPopulator, FusionIndexTestHelp.valuesSupportedByTemporal() );
+        verifyIncludeSampleOnCorrectPopulator( lucenePopulator, FusionIndexTestHelp.valuesNotSupportedByNative() );
+    }
 
-        for ( Value value : otherValues )
+    private void verifyIncludeSampleOnCorrectPopulator( IndexPopulator correctPopulator, Value[] values )
+    {
+        for ( Value value : values )
         {
             // when
             IndexEntryUpdate<LabelSchemaDescriptor> update = add( value );
             fusionIndexPopulator.includeSample( update );
 
             // then
-            verify( lucenePopulator ).includeSample( update );
-            reset( lucenePopulator );
+            verify( correctPopulator ).includeSample( update );
+            reset( correctPopulator );
         }
     }
 }
@@ -28,16 +28,21 @@ import org.neo4j.collection.primitive.PrimitiveLongResourceCollections;
 import org.neo4j.collection.primitive.PrimitiveLongResourceIterator;
 import org.neo4j.collection.primitive.PrimitiveLongSet;
 import org.neo4j.internal.kernel.api.IndexQuery;
+import org.neo4j.internal.kernel.api.IndexQuery.GeometryRangePredicate;
 import org.neo4j.internal.kernel.api.IndexQuery.NumberRangePredicate;
 import org.neo4j.internal.kernel.api.IndexQuery.StringContainsPredicate;
 import org.neo4j.internal.kernel.api.IndexQuery.StringPrefixPredicate;
 import org.neo4j.internal.kernel.api.IndexQuery.StringRangePredicate;
 import org.neo4j.internal.kernel.api.IndexQuery.StringSuffixPredicate;
+import org.neo4j.internal.kernel.api.IndexQuery.TemporalRangePredicate;
 import org.neo4j.kernel.api.exceptions.index.IndexNotApplicableKernelException;
 import org.neo4j.kernel.api.schema.index.IndexDescriptorFactory;
 import org.neo4j.kernel.impl.index.schema.NativeSelector;
 import org.neo4j.storageengine.api.schema.IndexReader;
+import org.neo4j.values.storable.CoordinateReferenceSystem;
+import org.neo4j.values.storable.DateValue;
 import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
 
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
@@ -46,11 +51,19 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
+import static org.neo4j.kernel.impl.index.schema.fusion.FusionIndexTestHelp.MAX_COMPOSITE_KEY_BYTES;
+import static org.neo4j.kernel.impl.index.schema.fusion.FusionIndexTestHelp.MAX_STRING_BYTES;
+import static org.neo4j.kernel.impl.index.schema.fusion.FusionIndexTestHelp.supportedByComposite;
 
 public class FusionIndexReaderTest
 {
-    private IndexReader nativeReader;
+    private IndexReader numberReader;
+    private IndexReader stringReader;
+    private IndexReader spatialReader;
+    private IndexReader temporalReader;
+    private IndexReader compositeReader;
     private IndexReader luceneReader;
+    private IndexReader[] allReaders;
     private FusionIndexReader fusionIndexReader;
     private static final int PROP_KEY = 1;
     private static final int LABEL_KEY = 11;
@@ -58,41 +71,60 @@ public class FusionIndexReaderTest
     @Before
     public void setup()
     {
-        nativeReader = mock( IndexReader.class );
+        numberReader = mock( IndexReader.class );
+        stringReader = mock( IndexReader.class );
+        spatialReader = mock( IndexReader.class );
+        temporalReader = mock( IndexReader.class );
+        compositeReader = mock( IndexReader.class );
         luceneReader = mock( IndexReader.class );
-        fusionIndexReader = new FusionIndexReader( nativeReader, luceneReader, new NativeSelector(),
+        allReaders = new IndexReader[]{numberReader, stringReader, spatialReader, temporalReader, compositeReader, luceneReader};
+        fusionIndexReader = new FusionIndexReader( allReaders.clone(), new NativeSelector( MAX_STRING_BYTES, MAX_COMPOSITE_KEY_BYTES ),
                 IndexDescriptorFactory.forLabel( LABEL_KEY, PROP_KEY ) );
     }
 
     /* close */
 
     @Test
-    public void closeMustCloseBothNativeAndLucene() throws Exception
+    public void closeMustCloseAll() throws Exception
     {
         // when
         fusionIndexReader.close();
 
         // then
-        verify( nativeReader, times( 1 ) ).close();
-        verify( luceneReader, times( 1 ) ).close();
+        for ( IndexReader reader : allReaders )
+        {
+            verify( reader, times( 1 ) ).close();
+        }
     }
 
     // close iterator
 
     @Test
-    public void closeIteratorMustCloseNativeAndLucene() throws Exception
+    public void closeIteratorMustCloseAll() throws Exception
     {
         // given
-        PrimitiveLongResourceIterator nativeIter = mock( PrimitiveLongResourceIterator.class );
+        PrimitiveLongResourceIterator numberIter = mock( PrimitiveLongResourceIterator.class );
+        PrimitiveLongResourceIterator stringIter = mock( PrimitiveLongResourceIterator.class );
+        PrimitiveLongResourceIterator spatialIter = mock( PrimitiveLongResourceIterator.class );
+        PrimitiveLongResourceIterator temporalIter = mock( PrimitiveLongResourceIterator.class );
+        PrimitiveLongResourceIterator compositeIter = mock( PrimitiveLongResourceIterator.class );
         PrimitiveLongResourceIterator luceneIter = mock( PrimitiveLongResourceIterator.class );
-        when( nativeReader.query( any( IndexQuery.class ) ) ).thenReturn( nativeIter );
+        when( numberReader.query( any( IndexQuery.class ) ) ).thenReturn( numberIter );
+        when( stringReader.query( any( IndexQuery.class ) ) ).thenReturn( stringIter );
+        when( spatialReader.query( any( IndexQuery.class ) ) ).thenReturn( spatialIter );
+        when( temporalReader.query( any( IndexQuery.class ) ) ).thenReturn( temporalIter );
+        when( compositeReader.query( any( IndexQuery.class ) ) ).thenReturn( compositeIter );
         when( luceneReader.query( any( IndexQuery.class ) ) ).thenReturn( luceneIter );
 
         // when
         fusionIndexReader.query( IndexQuery.exists( PROP_KEY ) ).close();
 
         // then
-        verify( nativeIter, times( 1 ) ).close();
+        verify( numberIter, times( 1 ) ).close();
+        verify( stringIter, times( 1 ) ).close();
+        verify( spatialIter, times( 1 ) ).close();
+        verify( temporalIter, times( 1 ) ).close();
+        verify( compositeIter, times( 1 ) ).close();
         verify( luceneIter, times( 1 ) ).close();
     }
 
@@ -102,120 +134,251 @@ public class FusionIndexReaderTest
     public void countIndexedNodesMustSelectCorrectReader() throws Exception
     {
         // given
-        Value[] nativeValues = FusionIndexTestHelp.valuesSupportedByNative();
+        Value[] numberValues = FusionIndexTestHelp.valuesSupportedByNumber();
+        Value[] stringValues = FusionIndexTestHelp.valuesSupportedByString();
         Value[] otherValues = FusionIndexTestHelp.valuesNotSupportedByNative();
         Value[] allValues = FusionIndexTestHelp.allValues();
 
         // when
-        for ( Value nativeValue : nativeValues )
+        for ( Value numberValue : numberValues )
         {
-            verifyCountIndexedNodesWithCorrectReader( nativeReader, luceneReader, nativeValue );
+            verifyCountIndexedNodesWithCorrectReader( numberReader, numberValue );
+        }
+
+        for ( Value stringValue : stringValues )
+        {
+            verifyCountIndexedNodesWithCorrectReader( stringReader, stringValue );
+        }
+
+        for ( Value spatialValue : FusionIndexTestHelp.valuesSupportedBySpatial() )
+        {
+            verifyCountIndexedNodesWithCorrectReader( spatialReader, spatialValue );
+        }
+
+        for ( Value temporalValue : FusionIndexTestHelp.valuesSupportedByTemporal() )
+        {
+            verifyCountIndexedNodesWithCorrectReader( temporalReader, temporalValue );
         }
 
         for ( Value otherValue : otherValues )
         {
-            verifyCountIndexedNodesWithCorrectReader( luceneReader, nativeReader, otherValue );
+            verifyCountIndexedNodesWithCorrectReader( luceneReader, otherValue );
         }
 
         for ( Value firstValue : allValues )
         {
             for ( Value secondValue : allValues )
             {
-                verifyCountIndexedNodesWithCorrectReader( luceneReader, nativeReader, firstValue, secondValue );
+                IndexReader correctReader = supportedByComposite( firstValue, secondValue ) ? compositeReader : luceneReader;
+                verifyCountIndexedNodesWithCorrectReader( correctReader, firstValue, secondValue );
             }
         }
     }
 
-    private void verifyCountIndexedNodesWithCorrectReader( IndexReader correct, IndexReader wrong, Value... nativeValue )
+    private void verifyCountIndexedNodesWithCorrectReader( IndexReader correct, Value... values )
     {
-        fusionIndexReader.countIndexedNodes( 0, nativeValue );
-        verify( correct, times( 1 ) ).countIndexedNodes( 0, nativeValue );
-        verify( wrong, times( 0 ) ).countIndexedNodes( 0, nativeValue );
+        fusionIndexReader.countIndexedNodes( 0, values );
+        for ( IndexReader reader : allReaders )
+        {
+            verify( reader, times( reader == correct ? 1 : 0 ) ).countIndexedNodes( 0, values );
+        }
     }
 
     /* query */
 
     @Test
-    public void mustSelectLuceneForCompositePredicate() throws Exception
+    public void mustSelectCompositeForCompositeExactPredicateWithSupportedValues() throws Exception
+    {
+        // then
+        verifyQueryWithCorrectReader( compositeReader, IndexQuery.exact( PROP_KEY, 1 ), IndexQuery.exact( PROP_KEY + 1, "a" ) );
+    }
+
+    @Test
+    public void mustSelectLuceneForCompositeExactPredicateWithOtherValues() throws Exception
+    {
+        // given
+        Value point = Values.pointValue( CoordinateReferenceSystem.Cartesian, 1.0, 2.0 );
+
+        // then
+        verifyQueryWithCorrectReader( luceneReader, IndexQuery.exact( PROP_KEY, 1 ), IndexQuery.exact( PROP_KEY + 1, point ) );
+    }
+
+    @Test
+    public void mustSelectCompositeForCompositeNumberRangePredicateAfterExactPrefix() throws Exception
+    {
+        // given
+        NumberRangePredicate numberRange = IndexQuery.range( PROP_KEY + 1, 0, true, 10, false );
+
+        // then
+        verifyQueryWithCorrectReader( compositeReader, IndexQuery.exact( PROP_KEY, "a" ), numberRange );
+    }
+
+    @Test
+    public void mustCombineCompositeAndLuceneScanForCompositeStringRangePredicate() throws Exception
+    {
+        // given
+        IndexQuery[] predicates = {IndexQuery.exact( PROP_KEY, 1 ), IndexQuery.range( PROP_KEY + 1, "a", true, "c", false )};
+        IndexQuery[] scan = {IndexQuery.exists( PROP_KEY ), IndexQuery.exists( PROP_KEY + 1 )};
+        when( compositeReader.query( predicates ) ).thenReturn( PrimitiveLongResourceCollections.iterator( null, 0L, 1L, 3L ) );
+        when( luceneReader.query( scan ) ).thenReturn( PrimitiveLongResourceCollections.iterator( null, 2L, 4L ) );
+
+        // when
+        PrimitiveLongIterator result = fusionIndexReader.query( predicates );
+
+        // then
+        assertResultContainsAll( result, 5 );
+        verifyNoMoreInteractions( numberReader );
+        verifyNoMoreInteractions( stringReader );
+        verifyNoMoreInteractions( spatialReader );
+        verifyNoMoreInteractions( temporalReader );
+    }
+
+    @Test
+    public void mustScanLuceneForCompositePredicateThatCompositeCanNotSeek() throws Exception
     {
+        // when
+        fusionIndexReader.query( IndexQuery.exact( PROP_KEY, 1 ), IndexQuery.stringPrefix( PROP_KEY + 1, "a" ) );
+
         // then
-        verifyQueryWithCorrectReader( luceneReader, nativeReader, any( IndexQuery.class ), any( IndexQuery.class ) );
+        verify( luceneReader, times( 1 ) ).query( IndexQuery.exists( PROP_KEY ), IndexQuery.exists( PROP_KEY + 1 ) );
+        verifyNoMoreInteractions( compositeReader );
     }
 
     @Test
-    public void mustSelectNativeForExactPredicateWithNumberValue() throws Exception
+    public void mustSelectNumberForExactPredicateWithNumberValue() throws Exception
     {
         // given
-        for ( Object numberValue : FusionIndexTestHelp.valuesSupportedByNative() )
+        for ( Object numberValue : FusionIndexTestHelp.valuesSupportedByNumber() )
         {
             IndexQuery indexQuery = IndexQuery.exact( PROP_KEY, numberValue );
 
             // then
-            verifyQueryWithCorrectReader( nativeReader, luceneReader, indexQuery );
+            verifyQueryWithCorrectReader( numberReader, indexQuery );
         }
     }
 
     @Test
-    public void mustSelectLuceneForExactPredicateWithNonNumberValue() throws Exception
+    public void mustSelectStringForExactPredicateWithStringValue() throws Exception
     {
         // given
-        for ( Object nonNumberValue : FusionIndexTestHelp.valuesNotSupportedByNative() )
+        for ( Object stringValue : FusionIndexTestHelp.valuesSupportedByString() )
         {
-            IndexQuery indexQuery = IndexQuery.exact( PROP_KEY, nonNumberValue );
+            IndexQuery indexQuery = IndexQuery.exact( PROP_KEY, stringValue );
 
             // then
-            verifyQueryWithCorrectReader( luceneReader, nativeReader, indexQuery );
+            verifyQueryWithCorrectReader( stringReader, indexQuery );
         }
     }
 
     @Test
-    public void mustSelectLuceneForRangeStringPredicate() throws Exception
+    public void mustSelectSpatialForExactPredicateWithSpatialValue() throws Exception
     {
         // given
-        StringRangePredicate stringRange = IndexQuery.range( PROP_KEY, "abc", true, "def", false );
+        for ( Object spatialValue : FusionIndexTestHelp.valuesSupportedBySpatial() )
+        {
+            IndexQuery indexQuery = IndexQuery.exact( PROP_KEY, spatialValue );
 
-        // then
-        verifyQueryWithCorrectReader( luceneReader, nativeReader, stringRange );
+            // then
+            verifyQueryWithCorrectReader( spatialReader, indexQuery );
+        }
     }
 
     @Test
-    public void mustSelectNativeForRangeNumericPredicate() throws Exception
+    public void mustSelectTemporalForExactPredicateWithTemporalValue() throws Exception
+    {
+        // given
+        for ( Object temporalValue : FusionIndexTestHelp.valuesSupportedByTemporal() )
+        {
+            IndexQuery indexQuery = IndexQuery.exact( PROP_KEY, temporalValue );
+
+            // then
+            verifyQueryWithCorrectReader( temporalReader, indexQuery );
+        }
+    }
+
+    @Test
+    public void mustSelectLuceneForExactPredicateWithOtherValue() throws Exception
+    {
+        // given
+        for ( Object otherValue : FusionIndexTestHelp.valuesNotSupportedByNative() )
+        {
+            IndexQuery indexQuery = IndexQuery.exact( PROP_KEY, otherValue );
+
+            // then
+            verifyQueryWithCorrectReader( luceneReader, indexQuery );
+        }
+    }
+
+    @Test
+    public void mustSelectNumberForRangeNumericPredicate() throws Exception
     {
         // given
         NumberRangePredicate numberRange = IndexQuery.range( PROP_KEY, 0, true, 1, false );
 
         // then
-        verifyQueryWithCorrectReader( nativeReader, luceneReader, numberRange );
+        verifyQueryWithCorrectReader( numberReader, numberRange );
     }
 
     @Test
-    public void mustSelectLuceneForStringPrefixPredicate() throws Exception
+    public void mustSelectSpatialForRangeGeometricPredicate() throws Exception
+    {
+        // given
+        GeometryRangePredicate geometryRange = IndexQuery.range( PROP_KEY,
+                Values.pointValue( CoordinateReferenceSystem.Cartesian, -10.0, -10.0 ), true,
+                Values.pointValue( CoordinateReferenceSystem.Cartesian, 10.0, 10.0 ), true );
+
+        // then
+        verifyQueryWithCorrectReader( spatialReader, geometryRange );
+    }
+
+    @Test
+    public void mustSelectTemporalForRangeTemporalPredicate() throws Exception
+    {
+        // given
+        TemporalRangePredicate temporalRange = IndexQuery.range( PROP_KEY, DateValue.epochDate( 10 ), true, DateValue.epochDate( 20 ), false );
+
+        // then
+        verifyQueryWithCorrectReader( temporalReader, temporalRange );
+    }
+
+    @Test
+    public void mustCombineStringAndLuceneForRangeStringPredicate() throws Exception
+    {
+        // given
+        StringRangePredicate stringRange = IndexQuery.range( PROP_KEY, "abc", true, "def", false );
+
+        // then
+        verifyQueryCombinesStringAndLucene( stringRange );
+    }
+
+    @Test
+    public void mustCombineStringAndLuceneForStringPrefixPredicate() throws Exception
     {
         // given
         StringPrefixPredicate stringPrefix = IndexQuery.stringPrefix( PROP_KEY, "abc" );
 
         // then
-        verifyQueryWithCorrectReader( luceneReader, nativeReader, stringPrefix );
+        verifyQueryCombinesStringAndLucene( stringPrefix );
     }
 
     @Test
-    public void mustSelectLuceneForStringSuffixPredicate() throws Exception
+    public void mustCombineStringAndLuceneForStringSuffixPredicate() throws Exception
     {
         // given
-        StringSuffixPredicate stringPrefix = IndexQuery.stringSuffix( PROP_KEY, "abc" );
+        StringSuffixPredicate stringSuffix = IndexQuery.stringSuffix( PROP_KEY, "abc" );
 
         // then
-        verifyQueryWithCorrectReader( luceneReader, nativeReader, stringPrefix );
+        verifyQueryCombinesStringAndLucene( stringSuffix );
     }
 
     @Test
-    public void mustSelectLuceneForStringContainsPredicate() throws Exception
+    public void mustCombineStringAndLuceneForStringContainsPredicate() throws Exception
     {
         // given
         StringContainsPredicate stringContains = IndexQuery.stringContains( PROP_KEY, "abc" );
 
         // then
-        verifyQueryWithCorrectReader( luceneReader, nativeReader, stringContains );
+        verifyQueryCombinesStringAndLucene( stringContains );
     }
 
     @Test
@@ -223,21 +386,47 @@ public class FusionIndexReaderTest
     {
         // given
         IndexQuery.ExistsPredicate exists = IndexQuery.exists( PROP_KEY );
-        when( nativeReader.query( exists ) ).thenReturn( PrimitiveLongResourceCollections.iterator( null, 0L, 1L, 3L, 4L, 7L ) );
+        when( numberReader.query( exists ) ).thenReturn( PrimitiveLongResourceCollections.iterator( null, 0L, 1L, 4L, 7L ) );
+        when( stringReader.query( exists ) ).thenReturn( PrimitiveLongResourceCollections.iterator( null, 3L, 8L ) );
+        when( spatialReader.query( exists ) ).thenReturn( PrimitiveLongResourceCollections.iterator( null, 9L, 10L ) );
+        when( temporalReader.query( exists ) ).thenReturn( PrimitiveLongResourceCollections.iterator( null, 11L, 12L ) );
+        when( compositeReader.query( exists ) ).thenReturn( PrimitiveLongResourceCollections.iterator( null, 13L, 14L ) );
         when( luceneReader.query( exists ) ).thenReturn( PrimitiveLongResourceCollections.iterator( null, 2L, 5L, 6L ) );
 
         // when
         PrimitiveLongIterator result = fusionIndexReader.query( exists );
 
         // then
+        assertResultContainsAll( result, 15 );
+    }
+
+    private void verifyQueryCombinesStringAndLucene( IndexQuery indexQuery ) throws IndexNotApplicableKernelException
+    {
+        // given
+        when( stringReader.query( indexQuery ) ).thenReturn( PrimitiveLongResourceCollections.iterator( null, 0L, 1L, 3L ) );
+        when( luceneReader.query( indexQuery ) ).thenReturn( PrimitiveLongResourceCollections.iterator( null, 2L, 4L ) );
+
+        // when
+        PrimitiveLongIterator result = fusionIndexReader.query( indexQuery );
+
+        // then
+        assertResultContainsAll( result, 5 );
+        verifyNoMoreInteractions( numberReader );
+        verifyNoMoreInteractions( spatialReader );
+        verifyNoMoreInteractions( temporalReader );
+        verifyNoMoreInteractions( compositeReader );
+    }
+
+    private void assertResultContainsAll( PrimitiveLongIterator result, long count )
+    {
         PrimitiveLongSet resultSet = PrimitiveLongCollections.asSet( result );
-        for ( long i = 0L; i < 8L; i++ )
+        for ( long i = 0L; i < count; i++ )
         {
             assertTrue( "Expected to contain " + i + ", but was " + resultSet, resultSet.contains( i ) );
         }
     }
 
-    private void verifyQueryWithCorrectReader( IndexReader expectedReader, IndexReader unexpectedReader, IndexQuery... indexQuery )
+    private void verifyQueryWithCorrectReader( IndexReader expectedReader, IndexQuery... indexQuery )
             throws IndexNotApplicableKernelException
     {
         // when
@@ -245,6 +434,12 @@ public class FusionIndexReaderTest
 
         // then
         verify( expectedReader, times( 1 ) ).query( indexQuery );
-        verifyNoMoreInteractions( unexpectedReader );
+        for ( IndexReader reader : allReaders )
+        {
+            if ( reader != expectedReader )
+            {
+                verifyNoMoreInteractions( reader );
+            }
+        }
     }
 }
@@ -20,14 +20,26 @@
 package org.neo4j.kernel.impl.index.schema.fusion;
 
 import org.apache.commons.lang3.ArrayUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.hamcrest.Matcher;
 import org.mockito.Mockito;
 
 import java.io.IOException;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.Callable;
 
 import org.neo4j.internal.kernel.api.schema.LabelSchemaDescriptor;
 import org.neo4j.kernel.api.index.IndexEntryUpdate;
 import org.neo4j.kernel.api.schema.SchemaDescriptorFactory;
+import org.neo4j.values.storable.CoordinateReferenceSystem;
+import org.neo4j.values.storable.DateTimeValue;
+import org.neo4j.values.storable.DateValue;
+import org.neo4j.values.storable.DurationValue;
+import org.neo4j.values.storable.LocalDateTimeValue;
+import org.neo4j.values.storable.LocalTimeValue;
+import org.neo4j.values.storable.TimeValue;
 import org.neo4j.values.storable.Value;
 import org.neo4j.values.storable.Values;
 
@@ -41,6 +53,9 @@ import static org.mockito.Mockito.verify;
 
 class FusionIndexTestHelp
 {
+    static final int MAX_STRING_BYTES = 100;
+    static final int MAX_COMPOSITE_KEY_BYTES = 100;
+
     private static LabelSchemaDescriptor indexKey = SchemaDescriptorFactory.forLabel( 0, 0 );
     private static LabelSchemaDescriptor compositeIndexKey = SchemaDescriptorFactory.forLabel( 0, 0, 1 );
 
@@ -53,11 +68,28 @@ class FusionIndexTestHelp
                     Values.floatValue( 5.6f ),
                     Values.doubleValue( 7.8 )
             };
+    private static final Value[] stringValues = new Value[]
+            {
+                    Values.charValue( 'a' ),
+                    Values.stringValue( "bcd" )
+            };
+    private static final Value[] spatialValues = new Value[]
+            {
+                    Values.pointValue( CoordinateReferenceSystem.Cartesian, 1.0, 2.0 ),
+                    Values.pointValue( CoordinateReferenceSystem.WGS84, 12.78, 56.7 )
+            };
+    private static final Value[] temporalValues = new Value[]
+            {
+                    DateValue.epochDate( 2 ),
+                    LocalTimeValue.localTime( 100_000 ),
+                    TimeValue.time( 43_200_000_000_000L, ZoneOffset.ofHours( 1 ) ),
+                    LocalDateTimeValue.localDateTime( 2_000, 1 ),
+                    DateTimeValue.datetime( 3_000, 2, ZoneOffset.UTC ),
+                    DurationValue.duration( 4, 5, 6, 7 )
+            };
     private static final Value[] otherValues = new Value[]
             {
                     Values.booleanValue( true ),
-                    Values.charValue( 'a' ),
-                    Values.stringValue( "bcd" ),
                     Values.booleanArray( new boolean[2] ),
                     Values.byteArray( new byte[]{1, 2} ),
                     Values.shortArray( new short[]{3, 4} ),
@@ -67,14 +99,52 @@ class FusionIndexTestHelp
                     Values.doubleArray( new double[]{13.14, 15.16} ),
                     Values.charArray( new char[2] ),
                     Values.stringArray( "a", "b" ),
+                    // Too long for the string index
+                    Values.stringValue( StringUtils.repeat( 'c', MAX_STRING_BYTES + 1 ) ),
+                    Values.stringValue( StringUtils.repeat( '\u00e5', MAX_STRING_BYTES / 2 + 1 ) ),
+                    // Only two dimensional points are supported by the spatial index
+                    Values.pointValue( CoordinateReferenceSystem.Cartesian, 1.0, 2.0, 3.0 ),
                     Values.NO_VALUE
             };
 
-    static Value[] valuesSupportedByNative()
+    static Value[] valuesSupportedByNumber()
     {
         return numberValues;
     }
 
+    static Value[] valuesSupportedByString()
+    {
+        return stringValues;
+    }
+
+    static Value[] valuesSupportedBySpatial()
+    {
+        return spatialValues;
+    }
+
+    static Value[] valuesSupportedByTemporal()
+    {
+        return temporalValues;
+    }
+
+    static Value[] valuesSupportedByComposite()
+    {
+        return ArrayUtils.addAll( ArrayUtils.addAll( numberValues, stringValues ), Values.booleanValue( true ) );
+    }
+
+    static boolean supportedByComposite( Value... values )
+    {
+        Value[] compositeValues = valuesSupportedByComposite();
+        for ( Value value : values )
+        {
+            if ( !ArrayUtils.contains( compositeValues, value ) )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
     static Value[] valuesNotSupportedByNative()
     {
         return otherValues;
@@ -82,7 +152,8 @@ class FusionIndexTestHelp
 
     static Value[] allValues()
     {
-        return ArrayUtils.addAll( numberValues, otherValues );
+        Value[] nativeValues = ArrayUtils.addAll( ArrayUtils.addAll( ArrayUtils.addAll( numberValues, stringValues ), spatialValues ), temporalValues );
+        return ArrayUtils.addAll( nativeValues, otherValues );
     }
 
     static void verifyCallFail( Exception expectedFailure, Callable failingCall ) throws Exception
@@ -134,8 +205,8 @@ class FusionIndexTestHelp
         return IndexEntryUpdate.change( 0, indexKey, before, after );
     }
 
-    static void verifyOtherIsClosedOnSingleThrow( AutoCloseable failingCloseable, AutoCloseable successfulCloseable,
-            AutoCloseable fusionCloseable ) throws Exception
+    static void verifyOtherIsClosedOnSingleThrow( AutoCloseable failingCloseable, AutoCloseable fusionCloseable,
+            AutoCloseable... successfulCloseables ) throws Exception
     {
         IOException failure = new IOException( "fail" );
         doThrow( failure ).when( failingCloseable ).close();
@@ -151,7 +222,10 @@ class FusionIndexTestHelp
         }
 
         // then
-        verify( successfulCloseable, Mockito.times( 1 ) ).close();
+        for ( AutoCloseable successfulCloseable : successfulCloseables )
+        {
+            verify( successfulCloseable, Mockito.times( 1 ) ).close();
+        }
     }
 
     static void verifyFusionCloseThrowOnSingleCloseThrow( AutoCloseable failingCloseable, AutoCloseable fusionCloseable )
@@ -170,14 +244,15 @@ class FusionIndexTestHelp
         }
     }
 
-    static void verifyFusionCloseThrowIfBothThrow( AutoCloseable nativeCloseable, AutoCloseable luceneCloseable,
-            AutoCloseable fusionCloseable ) throws Exception
+    static void verifyFusionCloseThrowIfAllThrow( AutoCloseable fusionCloseable, AutoCloseable... autoCloseables ) throws Exception
     {
         // given
-        IOException nativeFailure = new IOException( "native" );
-        IOException luceneFailure = new IOException( "lucene" );
-        doThrow( nativeFailure ).when( nativeCloseable ).close();
-        doThrow( luceneFailure ).when( luceneCloseable ).close();
+        IOException[] failures = new IOException[autoCloseables.length];
+        for ( int i = 0; i < autoCloseables.length; i++ )
+        {
+            failures[i] = new IOException( "unknown" );
+            doThrow( failures[i] ).when( autoCloseables[i] ).close();
+        }
 
         try
         {
@@ -188,7 +263,12 @@ class FusionIndexTestHelp
         catch ( IOException e )
         {
             // then
-            assertThat( e, anyOf( sameInstance( nativeFailure ), sameInstance( luceneFailure ) ) );
+            List<Matcher<? super IOException>> matchers = new ArrayList<>();
+            for ( IOException failure : failures )
+            {
+                matchers.add( sameInstance( failure ) );
+            }
+            assertThat( e, anyOf( matchers ) );
         }
     }
 }
@@ -29,27 +29,41 @@ import org.neo4j.kernel.api.exceptions.index.IndexEntryConflictException;
 import org.neo4j.kernel.api.index.IndexEntryUpdate;
 import org.neo4j.kernel.api.index.IndexUpdater;
 import org.neo4j.kernel.impl.index.schema.NativeSelector;
+import org.neo4j.values.storable.CoordinateReferenceSystem;
 import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
 
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.neo4j.kernel.impl.index.schema.fusion.FusionIndexTestHelp.MAX_COMPOSITE_KEY_BYTES;
+import static org.neo4j.kernel.impl.index.schema.fusion.FusionIndexTestHelp.MAX_STRING_BYTES;
 import static org.neo4j.kernel.impl.index.schema.fusion.FusionIndexTestHelp.add;
 import static org.neo4j.kernel.impl.index.schema.fusion.FusionIndexTestHelp.change;
 import static org.neo4j.kernel.impl.index.schema.fusion.FusionIndexTestHelp.remove;
+import static org.neo4j.kernel.impl.index.schema.fusion.FusionIndexTestHelp.supportedByComposite;
 
 public class FusionIndexUpdaterTest
 {
-    private IndexUpdater nativeUpdater;
+    private IndexUpdater numberUpdater;
+    private IndexUpdater stringUpdater;
+    private IndexUpdater spatialUpdater;
+    private IndexUpdater temporalUpdater;
+    private IndexUpdater compositeUpdater;
     private IndexUpdater luceneUpdater;
     private FusionIndexUpdater fusionIndexUpdater;
 
     @Before
     public void setup()
     {
-        nativeUpdater = mock( IndexUpdater.class );
+        numberUpdater = mock( IndexUpdater.class );
+        stringUpdater = mock( IndexUpdater.class );
+        spatialUpdater = mock( IndexUpdater.class );
+        temporalUpdater = mock( IndexUpdater.class );
+        compositeUpdater = mock( IndexUpdater.class );
         luceneUpdater = mock( IndexUpdater.class );
-        fusionIndexUpdater = new FusionIndexUpdater( nativeUpdater, luceneUpdater, new NativeSelector() );
+        IndexUpdater[] updaters = {numberUpdater, stringUpdater, spatialUpdater, temporalUpdater, compositeUpdater, luceneUpdater};
+        fusionIndexUpdater = new FusionIndexUpdater( updaters, new NativeSelector( MAX_STRING_BYTES, MAX_COMPOSITE_KEY_BYTES ) );
     }
 
     /* process */
@@ -58,23 +72,48 @@ public class FusionIndexUpdaterTest
     public void processMustSelectCorrectForAdd() throws Exception
     {
         // given
-        Value[] supportedByNative = FusionIndexTestHelp.valuesSupportedByNative();
+        Value[] supportedByNumber = FusionIndexTestHelp.valuesSupportedByNumber();
+        Value[] supportedByString = FusionIndexTestHelp.valuesSupportedByString();
         Value[] notSupportedByNative = FusionIndexTestHelp.valuesNotSupportedByNative();
         Value[] allValues = FusionIndexTestHelp.allValues();
 
         // when
-        // ... value supported by native
-        for ( Value value : supportedByNative )
+        // ... value supported by number
+        for ( Value value : supportedByNumber )
         {
             //then
-            verifyAddWithCorrectUpdater( nativeUpdater, luceneUpdater, value );
+            verifyAddWithCorrectUpdater( numberUpdater, value );
+        }
+
+        // when
+        // ... value supported by string
+        for ( Value value : supportedByString )
+        {
+            //then
+            verifyAddWithCorrectUpdater( stringUpdater, value );
+        }
+
+        // when
+        // ... value supported by spatial
+        for ( Value value : FusionIndexTestHelp.valuesSupportedBySpatial() )
+        {
+            //then
+            verifyAddWithCorrectUpdater( spatialUpdater, value );
+        }
+
+        // when
+        // ... value supported by temporal
+        for ( Value value : FusionIndexTestHelp.valuesSupportedByTemporal() )
+        {
+            //then
+            verifyAddWithCorrectUpdater( temporalUpdater, value );
         }
 
         // when
         // ... value not supported by native
         for ( Value value : notSupportedByNative )
         {
-            verifyAddWithCorrectUpdater( luceneUpdater, nativeUpdater, value );
+            verifyAddWithCorrectUpdater( luceneUpdater, value );
         }
 
         // when
@@ -83,7 +122,8 @@ public class FusionIndexUpdaterTest
         {
             for ( Value secondValue : allValues )
             {
-                verifyAddWithCorrectUpdater( luceneUpdater, nativeUpdater, firstValue, secondValue );
+                IndexUpdater correctUpdater = supportedByComposite( firstValue, secondValue ) ? compositeUpdater : luceneUpdater;
+                verifyAddWithCorrectUpdater( correctUpdater, firstValue, secondValue );
             }
         }
     }
@@ -92,23 +132,48 @@ public class FusionIndexUpdaterTest
     public void processMustSelectCorrectForRemove() throws Exception
     {
         // given
-        Value[] supportedByNative = FusionIndexTestHelp.valuesSupportedByNative();
+        Value[] supportedByNumber = FusionIndexTestHelp.valuesSupportedByNumber();
+        Value[] supportedByString = FusionIndexTestHelp.valuesSupportedByString();
         Value[] notSupportedByNative = FusionIndexTestHelp.valuesNotSupportedByNative();
         Value[] allValues = FusionIndexTestHelp.allValues();
 
         // when
-        // ... value supported by native
-        for ( Value value : supportedByNative )
+        // ... value supported by number
+        for ( Value value : supportedByNumber )
         {
             //then
-            verifyRemoveWithCorrectUpdater( nativeUpdater, luceneUpdater, value );
+            verifyRemoveWithCorrectUpdater( numberUpdater, value );
+        }
+
+        // when
+        // ... value supported by string
+        for ( Value value : supportedByString )
+        {
+            //then
+            verifyRemoveWithCorrectUpdater( stringUpdater, value );
+        }
+
+        // when
+        // ... value supported by spatial
+        for ( Value value : FusionIndexTestHelp.valuesSupportedBySpatial() )
+        {
+            //then
+            verifyRemoveWithCorrectUpdater( spatialUpdater, value );
+        }
+
+        // when
+        // ... value supported by temporal
+        for ( Value value : FusionIndexTestHelp.valuesSupportedByTemporal() )
+        {
+            //then
+            verifyRemoveWithCorrectUpdater( temporalUpdater, value );
         }
 
         // when
         // ... value not supported by native
         for ( Value value : notSupportedByNative )
         {
-            verifyRemoveWithCorrectUpdater( luceneUpdater, nativeUpdater, value );
+            verifyRemoveWithCorrectUpdater( luceneUpdater, value );
         }
 
         // when
@@ -117,98 +182,209 @@ public class FusionIndexUpdaterTest
         {
             for ( Value secondValue : allValues )
             {
-                verifyRemoveWithCorrectUpdater( luceneUpdater, nativeUpdater, firstValue, secondValue );
+                IndexUpdater correctUpdater = supportedByComposite( firstValue, secondValue ) ? compositeUpdater : luceneUpdater;
+                verifyRemoveWithCorrectUpdater( correctUpdater, firstValue, secondValue );
             }
         }
     }
 
     @Test
-    public void processMustSelectCorrectForChangeSupportedByNative() throws Exception
+    public void processMustSelectCorrectForChangeSupportedByNumber() throws Exception
+    {
+        verifyChangeWithCorrectUpdaterNotMixed( numberUpdater, FusionIndexTestHelp.valuesSupportedByNumber() );
+    }
+
+    @Test
+    public void processMustSelectCorrectForChangeSupportedByString() throws Exception
+    {
+        verifyChangeWithCorrectUpdaterNotMixed( stringUpdater, FusionIndexTestHelp.valuesSupportedByString() );
+    }
+
+    @Test
+    public void processMustSelectCorrectForChangeSupportedBySpatial() throws Exception
+    {
+        verifyChangeWithCorrectUpdaterNotMixed( spatialUpdater, FusionIndexTestHelp.valuesSupportedBySpatial() );
+    }
+
+    @Test
+    public void processMustSelectCorrectForChangeSupportedByTemporal() throws Exception
+    {
+        verifyChangeWithCorrectUpdaterNotMixed( temporalUpdater, FusionIndexTestHelp.valuesSupportedByTemporal() );
+    }
+
+    @Test
+    public void processMustSelectCorrectForChangeSupportedByComposite() throws Exception
+    {
+        // when
+        IndexEntryUpdate<LabelSchemaDescriptor> update = change( new Value[]{Values.intValue( 1 ), Values.stringValue( "a" )},
+                new Value[]{Values.longValue( 2 ), Values.booleanValue( true )} );
+        fusionIndexUpdater.process( update );
+
+        // then
+        verifyOnlyProcessedBy( compositeUpdater, update );
+    }
+
+    @Test
+    public void processMustSelectCorrectForChangeFromCompositeToLucene() throws Exception
     {
         // given
-        Value[] supportedByNative = FusionIndexTestHelp.valuesSupportedByNative();
+        Value[] before = {Values.intValue( 1 ), Values.stringValue( "a" )};
+        Value[] after = {Values.intValue( 1 ), Values.pointValue( CoordinateReferenceSystem.Cartesian, 1.0, 2.0 )};
 
         // when
-        // ... before - supported
-        // ... after - supported
-        for ( Value before : supportedByNative )
-        {
-            for ( Value after : supportedByNative )
-            {
-                verifyChangeWithCorrectUpdaterNotMixed( nativeUpdater, luceneUpdater, before, after );
-            }
-        }
+        fusionIndexUpdater.process( change( before, after ) );
+
+        // then
+        verify( compositeUpdater, times( 1 ) ).process( remove( before ) );
+        verify( luceneUpdater, times( 1 ) ).process( add( after ) );
     }
 
     @Test
     public void processMustSelectCorrectForChangeNotSupportedByNative() throws Exception
     {
-        // given
-        Value[] notSupportedByNative = FusionIndexTestHelp.valuesNotSupportedByNative();
+        verifyChangeWithCorrectUpdaterNotMixed( luceneUpdater, FusionIndexTestHelp.valuesNotSupportedByNative() );
+    }
 
+    @Test
+    public void processMustSelectCorrectForChangeFromNumberToLucene() throws Exception
+    {
+        // when
+        // ... before - supported by number
+        // ... after - not supported
+        verifyChangeWithCorrectUpdaterMixed( numberUpdater, luceneUpdater,
+                FusionIndexTestHelp.valuesSupportedByNumber(), FusionIndexTestHelp.valuesNotSupportedByNative() );
+    }
+
+    @Test
+    public void processMustSelectCorrectForChangeFromLuceneToNumber() throws Exception
+    {
         // when
         // ... before - not supported
+        // ... after - supported by number
+        verifyChangeWithCorrectUpdaterMixed( luceneUpdater, numberUpdater,
+                FusionIndexTestHelp.valuesNotSupportedByNative(), FusionIndexTestHelp.valuesSupportedByNumber() );
+    }
+
+    @Test
+    public void processMustSelectCorrectForChangeFromStringToLucene() throws Exception
+    {
+        // when
+        // ... before - supported by string
         // ... after - not supported
-        for ( Value before : notSupportedByNative )
-        {
-            for ( Value after : notSupportedByNative )
-            {
-                verifyChangeWithCorrectUpdaterNotMixed( luceneUpdater, nativeUpdater, before, after );
-            }
-        }
+        verifyChangeWithCorrectUpdaterMixed( stringUpdater, luceneUpdater,
+                FusionIndexTestHelp.valuesSupportedByString(), FusionIndexTestHelp.valuesNotSupportedByNative() );
     }
 
     @Test
-    public void processMustSelectCorrectForChangeFromNativeToLucene() throws Exception
+    public void processMustSelectCorrectForChangeFromLuceneToString() throws Exception
     {
-        // given
-        Value[] supportedByNative = FusionIndexTestHelp.valuesSupportedByNative();
-        Value[] notSupportedByNative = FusionIndexTestHelp.valuesNotSupportedByNative();
+        // when
+        // ... before - not supported
+        // ... after - supported by string
+        verifyChangeWithCorrectUpdaterMixed( luceneUpdater, stringUpdater,
+                FusionIndexTestHelp.valuesNotSupportedByNative(), FusionIndexTestHelp.valuesSupportedByString() );
+    }
 
+    @Test
+    public void processMustSelectCorrectForChangeFromNumberToString() throws Exception
+    {
         // when
-        // ... before - supported
+        // ... before - supported by number
+        // ... after - supported by string
+        verifyChangeWithCorrectUpdaterMixed( numberUpdater, stringUpdater,
+                FusionIndexTestHelp.valuesSupportedByNumber(), FusionIndexTestHelp.valuesSupportedByString() );
+    }
+
+    @Test
+    public void processMustSelectCorrectForChangeFromStringToNumber() throws Exception
+    {
+        // when
+        // ... before - supported by string
+        // ... after - supported by number
+        verifyChangeWithCorrectUpdaterMixed( stringUpdater, numberUpdater,
+                FusionIndexTestHelp.valuesSupportedByString(), FusionIndexTestHelp.valuesSupportedByNumber() );
+    }
+
+    @Test
+    public void processMustSelectCorrectForChangeFromSpatialToLucene() throws Exception
+    {
+        // when
+        // ... before - supported by spatial
         // ... after - not supported
-        verifyChangeWithCorrectUpdaterMixed( nativeUpdater, luceneUpdater, supportedByNative, notSupportedByNative );
+        verifyChangeWithCorrectUpdaterMixed( spatialUpdater, luceneUpdater,
+                FusionIndexTestHelp.valuesSupportedBySpatial(), FusionIndexTestHelp.valuesNotSupportedByNative() );
     }
 
     @Test
-    public void processMustSelectCorrectForChangeFromLuceneToNative() throws Exception
+    public void processMustSelectCorrectForChangeFromNumberToSpatial() throws Exception
     {
-        // given
-        Value[] supportedByNative = FusionIndexTestHelp.valuesSupportedByNative();
-        Value[] notSupportedByNative = FusionIndexTestHelp.valuesNotSupportedByNative();
+        // when
+        // ... before - supported by number
+        // ... after - supported by spatial
+        verifyChangeWithCorrectUpdaterMixed( numberUpdater, spatialUpdater,
+                FusionIndexTestHelp.valuesSupportedByNumber(), FusionIndexTestHelp.valuesSupportedBySpatial() );
+    }
 
+    @Test
+    public void processMustSelectCorrectForChangeFromNumberToTemporal() throws Exception
+    {
         // when
-        // ... before - not supported
-        // ... after - supported
-        verifyChangeWithCorrectUpdaterMixed( luceneUpdater, nativeUpdater, notSupportedByNative, supportedByNative );
+        // ... before - supported by number
+        // ... after - supported by temporal
+        verifyChangeWithCorrectUpdaterMixed( numberUpdater, temporalUpdater,
+                FusionIndexTestHelp.valuesSupportedByNumber(), FusionIndexTestHelp.valuesSupportedByTemporal() );
+    }
+
+    @Test
+    public void processMustSelectCorrectForChangeFromTemporalToSpatial() throws Exception
+    {
+        // when
+        // ... before - supported by temporal
+        // ... after - supported by spatial
+        verifyChangeWithCorrectUpdaterMixed( temporalUpdater, spatialUpdater,
+                FusionIndexTestHelp.valuesSupportedByTemporal(), FusionIndexTestHelp.valuesSupportedBySpatial() );
     }
 
-    private void verifyAddWithCorrectUpdater( IndexUpdater correctPopulator, IndexUpdater wrongPopulator, Value... numberValues )
+    private void verifyAddWithCorrectUpdater( IndexUpdater correctUpdater, Value... values )
             throws IndexEntryConflictException, IOException
     {
-        IndexEntryUpdate<LabelSchemaDescriptor> update = add( numberValues );
+        IndexEntryUpdate<LabelSchemaDescriptor> update = add( values );
         fusionIndexUpdater.process( update );
-        verify( correctPopulator, times( 1 ) ).process( update );
-        verify( wrongPopulator, times( 0 ) ).process( update );
+        verifyOnlyProcessedBy( correctUpdater, update );
     }
 
-    private void verifyRemoveWithCorrectUpdater( IndexUpdater correctPopulator, IndexUpdater wrongPopulator, Value... numberValues )
+    private void verifyRemoveWithCorrectUpdater( IndexUpdater correctUpdater, Value... values )
             throws IndexEntryConflictException, IOException
     {
-        IndexEntryUpdate<LabelSchemaDescriptor> update = FusionIndexTestHelp.remove( numberValues );
+        IndexEntryUpdate<LabelSchemaDescriptor> update = FusionIndexTestHelp.remove( values );
         fusionIndexUpdater.process( update );
-        verify( correctPopulator, times( 1 ) ).process( update );
-        verify( wrongPopulator, times( 0 ) ).process( update );
+        verifyOnlyProcessedBy( correctUpdater, update );
     }
 
-    private void verifyChangeWithCorrectUpdaterNotMixed( IndexUpdater correctPopulator, IndexUpdater wrongPopulator, Value before,
-            Value after ) throws IndexEntryConflictException, IOException
+    private void verifyChangeWithCorrectUpdaterNotMixed( IndexUpdater correctUpdater, Value[] supportedValues )
+            throws IndexEntryConflictException, IOException
     {
-        IndexEntryUpdate<LabelSchemaDescriptor> update = FusionIndexTestHelp.change( before, after );
-        fusionIndexUpdater.process( update );
-        verify( correctPopulator, times( 1 ) ).process( update );
-        verify( wrongPopulator, times( 0 ) ).process( update );
+        // when
+        // ... before - supported
+        // ... after - supported
+        for ( Value before : supportedValues )
+        {
+            for ( Value after : supportedValues )
+            {
+                IndexEntryUpdate<LabelSchemaDescriptor> update = FusionIndexTestHelp.change( before, after );
+                fusionIndexUpdater.process( update );
+                verifyOnlyProcessedBy( correctUpdater, update );
+            }
+        }
+    }
+
+    private void verifyOnlyProcessedBy( IndexUpdater correctUpdater, IndexEntryUpdate<LabelSchemaDescriptor> update )
+            throws IndexEntryConflictException, IOException
+    {
+        for ( IndexUpdater updater : new IndexUpdater[]{numberUpdater, stringUpdater, spatialUpdater, temporalUpdater, compositeUpdater, luceneUpdater} )
+        {
+            verify( updater, times( updater == correctUpdater ? 1 : 0 ) ).process( update );
+        }
     }
 
     private void verifyChangeWithCorrectUpdaterMixed( IndexUpdater expectRemoveFrom, IndexUpdater expectAddTo, Value[] beforeValues,
@@ -234,13 +410,17 @@ public class FusionIndexUpdaterTest
     /* close */
 
     @Test
-    public void closeMustCloseBothNativeAndLucene() throws Exception
+    public void closeMustCloseAllUpdaters() throws Exception
     {
         // when
         fusionIndexUpdater.close();
 
         // then
-        verify( nativeUpdater, times( 1 ) ).close();
+        verify( numberUpdater, times( 1 ) ).close();
+        verify( stringUpdater, times( 1 ) ).close();
+        verify( spatialUpdater, times( 1 ) ).close();
+        verify( temporalUpdater, times( 1 ) ).close();
+        verify( compositeUpdater, times( 1 ) ).close();
         verify( luceneUpdater, times( 1 ) ).close();
     }
 
@@ -251,26 +431,63 @@ public class FusionIndexUpdaterTest
     }
 
     @Test
-    public void closeMustThrowIfNativeThrow() throws Exception
+    public void closeMustThrowIfStringThrow() throws Exception
+    {
+        FusionIndexTestHelp.verifyFusionCloseThrowOnSingleCloseThrow( stringUpdater, fusionIndexUpdater );
+    }
+
+    @Test
+    public void closeMustThrowIfNumberThrow() throws Exception
+    {
+        FusionIndexTestHelp.verifyFusionCloseThrowOnSingleCloseThrow( numberUpdater, fusionIndexUpdater );
+    }
+
+    @Test
+    public void closeMustCloseOthersIfLuceneThrow() throws Exception
+    {
+        FusionIndexTestHelp.verifyOtherIsClosedOnSingleThrow( luceneUpdater, fusionIndexUpdater,
+                numberUpdater, stringUpdater, spatialUpdater, temporalUpdater, compositeUpdater );
+    }
+
+    @Test
+    public void closeMustCloseOthersIfStringThrow() throws Exception
+    {
+        FusionIndexTestHelp.verifyOtherIsClosedOnSingleThrow( stringUpdater, fusionIndexUpdater,
+                numberUpdater, spatialUpdater, temporalUpdater, compositeUpdater, luceneUpdater );
+    }
+
+    @Test
+    public void closeMustCloseOthersIfNumberThrow() throws Exception
+    {
+        FusionIndexTestHelp.verifyOtherIsClosedOnSingleThrow( numberUpdater, fusionIndexUpdater,
+                stringUpdater, spatialUpdater, temporalUpdater, compositeUpdater, luceneUpdater );
+    }
+
+    @Test
+    public void closeMustCloseOthersIfSpatialThrow() throws Exception
     {
-        FusionIndexTestHelp.verifyFusionCloseThrowOnSingleCloseThrow( nativeUpdater, fusionIndexUpdater );
+        FusionIndexTestHelp.verifyOtherIsClosedOnSingleThrow( spatialUpdater, fusionIndexUpdater,
+                numberUpdater, stringUpdater, temporalUpdater, compositeUpdater, luceneUpdater );
     }
 
     @Test
-    public void closeMustCloseNativeIfLuceneThrow() throws Exception
+    public void closeMustCloseOthersIfTemporalThrow() throws Exception
     {
-        FusionIndexTestHelp.verifyOtherIsClosedOnSingleThrow( luceneUpdater, nativeUpdater, fusionIndexUpdater );
+        FusionIndexTestHelp.verifyOtherIsClosedOnSingleThrow( temporalUpdater, fusionIndexUpdater,
+                numberUpdater, stringUpdater, spatialUpdater, compositeUpdater, luceneUpdater );
     }
 
     @Test
-    public void closeMustCloseLuceneIfNativeThrow() throws Exception
+    public void closeMustCloseOthersIfCompositeThrow() throws Exception
     {
-        FusionIndexTestHelp.verifyOtherIsClosedOnSingleThrow( nativeUpdater, luceneUpdater, fusionIndexUpdater );
+        FusionIndexTestHelp.verifyOtherIsClosedOnSingleThrow( compositeUpdater, fusionIndexUpdater,
+                numberUpdater, stringUpdater, spatialUpdater, temporalUpdater, luceneUpdater );
     }
 
     @Test
-    public void closeMustThrowIfBothThrow() throws Exception
+    public void closeMustThrowIfAllThrow() throws Exception
     {
-        FusionIndexTestHelp.verifyFusionCloseThrowIfBothThrow( nativeUpdater, luceneUpdater, fusionIndexUpdater );
+        FusionIndexTestHelp.verifyFusionCloseThrowIfAllThrow( fusionIndexUpdater,
+                numberUpdater, stringUpdater, spatialUpdater, temporalUpdater, compositeUpdater, luceneUpdater );
     }
 }
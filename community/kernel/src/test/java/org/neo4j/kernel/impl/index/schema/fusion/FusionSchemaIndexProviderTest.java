@@ -23,6 +23,9 @@ import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 
+import org.neo4j.internal.kernel.api.IndexCapability;
+import org.neo4j.internal.kernel.api.IndexOrder;
+import org.neo4j.internal.kernel.api.IndexValueCapability;
 import org.neo4j.internal.kernel.api.InternalIndexState;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.kernel.api.index.SchemaIndexProvider;
@@ -33,8 +36,10 @@ import org.neo4j.kernel.impl.index.schema.fusion.FusionSchemaIndexProvider.Selec
 import org.neo4j.storageengine.api.schema.IndexSample;
 import org.neo4j.test.rule.RandomRule;
 import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.ValueGroup;
 
 import static org.hamcrest.CoreMatchers.containsString;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
@@ -51,16 +56,30 @@ public class FusionSchemaIndexProviderTest
 {
     private static final SchemaIndexProvider.Descriptor DESCRIPTOR = new SchemaIndexProvider.Descriptor( "test-fusion", "1" );
 
-    private SchemaIndexProvider nativeProvider;
+    private SchemaIndexProvider numberProvider;
+    private SchemaIndexProvider stringProvider;
+    private SchemaIndexProvider spatialProvider;
+    private SchemaIndexProvider temporalProvider;
+    private SchemaIndexProvider compositeProvider;
     private SchemaIndexProvider luceneProvider;
+    private SchemaIndexProvider[] providers;
 
     @Before
     public void setup()
     {
-        nativeProvider = mock( SchemaIndexProvider.class );
+        numberProvider = mock( SchemaIndexProvider.class );
+        stringProvider = mock( SchemaIndexProvider.class );
+        spatialProvider = mock( SchemaIndexProvider.class );
+        temporalProvider = mock( SchemaIndexProvider.class );
+        compositeProvider = mock( SchemaIndexProvider.class );
         luceneProvider = mock( SchemaIndexProvider.class );
-        when( nativeProvider.getProviderDescriptor() ).thenReturn( new SchemaIndexProvider.Descriptor( "native", "1" ) );
+        when( numberProvider.getProviderDescriptor() ).thenReturn( new SchemaIndexProvider.Descriptor( "number", "1" ) );
+        when( stringProvider.getProviderDescriptor() ).thenReturn( new SchemaIndexProvider.Descriptor( "string", "1" ) );
+        when( spatialProvider.getProviderDescriptor() ).thenReturn( new SchemaIndexProvider.Descriptor( "spatial", "1" ) );
+        when( temporalProvider.getProviderDescriptor() ).thenReturn( new SchemaIndexProvider.Descriptor( "temporal", "1" ) );
+        when( compositeProvider.getProviderDescriptor() ).thenReturn( new SchemaIndexProvider.Descriptor( "composite", "1" ) );
         when( luceneProvider.getProviderDescriptor() ).thenReturn( new SchemaIndexProvider.Descriptor( "lucene", "1" ) );
+        providers = array( numberProvider, stringProvider, spatialProvider, temporalProvider, compositeProvider, luceneProvider );
     }
 
     @Rule
@@ -70,41 +89,74 @@ public class FusionSchemaIndexProviderTest
     public void mustSelectCorrectTargetForAllGivenValueCombinations() throws Exception
     {
         // given
-        Value[] numberValues = FusionIndexTestHelp.valuesSupportedByNative();
+        Value[] numberValues = FusionIndexTestHelp.valuesSupportedByNumber();
+        Value[] stringValues = FusionIndexTestHelp.valuesSupportedByString();
+        Value[] spatialValues = FusionIndexTestHelp.valuesSupportedBySpatial();
+        Value[] temporalValues = FusionIndexTestHelp.valuesSupportedByTemporal();
         Value[] otherValues = FusionIndexTestHelp.valuesNotSupportedByNative();
         Value[] allValues = FusionIndexTestHelp.allValues();
 
-        // Number values should go to native provider
-        Selector selector = new NativeSelector();
+        // Number values should go to number provider
+        Selector selector = new NativeSelector( FusionIndexTestHelp.MAX_STRING_BYTES, FusionIndexTestHelp.MAX_COMPOSITE_KEY_BYTES );
         for ( Value numberValue : numberValues )
         {
             // when
-            SchemaIndexProvider selected = selector.select( nativeProvider, luceneProvider, numberValue );
+            SchemaIndexProvider selected = selector.select( providers, numberValue );
 
             // then
-            assertSame( nativeProvider, selected );
+            assertSame( numberProvider, selected );
         }
 
-        // Other values should go to lucene provider
+        // String values should go to string provider
+        for ( Value stringValue : stringValues )
+        {
+            // when
+            SchemaIndexProvider selected = selector.select( providers, stringValue );
+
+            // then
+            assertSame( stringProvider, selected );
+        }
+
+        // Two dimensional points should go to spatial provider
+        for ( Value spatialValue : spatialValues )
+        {
+            // when
+            SchemaIndexProvider selected = selector.select( providers, spatialValue );
+
+            // then
+            assertSame( spatialProvider, selected );
+        }
+
+        // Temporal values should go to temporal provider
+        for ( Value temporalValue : temporalValues )
+        {
+            // when
+            SchemaIndexProvider selected = selector.select( providers, temporalValue );
+
+            // then
+            assertSame( temporalProvider, selected );
+        }
+
+        // Other values, including too long strings, should go to lucene provider
         for ( Value otherValue : otherValues )
         {
             // when
-            SchemaIndexProvider selected = selector.select( nativeProvider, luceneProvider, otherValue );
+            SchemaIndexProvider selected = selector.select( providers, otherValue );
 
             // then
             assertSame( luceneProvider, selected );
         }
 
-        // All composite values should go to lucene
+        // Composite values of strings, booleans and numbers should go to composite provider, all others to lucene
         for ( Value firstValue : allValues )
         {
             for ( Value secondValue : allValues )
             {
                 // when
-                SchemaIndexProvider selected = selector.select( nativeProvider, luceneProvider, firstValue, secondValue );
+                SchemaIndexProvider selected = selector.select( providers, firstValue, secondValue );
 
                 // then
-                assertSame( luceneProvider, selected );
+                assertSame( FusionIndexTestHelp.supportedByComposite( firstValue, secondValue ) ? compositeProvider : luceneProvider, selected );
             }
         }
     }
@@ -113,23 +165,28 @@ public class FusionSchemaIndexProviderTest
     public void mustCombineSamples() throws Exception
     {
         // given
-        int nativeIndexSize = random.nextInt( 0, 1_000_000 );
-        int nativeUniqueValues = random.nextInt( 0, 1_000_000 );
-        int nativeSampleSize = random.nextInt( 0, 1_000_000 );
-        IndexSample nativeSample = new IndexSample( nativeIndexSize, nativeUniqueValues, nativeSampleSize );
-
-        int luceneIndexSize = random.nextInt( 0, 1_000_000 );
-        int luceneUniqueValues = random.nextInt( 0, 1_000_000 );
-        int luceneSampleSize = random.nextInt( 0, 1_000_000 );
-        IndexSample luceneSample = new IndexSample( luceneIndexSize, luceneUniqueValues, luceneSampleSize );
+        int indexSize = 0;
+        int uniqueValues = 0;
+        int sampleSize = 0;
+        IndexSample[] samples = new IndexSample[providers.length];
+        for ( int i = 0; i < samples.length; i++ )
+        {
+            int partIndexSize = random.nextInt( 0, 1_000_000 );
+            int partUniqueValues = random.nextInt( 0, 1_000_000 );
+            int partSampleSize = random.nextInt( 0, 1_000_000 );
+            samples[i] = new IndexSample( partIndexSize, partUniqueValues, partSampleSize );
+            indexSize += partIndexSize;
+            uniqueValues += partUniqueValues;
+            sampleSize += partSampleSize;
+        }
 
         // when
-        IndexSample fusionSample = FusionSchemaIndexProvider.combineSamples( nativeSample, luceneSample );
+        IndexSample fusionSample = FusionSchemaIndexProvider.combineSamples( samples );
 
         // then
-        assertEquals( nativeIndexSize + luceneIndexSize, fusionSample.indexSize() );
-        assertEquals( nativeUniqueValues + luceneUniqueValues, fusionSample.uniqueValues() );
-        assertEquals( nativeSampleSize + luceneSampleSize, fusionSample.sampleSize() );
+        assertEquals( indexSize, fusionSample.indexSize() );
+        assertEquals( uniqueValues, fusionSample.uniqueValues() );
+        assertEquals( sampleSize, fusionSample.sampleSize() );
     }
 
     @Test
@@ -140,10 +197,11 @@ public class FusionSchemaIndexProviderTest
 
         // when
         // ... no failure
-        IllegalStateException nativeThrow = new IllegalStateException( "no native failure" );
-        IllegalStateException luceneThrow = new IllegalStateException( "no lucene failure" );
-        when( nativeProvider.getPopulationFailure( anyLong(), any( IndexDescriptor.class ) ) ).thenThrow( nativeThrow );
-        when( luceneProvider.getPopulationFailure( anyLong(), any( IndexDescriptor.class ) ) ).thenThrow( luceneThrow );
+        for ( SchemaIndexProvider provider : providers )
+        {
+            setNoPopulationFailure( provider );
+        }
+
         // then
         try
         {
@@ -156,49 +214,59 @@ public class FusionSchemaIndexProviderTest
     }
 
     @Test
-    public void getPopulationFailureMustReportFailureWhenNativeFailure() throws Exception
+    public void getPopulationFailureMustReportFailureWhenAnyFailed() throws Exception
     {
         FusionSchemaIndexProvider fusionSchemaIndexProvider = fusionProvider();
 
-        // when
-        // ... native failure
-        String nativeFailure = "native failure";
-        IllegalStateException luceneThrow = new IllegalStateException( "no lucene failure" );
-        when( nativeProvider.getPopulationFailure( anyLong(), any( IndexDescriptor.class ) ) ).thenReturn( nativeFailure );
-        when( luceneProvider.getPopulationFailure( anyLong(), any( IndexDescriptor.class ) ) ).thenThrow( luceneThrow );
-        // then
-        assertThat( fusionSchemaIndexProvider.getPopulationFailure( 0, forLabel( 0, 0 ) ), containsString( nativeFailure ) );
-    }
-
-    @Test
-    public void getPopulationFailureMustReportFailureWhenLuceneFailure() throws Exception
-    {
-        FusionSchemaIndexProvider fusionSchemaIndexProvider = fusionProvider();
+        for ( SchemaIndexProvider failingProvider : providers )
+        {
+            // when
+            // ... one failure
+            String failure = "failure in " + failingProvider.getProviderDescriptor().getKey();
+            for ( SchemaIndexProvider provider : providers )
+            {
+                if ( provider == failingProvider )
+                {
+                    when( provider.getPopulationFailure( anyLong(), any( IndexDescriptor.class ) ) ).thenReturn( failure );
+                }
+                else
+                {
+                    setNoPopulationFailure( provider );
+                }
+            }
 
-        // when
-        // ... lucene failure
-        String luceneFailure = "lucene failure";
-        IllegalStateException nativeThrow = new IllegalStateException( "no native failure" );
-        when( nativeProvider.getPopulationFailure( anyLong(), any( IndexDescriptor.class ) ) ).thenThrow( nativeThrow );
-        when( luceneProvider.getPopulationFailure( anyLong(), any( IndexDescriptor.class ) ) ).thenReturn( luceneFailure );
-        // then
-        assertThat( fusionSchemaIndexProvider.getPopulationFailure( 0, forLabel( 0, 0 ) ), containsString( luceneFailure ) );
+            // then
+            assertThat( fusionSchemaIndexProvider.getPopulationFailure( 0, forLabel( 0, 0 ) ), containsString( failure ) );
+        }
     }
 
     @Test
-    public void getPopulationFailureMustReportFailureWhenBothFailure() throws Exception
+    public void getPopulationFailureMustReportFailureWhenAllFailed() throws Exception
     {
         FusionSchemaIndexProvider fusionSchemaIndexProvider = fusionProvider();
 
         // when
-        // ... native and lucene failure
+        // ... all failed
+        String numberFailure = "number failure";
+        String stringFailure = "string failure";
+        String spatialFailure = "spatial failure";
+        String temporalFailure = "temporal failure";
+        String compositeFailure = "composite failure";
         String luceneFailure = "lucene failure";
-        String nativeFailure = "native failure";
-        when( nativeProvider.getPopulationFailure( anyLong(), any( IndexDescriptor.class ) ) ).thenReturn( nativeFailure );
+        when( numberProvider.getPopulationFailure( anyLong(), any( IndexDescriptor.class ) ) ).thenReturn( numberFailure );
+        when( stringProvider.getPopulationFailure( anyLong(), any( IndexDescriptor.class ) ) ).thenReturn( stringFailure );
+        when( spatialProvider.getPopulationFailure( anyLong(), any( IndexDescriptor.class ) ) ).thenReturn( spatialFailure );
+        when( temporalProvider.getPopulationFailure( anyLong(), any( IndexDescriptor.class ) ) ).thenReturn( temporalFailure );
+        when( compositeProvider.getPopulationFailure( anyLong(), any( IndexDescriptor.class ) ) ).thenReturn( compositeFailure );
         when( luceneProvider.getPopulationFailure( anyLong(), any( IndexDescriptor.class ) ) ).thenReturn( luceneFailure );
+
         // then
         String populationFailure = fusionSchemaIndexProvider.getPopulationFailure( 0, forLabel( 0, 0 ) );
-        assertThat( populationFailure, containsString( nativeFailure ) );
+        assertThat( populationFailure, containsString( numberFailure ) );
+        assertThat( populationFailure, containsString( stringFailure ) );
+        assertThat( populationFailure, containsString( spatialFailure ) );
+        assertThat( populationFailure, containsString( temporalFailure ) );
+        assertThat( populationFailure, containsString( compositeFailure ) );
         assertThat( populationFailure, containsString( luceneFailure ) );
     }
 
@@ -211,18 +279,18 @@ public class FusionSchemaIndexProviderTest
 
         for ( InternalIndexState state : InternalIndexState.values() )
         {
-            // when
-            setInitialState( nativeProvider, InternalIndexState.FAILED );
-            setInitialState( luceneProvider, state );
-            InternalIndexState failed1 = provider.getInitialState( 0, indexDescriptor );
-
-            setInitialState( nativeProvider, state );
-            setInitialState( luceneProvider, InternalIndexState.FAILED );
-            InternalIndexState failed2 = provider.getInitialState( 0, indexDescriptor );
+            for ( SchemaIndexProvider failedProvider : providers )
+            {
+                // when
+                for ( SchemaIndexProvider otherProvider : providers )
+                {
+                    setInitialState( otherProvider, otherProvider == failedProvider ? InternalIndexState.FAILED : state );
+                }
+                InternalIndexState initialState = provider.getInitialState( 0, indexDescriptor );
 
-            // then
-            assertEquals( InternalIndexState.FAILED, failed1 );
-            assertEquals( InternalIndexState.FAILED, failed2 );
+                // then
+                assertEquals( InternalIndexState.FAILED, initialState );
+            }
         }
     }
 
@@ -235,28 +303,134 @@ public class FusionSchemaIndexProviderTest
 
         for ( InternalIndexState state : array( InternalIndexState.ONLINE, InternalIndexState.POPULATING ) )
         {
-            // when
-            setInitialState( nativeProvider, InternalIndexState.POPULATING );
-            setInitialState( luceneProvider, state );
-            InternalIndexState failed1 = provider.getInitialState( 0, indexDescriptor );
+            for ( SchemaIndexProvider populatingProvider : providers )
+            {
+                // when
+                for ( SchemaIndexProvider otherProvider : providers )
+                {
+                    setInitialState( otherProvider, otherProvider == populatingProvider ? InternalIndexState.POPULATING : state );
+                }
+                InternalIndexState initialState = provider.getInitialState( 0, indexDescriptor );
+
+                // then
+                assertEquals( InternalIndexState.POPULATING, initialState );
+            }
+        }
+    }
+
+    @Test
+    public void shouldNotReportOrderOrValuesOfTextThatMayBeSplitOverStringAndLucene() throws Exception
+    {
+        // given
+        SchemaIndexProvider provider = fusionProvider();
+        IndexDescriptor indexDescriptor = IndexDescriptorFactory.forLabel( 1, 1 );
+        IndexCapability capability = mock( IndexCapability.class );
+        when( capability.orderCapability( any() ) ).thenReturn( new IndexOrder[]{IndexOrder.ASCENDING} );
+        when( capability.valueCapability( any() ) ).thenReturn( IndexValueCapability.YES );
+        for ( SchemaIndexProvider part : providers )
+        {
+            when( part.getCapability( indexDescriptor ) ).thenReturn( capability );
+        }
 
-            setInitialState( nativeProvider, state );
-            setInitialState( luceneProvider, InternalIndexState.POPULATING );
-            InternalIndexState failed2 = provider.getInitialState( 0, indexDescriptor );
+        // when
+        IndexCapability fusionCapability = provider.getCapability( indexDescriptor );
 
-            // then
-            assertEquals( InternalIndexState.POPULATING, failed1 );
-            assertEquals( InternalIndexState.POPULATING, failed2 );
+        // then
+        assertEquals( 0, fusionCapability.orderCapability( ValueGroup.TEXT ).length );
+        assertEquals( IndexValueCapability.PARTIAL, fusionCapability.valueCapability( ValueGroup.TEXT ) );
+        assertEquals( IndexValueCapability.YES, fusionCapability.valueCapability( ValueGroup.NUMBER ) );
+    }
+
+    @Test
+    public void shouldNotReportValuesOfPointsThatMayBeSplitOverSpatialAndLucene() throws Exception
+    {
+        // given
+        SchemaIndexProvider provider = fusionProvider();
+        IndexDescriptor indexDescriptor = IndexDescriptorFactory.forLabel( 1, 1 );
+        IndexCapability capability = mock( IndexCapability.class );
+        when( capability.orderCapability( any() ) ).thenReturn( new IndexOrder[0] );
+        when( capability.valueCapability( any() ) ).thenReturn( IndexValueCapability.YES );
+        for ( SchemaIndexProvider part : providers )
+        {
+            when( part.getCapability( indexDescriptor ) ).thenReturn( capability );
+        }
+
+        // when
+        IndexCapability fusionCapability = provider.getCapability( indexDescriptor );
+
+        // then
+        assertEquals( 0, fusionCapability.orderCapability( ValueGroup.GEOMETRY ).length );
+        assertEquals( IndexValueCapability.PARTIAL, fusionCapability.valueCapability( ValueGroup.GEOMETRY ) );
+    }
+
+    @Test
+    public void shouldReportOrderOfTemporalValuesFromTemporal() throws Exception
+    {
+        // given
+        SchemaIndexProvider provider = fusionProvider();
+        IndexDescriptor indexDescriptor = IndexDescriptorFactory.forLabel( 1, 1 );
+        IndexCapability capability = mock( IndexCapability.class );
+        when( capability.orderCapability( any() ) ).thenReturn( new IndexOrder[0] );
+        when( capability.valueCapability( any() ) ).thenReturn( IndexValueCapability.NO );
+        for ( SchemaIndexProvider part : providers )
+        {
+            when( part.getCapability( indexDescriptor ) ).thenReturn( capability );
         }
+        IndexCapability temporalCapability = mock( IndexCapability.class );
+        when( temporalCapability.orderCapability( any() ) ).thenReturn( new IndexOrder[]{IndexOrder.ASCENDING} );
+        when( temporalCapability.valueCapability( any() ) ).thenReturn( IndexValueCapability.YES );
+        when( temporalProvider.getCapability( indexDescriptor ) ).thenReturn( temporalCapability );
+
+        // when
+        IndexCapability fusionCapability = provider.getCapability( indexDescriptor );
+
+        // then
+        assertArrayEquals( new IndexOrder[]{IndexOrder.ASCENDING}, fusionCapability.orderCapability( ValueGroup.DATE ) );
+        assertEquals( IndexValueCapability.YES, fusionCapability.valueCapability( ValueGroup.DATE ) );
+    }
+
+    @Test
+    public void shouldReportOrderOfCompositeValuesFromCompositeUnlessTextMayBeInLucene() throws Exception
+    {
+        // given
+        SchemaIndexProvider provider = fusionProvider();
+        IndexDescriptor indexDescriptor = IndexDescriptorFactory.forLabel( 1, 1, 2 );
+        IndexCapability capability = mock( IndexCapability.class );
+        when( capability.orderCapability( any() ) ).thenReturn( new IndexOrder[0] );
+        when( capability.valueCapability( any() ) ).thenReturn( IndexValueCapability.NO );
+        for ( SchemaIndexProvider part : providers )
+        {
+            when( part.getCapability( indexDescriptor ) ).thenReturn( capability );
+        }
+        IndexCapability compositeCapability = mock( IndexCapability.class );
+        when( compositeCapability.orderCapability( any() ) ).thenReturn( new IndexOrder[]{IndexOrder.ASCENDING} );
+        when( compositeCapability.valueCapability( any() ) ).thenReturn( IndexValueCapability.YES );
+        when( compositeProvider.getCapability( indexDescriptor ) ).thenReturn( compositeCapability );
+
+        // when
+        IndexCapability fusionCapability = provider.getCapability( indexDescriptor );
+
+        // then
+        assertArrayEquals( new IndexOrder[]{IndexOrder.ASCENDING}, fusionCapability.orderCapability( ValueGroup.NUMBER, ValueGroup.BOOLEAN ) );
+        assertEquals( IndexValueCapability.YES, fusionCapability.valueCapability( ValueGroup.NUMBER, ValueGroup.BOOLEAN ) );
+        assertEquals( 0, fusionCapability.orderCapability( ValueGroup.NUMBER, ValueGroup.TEXT ).length );
+        assertEquals( IndexValueCapability.PARTIAL, fusionCapability.valueCapability( ValueGroup.NUMBER, ValueGroup.TEXT ) );
     }
 
     private FusionSchemaIndexProvider fusionProvider()
     {
-        return new FusionSchemaIndexProvider( nativeProvider, luceneProvider, new NativeSelector(), DESCRIPTOR, 10, NONE,
+        return new FusionSchemaIndexProvider( numberProvider, stringProvider, spatialProvider, temporalProvider, compositeProvider, luceneProvider,
+                new NativeSelector( FusionIndexTestHelp.MAX_STRING_BYTES, FusionIndexTestHelp.MAX_COMPOSITE_KEY_BYTES ), DESCRIPTOR, 10, NONE,
                 mock( FileSystemAbstraction.class ) );
     }
 
-    private void setInitialState( SchemaIndexProvider mockedProvider, InternalIndexState state )
+    private static void setNoPopulationFailure( SchemaIndexProvider mockedProvider )
+    {
+        when( mockedProvider.getPopulationFailure( anyLong(), any( IndexDescriptor.class ) ) )
+                .thenThrow( new IllegalStateException( "no failure" ) );
+    }
+
+    private static void setInitialState( SchemaIndexProvider mockedProvider, InternalIndexState state )
     {
         when( mockedProvider.getInitialState( anyLong(), any( IndexDescriptor.class ) ) ).thenReturn( state );
     }
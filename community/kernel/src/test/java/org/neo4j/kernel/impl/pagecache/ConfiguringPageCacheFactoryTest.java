@@ -37,6 +37,8 @@ import org.neo4j.test.rule.fs.EphemeralFileSystemRule;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
+import static org.neo4j.graphdb.factory.GraphDatabaseSettings.pagecache_eviction_algorithm;
+import static org.neo4j.graphdb.factory.GraphDatabaseSettings.pagecache_eviction_lru_k;
 import static org.neo4j.graphdb.factory.GraphDatabaseSettings.pagecache_memory;
 import static org.neo4j.graphdb.factory.GraphDatabaseSettings.pagecache_swapper;
 import static org.neo4j.helpers.collection.MapUtil.stringMap;
@@ -132,4 +134,37 @@ public class ConfiguringPageCacheFactoryTest
         new ConfiguringPageCacheFactory( fsRule.get(), config, PageCacheTracer.NULL,
                 PageCursorTracerSupplier.NULL, NullLog.getInstance() ).getOrCreatePageCache().close();
     }
+
+    @Test
+    public void mustUseAndLogConfiguredEvictionAlgorithm() throws Exception
+    {
+        // Given
+        Config config = Config.defaults( stringMap(
+                pagecache_memory.name(), "8m",
+                pagecache_eviction_algorithm.name(), "lru-k",
+                pagecache_eviction_lru_k.name(), "3" ) );
+        AssertableLogProvider logProvider = new AssertableLogProvider();
+        Log log = logProvider.getLog( PageCache.class );
+
+        // When
+        ConfiguringPageCacheFactory cacheFactory = new ConfiguringPageCacheFactory( fsRule.get(), config,
+                PageCacheTracer.NULL, PageCursorTracerSupplier.NULL, log );
+        cacheFactory.getOrCreatePageCache().close();
+
+        // Then
+        logProvider.assertContainsMessageContaining( pagecache_eviction_algorithm.name() + ": lru-k" );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void mustThrowIfConfiguredEvictionAlgorithmCannotBeFound() throws Exception
+    {
+        // Given
+        Config config = Config.defaults( stringMap(
+                pagecache_memory.name(), "8m",
+                pagecache_eviction_algorithm.name(), "non-existing" ) );
+
+        // When
+        new ConfiguringPageCacheFactory( fsRule.get(), config, PageCacheTracer.NULL,
+                PageCursorTracerSupplier.NULL, NullLog.getInstance() ).getOrCreatePageCache().close();
+    }
 }
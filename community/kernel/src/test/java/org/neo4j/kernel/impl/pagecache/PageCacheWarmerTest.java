@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.pagecache;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.neo4j.graphdb.factory.GraphDatabaseSettings;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.kernel.configuration.Config;
+import org.neo4j.logging.NullLogProvider;
+import org.neo4j.scheduler.JobScheduler;
+import org.neo4j.test.rule.PageCacheRule;
+import org.neo4j.test.rule.fs.EphemeralFileSystemRule;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.neo4j.io.pagecache.PagedFile.PF_NO_FAULT;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
+
+public class PageCacheWarmerTest
+{
+    @Rule
+    public final EphemeralFileSystemRule fsRule = new EphemeralFileSystemRule();
+    @Rule
+    public final PageCacheRule pageCacheRule = new PageCacheRule();
+
+    private final JobScheduler scheduler = mock( JobScheduler.class );
+    private final File storeDir = new File( "store" );
+    private final File file = new File( storeDir, "neostore.nodestore.db" );
+    private final AtomicReference<Runnable> profileJob = new AtomicReference<>();
+    private FileSystemAbstraction fs;
+
+    @Before
+    public void setUp() throws IOException
+    {
+        fs = fsRule.get();
+        fs.mkdirs( storeDir );
+        // Run the background warmup in the calling thread, so the tests can observe the outcome when start returns.
+        when( scheduler.schedule( any( JobScheduler.Group.class ), any( Runnable.class ) ) ).then( invocation ->
+        {
+            invocation.<Runnable>getArgument( 1 ).run();
+            return mock( JobScheduler.JobHandle.class );
+        } );
+        // Leave it to the tests to run the recurring profiling job.
+        when( scheduler.scheduleRecurring( any( JobScheduler.Group.class ), any( Runnable.class ), anyLong(),
+                anyLong(), any() ) ).then( invocation ->
+        {
+            profileJob.set( invocation.getArgument( 1 ) );
+            return mock( JobScheduler.JobHandle.class );
+        } );
+    }
+
+    @Test
+    public void mustLoadProfiledPagesWhenStarted() throws Throwable
+    {
+        createFile( 100 );
+        Set<Long> hotPages = new TreeSet<>();
+        for ( long pageId = 10; pageId < 20; pageId++ )
+        {
+            hotPages.add( pageId );
+            hotPages.add( pageId + 50 );
+        }
+        hotPages.add( 99L );
+
+        PageCache pageCache = pageCacheRule.getPageCache( fs );
+        try ( PagedFile pagedFile = pageCache.map( file, pageCache.pageSize() ) )
+        {
+            PageCacheWarmer warmer = warmer( pageCache, Config.defaults() );
+            warmer.start();
+            touch( pagedFile, hotPages );
+            warmer.profile();
+            warmer.stop();
+        }
+        assertTrue( fs.fileExists( new File( storeDir, file.getName() + PageCacheWarmer.SUFFIX_CACHEPROF ) ) );
+
+        pageCache = pageCacheRule.getPageCache( fs );
+        try ( PagedFile pagedFile = pageCache.map( file, pageCache.pageSize() ) )
+        {
+            assertTrue( pagesInMemory( pagedFile ).isEmpty() );
+            PageCacheWarmer warmer = warmer( pageCache, Config.defaults() );
+            warmer.start();
+            warmer.stop();
+            assertEquals( hotPages, pagesInMemory( pagedFile ) );
+        }
+    }
+
+    @Test
+    public void mustProfileInRecurringJobOfItsOwn() throws Throwable
+    {
+        createFile( 10 );
+        PageCache pageCache = pageCacheRule.getPageCache( fs );
+        try ( PagedFile pagedFile = pageCache.map( file, pageCache.pageSize() ) )
+        {
+            Config config = Config.defaults( GraphDatabaseSettings.pagecache_warmup_profiling_interval, "10s" );
+            PageCacheWarmer warmer = warmer( pageCache, config );
+            warmer.start();
+            verify( scheduler ).scheduleRecurring( eq( JobScheduler.Groups.pageCacheWarmup ), any( Runnable.class ),
+                    eq( 10_000L ), eq( 10_000L ), eq( MILLISECONDS ) );
+            touch( pagedFile, new TreeSet<>( Arrays.asList( 1L, 2L, 3L ) ) );
+            profileJob.get().run();
+            warmer.stop();
+        }
+        assertTrue( fs.fileExists( new File( storeDir, file.getName() + PageCacheWarmer.SUFFIX_CACHEPROF ) ) );
+    }
+
+    @Test
+    public void mustNotProfileBeforeThePageCacheHasBeenWarmedUp() throws Throwable
+    {
+        createFile( 10 );
+        PageCache pageCache = pageCacheRule.getPageCache( fs );
+        try ( PagedFile pagedFile = pageCache.map( file, pageCache.pageSize() ) )
+        {
+            touch( pagedFile, new TreeSet<>( Arrays.asList( 1L, 2L, 3L ) ) );
+            warmer( pageCache, Config.defaults() ).profile();
+        }
+        assertFalse( fs.fileExists( new File( storeDir, file.getName() + PageCacheWarmer.SUFFIX_CACHEPROF ) ) );
+    }
+
+    @Test
+    public void mustNotWarmUpOrProfileWhenDisabled() throws Throwable
+    {
+        createFile( 10 );
+        PageCache pageCache = pageCacheRule.getPageCache( fs );
+        try ( PagedFile pagedFile = pageCache.map( file, pageCache.pageSize() ) )
+        {
+            Config config = Config.defaults( GraphDatabaseSettings.pagecache_warmup_enabled, "false" );
+            PageCacheWarmer warmer = warmer( pageCache, config );
+            warmer.start();
+            touch( pagedFile, new TreeSet<>( Arrays.asList( 1L, 2L, 3L ) ) );
+            warmer.profile();
+            warmer.stop();
+        }
+        verify( scheduler, never() ).schedule( any( JobScheduler.Group.class ), any( Runnable.class ) );
+        assertFalse( fs.fileExists( new File( storeDir, file.getName() + PageCacheWarmer.SUFFIX_CACHEPROF ) ) );
+    }
+
+    private PageCacheWarmer warmer( PageCache pageCache, Config config )
+    {
+        return new PageCacheWarmer( fs, pageCache, scheduler, config, NullLogProvider.getInstance() );
+    }
+
+    private void createFile( int pages ) throws IOException
+    {
+        PageCache pageCache = pageCacheRule.getPageCache( fs );
+        try ( PagedFile pagedFile = pageCache.map( file, pageCache.pageSize(), CREATE );
+              PageCursor cursor = pagedFile.io( 0, PF_SHARED_WRITE_LOCK ) )
+        {
+            for ( int pageId = 0; pageId < pages; pageId++ )
+            {
+                assertTrue( cursor.next() );
+                cursor.putLong( pageId );
+            }
+        }
+    }
+
+    private static void touch( PagedFile pagedFile, Set<Long> pageIds ) throws IOException
+    {
+        try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK ) )
+        {
+            for ( long pageId : pageIds )
+            {
+                assertTrue( cursor.next( pageId ) );
+            }
+        }
+    }
+
+    private static Set<Long> pagesInMemory( PagedFile pagedFile ) throws IOException
+    {
+        Set<Long> pageIds = new TreeSet<>();
+        try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK | PF_NO_FAULT ) )
+        {
+            while ( cursor.next() )
+            {
+                if ( cursor.getCurrentPageId() != PageCursor.UNBOUND_PAGE_ID )
+                {
+                    pageIds.add( cursor.getCurrentPageId() );
+                }
+            }
+        }
+        return pageIds;
+    }
+}
@@ -0,0 +1,241 @@
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.storageengine.impl.recordstorage;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+import org.neo4j.kernel.api.schema.SchemaDescriptorFactory;
+import org.neo4j.kernel.impl.api.TransactionToApply;
+import org.neo4j.kernel.impl.core.CacheAccessBackDoor;
+import org.neo4j.kernel.impl.locking.LockGroup;
+import org.neo4j.kernel.impl.store.NeoStores;
+import org.neo4j.kernel.impl.store.PropertyStore;
+import org.neo4j.kernel.impl.store.PropertyType;
+import org.neo4j.kernel.impl.store.record.DynamicRecord;
+import org.neo4j.kernel.impl.store.record.PropertyBlock;
+import org.neo4j.kernel.impl.store.record.PropertyRecord;
+import org.neo4j.kernel.impl.store.record.RecordLoad;
+import org.neo4j.kernel.impl.transaction.command.Command;
+import org.neo4j.kernel.impl.transaction.command.Command.PropertyCommand;
+import org.neo4j.kernel.impl.transaction.command.NeoStoreTransactionApplier;
+import org.neo4j.storageengine.api.CommandsToApply;
+import org.neo4j.storageengine.api.TransactionApplicationMode;
+import org.neo4j.test.rule.NeoStoresRule;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.neo4j.kernel.api.index.SchemaIndexProvider.NO_INDEX_PROVIDER;
+import static org.neo4j.kernel.impl.locking.LockService.NO_LOCK_SERVICE;
+import static org.neo4j.kernel.impl.transaction.command.Commands.createIndexRule;
+import static org.neo4j.kernel.impl.transaction.command.Commands.createNode;
+import static org.neo4j.kernel.impl.transaction.command.Commands.createProperty;
+import static org.neo4j.kernel.impl.transaction.command.Commands.transactionRepresentation;
+import static org.neo4j.storageengine.api.TransactionApplicationMode.RECOVERY;
+import static org.neo4j.storageengine.api.TransactionApplicationMode.REVERSE_RECOVERY;
+
+public class ParallelRecoveryApplierTest
+{
+    private static final int PARALLELISM = 4;
+
+    @Rule
+    public final NeoStoresRule neoStoresRule = new NeoStoresRule( getClass() );
+
+    private final CacheAccessBackDoor cacheAccess = mock( CacheAccessBackDoor.class );
+    private final List<String> serialApplications = new ArrayList<>();
+    private NeoStores neoStores;
+    private ParallelRecoveryApplier applier;
+
+    @After
+    public void closeApplier()
+    {
+        if ( applier != null )
+        {
+            applier.close();
+        }
+    }
+
+    @Test
+    public void shouldApplyRecordChangesOfAllTransactions() throws Exception
+    {
+        // given
+        int count = 1_000;
+        List<TransactionToApply> transactions = new ArrayList<>();
+        for ( int i = 0; i < count; i++ )
+        {
+            transactions.add( transaction( i + 1, createNode( i ), createProperty( i, PropertyType.INT, 0 ) ) );
+        }
+
+        // when
+        apply( transactions, RECOVERY );
+
+        // then
+        for ( int i = 0; i < count; i++ )
+        {
+            assertTrue( neoStores.getNodeStore().isInUse( i ) );
+            assertTrue( neoStores.getPropertyStore().isInUse( i ) );
+        }
+        assertEquals( asList( "derived " + txIds( 1, count ) ), serialApplications );
+    }
+
+    @Test
+    public void shouldApplyReusedDynamicRecordInTransactionOrder() throws Exception
+    {
+        // given property 1 and 2 in different partitions, where 2 reuses the string record that 1 deletes
+        PropertyRecord created = propertyWithString( 1, 10 );
+        PropertyRecord deleted = new PropertyRecord( 1 );
+        DynamicRecord deletedString = created.iterator().next().getValueRecords().get( 0 ).clone();
+        deletedString.setInUse( false );
+        deleted.addDeletedRecord( deletedString );
+        PropertyRecord reused = propertyWithString( 2, 10 );
+
+        // when
+        apply( asList(
+                transaction( 1, new PropertyCommand( new PropertyRecord( 1 ), created ) ),
+                transaction( 2, new PropertyCommand( created, deleted ) ),
+                transaction( 3, new PropertyCommand( new PropertyRecord( 2 ), reused ) ) ), RECOVERY );
+
+        // then
+        assertEquals( asList( "derived " + txIds( 1, 2 ), "derived " + txIds( 3, 3 ) ), serialApplications );
+        DynamicRecord string = neoStores.getPropertyStore().getStringStore().getRecord( 10,
+                neoStores.getPropertyStore().getStringStore().newRecord(), RecordLoad.CHECK );
+        assertTrue( string.inUse() );
+    }
+
+    @Test
+    public void shouldNotApplyChangesToSameNodeTogetherWhenUpdatingIndexes() throws Exception
+    {
+        // when
+        apply( asList(
+                transaction( 1, createNode( 1 ) ),
+                transaction( 2, createNode( 2 ) ),
+                transaction( 3, createNode( 1 ) ) ), RECOVERY );
+
+        // then
+        assertEquals( asList( "derived " + txIds( 1, 2 ), "derived " + txIds( 3, 3 ) ), serialApplications );
+    }
+
+    @Test
+    public void shouldApplyChangesToSameNodeTogetherWhenOnlyUpdatingStores() throws Exception
+    {
+        // when
+        apply( asList(
+                transaction( 3, createNode( 1 ) ),
+                transaction( 2, createNode( 2 ) ),
+                transaction( 1, createNode( 1 ) ) ), REVERSE_RECOVERY );
+
+        // then
+        assertEquals( asList( "derived " + asList( 3L, 2L, 1L ) ), serialApplications );
+        assertFalse( neoStores.getNodeStore().isInUse( 1 ) );
+        assertFalse( neoStores.getNodeStore().isInUse( 2 ) );
+    }
+
+    @Test
+    public void shouldApplySchemaChangesSerially() throws Exception
+    {
+        // when
+        apply( asList(
+                transaction( 1, createNode( 1 ) ),
+                transaction( 2, createIndexRule( NO_INDEX_PROVIDER.getProviderDescriptor(), 1,
+                        SchemaDescriptorFactory.forLabel( 0, 0 ) ) ),
+                transaction( 3, createNode( 2 ) ) ), RECOVERY );
+
+        // then
+        assertEquals( asList(
+                "derived " + txIds( 1, 1 ),
+                "serial " + txIds( 2, 2 ),
+                "derived " + txIds( 3, 3 ) ), serialApplications );
+        assertTrue( neoStores.getNodeStore().isInUse( 1 ) );
+        assertTrue( neoStores.getNodeStore().isInUse( 2 ) );
+        assertTrue( neoStores.getSchemaStore().isInUse( 1 ) );
+    }
+
+    private void apply( List<TransactionToApply> transactions, TransactionApplicationMode mode ) throws Exception
+    {
+        neoStores = neoStoresRule.builder().build();
+        // Id generators are rebuilt after recovery
+        neoStores.deleteIdGenerators();
+        applier = new ParallelRecoveryApplier( neoStores, cacheAccess, this::applySerially, PARALLELISM,
+                Executors.defaultThreadFactory() );
+        for ( int i = 1; i < transactions.size(); i++ )
+        {
+            transactions.get( i - 1 ).next( transactions.get( i ) );
+        }
+        applier.apply( transactions.get( 0 ), mode );
+    }
+
+    private void applySerially( CommandsToApply first, CommandsToApply end, TransactionApplicationMode mode,
+            boolean includeRecordStores ) throws Exception
+    {
+        List<Long> txIds = new ArrayList<>();
+        for ( CommandsToApply transaction = first; transaction != end; transaction = transaction.next() )
+        {
+            txIds.add( transaction.transactionId() );
+            if ( includeRecordStores )
+            {
+                try ( NeoStoreTransactionApplier storeApplier = new NeoStoreTransactionApplier( mode.version(),
+                        neoStores, cacheAccess, NO_LOCK_SERVICE, transaction.transactionId(), new LockGroup() ) )
+                {
+                    transaction.accept( storeApplier );
+                }
+            }
+        }
+        serialApplications.add( (includeRecordStores ? "serial " : "derived ") + txIds );
+    }
+
+    private static TransactionToApply transaction( long txId, Command... commands )
+    {
+        return new TransactionToApply( transactionRepresentation( commands ), txId );
+    }
+
+    private static List<Long> txIds( long from, long to )
+    {
+        List<Long> txIds = new ArrayList<>();
+        for ( long txId = from; txId <= to; txId++ )
+        {
+            txIds.add( txId );
+        }
+        return txIds;
+    }
+
+    private static PropertyRecord propertyWithString( long id, long stringRecordId )
+    {
+        PropertyRecord record = new PropertyRecord( id );
+        record.setInUse( true );
+        record.setCreated();
+        DynamicRecord string = new DynamicRecord( stringRecordId );
+        string.initialize( true, true, -1, PropertyType.STRING.intValue(), 1 );
+        string.setData( new byte[]{1} );
+        string.setCreated();
+        PropertyBlock block = new PropertyBlock();
+        PropertyStore.setSingleBlockValue( block, 0, PropertyType.STRING, stringRecordId );
+        block.setValueRecords( asList( string ) );
+        record.addPropertyBlock( block );
+        return record;
+    }
+}
@@ -22,29 +22,41 @@ package org.neo4j.kernel.impl.transaction.command;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.function.Supplier;
 
+import org.mockito.ArgumentCaptor;
+
 import org.neo4j.concurrent.WorkSync;
 import org.neo4j.helpers.collection.Iterables;
+import org.neo4j.internal.kernel.api.schema.LabelSchemaDescriptor;
+import org.neo4j.kernel.api.index.IndexEntryUpdate;
 import org.neo4j.kernel.api.labelscan.LabelScanWriter;
 import org.neo4j.kernel.api.labelscan.NodeLabelUpdate;
 import org.neo4j.kernel.impl.api.TransactionApplier;
 import org.neo4j.kernel.impl.api.TransactionToApply;
 import org.neo4j.kernel.impl.api.index.IndexingService;
 import org.neo4j.kernel.impl.api.index.IndexingUpdateService;
+import org.neo4j.kernel.impl.api.index.NodeUpdates;
 import org.neo4j.kernel.impl.api.index.PropertyPhysicalToLogicalConverter;
 import org.neo4j.kernel.impl.store.NodeLabelsField;
 import org.neo4j.kernel.impl.store.NodeStore;
 import org.neo4j.kernel.impl.store.PropertyStore;
 import org.neo4j.kernel.impl.store.record.NodeRecord;
 import org.neo4j.kernel.impl.transaction.command.Command.NodeCommand;
+import org.neo4j.kernel.impl.transaction.state.IndexUpdates;
+import org.neo4j.values.storable.Values;
 
+import static java.util.Collections.singletonList;
 import static org.junit.Assert.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.neo4j.helpers.collection.Iterables.asList;
+import static org.neo4j.kernel.api.schema.SchemaDescriptorFactory.forLabel;
 import static org.neo4j.kernel.impl.store.record.Record.NO_NEXT_PROPERTY;
 import static org.neo4j.kernel.impl.store.record.Record.NO_NEXT_RELATIONSHIP;
 
@@ -78,6 +90,49 @@ public class IndexBatchTransactionApplierTest
         verify( labelScanSync ).applyAsync( any() );
     }
 
+    @Test
+    public void shouldApplyUpdatesToIndexesSupportingConcurrentUpdatersWithoutWorkSync() throws Exception
+    {
+        // GIVEN
+        LabelSchemaDescriptor concurrentIndex = forLabel( 1, 1 );
+        LabelSchemaDescriptor serialIndex = forLabel( 1, 2 );
+        IndexEntryUpdate<LabelSchemaDescriptor> concurrentUpdate =
+                IndexEntryUpdate.add( 10, concurrentIndex, Values.of( 10 ) );
+        IndexEntryUpdate<LabelSchemaDescriptor> serialUpdate = IndexEntryUpdate.add( 15, serialIndex, Values.of( 15 ) );
+        IndexingService indexing = mock( IndexingService.class );
+        when( indexing.convertToIndexUpdates( any() ) ).thenAnswer( invocation ->
+        {
+            NodeUpdates nodeUpdates = invocation.getArgument( 0 );
+            return singletonList( nodeUpdates.getNodeId() == 10 ? concurrentUpdate : serialUpdate );
+        } );
+        when( indexing.supportsConcurrentUpdaters( concurrentIndex ) ).thenReturn( true );
+        WorkSync<Supplier<LabelScanWriter>,LabelUpdateWork> labelScanSync =
+                new WorkSync<>( singletonProvider( new OrderVerifyingLabelScanWriter( 10, 15 ) ) );
+        WorkSync<IndexingUpdateService,IndexUpdatesWork> indexUpdatesSync = spy( new WorkSync<>( indexing ) );
+        TransactionToApply tx = mock( TransactionToApply.class );
+        PropertyStore propertyStore = mock( PropertyStore.class );
+        try ( IndexBatchTransactionApplier applier = new IndexBatchTransactionApplier( indexing, labelScanSync,
+                indexUpdatesSync, mock( NodeStore.class ),
+                new PropertyPhysicalToLogicalConverter( propertyStore ) ) )
+        {
+            try ( TransactionApplier txApplier = applier.startTx( tx ) )
+            {
+                // WHEN
+                txApplier.visitNodeCommand( node( 10 ) );
+                txApplier.visitNodeCommand( node( 15 ) );
+            }
+        }
+
+        // THEN the update of the index that supports concurrent updaters is applied by itself, right away,
+        // and only the other update goes through the work sync
+        ArgumentCaptor<IndexUpdates> appliedUpdates = ArgumentCaptor.forClass( IndexUpdates.class );
+        verify( indexing, times( 2 ) ).apply( appliedUpdates.capture() );
+        List<IndexUpdates> applied = appliedUpdates.getAllValues();
+        assertEquals( singletonList( concurrentUpdate ), asList( applied.get( 0 ) ) );
+        assertEquals( singletonList( serialUpdate ), asList( applied.get( 1 ) ) );
+        verify( indexUpdatesSync ).apply( any() );
+    }
+
     private Supplier<LabelScanWriter> singletonProvider( final LabelScanWriter writer )
     {
         return () -> writer;
@@ -28,6 +28,9 @@ import java.io.Flushable;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
 
 import org.neo4j.kernel.impl.api.TransactionToApply;
 import org.neo4j.kernel.impl.store.record.NodeRecord;
@@ -43,18 +46,29 @@ import org.neo4j.kernel.impl.transaction.log.files.LogFiles;
 import org.neo4j.kernel.impl.transaction.log.files.TransactionLogFiles;
 import org.neo4j.kernel.impl.transaction.tracing.LogAppendEvent;
 import org.neo4j.kernel.impl.transaction.tracing.LogCheckPointEvent;
+import org.neo4j.kernel.impl.transaction.tracing.LogForceEvent;
+import org.neo4j.kernel.impl.transaction.tracing.SerializeTransactionEvent;
 import org.neo4j.kernel.internal.DatabaseHealth;
 import org.neo4j.kernel.lifecycle.LifeRule;
 import org.neo4j.storageengine.api.StorageCommand;
+import org.neo4j.test.Race;
 import org.neo4j.test.rule.CleanupRule;
 
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThan;
 import static org.junit.Assert.assertArrayEquals;
+import static java.util.Collections.singletonList;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyByte;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
@@ -70,6 +84,9 @@ import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 import static org.neo4j.kernel.impl.transaction.log.rotation.LogRotation.NO_ROTATION;
 import static org.neo4j.kernel.impl.util.IdOrderingQueue.BYPASS;
+import static org.neo4j.test.DoubleLatch.awaitLatch;
+import static org.neo4j.test.Race.throwing;
+import static org.neo4j.test.ThreadTestUtils.fork;
 
 public class BatchingTransactionAppenderTest
 {
@@ -149,6 +166,83 @@ public class BatchingTransactionAppenderTest
         assertNull( tx.next() );
     }
 
+    @Test
+    public void shouldAppendCommandsOfEachTransactionInBatch() throws Exception
+    {
+        // GIVEN
+        when( logFile.getWriter() ).thenReturn( channel );
+        TransactionAppender appender = life.add( createTransactionAppender() );
+        when( transactionIdStore.nextCommittingTransactionId() ).thenReturn( 2L, 3L, 4L );
+        TransactionToApply batch = batchOf(
+                transaction( singleCreateNodeCommand( 10 ), new byte[0], 0, 0, 0, 1, 0 ),
+                transaction( singleCreateNodeCommand( 11 ), new byte[0], 0, 0, 0, 1, 0 ),
+                transaction( singleCreateNodeCommand( 12 ), new byte[0], 0, 0, 0, 1, 0 ) );
+
+        // WHEN
+        appender.append( batch, logAppendEvent );
+
+        // THEN
+        LogEntryReader<ReadableLogChannel> logEntryReader = new VersionAwareLogEntryReader<>();
+        try ( PhysicalTransactionCursor<ReadableLogChannel> reader =
+                      new PhysicalTransactionCursor<>( channel, logEntryReader ) )
+        {
+            for ( long expectedNodeId = 10, expectedTxId = 2; expectedNodeId <= 12; expectedNodeId++, expectedTxId++ )
+            {
+                assertTrue( reader.next() );
+                assertEquals( expectedTxId, reader.get().getCommitEntry().getTxId() );
+                List<Long> nodeIds = new ArrayList<>();
+                reader.get().getTransactionRepresentation().accept( command ->
+                {
+                    nodeIds.add( ((NodeCommand) command).getKey() );
+                    return false;
+                } );
+                assertEquals( singletonList( expectedNodeId ), nodeIds );
+            }
+            assertFalse( reader.next() );
+        }
+    }
+
+    @Test
+    public void shouldAppendTransactionsTooLargeToSerializeBeforehand() throws Exception
+    {
+        // GIVEN
+        when( logFile.getWriter() ).thenReturn( channel );
+        TransactionAppender appender = life.add( new BatchingTransactionAppender( logFiles, NO_ROTATION, positionCache,
+                transactionIdStore, BYPASS, databaseHealth, GroupCommitPolicy.NO_WAIT, 200 ) );
+        when( transactionIdStore.nextCommittingTransactionId() ).thenReturn( 2L, 3L, 4L );
+        TransactionToApply batch = batchOf(
+                transaction( createNodeCommands( 10, 1 ), new byte[0], 0, 0, 0, 1, 0 ),
+                transaction( createNodeCommands( 11, 10 ), new byte[0], 0, 0, 0, 1, 0 ),
+                transaction( createNodeCommands( 21, 1 ), new byte[0], 0, 0, 0, 1, 0 ) );
+
+        // WHEN
+        appender.append( batch, logAppendEvent );
+
+        // THEN
+        LogEntryReader<ReadableLogChannel> logEntryReader = new VersionAwareLogEntryReader<>();
+        try ( PhysicalTransactionCursor<ReadableLogChannel> reader =
+                      new PhysicalTransactionCursor<>( channel, logEntryReader ) )
+        {
+            long[][] expectedNodeIds = {{10, 1}, {11, 10}, {21, 1}};
+            for ( int i = 0; i < expectedNodeIds.length; i++ )
+            {
+                assertTrue( reader.next() );
+                assertEquals( 2L + i, reader.get().getCommitEntry().getTxId() );
+                List<Long> nodeIds = new ArrayList<>();
+                reader.get().getTransactionRepresentation().accept( command ->
+                {
+                    nodeIds.add( ((NodeCommand) command).getKey() );
+                    return false;
+                } );
+                assertEquals( expectedNodeIds[i][1], nodeIds.size() );
+                assertEquals( expectedNodeIds[i][0], nodeIds.get( 0 ).longValue() );
+                assertEquals( expectedNodeIds[i][0] + expectedNodeIds[i][1] - 1,
+                        nodeIds.get( nodeIds.size() - 1 ).longValue() );
+            }
+            assertFalse( reader.next() );
+        }
+    }
+
     @Test
     public void shouldAppendCommittedTransactions() throws Exception
     {
@@ -268,6 +362,34 @@ public class BatchingTransactionAppenderTest
         }
     }
 
+    @Test
+    public void shouldNotPanicOnFailureToSerializeCommands() throws Exception
+    {
+        // GIVEN
+        when( logFile.getWriter() ).thenReturn( channel );
+        Mockito.reset( databaseHealth );
+        TransactionAppender appender = life.add( createTransactionAppender() );
+        IOException failure = new IOException( "Forces a failure" );
+        TransactionRepresentation transaction = mock( TransactionRepresentation.class );
+        when( transaction.additionalHeader() ).thenReturn( new byte[0] );
+        when( transaction.accept( any() ) ).thenThrow( failure );
+
+        // WHEN
+        try
+        {
+            appender.append( new TransactionToApply( transaction ), logAppendEvent );
+            fail( "Expected append to fail. Something is wrong with the test itself" );
+        }
+        catch ( IOException e )
+        {
+            // THEN nothing has been written to the log, so there's nothing that recovery would need to sort out
+            assertSame( failure, e );
+            verify( transactionIdStore, times( 0 ) ).nextCommittingTransactionId();
+            verify( databaseHealth, times( 0 ) ).panic( any() );
+            assertEquals( 0, channel.writerPosition() );
+        }
+    }
+
     @Test
     public void shouldNotCallTransactionClosedOnFailedForceLogToDisk() throws Exception
     {
@@ -380,11 +502,139 @@ public class BatchingTransactionAppenderTest
 
     }
 
+    @Test
+    public void shouldBatchConcurrentCommittersIntoOneForce() throws Throwable
+    {
+        // given
+        int committers = 5;
+        when( logFile.getWriter() ).thenReturn( new InMemoryClosableChannel( 100_000 ) );
+        BatchingTransactionAppender appender =
+                life.add( createTransactionAppender( waitingGroupCommitPolicy( SECONDS.toNanos( 10 ), 100 ) ) );
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        CountDownLatch allSerializing = new CountDownLatch( committers );
+        LogAppendEvent event = new LogAppendEvent.Empty()
+        {
+            @Override
+            public SerializeTransactionEvent beginSerializeTransaction()
+            {
+                allSerializing.countDown();
+                awaitLatch( allSerializing );
+                return super.beginSerializeTransaction();
+            }
+
+            @Override
+            public LogForceEvent beginLogForce()
+            {
+                return new LogForceEvent()
+                {
+                    @Override
+                    public void setBatchSize( int batchSize )
+                    {
+                        batchSizes.add( batchSize );
+                    }
+
+                    @Override
+                    public void close()
+                    {
+                    }
+                };
+            }
+        };
+
+        // when
+        Race race = new Race();
+        race.addContestants( committers, throwing( () -> appender.append( tx(), event ) ) );
+        race.go();
+
+        // then
+        assertEquals( singletonList( committers ), batchSizes );
+    }
+
+    @Test
+    public void shouldNotWaitForMoreAppendsWhenCommittingAlone() throws Throwable
+    {
+        // given
+        long maxWaitNanos = SECONDS.toNanos( 10 );
+        when( logFile.getWriter() ).thenReturn( channel );
+        BatchingTransactionAppender appender =
+                life.add( createTransactionAppender( waitingGroupCommitPolicy( maxWaitNanos, 100 ) ) );
+
+        // when
+        long startNanos = System.nanoTime();
+        appender.append( tx(), logAppendEvent );
+        long appendNanos = System.nanoTime() - startNanos;
+
+        // then
+        assertThat( appendNanos, lessThan( maxWaitNanos ) );
+    }
+
+    @Test
+    public void shouldNotWaitForMoreAppendsLongerThanMaxWait() throws Throwable
+    {
+        // given
+        long maxWaitNanos = MILLISECONDS.toNanos( 200 );
+        when( logFile.getWriter() ).thenReturn( channel );
+        // The observed forces would have it wait for half a minute, if it weren't for the max wait
+        BatchingTransactionAppender appender =
+                life.add( createTransactionAppender( waitingGroupCommitPolicy( maxWaitNanos, 100 ) ) );
+        CountDownLatch otherSerializing = new CountDownLatch( 1 );
+        CountDownLatch releaseOther = new CountDownLatch( 1 );
+        LogAppendEvent blockingEvent = new LogAppendEvent.Empty()
+        {
+            @Override
+            public SerializeTransactionEvent beginSerializeTransaction()
+            {
+                otherSerializing.countDown();
+                awaitLatch( releaseOther );
+                return super.beginSerializeTransaction();
+            }
+        };
+        Thread other = fork( throwing( () -> appender.append( tx(), blockingEvent ) ) );
+        awaitLatch( otherSerializing );
+
+        // when
+        long startNanos = System.nanoTime();
+        appender.append( tx(), logAppendEvent );
+        long appendNanos = System.nanoTime() - startNanos;
+        releaseOther.countDown();
+        other.join();
+
+        // then
+        assertThat( appendNanos, greaterThanOrEqualTo( maxWaitNanos ) );
+        assertThat( appendNanos, lessThan( SECONDS.toNanos( 10 ) ) );
+    }
+
     private BatchingTransactionAppender createTransactionAppender()
     {
         return new BatchingTransactionAppender( logFiles, NO_ROTATION, positionCache, transactionIdStore, BYPASS, databaseHealth );
     }
 
+    private BatchingTransactionAppender createTransactionAppender( GroupCommitPolicy groupCommitPolicy )
+    {
+        return new BatchingTransactionAppender( logFiles, NO_ROTATION, positionCache, transactionIdStore, BYPASS,
+                databaseHealth, groupCommitPolicy );
+    }
+
+    /**
+     * @return a policy which has seen appends arrive during forces taking a minute each, and so wants to wait for the
+     * given max wait.
+     */
+    private static GroupCommitPolicy waitingGroupCommitPolicy( long maxWaitNanos, int targetBatchSize )
+    {
+        GroupCommitPolicy policy = new GroupCommitPolicy( maxWaitNanos, targetBatchSize );
+        for ( int i = 0; i < 100; i++ )
+        {
+            policy.forced( SECONDS.toNanos( 60 ), 4 );
+        }
+        assertEquals( maxWaitNanos, policy.waitNanos() );
+        return policy;
+    }
+
+    private TransactionToApply tx()
+    {
+        return new TransactionToApply( transaction( singleCreateNodeCommand( 0 ), new byte[0], 0, 0, 0, 1, 0 ) );
+    }
+
     private TransactionRepresentation transaction( Collection<StorageCommand> commands, byte[] additionalHeader,
             int masterId, int authorId, long timeStarted, long latestCommittedTxWhenStarted, long timeCommitted )
     {
@@ -395,12 +645,20 @@ public class BatchingTransactionAppenderTest
     }
 
     private Collection<StorageCommand> singleCreateNodeCommand( long id )
+    {
+        return createNodeCommands( id, 1 );
+    }
+
+    private Collection<StorageCommand> createNodeCommands( long firstId, int count )
     {
         Collection<StorageCommand> commands = new ArrayList<>();
-        NodeRecord before = new NodeRecord( id );
-        NodeRecord after = new NodeRecord( id );
-        after.setInUse( true );
-        commands.add( new NodeCommand( before, after ) );
+        for ( long id = firstId; id < firstId + count; id++ )
+        {
+            NodeRecord before = new NodeRecord( id );
+            NodeRecord after = new NodeRecord( id );
+            after.setInUse( true );
+            commands.add( new NodeCommand( before, after ) );
+        }
         return commands;
     }
 
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class GroupCommitPolicyTest
+{
+    private static final long MAX_WAIT_NANOS = 1_000_000;
+
+    @Test
+    public void shouldNotWaitWhenDisabled()
+    {
+        // given
+        GroupCommitPolicy policy = new GroupCommitPolicy( 0, 16 );
+
+        // when
+        observeForces( policy, 100, 400_000, 10 );
+
+        // then
+        assertEquals( 0, policy.waitNanos() );
+    }
+
+    @Test
+    public void shouldNotWaitBeforeAnyForceHasBeenObserved()
+    {
+        assertEquals( 0, new GroupCommitPolicy( MAX_WAIT_NANOS, 16 ).waitNanos() );
+    }
+
+    @Test
+    public void shouldNotWaitWhenNothingArrivesDuringForces()
+    {
+        // given
+        GroupCommitPolicy policy = new GroupCommitPolicy( MAX_WAIT_NANOS, 16 );
+
+        // when
+        observeForces( policy, 100, 400_000, 0 );
+
+        // then
+        assertEquals( 0, policy.waitNanos() );
+    }
+
+    @Test
+    public void shouldWaitHalfTheForceTimeWhenAppendsArriveDuringForces()
+    {
+        // given
+        GroupCommitPolicy policy = new GroupCommitPolicy( MAX_WAIT_NANOS, 16 );
+
+        // when
+        observeForces( policy, 100, 400_000, 3 );
+
+        // then
+        long waitNanos = policy.waitNanos();
+        assertTrue( "Unexpected wait " + waitNanos, waitNanos > 199_000 && waitNanos <= 200_000 );
+    }
+
+    @Test
+    public void shouldNotWaitLongerThanMaxWait()
+    {
+        // given
+        GroupCommitPolicy policy = new GroupCommitPolicy( MAX_WAIT_NANOS, 16 );
+
+        // when
+        observeForces( policy, 100, 10 * MAX_WAIT_NANOS, 3 );
+
+        // then
+        assertEquals( MAX_WAIT_NANOS, policy.waitNanos() );
+    }
+
+    @Test
+    public void shouldStopWaitingWhenLoadDropsOff()
+    {
+        // given
+        GroupCommitPolicy policy = new GroupCommitPolicy( MAX_WAIT_NANOS, 16 );
+        observeForces( policy, 100, 400_000, 3 );
+
+        // when
+        observeForces( policy, 100, 400_000, 0 );
+
+        // then
+        assertEquals( 0, policy.waitNanos() );
+    }
+
+    private static void observeForces( GroupCommitPolicy policy, int forces, long forceNanos, int arrivalsDuringForce )
+    {
+        for ( int i = 0; i < forces; i++ )
+        {
+            policy.forced( forceNanos, arrivalsDuringForce );
+        }
+    }
+}
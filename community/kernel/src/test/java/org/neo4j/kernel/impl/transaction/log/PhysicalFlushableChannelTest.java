@@ -28,6 +28,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
 import java.nio.channels.ClosedChannelException;
+import java.util.Arrays;
 import java.util.Random;
 
 import org.neo4j.io.fs.OpenMode;
@@ -118,6 +119,33 @@ public class PhysicalFlushableChannelTest
         assertArrayEquals( bytes, writtenBytes );
     }
 
+    @Test
+    public void shouldBeAbleToWritePartOfArrayThroughDirectBuffer() throws IOException
+    {
+        final File firstFile = new File( directory.directory(), "file1" );
+        StoreChannel storeChannel = fileSystemRule.get().open( firstFile, OpenMode.READ_WRITE );
+        PhysicalLogVersionedStoreChannel versionedStoreChannel =
+                new PhysicalLogVersionedStoreChannel( storeChannel, 1, (byte) -1 /* ignored */ );
+        PhysicalFlushableChannel channel =
+                new PhysicalFlushableChannel( versionedStoreChannel, ByteBuffer.allocateDirect( 1024 ) );
+
+        int offset = 1_000;
+        int length = 10_000;
+        byte[] bytes = generateBytes( offset + length + 1_000 );
+
+        channel.put( bytes, offset, length );
+        channel.close();
+
+        byte[] writtenBytes = new byte[length];
+        try ( InputStream in = new FileInputStream( firstFile ) )
+        {
+            in.read( writtenBytes );
+        }
+
+        assertArrayEquals( Arrays.copyOfRange( bytes, offset, offset + length ), writtenBytes );
+        assertEquals( length, firstFile.length() );
+    }
+
     private byte[] generateBytes( int length )
     {
         Random random = new Random();
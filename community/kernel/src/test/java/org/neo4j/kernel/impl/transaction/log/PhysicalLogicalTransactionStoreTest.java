@@ -199,8 +199,8 @@ public class PhysicalLogicalTransactionStoreTest
             }
 
             @Override
-            public RecoveryApplier getRecoveryApplier( TransactionApplicationMode mode )
-                    throws Exception
+            public RecoveryApplier getRecoveryApplier( TransactionApplicationMode mode,
+                    RecoveryApplier.AppliedTransactionListener appliedTransactionListener ) throws Exception
             {
                 return mode == TransactionApplicationMode.REVERSE_RECOVERY ? mock( RecoveryApplier.class ) : visitor;
             }
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.transaction.TransactionRepresentation;
+import org.neo4j.kernel.impl.transaction.command.Command.NodeCommand;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntryWriter;
+import org.neo4j.storageengine.api.StorageCommand;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SerializedCommandsBufferTest
+{
+    @Test
+    public void shouldSerializeCommandsLikeTheyAreSerializedIntoTheLog() throws Exception
+    {
+        // given
+        TransactionRepresentation small = transactionCreatingNodes( 0, 1 );
+        TransactionRepresentation large = transactionCreatingNodes( 1, 5_000 );
+        SerializedCommandsBuffer buffer = new SerializedCommandsBuffer();
+
+        // when
+        int smallIndex = buffer.add( small );
+        int largeIndex = buffer.add( large );
+
+        // then
+        assertArrayEquals( serializedDirectly( small ), serializedFromBuffer( buffer, smallIndex ) );
+        assertArrayEquals( serializedDirectly( large ), serializedFromBuffer( buffer, largeIndex ) );
+    }
+
+    @Test
+    public void shouldStartOverWhenCleared() throws Exception
+    {
+        // given
+        SerializedCommandsBuffer buffer = new SerializedCommandsBuffer();
+        buffer.add( transactionCreatingNodes( 0, 10_000 ) );
+
+        // when
+        buffer.clear();
+        TransactionRepresentation transaction = transactionCreatingNodes( 10_000, 3 );
+        int index = buffer.add( transaction );
+
+        // then
+        assertArrayEquals( serializedDirectly( transaction ), serializedFromBuffer( buffer, index ) );
+    }
+
+    @Test
+    public void shouldLeaveOutTransactionsNotFittingWithinMaxCapacity() throws Exception
+    {
+        // given
+        TransactionRepresentation before = transactionCreatingNodes( 0, 3 );
+        TransactionRepresentation tooLarge = transactionCreatingNodes( 3, 5_000 );
+        TransactionRepresentation after = transactionCreatingNodes( 5_003, 3 );
+        SerializedCommandsBuffer buffer = new SerializedCommandsBuffer( SerializedCommandsBuffer.INITIAL_CAPACITY );
+
+        // when
+        int beforeIndex = buffer.add( before );
+        int tooLargeIndex = buffer.add( tooLarge );
+        int afterIndex = buffer.add( after );
+
+        // then
+        assertTrue( buffer.isSerialized( beforeIndex ) );
+        assertFalse( buffer.isSerialized( tooLargeIndex ) );
+        assertTrue( buffer.isSerialized( afterIndex ) );
+        assertArrayEquals( serializedDirectly( before ), serializedFromBuffer( buffer, beforeIndex ) );
+        assertArrayEquals( serializedDirectly( after ), serializedFromBuffer( buffer, afterIndex ) );
+    }
+
+    private static byte[] serializedDirectly( TransactionRepresentation transaction ) throws IOException
+    {
+        byte[] bytes = new byte[1_000_000];
+        InMemoryClosableChannel channel = new InMemoryClosableChannel( bytes, false );
+        new LogEntryWriter( channel ).serialize( transaction );
+        return Arrays.copyOf( bytes, channel.writerPosition() );
+    }
+
+    private static byte[] serializedFromBuffer( SerializedCommandsBuffer buffer, int index ) throws IOException
+    {
+        byte[] bytes = new byte[1_000_000];
+        InMemoryClosableChannel channel = new InMemoryClosableChannel( bytes, false );
+        buffer.writeTo( index, channel );
+        return Arrays.copyOf( bytes, channel.writerPosition() );
+    }
+
+    private static TransactionRepresentation transactionCreatingNodes( long firstId, int count )
+    {
+        List<StorageCommand> commands = new ArrayList<>();
+        for ( long id = firstId; id < firstId + count; id++ )
+        {
+            NodeRecord after = new NodeRecord( id );
+            after.setInUse( true );
+            commands.add( new NodeCommand( new NodeRecord( id ), after ) );
+        }
+        return new PhysicalTransactionRepresentation( commands );
+    }
+}
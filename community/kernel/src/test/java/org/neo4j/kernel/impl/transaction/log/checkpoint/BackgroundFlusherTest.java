@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.checkpoint;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.IOException;
+
+import org.neo4j.io.pagecache.IOLimiter;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.kernel.impl.transaction.log.TransactionIdStore;
+import org.neo4j.kernel.internal.DatabaseHealth;
+import org.neo4j.logging.AssertableLogProvider;
+import org.neo4j.scheduler.JobScheduler;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+import static org.neo4j.logging.AssertableLogProvider.inLog;
+import static org.neo4j.scheduler.JobScheduler.Groups.checkPoint;
+import static org.neo4j.scheduler.JobScheduler.Groups.pageCacheFlush;
+
+public class BackgroundFlusherTest
+{
+    private static final long LOG_BYTES_PER_FLUSH = 1_000;
+    private static final long LOG_ROTATION_THRESHOLD = 10_000;
+
+    private final PageCache pageCache = mock( PageCache.class );
+    private final TransactionIdStore transactionIdStore = mock( TransactionIdStore.class );
+    private final IOLimiter ioLimiter = mock( IOLimiter.class );
+    private final JobScheduler scheduler = mock( JobScheduler.class );
+    private final DatabaseHealth health = mock( DatabaseHealth.class );
+    private final AssertableLogProvider logProvider = new AssertableLogProvider();
+
+    @Before
+    public void setUp()
+    {
+        when( scheduler.scheduleRecurring( any(), any(), anyLong(), any() ) ).thenReturn( mock( JobScheduler.JobHandle.class ) );
+        when( health.isHealthy() ).thenReturn( true );
+        logPosition( 0, 100 );
+    }
+
+    @Test
+    public void shouldNotScheduleAnythingWhenDisabled() throws Throwable
+    {
+        // given
+        BackgroundFlusher flusher = new BackgroundFlusher( pageCache, transactionIdStore, ioLimiter, scheduler, 0,
+                LOG_ROTATION_THRESHOLD, health, logProvider );
+
+        // when
+        flusher.start();
+        flusher.stop();
+
+        // then
+        verifyZeroInteractions( scheduler, pageCache );
+    }
+
+    @Test
+    public void shouldNotFlushBeforeEnoughHasBeenAppendedToTheLog() throws Throwable
+    {
+        // given
+        Runnable check = startFlusher();
+
+        // when
+        logPosition( 0, 100 + LOG_BYTES_PER_FLUSH - 1 );
+        check.run();
+
+        // then
+        verify( scheduler, never() ).schedule( eq( pageCacheFlush ), any( Runnable.class ) );
+    }
+
+    @Test
+    public void shouldFlushWithTheCheckPointLimiterWhenEnoughHasBeenAppendedToTheLog() throws Throwable
+    {
+        // given
+        Runnable check = startFlusher();
+
+        // when
+        logPosition( 0, 100 + LOG_BYTES_PER_FLUSH );
+        check.run();
+        scheduledFlush().run();
+
+        // then
+        verify( pageCache ).flush( ioLimiter );
+    }
+
+    @Test
+    public void shouldLeaveForcingToTheCheckPoint() throws Throwable
+    {
+        // given
+        Runnable check = startFlusher();
+
+        // when
+        logPosition( 0, 100 + LOG_BYTES_PER_FLUSH );
+        check.run();
+        scheduledFlush().run();
+
+        // then
+        verify( pageCache ).flush( ioLimiter );
+        verify( pageCache, never() ).flushAndForce();
+        verify( pageCache, never() ).flushAndForce( any() );
+    }
+
+    @Test
+    public void shouldCountRotatedLogFilesAsAppendedBytes() throws Throwable
+    {
+        // given
+        Runnable check = startFlusher();
+
+        // when
+        logPosition( 1, 100 );
+        check.run();
+
+        // then
+        scheduledFlush().run();
+        verify( pageCache ).flush( ioLimiter );
+    }
+
+    @Test
+    public void shouldMeasureAppendedBytesFromWhereThePreviousFlushStarted() throws Throwable
+    {
+        // given
+        Runnable check = startFlusher();
+        logPosition( 0, 100 + LOG_BYTES_PER_FLUSH );
+        check.run();
+        scheduledFlush().run();
+
+        // when
+        logPosition( 0, 100 + 2 * LOG_BYTES_PER_FLUSH - 1 );
+        check.run();
+
+        // then
+        verify( scheduler, times( 1 ) ).schedule( eq( pageCacheFlush ), any( Runnable.class ) );
+    }
+
+    @Test
+    public void shouldNotStartAnotherFlushWhileFlushing() throws Throwable
+    {
+        // given
+        Runnable check = startFlusher();
+        logPosition( 0, 100 + LOG_BYTES_PER_FLUSH );
+        check.run();
+
+        // when
+        logPosition( 0, 100 + 3 * LOG_BYTES_PER_FLUSH );
+        check.run();
+
+        // then
+        verify( scheduler, times( 1 ) ).schedule( eq( pageCacheFlush ), any( Runnable.class ) );
+    }
+
+    @Test
+    public void shouldNotFlushWhenDatabaseIsUnhealthy() throws Throwable
+    {
+        // given
+        Runnable check = startFlusher();
+        when( health.isHealthy() ).thenReturn( false );
+
+        // when
+        logPosition( 0, 100 + LOG_BYTES_PER_FLUSH );
+        check.run();
+
+        // then
+        verify( scheduler, never() ).schedule( eq( pageCacheFlush ), any( Runnable.class ) );
+    }
+
+    @Test
+    public void shouldLogFailedFlushAndFlushAgainLater() throws Throwable
+    {
+        // given
+        IOException failure = new IOException( "No space left on device" );
+        doThrow( failure ).when( pageCache ).flush( ioLimiter );
+        Runnable check = startFlusher();
+        logPosition( 0, 100 + LOG_BYTES_PER_FLUSH );
+        check.run();
+
+        // when
+        scheduledFlush().run();
+        logPosition( 0, 100 + 2 * LOG_BYTES_PER_FLUSH );
+        check.run();
+
+        // then
+        logProvider.assertAtLeastOnce(
+                inLog( BackgroundFlusher.class ).warn( equalTo( "Background flushing of the page cache failed" ),
+                sameInstance( failure ) ) );
+        verify( scheduler, times( 2 ) ).schedule( eq( pageCacheFlush ), any( Runnable.class ) );
+    }
+
+    private Runnable startFlusher() throws Throwable
+    {
+        BackgroundFlusher flusher = new BackgroundFlusher( pageCache, transactionIdStore, ioLimiter, scheduler,
+                LOG_BYTES_PER_FLUSH, LOG_ROTATION_THRESHOLD, health, logProvider );
+        flusher.start();
+        ArgumentCaptor<Runnable> check = ArgumentCaptor.forClass( Runnable.class );
+        verify( scheduler ).scheduleRecurring( eq( checkPoint ), check.capture(),
+                eq( BackgroundFlusher.CHECK_PERIOD_MILLIS ), any() );
+        return check.getValue();
+    }
+
+    private Runnable scheduledFlush()
+    {
+        ArgumentCaptor<Runnable> flush = ArgumentCaptor.forClass( Runnable.class );
+        verify( scheduler, times( 1 ) ).schedule( eq( pageCacheFlush ), flush.capture() );
+        return flush.getValue();
+    }
+
+    private void logPosition( long logVersion, long byteOffset )
+    {
+        when( transactionIdStore.getLastClosedTransaction() ).thenReturn( new long[]{42, logVersion, byteOffset} );
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.files;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import org.neo4j.io.fs.OpenMode;
+import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.kernel.impl.transaction.SimpleLogVersionRepository;
+import org.neo4j.kernel.impl.transaction.SimpleTransactionIdStore;
+import org.neo4j.kernel.impl.transaction.log.PhysicalLogVersionedStoreChannel;
+import org.neo4j.kernel.impl.transaction.log.entry.LogHeader;
+import org.neo4j.test.rule.TestDirectory;
+import org.neo4j.test.rule.fs.DefaultFileSystemRule;
+import org.neo4j.test.rule.fs.FileSystemRule;
+
+import static java.lang.Math.min;
+import static java.util.Arrays.copyOf;
+import static java.util.Arrays.copyOfRange;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.neo4j.kernel.impl.transaction.log.entry.LogHeader.LOG_HEADER_SIZE;
+import static org.neo4j.kernel.impl.transaction.log.entry.LogHeaderWriter.writeLogHeader;
+import static org.neo4j.kernel.impl.transaction.log.entry.LogVersions.CURRENT_LOG_VERSION;
+import static org.neo4j.kernel.impl.transaction.log.files.TransactionLogFileCompressor.COMPRESSED_LOG_VERSION;
+
+public class TransactionLogFileCompressorTest
+{
+    @Rule
+    public final TestDirectory testDirectory = TestDirectory.testDirectory();
+    @Rule
+    public final FileSystemRule fileSystemRule = new DefaultFileSystemRule();
+    private final Random random = new Random( 42 );
+    private LogFiles logFiles;
+    private TransactionLogFileCompressor compressor;
+
+    @Before
+    public void setUp() throws IOException
+    {
+        logFiles = LogFilesBuilder
+                .builder( testDirectory.directory(), fileSystemRule )
+                .withTransactionIdStore( new SimpleTransactionIdStore() )
+                .withLogVersionRepository( new SimpleLogVersionRepository() )
+                .build();
+        compressor = new TransactionLogFileCompressor( fileSystemRule, logFiles );
+    }
+
+    @Test
+    public void shouldReadOriginalLogFileThroughCompressedLogFile() throws IOException
+    {
+        // given
+        byte[] original = createLogFile( 3, 17, TransactionLogFileCompressor.BLOCK_SIZE * 3 + 1_000 );
+
+        // when
+        assertTrue( compressor.compress( 3 ) );
+
+        // then
+        LogHeader header = logFiles.extractHeader( 3 );
+        assertEquals( COMPRESSED_LOG_VERSION, header.logFormatVersion );
+        assertEquals( 3, header.logVersion );
+        assertEquals( 17, header.lastCommittedTxId );
+        assertTrue( fileSystemRule.getFileSize( logFiles.getLogFileForVersion( 3 ) ) < original.length / 2 );
+        try ( PhysicalLogVersionedStoreChannel channel = logFiles.openForVersion( 3 ) )
+        {
+            assertEquals( CURRENT_LOG_VERSION, channel.getLogFormatVersion() );
+            assertEquals( LOG_HEADER_SIZE, channel.position() );
+            assertEquals( original.length, channel.size() );
+            assertArrayEquals( copyOfRange( original, LOG_HEADER_SIZE, original.length ),
+                    read( channel, original.length - LOG_HEADER_SIZE ) );
+        }
+    }
+
+    @Test
+    public void shouldReadFromAnyPositionInCompressedLogFile() throws IOException
+    {
+        // given
+        byte[] original = createLogFile( 0, 1, TransactionLogFileCompressor.BLOCK_SIZE * 5 );
+        compressor.compress( 0 );
+
+        try ( PhysicalLogVersionedStoreChannel channel = logFiles.openForVersion( 0 ) )
+        {
+            for ( int i = 0; i < 100; i++ )
+            {
+                // when
+                int position = LOG_HEADER_SIZE + random.nextInt( original.length - LOG_HEADER_SIZE );
+                int length = min( random.nextInt( 2 * TransactionLogFileCompressor.BLOCK_SIZE ),
+                        original.length - position );
+                channel.position( position );
+
+                // then
+                assertArrayEquals( copyOfRange( original, position, position + length ), read( channel, length ) );
+            }
+            channel.position( original.length );
+            assertEquals( -1, channel.read( ByteBuffer.allocate( 1 ) ) );
+        }
+    }
+
+    @Test
+    public void shouldNotCompressLogFileTwice() throws IOException
+    {
+        // given
+        createLogFile( 1, 5, 10_000 );
+        assertTrue( compressor.compress( 1 ) );
+        long compressedSize = fileSystemRule.getFileSize( logFiles.getLogFileForVersion( 1 ) );
+
+        // when
+        boolean compressed = compressor.compress( 1 );
+
+        // then
+        assertFalse( compressed );
+        assertEquals( compressedSize, fileSystemRule.getFileSize( logFiles.getLogFileForVersion( 1 ) ) );
+    }
+
+    @Test
+    public void shouldNotCompressLogFileWithoutEntries() throws IOException
+    {
+        // given
+        createLogFile( 2, 5, LOG_HEADER_SIZE );
+
+        // when
+        boolean compressed = compressor.compress( 2 );
+
+        // then
+        assertFalse( compressed );
+        assertEquals( CURRENT_LOG_VERSION, logFiles.extractHeader( 2 ).logFormatVersion );
+    }
+
+    @Test
+    public void shouldNotLeaveAnythingBehindButTheCompressedLogFile() throws IOException
+    {
+        // given
+        createLogFile( 4, 5, 10_000 );
+
+        // when
+        compressor.compress( 4 );
+
+        // then
+        assertEquals( 1, logFiles.logFiles().length );
+        assertFalse( fileSystemRule.fileExists(
+                new File( logFiles.logFilesDirectory(), TransactionLogFileCompressor.TEMP_FILE_NAME ) ) );
+    }
+
+    @Test
+    public void shouldNotCompressLogFileWhileBeingRead() throws IOException
+    {
+        // given
+        createLogFile( 5, 5, 10_000 );
+
+        // when
+        try ( PhysicalLogVersionedStoreChannel channel = logFiles.openForVersion( 5 ) )
+        {
+            // then
+            assertTrue( logFiles.hasOpenReaders( 5 ) );
+            assertFalse( compressor.compress( 5 ) );
+        }
+        assertFalse( logFiles.hasOpenReaders( 5 ) );
+        assertTrue( compressor.compress( 5 ) );
+    }
+
+    @Test
+    public void shouldNotCompressLogFileInUse() throws IOException
+    {
+        // given
+        createLogFile( 6, 5, 10_000 );
+        TransactionLogFileCompressor compressor = new TransactionLogFileCompressor( fileSystemRule, logFiles,
+                version -> true );
+
+        // when
+        boolean compressed = compressor.compress( 6 );
+
+        // then
+        assertFalse( compressed );
+        assertEquals( CURRENT_LOG_VERSION, logFiles.extractHeader( 6 ).logFormatVersion );
+        assertEquals( 1, logFiles.logFiles().length );
+    }
+
+    /**
+     * Creates a log file with some compressible contents after the header, like a log file has.
+     */
+    private byte[] createLogFile( long version, long lastCommittedTxId, int size ) throws IOException
+    {
+        ByteBuffer buffer = ByteBuffer.allocate( size );
+        buffer.put( writeLogHeader( ByteBuffer.allocate( LOG_HEADER_SIZE ), version, lastCommittedTxId ) );
+        while ( buffer.hasRemaining() )
+        {
+            buffer.put( (byte) random.nextInt( 4 ) );
+        }
+        buffer.flip();
+        File logFile = logFiles.getLogFileForVersion( version );
+        try ( StoreChannel channel = fileSystemRule.open( logFile, OpenMode.READ_WRITE ) )
+        {
+            channel.writeAll( buffer );
+        }
+        return buffer.array();
+    }
+
+    private static byte[] read( StoreChannel channel, int length ) throws IOException
+    {
+        ByteBuffer buffer = ByteBuffer.allocate( length );
+        while ( buffer.hasRemaining() )
+        {
+            if ( channel.read( buffer ) == -1 )
+            {
+                break;
+            }
+        }
+        return copyOf( buffer.array(), buffer.position() );
+    }
+}
@@ -27,20 +27,25 @@ import java.io.File;
 import java.time.Clock;
 import java.util.stream.LongStream;
 
+import org.neo4j.graphdb.factory.GraphDatabaseSettings;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.kernel.configuration.Config;
+import org.neo4j.kernel.impl.transaction.log.checkpoint.StoreCopyCheckPointMutex;
 import org.neo4j.kernel.impl.transaction.log.files.LogFiles;
 import org.neo4j.logging.LogProvider;
 import org.neo4j.logging.NullLogProvider;
+import org.neo4j.scheduler.JobScheduler;
 
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
@@ -52,6 +57,7 @@ public class LogPruningTest
     private LogProvider logProvider;
     private Clock clock;
     private LogPruneStrategyFactory factory;
+    private JobScheduler scheduler;
 
     @Before
     public void setUp()
@@ -63,6 +69,7 @@ public class LogPruningTest
         logProvider = NullLogProvider.getInstance();
         clock = mock( Clock.class );
         factory = mock( LogPruneStrategyFactory.class );
+        scheduler = mock( JobScheduler.class );
     }
 
     @Test
@@ -70,7 +77,8 @@ public class LogPruningTest
     {
         when( factory.strategyFromConfigValue( eq( fs ), eq( logFiles ), eq( clock ), anyString() ) )
                 .thenReturn( upTo -> LongStream.range( 3, upTo ) );
-        LogPruning pruning = new LogPruningImpl( fs, logFiles,logProvider,factory, clock, config );
+        LogPruning pruning = new LogPruningImpl( fs, logFiles, logProvider, factory, clock, config, scheduler,
+                new StoreCopyCheckPointMutex() );
         pruning.pruneLogs( 5 );
         InOrder order = inOrder( fs );
         order.verify( fs ).deleteFile( new File( "3" ) );
@@ -85,7 +93,8 @@ public class LogPruningTest
         when( factory.strategyFromConfigValue( eq( fs ), eq( logFiles ), eq( clock ), anyString() ) )
                 .thenReturn(  upTo -> LongStream.range( 3, upTo ) );
         when( logFiles.getHighestLogVersion() ).thenReturn( 4L );
-        LogPruning pruning = new LogPruningImpl( fs, logFiles, logProvider, factory, clock, config );
+        LogPruning pruning = new LogPruningImpl( fs, logFiles, logProvider, factory, clock, config, scheduler,
+                new StoreCopyCheckPointMutex() );
         assertTrue( pruning.mightHaveLogsToPrune() );
     }
 
@@ -94,7 +103,23 @@ public class LogPruningTest
     {
         when( factory.strategyFromConfigValue( eq( fs ), eq( logFiles ), eq( clock ), anyString() ) )
                 .thenReturn(  x -> LongStream.empty() );
-        LogPruning pruning = new LogPruningImpl( fs, logFiles, logProvider, factory, clock, config );
+        LogPruning pruning = new LogPruningImpl( fs, logFiles, logProvider, factory, clock, config, scheduler,
+                new StoreCopyCheckPointMutex() );
         assertFalse( pruning.mightHaveLogsToPrune() );
     }
+
+    @Test
+    public void mustCompressLogFilesInJobOfItsOwn() throws Exception
+    {
+        when( factory.strategyFromConfigValue( eq( fs ), eq( logFiles ), eq( clock ), anyString() ) )
+                .thenReturn( x -> LongStream.empty() );
+        Config config = Config.defaults( GraphDatabaseSettings.tx_log_compression, "true" );
+        LogPruning pruning = new LogPruningImpl( fs, logFiles, logProvider, factory, clock, config, scheduler,
+                new StoreCopyCheckPointMutex() );
+        pruning.pruneLogs( 5 );
+        pruning.pruneLogs( 6 );
+        // Compression is left to the scheduled job, of which only one is scheduled at a time
+        verify( scheduler ).schedule( eq( JobScheduler.Groups.transactionLogCompression ), any( Runnable.class ) );
+        verifyNoMoreInteractions( fs );
+    }
 }
@@ -59,6 +59,13 @@ public class LuceneIndexAccessor implements IndexAccessor
         return new LuceneIndexUpdater( mode.requiresIdempotency(), mode.requiresRefresh() );
     }
 
+    @Override
+    public boolean supportsConcurrentUpdaters()
+    {
+        // Every updater writes through the same index writer, which coordinates concurrent writes to the partitions.
+        return true;
+    }
+
     @Override
     public void drop() throws IOException
     {
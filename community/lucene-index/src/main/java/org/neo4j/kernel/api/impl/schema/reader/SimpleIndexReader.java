@@ -133,6 +133,15 @@ public class SimpleIndexReader extends AbstractIndexReader
             assertNotComposite( predicates );
             IndexQuery.StringSuffixPredicate ssp = (IndexQuery.StringSuffixPredicate) predicate;
             return endsWith( ssp.suffix() );
+        case rangeGeometric:
+            assertNotComposite( predicates );
+            // Points are not indexed by their coordinates, so all entries are candidates and are filtered by the caller,
+            // since this reader does not have full number precision
+            return scan();
+        case rangeTemporal:
+            assertNotComposite( predicates );
+            // Temporal values are not indexed by their order, so all entries are candidates and are filtered by the caller
+            return scan();
         default:
             // todo figure out a more specific exception
             throw new RuntimeException( "Index query not supported: " + Arrays.toString( predicates ) );
@@ -34,6 +34,7 @@ import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.kernel.api.index.SchemaIndexProvider;
 import org.neo4j.kernel.configuration.Settings;
 import org.neo4j.kernel.impl.index.schema.NumberSchemaIndexProvider;
+import org.neo4j.kernel.impl.index.schema.StringSchemaIndexProvider;
 import org.neo4j.kernel.internal.GraphDatabaseAPI;
 import org.neo4j.test.rule.DatabaseRule;
 import org.neo4j.test.rule.EmbeddedDatabaseRule;
@@ -76,6 +77,21 @@ public class FusionIndexIT
         verifyContent();
     }
 
+    @Test
+    public void mustRebuildFusionIndexIfStringPartIsMissing() throws Exception
+    {
+        // given
+        initializeIndexWithDataAndShutdown();
+
+        // when
+        SchemaIndexProvider.Descriptor descriptor = StringSchemaIndexProvider.STRING_PROVIDER_DESCRIPTOR;
+        deleteIndexFilesFor( descriptor );
+
+        // then
+        // ... should rebuild
+        verifyContent();
+    }
+
     @Test
     public void mustRebuildFusionIndexIfLucenePartIsMissing() throws Exception
     {
@@ -100,8 +116,10 @@ public class FusionIndexIT
         // when
         SchemaIndexProvider.Descriptor luceneDescriptor = LuceneSchemaIndexProviderFactory.PROVIDER_DESCRIPTOR;
         SchemaIndexProvider.Descriptor nativeDescriptor = NumberSchemaIndexProvider.NATIVE_PROVIDER_DESCRIPTOR;
+        SchemaIndexProvider.Descriptor stringDescriptor = StringSchemaIndexProvider.STRING_PROVIDER_DESCRIPTOR;
         deleteIndexFilesFor( luceneDescriptor );
         deleteIndexFilesFor( nativeDescriptor );
+        deleteIndexFilesFor( stringDescriptor );
 
         // then
         // ... should rebuild
@@ -235,33 +235,63 @@ public abstract class SpaceFillingCurve
      */
     public List<LongRange> getTilesIntersectingEnvelope( Envelope referenceEnvelope )
     {
+        return getTilesIntersectingEnvelope( referenceEnvelope, maxLevel );
+    }
+
+    /**
+     * Given an envelope, find a collection of LongRange of tiles intersecting it, but search no deeper than the given depth.
+     * Tiles at that depth which only partly intersect the envelope are included as a whole, so the ranges can include values
+     * of coordinates outside of the envelope. Users of the ranges need to filter those out by their exact coordinates.
+     */
+    public List<LongRange> getTilesIntersectingEnvelope( Envelope referenceEnvelope, int maxDepth )
+    {
+        assertValidLevel( maxDepth );
         SearchEnvelope search = new SearchEnvelope( referenceEnvelope );
         ArrayList<LongRange> results = new ArrayList<>();
 
-        addTilesIntersectingEnvelopeAt( search, new SearchEnvelope( 0, this.getWidth(), nbrDim ), rootCurve(), 0, this.getValueWidth(), results );
+        addTilesIntersectingEnvelopeAt( search, new SearchEnvelope( 0, this.getWidth(), nbrDim ), rootCurve(), 0, this.getValueWidth(), 0, maxDepth,
+                results );
         return results;
     }
 
+    /**
+     * Given an envelope, find the depth at which the tiles are about a quarter of the largest extent of the envelope. Searching no
+     * deeper than that depth gives a small number of ranges no matter how large the envelope is.
+     */
+    public int getSearchDepth( Envelope referenceEnvelope )
+    {
+        double ratio = Double.POSITIVE_INFINITY;
+        for ( int dim = 0; dim < nbrDim; dim++ )
+        {
+            double searchWidth = Math.min( referenceEnvelope.getWidth( dim ), range.getWidth( dim ) );
+            if ( searchWidth > 0 )
+            {
+                ratio = Math.min( ratio, range.getWidth( dim ) / searchWidth );
+            }
+        }
+        if ( ratio == Double.POSITIVE_INFINITY )
+        {
+            return maxLevel;
+        }
+        int depth = (int) Math.ceil( Math.log( ratio ) / Math.log( 2 ) ) + 2;
+        return Math.max( 1, Math.min( maxLevel, depth ) );
+    }
+
     private void addTilesIntersectingEnvelopeAt( SearchEnvelope search, SearchEnvelope currentExtent, CurveRule curve, long left, long right,
-            ArrayList<LongRange> results )
+            int depth, int maxDepth, ArrayList<LongRange> results )
     {
         if ( right - left == 1 )
         {
             long[] coord = normalizedCoordinateFor( left, maxLevel );
             if ( search.contains( coord ) )
             {
-                LongRange current = (results.size() > 0) ? results.get( results.size() - 1 ) : null;
-                if ( current != null && current.max == left - 1 )
-                {
-                    current.expandToMax( left );
-                }
-                else
-                {
-                    current = new LongRange( left );
-                    results.add( current );
-                }
+                addRange( results, left, left );
             }
         }
+        else if ( search.covers( currentExtent ) || (depth >= maxDepth && search.intersects( currentExtent )) )
+        {
+            addRange( results, left, right - 1 );
+        }
         else if ( search.intersects( currentExtent ) )
         {
             long width = (right - left) / quadFactor;
@@ -270,11 +300,28 @@ public abstract class SpaceFillingCurve
                 int npoint = curve.npointForIndex( i );
 
                 SearchEnvelope quadrant = currentExtent.quadrant( bitValues( npoint ) );
-                addTilesIntersectingEnvelopeAt( search, quadrant, curve.childAt( i ), left + i * width, left + (i + 1) * width, results );
+                addTilesIntersectingEnvelopeAt( search, quadrant, curve.childAt( i ), left + i * width, left + (i + 1) * width, depth + 1,
+                        maxDepth, results );
             }
         }
     }
 
+    /**
+     * Add a range of tiles to the results, merging it with the last range if they are adjacent
+     */
+    private static void addRange( ArrayList<LongRange> results, long min, long max )
+    {
+        LongRange current = (results.size() > 0) ? results.get( results.size() - 1 ) : null;
+        if ( current != null && current.max == min - 1 )
+        {
+            current.expandToMax( max );
+        }
+        else
+        {
+            results.add( new LongRange( min, max ) );
+        }
+    }
+
     /**
      * Bit index describing the in which quadrant an npoint corresponds to
      */
@@ -461,6 +508,21 @@ public abstract class SpaceFillingCurve
             return true;
         }
 
+        /**
+         * The extent of a quadrant excludes its max, while this search envelope includes its max
+         */
+        private boolean covers( SearchEnvelope quadrant )
+        {
+            for ( int dim = 0; dim < nbrDim; dim++ )
+            {
+                if ( quadrant.min[dim] < min[dim] || max[dim] < quadrant.max[dim] - 1 )
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+
         private boolean intersects( SearchEnvelope other )
         {
             for ( int dim = 0; dim < nbrDim; dim++ )
@@ -23,6 +23,7 @@ import org.junit.Test;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 
 import org.neo4j.gis.spatial.index.Envelope;
 
@@ -159,6 +160,39 @@ public class SpaceFillingCurveTest
         }
     }
 
+    @Test
+    public void shouldGetFewCoveringSearchRangesWhenSearchDepthIsLimited()
+    {
+        Envelope envelope = new Envelope( -180, 180, -90, 90 );
+        HilbertSpaceFillingCurve2D curve = new HilbertSpaceFillingCurve2D( envelope, 8 );
+        Random random = new Random( 42 );
+        for ( int i = 0; i < 100; i++ )
+        {
+            double x = -180 + random.nextDouble() * 300;
+            double y = -90 + random.nextDouble() * 150;
+            Envelope search = new Envelope( x, x + random.nextDouble() * 60, y, y + random.nextDouble() * 30 );
+            List<SpaceFillingCurve.LongRange> exact = curve.getTilesIntersectingEnvelope( search );
+            List<SpaceFillingCurve.LongRange> limited = curve.getTilesIntersectingEnvelope( search, curve.getSearchDepth( search ) );
+
+            assertThat( "Limited search should give few ranges", limited.size(), lessThanOrEqualTo( 64 ) );
+            for ( SpaceFillingCurve.LongRange range : exact )
+            {
+                assertThat( "Tiles " + range + " should be covered by " + limited, covers( limited, range ), equalTo( true ) );
+            }
+        }
+    }
+
+    @Test
+    public void shouldSearchDeeperForSmallerEnvelopes()
+    {
+        Envelope envelope = new Envelope( -8, 8, -8, 8 );
+        HilbertSpaceFillingCurve2D curve = new HilbertSpaceFillingCurve2D( envelope, 10 );
+        assertThat( curve.getSearchDepth( new Envelope( -8, 8, -8, 8 ) ), equalTo( 2 ) );
+        assertThat( curve.getSearchDepth( new Envelope( 0, 4, 0, 4 ) ), equalTo( 4 ) );
+        assertThat( curve.getSearchDepth( new Envelope( 0, 1, 0, 1 ) ), equalTo( 6 ) );
+        assertThat( curve.getSearchDepth( new Envelope( 0, 0, 0, 0 ) ), equalTo( 10 ) );
+    }
+
     //
     // Set of tests for 2D HilbertCurve at various levels
     //
@@ -633,6 +667,18 @@ public class SpaceFillingCurveTest
     // Test utilities and grouped/complex assertions for 2D and 3D Hilbert Curves
     //
 
+    private static boolean covers( List<SpaceFillingCurve.LongRange> ranges, SpaceFillingCurve.LongRange range )
+    {
+        for ( SpaceFillingCurve.LongRange candidate : ranges )
+        {
+            if ( candidate.min <= range.min && range.max <= candidate.max )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private void assertTiles( List<SpaceFillingCurve.LongRange> results, SpaceFillingCurve.LongRange... expected )
     {
         assertThat( "Result differ: " + results + " != " + Arrays.toString( expected ), results.size(), equalTo( expected.length ) );
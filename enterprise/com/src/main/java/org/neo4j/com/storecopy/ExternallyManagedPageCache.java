@@ -92,6 +92,12 @@ public class ExternallyManagedPageCache implements PageCache
         delegate.flushAndForce( limiter );
     }
 
+    @Override
+    public void flush( IOLimiter limiter ) throws IOException
+    {
+        delegate.flush( limiter );
+    }
+
     @Override
     public int pageSize()
     {
@@ -20,6 +20,7 @@
 package org.neo4j.internal.cypher.acceptance
 
 import org.neo4j.cypher.ExecutionEngineFunSuite
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.IndexSeekByRange
 import org.neo4j.graphdb.spatial.Point
 import org.neo4j.internal.cypher.acceptance.CypherComparisonSupport.Versions.V3_1
 import org.neo4j.internal.cypher.acceptance.CypherComparisonSupport._
@@ -195,6 +196,26 @@ class SpatialFunctionsAcceptanceTest extends ExecutionEngineFunSuite with Cypher
     Math.round(result.columnAs("dist").next().asInstanceOf[Double]) should equal(27842)
   }
 
+  test("distance function should find the points within a distance with an index seek") {
+    // Given
+    graph.createIndex("Place", "location")
+    graph.execute("CREATE (:Place {name: 'Copenhagen', location: point({latitude: 55.672874, longitude: 12.564590})})")
+    graph.execute("CREATE (:Place {name: 'Malmo', location: point({latitude: 55.611784, longitude: 12.994341})})")
+    graph.execute("CREATE (:Place {name: 'London', location: point({latitude: 51.507351, longitude: -0.127758})})")
+
+    // When
+    val query =
+      """MATCH (p:Place)
+        |WHERE distance(p.location, point({latitude: 55.672874, longitude: 12.564590})) < 30000
+        |RETURN p.name AS name""".stripMargin
+    val result = executeWith(Configs.Interpreted - Configs.Version2_3, query,
+      planComparisonStrategy = ComparePlansWithAssertion(_ should useOperators(IndexSeekByRange.name),
+        expectPlansToFail = Configs.AllRulePlanners + Configs.BackwardsCompatibility))
+
+    // Then
+    result.columnAs[String]("name").toSet should equal(Set("Copenhagen", "Malmo"))
+  }
+
   test("distance function should work with two null inputs") {
     val result = executeWith(expectedToSucceed, "RETURN distance(null, null) as dist")
     result.toList should equal(List(Map("dist" -> null)))
@@ -27,6 +27,7 @@ import org.neo4j.causalclustering.core.consensus.CoreMetaData;
 import org.neo4j.io.pagecache.monitoring.PageCacheCounters;
 import org.neo4j.kernel.configuration.Config;
 import org.neo4j.kernel.ha.cluster.member.ClusterMembers;
+import org.neo4j.kernel.impl.api.LogForceMonitor;
 import org.neo4j.kernel.impl.api.LogRotationMonitor;
 import org.neo4j.kernel.impl.factory.Edition;
 import org.neo4j.kernel.impl.factory.OperationalMode;
@@ -80,6 +81,8 @@ public class Neo4jMetricsBuilder
 
         LogRotationMonitor logRotationMonitor();
 
+        LogForceMonitor logForceMonitor();
+
         StoreEntityCounters entityCountStats();
 
         Supplier<ClusterMembers> clusterMembers();
@@ -107,7 +110,7 @@ public class Neo4jMetricsBuilder
         if ( config.get( MetricsSettings.neoTxEnabled ) )
         {
             life.add( new TransactionMetrics( registry, dependencies.transactionIdStore(),
-                    dependencies.transactionCounters() ) );
+                    dependencies.transactionCounters(), dependencies.logForceMonitor() ) );
             result = true;
         }
 
@@ -47,6 +47,12 @@ public class PageCacheMetrics extends LifecycleAdapter
     public static final String PC_PAGE_FAULTS = name( PAGE_CACHE_PREFIX, "page_faults" );
     @Documented( "The total number of page hits happened in the page cache" )
     public static final String PC_HITS = name( PAGE_CACHE_PREFIX, "hits" );
+    @Documented( "The total number of pages read ahead of sequential page cursors" )
+    public static final String PC_PREFETCHES = name( PAGE_CACHE_PREFIX, "prefetches" );
+    @Documented( "The total number of page hits on pages that were read ahead of the page cursor" )
+    public static final String PC_PREFETCH_HITS = name( PAGE_CACHE_PREFIX, "prefetch_hits" );
+    @Documented( "The total number of page faults on pages that should have been read ahead of the page cursor" )
+    public static final String PC_PREFETCH_MISSES = name( PAGE_CACHE_PREFIX, "prefetch_misses" );
     @Documented( "The ratio of hits to the total number of lookups in the page cache" )
     public static final String PC_HIT_RATIO = name( PAGE_CACHE_PREFIX, "hit_ratio" );
     @Documented( "The ratio of number of used pages to total number of available pages" )
@@ -71,6 +77,9 @@ public class PageCacheMetrics extends LifecycleAdapter
         registry.register( PC_HITS, (Gauge<Long>) pageCacheCounters::hits );
         registry.register( PC_FLUSHES, (Gauge<Long>) pageCacheCounters::flushes );
         registry.register( PC_EVICTION_EXCEPTIONS, (Gauge<Long>) pageCacheCounters::evictionExceptions );
+        registry.register( PC_PREFETCHES, (Gauge<Long>) pageCacheCounters::prefetches );
+        registry.register( PC_PREFETCH_HITS, (Gauge<Long>) pageCacheCounters::prefetchHits );
+        registry.register( PC_PREFETCH_MISSES, (Gauge<Long>) pageCacheCounters::prefetchMisses );
         registry.register( PC_HIT_RATIO, (Gauge<Double>) pageCacheCounters::hitRatio );
         registry.register( PC_USAGE_RATIO, (Gauge<Double>) pageCacheCounters::usageRatio );
     }
@@ -85,6 +94,9 @@ public class PageCacheMetrics extends LifecycleAdapter
         registry.remove( PC_HITS );
         registry.remove( PC_FLUSHES );
         registry.remove( PC_EVICTION_EXCEPTIONS );
+        registry.remove( PC_PREFETCHES );
+        registry.remove( PC_PREFETCH_HITS );
+        registry.remove( PC_PREFETCH_MISSES );
         registry.remove( PC_HIT_RATIO );
         registry.remove( PC_USAGE_RATIO );
     }
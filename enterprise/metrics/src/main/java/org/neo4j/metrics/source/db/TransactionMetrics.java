@@ -25,6 +25,7 @@ import com.codahale.metrics.MetricRegistry;
 import java.util.function.Supplier;
 
 import org.neo4j.kernel.impl.annotations.Documented;
+import org.neo4j.kernel.impl.api.LogForceMonitor;
 import org.neo4j.kernel.impl.transaction.TransactionCounters;
 import org.neo4j.kernel.impl.transaction.log.TransactionIdStore;
 import org.neo4j.kernel.lifecycle.LifecycleAdapter;
@@ -74,16 +75,30 @@ public class TransactionMetrics extends LifecycleAdapter
     @Documented( "The ID of the last closed transaction" )
     public static final String LAST_CLOSED_TX_ID = name( TRANSACTION_PREFIX, "last_closed_tx_id" );
 
+    @Documented( "The total number of forces of the transaction log" )
+    public static final String LOG_FORCES = name( TRANSACTION_PREFIX, "log_forces" );
+    @Documented( "The total number of transactions made durable by forces of the transaction log, " +
+                 "i.e. on average this many divided by the number of forces are committed per force" )
+    public static final String LOG_FORCED_TRANSACTIONS = name( TRANSACTION_PREFIX, "log_forced_transactions" );
+    @Documented( "The total number of forces of the transaction log per batch size, where the batch size is the " +
+                 "number of transactions made durable by a force. There is one metric per power of two batch size, " +
+                 "counting the forces of batches of at least that size, up to the next power of two, " +
+                 "e.g. log_forces_batch_size.4 counts forces of four to seven transactions" )
+    public static final String LOG_FORCES_BATCH_SIZE = name( TRANSACTION_PREFIX, "log_forces_batch_size" );
+
     private final MetricRegistry registry;
     private final TransactionCounters transactionCounters;
     private final Supplier<TransactionIdStore> transactionIdStore;
+    private final LogForceMonitor logForceMonitor;
 
     public TransactionMetrics( MetricRegistry registry,
-            Supplier<TransactionIdStore> transactionIdStore, TransactionCounters transactionCounters )
+            Supplier<TransactionIdStore> transactionIdStore, TransactionCounters transactionCounters,
+            LogForceMonitor logForceMonitor )
     {
         this.registry = registry;
         this.transactionIdStore = transactionIdStore;
         this.transactionCounters = transactionCounters;
+        this.logForceMonitor = logForceMonitor;
     }
 
     @Override
@@ -118,6 +133,15 @@ public class TransactionMetrics extends LifecycleAdapter
                 transactionIdStore.get().getLastCommittedTransactionId() );
         registry.register( LAST_CLOSED_TX_ID, (Gauge<Long>) () ->
                 transactionIdStore.get().getLastClosedTransactionId() );
+
+        registry.register( LOG_FORCES, (Gauge<Long>) logForceMonitor::numberOfLogForces );
+        registry.register( LOG_FORCED_TRANSACTIONS, (Gauge<Long>) logForceMonitor::numberOfForcedAppends );
+        for ( int bucket = 0; bucket < LogForceMonitor.BATCH_SIZE_BUCKETS; bucket++ )
+        {
+            int batchSizeBucket = bucket;
+            registry.register( logForcesBatchSize( bucket ),
+                    (Gauge<Long>) () -> logForceMonitor.numberOfLogForcesInBatchSizeBucket( batchSizeBucket ) );
+        }
     }
 
     @Override
@@ -144,5 +168,17 @@ public class TransactionMetrics extends LifecycleAdapter
 
         registry.remove( LAST_COMMITTED_TX_ID );
         registry.remove( LAST_CLOSED_TX_ID );
+
+        registry.remove( LOG_FORCES );
+        registry.remove( LOG_FORCED_TRANSACTIONS );
+        for ( int bucket = 0; bucket < LogForceMonitor.BATCH_SIZE_BUCKETS; bucket++ )
+        {
+            registry.remove( logForcesBatchSize( bucket ) );
+        }
+    }
+
+    private static String logForcesBatchSize( int bucket )
+    {
+        return name( LOG_FORCES_BATCH_SIZE, String.valueOf( LogForceMonitor.batchSizeLowerBound( bucket ) ) );
     }
 }
@@ -0,0 +1,320 @@
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.tools.pagecache;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.neo4j.collection.primitive.Primitive;
+import org.neo4j.collection.primitive.PrimitiveLongSet;
+import org.neo4j.helpers.Args;
+import org.neo4j.io.mem.MemoryAllocator;
+import org.neo4j.io.pagecache.PageCacheAlgorithmFactory;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.impl.muninn.MuninnPageCache;
+import org.neo4j.io.pagecache.impl.muninn.PageCacheAlgorithm.PageCacheAlgorithmFactories;
+import org.neo4j.io.pagecache.impl.muninn.PageList;
+import org.neo4j.io.pagecache.tracing.DefaultPageCacheTracer;
+import org.neo4j.io.pagecache.tracing.cursor.DefaultPageCursorTracer;
+import org.neo4j.io.pagecache.tracing.trace.PageAccessTraceReader;
+import org.neo4j.memory.GlobalMemoryTracker;
+
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
+
+/**
+ * Tool that replays a page access trace, as recorded by the {@code page_cache_access_trace} tracer, against the page
+ * cache eviction algorithms at various cache sizes, and reports how well each of them did.
+ * <p>
+ * Every combination of algorithm and cache size gets its own page cache, which the accesses of the trace are replayed
+ * against in a single thread, in the order they appear in the trace. The page cache does not touch any storage, but
+ * otherwise does all of its usual work, so the CPU time per access compares the cost of the algorithms.
+ * <p>
+ * Usage: {@code ReplayPageCacheTrace [--algorithms=lfu,lru,...] [--cache-sizes=1000,10000,...] <trace file>}
+ * <p>
+ * The cache sizes are numbers of pages. By default, the trace is replayed against all of the built-in algorithms, at
+ * 5%, 10%, 25% and 50% of the number of distinct pages in the trace.
+ */
+public class ReplayPageCacheTrace
+{
+    private static final String ALGORITHMS = "algorithms";
+    private static final String CACHE_SIZES = "cache-sizes";
+    private static final String HELP_FLAG = "help";
+    private static final String SEPARATOR = ",";
+    private static final String[] ALL_ALGORITHMS = {
+            PageCacheAlgorithmFactories.LFU, PageCacheAlgorithmFactories.LRU, PageCacheAlgorithmFactories.LRU_K,
+            PageCacheAlgorithmFactories.TWO_QUEUE, PageCacheAlgorithmFactories.TINY_LFU,
+            PageCacheAlgorithmFactories.CLOCK};
+    private static final double[] DEFAULT_CACHE_SIZE_RATIOS = {0.05, 0.10, 0.25, 0.50};
+    private static final int MINIMUM_CACHE_PAGES = 64;
+
+    // The pages in the replay caches only need to be big enough to map the traced files; the data is never looked at.
+    static final int REPLAY_PAGE_SIZE = 256;
+
+    private final File traceFile;
+    private final PrintStream out;
+
+    public ReplayPageCacheTrace( File traceFile, PrintStream out )
+    {
+        this.traceFile = traceFile;
+        this.out = out;
+    }
+
+    public static void main( String[] args ) throws IOException
+    {
+        PrintStream out = System.out;
+        Args arguments = Args.withFlags( HELP_FLAG ).parse( args );
+        if ( arguments.getBoolean( HELP_FLAG ) || arguments.orphans().size() != 1 )
+        {
+            printUsageAndExit( out );
+        }
+
+        File traceFile = new File( arguments.orphans().get( 0 ) );
+        ReplayPageCacheTrace tool = new ReplayPageCacheTrace( traceFile, out );
+        TraceSummary summary = tool.summarize();
+        out.println( "Trace " + traceFile + " has " + summary.accessCount + " accesses to " +
+                     summary.distinctPageCount + " distinct pages in " + summary.lastPageIds.size() + " files" );
+
+        List<PageCacheAlgorithmFactory> algorithms = parseAlgorithms( arguments, out );
+        List<Integer> cacheSizes = parseCacheSizes( arguments, summary, out );
+        out.println( String.format( "%-10s %12s %12s %12s %9s %12s %12s",
+                "algorithm", "cache pages", "hits", "faults", "hit ratio", "evictions", "ns/access" ) );
+        for ( int cacheSize : cacheSizes )
+        {
+            for ( PageCacheAlgorithmFactory algorithm : algorithms )
+            {
+                Result result = tool.replay( algorithm, cacheSize, summary );
+                out.println( String.format( "%-10s %12d %12d %12d %9.4f %12d %12.1f",
+                        algorithm.implementationName(), cacheSize, result.hits, result.faults, result.hitRatio(),
+                        result.evictions, result.cpuNanosPerAccess() ) );
+            }
+        }
+    }
+
+    private static List<PageCacheAlgorithmFactory> parseAlgorithms( Args arguments, PrintStream out )
+    {
+        String[] names = arguments.has( ALGORITHMS ) ? arguments.get( ALGORITHMS ).split( SEPARATOR ) : ALL_ALGORITHMS;
+        List<PageCacheAlgorithmFactory> algorithms = new ArrayList<>();
+        for ( String name : names )
+        {
+            PageCacheAlgorithmFactory algorithm = PageCacheAlgorithmFactories.byName( name.trim() );
+            if ( algorithm == null )
+            {
+                out.println( "Unknown page cache eviction algorithm '" + name + "'" );
+                printUsageAndExit( out );
+            }
+            algorithms.add( algorithm );
+        }
+        return algorithms;
+    }
+
+    private static List<Integer> parseCacheSizes( Args arguments, TraceSummary summary, PrintStream out )
+    {
+        List<Integer> cacheSizes = new ArrayList<>();
+        if ( arguments.has( CACHE_SIZES ) )
+        {
+            for ( String size : arguments.get( CACHE_SIZES ).split( SEPARATOR ) )
+            {
+                try
+                {
+                    cacheSizes.add( Math.max( MINIMUM_CACHE_PAGES, Integer.parseInt( size.trim() ) ) );
+                }
+                catch ( NumberFormatException e )
+                {
+                    out.println( "Cache size '" + size + "' is not a number of pages" );
+                    printUsageAndExit( out );
+                }
+            }
+        }
+        else
+        {
+            for ( double ratio : DEFAULT_CACHE_SIZE_RATIOS )
+            {
+                cacheSizes.add( (int) Math.max( MINIMUM_CACHE_PAGES, summary.distinctPageCount * ratio ) );
+            }
+        }
+        return cacheSizes;
+    }
+
+    private static void printUsageAndExit( PrintStream out )
+    {
+        out.println( "Usage: ReplayPageCacheTrace [--" + ALGORITHMS + "=<algorithm>[,<algorithm>...]] " +
+                     "[--" + CACHE_SIZES + "=<pages>[,<pages>...]] <trace file>" );
+        out.println( "Replays a page cache access trace against page cache eviction algorithms at various cache " +
+                     "sizes, and reports their hit ratios, evictions and CPU cost." );
+        out.println( "The built-in algorithms are " + String.join( SEPARATOR, ALL_ALGORITHMS ) + "." );
+        System.exit( 1 );
+    }
+
+    /**
+     * Read through the trace, to find the files and pages that it accesses.
+     */
+    TraceSummary summarize() throws IOException
+    {
+        TraceSummary summary = new TraceSummary();
+        try ( PageAccessTraceReader reader = openTrace();
+              PrimitiveLongSet distinctPages = Primitive.longSet() )
+        {
+            while ( reader.next() )
+            {
+                summary.accessCount++;
+                summary.lastPageIds.merge( reader.file( reader.fileId() ), reader.filePageId(), Math::max );
+                distinctPages.add( ((long) reader.fileId() << 48) | reader.filePageId() );
+            }
+            summary.distinctPageCount = distinctPages.size();
+        }
+        return summary;
+    }
+
+    /**
+     * Replay the trace against a page cache with the given eviction algorithm and number of pages.
+     */
+    @SuppressWarnings( "deprecation" )
+    Result replay( PageCacheAlgorithmFactory algorithm, int cachePages, TraceSummary summary ) throws IOException
+    {
+        DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+        DefaultPageCursorTracer cursorTracer = new DefaultPageCursorTracer();
+        long memory = (long) cachePages * (REPLAY_PAGE_SIZE + PageList.META_DATA_BYTES_PER_PAGE);
+        MemoryAllocator allocator = MemoryAllocator.createAllocator( String.valueOf( memory ),
+                GlobalMemoryTracker.INSTANCE );
+        ReplayPageSwapperFactory swapperFactory = new ReplayPageSwapperFactory( summary.lastPageIds );
+        Map<Integer,ReplayFile> files = new HashMap<>();
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long accesses = 0;
+        long cpuTime;
+        try ( MuninnPageCache pageCache = new MuninnPageCache( swapperFactory, allocator, REPLAY_PAGE_SIZE, algorithm,
+                tracer, () -> cursorTracer );
+              PageAccessTraceReader reader = openTrace() )
+        {
+            long startCpuTime = cpuTime( threads );
+            try
+            {
+                while ( reader.next() )
+                {
+                    ReplayFile file = files.get( reader.fileId() );
+                    if ( file == null )
+                    {
+                        file = new ReplayFile( pageCache.map( reader.file( reader.fileId() ), REPLAY_PAGE_SIZE ) );
+                        files.put( reader.fileId(), file );
+                    }
+                    file.access( reader.filePageId(), reader.isWrite() );
+                    accesses++;
+                }
+                cpuTime = cpuTime( threads ) - startCpuTime;
+            }
+            finally
+            {
+                for ( ReplayFile file : files.values() )
+                {
+                    file.close();
+                }
+            }
+        }
+        cursorTracer.reportEvents();
+        // A cursor that is asked for the page it is already on does not pin it again, so count hits as non-faults.
+        long faults = cursorTracer.accumulatedFaults();
+        return new Result( accesses - faults, faults, tracer.evictions(), accesses, cpuTime );
+    }
+
+    private static long cpuTime( ThreadMXBean threads )
+    {
+        return threads.isCurrentThreadCpuTimeSupported() ? threads.getCurrentThreadCpuTime() : System.nanoTime();
+    }
+
+    private PageAccessTraceReader openTrace() throws IOException
+    {
+        return new PageAccessTraceReader( new FileInputStream( traceFile ) );
+    }
+
+    static class TraceSummary
+    {
+        final Map<File,Long> lastPageIds = new HashMap<>();
+        long accessCount;
+        long distinctPageCount;
+    }
+
+    static class Result
+    {
+        final long hits;
+        final long faults;
+        final long evictions;
+        final long accesses;
+        final long cpuTime;
+
+        Result( long hits, long faults, long evictions, long accesses, long cpuTime )
+        {
+            this.hits = hits;
+            this.faults = faults;
+            this.evictions = evictions;
+            this.accesses = accesses;
+            this.cpuTime = cpuTime;
+        }
+
+        double hitRatio()
+        {
+            return accesses == 0 ? 0 : (double) hits / accesses;
+        }
+
+        double cpuNanosPerAccess()
+        {
+            return accesses == 0 ? 0 : (double) cpuTime / accesses;
+        }
+    }
+
+    /**
+     * A traced file that is mapped into a replay page cache, with a read and a write cursor to replay the accesses to
+     * it with.
+     */
+    private static class ReplayFile implements AutoCloseable
+    {
+        private final PagedFile pagedFile;
+        private final PageCursor readCursor;
+        private final PageCursor writeCursor;
+
+        ReplayFile( PagedFile pagedFile ) throws IOException
+        {
+            this.pagedFile = pagedFile;
+            this.readCursor = pagedFile.io( 0, PF_SHARED_READ_LOCK );
+            this.writeCursor = pagedFile.io( 0, PF_SHARED_WRITE_LOCK );
+        }
+
+        void access( long filePageId, boolean write ) throws IOException
+        {
+            (write ? writeCursor : readCursor).next( filePageId );
+        }
+
+        @Override
+        public void close() throws IOException
+        {
+            readCursor.close();
+            writeCursor.close();
+            pagedFile.close();
+        }
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.tools.pagecache;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.neo4j.graphdb.config.Configuration;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageEvictionCallback;
+import org.neo4j.io.pagecache.PageSwapper;
+import org.neo4j.io.pagecache.PageSwapperFactory;
+
+/**
+ * Creates page swappers for files that only exist in a page access trace. Reads and writes do not touch any storage;
+ * they only report that whole pages were moved, so the page cache does all of its usual work around them.
+ */
+class ReplayPageSwapperFactory implements PageSwapperFactory
+{
+    private final Map<File,Long> lastPageIds;
+
+    /**
+     * @param lastPageIds the highest file page id that is accessed in each of the traced files.
+     */
+    ReplayPageSwapperFactory( Map<File,Long> lastPageIds ) throws IOException
+    {
+        // The page cache asks for swappers of canonical files, which the traced files need not be.
+        this.lastPageIds = new HashMap<>();
+        for ( Map.Entry<File,Long> entry : lastPageIds.entrySet() )
+        {
+            this.lastPageIds.put( entry.getKey().getCanonicalFile(), entry.getValue() );
+        }
+    }
+
+    @Override
+    public void open( FileSystemAbstraction fs, Configuration config )
+    {
+    }
+
+    @Override
+    public FileSystemAbstraction getFileSystemAbstraction()
+    {
+        return null;
+    }
+
+    @Override
+    public String implementationName()
+    {
+        return "replay";
+    }
+
+    @Override
+    public long getRequiredBufferAlignment()
+    {
+        return Long.BYTES;
+    }
+
+    @Override
+    public PageSwapper createPageSwapper( File file, int filePageSize, PageEvictionCallback onEviction,
+            boolean createIfNotExist )
+    {
+        return new ReplayPageSwapper( file, filePageSize, lastPageIds.getOrDefault( file, -1L ), onEviction );
+    }
+
+    @Override
+    public void syncDevice()
+    {
+    }
+
+    @Override
+    public void close()
+    {
+    }
+
+    private static class ReplayPageSwapper implements PageSwapper
+    {
+        private final File file;
+        private final int filePageSize;
+        private final PageEvictionCallback onEviction;
+        private volatile long lastPageId;
+
+        ReplayPageSwapper( File file, int filePageSize, long lastPageId, PageEvictionCallback onEviction )
+        {
+            this.file = file;
+            this.filePageSize = filePageSize;
+            this.lastPageId = lastPageId;
+            this.onEviction = onEviction;
+        }
+
+        @Override
+        public long read( long filePageId, long bufferAddress, int bufferSize )
+        {
+            return bufferSize;
+        }
+
+        @Override
+        public long read( long startFilePageId, long[] bufferAddresses, int bufferSize, int arrayOffset, int length )
+        {
+            return (long) bufferSize * length;
+        }
+
+        @Override
+        public long write( long filePageId, long bufferAddress )
+        {
+            lastPageId = Math.max( lastPageId, filePageId );
+            return filePageSize;
+        }
+
+        @Override
+        public long write( long startFilePageId, long[] bufferAddresses, int arrayOffset, int length )
+        {
+            lastPageId = Math.max( lastPageId, startFilePageId + length - 1 );
+            return (long) filePageSize * length;
+        }
+
+        @Override
+        public void evicted( long pageId )
+        {
+            onEviction.onEvict( pageId );
+        }
+
+        @Override
+        public File file()
+        {
+            return file;
+        }
+
+        @Override
+        public void close()
+        {
+        }
+
+        @Override
+        public void closeAndDelete()
+        {
+        }
+
+        @Override
+        public void force()
+        {
+        }
+
+        @Override
+        public long getLastPageId()
+        {
+            return lastPageId;
+        }
+
+        @Override
+        public void truncate()
+        {
+            lastPageId = -1;
+        }
+    }
+}
@@ -37,10 +37,12 @@ import org.neo4j.kernel.impl.transaction.log.ReaderLogVersionBridge;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryReader;
 import org.neo4j.kernel.impl.transaction.log.entry.LogHeader;
 import org.neo4j.kernel.impl.transaction.log.entry.VersionAwareLogEntryReader;
+import org.neo4j.kernel.impl.transaction.log.files.CompressedLogChannel;
 import org.neo4j.kernel.impl.transaction.log.files.LogFiles;
 
 import static org.neo4j.kernel.impl.transaction.log.entry.LogHeader.LOG_HEADER_SIZE;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogHeaderReader.readLogHeader;
+import static org.neo4j.kernel.impl.transaction.log.files.TransactionLogFileCompressor.COMPRESSED_LOG_VERSION;
 
 public class TransactionLogUtils
 {
@@ -84,7 +86,13 @@ public class TransactionLogUtils
     public static LogVersionedStoreChannel openVersionedChannel( FileSystemAbstraction fileSystem, File file ) throws IOException
     {
         StoreChannel fileChannel = fileSystem.open( file, OpenMode.READ );
-        LogHeader logHeader = readLogHeader( ByteBuffer.allocateDirect( LOG_HEADER_SIZE ), fileChannel, true, file );
+        ByteBuffer buffer = ByteBuffer.allocateDirect( LOG_HEADER_SIZE );
+        LogHeader logHeader = readLogHeader( buffer, fileChannel, true, file );
+        if ( logHeader.logFormatVersion == COMPRESSED_LOG_VERSION )
+        {
+            fileChannel = new CompressedLogChannel( fileChannel );
+            logHeader = readLogHeader( buffer, fileChannel, true, file );
+        }
         PhysicalLogVersionedStoreChannel channel =
                 new PhysicalLogVersionedStoreChannel( fileChannel, logHeader.logVersion, logHeader.logFormatVersion );
         return channel;
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.tools.pagecache;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+
+import org.neo4j.io.pagecache.PageSwapper;
+import org.neo4j.io.pagecache.tracing.DummyPageSwapper;
+import org.neo4j.io.pagecache.tracing.trace.PageAccessTraceWriter;
+import org.neo4j.io.pagecache.tracing.trace.TraceWritingPageCacheTracer;
+import org.neo4j.io.pagecache.tracing.trace.TraceWritingPageCursorTracer;
+import org.neo4j.test.rule.TestDirectory;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static org.neo4j.io.pagecache.impl.muninn.PageCacheAlgorithm.PageCacheAlgorithmFactories.lru;
+
+public class ReplayPageCacheTraceTest
+{
+    private static final int PAGES_OF_A = 100;
+    private static final int PAGES_OF_B = 10;
+    private static final int ACCESSES = PAGES_OF_A * 2 + PAGES_OF_B;
+    private static final int DISTINCT_PAGES = PAGES_OF_A + PAGES_OF_B;
+
+    @Rule
+    public final TestDirectory testDirectory = TestDirectory.testDirectory();
+
+    private final PageSwapper swapperA = new DummyPageSwapper( "a", 8192 );
+    private final PageSwapper swapperB = new DummyPageSwapper( "b", 8192 );
+    private ReplayPageCacheTrace tool;
+
+    @Before
+    public void recordTrace() throws IOException
+    {
+        // Read all of a, write all of b, and then read all of a again.
+        File traceFile = testDirectory.file( "trace" );
+        PageAccessTraceWriter traceWriter = new PageAccessTraceWriter( new FileOutputStream( traceFile ) );
+        try ( TraceWritingPageCacheTracer cacheTracer = new TraceWritingPageCacheTracer( traceWriter ) )
+        {
+            TraceWritingPageCursorTracer cursorTracer = new TraceWritingPageCursorTracer();
+            cursorTracer.init( cacheTracer );
+            pinAll( cursorTracer, swapperA, PAGES_OF_A, false );
+            pinAll( cursorTracer, swapperB, PAGES_OF_B, true );
+            pinAll( cursorTracer, swapperA, PAGES_OF_A, false );
+            cursorTracer.reportEvents();
+        }
+        tool = new ReplayPageCacheTrace( traceFile, new PrintStream( new ByteArrayOutputStream() ) );
+    }
+
+    @Test
+    public void mustSummarizeRecordedTrace() throws IOException
+    {
+        ReplayPageCacheTrace.TraceSummary summary = tool.summarize();
+
+        assertEquals( ACCESSES, summary.accessCount );
+        assertEquals( DISTINCT_PAGES, summary.distinctPageCount );
+        assertEquals( 2, summary.lastPageIds.size() );
+        assertEquals( PAGES_OF_A - 1, (long) summary.lastPageIds.get( swapperA.file() ) );
+        assertEquals( PAGES_OF_B - 1, (long) summary.lastPageIds.get( swapperB.file() ) );
+    }
+
+    @Test
+    public void replayInCacheThatHoldsEveryPageMustOnlyFaultEveryPageOnce() throws IOException
+    {
+        ReplayPageCacheTrace.TraceSummary summary = tool.summarize();
+
+        ReplayPageCacheTrace.Result result = tool.replay( lru(), DISTINCT_PAGES * 2, summary );
+
+        assertEquals( ACCESSES, result.accesses );
+        assertEquals( DISTINCT_PAGES, result.faults );
+        assertEquals( ACCESSES - DISTINCT_PAGES, result.hits );
+        assertEquals( 0, result.evictions );
+    }
+
+    @Test
+    public void replayInCacheSmallerThanTraceMustEvict() throws IOException
+    {
+        ReplayPageCacheTrace.TraceSummary summary = tool.summarize();
+
+        ReplayPageCacheTrace.Result result = tool.replay( lru(), DISTINCT_PAGES / 2, summary );
+
+        assertEquals( ACCESSES, result.accesses );
+        assertEquals( ACCESSES, result.hits + result.faults );
+        assertThat( result.faults, greaterThan( (long) DISTINCT_PAGES ) );
+        assertThat( result.evictions, greaterThan( 0L ) );
+    }
+
+    private static void pinAll( TraceWritingPageCursorTracer cursorTracer, PageSwapper swapper, int pages,
+            boolean write )
+    {
+        for ( int filePageId = 0; filePageId < pages; filePageId++ )
+        {
+            cursorTracer.beginPin( write, filePageId, swapper ).done();
+        }
+    }
+}